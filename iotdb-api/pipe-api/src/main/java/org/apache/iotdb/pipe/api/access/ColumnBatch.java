@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.iotdb.pipe.api.access;
+
+import org.apache.iotdb.pipe.api.type.Type;
+
+import org.apache.tsfile.utils.Binary;
+
+import java.time.LocalDate;
+
+/**
+ * A batch of rows of a device stored column by column. The time column and the value columns are
+ * the primitive arrays backing the batch, so they can be processed without boxing the values.
+ *
+ * <p>The arrays returned may be longer than {@link #getRowCount()}, only the first {@link
+ * #getRowCount()} elements are valid. The arrays are shared with the batch and must not be
+ * modified.
+ */
+public interface ColumnBatch {
+
+  /**
+   * Returns the device id of the rows in this batch.
+   *
+   * @return device id
+   */
+  String getDeviceId();
+
+  /**
+   * Returns the number of rows in this batch.
+   *
+   * @return row count
+   */
+  int getRowCount();
+
+  /**
+   * Returns the number of value columns in this batch.
+   *
+   * @return column count
+   */
+  int getColumnCount();
+
+  /**
+   * Returns the timestamps of the rows in this batch.
+   *
+   * @return the time column
+   */
+  long[] getTimes();
+
+  /**
+   * Returns the name of the specified column.
+   *
+   * @param columnIndex index of the specified column
+   * @return the name of the specified column
+   */
+  String getColumnName(final int columnIndex);
+
+  /**
+   * Returns the data type of the specified column.
+   *
+   * @param columnIndex index of the specified column
+   * @return the data type of the specified column
+   */
+  Type getDataType(final int columnIndex);
+
+  /**
+   * Returns {@code true} if the value of the specified column in the specified row is null.
+   *
+   * @param rowIndex index of the specified row
+   * @param columnIndex index of the specified column
+   * @return {@code true} if the value is null
+   */
+  boolean isNull(final int rowIndex, final int columnIndex);
+
+  /**
+   * Returns {@code true} if the specified column may contain null values. If {@code false} is
+   * returned, {@link #isNull(int, int)} can be skipped for the column.
+   *
+   * @param columnIndex index of the specified column
+   * @return {@code true} if the column may contain null values
+   */
+  boolean mayHaveNull(final int columnIndex);
+
+  /**
+   * Returns the specified column, whose data type must be {@code Type.BOOLEAN}.
+   *
+   * @param columnIndex index of the specified column
+   * @return the boolean column
+   */
+  boolean[] getBooleanColumn(final int columnIndex);
+
+  /**
+   * Returns the specified column, whose data type must be {@code Type.INT32}.
+   *
+   * @param columnIndex index of the specified column
+   * @return the int column
+   */
+  int[] getIntColumn(final int columnIndex);
+
+  /**
+   * Returns the specified column, whose data type must be {@code Type.INT64} or {@code
+   * Type.TIMESTAMP}.
+   *
+   * @param columnIndex index of the specified column
+   * @return the long column
+   */
+  long[] getLongColumn(final int columnIndex);
+
+  /**
+   * Returns the specified column, whose data type must be {@code Type.FLOAT}.
+   *
+   * @param columnIndex index of the specified column
+   * @return the float column
+   */
+  float[] getFloatColumn(final int columnIndex);
+
+  /**
+   * Returns the specified column, whose data type must be {@code Type.DOUBLE}.
+   *
+   * @param columnIndex index of the specified column
+   * @return the double column
+   */
+  double[] getDoubleColumn(final int columnIndex);
+
+  /**
+   * Returns the specified column, whose data type must be {@code Type.DATE}.
+   *
+   * @param columnIndex index of the specified column
+   * @return the date column
+   */
+  LocalDate[] getDateColumn(final int columnIndex);
+
+  /**
+   * Returns the specified column, whose data type must be {@code Type.TEXT}, {@code Type.STRING},
+   * {@code Type.BLOB} or {@code Type.OBJECT}.
+   *
+   * @param columnIndex index of the specified column
+   * @return the binary column
+   */
+  Binary[] getBinaryColumn(final int columnIndex);
+}
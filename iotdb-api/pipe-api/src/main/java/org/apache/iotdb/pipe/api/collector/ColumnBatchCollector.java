@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.iotdb.pipe.api.collector;
+
+import org.apache.iotdb.pipe.api.access.ColumnBatch;
+import org.apache.iotdb.pipe.api.event.dml.insertion.TabletInsertionEvent;
+
+import org.apache.tsfile.utils.BitMap;
+
+import java.io.IOException;
+import java.util.function.BiConsumer;
+
+/**
+ * Used to collect column batches generated by {@link
+ * TabletInsertionEvent#processColumnBatch(BiConsumer)}. Besides the tablets built by the
+ * processor, rows selected from the input {@link ColumnBatch} can be collected without copying
+ * them value by value.
+ */
+public interface ColumnBatchCollector extends TabletCollector {
+
+  /**
+   * Collects the selected rows of a batch.
+   *
+   * @param batch the batch given by {@link TabletInsertionEvent#processColumnBatch(BiConsumer)}
+   * @param rowIndexes the indexes of the selected rows in ascending order
+   * @param selectedRowCount the number of the selected rows, i.e. the valid length of rowIndexes
+   * @throws IOException if any I/O errors occur
+   */
+  void collectRows(final ColumnBatch batch, final int[] rowIndexes, final int selectedRowCount)
+      throws IOException;
+
+  /**
+   * Collects the selected rows of a batch, with some values of the rows discarded.
+   *
+   * @param batch the batch given by {@link TabletInsertionEvent#processColumnBatch(BiConsumer)}
+   * @param rowIndexes the indexes of the selected rows in ascending order
+   * @param selectedRowCount the number of the selected rows, i.e. the valid length of rowIndexes
+   * @param discardedValues one {@link BitMap} for each column marking the row indexes (in the
+   *     batch) whose values are discarded, or {@code null} if nothing is discarded in the column
+   * @throws IOException if any I/O errors occur
+   */
+  void collectRows(
+      final ColumnBatch batch,
+      final int[] rowIndexes,
+      final int selectedRowCount,
+      final BitMap[] discardedValues)
+      throws IOException;
+}
@@ -19,7 +19,9 @@
 
 package org.apache.iotdb.pipe.api.event.dml.insertion;
 
+import org.apache.iotdb.pipe.api.access.ColumnBatch;
 import org.apache.iotdb.pipe.api.access.Row;
+import org.apache.iotdb.pipe.api.collector.ColumnBatchCollector;
 import org.apache.iotdb.pipe.api.collector.RowCollector;
 import org.apache.iotdb.pipe.api.collector.TabletCollector;
 import org.apache.iotdb.pipe.api.event.Event;
@@ -56,4 +58,15 @@ public interface TabletInsertionEvent extends Event {
    */
   Iterable<TabletInsertionEvent> processTabletWithCollect(
       BiConsumer<Tablet, TabletCollector> consumer);
+
+  /**
+   * The consumer processes the data column by column, without boxing the values, and collects the
+   * results by {@link ColumnBatchCollector}. The consumer may be called more than once if the data
+   * belongs to multiple devices.
+   *
+   * @return {@code Iterable<TabletInsertionEvent>} a list of new {@link TabletInsertionEvent}
+   *     contains the results collected by the {@link ColumnBatchCollector}
+   */
+  Iterable<TabletInsertionEvent> processColumnBatch(
+      BiConsumer<ColumnBatch, ColumnBatchCollector> consumer);
 }
@@ -58,6 +58,11 @@ public class ConsumerConstant {
   public static final String MAX_POLL_PARALLELISM_KEY = "max-poll-parallelism";
   public static final int MAX_POLL_PARALLELISM_DEFAULT_VALUE = 1;
 
+  // The maximum number of messages delivered but not yet committed in the streaming mode, 0 means
+  // the streaming mode is disabled
+  public static final String STREAM_CREDITS_KEY = "stream-credits";
+  public static final int STREAM_CREDITS_DEFAULT_VALUE = 0;
+
   /////////////////////////////// pull consumer ///////////////////////////////
 
   public static final String AUTO_COMMIT_KEY = "auto-commit";
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.rpc.subscription.payload.poll;
+
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The payload of a streaming poll. Unlike {@link PollPayload}, the server keeps collecting the
+ * prefetched events of the topics until the granted credits are used up, the payload size limit is
+ * reached or the prefetching queues run dry after at least one event is collected. The request
+ * waits on the server until any event arrives or the timeout expires, so the consumer needs not
+ * poll again and again when the topics are idle.
+ */
+public class StreamPayload implements SubscriptionPollPayload {
+
+  /** The set of topic names that need to be streamed. */
+  private transient Set<String> topicNames = new HashSet<>();
+
+  /** The maximum number of events the consumer is willing to receive in this request. */
+  private transient int credits;
+
+  public StreamPayload() {}
+
+  public StreamPayload(final Set<String> topicNames, final int credits) {
+    this.topicNames = topicNames;
+    this.credits = credits;
+  }
+
+  public Set<String> getTopicNames() {
+    return topicNames;
+  }
+
+  public int getCredits() {
+    return credits;
+  }
+
+  @Override
+  public void serialize(final DataOutputStream stream) throws IOException {
+    ReadWriteIOUtils.writeObjectSet(topicNames, stream);
+    ReadWriteIOUtils.write(credits, stream);
+  }
+
+  @Override
+  public SubscriptionPollPayload deserialize(final ByteBuffer buffer) {
+    topicNames = ReadWriteIOUtils.readObjectSet(buffer);
+    credits = ReadWriteIOUtils.readInt(buffer);
+    return this;
+  }
+
+  /////////////////////////////// Object ///////////////////////////////
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    final StreamPayload that = (StreamPayload) obj;
+    return Objects.equals(this.topicNames, that.topicNames)
+        && Objects.equals(this.credits, that.credits);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(topicNames, credits);
+  }
+
+  @Override
+  public String toString() {
+    return "StreamPayload{topicNames=" + topicNames + ", credits=" + credits + "}";
+  }
+}
@@ -99,6 +99,9 @@ public class SubscriptionPollRequest {
         case POLL_TABLETS:
           payload = new PollTabletsPayload().deserialize(buffer);
           break;
+        case STREAM:
+          payload = new StreamPayload().deserialize(buffer);
+          break;
         default:
           LOGGER.warn("unexpected request type: {}, payload will be null", requestType);
           break;
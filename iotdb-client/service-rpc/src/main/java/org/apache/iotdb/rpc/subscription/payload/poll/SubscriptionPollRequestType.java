@@ -27,6 +27,7 @@ public enum SubscriptionPollRequestType {
   POLL((short) 0),
   POLL_FILE((short) 1),
   POLL_TABLETS((short) 2),
+  STREAM((short) 3),
   ;
 
   private final short type;
@@ -120,6 +120,11 @@ abstract class AbstractSubscriptionConsumer implements AutoCloseable {
   private final int thriftMaxFrameSize;
   private final int maxPollParallelism;
 
+  // The streaming mode is enabled if streamCredits is positive. The credits are taken by the
+  // delivered messages and returned when the messages are committed.
+  private final int streamCredits;
+  private final SubscriptionStreamCredits streamCreditPool;
+
   @SuppressWarnings("java:S3077")
   protected volatile Map<String, TopicConfig> subscribedTopics = new HashMap<>();
 
@@ -188,6 +193,10 @@ abstract class AbstractSubscriptionConsumer implements AutoCloseable {
 
     this.thriftMaxFrameSize = builder.thriftMaxFrameSize;
     this.maxPollParallelism = builder.maxPollParallelism;
+
+    this.streamCredits = builder.streamCredits;
+    this.streamCreditPool =
+        new SubscriptionStreamCredits(builder.streamCredits, builder.maxPollParallelism);
   }
 
   protected AbstractSubscriptionConsumer(
@@ -236,7 +245,12 @@ abstract class AbstractSubscriptionConsumer implements AutoCloseable {
                 (Integer)
                     properties.getOrDefault(
                         ConsumerConstant.MAX_POLL_PARALLELISM_KEY,
-                        ConsumerConstant.MAX_POLL_PARALLELISM_DEFAULT_VALUE)));
+                        ConsumerConstant.MAX_POLL_PARALLELISM_DEFAULT_VALUE))
+            .streamCredits(
+                (Integer)
+                    properties.getOrDefault(
+                        ConsumerConstant.STREAM_CREDITS_KEY,
+                        ConsumerConstant.STREAM_CREDITS_DEFAULT_VALUE)));
   }
 
   /////////////////////////////// open & close ///////////////////////////////
@@ -622,7 +636,10 @@ abstract class AbstractSubscriptionConsumer implements AutoCloseable {
         final List<SubscriptionMessage> currentMessages = new ArrayList<>();
         try {
           currentResponses.clear();
-          currentResponses = pollInternal(topicNames, timer.remainingMs());
+          currentResponses =
+              isStreaming()
+                  ? streamInternal(topicNames, timer.remainingMs())
+                  : pollInternal(topicNames, timer.remainingMs());
           for (final SubscriptionPollResponse response : currentResponses) {
             final short responseType = response.getResponseType();
             if (!SubscriptionPollResponseType.isValidatedResponseType(responseType)) {
@@ -649,6 +666,11 @@ abstract class AbstractSubscriptionConsumer implements AutoCloseable {
               // assume the corresponding response has been nacked
             }
           }
+          if (isStreaming()) {
+            // return the credits taken by the responses not delivered as messages
+            streamCreditPool.release(currentResponses.size() - currentMessages.size());
+            currentMessages.forEach(message -> streamCreditPool.hold(message.getCommitContext()));
+          }
         } catch (final SubscriptionRuntimeCriticalException e) {
           LOGGER.warn(
               "SubscriptionRuntimeCriticalException occurred when SubscriptionConsumer {} polling topics {}",
@@ -1077,6 +1099,43 @@ abstract class AbstractSubscriptionConsumer implements AutoCloseable {
     }
   }
 
+  private List<SubscriptionPollResponse> streamInternal(
+      final Set<String> topicNames, final long timeoutMs) throws SubscriptionException {
+    final int credits = streamCreditPool.acquire();
+    if (credits <= 0) {
+      // wait for the delivered messages to be committed
+      return Collections.emptyList();
+    }
+
+    List<SubscriptionPollResponse> responses = Collections.emptyList();
+    providers.acquireReadLock();
+    try {
+      final AbstractSubscriptionProvider provider = providers.getNextAvailableProvider();
+      if (Objects.isNull(provider) || !provider.isAvailable()) {
+        if (isClosed()) {
+          return responses;
+        }
+        throw new SubscriptionConnectionException(
+            String.format(
+                "Cluster has no available subscription providers when %s stream topic %s",
+                this, topicNames));
+      }
+      // ignore SubscriptionConnectionException to improve poll auto retry
+      try {
+        responses = provider.stream(topicNames, credits, timeoutMs);
+      } catch (final SubscriptionConnectionException ignored) {
+      }
+      return responses;
+    } finally {
+      providers.releaseReadLock();
+      streamCreditPool.release(credits - responses.size());
+    }
+  }
+
+  private boolean isStreaming() {
+    return streamCredits > 0;
+  }
+
   private List<SubscriptionPollResponse> pollFileInternal(
       final SubscriptionCommitContext commitContext, final long writingOffset, final long timeoutMs)
       throws SubscriptionException {
@@ -1140,6 +1199,9 @@ abstract class AbstractSubscriptionConsumer implements AutoCloseable {
       dataNodeIdToSubscriptionCommitContexts
           .computeIfAbsent(message.getCommitContext().getDataNodeId(), (id) -> new ArrayList<>())
           .add(message.getCommitContext());
+      // the uncommitted messages will be redelivered by the server, hence the credits are
+      // returned even if the commit fails
+      streamCreditPool.releaseHeld(message.getCommitContext());
     }
     for (final Entry<Integer, List<SubscriptionCommitContext>> entry :
         dataNodeIdToSubscriptionCommitContexts.entrySet()) {
@@ -1165,6 +1227,7 @@ abstract class AbstractSubscriptionConsumer implements AutoCloseable {
       dataNodeIdToSubscriptionCommitContexts
           .computeIfAbsent(message.getCommitContext().getDataNodeId(), (id) -> new ArrayList<>())
           .add(message.getCommitContext());
+      streamCreditPool.releaseHeld(message.getCommitContext());
     }
     for (final Entry<Integer, List<SubscriptionCommitContext>> entry :
         dataNodeIdToSubscriptionCommitContexts.entrySet()) {
@@ -1181,6 +1244,8 @@ abstract class AbstractSubscriptionConsumer implements AutoCloseable {
           .computeIfAbsent(response.getCommitContext().getDataNodeId(), (id) -> new ArrayList<>())
           .add(response.getCommitContext());
     }
+    // the responses are not delivered as messages, hence they hold no credits
+    streamCreditPool.release(responses.size());
     for (final Entry<Integer, List<SubscriptionCommitContext>> entry :
         dataNodeIdToSubscriptionCommitContexts.entrySet()) {
       commitInternal(entry.getKey(), entry.getValue(), true);
@@ -1429,6 +1494,7 @@ abstract class AbstractSubscriptionConsumer implements AutoCloseable {
     result.put("inFlightFilesCommitContextSet", inFlightFilesCommitContextSet.toString());
     result.put("thriftMaxFrameSize", String.valueOf(thriftMaxFrameSize));
     result.put("maxPollParallelism", String.valueOf(maxPollParallelism));
+    result.put("streamCredits", String.valueOf(streamCredits));
     result.put("subscribedTopics", subscribedTopics.toString());
     return result;
   }
@@ -49,6 +49,7 @@ public class AbstractSubscriptionConsumerBuilder {
 
   protected int thriftMaxFrameSize = SessionConfig.DEFAULT_MAX_FRAME_SIZE;
   protected int maxPollParallelism = ConsumerConstant.MAX_POLL_PARALLELISM_DEFAULT_VALUE;
+  protected int streamCredits = ConsumerConstant.STREAM_CREDITS_DEFAULT_VALUE;
 
   public AbstractSubscriptionConsumerBuilder host(final String host) {
     this.host = host;
@@ -127,4 +128,15 @@ public class AbstractSubscriptionConsumerBuilder {
     this.maxPollParallelism = Math.max(maxPollParallelism, 1);
     return this;
   }
+
+  /**
+   * Enable the streaming mode if the credits are positive. In the streaming mode, the server keeps
+   * delivering the prefetched messages in a poll request until the credits are used up, and waits
+   * for new messages instead of returning empty-handed. The credits are the maximum number of
+   * messages delivered but not yet committed.
+   */
+  public AbstractSubscriptionConsumerBuilder streamCredits(final int streamCredits) {
+    this.streamCredits = Math.max(streamCredits, 0);
+    return this;
+  }
 }
@@ -33,6 +33,7 @@ import org.apache.iotdb.rpc.subscription.exception.SubscriptionRuntimeNonCritica
 import org.apache.iotdb.rpc.subscription.payload.poll.PollFilePayload;
 import org.apache.iotdb.rpc.subscription.payload.poll.PollPayload;
 import org.apache.iotdb.rpc.subscription.payload.poll.PollTabletsPayload;
+import org.apache.iotdb.rpc.subscription.payload.poll.StreamPayload;
 import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionCommitContext;
 import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionPollRequest;
 import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionPollRequestType;
@@ -326,6 +327,17 @@ public abstract class AbstractSubscriptionProvider {
             session.getThriftMaxFrameSize()));
   }
 
+  List<SubscriptionPollResponse> stream(
+      final Set<String> topicNames, final int credits, final long timeoutMs)
+      throws SubscriptionException {
+    return poll(
+        new SubscriptionPollRequest(
+            SubscriptionPollRequestType.STREAM.getType(),
+            new StreamPayload(topicNames, credits),
+            timeoutMs,
+            session.getThriftMaxFrameSize()));
+  }
+
   List<SubscriptionPollResponse> pollFile(
       final SubscriptionCommitContext commitContext, final long writingOffset, final long timeoutMs)
       throws SubscriptionException {
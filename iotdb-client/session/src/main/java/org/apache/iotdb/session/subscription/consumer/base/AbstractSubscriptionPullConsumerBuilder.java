@@ -108,6 +108,12 @@ public class AbstractSubscriptionPullConsumerBuilder extends AbstractSubscriptio
     return this;
   }
 
+  @Override
+  public AbstractSubscriptionPullConsumerBuilder streamCredits(final int streamCredits) {
+    super.streamCredits(streamCredits);
+    return this;
+  }
+
   public AbstractSubscriptionPullConsumerBuilder autoCommit(final boolean autoCommit) {
     this.autoCommit = autoCommit;
     return this;
@@ -114,6 +114,12 @@ public class AbstractSubscriptionPushConsumerBuilder extends AbstractSubscriptio
     return this;
   }
 
+  @Override
+  public AbstractSubscriptionPushConsumerBuilder streamCredits(final int streamCredits) {
+    super.streamCredits(streamCredits);
+    return this;
+  }
+
   public AbstractSubscriptionPushConsumerBuilder ackStrategy(final AckStrategy ackStrategy) {
     this.ackStrategy = ackStrategy;
     return this;
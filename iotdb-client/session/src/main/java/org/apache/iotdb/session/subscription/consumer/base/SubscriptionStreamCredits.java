@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session.subscription.consumer.base;
+
+import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionCommitContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The credits of a streaming consumer. A stream request takes a share of the available credits, the
+ * credits not used by the responses are returned at once, and the credit of a delivered message is
+ * held by its commit context until the message is acked or nacked.
+ */
+final class SubscriptionStreamCredits {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SubscriptionStreamCredits.class);
+
+  private final int totalCredits;
+  private final int parallelism;
+  private final AtomicInteger availableCredits;
+
+  private final Set<SubscriptionCommitContext> heldCommitContexts = ConcurrentHashMap.newKeySet();
+
+  SubscriptionStreamCredits(final int totalCredits, final int parallelism) {
+    this.totalCredits = totalCredits;
+    this.parallelism = Math.max(parallelism, 1);
+    this.availableCredits = new AtomicInteger(totalCredits);
+  }
+
+  boolean isEnabled() {
+    return totalCredits > 0;
+  }
+
+  /** Take a share of the available credits, so that the parallel poll tasks can all stream. */
+  int acquire() {
+    while (true) {
+      final int available = availableCredits.get();
+      if (available <= 0) {
+        return 0;
+      }
+      final int credits = Math.max(1, available / parallelism);
+      if (availableCredits.compareAndSet(available, available - credits)) {
+        return credits;
+      }
+    }
+  }
+
+  /**
+   * Return the credits not taken by any delivered message. The credits beyond the total are
+   * rejected, since they can only come from a double release.
+   */
+  void release(final int credits) {
+    if (credits <= 0) {
+      return;
+    }
+    while (true) {
+      final int available = availableCredits.get();
+      final int accepted = Math.min(credits, totalCredits - available);
+      if (availableCredits.compareAndSet(available, available + accepted)) {
+        if (accepted < credits) {
+          LOGGER.warn(
+              "Subscription: reject {} stream credits released beyond the total {}, available credits: {}",
+              credits - accepted,
+              totalCredits,
+              available);
+        }
+        return;
+      }
+    }
+  }
+
+  /** The credit taken by the delivered message is held until the message is committed. */
+  void hold(final SubscriptionCommitContext commitContext) {
+    if (isEnabled() && !heldCommitContexts.add(commitContext)) {
+      LOGGER.warn(
+          "Subscription: message {} is delivered again before committed, release its stream credit",
+          commitContext);
+      release(1);
+    }
+  }
+
+  /** Return the credit held by the committed message, at most once per delivery. */
+  void releaseHeld(final SubscriptionCommitContext commitContext) {
+    if (!isEnabled()) {
+      return;
+    }
+    if (heldCommitContexts.remove(commitContext)) {
+      release(1);
+    } else {
+      LOGGER.warn(
+          "Subscription: message {} holds no stream credit, it may have been committed twice",
+          commitContext);
+    }
+  }
+
+  int getAvailableCredits() {
+    return availableCredits.get();
+  }
+
+  int getHeldCredits() {
+    return heldCommitContexts.size();
+  }
+}
@@ -105,6 +105,12 @@ public class SubscriptionTablePullConsumerBuilder extends AbstractSubscriptionPu
     return this;
   }
 
+  @Override
+  public SubscriptionTablePullConsumerBuilder streamCredits(final int streamCredits) {
+    super.streamCredits(streamCredits);
+    return this;
+  }
+
   @Override
   public SubscriptionTablePullConsumerBuilder autoCommit(final boolean autoCommit) {
     super.autoCommit(autoCommit);
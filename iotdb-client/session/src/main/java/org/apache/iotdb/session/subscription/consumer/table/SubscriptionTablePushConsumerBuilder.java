@@ -107,6 +107,12 @@ public class SubscriptionTablePushConsumerBuilder extends AbstractSubscriptionPu
     return this;
   }
 
+  @Override
+  public SubscriptionTablePushConsumerBuilder streamCredits(final int streamCredits) {
+    super.streamCredits(streamCredits);
+    return this;
+  }
+
   @Override
   public SubscriptionTablePushConsumerBuilder ackStrategy(final AckStrategy ackStrategy) {
     super.ackStrategy(ackStrategy);
@@ -79,6 +79,7 @@ public class SubscriptionTreePullConsumer extends AbstractSubscriptionPullConsum
             .fileSaveFsync(builder.fileSaveFsync)
             .thriftMaxFrameSize(builder.thriftMaxFrameSize)
             .maxPollParallelism(builder.maxPollParallelism)
+            .streamCredits(builder.streamCredits)
             .autoCommit(builder.autoCommit)
             .autoCommitIntervalMs(builder.autoCommitIntervalMs));
   }
@@ -234,6 +235,7 @@ public class SubscriptionTreePullConsumer extends AbstractSubscriptionPullConsum
 
     private int thriftMaxFrameSize = SessionConfig.DEFAULT_MAX_FRAME_SIZE;
     private int maxPollParallelism = ConsumerConstant.MAX_POLL_PARALLELISM_DEFAULT_VALUE;
+    private int streamCredits = ConsumerConstant.STREAM_CREDITS_DEFAULT_VALUE;
 
     private boolean autoCommit = ConsumerConstant.AUTO_COMMIT_DEFAULT_VALUE;
     private long autoCommitIntervalMs = ConsumerConstant.AUTO_COMMIT_INTERVAL_MS_DEFAULT_VALUE;
@@ -314,6 +316,11 @@ public class SubscriptionTreePullConsumer extends AbstractSubscriptionPullConsum
       return this;
     }
 
+    public Builder streamCredits(final int streamCredits) {
+      this.streamCredits = Math.max(streamCredits, 0);
+      return this;
+    }
+
     public Builder autoCommit(final boolean autoCommit) {
       this.autoCommit = autoCommit;
       return this;
@@ -105,6 +105,12 @@ public class SubscriptionTreePullConsumerBuilder extends AbstractSubscriptionPul
     return this;
   }
 
+  @Override
+  public SubscriptionTreePullConsumerBuilder streamCredits(final int streamCredits) {
+    super.streamCredits(streamCredits);
+    return this;
+  }
+
   @Override
   public SubscriptionTreePullConsumerBuilder autoCommit(final boolean autoCommit) {
     super.autoCommit(autoCommit);
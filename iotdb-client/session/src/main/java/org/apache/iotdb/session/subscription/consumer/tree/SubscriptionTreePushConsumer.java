@@ -78,6 +78,7 @@ public class SubscriptionTreePushConsumer extends AbstractSubscriptionPushConsum
             .fileSaveFsync(builder.fileSaveFsync)
             .thriftMaxFrameSize(builder.thriftMaxFrameSize)
             .maxPollParallelism(builder.maxPollParallelism)
+            .streamCredits(builder.streamCredits)
             .ackStrategy(builder.ackStrategy)
             .consumeListener(builder.consumeListener)
             .autoPollIntervalMs(builder.autoPollIntervalMs)
@@ -188,6 +189,7 @@ public class SubscriptionTreePushConsumer extends AbstractSubscriptionPushConsum
 
     private int thriftMaxFrameSize = SessionConfig.DEFAULT_MAX_FRAME_SIZE;
     private int maxPollParallelism = ConsumerConstant.MAX_POLL_PARALLELISM_DEFAULT_VALUE;
+    private int streamCredits = ConsumerConstant.STREAM_CREDITS_DEFAULT_VALUE;
 
     private AckStrategy ackStrategy = AckStrategy.defaultValue();
     private ConsumeListener consumeListener = message -> ConsumeResult.SUCCESS;
@@ -271,6 +273,11 @@ public class SubscriptionTreePushConsumer extends AbstractSubscriptionPushConsum
       return this;
     }
 
+    public Builder streamCredits(final int streamCredits) {
+      this.streamCredits = Math.max(streamCredits, 0);
+      return this;
+    }
+
     public Builder ackStrategy(final AckStrategy ackStrategy) {
       this.ackStrategy = ackStrategy;
       return this;
@@ -107,6 +107,12 @@ public class SubscriptionTreePushConsumerBuilder extends AbstractSubscriptionPus
     return this;
   }
 
+  @Override
+  public SubscriptionTreePushConsumerBuilder streamCredits(final int streamCredits) {
+    super.streamCredits(streamCredits);
+    return this;
+  }
+
   @Override
   public SubscriptionTreePushConsumerBuilder ackStrategy(final AckStrategy ackStrategy) {
     super.ackStrategy(ackStrategy);
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session.subscription.consumer.base;
+
+import org.apache.iotdb.rpc.subscription.exception.SubscriptionConnectionException;
+import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionCommitContext;
+import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionPollResponse;
+import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionPollResponseType;
+import org.apache.iotdb.session.subscription.consumer.tree.SubscriptionTreePullConsumerBuilder;
+import org.apache.iotdb.session.subscription.payload.SubscriptionMessage;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.powermock.reflect.Whitebox;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+
+public class AbstractSubscriptionConsumerStreamTest {
+
+  private static final Set<String> TOPIC_NAMES = Collections.singleton("topic");
+
+  private AbstractSubscriptionConsumer consumer;
+  private AbstractSubscriptionProvider provider;
+  private SubscriptionStreamCredits credits;
+
+  @Before
+  public void setUp() {
+    consumer =
+        (AbstractSubscriptionConsumer)
+            new SubscriptionTreePullConsumerBuilder()
+                .host("127.0.0.1")
+                .port(6667)
+                .maxPollParallelism(2)
+                .streamCredits(4)
+                .build();
+    credits = Whitebox.getInternalState(consumer, "streamCreditPool");
+
+    provider = Mockito.mock(AbstractSubscriptionProvider.class);
+    Mockito.when(provider.isAvailable()).thenReturn(true);
+    final AbstractSubscriptionProviders providers =
+        Whitebox.getInternalState(consumer, "providers");
+    providers.acquireWriteLock();
+    try {
+      providers.addProvider(1, provider);
+    } finally {
+      providers.releaseWriteLock();
+    }
+  }
+
+  @Test
+  public void testStreamReturnsUnusedCredits() throws Exception {
+    Mockito.when(provider.stream(anySet(), anyInt(), anyLong()))
+        .thenReturn(Collections.singletonList(newResponse(1)));
+
+    final List<SubscriptionPollResponse> responses = streamInternal();
+
+    Assert.assertEquals(1, responses.size());
+    // half of the credits are taken by the stream request, one of them by the response
+    Mockito.verify(provider).stream(eq(TOPIC_NAMES), eq(2), anyLong());
+    Assert.assertEquals(3, credits.getAvailableCredits());
+  }
+
+  @Test
+  public void testStreamReturnsAllCreditsOnConnectionFailure() throws Exception {
+    Mockito.when(provider.stream(anySet(), anyInt(), anyLong()))
+        .thenThrow(new SubscriptionConnectionException("mock"));
+
+    Assert.assertTrue(streamInternal().isEmpty());
+    Assert.assertEquals(4, credits.getAvailableCredits());
+  }
+
+  @Test
+  public void testStreamReturnsAllCreditsWithoutAvailableProvider() throws Exception {
+    Mockito.when(provider.isAvailable()).thenReturn(false);
+    Whitebox.<AtomicBoolean>getInternalState(consumer, "isClosed").set(false);
+
+    try {
+      streamInternal();
+      Assert.fail();
+    } catch (final SubscriptionConnectionException ignored) {
+    }
+    Assert.assertEquals(4, credits.getAvailableCredits());
+  }
+
+  @Test
+  public void testStreamWaitsForCommitWithoutCredits() throws Exception {
+    final AtomicLong commitId = new AtomicLong();
+    Mockito.when(provider.stream(anySet(), anyInt(), anyLong()))
+        .thenAnswer(
+            invocation -> {
+              // the server delivers as many responses as the credits allow
+              final List<SubscriptionPollResponse> responses = new ArrayList<>();
+              for (int i = 0; i < (int) invocation.getArgument(1); i++) {
+                responses.add(newResponse(commitId.incrementAndGet()));
+              }
+              return responses;
+            });
+
+    Assert.assertEquals(2, streamInternal().size());
+    Assert.assertEquals(1, streamInternal().size());
+    Assert.assertEquals(1, streamInternal().size());
+    Assert.assertEquals(0, credits.getAvailableCredits());
+
+    Assert.assertTrue(streamInternal().isEmpty());
+    Mockito.verify(provider, Mockito.times(3)).stream(anySet(), anyInt(), anyLong());
+  }
+
+  @Test
+  public void testCommitReturnsHeldCreditOnce() throws Exception {
+    final SubscriptionCommitContext commitContext = newCommitContext(1);
+    Mockito.when(provider.stream(anySet(), anyInt(), anyLong()))
+        .thenReturn(Collections.singletonList(newResponse(1)));
+
+    Assert.assertEquals(1, streamInternal().size());
+    credits.hold(commitContext);
+    Assert.assertEquals(3, credits.getAvailableCredits());
+
+    final SubscriptionMessage message =
+        new SubscriptionMessage(commitContext, Collections.emptyMap());
+    consumer.ack(Collections.singletonList(message));
+    Assert.assertEquals(4, credits.getAvailableCredits());
+
+    // a second commit of the same message returns no credit
+    consumer.nack(Collections.singletonList(message));
+    Assert.assertEquals(4, credits.getAvailableCredits());
+    Mockito.verify(provider, Mockito.times(2)).commit(anyList(), anyBoolean());
+  }
+
+  private List<SubscriptionPollResponse> streamInternal() throws Exception {
+    return Whitebox.invokeMethod(consumer, "streamInternal", TOPIC_NAMES, 1000L);
+  }
+
+  private static SubscriptionCommitContext newCommitContext(final long commitId) {
+    return new SubscriptionCommitContext(1, 0, "topic", "cg", commitId);
+  }
+
+  private static SubscriptionPollResponse newResponse(final long commitId) {
+    return new SubscriptionPollResponse(
+        SubscriptionPollResponseType.TABLETS.getType(), null, newCommitContext(commitId));
+  }
+}
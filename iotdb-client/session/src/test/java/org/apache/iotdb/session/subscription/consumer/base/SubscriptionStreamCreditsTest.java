@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session.subscription.consumer.base;
+
+import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionCommitContext;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SubscriptionStreamCreditsTest {
+
+  @Test
+  public void testAcquireShareOfAvailableCredits() {
+    final SubscriptionStreamCredits credits = new SubscriptionStreamCredits(8, 2);
+
+    Assert.assertEquals(4, credits.acquire());
+    Assert.assertEquals(2, credits.acquire());
+    Assert.assertEquals(1, credits.acquire());
+    Assert.assertEquals(1, credits.acquire());
+    Assert.assertEquals(0, credits.acquire());
+    Assert.assertEquals(0, credits.getAvailableCredits());
+
+    credits.release(3);
+    Assert.assertEquals(3, credits.getAvailableCredits());
+  }
+
+  @Test
+  public void testReleaseBeyondTotalIsRejected() {
+    final SubscriptionStreamCredits credits = new SubscriptionStreamCredits(4, 1);
+
+    Assert.assertEquals(4, credits.acquire());
+    credits.release(3);
+    Assert.assertEquals(3, credits.getAvailableCredits());
+
+    // only one credit is outstanding, the rest comes from a double release
+    credits.release(3);
+    Assert.assertEquals(4, credits.getAvailableCredits());
+  }
+
+  @Test
+  public void testHeldCreditIsReleasedOnce() {
+    final SubscriptionStreamCredits credits = new SubscriptionStreamCredits(4, 1);
+    final SubscriptionCommitContext first = new SubscriptionCommitContext(1, 0, "topic", "cg", 1);
+    final SubscriptionCommitContext second = new SubscriptionCommitContext(1, 0, "topic", "cg", 2);
+
+    Assert.assertEquals(4, credits.acquire());
+    // two of the four responses are delivered as messages
+    credits.release(2);
+    credits.hold(first);
+    credits.hold(second);
+    Assert.assertEquals(2, credits.getAvailableCredits());
+    Assert.assertEquals(2, credits.getHeldCredits());
+
+    credits.releaseHeld(first);
+    Assert.assertEquals(3, credits.getAvailableCredits());
+
+    // committing the same message twice returns no extra credit
+    credits.releaseHeld(first);
+    Assert.assertEquals(3, credits.getAvailableCredits());
+    Assert.assertEquals(1, credits.getHeldCredits());
+
+    credits.releaseHeld(second);
+    Assert.assertEquals(4, credits.getAvailableCredits());
+    Assert.assertEquals(0, credits.getHeldCredits());
+  }
+
+  @Test
+  public void testRedeliveredMessageHoldsOneCredit() {
+    final SubscriptionStreamCredits credits = new SubscriptionStreamCredits(4, 1);
+    final SubscriptionCommitContext commitContext =
+        new SubscriptionCommitContext(1, 0, "topic", "cg", 1);
+
+    Assert.assertEquals(4, credits.acquire());
+    credits.release(3);
+    credits.hold(commitContext);
+    Assert.assertEquals(3, credits.getAvailableCredits());
+
+    // the server redelivers the message before it is committed
+    Assert.assertEquals(3, credits.acquire());
+    credits.release(2);
+    credits.hold(commitContext);
+    Assert.assertEquals(3, credits.getAvailableCredits());
+    Assert.assertEquals(1, credits.getHeldCredits());
+
+    credits.releaseHeld(commitContext);
+    Assert.assertEquals(4, credits.getAvailableCredits());
+  }
+
+  @Test
+  public void testDisabledCreditsHoldNothing() {
+    final SubscriptionStreamCredits credits = new SubscriptionStreamCredits(0, 1);
+    final SubscriptionCommitContext commitContext =
+        new SubscriptionCommitContext(1, 0, "topic", "cg", 1);
+
+    Assert.assertFalse(credits.isEnabled());
+    Assert.assertEquals(0, credits.acquire());
+    credits.hold(commitContext);
+    credits.releaseHeld(commitContext);
+    credits.release(1);
+    Assert.assertEquals(0, credits.getAvailableCredits());
+    Assert.assertEquals(0, credits.getHeldCredits());
+  }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.confignode.client.async.handlers.heartbeat;
 
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
 import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
 import org.apache.iotdb.commons.client.ThriftClient;
 import org.apache.iotdb.commons.cluster.NodeStatus;
@@ -28,6 +29,7 @@ import org.apache.iotdb.confignode.conf.ConfigNodeConfig;
 import org.apache.iotdb.confignode.conf.ConfigNodeDescriptor;
 import org.apache.iotdb.confignode.manager.load.LoadManager;
 import org.apache.iotdb.confignode.manager.load.cache.consensus.ConsensusGroupHeartbeatSample;
+import org.apache.iotdb.confignode.manager.load.cache.node.DataNodeHeartbeatStatistics;
 import org.apache.iotdb.confignode.manager.load.cache.node.NodeHeartbeatSample;
 import org.apache.iotdb.confignode.manager.load.cache.region.RegionHeartbeatSample;
 import org.apache.iotdb.confignode.manager.pipe.coordinator.runtime.PipeRuntimeCoordinator;
@@ -37,6 +39,7 @@ import org.apache.iotdb.mpp.rpc.thrift.TDataNodeHeartbeatResp;
 import org.apache.thrift.async.AsyncMethodCallback;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 
 public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHeartbeatResp> {
@@ -82,6 +85,19 @@ public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHe
 
   @Override
   public void onComplete(TDataNodeHeartbeatResp heartbeatResp) {
+    // Merge the region statistics if the response only carries the changed ones
+    final DataNodeHeartbeatStatistics statistics =
+        loadManager.getLoadCache().applyDataNodeHeartbeatStatistics(nodeId, heartbeatResp);
+    final boolean isDelta = DataNodeHeartbeatStatistics.isDelta(heartbeatResp);
+    final Map<TConsensusGroupId, Boolean> judgedLeaders =
+        isDelta ? statistics.getJudgedLeaders() : heartbeatResp.getJudgedLeaders();
+    final Map<TConsensusGroupId, Long> consensusLogicalTimeMap =
+        isDelta
+            ? statistics.getConsensusLogicalTimeMap()
+            : heartbeatResp.getConsensusLogicalTimeMap();
+    final Set<TConsensusGroupId> changedRegions =
+        isDelta ? DataNodeHeartbeatStatistics.getChangedRegions(heartbeatResp) : null;
+
     // Update NodeCache
     loadManager
         .getLoadCache()
@@ -89,46 +105,47 @@ public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHe
 
     RegionStatus regionStatus = RegionStatus.valueOf(heartbeatResp.getStatus());
 
-    heartbeatResp
-        .getJudgedLeaders()
-        .forEach(
-            (regionGroupId, isLeader) -> {
-
-              // Do not allow regions to inherit the Removing state from datanode
-              RegionStatus nextRegionStatus = regionStatus;
-              if (nextRegionStatus == RegionStatus.Removing) {
-                nextRegionStatus =
-                    loadManager
-                        .getLoadCache()
-                        .getRegionCacheLastSampleStatus(regionGroupId, nodeId);
-              }
-
-              // Update RegionGroupCache
-              loadManager
-                  .getLoadCache()
-                  .cacheRegionHeartbeatSample(
-                      regionGroupId,
-                      nodeId,
-                      new RegionHeartbeatSample(
-                          heartbeatResp.getHeartbeatTimestamp(),
-                          // Region will inherit DataNode's status
-                          nextRegionStatus),
-                      false);
-
-              if (((TConsensusGroupType.SchemaRegion.equals(regionGroupId.getType())
-                          && SCHEMA_REGION_SHOULD_CACHE_CONSENSUS_SAMPLE)
-                      || (TConsensusGroupType.DataRegion.equals(regionGroupId.getType())
-                          && DATA_REGION_SHOULD_CACHE_CONSENSUS_SAMPLE))
-                  && Boolean.TRUE.equals(isLeader)) {
-                // Update ConsensusGroupCache when necessary
-                loadManager
-                    .getLoadCache()
-                    .cacheConsensusSample(
-                        regionGroupId,
-                        new ConsensusGroupHeartbeatSample(
-                            heartbeatResp.getConsensusLogicalTimeMap().get(regionGroupId), nodeId));
-              }
-            });
+    // Every Region is sampled since its liveness is judged by the heartbeats, while the
+    // ConsensusGroupCache is only updated with the changed statistics
+    judgedLeaders.forEach(
+        (regionGroupId, isLeader) -> {
+
+          // Do not allow regions to inherit the Removing state from datanode
+          RegionStatus nextRegionStatus = regionStatus;
+          if (nextRegionStatus == RegionStatus.Removing) {
+            nextRegionStatus =
+                loadManager.getLoadCache().getRegionCacheLastSampleStatus(regionGroupId, nodeId);
+          }
+
+          // Update RegionGroupCache
+          loadManager
+              .getLoadCache()
+              .cacheRegionHeartbeatSample(
+                  regionGroupId,
+                  nodeId,
+                  new RegionHeartbeatSample(
+                      heartbeatResp.getHeartbeatTimestamp(),
+                      // Region will inherit DataNode's status
+                      nextRegionStatus),
+                  false);
+
+          if (((TConsensusGroupType.SchemaRegion.equals(regionGroupId.getType())
+                      && SCHEMA_REGION_SHOULD_CACHE_CONSENSUS_SAMPLE)
+                  || (TConsensusGroupType.DataRegion.equals(regionGroupId.getType())
+                      && DATA_REGION_SHOULD_CACHE_CONSENSUS_SAMPLE))
+              && Boolean.TRUE.equals(isLeader)
+              && (changedRegions == null
+                  || changedRegions.contains(regionGroupId)
+                  || loadManager.getLoadCache().isConsensusGroupLeaderUnSelected(regionGroupId))) {
+            // Update ConsensusGroupCache when necessary
+            loadManager
+                .getLoadCache()
+                .cacheConsensusSample(
+                    regionGroupId,
+                    new ConsensusGroupHeartbeatSample(
+                        consensusLogicalTimeMap.get(regionGroupId), nodeId));
+          }
+        });
 
     if (heartbeatResp.getRegionDeviceUsageMap() != null) {
       deviceNum.putAll(heartbeatResp.getRegionDeviceUsageMap());
@@ -163,6 +180,12 @@ public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHe
           .getLoadCache()
           .updateRegionRawSizeMap(nodeId, heartbeatResp.getDataRegionRawDataSize());
     }
+    if (heartbeatResp.isSetDataRegionSeriesSlotWritePoints()) {
+      loadManager
+          .getLoadCache()
+          .updateRegionSeriesSlotWriteRateMap(
+              nodeId, heartbeatResp.getDataRegionSeriesSlotWritePoints());
+    }
   }
 
   @Override
@@ -171,6 +194,8 @@ public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHe
       loadManager.forceUpdateNodeCache(
           NodeType.DataNode, nodeId, new NodeHeartbeatSample(NodeStatus.Unknown));
     }
+    // The response may be lost, require the full region statistics next time
+    loadManager.getLoadCache().resetDataNodeHeartbeatStatistics(nodeId);
     loadManager.getLoadCache().resetHeartbeatProcessing(nodeId);
   }
 }
@@ -89,6 +89,12 @@ public class ConfigNodeConfig {
 
   private String dataPartitionAllocationStrategy = "INHERIT";
 
+  /** A SeriesSlot is hot if its write load exceeds this ratio of a DataRegionGroup's average. */
+  private double hotSeriesSlotLoadRatio = 1.0;
+
+  /** The maximum number of DataRegionGroups a hot SeriesSlot is split into. */
+  private int hotSeriesSlotMaxSplitNum = 4;
+
   /** The policy of extension SchemaRegionGroup for each Database. */
   private RegionGroupExtensionPolicy schemaRegionGroupExtensionPolicy =
       RegionGroupExtensionPolicy.AUTO;
@@ -185,9 +191,30 @@ public class ConfigNodeConfig {
   private int procedureCoreWorkerThreadsCount =
       Math.max(Runtime.getRuntime().availableProcessors() / 4, 16);
 
+  /**
+   * The maximum number of procedure state changes persisted in one consensus log entry, 1 means
+   * each state change is written separately. A batch is written as a BatchProcedurePlan, which the
+   * ConfigNodes of older versions can't deserialize, so only raise it after all the ConfigNodes are
+   * upgraded.
+   */
+  private int procedureStoreMaxBatchSize = 1;
+
+  /**
+   * Whether to write the PartitionInfo snapshot in the compact format. The legacy format is written
+   * by default, since the ConfigNodes that are not upgraded yet can't read the compact one. Only
+   * enable it after all the ConfigNodes are upgraded.
+   */
+  private boolean partitionSnapshotCompactFormatEnabled = false;
+
   /** The heartbeat interval in milliseconds. */
   private long heartbeatIntervalInMs = 1000;
 
+  /**
+   * The DataNodes only report the changed region statistics in heartbeats, and the full statistics
+   * are synced in every such number of heartbeats. 1 means always syncing the full statistics.
+   */
+  private int dataNodeHeartbeatFullSyncInterval = 60;
+
   /** Failure detector implementation */
   private String failureDetector = IFailureDetector.PHI_ACCRUAL_DETECTOR;
 
@@ -203,12 +230,30 @@ public class ConfigNodeConfig {
   /** The policy of cluster RegionGroups' leader distribution. */
   private String leaderDistributionPolicy = AbstractLeaderBalancer.CFD_POLICY;
 
+  /**
+   * The LOAD leader distribution policy moves a leader only if the destination DataNode stays below
+   * the source by this ratio of the source's leader load after the move.
+   */
+  private double leaderBalanceLoadHysteresisRatio = 0.1;
+
   /** Whether to enable auto leader balance for Ratis consensus protocol. */
   private boolean enableAutoLeaderBalanceForRatisConsensus = true;
 
   /** Whether to enable auto leader balance for IoTConsensus protocol. */
   private boolean enableAutoLeaderBalanceForIoTConsensus = true;
 
+  /** Whether to migrate DataRegions automatically to balance the write load of DataNodes. */
+  private boolean enableAutoRegionRebalance = false;
+
+  /** The interval between two rounds of region rebalance. */
+  private long regionRebalanceIntervalInMs = 10 * 60 * 1000L;
+
+  /** Region rebalance is triggered when a DataNode is loaded more than this ratio of average. */
+  private double regionRebalanceImbalanceRatio = 1.5;
+
+  /** The maximum number of region migrations submitted in a round of region rebalance. */
+  private int regionRebalanceMaxMigrationsPerRound = 1;
+
   /** The route priority policy of cluster read/write requests. */
   private String routePriorityPolicy = IPriorityBalancer.LEADER_POLICY;
 
@@ -438,6 +483,22 @@ public class ConfigNodeConfig {
     this.dataPartitionAllocationStrategy = dataPartitionAllocationStrategy;
   }
 
+  public double getHotSeriesSlotLoadRatio() {
+    return hotSeriesSlotLoadRatio;
+  }
+
+  public void setHotSeriesSlotLoadRatio(double hotSeriesSlotLoadRatio) {
+    this.hotSeriesSlotLoadRatio = hotSeriesSlotLoadRatio;
+  }
+
+  public int getHotSeriesSlotMaxSplitNum() {
+    return hotSeriesSlotMaxSplitNum;
+  }
+
+  public void setHotSeriesSlotMaxSplitNum(int hotSeriesSlotMaxSplitNum) {
+    this.hotSeriesSlotMaxSplitNum = hotSeriesSlotMaxSplitNum;
+  }
+
   public int getCnRpcMaxConcurrentClientNum() {
     return rpcMaxConcurrentClientNum;
   }
@@ -666,6 +727,23 @@ public class ConfigNodeConfig {
     this.procedureCoreWorkerThreadsCount = procedureCoreWorkerThreadsCount;
   }
 
+  public int getProcedureStoreMaxBatchSize() {
+    return procedureStoreMaxBatchSize;
+  }
+
+  public void setProcedureStoreMaxBatchSize(int procedureStoreMaxBatchSize) {
+    this.procedureStoreMaxBatchSize = procedureStoreMaxBatchSize;
+  }
+
+  public boolean isPartitionSnapshotCompactFormatEnabled() {
+    return partitionSnapshotCompactFormatEnabled;
+  }
+
+  public void setPartitionSnapshotCompactFormatEnabled(
+      boolean partitionSnapshotCompactFormatEnabled) {
+    this.partitionSnapshotCompactFormatEnabled = partitionSnapshotCompactFormatEnabled;
+  }
+
   public long getHeartbeatIntervalInMs() {
     return heartbeatIntervalInMs;
   }
@@ -674,6 +752,14 @@ public class ConfigNodeConfig {
     this.heartbeatIntervalInMs = heartbeatIntervalInMs;
   }
 
+  public int getDataNodeHeartbeatFullSyncInterval() {
+    return dataNodeHeartbeatFullSyncInterval;
+  }
+
+  public void setDataNodeHeartbeatFullSyncInterval(int dataNodeHeartbeatFullSyncInterval) {
+    this.dataNodeHeartbeatFullSyncInterval = dataNodeHeartbeatFullSyncInterval;
+  }
+
   public String getLeaderDistributionPolicy() {
     return leaderDistributionPolicy;
   }
@@ -682,6 +768,14 @@ public class ConfigNodeConfig {
     this.leaderDistributionPolicy = leaderDistributionPolicy;
   }
 
+  public double getLeaderBalanceLoadHysteresisRatio() {
+    return leaderBalanceLoadHysteresisRatio;
+  }
+
+  public void setLeaderBalanceLoadHysteresisRatio(double leaderBalanceLoadHysteresisRatio) {
+    this.leaderBalanceLoadHysteresisRatio = leaderBalanceLoadHysteresisRatio;
+  }
+
   public boolean isEnableAutoLeaderBalanceForRatisConsensus() {
     return enableAutoLeaderBalanceForRatisConsensus;
   }
@@ -700,6 +794,38 @@ public class ConfigNodeConfig {
     this.enableAutoLeaderBalanceForIoTConsensus = enableAutoLeaderBalanceForIoTConsensus;
   }
 
+  public boolean isEnableAutoRegionRebalance() {
+    return enableAutoRegionRebalance;
+  }
+
+  public void setEnableAutoRegionRebalance(boolean enableAutoRegionRebalance) {
+    this.enableAutoRegionRebalance = enableAutoRegionRebalance;
+  }
+
+  public long getRegionRebalanceIntervalInMs() {
+    return regionRebalanceIntervalInMs;
+  }
+
+  public void setRegionRebalanceIntervalInMs(long regionRebalanceIntervalInMs) {
+    this.regionRebalanceIntervalInMs = regionRebalanceIntervalInMs;
+  }
+
+  public double getRegionRebalanceImbalanceRatio() {
+    return regionRebalanceImbalanceRatio;
+  }
+
+  public void setRegionRebalanceImbalanceRatio(double regionRebalanceImbalanceRatio) {
+    this.regionRebalanceImbalanceRatio = regionRebalanceImbalanceRatio;
+  }
+
+  public int getRegionRebalanceMaxMigrationsPerRound() {
+    return regionRebalanceMaxMigrationsPerRound;
+  }
+
+  public void setRegionRebalanceMaxMigrationsPerRound(int regionRebalanceMaxMigrationsPerRound) {
+    this.regionRebalanceMaxMigrationsPerRound = regionRebalanceMaxMigrationsPerRound;
+  }
+
   public String getRoutePriorityPolicy() {
     return routePriorityPolicy;
   }
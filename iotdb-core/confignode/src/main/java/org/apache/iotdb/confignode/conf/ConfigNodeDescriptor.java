@@ -187,6 +187,17 @@ public class ConfigNodeDescriptor {
         properties.getProperty(
             "data_partition_allocation_strategy", conf.getDataPartitionAllocationStrategy()));
 
+    conf.setHotSeriesSlotLoadRatio(
+        Double.parseDouble(
+            properties.getProperty(
+                "hot_series_slot_load_ratio", String.valueOf(conf.getHotSeriesSlotLoadRatio()))));
+
+    conf.setHotSeriesSlotMaxSplitNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "hot_series_slot_max_split_num",
+                String.valueOf(conf.getHotSeriesSlotMaxSplitNum()))));
+
     conf.setConfigNodeConsensusProtocolClass(
         properties.getProperty(
             "config_node_consensus_protocol_class", conf.getConfigNodeConsensusProtocolClass()));
@@ -290,6 +301,14 @@ public class ConfigNodeDescriptor {
             properties.getProperty(
                 "heartbeat_interval_in_ms", String.valueOf(conf.getHeartbeatIntervalInMs()))));
 
+    conf.setDataNodeHeartbeatFullSyncInterval(
+        Math.max(
+            1,
+            Integer.parseInt(
+                properties.getProperty(
+                    "data_node_heartbeat_full_sync_interval",
+                    String.valueOf(conf.getDataNodeHeartbeatFullSyncInterval())))));
+
     String failureDetector = properties.getProperty("failure_detector", conf.getFailureDetector());
     if (IFailureDetector.FIXED_DETECTOR.equals(failureDetector)
         || IFailureDetector.PHI_ACCRUAL_DETECTOR.equals(failureDetector)) {
@@ -323,16 +342,23 @@ public class ConfigNodeDescriptor {
         properties.getProperty("leader_distribution_policy", conf.getLeaderDistributionPolicy());
     if (AbstractLeaderBalancer.GREEDY_POLICY.equals(leaderDistributionPolicy)
         || AbstractLeaderBalancer.CFD_POLICY.equals(leaderDistributionPolicy)
-        || AbstractLeaderBalancer.HASH_POLICY.equals(leaderDistributionPolicy)) {
+        || AbstractLeaderBalancer.HASH_POLICY.equals(leaderDistributionPolicy)
+        || AbstractLeaderBalancer.LOAD_POLICY.equals(leaderDistributionPolicy)) {
       conf.setLeaderDistributionPolicy(leaderDistributionPolicy);
     } else {
       throw new IOException(
           String.format(
               "Unknown leader_distribution_policy: %s, "
-                  + "please set to \"GREEDY\" or \"CFD\" or \"HASH\"",
+                  + "please set to \"GREEDY\" or \"CFD\" or \"HASH\" or \"LOAD\"",
               leaderDistributionPolicy));
     }
 
+    conf.setLeaderBalanceLoadHysteresisRatio(
+        Double.parseDouble(
+            properties.getProperty(
+                "leader_balance_load_hysteresis_ratio",
+                String.valueOf(conf.getLeaderBalanceLoadHysteresisRatio()))));
+
     conf.setEnableAutoLeaderBalanceForRatisConsensus(
         Boolean.parseBoolean(
             properties.getProperty(
@@ -345,6 +371,30 @@ public class ConfigNodeDescriptor {
                 "enable_auto_leader_balance_for_iot_consensus",
                 String.valueOf(conf.isEnableAutoLeaderBalanceForIoTConsensus()))));
 
+    conf.setEnableAutoRegionRebalance(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_auto_region_rebalance",
+                String.valueOf(conf.isEnableAutoRegionRebalance()))));
+
+    conf.setRegionRebalanceIntervalInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "region_rebalance_interval_in_ms",
+                String.valueOf(conf.getRegionRebalanceIntervalInMs()))));
+
+    conf.setRegionRebalanceImbalanceRatio(
+        Double.parseDouble(
+            properties.getProperty(
+                "region_rebalance_imbalance_ratio",
+                String.valueOf(conf.getRegionRebalanceImbalanceRatio()))));
+
+    conf.setRegionRebalanceMaxMigrationsPerRound(
+        Integer.parseInt(
+            properties.getProperty(
+                "region_rebalance_max_migrations_per_round",
+                String.valueOf(conf.getRegionRebalanceMaxMigrationsPerRound()))));
+
     String routePriorityPolicy =
         properties.getProperty("route_priority_policy", conf.getRoutePriorityPolicy());
     if (IPriorityBalancer.GREEDY_POLICY.equals(routePriorityPolicy)
@@ -391,6 +441,20 @@ public class ConfigNodeDescriptor {
                 "procedure_core_worker_thread_count",
                 String.valueOf(conf.getProcedureCoreWorkerThreadsCount()))));
 
+    conf.setProcedureStoreMaxBatchSize(
+        Math.max(
+            1,
+            Integer.parseInt(
+                properties.getProperty(
+                    "procedure_store_max_batch_size",
+                    String.valueOf(conf.getProcedureStoreMaxBatchSize())))));
+
+    conf.setPartitionSnapshotCompactFormatEnabled(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "partition_snapshot_compact_format_enable",
+                String.valueOf(conf.isPartitionSnapshotCompactFormatEnabled()))));
+
     loadRatisConsensusConfig(properties);
     loadCQConfig(properties);
   }
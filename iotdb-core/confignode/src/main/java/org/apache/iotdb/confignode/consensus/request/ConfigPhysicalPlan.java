@@ -78,6 +78,7 @@ import org.apache.iotdb.confignode.consensus.request.write.pipe.task.CreatePipeP
 import org.apache.iotdb.confignode.consensus.request.write.pipe.task.DropPipePlanV2;
 import org.apache.iotdb.confignode.consensus.request.write.pipe.task.OperateMultiplePipesPlanV2;
 import org.apache.iotdb.confignode.consensus.request.write.pipe.task.SetPipeStatusPlanV2;
+import org.apache.iotdb.confignode.consensus.request.write.procedure.BatchProcedurePlan;
 import org.apache.iotdb.confignode.consensus.request.write.procedure.DeleteProcedurePlan;
 import org.apache.iotdb.confignode.consensus.request.write.procedure.UpdateProcedurePlan;
 import org.apache.iotdb.confignode.consensus.request.write.quota.SetSpaceQuotaPlan;
@@ -271,6 +272,9 @@ public abstract class ConfigPhysicalPlan implements IConsensusRequest {
         case UpdateProcedure:
           plan = new UpdateProcedurePlan();
           break;
+        case BatchProcedure:
+          plan = new BatchProcedurePlan();
+          break;
         case PreDeleteDatabase:
           plan = new PreDeleteDatabasePlan();
           break;
@@ -85,6 +85,7 @@ public enum ConfigPhysicalPlanType {
   /** Procedure. */
   UpdateProcedure((short) 500),
   DeleteProcedure((short) 501),
+  BatchProcedure((short) 502),
 
   /** Authority. */
   Author((short) 600),
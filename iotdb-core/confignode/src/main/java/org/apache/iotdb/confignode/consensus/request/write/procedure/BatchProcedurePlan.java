@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.confignode.consensus.request.write.procedure;
+
+import org.apache.iotdb.confignode.consensus.request.ConfigPhysicalPlan;
+import org.apache.iotdb.confignode.consensus.request.ConfigPhysicalPlanType;
+
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Persist the state changes of several procedures in one consensus log entry. The sub plans are
+ * {@link UpdateProcedurePlan}s and {@link DeleteProcedurePlan}s, which are applied in order.
+ */
+public class BatchProcedurePlan extends ConfigPhysicalPlan {
+
+  private List<ConfigPhysicalPlan> subPlans;
+
+  public BatchProcedurePlan() {
+    super(ConfigPhysicalPlanType.BatchProcedure);
+  }
+
+  public BatchProcedurePlan(List<ConfigPhysicalPlan> subPlans) {
+    this();
+    this.subPlans = subPlans;
+  }
+
+  public List<ConfigPhysicalPlan> getSubPlans() {
+    return subPlans;
+  }
+
+  @Override
+  protected void serializeImpl(DataOutputStream stream) throws IOException {
+    stream.writeShort(getType().getPlanType());
+    ReadWriteIOUtils.write(subPlans.size(), stream);
+    for (ConfigPhysicalPlan subPlan : subPlans) {
+      if (!(subPlan instanceof UpdateProcedurePlan) && !(subPlan instanceof DeleteProcedurePlan)) {
+        throw new IOException("Unsupported sub plan type: " + subPlan.getClass().getName());
+      }
+      // Some procedures check the remaining bytes when deserializing, so each sub plan is
+      // prefixed with its length and deserialized from its own buffer
+      ByteBuffer buffer = subPlan.serializeToByteBuffer();
+      ReadWriteIOUtils.write(buffer.remaining(), stream);
+      stream.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    }
+  }
+
+  @Override
+  protected void deserializeImpl(ByteBuffer buffer) throws IOException {
+    int size = ReadWriteIOUtils.readInt(buffer);
+    subPlans = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      int length = ReadWriteIOUtils.readInt(buffer);
+      ByteBuffer subBuffer = buffer.slice();
+      subBuffer.limit(length);
+      buffer.position(buffer.position() + length);
+      subPlans.add(ConfigPhysicalPlan.Factory.create(subBuffer));
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    BatchProcedurePlan that = (BatchProcedurePlan) o;
+    return Objects.equals(subPlans, that.subPlans);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(subPlans);
+  }
+
+  @Override
+  public String toString() {
+    return "BatchProcedurePlan{" + "subPlans=" + subPlans.size() + "}";
+  }
+}
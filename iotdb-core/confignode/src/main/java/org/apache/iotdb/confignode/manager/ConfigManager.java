@@ -113,6 +113,8 @@ import org.apache.iotdb.confignode.manager.cq.CQManager;
 import org.apache.iotdb.confignode.manager.externalservice.ExternalServiceInfo;
 import org.apache.iotdb.confignode.manager.externalservice.ExternalServiceManager;
 import org.apache.iotdb.confignode.manager.load.LoadManager;
+import org.apache.iotdb.confignode.manager.load.balancer.router.leader.LoadWeightedLeaderBalancer;
+import org.apache.iotdb.confignode.manager.load.balancer.router.leader.LoadWeightedLeaderBalancerMetrics;
 import org.apache.iotdb.confignode.manager.load.cache.node.NodeHeartbeatSample;
 import org.apache.iotdb.confignode.manager.node.ClusterNodeStartUtils;
 import org.apache.iotdb.confignode.manager.node.NodeManager;
@@ -2040,6 +2042,14 @@ public class ConfigManager implements IManager {
   public void addMetrics() {
     MetricService.getInstance().addMetricSet(new NodeMetrics(getNodeManager()));
     MetricService.getInstance().addMetricSet(new PartitionMetrics(this));
+    if (getLoadManager().getRouteBalancer().getLeaderBalancer()
+        instanceof LoadWeightedLeaderBalancer) {
+      MetricService.getInstance()
+          .addMetricSet(
+              new LoadWeightedLeaderBalancerMetrics(
+                  (LoadWeightedLeaderBalancer)
+                      getLoadManager().getRouteBalancer().getLeaderBalancer()));
+    }
     getProcedureManager().addMetrics();
   }
 
@@ -2047,6 +2057,14 @@ public class ConfigManager implements IManager {
   public void removeMetrics() {
     MetricService.getInstance().removeMetricSet(new NodeMetrics(getNodeManager()));
     MetricService.getInstance().removeMetricSet(new PartitionMetrics(this));
+    if (getLoadManager().getRouteBalancer().getLeaderBalancer()
+        instanceof LoadWeightedLeaderBalancer) {
+      MetricService.getInstance()
+          .removeMetricSet(
+              new LoadWeightedLeaderBalancerMetrics(
+                  (LoadWeightedLeaderBalancer)
+                      getLoadManager().getRouteBalancer().getLeaderBalancer()));
+    }
     getProcedureManager().removeMetrics();
   }
 
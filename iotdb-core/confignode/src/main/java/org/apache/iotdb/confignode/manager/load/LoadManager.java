@@ -153,6 +153,7 @@ public class LoadManager {
     eventService.startEventService();
     partitionBalancer.setupPartitionBalancer();
     topologyService.startTopologyService();
+    regionBalancer.startRegionRebalanceService();
   }
 
   public void stopLoadServices() {
@@ -163,6 +164,7 @@ public class LoadManager {
     partitionBalancer.clearPartitionBalancer();
     routeBalancer.clearRegionPriority();
     topologyService.stopTopologyService();
+    regionBalancer.stopRegionRebalanceService();
   }
 
   public void clearDataPartitionPolicyTable(String database) {
@@ -23,14 +23,17 @@ import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
 import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
 import org.apache.iotdb.common.rpc.thrift.TSeriesPartitionSlot;
 import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.partition.DataPartitionTable;
 import org.apache.iotdb.commons.partition.SchemaPartitionTable;
 import org.apache.iotdb.commons.partition.SeriesPartitionTable;
 import org.apache.iotdb.commons.structure.BalanceTreeMap;
+import org.apache.iotdb.confignode.conf.ConfigNodeConfig;
 import org.apache.iotdb.confignode.conf.ConfigNodeDescriptor;
 import org.apache.iotdb.confignode.exception.DatabaseNotExistsException;
 import org.apache.iotdb.confignode.exception.NoAvailableRegionGroupException;
 import org.apache.iotdb.confignode.manager.IManager;
+import org.apache.iotdb.confignode.manager.load.LoadManager;
 import org.apache.iotdb.confignode.manager.load.balancer.partition.DataPartitionPolicyTable;
 import org.apache.iotdb.confignode.manager.partition.PartitionManager;
 import org.apache.iotdb.confignode.manager.schema.ClusterSchemaManager;
@@ -48,6 +51,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The SeriesPartitionSlotBalancer provides interfaces to generate optimal Partition allocation and
@@ -57,6 +61,9 @@ public class PartitionBalancer {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PartitionBalancer.class);
 
+  private static final ConfigNodeConfig CONF = ConfigNodeDescriptor.getInstance().getConf();
+  private static final long HOT_SERIES_SLOT_UPDATE_INTERVAL_IN_MS = TimeUnit.MINUTES.toMillis(1);
+
   private final IManager configManager;
 
   private final DataPartitionAllocationStrategy dataPartitionAllocationStrategy;
@@ -169,6 +176,8 @@ public class PartitionBalancer {
       DataPartitionPolicyTable allotTable = dataPartitionPolicyTableMap.get(database);
       allotTable.acquireLock();
       try {
+        updateHotSeriesSlotsIfNecessary(database, allotTable);
+
         // Enumerate SeriesPartitionSlot
         for (Map.Entry<TSeriesPartitionSlot, TTimeSlotList> seriesPartitionEntry :
             unassignedPartitionSlotsMap.entrySet()) {
@@ -238,6 +247,17 @@ public class PartitionBalancer {
         seriesPartitionTable.putDataPartition(timePartitionSlot, allotGroupId);
         availableDataRegionGroupCounter.put(
             allotGroupId, availableDataRegionGroupCounter.get(allotGroupId) + 1);
+        // The hot SeriesSlot shares the DataPartition with additional DataRegionGroups, the
+        // devices are spread among them when writing
+        for (TConsensusGroupId splitGroupId :
+            allotTable.getSplitRegionGroupIds(seriesPartitionSlot)) {
+          if (!splitGroupId.equals(allotGroupId)
+              && availableDataRegionGroupCounter.containsKey(splitGroupId)) {
+            seriesPartitionTable.putDataPartition(timePartitionSlot, splitGroupId);
+            availableDataRegionGroupCounter.put(
+                splitGroupId, availableDataRegionGroupCounter.get(splitGroupId) + 1);
+          }
+        }
         continue;
       }
 
@@ -309,6 +329,39 @@ public class PartitionBalancer {
     }
   }
 
+  /**
+   * Detect the hot SeriesSlots of the specified Database by the write rate reported by DataNodes.
+   * The caller should hold the lock of the DataPartitionPolicyTable.
+   */
+  private void updateHotSeriesSlotsIfNecessary(
+      String database, DataPartitionPolicyTable allotTable) {
+    if (!CommonDescriptor.getInstance().getConfig().isEnableHotSeriesSlotSplit()
+        || System.currentTimeMillis() - allotTable.getLastHotSlotUpdateTime()
+            < HOT_SERIES_SLOT_UPDATE_INTERVAL_IN_MS) {
+      return;
+    }
+
+    // The load of a split SeriesSlot is the sum of its RegionGroups
+    Map<TSeriesPartitionSlot, Double> seriesSlotLoadMap = new HashMap<>();
+    getLoadManager()
+        .getLoadCache()
+        .getRegionSeriesSlotWriteRateMap()
+        .forEach(
+            (regionId, slotLoadMap) -> {
+              if (database.equals(
+                  getPartitionManager()
+                      .getRegionDatabase(
+                          new TConsensusGroupId(TConsensusGroupType.DataRegion, regionId)))) {
+                slotLoadMap.forEach(
+                    (slotId, load) ->
+                        seriesSlotLoadMap.merge(
+                            new TSeriesPartitionSlot(slotId), load, Double::sum));
+              }
+            });
+    allotTable.updateHotSeriesSlots(
+        seriesSlotLoadMap, CONF.getHotSeriesSlotLoadRatio(), CONF.getHotSeriesSlotMaxSplitNum());
+  }
+
   /**
    * Re-balance the DataPartitionPolicyTable.
    *
@@ -377,4 +430,8 @@ public class PartitionBalancer {
   private PartitionManager getPartitionManager() {
     return configManager.getPartitionManager();
   }
+
+  private LoadManager getLoadManager() {
+    return configManager.getLoadManager();
+  }
 }
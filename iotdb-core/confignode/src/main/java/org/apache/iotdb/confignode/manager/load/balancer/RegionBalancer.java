@@ -19,37 +19,70 @@
 
 package org.apache.iotdb.confignode.manager.load.balancer;
 
+import org.apache.iotdb.common.rpc.thrift.Model;
 import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
 import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
 import org.apache.iotdb.common.rpc.thrift.TDataNodeConfiguration;
 import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.cluster.NodeStatus;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.concurrent.threadpool.ScheduledExecutorUtil;
+import org.apache.iotdb.confignode.conf.ConfigNodeConfig;
 import org.apache.iotdb.confignode.conf.ConfigNodeDescriptor;
 import org.apache.iotdb.confignode.consensus.request.write.region.CreateRegionGroupsPlan;
 import org.apache.iotdb.confignode.exception.DatabaseNotExistsException;
 import org.apache.iotdb.confignode.exception.NotEnoughDataNodeException;
 import org.apache.iotdb.confignode.manager.IManager;
+import org.apache.iotdb.confignode.manager.ProcedureManager;
 import org.apache.iotdb.confignode.manager.load.LoadManager;
 import org.apache.iotdb.confignode.manager.load.balancer.region.GreedyCopySetRegionGroupAllocator;
 import org.apache.iotdb.confignode.manager.load.balancer.region.GreedyRegionGroupAllocator;
 import org.apache.iotdb.confignode.manager.load.balancer.region.IRegionGroupAllocator;
 import org.apache.iotdb.confignode.manager.load.balancer.region.PartiteGraphPlacementRegionGroupAllocator;
+import org.apache.iotdb.confignode.manager.load.balancer.region.RegionLoadRebalancer;
 import org.apache.iotdb.confignode.manager.node.NodeManager;
 import org.apache.iotdb.confignode.manager.partition.PartitionManager;
 import org.apache.iotdb.confignode.manager.schema.ClusterSchemaManager;
+import org.apache.iotdb.confignode.procedure.impl.region.RegionMigrationPlan;
+import org.apache.iotdb.confignode.rpc.thrift.TMigrateRegionReq;
+import org.apache.iotdb.db.utils.constant.SqlConstant;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The {@link RegionBalancer} provides interfaces to generate optimal Region allocation and
- * migration plans
+ * migration plans, and migrates the DataRegions periodically to balance the write load of DataNodes
+ * if enable_auto_region_rebalance is set
  */
 public class RegionBalancer {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(RegionBalancer.class);
+
+  private static final ConfigNodeConfig CONF = ConfigNodeDescriptor.getInstance().getConf();
+
   private final IManager configManager;
   private final IRegionGroupAllocator regionGroupAllocator;
+  private final RegionLoadRebalancer regionLoadRebalancer = new RegionLoadRebalancer();
+
+  /** Region rebalance executor service. */
+  private final Object rebalanceScheduleMonitor = new Object();
+
+  private Future<?> currentRebalanceFuture;
+  private final ScheduledExecutorService rebalanceExecutor =
+      IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+          ThreadName.CONFIG_NODE_REGION_REBALANCE.getName());
 
   public RegionBalancer(IManager configManager) {
     this.configManager = configManager;
@@ -141,6 +174,118 @@ public class RegionBalancer {
     return createRegionGroupsPlan;
   }
 
+  /**
+   * Generate the DataRegion migration plans that balance the write load of the running DataNodes.
+   * The RegionGroups under any region operation are not migrated.
+   *
+   * @return The migration plans, empty if the write load is balanced enough
+   */
+  public List<RegionMigrationPlan> genRegionMigrationPlans() {
+    final Map<Integer, TDataNodeConfiguration> availableDataNodeMap = new HashMap<>();
+    final Map<Integer, Double> freeDiskSpaceMap = new HashMap<>();
+    getNodeManager()
+        .filterDataNodeThroughStatus(NodeStatus.Running)
+        .forEach(
+            dataNodeConfiguration -> {
+              final int dataNodeId = dataNodeConfiguration.getLocation().getDataNodeId();
+              availableDataNodeMap.put(dataNodeId, dataNodeConfiguration);
+              freeDiskSpaceMap.put(dataNodeId, getLoadManager().getFreeDiskSpace(dataNodeId));
+            });
+
+    // The disk size of a Region is the largest one among its replicas
+    final Map<Integer, Long> regionSizeMap = new HashMap<>();
+    getLoadManager()
+        .getLoadCache()
+        .getRegionSizeMap()
+        .values()
+        .forEach(
+            sizeMap ->
+                sizeMap.forEach(
+                    (regionId, size) -> regionSizeMap.merge(regionId, size, Math::max)));
+
+    return regionLoadRebalancer.generateMigrationPlans(
+        availableDataNodeMap,
+        freeDiskSpaceMap,
+        getPartitionManager().getAllReplicaSets(TConsensusGroupType.DataRegion),
+        getLoadManager().getLoadCache().getRegionWriteRateMap(),
+        regionSizeMap,
+        new HashSet<>(getProcedureManager().getRegionOperationConsensusIds()),
+        CONF.getRegionRebalanceImbalanceRatio(),
+        CONF.getRegionRebalanceMaxMigrationsPerRound());
+  }
+
+  /** Start the region rebalance service if enabled. */
+  public void startRegionRebalanceService() {
+    if (!CONF.isEnableAutoRegionRebalance()) {
+      return;
+    }
+    synchronized (rebalanceScheduleMonitor) {
+      if (currentRebalanceFuture == null) {
+        currentRebalanceFuture =
+            ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+                rebalanceExecutor,
+                this::rebalanceRegions,
+                CONF.getRegionRebalanceIntervalInMs(),
+                CONF.getRegionRebalanceIntervalInMs(),
+                TimeUnit.MILLISECONDS);
+        LOGGER.info("Region rebalance service is started successfully.");
+      }
+    }
+  }
+
+  /** Stop the region rebalance service. */
+  public void stopRegionRebalanceService() {
+    synchronized (rebalanceScheduleMonitor) {
+      if (currentRebalanceFuture != null) {
+        currentRebalanceFuture.cancel(false);
+        currentRebalanceFuture = null;
+        LOGGER.info("Region rebalance service is stopped successfully.");
+      }
+    }
+  }
+
+  /**
+   * Submit the migrations of a rebalance round by the RegionMigrateProcedure. The round is skipped
+   * while any region operation is in progress, so at most one round of migrations is running.
+   */
+  private void rebalanceRegions() {
+    if (!getProcedureManager().getRegionOperationConsensusIds().isEmpty()) {
+      return;
+    }
+    for (final RegionMigrationPlan plan : genRegionMigrationPlans()) {
+      final TConsensusGroupId regionGroupId = plan.getRegionId();
+      final String database = getPartitionManager().getRegionDatabase(regionGroupId);
+      if (database == null) {
+        // The RegionGroup is deleted
+        continue;
+      }
+      final Model model =
+          database.startsWith(SqlConstant.TREE_MODEL_DATABASE_PREFIX) ? Model.TREE : Model.TABLE;
+      final TSStatus status =
+          getProcedureManager()
+              .migrateRegion(
+                  new TMigrateRegionReq(
+                      regionGroupId.getId(),
+                      plan.getFromDataNode().getDataNodeId(),
+                      plan.getToDataNode().getDataNodeId(),
+                      model));
+      if (status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        LOGGER.info(
+            "[RegionRebalance] Migrate {} from DataNode {} to DataNode {} to balance the write load.",
+            regionGroupId,
+            plan.getFromDataNode().getDataNodeId(),
+            plan.getToDataNode().getDataNodeId());
+      } else {
+        LOGGER.warn(
+            "[RegionRebalance] Failed to migrate {} from DataNode {} to DataNode {}: {}",
+            regionGroupId,
+            plan.getFromDataNode().getDataNodeId(),
+            plan.getToDataNode().getDataNodeId(),
+            status.getMessage());
+      }
+    }
+  }
+
   private NodeManager getNodeManager() {
     return configManager.getNodeManager();
   }
@@ -157,6 +302,10 @@ public class RegionBalancer {
     return configManager.getLoadManager();
   }
 
+  private ProcedureManager getProcedureManager() {
+    return configManager.getProcedureManager();
+  }
+
   public enum RegionGroupAllocatePolicy {
     GREEDY,
     GCR,
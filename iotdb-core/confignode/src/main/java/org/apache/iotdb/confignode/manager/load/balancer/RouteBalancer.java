@@ -38,6 +38,7 @@ import org.apache.iotdb.confignode.manager.load.balancer.router.leader.AbstractL
 import org.apache.iotdb.confignode.manager.load.balancer.router.leader.CostFlowSelectionLeaderBalancer;
 import org.apache.iotdb.confignode.manager.load.balancer.router.leader.GreedyLeaderBalancer;
 import org.apache.iotdb.confignode.manager.load.balancer.router.leader.HashLeaderBalancer;
+import org.apache.iotdb.confignode.manager.load.balancer.router.leader.LoadWeightedLeaderBalancer;
 import org.apache.iotdb.confignode.manager.load.balancer.router.priority.GreedyPriorityBalancer;
 import org.apache.iotdb.confignode.manager.load.balancer.router.priority.IPriorityBalancer;
 import org.apache.iotdb.confignode.manager.load.balancer.router.priority.LeaderPriorityBalancer;
@@ -138,6 +139,12 @@ public class RouteBalancer implements IClusterStatusSubscriber {
       case AbstractLeaderBalancer.HASH_POLICY:
         this.leaderBalancer = new HashLeaderBalancer();
         break;
+      case AbstractLeaderBalancer.LOAD_POLICY:
+        this.leaderBalancer =
+            new LoadWeightedLeaderBalancer(
+                () -> getLoadManager().getLoadCache().getRegionWriteRateMap(),
+                CONF.getLeaderBalanceLoadHysteresisRatio());
+        break;
       case AbstractLeaderBalancer.CFD_POLICY:
       default:
         this.leaderBalancer = new CostFlowSelectionLeaderBalancer();
@@ -455,6 +462,10 @@ public class RouteBalancer implements IClusterStatusSubscriber {
     }
   }
 
+  public AbstractLeaderBalancer getLeaderBalancer() {
+    return leaderBalancer;
+  }
+
   /**
    * @return Map<RegionGroupId, RegionPriority>
    */
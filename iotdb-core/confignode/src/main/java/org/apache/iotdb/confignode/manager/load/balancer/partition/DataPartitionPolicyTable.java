@@ -28,12 +28,14 @@ import org.apache.iotdb.confignode.conf.ConfigNodeDescriptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
 public class DataPartitionPolicyTable {
 
@@ -52,10 +54,16 @@ public class DataPartitionPolicyTable {
   // The number of SeriesSlots allocated to each RegionGroup in dataAllotMap
   private final BalanceTreeMap<TConsensusGroupId, Integer> seriesPartitionSlotCounter;
 
+  // Map<SeriesPartitionSlot, List<RegionGroupId>>
+  // The additional RegionGroups that share the future DataPartitions of the hot SeriesSlots
+  private final Map<TSeriesPartitionSlot, List<TConsensusGroupId>> hotSlotSplitMap;
+  private long lastHotSlotUpdateTime = 0;
+
   public DataPartitionPolicyTable() {
     this.dataAllotTableLock = new ReentrantLock();
     this.dataAllotMap = new HashMap<>();
     this.seriesPartitionSlotCounter = new BalanceTreeMap<>();
+    this.hotSlotSplitMap = new HashMap<>();
   }
 
   /**
@@ -83,6 +91,96 @@ public class DataPartitionPolicyTable {
     return regionGroupId;
   }
 
+  /**
+   * Get the additional RegionGroups of the specified SeriesPartitionSlot, which share its new
+   * DataPartitions with the RegionGroup in dataAllotMap because the SeriesPartitionSlot is hot.
+   *
+   * @param seriesPartitionSlot The specified SeriesPartitionSlot
+   * @return The additional RegionGroupIds, empty if the SeriesPartitionSlot is not split
+   */
+  public List<TConsensusGroupId> getSplitRegionGroupIds(TSeriesPartitionSlot seriesPartitionSlot) {
+    return hotSlotSplitMap.getOrDefault(seriesPartitionSlot, Collections.emptyList());
+  }
+
+  /**
+   * Detect the hot SeriesSlots and split them across additional RegionGroups.
+   *
+   * <p>A SeriesSlot is hot if its write load exceeds hotRatio times the average load of a
+   * RegionGroup. A hot SeriesSlot is split into ceil(load / average) RegionGroups at most
+   * maxSplitNum, where the additional ones are the least loaded. The hottest SeriesSlots are split
+   * first, so they won't be piled onto the same RegionGroups. Only the DataPartitions allocated
+   * afterwards are affected, the existing ones remain unchanged.
+   *
+   * @param seriesSlotLoadMap The write load of each SeriesSlot
+   * @param hotRatio The hot threshold relative to the average RegionGroup load
+   * @param maxSplitNum The maximum number of RegionGroups a hot SeriesSlot is split into
+   */
+  public void updateHotSeriesSlots(
+      Map<TSeriesPartitionSlot, Double> seriesSlotLoadMap, double hotRatio, int maxSplitNum) {
+    lastHotSlotUpdateTime = System.currentTimeMillis();
+    List<TConsensusGroupId> regionGroupIds = new ArrayList<>(seriesPartitionSlotCounter.keySet());
+    double totalLoad = seriesSlotLoadMap.values().stream().mapToDouble(Double::doubleValue).sum();
+    if (regionGroupIds.size() < 2 || totalLoad <= 0) {
+      hotSlotSplitMap.clear();
+      return;
+    }
+    double averageLoad = totalLoad / regionGroupIds.size();
+
+    // Map<RegionGroupId, write load>
+    Map<TConsensusGroupId, Double> regionGroupLoadMap = new HashMap<>();
+    regionGroupIds.forEach(regionGroupId -> regionGroupLoadMap.put(regionGroupId, 0d));
+    List<Map.Entry<TSeriesPartitionSlot, Double>> hotSlots = new ArrayList<>();
+    seriesSlotLoadMap.forEach(
+        (seriesPartitionSlot, load) -> {
+          TConsensusGroupId regionGroupId = dataAllotMap.get(seriesPartitionSlot);
+          if (regionGroupId == null || !regionGroupLoadMap.containsKey(regionGroupId)) {
+            return;
+          }
+          if (load > averageLoad * hotRatio) {
+            hotSlots.add(new AbstractMap.SimpleEntry<>(seriesPartitionSlot, load));
+          } else {
+            regionGroupLoadMap.merge(regionGroupId, load, Double::sum);
+          }
+        });
+    hotSlots.sort(Map.Entry.<TSeriesPartitionSlot, Double>comparingByValue().reversed());
+
+    Map<TSeriesPartitionSlot, List<TConsensusGroupId>> newHotSlotSplitMap = new HashMap<>();
+    for (Map.Entry<TSeriesPartitionSlot, Double> hotSlot : hotSlots) {
+      TConsensusGroupId allotGroupId = dataAllotMap.get(hotSlot.getKey());
+      int splitNum =
+          (int)
+              Math.min(
+                  Math.min(maxSplitNum, regionGroupIds.size()),
+                  Math.ceil(hotSlot.getValue() / averageLoad));
+      List<TConsensusGroupId> splitGroupIds =
+          regionGroupLoadMap.entrySet().stream()
+              .filter(entry -> !entry.getKey().equals(allotGroupId))
+              .sorted(Map.Entry.comparingByValue())
+              .limit(Math.max(0, splitNum - 1))
+              .map(Map.Entry::getKey)
+              .collect(Collectors.toList());
+      double splitLoad = hotSlot.getValue() / (splitGroupIds.size() + 1);
+      regionGroupLoadMap.merge(allotGroupId, splitLoad, Double::sum);
+      splitGroupIds.forEach(
+          regionGroupId -> regionGroupLoadMap.merge(regionGroupId, splitLoad, Double::sum));
+      if (!splitGroupIds.isEmpty()) {
+        newHotSlotSplitMap.put(hotSlot.getKey(), splitGroupIds);
+      }
+    }
+
+    if (!newHotSlotSplitMap.equals(hotSlotSplitMap)) {
+      LOGGER.info(
+          "[HotSeriesSlot] The hot SeriesPartitionSlots are split to additional RegionGroups: {}",
+          newHotSlotSplitMap);
+    }
+    hotSlotSplitMap.clear();
+    hotSlotSplitMap.putAll(newHotSlotSplitMap);
+  }
+
+  public long getLastHotSlotUpdateTime() {
+    return lastHotSlotUpdateTime;
+  }
+
   /**
    * Re-balance the allocation of SeriesSlots to RegionGroups.
    *
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.confignode.manager.load.balancer.region;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TDataNodeConfiguration;
+import org.apache.iotdb.common.rpc.thrift.TDataNodeLocation;
+import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.confignode.procedure.impl.region.RegionMigrationPlan;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Generate Region migration plans that even out the load of the DataNodes, where the load of a
+ * DataNode is the sum of the load of the Regions it holds.
+ *
+ * <p>Each step moves a Region replica from the most loaded DataNode to a less loaded one, choosing
+ * the Region that minimizes the larger load of the two DataNodes after the move. It stops when the
+ * most loaded DataNode is no more than imbalanceRatio times the average, when no move improves the
+ * balance, or when the number of moves reaches the bound, so a round never reshuffles the cluster.
+ */
+public class RegionLoadRebalancer {
+
+  public RegionLoadRebalancer() {
+    // Empty constructor
+  }
+
+  /**
+   * Generate the migration plans of a rebalance round.
+   *
+   * @param availableDataNodeMap DataNodes that can be migrated from or to
+   * @param freeDiskSpaceMap The free disk space of the DataNodes
+   * @param allocatedRegionGroups Allocated RegionGroups
+   * @param regionLoadMap Map<RegionId, load>, the Regions absent are regarded as no load
+   * @param regionSizeMap Map<RegionId, disk size>, a Region is only migrated to the DataNodes with
+   *     enough free disk space for it
+   * @param excludedRegionGroups RegionGroups that should not be migrated, e.g. those under
+   *     migration
+   * @param imbalanceRatio The tolerable ratio of the maximum load to the average load
+   * @param maxMigrationCount The maximum number of migrations
+   * @return The migration plans, empty if the cluster is balanced enough
+   */
+  public List<RegionMigrationPlan> generateMigrationPlans(
+      final Map<Integer, TDataNodeConfiguration> availableDataNodeMap,
+      final Map<Integer, Double> freeDiskSpaceMap,
+      final List<TRegionReplicaSet> allocatedRegionGroups,
+      final Map<Integer, Double> regionLoadMap,
+      final Map<Integer, Long> regionSizeMap,
+      final Set<TConsensusGroupId> excludedRegionGroups,
+      final double imbalanceRatio,
+      final int maxMigrationCount) {
+    final List<RegionMigrationPlan> plans = new ArrayList<>();
+    if (availableDataNodeMap.size() < 2) {
+      return plans;
+    }
+
+    // Map<DataNodeId, load>
+    final Map<Integer, Double> dataNodeLoadMap = new HashMap<>();
+    // Map<DataNodeId, RegionGroups held>
+    final Map<Integer, List<TRegionReplicaSet>> dataNodeRegionMap = new HashMap<>();
+    // Map<RegionGroupId, DataNodeIds>
+    final Map<TConsensusGroupId, Set<Integer>> regionDataNodeMap = new HashMap<>();
+    final Map<Integer, Double> freeDiskSpace = new HashMap<>(freeDiskSpaceMap);
+    availableDataNodeMap
+        .keySet()
+        .forEach(
+            dataNodeId -> {
+              dataNodeLoadMap.put(dataNodeId, 0d);
+              dataNodeRegionMap.put(dataNodeId, new ArrayList<>());
+            });
+    for (final TRegionReplicaSet regionGroup : allocatedRegionGroups) {
+      final double load = getRegionLoad(regionLoadMap, regionGroup);
+      for (final TDataNodeLocation location : regionGroup.getDataNodeLocations()) {
+        final int dataNodeId = location.getDataNodeId();
+        regionDataNodeMap
+            .computeIfAbsent(regionGroup.getRegionId(), k -> new HashSet<>())
+            .add(dataNodeId);
+        if (dataNodeLoadMap.containsKey(dataNodeId)) {
+          dataNodeLoadMap.merge(dataNodeId, load, Double::sum);
+          dataNodeRegionMap.get(dataNodeId).add(regionGroup);
+        }
+      }
+    }
+
+    final Set<TConsensusGroupId> migratedRegionGroups = new HashSet<>(excludedRegionGroups);
+    while (plans.size() < maxMigrationCount) {
+      final double averageLoad =
+          dataNodeLoadMap.values().stream().mapToDouble(Double::doubleValue).sum()
+              / dataNodeLoadMap.size();
+      final int sourceId =
+          dataNodeLoadMap.entrySet().stream()
+              .max(Map.Entry.comparingByValue())
+              .map(Map.Entry::getKey)
+              .orElseThrow(IllegalStateException::new);
+      final double sourceLoad = dataNodeLoadMap.get(sourceId);
+      if (averageLoad <= 0 || sourceLoad <= averageLoad * imbalanceRatio) {
+        break;
+      }
+
+      // Try the least loaded DataNodes first
+      final List<Integer> destinationIds =
+          dataNodeLoadMap.entrySet().stream()
+              .filter(entry -> entry.getKey() != sourceId)
+              .sorted(Map.Entry.comparingByValue())
+              .map(Map.Entry::getKey)
+              .collect(Collectors.toList());
+      TRegionReplicaSet bestRegionGroup = null;
+      int bestDestinationId = -1;
+      for (final int destinationId : destinationIds) {
+        final double destinationLoad = dataNodeLoadMap.get(destinationId);
+        double bestPeakLoad = sourceLoad;
+        for (final TRegionReplicaSet regionGroup : dataNodeRegionMap.get(sourceId)) {
+          final double load = getRegionLoad(regionLoadMap, regionGroup);
+          // A move improves the balance only if the Region is lighter than the gap
+          if (load <= 0
+              || load >= sourceLoad - destinationLoad
+              || migratedRegionGroups.contains(regionGroup.getRegionId())
+              || regionDataNodeMap.get(regionGroup.getRegionId()).contains(destinationId)
+              || regionSizeMap.getOrDefault(regionGroup.getRegionId().getId(), 0L)
+                  > freeDiskSpace.getOrDefault(destinationId, 0d)) {
+            continue;
+          }
+          final double peakLoad = Math.max(sourceLoad - load, destinationLoad + load);
+          if (peakLoad < bestPeakLoad) {
+            bestPeakLoad = peakLoad;
+            bestRegionGroup = regionGroup;
+          }
+        }
+        if (bestRegionGroup != null) {
+          bestDestinationId = destinationId;
+          break;
+        }
+      }
+      if (bestRegionGroup == null) {
+        break;
+      }
+
+      // Apply the move, so that the next move is based on the migrated distribution
+      final TConsensusGroupId regionGroupId = bestRegionGroup.getRegionId();
+      final double load = getRegionLoad(regionLoadMap, bestRegionGroup);
+      dataNodeLoadMap.merge(sourceId, -load, Double::sum);
+      dataNodeLoadMap.merge(bestDestinationId, load, Double::sum);
+      dataNodeRegionMap.get(sourceId).remove(bestRegionGroup);
+      dataNodeRegionMap.get(bestDestinationId).add(bestRegionGroup);
+      regionDataNodeMap.get(regionGroupId).remove(sourceId);
+      regionDataNodeMap.get(regionGroupId).add(bestDestinationId);
+      freeDiskSpace.merge(
+          bestDestinationId,
+          (double) -regionSizeMap.getOrDefault(regionGroupId.getId(), 0L),
+          Double::sum);
+      migratedRegionGroups.add(regionGroupId);
+
+      final RegionMigrationPlan plan =
+          RegionMigrationPlan.create(
+              regionGroupId, availableDataNodeMap.get(sourceId).getLocation());
+      plan.setToDataNode(availableDataNodeMap.get(bestDestinationId).getLocation());
+      plans.add(plan);
+    }
+    return plans;
+  }
+
+  private static double getRegionLoad(
+      final Map<Integer, Double> regionLoadMap, final TRegionReplicaSet regionGroup) {
+    return regionLoadMap.getOrDefault(regionGroup.getRegionId().getId(), 0d);
+  }
+}
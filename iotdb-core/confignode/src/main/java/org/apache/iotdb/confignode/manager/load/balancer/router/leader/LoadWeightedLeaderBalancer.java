@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.confignode.manager.load.balancer.router.leader;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.confignode.manager.load.cache.node.NodeStatistics;
+import org.apache.iotdb.confignode.manager.load.cache.region.RegionStatistics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Leader distribution balancer that balances the load served by the leaders of each DataNode
+ * instead of the leader count.
+ *
+ * <p>The cost of a RegionGroup-leader is {@code 1 + load / averageLoad}, where load is the observed
+ * write rate of the RegionGroup, so the leader count is still balanced when there is no load. The
+ * balancer starts from the current leader distribution and moves a leader from the most loaded
+ * DataNode only if the destination stays below the source by the hysteresis ratio after the move,
+ * which keeps the leaders from flapping between similarly loaded DataNodes.
+ */
+public class LoadWeightedLeaderBalancer extends AbstractLeaderBalancer {
+
+  // Map<RegionGroupId, load>
+  private final Supplier<Map<Integer, Double>> regionLoadSupplier;
+  private final double hysteresisRatio;
+
+  // Map<RegionGroupType, the ratio of the max DataNode load to the average>
+  private final Map<TConsensusGroupType, Double> actualImbalanceMap = new ConcurrentHashMap<>();
+  private final Map<TConsensusGroupType, Double> predictedImbalanceMap = new ConcurrentHashMap<>();
+
+  public LoadWeightedLeaderBalancer(
+      Supplier<Map<Integer, Double>> regionLoadSupplier, double hysteresisRatio) {
+    super();
+    this.regionLoadSupplier = regionLoadSupplier;
+    this.hysteresisRatio = Math.max(0, hysteresisRatio);
+  }
+
+  @Override
+  public Map<TConsensusGroupId, Integer> generateOptimalLeaderDistribution(
+      Map<String, List<TConsensusGroupId>> databaseRegionGroupMap,
+      Map<TConsensusGroupId, Set<Integer>> regionLocationMap,
+      Map<TConsensusGroupId, Integer> regionLeaderMap,
+      Map<Integer, NodeStatistics> dataNodeStatisticsMap,
+      Map<TConsensusGroupId, Map<Integer, RegionStatistics>> regionStatisticsMap) {
+    initialize(
+        databaseRegionGroupMap,
+        regionLocationMap,
+        regionLeaderMap,
+        dataNodeStatisticsMap,
+        regionStatisticsMap);
+    Map<TConsensusGroupId, Integer> result = constructLoadWeightedDistribution();
+    clear();
+    return result;
+  }
+
+  private Map<TConsensusGroupId, Integer> constructLoadWeightedDistribution() {
+    Map<TConsensusGroupId, Double> regionCostMap = calculateRegionCost();
+
+    // Map<DataNodeId, the sum of the cost of the leaders>
+    Map<Integer, Double> dataNodeCostMap = new TreeMap<>();
+    regionLocationMap.values().stream()
+        .flatMap(Set::stream)
+        .filter(this::isDataNodeAvailable)
+        .forEach(dataNodeId -> dataNodeCostMap.put(dataNodeId, 0d));
+    regionGroupIntersection.forEach(
+        regionGroupId -> {
+          int leaderId = regionLeaderMap.getOrDefault(regionGroupId, -1);
+          if (dataNodeCostMap.containsKey(leaderId)) {
+            dataNodeCostMap.merge(leaderId, regionCostMap.get(regionGroupId), Double::sum);
+          }
+        });
+    TConsensusGroupType regionGroupType =
+        regionGroupIntersection.isEmpty()
+            ? null
+            : regionGroupIntersection.iterator().next().getType();
+    if (regionGroupType != null) {
+      actualImbalanceMap.put(regionGroupType, calculateImbalance(dataNodeCostMap));
+    }
+
+    // Re-elect the RegionGroups whose leader is unavailable to the least loaded replica
+    regionGroupIntersection.forEach(
+        regionGroupId -> {
+          int leaderId = regionLeaderMap.getOrDefault(regionGroupId, -1);
+          if (isDataNodeAvailable(leaderId) && isRegionAvailable(regionGroupId, leaderId)) {
+            return;
+          }
+          int newLeaderId = -1;
+          double minCost = Double.MAX_VALUE;
+          for (int dataNodeId : regionLocationMap.get(regionGroupId)) {
+            if (isDataNodeAvailable(dataNodeId)
+                && isRegionAvailable(regionGroupId, dataNodeId)
+                && dataNodeCostMap.get(dataNodeId) < minCost) {
+              minCost = dataNodeCostMap.get(dataNodeId);
+              newLeaderId = dataNodeId;
+            }
+          }
+          if (newLeaderId != -1) {
+            if (dataNodeCostMap.containsKey(leaderId)) {
+              dataNodeCostMap.merge(leaderId, -regionCostMap.get(regionGroupId), Double::sum);
+            }
+            dataNodeCostMap.merge(newLeaderId, regionCostMap.get(regionGroupId), Double::sum);
+            regionLeaderMap.put(regionGroupId, newLeaderId);
+          }
+        });
+
+    // Move the leaders off the most loaded DataNode until no move is worthwhile. Each move reduces
+    // the peak cost of a pair of DataNodes, so the loop terminates
+    int maxMoves = regionGroupIntersection.size();
+    for (int move = 0; move < maxMoves; move++) {
+      int sourceId = -1;
+      double sourceCost = -1;
+      for (Map.Entry<Integer, Double> entry : dataNodeCostMap.entrySet()) {
+        if (entry.getValue() > sourceCost) {
+          sourceId = entry.getKey();
+          sourceCost = entry.getValue();
+        }
+      }
+      if (sourceId == -1) {
+        break;
+      }
+
+      TConsensusGroupId bestRegionGroupId = null;
+      int bestDestinationId = -1;
+      double bestPeakCost = sourceCost * (1 - hysteresisRatio);
+      for (TConsensusGroupId regionGroupId : regionGroupIntersection) {
+        if (regionLeaderMap.get(regionGroupId) != sourceId) {
+          continue;
+        }
+        double cost = regionCostMap.get(regionGroupId);
+        for (int dataNodeId : regionLocationMap.get(regionGroupId)) {
+          if (dataNodeId == sourceId
+              || !isDataNodeAvailable(dataNodeId)
+              || !isRegionAvailable(regionGroupId, dataNodeId)) {
+            continue;
+          }
+          double peakCost = Math.max(sourceCost - cost, dataNodeCostMap.get(dataNodeId) + cost);
+          if (peakCost < bestPeakCost) {
+            bestPeakCost = peakCost;
+            bestRegionGroupId = regionGroupId;
+            bestDestinationId = dataNodeId;
+          }
+        }
+      }
+      if (bestRegionGroupId == null) {
+        break;
+      }
+
+      double cost = regionCostMap.get(bestRegionGroupId);
+      dataNodeCostMap.merge(sourceId, -cost, Double::sum);
+      dataNodeCostMap.merge(bestDestinationId, cost, Double::sum);
+      regionLeaderMap.put(bestRegionGroupId, bestDestinationId);
+    }
+
+    if (regionGroupType != null) {
+      predictedImbalanceMap.put(regionGroupType, calculateImbalance(dataNodeCostMap));
+    }
+    return new ConcurrentHashMap<>(regionLeaderMap);
+  }
+
+  private Map<TConsensusGroupId, Double> calculateRegionCost() {
+    Map<Integer, Double> regionLoadMap = regionLoadSupplier.get();
+    Map<TConsensusGroupId, Double> regionLoads = new TreeMap<>();
+    regionGroupIntersection.forEach(
+        regionGroupId ->
+            regionLoads.put(
+                regionGroupId, Math.max(0, regionLoadMap.getOrDefault(regionGroupId.getId(), 0d))));
+    double averageLoad =
+        regionLoads.values().stream().mapToDouble(Double::doubleValue).average().orElse(0);
+
+    Map<TConsensusGroupId, Double> regionCostMap = new TreeMap<>();
+    regionLoads.forEach(
+        (regionGroupId, load) ->
+            regionCostMap.put(regionGroupId, averageLoad > 0 ? 1 + load / averageLoad : 1));
+    return regionCostMap;
+  }
+
+  private static double calculateImbalance(Map<Integer, Double> dataNodeCostMap) {
+    double averageCost =
+        dataNodeCostMap.values().stream().mapToDouble(Double::doubleValue).average().orElse(0);
+    double maxCost =
+        dataNodeCostMap.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+    return averageCost > 0 ? maxCost / averageCost : 1;
+  }
+
+  /**
+   * @return The ratio of the max DataNode leader cost to the average before the latest balance,
+   *     i.e. of the leader distribution observed by heartbeats
+   */
+  public double getActualImbalance(TConsensusGroupType regionGroupType) {
+    return actualImbalanceMap.getOrDefault(regionGroupType, 1d);
+  }
+
+  /**
+   * @return The ratio of the max DataNode leader cost to the average expected after the latest
+   *     balance
+   */
+  public double getPredictedImbalance(TConsensusGroupType regionGroupType) {
+    return predictedImbalanceMap.getOrDefault(regionGroupType, 1d);
+  }
+}
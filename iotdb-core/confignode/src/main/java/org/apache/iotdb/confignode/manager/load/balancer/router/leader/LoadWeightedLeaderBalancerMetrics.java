@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.confignode.manager.load.balancer.router.leader;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.metrics.utils.MetricType;
+
+import java.util.Objects;
+
+/**
+ * Monitoring the predicted and actual leader load balance of {@link LoadWeightedLeaderBalancer}.
+ */
+public class LoadWeightedLeaderBalancerMetrics implements IMetricSet {
+
+  private static final String ACTUAL = "actual";
+  private static final String PREDICTED = "predicted";
+
+  private final LoadWeightedLeaderBalancer leaderBalancer;
+
+  public LoadWeightedLeaderBalancerMetrics(LoadWeightedLeaderBalancer leaderBalancer) {
+    this.leaderBalancer = leaderBalancer;
+  }
+
+  @Override
+  public void bindTo(AbstractMetricService metricService) {
+    for (TConsensusGroupType regionGroupType : TConsensusGroupType.values()) {
+      metricService.createAutoGauge(
+          Metric.LEADER_LOAD_IMBALANCE.toString(),
+          MetricLevel.IMPORTANT,
+          leaderBalancer,
+          balancer -> balancer.getActualImbalance(regionGroupType),
+          Tag.TYPE.toString(),
+          regionGroupType.toString(),
+          Tag.STAGE.toString(),
+          ACTUAL);
+      metricService.createAutoGauge(
+          Metric.LEADER_LOAD_IMBALANCE.toString(),
+          MetricLevel.IMPORTANT,
+          leaderBalancer,
+          balancer -> balancer.getPredictedImbalance(regionGroupType),
+          Tag.TYPE.toString(),
+          regionGroupType.toString(),
+          Tag.STAGE.toString(),
+          PREDICTED);
+    }
+  }
+
+  @Override
+  public void unbindFrom(AbstractMetricService metricService) {
+    for (TConsensusGroupType regionGroupType : TConsensusGroupType.values()) {
+      metricService.remove(
+          MetricType.AUTO_GAUGE,
+          Metric.LEADER_LOAD_IMBALANCE.toString(),
+          Tag.TYPE.toString(),
+          regionGroupType.toString(),
+          Tag.STAGE.toString(),
+          ACTUAL);
+      metricService.remove(
+          MetricType.AUTO_GAUGE,
+          Metric.LEADER_LOAD_IMBALANCE.toString(),
+          Tag.TYPE.toString(),
+          regionGroupType.toString(),
+          Tag.STAGE.toString(),
+          PREDICTED);
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    LoadWeightedLeaderBalancerMetrics that = (LoadWeightedLeaderBalancerMetrics) o;
+    return leaderBalancer.equals(that.leaderBalancer);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(leaderBalancer);
+  }
+}
@@ -41,13 +41,16 @@ import org.apache.iotdb.confignode.manager.load.cache.node.AINodeHeartbeatCache;
 import org.apache.iotdb.confignode.manager.load.cache.node.BaseNodeCache;
 import org.apache.iotdb.confignode.manager.load.cache.node.ConfigNodeHeartbeatCache;
 import org.apache.iotdb.confignode.manager.load.cache.node.DataNodeHeartbeatCache;
+import org.apache.iotdb.confignode.manager.load.cache.node.DataNodeHeartbeatStatistics;
 import org.apache.iotdb.confignode.manager.load.cache.node.NodeHeartbeatSample;
 import org.apache.iotdb.confignode.manager.load.cache.node.NodeStatistics;
 import org.apache.iotdb.confignode.manager.load.cache.region.RegionGroupCache;
 import org.apache.iotdb.confignode.manager.load.cache.region.RegionGroupStatistics;
 import org.apache.iotdb.confignode.manager.load.cache.region.RegionHeartbeatSample;
 import org.apache.iotdb.confignode.manager.load.cache.region.RegionStatistics;
+import org.apache.iotdb.confignode.manager.load.cache.region.RegionWriteRate;
 import org.apache.iotdb.confignode.manager.partition.RegionGroupStatus;
+import org.apache.iotdb.mpp.rpc.thrift.TDataNodeHeartbeatResp;
 
 import org.apache.thrift.annotation.Nullable;
 import org.slf4j.Logger;
@@ -84,6 +87,12 @@ public class LoadCache {
 
   private static final ConfigNodeConfig CONF = ConfigNodeDescriptor.getInstance().getConf();
 
+  private static final double REGION_WRITE_RATE_EWMA_ALPHA = 0.2;
+  // The DataNodes report the RegionRawSizes every 10 heartbeats, see HeartbeatService
+  private static final long REGION_WRITE_RATE_SAMPLING_INTERVAL_NANOS =
+      TimeUnit.MILLISECONDS.toNanos(CONF.getHeartbeatIntervalInMs() * 10);
+  private static final double MIN_SERIES_SLOT_WRITE_RATE = 1;
+
   // Map<NodeId, is heartbeat processing>
   // False indicates there is no processing heartbeat request, true otherwise
   private final Map<Integer, AtomicBoolean> heartbeatProcessingMap;
@@ -95,10 +104,21 @@ public class LoadCache {
   private final Map<Integer, Map<Integer, Long>> regionSizeMap;
   // Map<NodeId, Map<RegionGroupId, RegionRawSize>>
   private final Map<Integer, Map<Integer, Long>> regionRawSizeMap;
+  // Map<NodeId, Map<RegionGroupId, the nano timestamp when the RegionRawSize changes>>
+  private final Map<Integer, Map<Integer, Long>> regionRawSizeUpdateTimeMap;
+  // Map<RegionGroupId, the EWMA of the raw data written into the Region per second>
+  private final Map<Integer, RegionWriteRate> regionWriteRateMap;
+  // Map<NodeId, the nano timestamp when the SeriesSlot write points of the DataNode are sampled>
+  private final Map<Integer, Long> seriesSlotSampleTimeMap;
+  // Map<RegionGroupId, Map<SeriesSlotId, the EWMA of the points written into the SeriesSlot per
+  // second>>
+  private final Map<Integer, Map<Integer, Double>> regionSeriesSlotWriteRateMap;
   // Map<RegionGroupId, ConsensusGroupCache>
   private final Map<TConsensusGroupId, ConsensusGroupCache> consensusGroupCacheMap;
   // Map<DataNodeId, confirmedConfigNodes>
   private final Map<Integer, Set<TEndPoint>> confirmedConfigNodeMap;
+  // Map<DataNodeId, the region statistics merged from the delta heartbeat responses>
+  private final Map<Integer, DataNodeHeartbeatStatistics> dataNodeHeartbeatStatisticsMap;
   private Map<Integer, Set<Integer>> topologyGraph;
   private final AtomicBoolean topologyUpdated;
 
@@ -108,8 +128,13 @@ public class LoadCache {
     this.regionGroupCacheMap = new ConcurrentHashMap<>();
     this.regionSizeMap = new ConcurrentHashMap<>();
     this.regionRawSizeMap = new ConcurrentHashMap<>();
+    this.regionRawSizeUpdateTimeMap = new ConcurrentHashMap<>();
+    this.regionWriteRateMap = new ConcurrentHashMap<>();
+    this.seriesSlotSampleTimeMap = new ConcurrentHashMap<>();
+    this.regionSeriesSlotWriteRateMap = new ConcurrentHashMap<>();
     this.consensusGroupCacheMap = new ConcurrentHashMap<>();
     this.confirmedConfigNodeMap = new ConcurrentHashMap<>();
+    this.dataNodeHeartbeatStatisticsMap = new ConcurrentHashMap<>();
     this.topologyGraph = new HashMap<>();
     this.topologyUpdated = new AtomicBoolean(false);
   }
@@ -285,6 +310,9 @@ public class LoadCache {
   public void removeNodeCache(int nodeId) {
     nodeCacheMap.remove(nodeId);
     heartbeatProcessingMap.remove(nodeId);
+    regionRawSizeUpdateTimeMap.remove(nodeId);
+    seriesSlotSampleTimeMap.remove(nodeId);
+    dataNodeHeartbeatStatisticsMap.remove(nodeId);
   }
 
   /**
@@ -350,6 +378,16 @@ public class LoadCache {
         .ifPresent(cache -> cache.removeRegionCache(dataNodeId));
   }
 
+  /**
+   * @return true if the ConsensusGroupCache of the RegionGroup exists but its leader is not
+   *     selected yet
+   */
+  public boolean isConsensusGroupLeaderUnSelected(TConsensusGroupId regionGroupId) {
+    return Optional.ofNullable(consensusGroupCacheMap.get(regionGroupId))
+        .map(ConsensusGroupCache::isLeaderUnSelected)
+        .orElse(false);
+  }
+
   /**
    * Cache the latest leader of a RegionGroup.
    *
@@ -713,6 +751,10 @@ public class LoadCache {
   public void removeRegionGroupCache(TConsensusGroupId consensusGroupId) {
     regionGroupCacheMap.remove(consensusGroupId);
     consensusGroupCacheMap.remove(consensusGroupId);
+    if (TConsensusGroupType.DataRegion.equals(consensusGroupId.getType())) {
+      regionWriteRateMap.remove(consensusGroupId.getId());
+      regionSeriesSlotWriteRateMap.remove(consensusGroupId.getId());
+    }
   }
 
   /**
@@ -821,12 +863,125 @@ public class LoadCache {
     return confirmedConfigNodeMap.get(dataNodeId);
   }
 
+  /**
+   * Merge the region statistics of the DataNode's heartbeat response, which may only contain the
+   * entries changed since the last response. The response carries the full statistics afterwards.
+   */
+  public DataNodeHeartbeatStatistics applyDataNodeHeartbeatStatistics(
+      int dataNodeId, TDataNodeHeartbeatResp resp) {
+    DataNodeHeartbeatStatistics statistics =
+        dataNodeHeartbeatStatisticsMap.computeIfAbsent(
+            dataNodeId, DataNodeHeartbeatStatistics::new);
+    statistics.apply(resp);
+    return statistics;
+  }
+
+  /**
+   * @return The statistics version of the DataNode's last applied heartbeat response, {@link
+   *     DataNodeHeartbeatStatistics#UNKNOWN_VERSION} if the full statistics are required
+   */
+  public long getDataNodeHeartbeatStatisticsVersion(int dataNodeId) {
+    DataNodeHeartbeatStatistics statistics = dataNodeHeartbeatStatisticsMap.get(dataNodeId);
+    return statistics == null
+        ? DataNodeHeartbeatStatistics.UNKNOWN_VERSION
+        : statistics.getVersion();
+  }
+
+  /** Require the full region statistics in the DataNode's next heartbeat response. */
+  public void resetDataNodeHeartbeatStatistics(int dataNodeId) {
+    Optional.ofNullable(dataNodeHeartbeatStatisticsMap.get(dataNodeId))
+        .ifPresent(DataNodeHeartbeatStatistics::reset);
+  }
+
   public void updateRegionSizeMap(int dataNodeId, Map<Integer, Long> regionSizeMap) {
     this.regionSizeMap.put(dataNodeId, regionSizeMap);
   }
 
-  public void updateRegionRawSizeMap(int dataNodeId, Map<Integer, Long> regionRawSizeMap) {
-    this.regionRawSizeMap.put(dataNodeId, regionRawSizeMap);
+  /**
+   * Update the raw data size of the DataRegions on the specified DataNode, and the write rate of
+   * the DataRegions whose raw data size grows.
+   *
+   * @param rawSizes Map<RegionGroupId, RegionRawSize>, all the DataRegions on the DataNode
+   */
+  public void updateRegionRawSizeMap(int dataNodeId, Map<Integer, Long> rawSizes) {
+    final long currentTime = System.nanoTime();
+    final Map<Integer, Long> lastRawSizes =
+        regionRawSizeMap.computeIfAbsent(dataNodeId, k -> new ConcurrentHashMap<>());
+    final Map<Integer, Long> lastUpdateTimes =
+        regionRawSizeUpdateTimeMap.computeIfAbsent(dataNodeId, k -> new ConcurrentHashMap<>());
+    lastRawSizes.keySet().retainAll(rawSizes.keySet());
+    lastUpdateTimes.keySet().retainAll(rawSizes.keySet());
+
+    rawSizes.forEach(
+        (regionId, rawSize) -> {
+          final Long lastRawSize = lastRawSizes.put(regionId, rawSize);
+          if (Objects.equals(lastRawSize, rawSize)) {
+            // Nothing is written, the write rate decays by itself
+            return;
+          }
+          final Long lastUpdateTime = lastUpdateTimes.put(regionId, currentTime);
+          if (lastRawSize == null || lastUpdateTime == null || currentTime <= lastUpdateTime) {
+            return;
+          }
+          // The growth of the raw data size is the write load of the Region
+          final double elapsedSeconds = (currentTime - lastUpdateTime) / 1_000_000_000d;
+          regionWriteRateMap
+              .computeIfAbsent(
+                  regionId,
+                  k ->
+                      new RegionWriteRate(
+                          REGION_WRITE_RATE_EWMA_ALPHA, REGION_WRITE_RATE_SAMPLING_INTERVAL_NANOS))
+              .update(Math.max(0, rawSize - lastRawSize) / elapsedSeconds, currentTime);
+        });
+  }
+
+  /**
+   * Update the write rate of the hot SeriesSlots in the DataRegions led by the specified DataNode.
+   *
+   * @param seriesSlotWritePoints Map<RegionGroupId, Map<SeriesSlotId, points written since the last
+   *     sampling>>
+   */
+  public void updateRegionSeriesSlotWriteRateMap(
+      int dataNodeId, Map<Integer, Map<Integer, Long>> seriesSlotWritePoints) {
+    updateRegionSeriesSlotWriteRateMap(dataNodeId, seriesSlotWritePoints, System.nanoTime());
+  }
+
+  void updateRegionSeriesSlotWriteRateMap(
+      int dataNodeId, Map<Integer, Map<Integer, Long>> seriesSlotWritePoints, long currentTime) {
+    final Long lastSampleTime = seriesSlotSampleTimeMap.put(dataNodeId, currentTime);
+    if (lastSampleTime == null || currentTime <= lastSampleTime) {
+      return;
+    }
+
+    final double elapsedSeconds = (currentTime - lastSampleTime) / 1_000_000_000d;
+    seriesSlotWritePoints.forEach(
+        (regionId, slotPoints) -> {
+          final Map<Integer, Double> lastSlotRates =
+              regionSeriesSlotWriteRateMap.getOrDefault(regionId, Collections.emptyMap());
+          final Map<Integer, Double> slotRates = new HashMap<>();
+          // The SeriesSlots not reported in this sampling are regarded as written nothing
+          lastSlotRates.forEach(
+              (slotId, rate) -> slotRates.put(slotId, rate * (1 - REGION_WRITE_RATE_EWMA_ALPHA)));
+          slotPoints.forEach(
+              (slotId, points) -> {
+                final double sample = points / elapsedSeconds;
+                slotRates.put(
+                    slotId,
+                    lastSlotRates.containsKey(slotId)
+                        ? slotRates.get(slotId) + sample * REGION_WRITE_RATE_EWMA_ALPHA
+                        : sample);
+              });
+          slotRates.values().removeIf(rate -> rate < MIN_SERIES_SLOT_WRITE_RATE);
+          regionSeriesSlotWriteRateMap.put(regionId, slotRates);
+        });
+  }
+
+  /**
+   * @return Map<RegionGroupId, Map<SeriesSlotId, points written per second>>, only the hot
+   *     SeriesSlots reported by the DataRegion-leaders are included
+   */
+  public Map<Integer, Map<Integer, Double>> getRegionSeriesSlotWriteRateMap() {
+    return regionSeriesSlotWriteRateMap;
   }
 
   public Map<Integer, Map<Integer, Long>> getRegionSizeMap() {
@@ -836,4 +991,18 @@ public class LoadCache {
   public Map<Integer, Map<Integer, Long>> getRegionRawSizeMap() {
     return regionRawSizeMap;
   }
+
+  /**
+   * Get the write load of the DataRegions, which is estimated by the growth of the raw data size
+   * reported by heartbeats.
+   *
+   * @return Map<RegionGroupId, bytes of raw data written per second>
+   */
+  public Map<Integer, Double> getRegionWriteRateMap() {
+    final long currentTime = System.nanoTime();
+    final Map<Integer, Double> writeRateMap = new HashMap<>();
+    regionWriteRateMap.forEach(
+        (regionId, writeRate) -> writeRateMap.put(regionId, writeRate.get(currentTime)));
+    return writeRateMap;
+  }
 }
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.confignode.manager.load.cache.node;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.mpp.rpc.thrift.TDataNodeHeartbeatResp;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The region statistics of a DataNode merged from its heartbeat responses, where each response
+ * carries either the full statistics or the delta against the previous one.
+ */
+public class DataNodeHeartbeatStatistics {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DataNodeHeartbeatStatistics.class);
+
+  public static final long UNKNOWN_VERSION = -1;
+
+  private final int dataNodeId;
+
+  // The statisticsVersion of the last applied response, UNKNOWN_VERSION if the next response
+  // should carry the full statistics
+  private long version = UNKNOWN_VERSION;
+
+  private final Map<TConsensusGroupId, Boolean> judgedLeaders = new ConcurrentHashMap<>();
+  private final Map<TConsensusGroupId, Long> consensusLogicalTimeMap = new ConcurrentHashMap<>();
+
+  public DataNodeHeartbeatStatistics(int dataNodeId) {
+    this.dataNodeId = dataNodeId;
+  }
+
+  /**
+   * @return true if the response only carries the region statistics changed since its base version
+   */
+  public static boolean isDelta(TDataNodeHeartbeatResp resp) {
+    return resp.isSetStatisticsVersion() && resp.isSetStatisticsBaseVersion();
+  }
+
+  /**
+   * @return the Regions whose statistics are carried by the delta response
+   */
+  public static Set<TConsensusGroupId> getChangedRegions(TDataNodeHeartbeatResp resp) {
+    Set<TConsensusGroupId> changedRegions = new HashSet<>();
+    if (resp.isSetJudgedLeaders()) {
+      changedRegions.addAll(resp.getJudgedLeaders().keySet());
+    }
+    if (resp.isSetConsensusLogicalTimeMap()) {
+      changedRegions.addAll(resp.getConsensusLogicalTimeMap().keySet());
+    }
+    return changedRegions;
+  }
+
+  /**
+   * Merge the judgedLeaders and consensusLogicalTimeMap of the response in place. The response is
+   * left as it is, use {@link #getJudgedLeaders()} and {@link #getConsensusLogicalTimeMap()} for
+   * the merged statistics of a delta response.
+   */
+  public synchronized void apply(TDataNodeHeartbeatResp resp) {
+    if (!resp.isSetStatisticsVersion()) {
+      // The DataNode doesn't support delta statistics
+      version = UNKNOWN_VERSION;
+      return;
+    }
+
+    final boolean isDelta = resp.isSetStatisticsBaseVersion();
+    if (isDelta && resp.getStatisticsBaseVersion() != version) {
+      // Some responses are lost or out of order, the merged statistics are stale but still the
+      // best we know, so merge the delta and require the full statistics next time
+      LOGGER.info(
+          "[HeartbeatStatistics] The delta statistics of DataNode {} are based on version {}, "
+              + "but the applied version is {}, require the full statistics.",
+          dataNodeId,
+          resp.getStatisticsBaseVersion(),
+          version);
+      version = UNKNOWN_VERSION;
+    } else {
+      version = resp.getStatisticsVersion();
+    }
+
+    if (isDelta && resp.isSetRemovedStatisticsRegions()) {
+      for (TConsensusGroupId regionId : resp.getRemovedStatisticsRegions()) {
+        judgedLeaders.remove(regionId);
+        consensusLogicalTimeMap.remove(regionId);
+      }
+    }
+    if (resp.isSetJudgedLeaders()) {
+      merge(judgedLeaders, resp.getJudgedLeaders(), isDelta);
+    }
+    if (resp.isSetConsensusLogicalTimeMap()) {
+      merge(consensusLogicalTimeMap, resp.getConsensusLogicalTimeMap(), isDelta);
+    }
+  }
+
+  private static <K, V> void merge(Map<K, V> merged, Map<K, V> received, boolean isDelta) {
+    if (!isDelta) {
+      merged.keySet().retainAll(received.keySet());
+    }
+    merged.putAll(received);
+  }
+
+  /** Require the full statistics in the next heartbeat. */
+  public synchronized void reset() {
+    version = UNKNOWN_VERSION;
+  }
+
+  public synchronized long getVersion() {
+    return version;
+  }
+
+  public Map<TConsensusGroupId, Boolean> getJudgedLeaders() {
+    return Collections.unmodifiableMap(judgedLeaders);
+  }
+
+  public Map<TConsensusGroupId, Long> getConsensusLogicalTimeMap() {
+    return Collections.unmodifiableMap(consensusLogicalTimeMap);
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.confignode.manager.load.cache.region;
+
+/**
+ * RegionWriteRate records the EWMA of the raw data written into a Region per second, which is
+ * sampled every sampling interval. The samples are only reported when the raw data size of the
+ * Region changes, so the missing samples are regarded as written nothing and decayed lazily.
+ */
+public class RegionWriteRate {
+
+  private final double alpha;
+  private final long samplingIntervalNanos;
+
+  private double rate = Double.NaN;
+  private long updateNanoTime;
+
+  public RegionWriteRate(double alpha, long samplingIntervalNanos) {
+    this.alpha = alpha;
+    this.samplingIntervalNanos = Math.max(samplingIntervalNanos, 1);
+  }
+
+  /**
+   * @param sample the raw data written per second since the last sample
+   * @param nanoTime the nano timestamp of the sample
+   */
+  public synchronized void update(double sample, long nanoTime) {
+    if (Double.isNaN(rate)) {
+      rate = sample;
+    } else {
+      // EWMA over the sampling intervals since the last update, all of which are sampled as the
+      // average rate since then
+      double decay = Math.pow(1 - alpha, intervalsSinceUpdate(nanoTime));
+      rate = rate * decay + sample * (1 - decay);
+    }
+    updateNanoTime = Math.max(updateNanoTime, nanoTime);
+  }
+
+  /**
+   * @return the write rate at the nano timestamp, regarding the Region as written nothing in the
+   *     sampling intervals passed since the last update
+   */
+  public synchronized double get(long nanoTime) {
+    return Double.isNaN(rate)
+        ? 0
+        : rate * Math.pow(1 - alpha, Math.floor(intervalsSinceUpdate(nanoTime)));
+  }
+
+  private double intervalsSinceUpdate(long nanoTime) {
+    return Math.max(nanoTime - updateNanoTime, 0) / (double) samplingIntervalNanos;
+  }
+}
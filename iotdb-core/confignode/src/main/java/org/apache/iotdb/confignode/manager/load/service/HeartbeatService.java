@@ -39,6 +39,7 @@ import org.apache.iotdb.confignode.manager.IManager;
 import org.apache.iotdb.confignode.manager.consensus.ConsensusManager;
 import org.apache.iotdb.confignode.manager.load.cache.LoadCache;
 import org.apache.iotdb.confignode.manager.load.cache.node.ConfigNodeHeartbeatCache;
+import org.apache.iotdb.confignode.manager.load.cache.node.DataNodeHeartbeatStatistics;
 import org.apache.iotdb.confignode.manager.node.NodeManager;
 import org.apache.iotdb.confignode.rpc.thrift.TConfigNodeHeartbeatReq;
 import org.apache.iotdb.db.protocol.client.ConfigNodeInfo;
@@ -82,6 +83,8 @@ public class HeartbeatService {
           ThreadName.CONFIG_NODE_HEART_BEAT_SERVICE.getName());
   private final AtomicLong heartbeatCounter = new AtomicLong(0);
   private static final int configNodeListPeriodicallySyncInterval = 100;
+  private static final int dataNodeHeartbeatFullSyncInterval =
+      ConfigNodeDescriptor.getInstance().getConf().getDataNodeHeartbeatFullSyncInterval();
 
   public HeartbeatService(IManager configManager, LoadCache loadCache) {
     setConfigManager(configManager);
@@ -207,6 +210,19 @@ public class HeartbeatService {
     }
   }
 
+  private void addStatisticsVersionToReq(int dataNodeId, TDataNodeHeartbeatReq req) {
+    // The DataNode only sends the changed region statistics if the ConfigNode has applied its
+    // last response, and the full statistics are synced periodically in case of any inconsistency.
+    // The full syncs of the DataNodes are staggered by their ids.
+    long version = loadCache.getDataNodeHeartbeatStatisticsVersion(dataNodeId);
+    if (version == DataNodeHeartbeatStatistics.UNKNOWN_VERSION
+        || (heartbeatCounter.get() + dataNodeId) % dataNodeHeartbeatFullSyncInterval == 0) {
+      req.unsetStatisticsVersion();
+    } else {
+      req.setStatisticsVersion(version);
+    }
+  }
+
   protected TConfigNodeHeartbeatReq genConfigNodeHeartbeatReq() {
     TConfigNodeHeartbeatReq req = new TConfigNodeHeartbeatReq();
     req.setTimestamp(System.nanoTime());
@@ -276,6 +292,7 @@ public class HeartbeatService {
               configManager.getPipeManager().getPipeRuntimeCoordinator());
       configManager.getClusterQuotaManager().updateSpaceQuotaUsage();
       addConfigNodeLocationsToReq(dataNodeId, heartbeatReq);
+      addStatisticsVersionToReq(dataNodeId, heartbeatReq);
       AsyncDataNodeHeartbeatClientPool.getInstance()
           .getDataNodeHeartBeat(
               dataNodeInfo.getLocation().getInternalEndPoint(), heartbeatReq, handler);
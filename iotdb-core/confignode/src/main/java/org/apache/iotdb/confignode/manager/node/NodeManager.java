@@ -181,6 +181,7 @@ public class NodeManager {
     globalConfig.setTagAttributeTotalSize(commonConfig.getTagAttributeTotalSize());
     globalConfig.setEnableGrantOption(commonConfig.getEnableGrantOption());
     globalConfig.setRestrictObjectLimit(commonConfig.isRestrictObjectLimit());
+    globalConfig.setEnableHotSeriesSlotSplit(commonConfig.isEnableHotSeriesSlotSplit());
     dataSet.setGlobalConfig(globalConfig);
   }
 
@@ -24,6 +24,8 @@ import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.snapshot.SnapshotProcessor;
 import org.apache.iotdb.commons.utils.FileUtils;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.confignode.consensus.request.ConfigPhysicalPlan;
+import org.apache.iotdb.confignode.consensus.request.write.procedure.BatchProcedurePlan;
 import org.apache.iotdb.confignode.consensus.request.write.procedure.DeleteProcedurePlan;
 import org.apache.iotdb.confignode.consensus.request.write.procedure.UpdateProcedurePlan;
 import org.apache.iotdb.confignode.manager.ConfigManager;
@@ -159,6 +161,17 @@ public class ProcedureInfo implements SnapshotProcessor {
     return new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode());
   }
 
+  public TSStatus batchProcedure(BatchProcedurePlan batchProcedurePlan) {
+    for (ConfigPhysicalPlan subPlan : batchProcedurePlan.getSubPlans()) {
+      if (subPlan instanceof UpdateProcedurePlan) {
+        updateProcedure((UpdateProcedurePlan) subPlan);
+      } else if (subPlan instanceof DeleteProcedurePlan) {
+        deleteProcedure((DeleteProcedurePlan) subPlan);
+      }
+    }
+    return new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode());
+  }
+
   private static Optional<Procedure> loadProcedure(Path procedureFilePath) {
     try (FileInputStream fis = new FileInputStream(procedureFilePath.toFile())) {
       Procedure procedure = null;
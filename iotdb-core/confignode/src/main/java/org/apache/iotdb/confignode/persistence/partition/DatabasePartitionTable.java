@@ -456,6 +456,14 @@ public class DatabasePartitionTable {
 
   public void serialize(OutputStream outputStream, TProtocol protocol)
       throws IOException, TException {
+    serialize(outputStream, protocol, false);
+  }
+
+  /**
+   * @param compactDataPartition Whether to serialize the DataPartitionTable in the compact format
+   */
+  public void serialize(OutputStream outputStream, TProtocol protocol, boolean compactDataPartition)
+      throws IOException, TException {
     ReadWriteIOUtils.write(preDeleted, outputStream);
     ReadWriteIOUtils.write(databaseName, outputStream);
 
@@ -466,11 +474,23 @@ public class DatabasePartitionTable {
     }
 
     schemaPartitionTable.serialize(outputStream, protocol);
-    dataPartitionTable.serialize(outputStream, protocol);
+    if (compactDataPartition) {
+      dataPartitionTable.serializeCompact(outputStream);
+    } else {
+      dataPartitionTable.serialize(outputStream, protocol);
+    }
   }
 
   public void deserialize(InputStream inputStream, TProtocol protocol)
       throws IOException, TException {
+    deserialize(inputStream, protocol, false);
+  }
+
+  /**
+   * @param compactDataPartition Whether the DataPartitionTable is serialized in the compact format
+   */
+  public void deserialize(InputStream inputStream, TProtocol protocol, boolean compactDataPartition)
+      throws IOException, TException {
     preDeleted = ReadWriteIOUtils.readBool(inputStream);
     databaseName = ReadWriteIOUtils.readString(inputStream);
 
@@ -484,7 +504,11 @@ public class DatabasePartitionTable {
     }
 
     schemaPartitionTable.deserialize(inputStream, protocol);
-    dataPartitionTable.deserialize(inputStream, protocol);
+    if (compactDataPartition) {
+      dataPartitionTable.deserializeCompact(inputStream);
+    } else {
+      dataPartitionTable.deserialize(inputStream, protocol);
+    }
   }
 
   public List<TConsensusGroupId> getRegionId(
@@ -31,6 +31,7 @@ import org.apache.iotdb.commons.partition.SchemaPartitionTable;
 import org.apache.iotdb.commons.schema.table.Audit;
 import org.apache.iotdb.commons.snapshot.SnapshotProcessor;
 import org.apache.iotdb.commons.utils.PathUtils;
+import org.apache.iotdb.confignode.conf.ConfigNodeDescriptor;
 import org.apache.iotdb.confignode.consensus.request.read.partition.CountTimeSlotListPlan;
 import org.apache.iotdb.confignode.consensus.request.read.partition.GetDataPartitionPlan;
 import org.apache.iotdb.confignode.consensus.request.read.partition.GetSchemaPartitionPlan;
@@ -134,6 +135,10 @@ public class PartitionInfo implements SnapshotProcessor {
 
   private static final String SNAPSHOT_FILENAME = "partition_info.bin";
 
+  // The snapshot in the compact format starts with this marker, while the legacy snapshot starts
+  // with the nextRegionGroupId, which is never less than -1
+  private static final int COMPACT_SNAPSHOT_MARKER = Integer.MIN_VALUE;
+
   public PartitionInfo() {
     this.nextRegionGroupId = new AtomicInteger(-1);
     this.databasePartitionTables = new ConcurrentHashMap<>();
@@ -976,6 +981,19 @@ public class PartitionInfo implements SnapshotProcessor {
 
   @Override
   public boolean processTakeSnapshot(File snapshotDir) throws TException, IOException {
+    return processTakeSnapshot(
+        snapshotDir,
+        ConfigNodeDescriptor.getInstance().getConf().isPartitionSnapshotCompactFormatEnabled());
+  }
+
+  /**
+   * Take snapshot of the PartitionInfo.
+   *
+   * @param compact Whether to serialize the DataPartitionTables in the compact format, the legacy
+   *     format can still be read by the ConfigNodes that are not upgraded yet
+   */
+  public boolean processTakeSnapshot(File snapshotDir, boolean compact)
+      throws TException, IOException {
 
     File snapshotFile = new File(snapshotDir, SNAPSHOT_FILENAME);
     if (snapshotFile.exists() && snapshotFile.isFile()) {
@@ -995,6 +1013,10 @@ public class PartitionInfo implements SnapshotProcessor {
         TIOStreamTransport tioStreamTransport = new TIOStreamTransport(bufferedOutputStream)) {
       TProtocol protocol = new TBinaryProtocol(tioStreamTransport);
 
+      if (compact) {
+        ReadWriteIOUtils.write(COMPACT_SNAPSHOT_MARKER, bufferedOutputStream);
+      }
+
       // serialize nextRegionGroupId
       ReadWriteIOUtils.write(nextRegionGroupId.get(), bufferedOutputStream);
 
@@ -1003,7 +1025,7 @@ public class PartitionInfo implements SnapshotProcessor {
       for (Map.Entry<String, DatabasePartitionTable> databasePartitionTableEntry :
           databasePartitionTables.entrySet()) {
         ReadWriteIOUtils.write(databasePartitionTableEntry.getKey(), bufferedOutputStream);
-        databasePartitionTableEntry.getValue().serialize(bufferedOutputStream, protocol);
+        databasePartitionTableEntry.getValue().serialize(bufferedOutputStream, protocol, compact);
       }
 
       // serialize regionCleanList
@@ -1052,8 +1074,11 @@ public class PartitionInfo implements SnapshotProcessor {
       // before restoring a snapshot, clear all old data
       clear();
 
-      // start to restore
-      nextRegionGroupId.set(ReadWriteIOUtils.readInt(fileInputStream));
+      // start to restore, the snapshot taken by the former versions is in the legacy format
+      final long startTime = System.currentTimeMillis();
+      final int firstInt = ReadWriteIOUtils.readInt(fileInputStream);
+      final boolean compact = firstInt == COMPACT_SNAPSHOT_MARKER;
+      nextRegionGroupId.set(compact ? ReadWriteIOUtils.readInt(fileInputStream) : firstInt);
 
       // restore databasePartitionTable
       int length = ReadWriteIOUtils.readInt(fileInputStream);
@@ -1063,7 +1088,7 @@ public class PartitionInfo implements SnapshotProcessor {
           throw new IOException("Failed to load snapshot because get null database name");
         }
         final DatabasePartitionTable databasePartitionTable = new DatabasePartitionTable(database);
-        databasePartitionTable.deserialize(fileInputStream, protocol);
+        databasePartitionTable.deserialize(fileInputStream, protocol, compact);
         databasePartitionTables.put(database, databasePartitionTable);
       }
 
@@ -1074,6 +1099,11 @@ public class PartitionInfo implements SnapshotProcessor {
             RegionMaintainTask.Factory.create(fileInputStream, protocol);
         regionMaintainTaskList.add(task);
       }
+      LOGGER.info(
+          "Load {} snapshot of PartitionInfo, size: {} bytes, cost: {} ms",
+          compact ? "compact" : "legacy",
+          snapshotFile.length(),
+          System.currentTimeMillis() - startTime);
     }
   }
 
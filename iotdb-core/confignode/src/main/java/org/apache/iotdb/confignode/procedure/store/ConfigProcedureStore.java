@@ -22,6 +22,9 @@ package org.apache.iotdb.confignode.procedure.store;
 import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.utils.FileUtils;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.confignode.conf.ConfigNodeDescriptor;
+import org.apache.iotdb.confignode.consensus.request.ConfigPhysicalPlan;
+import org.apache.iotdb.confignode.consensus.request.write.procedure.BatchProcedurePlan;
 import org.apache.iotdb.confignode.consensus.request.write.procedure.DeleteProcedurePlan;
 import org.apache.iotdb.confignode.consensus.request.write.procedure.UpdateProcedurePlan;
 import org.apache.iotdb.confignode.manager.ConfigManager;
@@ -35,8 +38,14 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
 public class ConfigProcedureStore implements IProcedureStore<ConfigNodeProcedureEnv> {
 
@@ -48,6 +57,13 @@ public class ConfigProcedureStore implements IProcedureStore<ConfigNodeProcedure
       CommonDescriptor.getInstance().getConfig().getProcedureWalFolder();
   private final ConfigManager configManager;
 
+  private final int maxBatchSize =
+      ConfigNodeDescriptor.getInstance().getConf().getProcedureStoreMaxBatchSize();
+  // The state changes waiting to be committed, they are committed as a group by whichever worker
+  // holds the groupCommitLock so that concurrent workers share the consensus round trips
+  private final Queue<PendingWrite> pendingWrites = new ConcurrentLinkedQueue<>();
+  private final ReentrantLock groupCommitLock = new ReentrantLock();
+
   public ConfigProcedureStore(ConfigManager configManager, ProcedureInfo procedureInfo) {
     this.configManager = configManager;
     this.procedureInfo = procedureInfo;
@@ -93,7 +109,7 @@ public class ConfigProcedureStore implements IProcedureStore<ConfigNodeProcedure
     Objects.requireNonNull(ProcedureFactory.getProcedureType(procedure), "Procedure type is null");
     final UpdateProcedurePlan updateProcedurePlan = new UpdateProcedurePlan(procedure);
     try {
-      configManager.getConsensusManager().write(updateProcedurePlan);
+      write(Collections.singletonList(updateProcedurePlan));
     } catch (ConsensusException e) {
       LOG.warn(
           "pid={} Failed in the write update API executing the consensus layer due to: ",
@@ -107,17 +123,26 @@ public class ConfigProcedureStore implements IProcedureStore<ConfigNodeProcedure
 
   @Override
   public void update(Procedure[] subprocs) throws Exception {
+    final List<ConfigPhysicalPlan> updateProcedurePlans = new ArrayList<>(subprocs.length);
     for (Procedure subproc : subprocs) {
-      update(subproc);
+      Objects.requireNonNull(ProcedureFactory.getProcedureType(subproc), "Procedure type is null");
+      updateProcedurePlans.add(new UpdateProcedurePlan(subproc));
+    }
+    try {
+      write(updateProcedurePlans);
+    } catch (ConsensusException e) {
+      LOG.warn(
+          "Failed in the write update API of {} procedures executing the consensus layer due to: ",
+          subprocs.length,
+          e);
+      throw e;
     }
   }
 
   @Override
   public void delete(long procId) throws Exception {
-    DeleteProcedurePlan deleteProcedurePlan = new DeleteProcedurePlan();
-    deleteProcedurePlan.setProcId(procId);
     try {
-      configManager.getConsensusManager().write(deleteProcedurePlan);
+      write(Collections.singletonList(newDeleteProcedurePlan(procId)));
     } catch (ConsensusException e) {
       LOG.warn(
           "pid={} Failed in the write delete API executing the consensus layer due to: ",
@@ -131,16 +156,107 @@ public class ConfigProcedureStore implements IProcedureStore<ConfigNodeProcedure
 
   @Override
   public void delete(long[] childProcIds) throws Exception {
-    for (long childProcId : childProcIds) {
-      delete(childProcId);
-    }
+    delete(childProcIds, 0, childProcIds.length);
   }
 
   @Override
   public void delete(long[] batchIds, int startIndex, int batchCount) throws Exception {
+    final List<ConfigPhysicalPlan> deleteProcedurePlans = new ArrayList<>();
     for (int i = startIndex; i < batchCount; i++) {
-      delete(batchIds[i]);
+      deleteProcedurePlans.add(newDeleteProcedurePlan(batchIds[i]));
+    }
+    try {
+      write(deleteProcedurePlans);
+    } catch (ConsensusException e) {
+      LOG.warn(
+          "Failed in the write delete API of {} procedures executing the consensus layer due to: ",
+          deleteProcedurePlans.size(),
+          e);
+      throw e;
+    }
+  }
+
+  private static DeleteProcedurePlan newDeleteProcedurePlan(long procId) {
+    final DeleteProcedurePlan deleteProcedurePlan = new DeleteProcedurePlan();
+    deleteProcedurePlan.setProcId(procId);
+    return deleteProcedurePlan;
+  }
+
+  /**
+   * Persist the procedure state changes and wait until they are committed. The state changes are
+   * appended to the pending queue, and the worker that acquires the groupCommitLock commits all the
+   * pending ones in batches of at most maxBatchSize, each batch in one consensus log entry. The
+   * order of state changes is kept since the queue is committed in FIFO order.
+   */
+  private void write(List<ConfigPhysicalPlan> plans) throws Exception {
+    if (plans.isEmpty()) {
+      return;
     }
+    final List<PendingWrite> writes = new ArrayList<>(plans.size());
+    for (ConfigPhysicalPlan plan : plans) {
+      final PendingWrite pendingWrite = new PendingWrite(plan);
+      writes.add(pendingWrite);
+      pendingWrites.add(pendingWrite);
+    }
+    final PendingWrite lastWrite = writes.get(writes.size() - 1);
+
+    groupCommitLock.lock();
+    try {
+      // The state changes may have been committed by the former lock holder
+      while (!lastWrite.committed) {
+        final List<PendingWrite> batch = new ArrayList<>();
+        PendingWrite pendingWrite;
+        while (batch.size() < maxBatchSize && (pendingWrite = pendingWrites.poll()) != null) {
+          batch.add(pendingWrite);
+        }
+        commit(batch);
+      }
+    } finally {
+      groupCommitLock.unlock();
+    }
+
+    for (PendingWrite pendingWrite : writes) {
+      if (pendingWrite.failure != null) {
+        throw pendingWrite.failure;
+      }
+    }
+  }
+
+  private void commit(List<PendingWrite> batch) {
+    Exception failure = null;
+    try {
+      configManager
+          .getConsensusManager()
+          .write(
+              batch.size() == 1
+                  ? batch.get(0).plan
+                  : new BatchProcedurePlan(
+                      batch.stream().map(write -> write.plan).collect(Collectors.toList())));
+    } catch (Exception e) {
+      failure = e;
+    }
+    for (PendingWrite pendingWrite : batch) {
+      pendingWrite.failure = failure;
+      pendingWrite.committed = true;
+    }
+  }
+
+  /** A procedure state change waiting for group commit. */
+  private static class PendingWrite {
+
+    private final ConfigPhysicalPlan plan;
+    // Guarded by the groupCommitLock
+    private boolean committed = false;
+    private Exception failure = null;
+
+    private PendingWrite(ConfigPhysicalPlan plan) {
+      this.plan = plan;
+    }
+  }
+
+  @TestOnly
+  int getPendingWriteNum() {
+    return pendingWrites.size();
   }
 
   /** clean all the wal, used for unit test. */
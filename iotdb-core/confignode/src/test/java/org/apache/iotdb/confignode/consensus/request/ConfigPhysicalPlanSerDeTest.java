@@ -112,6 +112,7 @@ import org.apache.iotdb.confignode.consensus.request.write.pipe.task.CreatePipeP
 import org.apache.iotdb.confignode.consensus.request.write.pipe.task.DropPipePlanV2;
 import org.apache.iotdb.confignode.consensus.request.write.pipe.task.OperateMultiplePipesPlanV2;
 import org.apache.iotdb.confignode.consensus.request.write.pipe.task.SetPipeStatusPlanV2;
+import org.apache.iotdb.confignode.consensus.request.write.procedure.BatchProcedurePlan;
 import org.apache.iotdb.confignode.consensus.request.write.procedure.DeleteProcedurePlan;
 import org.apache.iotdb.confignode.consensus.request.write.procedure.UpdateProcedurePlan;
 import org.apache.iotdb.confignode.consensus.request.write.quota.SetSpaceQuotaPlan;
@@ -784,6 +785,20 @@ public class ConfigPhysicalPlanSerDeTest {
     Assert.assertEquals(req0, req1);
   }
 
+  @Test
+  public void BatchProcedurePlanTest() throws IOException {
+    DeleteDatabaseProcedure deleteDatabaseProcedure = new DeleteDatabaseProcedure(false);
+    deleteDatabaseProcedure.setDeleteDatabaseSchema(new TDatabaseSchema("root.sg"));
+    DeleteProcedurePlan deleteProcedurePlan = new DeleteProcedurePlan();
+    deleteProcedurePlan.setProcId(2L);
+    BatchProcedurePlan req0 =
+        new BatchProcedurePlan(
+            Arrays.asList(new UpdateProcedurePlan(deleteDatabaseProcedure), deleteProcedurePlan));
+    BatchProcedurePlan req1 =
+        (BatchProcedurePlan) ConfigPhysicalPlan.Factory.create(req0.serializeToByteBuffer());
+    Assert.assertEquals(req0, req1);
+  }
+
   @Test
   public void CreateSchemaTemplatePlanTest() throws IOException, IllegalPathException {
     final Template template = newSchemaTemplate("template_name");
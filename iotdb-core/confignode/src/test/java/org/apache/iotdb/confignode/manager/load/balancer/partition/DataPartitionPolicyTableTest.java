@@ -102,4 +102,46 @@ public class DataPartitionPolicyTableTest {
       Assert.assertEquals(mu, counterEntry.getValue().get());
     }
   }
+
+  @Test
+  public void testUpdateHotSeriesSlots() {
+    DataPartitionPolicyTable dataPartitionPolicyTable = new DataPartitionPolicyTable();
+    List<TConsensusGroupId> dataRegionGroups = new ArrayList<>();
+    for (int i = 1; i <= 4; i++) {
+      dataRegionGroups.add(new TConsensusGroupId(TConsensusGroupType.DataRegion, i));
+    }
+    dataPartitionPolicyTable.reBalanceDataPartitionPolicy(dataRegionGroups);
+    for (int i = 0; i < SERIES_SLOT_NUM; i++) {
+      dataPartitionPolicyTable.getRegionGroupIdOrActivateIfNecessary(new TSeriesPartitionSlot(i));
+    }
+
+    // SeriesSlot 0 takes most of the write load
+    TSeriesPartitionSlot hotSlot = new TSeriesPartitionSlot(0);
+    Map<TSeriesPartitionSlot, Double> seriesSlotLoadMap = new HashMap<>();
+    seriesSlotLoadMap.put(hotSlot, 100d);
+    for (int i = 1; i <= 20; i++) {
+      seriesSlotLoadMap.put(new TSeriesPartitionSlot(i), 1d);
+    }
+    dataPartitionPolicyTable.updateHotSeriesSlots(seriesSlotLoadMap, 1.0, 4);
+    TConsensusGroupId allotGroupId =
+        dataPartitionPolicyTable.getRegionGroupIdOrActivateIfNecessary(hotSlot);
+    List<TConsensusGroupId> splitGroupIds =
+        dataPartitionPolicyTable.getSplitRegionGroupIds(hotSlot);
+    // The hot SeriesSlot is split to all the other RegionGroups
+    Assert.assertEquals(3, splitGroupIds.size());
+    Assert.assertFalse(splitGroupIds.contains(allotGroupId));
+    for (int i = 1; i <= 20; i++) {
+      Assert.assertTrue(
+          dataPartitionPolicyTable.getSplitRegionGroupIds(new TSeriesPartitionSlot(i)).isEmpty());
+    }
+
+    // The split is limited by maxSplitNum
+    dataPartitionPolicyTable.updateHotSeriesSlots(seriesSlotLoadMap, 1.0, 2);
+    Assert.assertEquals(1, dataPartitionPolicyTable.getSplitRegionGroupIds(hotSlot).size());
+
+    // The split is cancelled once the SeriesSlot cools down
+    seriesSlotLoadMap.put(hotSlot, 1d);
+    dataPartitionPolicyTable.updateHotSeriesSlots(seriesSlotLoadMap, 1.0, 4);
+    Assert.assertTrue(dataPartitionPolicyTable.getSplitRegionGroupIds(hotSlot).isEmpty());
+  }
 }
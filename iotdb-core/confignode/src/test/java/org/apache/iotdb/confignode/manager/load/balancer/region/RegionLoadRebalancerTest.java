@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.confignode.manager.load.balancer.region;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.common.rpc.thrift.TDataNodeConfiguration;
+import org.apache.iotdb.common.rpc.thrift.TDataNodeLocation;
+import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.confignode.procedure.impl.region.RegionMigrationPlan;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RegionLoadRebalancerTest {
+
+  private static final RegionLoadRebalancer REBALANCER = new RegionLoadRebalancer();
+  private static final double IMBALANCE_RATIO = 1.5;
+
+  private final Map<Integer, TDataNodeConfiguration> availableDataNodeMap = new HashMap<>();
+  private final Map<Integer, Double> freeDiskSpaceMap = new HashMap<>();
+  private final List<TRegionReplicaSet> allocatedRegionGroups = new ArrayList<>();
+  private final Map<Integer, Double> regionLoadMap = new HashMap<>();
+  private final Map<Integer, Long> regionSizeMap = new HashMap<>();
+
+  @Before
+  public void setUp() {
+    // Set 3 DataNodes
+    for (int i = 0; i < 3; i++) {
+      availableDataNodeMap.put(
+          i, new TDataNodeConfiguration().setLocation(new TDataNodeLocation().setDataNodeId(i)));
+      freeDiskSpaceMap.put(i, 1000d);
+    }
+  }
+
+  @Test
+  public void testMigrateHotRegionToColdestDataNode() {
+    // DataNode-0 holds 4 hot Regions, DataNode-1 holds a warm one and DataNode-2 holds a cold one
+    for (int i = 0; i < 4; i++) {
+      addRegionGroup(i, 0, 10d, 100L);
+    }
+    addRegionGroup(4, 1, 5d, 100L);
+    addRegionGroup(5, 2, 1d, 100L);
+
+    final List<RegionMigrationPlan> plans = generate(1);
+    Assert.assertEquals(1, plans.size());
+    Assert.assertEquals(0, plans.get(0).getFromDataNode().getDataNodeId());
+    Assert.assertEquals(2, plans.get(0).getToDataNode().getDataNodeId());
+    Assert.assertTrue(plans.get(0).getRegionId().getId() < 4);
+  }
+
+  @Test
+  public void testBalanced() {
+    for (int i = 0; i < 3; i++) {
+      addRegionGroup(i, i, 10d, 100L);
+    }
+    Assert.assertTrue(generate(3).isEmpty());
+  }
+
+  @Test
+  public void testMaxMigrationCount() {
+    for (int i = 0; i < 6; i++) {
+      addRegionGroup(i, 0, 10d, 100L);
+    }
+    addRegionGroup(6, 1, 1d, 100L);
+    addRegionGroup(7, 2, 1d, 100L);
+
+    Assert.assertEquals(2, generate(2).size());
+
+    // Each Region is migrated at most once in a round
+    final List<RegionMigrationPlan> plans = generate(10);
+    Assert.assertEquals(
+        plans.size(), plans.stream().map(RegionMigrationPlan::getRegionId).distinct().count());
+    final double[] loads = new double[3];
+    for (final TRegionReplicaSet regionGroup : allocatedRegionGroups) {
+      loads[regionGroup.getDataNodeLocations().get(0).getDataNodeId()] +=
+          regionLoadMap.get(regionGroup.getRegionId().getId());
+    }
+    for (final RegionMigrationPlan plan : plans) {
+      final double load = regionLoadMap.get(plan.getRegionId().getId());
+      loads[plan.getFromDataNode().getDataNodeId()] -= load;
+      loads[plan.getToDataNode().getDataNodeId()] += load;
+    }
+    final double averageLoad = (loads[0] + loads[1] + loads[2]) / 3;
+    for (final double load : loads) {
+      Assert.assertTrue(load <= averageLoad * IMBALANCE_RATIO);
+    }
+  }
+
+  @Test
+  public void testFreeDiskSpace() {
+    for (int i = 0; i < 4; i++) {
+      addRegionGroup(i, 0, 10d, 800L);
+    }
+    addRegionGroup(4, 1, 1d, 100L);
+    addRegionGroup(5, 2, 1d, 100L);
+
+    // No DataNode has enough disk space for the hot Regions
+    freeDiskSpaceMap.put(1, 500d);
+    freeDiskSpaceMap.put(2, 500d);
+    Assert.assertTrue(generate(1).isEmpty());
+
+    freeDiskSpaceMap.put(1, 1000d);
+    final List<RegionMigrationPlan> plans = generate(1);
+    Assert.assertEquals(1, plans.size());
+    Assert.assertEquals(1, plans.get(0).getToDataNode().getDataNodeId());
+  }
+
+  @Test
+  public void testExcludedRegionGroups() {
+    addRegionGroup(0, 0, 10d, 100L);
+    addRegionGroup(1, 0, 10d, 100L);
+    addRegionGroup(2, 1, 1d, 100L);
+
+    final List<RegionMigrationPlan> plans =
+        REBALANCER.generateMigrationPlans(
+            availableDataNodeMap,
+            freeDiskSpaceMap,
+            allocatedRegionGroups,
+            regionLoadMap,
+            regionSizeMap,
+            Collections.singleton(new TConsensusGroupId(TConsensusGroupType.DataRegion, 0)),
+            IMBALANCE_RATIO,
+            1);
+    Assert.assertEquals(1, plans.size());
+    Assert.assertEquals(1, plans.get(0).getRegionId().getId());
+  }
+
+  private List<RegionMigrationPlan> generate(final int maxMigrationCount) {
+    return REBALANCER.generateMigrationPlans(
+        availableDataNodeMap,
+        freeDiskSpaceMap,
+        allocatedRegionGroups,
+        regionLoadMap,
+        regionSizeMap,
+        Collections.emptySet(),
+        IMBALANCE_RATIO,
+        maxMigrationCount);
+  }
+
+  private void addRegionGroup(
+      final int regionId, final int dataNodeId, final double load, final long size) {
+    allocatedRegionGroups.add(
+        new TRegionReplicaSet(
+            new TConsensusGroupId(TConsensusGroupType.DataRegion, regionId),
+            Collections.singletonList(availableDataNodeMap.get(dataNodeId).getLocation())));
+    regionLoadMap.put(regionId, load);
+    regionSizeMap.put(regionId, size);
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.confignode.manager.load.balancer.router.leader;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.commons.cluster.NodeStatus;
+import org.apache.iotdb.commons.cluster.RegionStatus;
+import org.apache.iotdb.confignode.manager.load.cache.node.NodeStatistics;
+import org.apache.iotdb.confignode.manager.load.cache.region.RegionStatistics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+public class LoadWeightedLeaderBalancerTest {
+
+  private static final String DATABASE = "root.database";
+
+  private final Map<String, List<TConsensusGroupId>> databaseRegionGroupMap = new TreeMap<>();
+  private final Map<TConsensusGroupId, Set<Integer>> regionLocationMap = new TreeMap<>();
+  private final Map<TConsensusGroupId, Integer> regionLeaderMap = new TreeMap<>();
+  private final Map<Integer, NodeStatistics> dataNodeStatisticsMap = new TreeMap<>();
+  private final Map<TConsensusGroupId, Map<Integer, RegionStatistics>> regionStatisticsMap =
+      new TreeMap<>();
+  private final Map<Integer, Double> regionLoadMap = new HashMap<>();
+
+  @Test
+  public void testSkewedLoad() {
+    // 6 RegionGroups on DataNode 0~2, the leader count is balanced but RegionGroup 0 is hot
+    buildCluster(3, 6);
+    for (int i = 0; i < 6; i++) {
+      regionLoadMap.put(i, i == 0 ? 100d : 1d);
+    }
+
+    LoadWeightedLeaderBalancer balancer = new LoadWeightedLeaderBalancer(() -> regionLoadMap, 0.1);
+    Map<TConsensusGroupId, Integer> result = generate(balancer);
+
+    // The DataNode leading the hot RegionGroup gives away the other leaders
+    int hotLeaderId = result.get(new TConsensusGroupId(TConsensusGroupType.DataRegion, 0));
+    Assert.assertEquals(1, result.values().stream().filter(id -> id == hotLeaderId).count());
+    Assert.assertTrue(
+        balancer.getPredictedImbalance(TConsensusGroupType.DataRegion)
+            < balancer.getActualImbalance(TConsensusGroupType.DataRegion));
+  }
+
+  @Test
+  public void testHysteresis() {
+    // DataNode 0 leads 2 RegionGroups and DataNode 1 leads 1, moving a leader won't help
+    buildCluster(2, 3);
+    regionLeaderMap.replaceAll((regionGroupId, leaderId) -> regionGroupId.getId() < 2 ? 0 : 1);
+    LoadWeightedLeaderBalancer balancer = new LoadWeightedLeaderBalancer(() -> regionLoadMap, 0.1);
+    Assert.assertEquals(new TreeMap<>(regionLeaderMap), new TreeMap<>(generate(balancer)));
+
+    // DataNode 0 leads 3 RegionGroups and DataNode 1 leads 1, exactly one leader is moved
+    buildCluster(2, 4);
+    regionLeaderMap.replaceAll((regionGroupId, leaderId) -> regionGroupId.getId() < 3 ? 0 : 1);
+    Map<TConsensusGroupId, Integer> result = generate(balancer);
+    Assert.assertEquals(2, result.values().stream().filter(id -> id == 0).count());
+    Assert.assertEquals(2, result.values().stream().filter(id -> id == 1).count());
+    Assert.assertEquals(1, balancer.getPredictedImbalance(TConsensusGroupType.DataRegion), 1e-6);
+  }
+
+  @Test
+  public void testUnavailableLeader() {
+    buildCluster(3, 6);
+    dataNodeStatisticsMap.put(2, new NodeStatistics(NodeStatus.Unknown));
+
+    LoadWeightedLeaderBalancer balancer = new LoadWeightedLeaderBalancer(() -> regionLoadMap, 0.1);
+    Map<TConsensusGroupId, Integer> result = generate(balancer);
+    Assert.assertEquals(3, result.values().stream().filter(id -> id == 0).count());
+    Assert.assertEquals(3, result.values().stream().filter(id -> id == 1).count());
+  }
+
+  private void buildCluster(int dataNodeNum, int regionGroupNum) {
+    databaseRegionGroupMap.clear();
+    regionLocationMap.clear();
+    regionLeaderMap.clear();
+    dataNodeStatisticsMap.clear();
+    regionStatisticsMap.clear();
+
+    for (int i = 0; i < dataNodeNum; i++) {
+      dataNodeStatisticsMap.put(i, new NodeStatistics(NodeStatus.Running));
+    }
+    // Each RegionGroup has a replica on every DataNode
+    List<TConsensusGroupId> regionGroupIds = new ArrayList<>();
+    for (int i = 0; i < regionGroupNum; i++) {
+      TConsensusGroupId regionGroupId = new TConsensusGroupId(TConsensusGroupType.DataRegion, i);
+      regionGroupIds.add(regionGroupId);
+      Set<Integer> dataNodeIds = new TreeSet<>();
+      Map<Integer, RegionStatistics> regionStatistics = new TreeMap<>();
+      for (int j = 0; j < dataNodeNum; j++) {
+        dataNodeIds.add(j);
+        regionStatistics.put(j, new RegionStatistics(RegionStatus.Running));
+      }
+      regionLocationMap.put(regionGroupId, dataNodeIds);
+      regionStatisticsMap.put(regionGroupId, regionStatistics);
+      regionLeaderMap.put(regionGroupId, i % dataNodeNum);
+    }
+    databaseRegionGroupMap.put(DATABASE, regionGroupIds);
+  }
+
+  private Map<TConsensusGroupId, Integer> generate(LoadWeightedLeaderBalancer balancer) {
+    return balancer.generateOptimalLeaderDistribution(
+        databaseRegionGroupMap,
+        regionLocationMap,
+        regionLeaderMap,
+        dataNodeStatisticsMap,
+        regionStatisticsMap);
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.confignode.manager.load.cache;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.confignode.manager.load.cache.node.DataNodeHeartbeatStatistics;
+import org.apache.iotdb.mpp.rpc.thrift.TDataNodeHeartbeatResp;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class DataNodeHeartbeatStatisticsTest {
+
+  private static final TConsensusGroupId REGION_1 =
+      new TConsensusGroupId(TConsensusGroupType.DataRegion, 1);
+  private static final TConsensusGroupId REGION_2 =
+      new TConsensusGroupId(TConsensusGroupType.DataRegion, 2);
+
+  @Test
+  public void applyDeltaTest() {
+    DataNodeHeartbeatStatistics statistics = new DataNodeHeartbeatStatistics(1);
+    Assert.assertEquals(DataNodeHeartbeatStatistics.UNKNOWN_VERSION, statistics.getVersion());
+
+    // Full statistics
+    Map<TConsensusGroupId, Boolean> judgedLeaders = new HashMap<>();
+    judgedLeaders.put(REGION_1, true);
+    judgedLeaders.put(REGION_2, false);
+    Map<TConsensusGroupId, Long> logicalTimeMap = new HashMap<>();
+    logicalTimeMap.put(REGION_1, 10L);
+    logicalTimeMap.put(REGION_2, 20L);
+    TDataNodeHeartbeatResp resp = new TDataNodeHeartbeatResp();
+    resp.setStatisticsVersion(1);
+    resp.setJudgedLeaders(judgedLeaders);
+    resp.setConsensusLogicalTimeMap(logicalTimeMap);
+    statistics.apply(resp);
+    Assert.assertFalse(DataNodeHeartbeatStatistics.isDelta(resp));
+    Assert.assertEquals(1, statistics.getVersion());
+    Assert.assertEquals(judgedLeaders, statistics.getJudgedLeaders());
+    Assert.assertEquals(logicalTimeMap, statistics.getConsensusLogicalTimeMap());
+
+    // Delta statistics: only the changed entries are reported, and the response is left as it is
+    resp = new TDataNodeHeartbeatResp();
+    resp.setStatisticsVersion(2);
+    resp.setStatisticsBaseVersion(1);
+    resp.setJudgedLeaders(Collections.singletonMap(REGION_2, true));
+    resp.setConsensusLogicalTimeMap(Collections.singletonMap(REGION_2, 21L));
+    resp.setRemovedStatisticsRegions(Collections.emptyList());
+    statistics.apply(resp);
+    Assert.assertTrue(DataNodeHeartbeatStatistics.isDelta(resp));
+    Assert.assertEquals(
+        Collections.singleton(REGION_2), DataNodeHeartbeatStatistics.getChangedRegions(resp));
+    Assert.assertEquals(1, resp.getJudgedLeadersSize());
+    Assert.assertEquals(2, statistics.getVersion());
+    Assert.assertEquals(2, statistics.getJudgedLeaders().size());
+    Assert.assertTrue(statistics.getJudgedLeaders().get(REGION_1));
+    Assert.assertTrue(statistics.getJudgedLeaders().get(REGION_2));
+    Assert.assertEquals(10L, (long) statistics.getConsensusLogicalTimeMap().get(REGION_1));
+    Assert.assertEquals(21L, (long) statistics.getConsensusLogicalTimeMap().get(REGION_2));
+
+    // Delta statistics with removed Regions
+    resp = new TDataNodeHeartbeatResp();
+    resp.setStatisticsVersion(3);
+    resp.setStatisticsBaseVersion(2);
+    resp.setJudgedLeaders(Collections.emptyMap());
+    resp.setRemovedStatisticsRegions(Collections.singletonList(REGION_1));
+    statistics.apply(resp);
+    Assert.assertTrue(DataNodeHeartbeatStatistics.getChangedRegions(resp).isEmpty());
+    Assert.assertEquals(Collections.singletonMap(REGION_2, true), statistics.getJudgedLeaders());
+    Assert.assertEquals(
+        Collections.singletonMap(REGION_2, 21L), statistics.getConsensusLogicalTimeMap());
+
+    // The delta based on an unknown version requires the full statistics next time
+    resp = new TDataNodeHeartbeatResp();
+    resp.setStatisticsVersion(5);
+    resp.setStatisticsBaseVersion(4);
+    resp.setJudgedLeaders(Collections.emptyMap());
+    statistics.apply(resp);
+    Assert.assertEquals(DataNodeHeartbeatStatistics.UNKNOWN_VERSION, statistics.getVersion());
+
+    // The full statistics replace the merged ones
+    resp = new TDataNodeHeartbeatResp();
+    resp.setStatisticsVersion(6);
+    resp.setJudgedLeaders(Collections.singletonMap(REGION_1, false));
+    statistics.apply(resp);
+    Assert.assertEquals(6, statistics.getVersion());
+    Assert.assertEquals(Collections.singletonMap(REGION_1, false), statistics.getJudgedLeaders());
+
+    // The DataNode of former versions doesn't report the statistics version
+    resp = new TDataNodeHeartbeatResp();
+    resp.setJudgedLeaders(judgedLeaders);
+    statistics.apply(resp);
+    Assert.assertFalse(DataNodeHeartbeatStatistics.isDelta(resp));
+    Assert.assertEquals(DataNodeHeartbeatStatistics.UNKNOWN_VERSION, statistics.getVersion());
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.confignode.manager.load.cache;
+
+import org.apache.iotdb.confignode.manager.load.cache.region.RegionWriteRate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class LoadCacheTest {
+
+  private static final double DELTA = 1e-6;
+
+  @Test
+  public void updateRegionRawSizeMapTest() {
+    LoadCache loadCache = new LoadCache();
+    Map<Integer, Long> rawSizes = new HashMap<>();
+    rawSizes.put(1, 100L);
+    rawSizes.put(2, 200L);
+    loadCache.updateRegionRawSizeMap(1, rawSizes);
+    Assert.assertEquals(rawSizes, loadCache.getRegionRawSizeMap().get(1));
+
+    rawSizes.put(1, 150L);
+    loadCache.updateRegionRawSizeMap(1, rawSizes);
+    Assert.assertEquals(150L, (long) loadCache.getRegionRawSizeMap().get(1).get(1));
+    Assert.assertEquals(200L, (long) loadCache.getRegionRawSizeMap().get(1).get(2));
+    // The write rate of the unchanged DataRegion is not sampled
+    Assert.assertFalse(loadCache.getRegionWriteRateMap().containsKey(2));
+
+    // The report replaces the DataRegions of the DataNode
+    loadCache.updateRegionRawSizeMap(1, Collections.singletonMap(3, 300L));
+    Assert.assertEquals(Collections.singletonMap(3, 300L), loadCache.getRegionRawSizeMap().get(1));
+  }
+
+  @Test
+  public void regionWriteRateDecayTest() {
+    RegionWriteRate writeRate = new RegionWriteRate(0.5, 10);
+    Assert.assertEquals(0, writeRate.get(0), DELTA);
+
+    writeRate.update(100, 0);
+    Assert.assertEquals(100, writeRate.get(0), DELTA);
+    // The rate is kept until a sampling interval passes without any write
+    Assert.assertEquals(100, writeRate.get(9), DELTA);
+    Assert.assertEquals(50, writeRate.get(10), DELTA);
+    Assert.assertEquals(25, writeRate.get(25), DELTA);
+
+    // The sample is regarded as the average rate of the intervals since the last update
+    writeRate.update(20, 20);
+    Assert.assertEquals(100 * 0.25 + 20 * 0.75, writeRate.get(20), DELTA);
+  }
+
+  @Test
+  public void updateRegionSeriesSlotWriteRateMapTest() {
+    LoadCache loadCache = new LoadCache();
+    long second = 1_000_000_000L;
+
+    // The first sampling only records the sampling time
+    loadCache.updateRegionSeriesSlotWriteRateMap(
+        1, Collections.singletonMap(1, Collections.singletonMap(5, 100L)), 0);
+    Assert.assertTrue(loadCache.getRegionSeriesSlotWriteRateMap().isEmpty());
+
+    loadCache.updateRegionSeriesSlotWriteRateMap(
+        1, Collections.singletonMap(1, Collections.singletonMap(5, 200L)), 2 * second);
+    Assert.assertEquals(100, loadCache.getRegionSeriesSlotWriteRateMap().get(1).get(5), DELTA);
+
+    // The rate of a reported slot is smoothed, and a new slot takes its sample directly
+    Map<Integer, Long> slotPoints = new HashMap<>();
+    slotPoints.put(5, 300L);
+    slotPoints.put(6, 50L);
+    loadCache.updateRegionSeriesSlotWriteRateMap(
+        1, Collections.singletonMap(1, slotPoints), 3 * second);
+    Map<Integer, Double> slotRates = loadCache.getRegionSeriesSlotWriteRateMap().get(1);
+    Assert.assertEquals(100 * 0.8 + 300 * 0.2, slotRates.get(5), DELTA);
+    Assert.assertEquals(50, slotRates.get(6), DELTA);
+
+    // A sampling not later than the last one is ignored
+    loadCache.updateRegionSeriesSlotWriteRateMap(
+        1, Collections.singletonMap(1, Collections.singletonMap(5, 1000L)), 3 * second);
+    Assert.assertEquals(
+        100 * 0.8 + 300 * 0.2, loadCache.getRegionSeriesSlotWriteRateMap().get(1).get(5), DELTA);
+
+    // The slots not reported decay, and are removed once the rate is negligible
+    loadCache.updateRegionSeriesSlotWriteRateMap(
+        1, Collections.singletonMap(1, Collections.singletonMap(6, 50L)), 4 * second);
+    slotRates = loadCache.getRegionSeriesSlotWriteRateMap().get(1);
+    Assert.assertEquals((100 * 0.8 + 300 * 0.2) * 0.8, slotRates.get(5), DELTA);
+    Assert.assertEquals(50, slotRates.get(6), DELTA);
+    for (int i = 5; i < 40; i++) {
+      loadCache.updateRegionSeriesSlotWriteRateMap(
+          1, Collections.singletonMap(1, Collections.singletonMap(6, 50L)), i * second);
+    }
+    slotRates = loadCache.getRegionSeriesSlotWriteRateMap().get(1);
+    Assert.assertEquals(Collections.singleton(6), slotRates.keySet());
+    Assert.assertEquals(50, slotRates.get(6), DELTA);
+
+    // The sampling time is kept for each DataNode
+    loadCache.updateRegionSeriesSlotWriteRateMap(
+        2, Collections.singletonMap(2, Collections.singletonMap(7, 100L)), 40 * second);
+    Assert.assertFalse(loadCache.getRegionSeriesSlotWriteRateMap().containsKey(2));
+  }
+}
@@ -29,6 +29,7 @@ import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
 import org.apache.iotdb.commons.partition.DataPartitionTable;
 import org.apache.iotdb.commons.partition.SchemaPartitionTable;
 import org.apache.iotdb.commons.partition.SeriesPartitionTable;
+import org.apache.iotdb.confignode.conf.ConfigNodeDescriptor;
 import org.apache.iotdb.confignode.consensus.request.ConfigPhysicalPlanType;
 import org.apache.iotdb.confignode.consensus.request.read.region.GetRegionInfoListPlan;
 import org.apache.iotdb.confignode.consensus.request.write.database.DatabaseSchemaPlan;
@@ -50,8 +51,10 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -145,8 +148,54 @@ public class PartitionInfoTest {
 
     partitionInfo.offerRegionMaintainTasks(generateOfferRegionMaintainTasksPlan());
 
+    Assert.assertTrue(partitionInfo.processTakeSnapshot(snapshotDir, true));
+
+    PartitionInfo partitionInfo1 = new PartitionInfo();
+    partitionInfo1.processLoadSnapshot(snapshotDir);
+    Assert.assertEquals(partitionInfo, partitionInfo1);
+
+    // The snapshot in the legacy format can still be loaded
+    FileUtils.cleanDirectory(snapshotDir);
+    Assert.assertTrue(partitionInfo.processTakeSnapshot(snapshotDir, false));
+    PartitionInfo partitionInfo2 = new PartitionInfo();
+    partitionInfo2.processLoadSnapshot(snapshotDir);
+    Assert.assertEquals(partitionInfo, partitionInfo2);
+
+    // The legacy format is written by default, so that the ConfigNodes not upgraded yet can load it
+    FileUtils.cleanDirectory(snapshotDir);
     Assert.assertTrue(partitionInfo.processTakeSnapshot(snapshotDir));
+    try (DataInputStream inputStream =
+        new DataInputStream(
+            Files.newInputStream(new File(snapshotDir, "partition_info.bin").toPath()))) {
+      // The legacy format starts with the nextRegionGroupId instead of the compact marker
+      Assert.assertTrue(inputStream.readInt() >= -1);
+    }
+    PartitionInfo partitionInfo3 = new PartitionInfo();
+    partitionInfo3.processLoadSnapshot(snapshotDir);
+    Assert.assertEquals(partitionInfo, partitionInfo3);
+
+    // The compact format is written once enabled after all the ConfigNodes are upgraded
+    FileUtils.cleanDirectory(snapshotDir);
+    ConfigNodeDescriptor.getInstance().getConf().setPartitionSnapshotCompactFormatEnabled(true);
+    try {
+      Assert.assertTrue(partitionInfo.processTakeSnapshot(snapshotDir));
+    } finally {
+      ConfigNodeDescriptor.getInstance().getConf().setPartitionSnapshotCompactFormatEnabled(false);
+    }
+    try (DataInputStream inputStream =
+        new DataInputStream(
+            Files.newInputStream(new File(snapshotDir, "partition_info.bin").toPath()))) {
+      Assert.assertEquals(Integer.MIN_VALUE, inputStream.readInt());
+    }
+    PartitionInfo partitionInfo4 = new PartitionInfo();
+    partitionInfo4.processLoadSnapshot(snapshotDir);
+    Assert.assertEquals(partitionInfo, partitionInfo4);
+  }
 
+  @Test
+  public void testLoadEmptyLegacySnapshot() throws TException, IOException {
+    // No RegionGroup is created yet, so the legacy snapshot starts with -1
+    Assert.assertTrue(partitionInfo.processTakeSnapshot(snapshotDir, false));
     PartitionInfo partitionInfo1 = new PartitionInfo();
     partitionInfo1.processLoadSnapshot(snapshotDir);
     Assert.assertEquals(partitionInfo, partitionInfo1);
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.confignode.procedure.store;
+
+import org.apache.iotdb.confignode.conf.ConfigNodeConfig;
+import org.apache.iotdb.confignode.conf.ConfigNodeDescriptor;
+import org.apache.iotdb.confignode.consensus.request.ConfigPhysicalPlan;
+import org.apache.iotdb.confignode.consensus.request.write.procedure.BatchProcedurePlan;
+import org.apache.iotdb.confignode.consensus.request.write.procedure.DeleteProcedurePlan;
+import org.apache.iotdb.confignode.manager.ConfigManager;
+import org.apache.iotdb.confignode.manager.consensus.ConsensusManager;
+import org.apache.iotdb.confignode.persistence.ProcedureInfo;
+import org.apache.iotdb.consensus.exception.ConsensusException;
+import org.apache.iotdb.rpc.RpcUtils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ConfigProcedureStoreTest {
+
+  private static final int CALLER_NUM = 8;
+  private static final long TIMEOUT_IN_SECONDS = 10;
+
+  private final List<ConfigPhysicalPlan> committedPlans =
+      Collections.synchronizedList(new ArrayList<>());
+  private final CountDownLatch firstCommitStarted = new CountDownLatch(1);
+  private final CountDownLatch firstCommitReleased = new CountDownLatch(1);
+
+  private final ConfigNodeConfig conf = ConfigNodeDescriptor.getInstance().getConf();
+  private final int originalMaxBatchSize = conf.getProcedureStoreMaxBatchSize();
+
+  private ConsensusManager consensusManager;
+  private ConfigManager configManager;
+  private ConfigProcedureStore procedureStore;
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    consensusManager = mock(ConsensusManager.class);
+    configManager = mock(ConfigManager.class);
+    when(configManager.getConsensusManager()).thenReturn(consensusManager);
+    conf.setProcedureStoreMaxBatchSize(256);
+    procedureStore = new ConfigProcedureStore(configManager, mock(ProcedureInfo.class));
+    executor = Executors.newFixedThreadPool(CALLER_NUM + 1);
+  }
+
+  @After
+  public void tearDown() {
+    conf.setProcedureStoreMaxBatchSize(originalMaxBatchSize);
+    firstCommitReleased.countDown();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testConcurrentWritesAreBatched() throws Exception {
+    when(consensusManager.write(any())).thenAnswer(invocation -> commit(invocation.getArgument(0)));
+
+    final Future<Void> firstWrite = executor.submit(() -> delete(0));
+    final List<Future<Void>> writes = writeBehindFirstCommit();
+    firstWrite.get(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+    for (final Future<Void> write : writes) {
+      write.get(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // The writes queued during the first commit are committed in one consensus log entry
+    Assert.assertEquals(2, committedPlans.size());
+    Assert.assertEquals(0, ((DeleteProcedurePlan) committedPlans.get(0)).getProcId());
+    final List<ConfigPhysicalPlan> subPlans =
+        ((BatchProcedurePlan) committedPlans.get(1)).getSubPlans();
+    Assert.assertEquals(CALLER_NUM, subPlans.size());
+    final Set<Long> procIds = new HashSet<>();
+    for (final ConfigPhysicalPlan subPlan : subPlans) {
+      procIds.add(((DeleteProcedurePlan) subPlan).getProcId());
+    }
+    for (long procId = 1; procId <= CALLER_NUM; procId++) {
+      Assert.assertTrue(procIds.contains(procId));
+    }
+  }
+
+  @Test
+  public void testFailedBatchIsReportedToAllCallers() throws Exception {
+    final ConsensusException failure = new ConsensusException("Mocked failure");
+    when(consensusManager.write(any()))
+        .thenAnswer(
+            invocation -> {
+              if (committedPlans.size() == 1) {
+                committedPlans.add(invocation.getArgument(0));
+                throw failure;
+              }
+              return commit(invocation.getArgument(0));
+            });
+
+    final Future<Void> firstWrite = executor.submit(() -> delete(0));
+    final List<Future<Void>> writes = writeBehindFirstCommit();
+    firstWrite.get(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+    for (final Future<Void> write : writes) {
+      try {
+        write.get(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+        Assert.fail("The failure of the batch should be reported to every caller");
+      } catch (final ExecutionException e) {
+        Assert.assertSame(failure, e.getCause());
+      }
+    }
+    Assert.assertTrue(committedPlans.get(1) instanceof BatchProcedurePlan);
+
+    // The failed batch doesn't affect the following writes
+    procedureStore.delete(CALLER_NUM + 1);
+    Assert.assertEquals(3, committedPlans.size());
+  }
+
+  @Test
+  public void testNoBatchWhenMaxBatchSizeIsOne() throws Exception {
+    conf.setProcedureStoreMaxBatchSize(1);
+    procedureStore = new ConfigProcedureStore(configManager, mock(ProcedureInfo.class));
+    when(consensusManager.write(any())).thenAnswer(invocation -> commit(invocation.getArgument(0)));
+
+    final Future<Void> firstWrite = executor.submit(() -> delete(0));
+    final List<Future<Void>> writes = writeBehindFirstCommit();
+    firstWrite.get(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+    for (final Future<Void> write : writes) {
+      write.get(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // Each state change is written separately, so the ConfigNodes of older versions can read them
+    Assert.assertEquals(CALLER_NUM + 1, committedPlans.size());
+    for (final ConfigPhysicalPlan plan : committedPlans) {
+      Assert.assertTrue(plan instanceof DeleteProcedurePlan);
+    }
+  }
+
+  /**
+   * Start CALLER_NUM writes while the first commit is blocked, and release the first commit after
+   * all of them are queued.
+   */
+  private List<Future<Void>> writeBehindFirstCommit() throws Exception {
+    Assert.assertTrue(firstCommitStarted.await(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS));
+    final List<Future<Void>> writes = new ArrayList<>();
+    for (int i = 1; i <= CALLER_NUM; i++) {
+      final long procId = i;
+      writes.add(executor.submit(() -> delete(procId)));
+    }
+    final long deadline =
+        System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_IN_SECONDS);
+    while (procedureStore.getPendingWriteNum() < CALLER_NUM) {
+      Assert.assertTrue(System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+    firstCommitReleased.countDown();
+    return writes;
+  }
+
+  private Object commit(final ConfigPhysicalPlan plan) throws InterruptedException {
+    committedPlans.add(plan);
+    if (committedPlans.size() == 1) {
+      firstCommitStarted.countDown();
+      Assert.assertTrue(firstCommitReleased.await(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS));
+    }
+    return RpcUtils.SUCCESS_STATUS;
+  }
+
+  private Void delete(final long procId) throws Exception {
+    procedureStore.delete(procId);
+    return null;
+  }
+}
@@ -322,7 +322,11 @@ public class IoTConsensusConfig {
     private final long checkpointGap;
     private final IMemoryBlock consensusMemoryBlock;
     private final double maxMemoryRatioForQueue;
+    private final double maxMemoryRatioForLogCache;
     private final long regionMigrationSpeedLimitBytesPerSecond;
+    private final boolean enableMultiplexedDispatch;
+    private final int multiplexedDispatchThreadNum;
+    private final int snapshotTransmitParallelism;
 
     private Replication(
         int maxLogEntriesNumPerBatch,
@@ -338,7 +342,11 @@ public class IoTConsensusConfig {
         long checkpointGap,
         IMemoryBlock consensusMemoryBlock,
         double maxMemoryRatioForQueue,
-        long regionMigrationSpeedLimitBytesPerSecond) {
+        double maxMemoryRatioForLogCache,
+        long regionMigrationSpeedLimitBytesPerSecond,
+        boolean enableMultiplexedDispatch,
+        int multiplexedDispatchThreadNum,
+        int snapshotTransmitParallelism) {
       this.maxLogEntriesNumPerBatch = maxLogEntriesNumPerBatch;
       this.maxSizePerBatch = maxSizePerBatch;
       this.maxPendingBatchesNum = maxPendingBatchesNum;
@@ -352,7 +360,11 @@ public class IoTConsensusConfig {
       this.checkpointGap = checkpointGap;
       this.consensusMemoryBlock = consensusMemoryBlock;
       this.maxMemoryRatioForQueue = maxMemoryRatioForQueue;
+      this.maxMemoryRatioForLogCache = maxMemoryRatioForLogCache;
       this.regionMigrationSpeedLimitBytesPerSecond = regionMigrationSpeedLimitBytesPerSecond;
+      this.enableMultiplexedDispatch = enableMultiplexedDispatch;
+      this.multiplexedDispatchThreadNum = multiplexedDispatchThreadNum;
+      this.snapshotTransmitParallelism = snapshotTransmitParallelism;
     }
 
     public int getMaxLogEntriesNumPerBatch() {
@@ -407,10 +419,26 @@ public class IoTConsensusConfig {
       return maxMemoryRatioForQueue;
     }
 
+    public double getMaxMemoryRatioForLogCache() {
+      return maxMemoryRatioForLogCache;
+    }
+
     public long getRegionMigrationSpeedLimitBytesPerSecond() {
       return regionMigrationSpeedLimitBytesPerSecond;
     }
 
+    public boolean isEnableMultiplexedDispatch() {
+      return enableMultiplexedDispatch;
+    }
+
+    public int getMultiplexedDispatchThreadNum() {
+      return multiplexedDispatchThreadNum;
+    }
+
+    public int getSnapshotTransmitParallelism() {
+      return snapshotTransmitParallelism;
+    }
+
     public static Replication.Builder newBuilder() {
       return new Replication.Builder();
     }
@@ -433,7 +461,11 @@ public class IoTConsensusConfig {
           new AtomicLongMemoryBlock(
               "Consensus-Default", null, Runtime.getRuntime().maxMemory() / 10);
       private double maxMemoryRatioForQueue = 0.6;
+      private double maxMemoryRatioForLogCache = 0.2;
       private long regionMigrationSpeedLimitBytesPerSecond = 32 * 1024 * 1024L;
+      private boolean enableMultiplexedDispatch = false;
+      private int multiplexedDispatchThreadNum = 4;
+      private int snapshotTransmitParallelism = 4;
 
       public Replication.Builder setMaxLogEntriesNumPerBatch(int maxLogEntriesNumPerBatch) {
         this.maxLogEntriesNumPerBatch = maxLogEntriesNumPerBatch;
@@ -502,12 +534,32 @@ public class IoTConsensusConfig {
         return this;
       }
 
+      public Builder setMaxMemoryRatioForLogCache(double maxMemoryRatioForLogCache) {
+        this.maxMemoryRatioForLogCache = maxMemoryRatioForLogCache;
+        return this;
+      }
+
       public Builder setRegionMigrationSpeedLimitBytesPerSecond(
           long regionMigrationSpeedLimitBytesPerSecond) {
         this.regionMigrationSpeedLimitBytesPerSecond = regionMigrationSpeedLimitBytesPerSecond;
         return this;
       }
 
+      public Builder setEnableMultiplexedDispatch(boolean enableMultiplexedDispatch) {
+        this.enableMultiplexedDispatch = enableMultiplexedDispatch;
+        return this;
+      }
+
+      public Builder setMultiplexedDispatchThreadNum(int multiplexedDispatchThreadNum) {
+        this.multiplexedDispatchThreadNum = multiplexedDispatchThreadNum;
+        return this;
+      }
+
+      public Builder setSnapshotTransmitParallelism(int snapshotTransmitParallelism) {
+        this.snapshotTransmitParallelism = snapshotTransmitParallelism;
+        return this;
+      }
+
       public Replication build() {
         return new Replication(
             maxLogEntriesNumPerBatch,
@@ -523,7 +575,11 @@ public class IoTConsensusConfig {
             checkpointGap,
             consensusMemoryBlock,
             maxMemoryRatioForQueue,
-            regionMigrationSpeedLimitBytesPerSecond);
+            maxMemoryRatioForLogCache,
+            regionMigrationSpeedLimitBytesPerSecond,
+            enableMultiplexedDispatch,
+            multiplexedDispatchThreadNum,
+            snapshotTransmitParallelism);
       }
     }
   }
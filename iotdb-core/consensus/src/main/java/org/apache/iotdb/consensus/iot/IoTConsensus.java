@@ -55,6 +55,7 @@ import org.apache.iotdb.consensus.iot.client.IoTConsensusClientPool.AsyncIoTCons
 import org.apache.iotdb.consensus.iot.client.IoTConsensusClientPool.SyncIoTConsensusServiceClientPoolFactory;
 import org.apache.iotdb.consensus.iot.client.SyncIoTConsensusServiceClient;
 import org.apache.iotdb.consensus.iot.logdispatcher.IoTConsensusMemoryManager;
+import org.apache.iotdb.consensus.iot.logdispatcher.MultiplexedLogDispatcher;
 import org.apache.iotdb.consensus.iot.service.IoTConsensusRPCService;
 import org.apache.iotdb.consensus.iot.service.IoTConsensusRPCServiceProcessor;
 import org.apache.iotdb.consensus.iot.snapshot.IoTConsensusRateLimiter;
@@ -77,6 +78,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -101,6 +103,10 @@ public class IoTConsensus implements IConsensus {
   private final IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager;
   private final IClientManager<TEndPoint, SyncIoTConsensusServiceClient> syncClientManager;
   private final ScheduledExecutorService backgroundTaskService;
+  // applies the batches of different consensus groups received in one multi-region RPC
+  private final ExecutorService multiRegionSyncLogExecutor;
+  // null if the multiplexed dispatch is disabled
+  private final MultiplexedLogDispatcher multiplexedLogDispatcher;
   private Future<?> updateReaderFuture;
   private Map<ConsensusGroupId, List<Peer>> correctPeerListBeforeStart = null;
 
@@ -122,11 +128,20 @@ public class IoTConsensus implements IConsensus {
     this.backgroundTaskService =
         IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
             ThreadName.IOT_CONSENSUS_BACKGROUND_TASK_EXECUTOR.getName());
+    this.multiRegionSyncLogExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            config.getIotConsensusConfig().getReplication().getMultiplexedDispatchThreadNum(),
+            ThreadName.IOT_CONSENSUS_MULTI_REGION_SYNC_LOG.getName());
+    this.multiplexedLogDispatcher =
+        config.getIotConsensusConfig().getReplication().isEnableMultiplexedDispatch()
+            ? new MultiplexedLogDispatcher(config.getIotConsensusConfig(), clientManager)
+            : null;
     // init IoTConsensus memory manager
     IoTConsensusMemoryManager.getInstance()
         .init(
             config.getIotConsensusConfig().getReplication().getConsensusMemoryBlock(),
-            config.getIotConsensusConfig().getReplication().getMaxMemoryRatioForQueue());
+            config.getIotConsensusConfig().getReplication().getMaxMemoryRatioForQueue(),
+            config.getIotConsensusConfig().getReplication().getMaxMemoryRatioForLogCache());
     // init IoTConsensus Rate Limiter
     IoTConsensusRateLimiter.getInstance()
         .init(
@@ -157,6 +172,9 @@ public class IoTConsensus implements IConsensus {
               READER_UPDATE_INTERVAL_IN_MINUTES,
               TimeUnit.MINUTES);
     }
+    if (multiplexedLogDispatcher != null) {
+      multiplexedLogDispatcher.start(backgroundTaskService);
+    }
   }
 
   private void initAndRecover() throws IOException {
@@ -179,6 +197,7 @@ public class IoTConsensus implements IConsensus {
                   registry.apply(consensusGroupId),
                   backgroundTaskService,
                   clientManager,
+                  multiplexedLogDispatcher,
                   syncClientManager,
                   config);
           stateMachineMap.put(consensusGroupId, consensus);
@@ -214,9 +233,11 @@ public class IoTConsensus implements IConsensus {
   public synchronized void stop() {
     Optional.ofNullable(updateReaderFuture).ifPresent(future -> future.cancel(false));
     stateMachineMap.values().parallelStream().forEach(IoTConsensusServerImpl::stop);
+    Optional.ofNullable(multiplexedLogDispatcher).ifPresent(MultiplexedLogDispatcher::stop);
     clientManager.close();
     syncClientManager.close();
     registerManager.deregisterAll();
+    multiRegionSyncLogExecutor.shutdownNow();
     backgroundTaskService.shutdown();
     try {
       backgroundTaskService.awaitTermination(5, TimeUnit.SECONDS);
@@ -286,6 +307,7 @@ public class IoTConsensus implements IConsensus {
                           registry.apply(groupId),
                           backgroundTaskService,
                           clientManager,
+                          multiplexedLogDispatcher,
                           syncClientManager,
                           config);
                   impl.start();
@@ -552,6 +574,10 @@ public class IoTConsensus implements IConsensus {
     return stateMachineMap.get(groupId);
   }
 
+  public ExecutorService getMultiRegionSyncLogExecutor() {
+    return multiRegionSyncLogExecutor;
+  }
+
   public static String buildPeerDir(File storageDir, ConsensusGroupId groupId) {
     return storageDir + File.separator + groupId.getType().getValue() + "_" + groupId.getId();
   }
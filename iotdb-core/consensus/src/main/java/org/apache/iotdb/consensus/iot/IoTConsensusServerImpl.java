@@ -44,8 +44,8 @@ import org.apache.iotdb.consensus.iot.client.SyncIoTConsensusServiceClient;
 import org.apache.iotdb.consensus.iot.log.ConsensusReqReader;
 import org.apache.iotdb.consensus.iot.log.GetConsensusReqReaderPlan;
 import org.apache.iotdb.consensus.iot.logdispatcher.LogDispatcher;
-import org.apache.iotdb.consensus.iot.snapshot.IoTConsensusRateLimiter;
-import org.apache.iotdb.consensus.iot.snapshot.SnapshotFragmentReader;
+import org.apache.iotdb.consensus.iot.logdispatcher.MultiplexedLogDispatcher;
+import org.apache.iotdb.consensus.iot.snapshot.SnapshotTransmitter;
 import org.apache.iotdb.consensus.iot.thrift.TActivatePeerReq;
 import org.apache.iotdb.consensus.iot.thrift.TActivatePeerRes;
 import org.apache.iotdb.consensus.iot.thrift.TBuildSyncLogChannelReq;
@@ -56,8 +56,6 @@ import org.apache.iotdb.consensus.iot.thrift.TInactivatePeerReq;
 import org.apache.iotdb.consensus.iot.thrift.TInactivatePeerRes;
 import org.apache.iotdb.consensus.iot.thrift.TRemoveSyncLogChannelReq;
 import org.apache.iotdb.consensus.iot.thrift.TRemoveSyncLogChannelRes;
-import org.apache.iotdb.consensus.iot.thrift.TSendSnapshotFragmentReq;
-import org.apache.iotdb.consensus.iot.thrift.TSendSnapshotFragmentRes;
 import org.apache.iotdb.consensus.iot.thrift.TTriggerSnapshotLoadReq;
 import org.apache.iotdb.consensus.iot.thrift.TTriggerSnapshotLoadRes;
 import org.apache.iotdb.consensus.iot.thrift.TWaitReleaseAllRegionRelatedResourceReq;
@@ -74,13 +72,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -124,8 +122,6 @@ public class IoTConsensusServerImpl {
   private final IoTConsensusServerMetrics ioTConsensusServerMetrics;
   private final String consensusGroupId;
   private final ScheduledExecutorService backgroundTaskService;
-  private final IoTConsensusRateLimiter ioTConsensusRateLimiter =
-      IoTConsensusRateLimiter.getInstance();
   private IndexedConsensusRequest lastConsensusRequest;
 
   public IoTConsensusServerImpl(
@@ -135,6 +131,7 @@ public class IoTConsensusServerImpl {
       IStateMachine stateMachine,
       ScheduledExecutorService backgroundTaskService,
       IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager,
+      MultiplexedLogDispatcher multiplexedLogDispatcher,
       IClientManager<TEndPoint, SyncIoTConsensusServiceClient> syncClientManager,
       IoTConsensusConfig config) {
     this.active = true;
@@ -151,7 +148,7 @@ public class IoTConsensusServerImpl {
         (ConsensusReqReader) stateMachine.read(new GetConsensusReqReaderPlan());
     this.searchIndex = new AtomicLong(consensusReqReader.getCurrentSearchIndex());
     this.ioTConsensusServerMetrics = new IoTConsensusServerMetrics(this);
-    this.logDispatcher = new LogDispatcher(this, clientManager);
+    this.logDispatcher = new LogDispatcher(this, clientManager, multiplexedLogDispatcher);
   }
 
   public IStateMachine getStateMachine() {
@@ -299,8 +296,6 @@ public class IoTConsensusServerImpl {
               .append(humanReadableByteCountSI(fileSize));
         });
     final long snapshotSizeSum = snapshotSizeSumAtomic.get();
-    long transitedSnapshotSizeSum = 0;
-    long transitedFilesNum = 0;
     long startTime = System.nanoTime();
     logger.info(
         "[SNAPSHOT TRANSMISSION] Start to transmit snapshots ({} files, total size {}) from dir {}",
@@ -309,46 +304,9 @@ public class IoTConsensusServerImpl {
         snapshotDir);
     logger.info(
         "[SNAPSHOT TRANSMISSION] All the files below shell be transmitted: {}", allFilesStr);
-    try (SyncIoTConsensusServiceClient client =
-        syncClientManager.borrowClient(targetPeer.getEndpoint())) {
-      for (File file : snapshotPaths) {
-        SnapshotFragmentReader reader =
-            new SnapshotFragmentReader(newSnapshotDirName, file.toPath());
-        try {
-          while (reader.hasNext()) {
-            // TODO: zero copy ?
-            TSendSnapshotFragmentReq req = reader.next().toTSendSnapshotFragmentReq();
-            req.setConsensusGroupId(targetPeer.getGroupId().convertToTConsensusGroupId());
-            ioTConsensusRateLimiter.acquireTransitDataSizeWithRateLimiter(req.getChunkLength());
-            TSendSnapshotFragmentRes res = client.sendSnapshotFragment(req);
-            if (!isSuccess(res.getStatus())) {
-              throw new ConsensusGroupModifyPeerException(
-                  String.format(
-                      "[SNAPSHOT TRANSMISSION] Error when transmitting snapshot fragment to %s",
-                      targetPeer));
-            }
-          }
-          transitedSnapshotSizeSum += reader.getTotalReadSize();
-          transitedFilesNum++;
-          logger.info(
-              "[SNAPSHOT TRANSMISSION] The overall progress for dir {}: files {}/{} done, size {}/{} done, time {} passed. File {} done.",
-              newSnapshotDirName,
-              transitedFilesNum,
-              snapshotPaths.size(),
-              humanReadableByteCountSI(transitedSnapshotSizeSum),
-              humanReadableByteCountSI(snapshotSizeSum),
-              CommonDateTimeUtils.convertMillisecondToDurationStr(
-                  (System.nanoTime() - startTime) / 1_000_000),
-              file);
-        } finally {
-          reader.close();
-        }
-      }
-    } catch (Exception e) {
-      throw new ConsensusGroupModifyPeerException(
-          String.format("[SNAPSHOT TRANSMISSION] Error when send snapshot file to %s", targetPeer),
-          e);
-    }
+    new SnapshotTransmitter(
+            newSnapshotDirName, targetPeer, snapshotPaths, syncClientManager, config)
+        .transmit();
     logger.info(
         "[SNAPSHOT TRANSMISSION] After {}, successfully transmit all snapshots from dir {}",
         CommonDateTimeUtils.convertMillisecondToDurationStr(
@@ -366,9 +324,16 @@ public class IoTConsensusServerImpl {
       if (!Files.exists(parentDir)) {
         Files.createDirectories(parentDir);
       }
-      try (FileOutputStream fos = new FileOutputStream(targetFile.getAbsolutePath(), true);
-          FileChannel channel = fos.getChannel()) {
-        channel.write(fileChunk.slice(), fileOffset);
+      // not opened in append mode, otherwise the offset is ignored and a fragment resent after a
+      // failure is appended twice
+      try (FileChannel channel =
+          FileChannel.open(
+              targetFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+        ByteBuffer buffer = fileChunk.slice();
+        long position = fileOffset;
+        while (buffer.hasRemaining()) {
+          position += channel.write(buffer, position);
+        }
       }
     } catch (IOException e) {
       throw new ConsensusGroupModifyPeerException(
@@ -774,6 +739,14 @@ public class IoTConsensusServerImpl {
     return logDispatcher.getLogEntriesFromQueue();
   }
 
+  public long getLogCacheHitCount() {
+    return logDispatcher.getLogCacheHitCount();
+  }
+
+  public long getLogCacheMissCount() {
+    return logDispatcher.getLogCacheMissCount();
+  }
+
   public boolean needBlockWrite() {
     return consensusReqReader.getTotalSize() > config.getReplication().getWalThrottleThreshold();
   }
@@ -133,6 +133,28 @@ public class IoTConsensusServerMetrics implements IMetricSet {
         impl.getThisNode().getGroupId().toString(),
         Tag.TYPE.toString(),
         "LogEntriesFromQueue");
+    metricService.createAutoGauge(
+        Metric.IOT_CONSENSUS.toString(),
+        MetricLevel.IMPORTANT,
+        impl,
+        IoTConsensusServerImpl::getLogCacheHitCount,
+        Tag.NAME.toString(),
+        IMPL,
+        Tag.REGION.toString(),
+        impl.getThisNode().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "LogCacheHit");
+    metricService.createAutoGauge(
+        Metric.IOT_CONSENSUS.toString(),
+        MetricLevel.IMPORTANT,
+        impl,
+        IoTConsensusServerImpl::getLogCacheMissCount,
+        Tag.NAME.toString(),
+        IMPL,
+        Tag.REGION.toString(),
+        impl.getThisNode().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "LogCacheMiss");
   }
 
   private void bindStageTimer(AbstractMetricService metricService) {
@@ -262,6 +284,24 @@ public class IoTConsensusServerMetrics implements IMetricSet {
         impl.getThisNode().getGroupId().toString(),
         Tag.TYPE.toString(),
         "LogEntriesFromQueue");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.IOT_CONSENSUS.toString(),
+        Tag.NAME.toString(),
+        IMPL,
+        Tag.REGION.toString(),
+        impl.getThisNode().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "LogCacheHit");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.IOT_CONSENSUS.toString(),
+        Tag.NAME.toString(),
+        IMPL,
+        Tag.REGION.toString(),
+        impl.getThisNode().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "LogCacheMiss");
   }
 
   private void unbindStageTimer(AbstractMetricService metricService) {
@@ -147,10 +147,24 @@ public class DispatchLogHandler implements AsyncMethodCallback<TSyncLogEntriesRe
             TimeUnit.MILLISECONDS);
   }
 
+  /** Send the batch alone, e.g. if the peer doesn't support sending several batches together. */
+  public void resend() {
+    if (thread.isStopped()) {
+      logger.debug(
+          "LogDispatcherThread {} has been stopped, we will not resend this Batch {}",
+          thread.getPeer(),
+          batch);
+    } else {
+      thread.sendBatchAsync(batch, this);
+    }
+  }
+
   private void completeBatch(Batch batch) {
     thread.getSyncStatus().removeBatch(batch);
     // update safely deleted search index after last flushed sync index may be updated by
     // removeBatch
     thread.updateSafelyDeletedSearchIndex();
+    // the synchronization pipeline may be no longer full
+    thread.wakeUp();
   }
 }
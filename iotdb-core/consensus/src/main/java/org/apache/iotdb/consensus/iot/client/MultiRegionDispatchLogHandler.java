@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.client;
+
+import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesRes;
+import org.apache.iotdb.consensus.iot.thrift.TSyncMultiRegionLogEntriesRes;
+
+import org.apache.thrift.TApplicationException;
+import org.apache.thrift.async.AsyncMethodCallback;
+import org.apache.tsfile.external.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Splits the response of a multi-region RPC to the {@link DispatchLogHandler}s of the batches sent
+ * together, each batch is retried separately afterwards.
+ */
+public class MultiRegionDispatchLogHandler
+    implements AsyncMethodCallback<TSyncMultiRegionLogEntriesRes> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MultiRegionDispatchLogHandler.class);
+
+  // the i-th handler corresponds to the i-th request
+  private final List<DispatchLogHandler> handlers;
+
+  public MultiRegionDispatchLogHandler(List<DispatchLogHandler> handlers) {
+    this.handlers = handlers;
+  }
+
+  @Override
+  public void onComplete(TSyncMultiRegionLogEntriesRes response) {
+    List<TSyncLogEntriesRes> resList = response.getResList();
+    if (resList == null || resList.size() != handlers.size()) {
+      onError(
+          new IllegalStateException(
+              String.format(
+                  "Expect %d responses for the multi-region request, but got %d",
+                  handlers.size(), resList == null ? 0 : resList.size())));
+      return;
+    }
+    for (int i = 0; i < handlers.size(); i++) {
+      handlers.get(i).onComplete(resList.get(i));
+    }
+  }
+
+  @Override
+  public void onError(Exception exception) {
+    if (ExceptionUtils.getRootCause(exception) instanceof TApplicationException) {
+      // the peer may not support the multi-region RPC, send the batches one by one instead of
+      // skipping them like DispatchLogHandler does
+      LOGGER.warn(
+          "Failed to send {} batches together, send them one by one because {}",
+          handlers.size(),
+          exception.toString());
+      handlers.forEach(DispatchLogHandler::resend);
+      return;
+    }
+    handlers.forEach(handler -> handler.onError(exception));
+  }
+}
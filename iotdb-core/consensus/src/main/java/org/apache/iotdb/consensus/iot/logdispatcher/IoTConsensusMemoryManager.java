@@ -28,15 +28,21 @@ import org.apache.iotdb.consensus.common.request.IndexedConsensusRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class IoTConsensusMemoryManager {
   private static final Logger logger = LoggerFactory.getLogger(IoTConsensusMemoryManager.class);
   private final AtomicLong queueMemorySizeInByte = new AtomicLong(0);
   private final AtomicLong syncMemorySizeInByte = new AtomicLong(0);
+  // the memory of the requests referenced by the caches, part of which is also referenced by queues
+  private final AtomicLong cacheMemorySizeInByte = new AtomicLong(0);
+  private final Set<ReplicationLogCache> caches = ConcurrentHashMap.newKeySet();
   private IMemoryBlock memoryBlock =
       new AtomicLongMemoryBlock("Consensus-Default", null, Runtime.getRuntime().maxMemory() / 10);
   private Double maxMemoryRatioForQueue = 0.6;
+  private Double maxMemoryRatioForCache = 0.2;
 
   private IoTConsensusMemoryManager() {
     MetricService.getInstance().addMetricSet(new IoTConsensusMemoryManagerMetrics(this));
@@ -46,6 +52,10 @@ public class IoTConsensusMemoryManager {
     long prevRef = request.incRef();
     if (prevRef == 0) {
       boolean reserved = reserve(request.getMemorySize(), true);
+      if (!reserved && evictCaches(request.getMemorySize()) > 0) {
+        // the caches give way to the queues
+        reserved = reserve(request.getMemorySize(), true);
+      }
       if (reserved) {
         if (logger.isDebugEnabled()) {
           logger.debug(
@@ -108,6 +118,71 @@ public class IoTConsensusMemoryManager {
     return result;
   }
 
+  /**
+   * Reserve memory for a request cached by a {@link ReplicationLogCache}. The cache shares the
+   * serialized buffers with the queues, so like the queues it takes a reference of the request, and
+   * the memory of the request is only allocated once, by whichever holds it first. The requests
+   * referenced by the caches of all the consensus groups take at most maxMemoryRatioForCache of the
+   * memory.
+   */
+  public boolean reserveForCache(IndexedConsensusRequest request) {
+    long size = request.getMemorySize();
+    if (cacheMemorySizeInByte.addAndGet(size) > getMaxCacheMemorySizeInByte()) {
+      cacheMemorySizeInByte.addAndGet(-size);
+      return false;
+    }
+    if (request.incRef() == 0 && !reserve(size, true)) {
+      request.decRef();
+      cacheMemorySizeInByte.addAndGet(-size);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Release the reference of a request evicted from a {@link ReplicationLogCache}.
+   *
+   * @return the memory freed, which is 0 if the request is still referenced by a queue
+   */
+  public long freeForCache(IndexedConsensusRequest request) {
+    long size = request.getMemorySize();
+    cacheMemorySizeInByte.addAndGet(-size);
+    if (request.decRef() == 1) {
+      free(size, true);
+      return size;
+    }
+    return 0;
+  }
+
+  public long getMaxCacheMemorySizeInByte() {
+    return (long) (memoryBlock.getTotalMemorySizeInBytes() * maxMemoryRatioForCache);
+  }
+
+  void registerCache(ReplicationLogCache cache) {
+    caches.add(cache);
+  }
+
+  void deregisterCache(ReplicationLogCache cache) {
+    caches.remove(cache);
+  }
+
+  /**
+   * Evict the eldest requests of the caches until the given size of memory is freed, as a request
+   * in the queues never needs to be read from the caches.
+   *
+   * @return the memory freed
+   */
+  private long evictCaches(long size) {
+    long freed = 0;
+    for (ReplicationLogCache cache : caches) {
+      if (freed >= size) {
+        break;
+      }
+      freed += cache.evictEldest(size - freed);
+    }
+    return freed;
+  }
+
   public void free(IndexedConsensusRequest request) {
     long prevRef = request.decRef();
     if (prevRef == 1) {
@@ -148,9 +223,11 @@ public class IoTConsensusMemoryManager {
         currentUsedMemory);
   }
 
-  public void init(IMemoryBlock memoryBlock, double maxMemoryRatioForQueue) {
+  public void init(
+      IMemoryBlock memoryBlock, double maxMemoryRatioForQueue, double maxMemoryRatioForCache) {
     this.memoryBlock = memoryBlock;
     this.maxMemoryRatioForQueue = maxMemoryRatioForQueue;
+    this.maxMemoryRatioForCache = maxMemoryRatioForCache;
   }
 
   @TestOnly
@@ -158,6 +235,8 @@ public class IoTConsensusMemoryManager {
     this.memoryBlock.release(this.memoryBlock.getUsedMemoryInBytes());
     this.queueMemorySizeInByte.set(0);
     this.syncMemorySizeInByte.set(0);
+    this.cacheMemorySizeInByte.set(0);
+    this.caches.clear();
   }
 
   @TestOnly
@@ -187,6 +266,10 @@ public class IoTConsensusMemoryManager {
     return syncMemorySizeInByte.get();
   }
 
+  long getCacheMemorySizeInByte() {
+    return cacheMemorySizeInByte.get();
+  }
+
   private static final IoTConsensusMemoryManager INSTANCE = new IoTConsensusMemoryManager();
 
   public static IoTConsensusMemoryManager getInstance() {
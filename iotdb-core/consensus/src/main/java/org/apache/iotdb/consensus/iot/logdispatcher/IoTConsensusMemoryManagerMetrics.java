@@ -56,6 +56,13 @@ public class IoTConsensusMemoryManagerMetrics implements IMetricSet {
         IoTConsensusMemoryManager::getSyncMemorySizeInByte,
         Tag.NAME.toString(),
         "IoTConsensusSync");
+    metricService.createAutoGauge(
+        Metric.MEM.toString(),
+        MetricLevel.IMPORTANT,
+        iotConsensusMemoryManager,
+        IoTConsensusMemoryManager::getCacheMemorySizeInByte,
+        Tag.NAME.toString(),
+        "IoTConsensusLogCache");
   }
 
   @Override
@@ -66,5 +73,7 @@ public class IoTConsensusMemoryManagerMetrics implements IMetricSet {
         MetricType.AUTO_GAUGE, Metric.MEM.toString(), Tag.NAME.toString(), "IoTConsensusQueue");
     metricService.remove(
         MetricType.AUTO_GAUGE, Metric.MEM.toString(), Tag.NAME.toString(), "IoTConsensusSync");
+    metricService.remove(
+        MetricType.AUTO_GAUGE, Metric.MEM.toString(), Tag.NAME.toString(), "IoTConsensusLogCache");
   }
 }
@@ -52,7 +52,11 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
-/** Manage all asynchronous replication threads and corresponding async clients. */
+/**
+ * Manage all asynchronous replication threads and corresponding async clients. If the multiplexed
+ * dispatch is enabled, the {@link LogDispatcherThread}s are driven by the {@link
+ * MultiplexedLogDispatcher} shared by all the consensus groups instead of dedicated threads.
+ */
 public class LogDispatcher {
 
   private static final Logger logger = LoggerFactory.getLogger(LogDispatcher.class);
@@ -62,8 +66,13 @@ public class LogDispatcher {
   private final int selfPeerId;
   private final IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager;
   private ExecutorService executorService;
+  // null if the multiplexed dispatch is disabled
+  private final MultiplexedLogDispatcher multiplexedLogDispatcher;
 
   private final ConsensusReqReader reader;
+  // shared by all the LogDispatcherThreads, read by the lagging ones before WAL
+  private final ReplicationLogCache logCache =
+      new ReplicationLogCache(IoTConsensusMemoryManager.getInstance());
   private boolean stopped = false;
 
   private final AtomicLong logEntriesFromWAL = new AtomicLong(0);
@@ -74,17 +83,19 @@ public class LogDispatcher {
 
   public LogDispatcher(
       IoTConsensusServerImpl impl,
-      IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager) {
+      IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager,
+      MultiplexedLogDispatcher multiplexedLogDispatcher) {
     this.impl = impl;
     this.reader = (ConsensusReqReader) impl.getStateMachine().read(new GetConsensusReqReaderPlan());
     this.selfPeerId = impl.getThisNode().getNodeId();
     this.clientManager = clientManager;
+    this.multiplexedLogDispatcher = multiplexedLogDispatcher;
     this.threads =
         impl.getConfiguration().stream()
             .filter(x -> !Objects.equals(x, impl.getThisNode()))
             .map(x -> new LogDispatcherThread(x, impl.getConfig(), DEFAULT_INITIAL_SYNC_INDEX))
             .collect(Collectors.toList());
-    if (!threads.isEmpty()) {
+    if (!threads.isEmpty() && multiplexedLogDispatcher == null) {
       initLogSyncThreadPool();
     }
   }
@@ -101,18 +112,29 @@ public class LogDispatcher {
 
   public synchronized void start() {
     if (!threads.isEmpty()) {
-      threads.forEach(logDispatcherThread -> executorService.submit(logDispatcherThread));
+      threads.forEach(this::startLogDispatcherThread);
+    }
+  }
+
+  private void startLogDispatcherThread(LogDispatcherThread thread) {
+    if (multiplexedLogDispatcher != null) {
+      multiplexedLogDispatcher.register(thread);
+    } else {
+      executorService.submit(thread);
     }
   }
 
   public synchronized void stop() {
     if (!threads.isEmpty()) {
       threads.forEach(LogDispatcherThread::setStopped);
-      executorService.shutdownNow();
+      if (executorService != null) {
+        executorService.shutdownNow();
+      }
       threads.forEach(LogDispatcherThread::processStopped);
       int timeout = 10;
       try {
-        if (!executorService.awaitTermination(timeout, TimeUnit.SECONDS)) {
+        if (executorService != null
+            && !executorService.awaitTermination(timeout, TimeUnit.SECONDS)) {
           logger.error("Unable to shutdown LogDispatcher service after {} seconds", timeout);
         }
       } catch (InterruptedException e) {
@@ -120,6 +142,7 @@ public class LogDispatcher {
         logger.error("Unexpected Interruption when closing LogDispatcher service ");
       }
     }
+    logCache.close();
     stopped = true;
   }
 
@@ -132,11 +155,11 @@ public class LogDispatcher {
     threads.add(thread);
     // If the initial replica is 1, the executorService won't be initialized. And when adding
     // dispatcher thread, the executorService should be initialized manually
-    if (this.executorService == null) {
+    if (this.executorService == null && multiplexedLogDispatcher == null) {
       initLogSyncThreadPool();
     }
     if (startNow) {
-      executorService.submit(thread);
+      startLogDispatcherThread(thread);
     }
   }
 
@@ -184,6 +207,9 @@ public class LogDispatcher {
     if (!threads.isEmpty()) {
       request.buildSerializedRequests();
       synchronized (this) {
+        if (!stopped) {
+          logCache.put(request);
+        }
         threads.forEach(
             thread -> {
               logger.debug(
@@ -198,7 +224,14 @@ public class LogDispatcher {
                     thread.getPeer(),
                     request.getSearchIndex());
               }
+              // the log is read from the cache or WAL if it's not in the queue
+              thread.wakeUp();
             });
+        // the logs synchronized to all the followers will never be read again
+        threads.stream()
+            .mapToLong(LogDispatcherThread::getCurrentSyncIndex)
+            .min()
+            .ifPresent(minSyncIndex -> logCache.evictBefore(minSyncIndex + 1));
       }
     }
   }
@@ -211,6 +244,14 @@ public class LogDispatcher {
     return logEntriesFromQueue.get();
   }
 
+  public long getLogCacheHitCount() {
+    return logCache.getHitCount();
+  }
+
+  public long getLogCacheMissCount() {
+    return logCache.getMissCount();
+  }
+
   public class LogDispatcherThread implements Runnable {
 
     private static final long PENDING_REQUEST_TAKING_TIME_OUT_IN_SEC = 10;
@@ -273,6 +314,10 @@ public class LogDispatcher {
       return config;
     }
 
+    public LogDispatcherThreadMetrics getLogDispatcherThreadMetrics() {
+      return logDispatcherThreadMetrics;
+    }
+
     public int getPendingEntriesSize() {
       return pendingEntries.size();
     }
@@ -313,6 +358,13 @@ public class LogDispatcher {
 
     private void setStopped() {
       stopped = true;
+      if (multiplexedLogDispatcher != null) {
+        multiplexedLogDispatcher.unregister(this);
+        // wait for the running tryGetBatch(), run() is never called in the multiplexed dispatch
+        synchronized (this) {
+          runFinished.countDown();
+        }
+      }
     }
 
     private void processStopped() {
@@ -392,6 +444,44 @@ public class LogDispatcher {
       logger.info("{}: Dispatcher for {} exits", impl.getThisNode(), peer);
     }
 
+    /**
+     * Notify the multiplexed dispatch that there may be logs to send or the synchronization
+     * pipeline is no longer full. It does nothing if the dispatcher runs in a dedicated thread.
+     */
+    public void wakeUp() {
+      if (multiplexedLogDispatcher != null && !stopped) {
+        multiplexedLogDispatcher.wakeUp(this);
+      }
+    }
+
+    /**
+     * Get the next batch and add it into the synchronization pipeline without blocking, used by the
+     * multiplexed dispatch instead of {@link #run()}. It's never called concurrently for the same
+     * dispatcher.
+     *
+     * @return null if there is nothing to send or the synchronization pipeline is full
+     */
+    public synchronized Batch tryGetBatch() {
+      if (stopped || syncStatus.isFull()) {
+        return null;
+      }
+      long startTime = System.nanoTime();
+      Batch batch = getBatch();
+      if (batch.isEmpty()) {
+        return null;
+      }
+      if (!syncStatus.tryAddNextBatch(batch)) {
+        // the next sending index is unchanged, so the logs of the batch will be read from WAL
+        // next time
+        logger.debug("{}: Unable to reserve memory for {} to {}", impl.getThisNode(), batch, peer);
+        return null;
+      }
+      logDispatcherThreadMetrics.recordConstructBatchTime(System.nanoTime() - startTime);
+      logEntriesFromWAL.addAndGet(batch.getLogEntriesNumFromWAL());
+      logEntriesFromQueue.addAndGet(batch.getLogEntries().size() - batch.getLogEntriesNumFromWAL());
+      return batch;
+    }
+
     public void updateSafelyDeletedSearchIndex() {
       // update safely deleted search index to delete outdated info,
       // indicating that insert nodes whose search index are before this value can be deleted
@@ -507,9 +597,7 @@ public class LogDispatcher {
     public void sendBatchAsync(Batch batch, DispatchLogHandler handler) {
       try {
         AsyncIoTConsensusServiceClient client = clientManager.borrowClient(peer.getEndpoint());
-        TSyncLogEntriesReq req =
-            new TSyncLogEntriesReq(
-                selfPeerId, peer.getGroupId().convertToTConsensusGroupId(), batch.getLogEntries());
+        TSyncLogEntriesReq req = buildSyncLogEntriesReq(batch);
         logger.debug(
             "Send Batch[startIndex:{}, endIndex:{}] to ConsensusGroup:{}",
             batch.getStartIndex(),
@@ -522,6 +610,11 @@ public class LogDispatcher {
       }
     }
 
+    public TSyncLogEntriesReq buildSyncLogEntriesReq(Batch batch) {
+      return new TSyncLogEntriesReq(
+          selfPeerId, peer.getGroupId().convertToTConsensusGroupId(), batch.getLogEntries());
+    }
+
     public SyncStatus getSyncStatus() {
       return syncStatus;
     }
@@ -536,9 +629,22 @@ public class LogDispatcher {
       boolean hasCorruptedData = false;
       // targetIndex is the index of request that we need to find
       long targetIndex = currentIndex;
-      // Even if there is no WAL files, these code won't produce error.
-      walEntryIterator.skipTo(targetIndex);
+      // whether walEntryIterator is at targetIndex
+      boolean walEntryIteratorPositioned = false;
       while (targetIndex < maxIndex && logBatches.canAccumulate()) {
+        // the request may be still in the cache, though it's no longer in the queue
+        TLogEntry cachedEntry = logCache.get(targetIndex);
+        if (cachedEntry != null) {
+          logBatches.addTLogEntry(cachedEntry);
+          targetIndex++;
+          walEntryIteratorPositioned = false;
+          continue;
+        }
+        if (!walEntryIteratorPositioned) {
+          // Even if there is no WAL files, these code won't produce error.
+          walEntryIterator.skipTo(targetIndex);
+          walEntryIteratorPositioned = true;
+        }
         logger.debug("construct from WAL for one Entry, index : {}", targetIndex);
         try {
           walEntryIterator.waitForNextReady();
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.logdispatcher;
+
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.commons.client.IClientManager;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.concurrent.threadpool.ScheduledExecutorUtil;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
+import org.apache.iotdb.consensus.iot.client.AsyncIoTConsensusServiceClient;
+import org.apache.iotdb.consensus.iot.client.DispatchLogHandler;
+import org.apache.iotdb.consensus.iot.client.MultiRegionDispatchLogHandler;
+import org.apache.iotdb.consensus.iot.logdispatcher.LogDispatcher.LogDispatcherThread;
+import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesReq;
+import org.apache.iotdb.consensus.iot.thrift.TSyncMultiRegionLogEntriesReq;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Dispatches the logs of all the consensus groups on this node with a small shared thread pool,
+ * instead of a dedicated thread for each (consensus group, peer).
+ *
+ * <p>A {@link LogDispatcherThread} is woken up when a log is offered to it or one of its batches
+ * completes, rather than sleeping to accumulate a batch. The woken dispatchers are grouped by the
+ * endpoint of their peers, and the batches of the dispatchers headed to the same endpoint are sent
+ * together in one multi-region RPC. Each dispatcher still keeps its own synchronization pipeline,
+ * so a slow consensus group doesn't hold back the others sharing the endpoint.
+ */
+public class MultiplexedLogDispatcher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MultiplexedLogDispatcher.class);
+
+  private final IoTConsensusConfig config;
+  private final IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager;
+  private final ExecutorService dispatchThreadPool;
+  private final Map<TEndPoint, PeerChannel> channels = new ConcurrentHashMap<>();
+  private Future<?> wakeUpFuture;
+
+  public MultiplexedLogDispatcher(
+      IoTConsensusConfig config,
+      IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager) {
+    this(
+        config,
+        clientManager,
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            config.getReplication().getMultiplexedDispatchThreadNum(),
+            ThreadName.MULTIPLEXED_LOG_DISPATCHER.getName()));
+  }
+
+  @TestOnly
+  MultiplexedLogDispatcher(
+      IoTConsensusConfig config,
+      IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager,
+      ExecutorService dispatchThreadPool) {
+    this.config = config;
+    this.clientManager = clientManager;
+    this.dispatchThreadPool = dispatchThreadPool;
+  }
+
+  public synchronized void start(ScheduledExecutorService scheduledExecutorService) {
+    if (wakeUpFuture == null) {
+      // wake up all the dispatchers periodically in case no event comes, e.g. the memory of a
+      // batch couldn't be reserved
+      long interval = config.getReplication().getMaxWaitingTimeForAccumulatingBatchInMs();
+      wakeUpFuture =
+          ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+              scheduledExecutorService, this::wakeUpAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  public synchronized void stop() {
+    if (wakeUpFuture != null) {
+      wakeUpFuture.cancel(false);
+      wakeUpFuture = null;
+    }
+    dispatchThreadPool.shutdownNow();
+    int timeout = 10;
+    try {
+      if (!dispatchThreadPool.awaitTermination(timeout, TimeUnit.SECONDS)) {
+        LOGGER.error("Unable to shutdown MultiplexedLogDispatcher after {} seconds", timeout);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LOGGER.error("Unexpected Interruption when closing MultiplexedLogDispatcher");
+    }
+  }
+
+  public void register(LogDispatcherThread dispatcher) {
+    PeerChannel channel = getChannel(dispatcher);
+    channel.dispatchers.add(dispatcher);
+    channel.wakeUp(dispatcher);
+  }
+
+  public void unregister(LogDispatcherThread dispatcher) {
+    PeerChannel channel = channels.get(dispatcher.getPeer().getEndpoint());
+    if (channel != null) {
+      channel.dispatchers.remove(dispatcher);
+      channel.readyDispatchers.remove(dispatcher);
+    }
+  }
+
+  public void wakeUp(LogDispatcherThread dispatcher) {
+    getChannel(dispatcher).wakeUp(dispatcher);
+  }
+
+  private void wakeUpAll() {
+    for (PeerChannel channel : channels.values()) {
+      channel.dispatchers.forEach(channel::wakeUp);
+    }
+  }
+
+  private PeerChannel getChannel(LogDispatcherThread dispatcher) {
+    return channels.computeIfAbsent(dispatcher.getPeer().getEndpoint(), PeerChannel::new);
+  }
+
+  /**
+   * The dispatchers whose peers share an endpoint. It runs in at most one thread at a time, so the
+   * batches of a dispatcher are always got and sent in order.
+   */
+  private class PeerChannel implements Runnable {
+
+    private final TEndPoint endPoint;
+    private final Set<LogDispatcherThread> dispatchers = ConcurrentHashMap.newKeySet();
+    // the dispatchers which may have logs to send
+    private final Set<LogDispatcherThread> readyDispatchers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    private PeerChannel(TEndPoint endPoint) {
+      this.endPoint = endPoint;
+    }
+
+    private void wakeUp(LogDispatcherThread dispatcher) {
+      readyDispatchers.add(dispatcher);
+      schedule();
+    }
+
+    private void schedule() {
+      if (!readyDispatchers.isEmpty() && scheduled.compareAndSet(false, true)) {
+        try {
+          dispatchThreadPool.submit(this);
+        } catch (RejectedExecutionException e) {
+          // the dispatcher has been stopped
+          scheduled.set(false);
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        dispatch();
+      } catch (Exception e) {
+        LOGGER.error("Unexpected error when dispatching logs to {}", endPoint, e);
+      } finally {
+        scheduled.set(false);
+        // the dispatchers woken up after the dispatch started
+        schedule();
+      }
+    }
+
+    private void dispatch() {
+      long maxSizePerRequest = config.getReplication().getMaxSizePerBatch();
+      List<LogDispatcherThread> batchDispatchers = new ArrayList<>();
+      List<Batch> batches = new ArrayList<>();
+      long size = 0;
+      // the dispatchers which may have more logs than a batch
+      List<LogDispatcherThread> unfinishedDispatchers = new ArrayList<>();
+
+      Iterator<LogDispatcherThread> iterator = readyDispatchers.iterator();
+      while (iterator.hasNext() && !Thread.currentThread().isInterrupted()) {
+        LogDispatcherThread dispatcher = iterator.next();
+        iterator.remove();
+        Batch batch = dispatcher.tryGetBatch();
+        if (batch == null) {
+          continue;
+        }
+        unfinishedDispatchers.add(dispatcher);
+        if (!batches.isEmpty() && size + batch.getMemorySize() > maxSizePerRequest) {
+          send(batchDispatchers, batches);
+          batchDispatchers = new ArrayList<>();
+          batches = new ArrayList<>();
+          size = 0;
+        }
+        batchDispatchers.add(dispatcher);
+        batches.add(batch);
+        size += batch.getMemorySize();
+      }
+      if (!batches.isEmpty()) {
+        send(batchDispatchers, batches);
+      }
+      readyDispatchers.addAll(unfinishedDispatchers);
+    }
+
+    private void send(List<LogDispatcherThread> batchDispatchers, List<Batch> batches) {
+      if (batches.size() == 1) {
+        LogDispatcherThread dispatcher = batchDispatchers.get(0);
+        dispatcher.sendBatchAsync(
+            batches.get(0), newDispatchLogHandler(dispatcher, batches.get(0)));
+        return;
+      }
+      List<TSyncLogEntriesReq> reqs = new ArrayList<>(batches.size());
+      List<DispatchLogHandler> handlers = new ArrayList<>(batches.size());
+      for (int i = 0; i < batches.size(); i++) {
+        LogDispatcherThread dispatcher = batchDispatchers.get(i);
+        reqs.add(dispatcher.buildSyncLogEntriesReq(batches.get(i)));
+        handlers.add(newDispatchLogHandler(dispatcher, batches.get(i)));
+      }
+      MultiRegionDispatchLogHandler handler = new MultiRegionDispatchLogHandler(handlers);
+      try {
+        AsyncIoTConsensusServiceClient client = clientManager.borrowClient(endPoint);
+        LOGGER.debug("Send {} batches of different consensus groups to {}", reqs.size(), endPoint);
+        client.syncMultiRegionLogEntries(new TSyncMultiRegionLogEntriesReq(reqs), handler);
+      } catch (Exception e) {
+        LOGGER.error("Can not sync logs of {} consensus groups to {}", reqs.size(), endPoint, e);
+        handler.onError(e);
+      }
+    }
+
+    private DispatchLogHandler newDispatchLogHandler(LogDispatcherThread dispatcher, Batch batch) {
+      return new DispatchLogHandler(dispatcher, dispatcher.getLogDispatcherThreadMetrics(), batch);
+    }
+  }
+}
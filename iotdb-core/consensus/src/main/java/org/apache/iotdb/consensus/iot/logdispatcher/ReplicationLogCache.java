@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.logdispatcher;
+
+import org.apache.iotdb.consensus.common.request.IndexedConsensusRequest;
+import org.apache.iotdb.consensus.iot.thrift.TLogEntry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The serialized requests recently written to a consensus group, shared by the dispatchers of all
+ * its followers. A lagging follower reads the requests which are no longer in its queue from here
+ * before falling back to WAL, so that a briefly paused follower doesn't cause a burst of WAL reads
+ * and deserialization on the leader.
+ *
+ * <p>A cached request holds a reference of the request in {@link IoTConsensusMemoryManager} like
+ * the queues, so its buffers are only counted once. The eldest requests are evicted when the memory
+ * of the caches is insufficient or the queues need the memory, and the requests synchronized to all
+ * the followers are evicted since they will never be read again.
+ */
+public class ReplicationLogCache {
+
+  private final IoTConsensusMemoryManager iotConsensusMemoryManager;
+  // searchIndex -> request
+  private final ConcurrentSkipListMap<Long, IndexedConsensusRequest> entries =
+      new ConcurrentSkipListMap<>();
+
+  private final AtomicLong memorySizeInByte = new AtomicLong(0);
+  private final AtomicLong hitCount = new AtomicLong(0);
+  private final AtomicLong missCount = new AtomicLong(0);
+
+  public ReplicationLogCache(IoTConsensusMemoryManager iotConsensusMemoryManager) {
+    this.iotConsensusMemoryManager = iotConsensusMemoryManager;
+    iotConsensusMemoryManager.registerCache(this);
+  }
+
+  /** Cache a request after its serialized requests are built. */
+  public synchronized void put(IndexedConsensusRequest request) {
+    if (request.getMemorySize() > iotConsensusMemoryManager.getMaxCacheMemorySizeInByte()) {
+      // the request is larger than the cache, it's read from WAL if needed
+      return;
+    }
+    while (!iotConsensusMemoryManager.reserveForCache(request)) {
+      Map.Entry<Long, IndexedConsensusRequest> eldest = entries.pollFirstEntry();
+      if (eldest == null) {
+        // the memory is taken by the queues or the caches of other consensus groups
+        return;
+      }
+      release(eldest.getValue());
+    }
+    memorySizeInByte.addAndGet(request.getMemorySize());
+    IndexedConsensusRequest previous = entries.put(request.getSearchIndex(), request);
+    if (previous != null) {
+      release(previous);
+    }
+  }
+
+  /**
+   * @return the cached log entry of the searchIndex, or null if it isn't cached
+   */
+  public TLogEntry get(long searchIndex) {
+    IndexedConsensusRequest request = entries.get(searchIndex);
+    if (request == null) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    hitCount.incrementAndGet();
+    return new TLogEntry(
+        request.getSerializedRequests(), searchIndex, false, request.getMemorySize());
+  }
+
+  /** Evict the log entries whose searchIndex is smaller than the given one. */
+  public synchronized void evictBefore(long searchIndex) {
+    Map.Entry<Long, IndexedConsensusRequest> eldest;
+    while ((eldest = entries.firstEntry()) != null && eldest.getKey() < searchIndex) {
+      entries.remove(eldest.getKey());
+      release(eldest.getValue());
+    }
+  }
+
+  /**
+   * Evict the eldest log entries until the given size of memory is freed. The entries still in the
+   * queues free no memory.
+   *
+   * @return the memory freed
+   */
+  synchronized long evictEldest(long size) {
+    long freed = 0;
+    Map.Entry<Long, IndexedConsensusRequest> eldest;
+    while (freed < size && (eldest = entries.pollFirstEntry()) != null) {
+      freed += release(eldest.getValue());
+    }
+    return freed;
+  }
+
+  /** Evict all the log entries, and stop giving way to the queues. */
+  public synchronized void close() {
+    iotConsensusMemoryManager.deregisterCache(this);
+    entries.values().forEach(this::release);
+    entries.clear();
+  }
+
+  private long release(IndexedConsensusRequest request) {
+    memorySizeInByte.addAndGet(-request.getMemorySize());
+    return iotConsensusMemoryManager.freeForCache(request);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public long getMemorySizeInByte() {
+    return memorySizeInByte.get();
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+}
@@ -64,6 +64,23 @@ public class SyncStatus {
     pendingBatches.add(batch);
   }
 
+  /**
+   * The non-blocking version of {@link #addNextBatch(Batch)}, used by the multiplexed dispatch.
+   *
+   * @return false if the synchronization pipeline is full or the memory can't be reserved
+   */
+  public synchronized boolean tryAddNextBatch(Batch batch) {
+    if (isFull() || !iotConsensusMemoryManager.reserve(batch)) {
+      return false;
+    }
+    pendingBatches.add(batch);
+    return true;
+  }
+
+  public synchronized boolean isFull() {
+    return pendingBatches.size() >= config.getReplication().getMaxPendingBatchesNum();
+  }
+
   /**
    * We only set a flag if this batch is not the first one. Notice, We need to confirm that the
    * batch in the parameter is actually in pendingBatches, rather than a reference to a different
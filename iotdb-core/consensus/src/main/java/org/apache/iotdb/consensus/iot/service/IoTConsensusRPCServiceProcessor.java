@@ -32,6 +32,7 @@ import org.apache.iotdb.consensus.common.request.IoTConsensusRequest;
 import org.apache.iotdb.consensus.exception.ConsensusGroupModifyPeerException;
 import org.apache.iotdb.consensus.iot.IoTConsensus;
 import org.apache.iotdb.consensus.iot.IoTConsensusServerImpl;
+import org.apache.iotdb.consensus.iot.snapshot.SnapshotFragment;
 import org.apache.iotdb.consensus.iot.thrift.IoTConsensusIService;
 import org.apache.iotdb.consensus.iot.thrift.TActivatePeerReq;
 import org.apache.iotdb.consensus.iot.thrift.TActivatePeerRes;
@@ -48,6 +49,8 @@ import org.apache.iotdb.consensus.iot.thrift.TSendSnapshotFragmentReq;
 import org.apache.iotdb.consensus.iot.thrift.TSendSnapshotFragmentRes;
 import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesReq;
 import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesRes;
+import org.apache.iotdb.consensus.iot.thrift.TSyncMultiRegionLogEntriesReq;
+import org.apache.iotdb.consensus.iot.thrift.TSyncMultiRegionLogEntriesRes;
 import org.apache.iotdb.consensus.iot.thrift.TTriggerSnapshotLoadReq;
 import org.apache.iotdb.consensus.iot.thrift.TTriggerSnapshotLoadRes;
 import org.apache.iotdb.consensus.iot.thrift.TWaitReleaseAllRegionRelatedResourceReq;
@@ -60,7 +63,13 @@ import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 public class IoTConsensusRPCServiceProcessor implements IoTConsensusIService.Iface {
@@ -133,6 +142,63 @@ public class IoTConsensusRPCServiceProcessor implements IoTConsensusIService.Ifa
         .setReceiverMemSize(deserializedRequest.getMemorySize());
   }
 
+  @Override
+  public TSyncMultiRegionLogEntriesRes syncMultiRegionLogEntries(
+      TSyncMultiRegionLogEntriesReq req) {
+    List<TSyncLogEntriesReq> reqs = req.getReqs();
+    if (reqs == null || reqs.isEmpty()) {
+      return new TSyncMultiRegionLogEntriesRes(Collections.emptyList());
+    }
+    // apply the batches of different consensus groups in parallel, so that a slow consensus group
+    // doesn't hold back the others sent together. The first batch is applied by the RPC thread.
+    List<Future<TSyncLogEntriesRes>> futures = new ArrayList<>(reqs.size() - 1);
+    for (TSyncLogEntriesReq syncLogEntriesReq : reqs.subList(1, reqs.size())) {
+      try {
+        futures.add(
+            consensus
+                .getMultiRegionSyncLogExecutor()
+                .submit(() -> syncLogEntriesWithoutThrow(syncLogEntriesReq)));
+      } catch (RejectedExecutionException e) {
+        // IoTConsensus is stopping
+        futures.add(
+            CompletableFuture.completedFuture(syncLogEntriesWithoutThrow(syncLogEntriesReq)));
+      }
+    }
+    List<TSyncLogEntriesRes> resList = new ArrayList<>(reqs.size());
+    resList.add(syncLogEntriesWithoutThrow(reqs.get(0)));
+    for (int i = 0; i < futures.size(); i++) {
+      TSyncLogEntriesReq syncLogEntriesReq = reqs.get(i + 1);
+      try {
+        resList.add(futures.get(i).get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        resList.add(buildSyncLogEntriesFailure(syncLogEntriesReq, e));
+      } catch (ExecutionException e) {
+        resList.add(buildSyncLogEntriesFailure(syncLogEntriesReq, e.getCause()));
+      }
+    }
+    return new TSyncMultiRegionLogEntriesRes(resList);
+  }
+
+  /** The failure of one consensus group shouldn't fail the others sent together. */
+  private TSyncLogEntriesRes syncLogEntriesWithoutThrow(TSyncLogEntriesReq req) {
+    try {
+      return syncLogEntries(req);
+    } catch (Exception e) {
+      return buildSyncLogEntriesFailure(req, e);
+    }
+  }
+
+  private TSyncLogEntriesRes buildSyncLogEntriesFailure(TSyncLogEntriesReq req, Throwable e) {
+    String message =
+        String.format(
+            "fail to sync logEntries for %s because %s", req.getConsensusGroupId(), e.getMessage());
+    LOGGER.error(message, e);
+    TSStatus status = new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+    status.setMessage(message);
+    return new TSyncLogEntriesRes(Collections.singletonList(status));
+  }
+
   @Override
   public TInactivatePeerRes inactivatePeer(TInactivatePeerReq req) throws TException {
     if (req.isForDeletionPurpose()) {
@@ -268,6 +334,16 @@ public class IoTConsensusRPCServiceProcessor implements IoTConsensusIService.Ifa
       status.setMessage(message);
       return new TSendSnapshotFragmentRes(status);
     }
+    if (req.isSetChecksum() && SnapshotFragment.checksum(req.fileChunk) != req.getChecksum()) {
+      String message =
+          String.format(
+              "checksum mismatch for the fragment of %s at offset %s, it will be resent",
+              req.filePath, req.offset);
+      LOGGER.warn(message);
+      TSStatus status = new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+      status.setMessage(message);
+      return new TSendSnapshotFragmentRes(status);
+    }
     TSStatus responseStatus;
     try {
       impl.receiveSnapshotFragment(req.snapshotId, req.filePath, req.fileChunk, req.offset);
@@ -22,6 +22,7 @@ package org.apache.iotdb.consensus.iot.snapshot;
 import org.apache.iotdb.consensus.iot.thrift.TSendSnapshotFragmentReq;
 
 import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
 
 public class SnapshotFragment {
   private final String snapshotId;
@@ -30,6 +31,7 @@ public class SnapshotFragment {
   private final long startOffset;
   private final long fragmentSize;
   private final ByteBuffer fileChunk;
+  private final long checksum;
 
   public SnapshotFragment(
       String snapshotId,
@@ -44,6 +46,14 @@ public class SnapshotFragment {
     this.startOffset = startOffset;
     this.fragmentSize = fragmentSize;
     this.fileChunk = fileChunk;
+    this.checksum = checksum(fileChunk);
+  }
+
+  /** CRC32 of the remaining bytes of the chunk, the position of the chunk is unchanged. */
+  public static long checksum(ByteBuffer fileChunk) {
+    CRC32 crc32 = new CRC32();
+    crc32.update(fileChunk.duplicate());
+    return crc32.getValue();
   }
 
   public TSendSnapshotFragmentReq toTSendSnapshotFragmentReq() {
@@ -53,6 +63,7 @@ public class SnapshotFragment {
     req.setOffset(startOffset);
     req.setChunkLength(fragmentSize);
     req.setFileChunk(fileChunk);
+    req.setChecksum(checksum);
     return req;
   }
 
@@ -79,4 +90,8 @@ public class SnapshotFragment {
   public ByteBuffer getFileChunk() {
     return fileChunk;
   }
+
+  public long getChecksum() {
+    return checksum;
+  }
 }
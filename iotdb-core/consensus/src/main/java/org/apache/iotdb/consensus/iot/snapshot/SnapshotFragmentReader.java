@@ -21,36 +21,51 @@ package org.apache.iotdb.consensus.iot.snapshot;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 public class SnapshotFragmentReader {
 
-  private static final int DEFAULT_FILE_FRAGMENT_SIZE = 10 * 1024 * 1024;
+  public static final int DEFAULT_FILE_FRAGMENT_SIZE = 10 * 1024 * 1024;
   private final String snapshotId;
   private final String filePath;
-  private final SeekableByteChannel fileChannel;
+  private final FileChannel fileChannel;
   private final long fileSize;
   private final ByteBuffer buf;
   private long totalReadSize;
   private SnapshotFragment cachedSnapshotFragment;
 
+  // the offset of the next fragment
+  private long position;
+
   public SnapshotFragmentReader(String snapshotId, Path path) throws IOException {
+    this(snapshotId, path, 0, ByteBuffer.allocate(DEFAULT_FILE_FRAGMENT_SIZE));
+  }
+
+  /**
+   * Read the file from startOffset with the given buffer, which is reused by all the fragments, so
+   * a fragment is only valid until {@link #hasNext()} is called again.
+   */
+  public SnapshotFragmentReader(String snapshotId, Path path, long startOffset, ByteBuffer buf)
+      throws IOException {
     this.snapshotId = snapshotId;
     this.filePath = path.toAbsolutePath().toString();
     this.fileSize = Files.size(path);
-    this.fileChannel = Files.newByteChannel(path);
-    this.buf = ByteBuffer.allocate(DEFAULT_FILE_FRAGMENT_SIZE);
+    this.fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+    this.buf = buf;
+    this.position = startOffset;
   }
 
   public boolean hasNext() throws IOException {
     buf.clear();
-    int readSize = fileChannel.read(buf);
+    int readSize = fileChannel.read(buf, position);
     buf.flip();
     if (readSize > 0) {
       cachedSnapshotFragment =
-          new SnapshotFragment(snapshotId, filePath, fileSize, totalReadSize, readSize, buf);
+          new SnapshotFragment(snapshotId, filePath, fileSize, position, readSize, buf);
+      position += readSize;
       totalReadSize += readSize;
       return true;
     }
@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.snapshot;
+
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.client.IClientManager;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.consensus.common.Peer;
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
+import org.apache.iotdb.consensus.exception.ConsensusGroupModifyPeerException;
+import org.apache.iotdb.consensus.iot.client.SyncIoTConsensusServiceClient;
+import org.apache.iotdb.consensus.iot.thrift.TSendSnapshotFragmentReq;
+import org.apache.iotdb.consensus.iot.thrift.TSendSnapshotFragmentRes;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.iotdb.commons.utils.FileUtils.humanReadableByteCountSI;
+
+/**
+ * Transmits the files of a snapshot to a peer in several parallel streams, each of which sends one
+ * file at a time with its own client and buffer.
+ *
+ * <p>The offset received by the peer is checkpointed for each file after each fragment, so a failed
+ * stream reconnects and resumes the file from the checkpoint instead of failing the whole
+ * transmission. Every fragment carries its checksum, which is verified by the peer before it's
+ * written.
+ */
+public class SnapshotTransmitter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SnapshotTransmitter.class);
+
+  private static final int MAX_RETRY_TIMES_PER_FILE = 5;
+
+  private final String snapshotId;
+  private final Peer targetPeer;
+  private final List<File> files;
+  private final IClientManager<TEndPoint, SyncIoTConsensusServiceClient> syncClientManager;
+  private final IoTConsensusConfig config;
+  private final int fragmentSize;
+  private final IoTConsensusRateLimiter rateLimiter = IoTConsensusRateLimiter.getInstance();
+
+  // file -> the offset until which the file has been received by the target peer
+  private final Map<File, Long> checkpoints = new ConcurrentHashMap<>();
+  private final long totalSize;
+  private final AtomicLong transmittedSize = new AtomicLong(0);
+  private final AtomicLong transmittedFileNum = new AtomicLong(0);
+  private long startTime;
+  // set when any stream fails, so that the others stop as soon as possible
+  private volatile boolean failed = false;
+
+  public SnapshotTransmitter(
+      String snapshotId,
+      Peer targetPeer,
+      List<File> files,
+      IClientManager<TEndPoint, SyncIoTConsensusServiceClient> syncClientManager,
+      IoTConsensusConfig config) {
+    this(
+        snapshotId,
+        targetPeer,
+        files,
+        syncClientManager,
+        config,
+        SnapshotFragmentReader.DEFAULT_FILE_FRAGMENT_SIZE);
+  }
+
+  @TestOnly
+  SnapshotTransmitter(
+      String snapshotId,
+      Peer targetPeer,
+      List<File> files,
+      IClientManager<TEndPoint, SyncIoTConsensusServiceClient> syncClientManager,
+      IoTConsensusConfig config,
+      int fragmentSize) {
+    this.snapshotId = snapshotId;
+    this.targetPeer = targetPeer;
+    this.files = files;
+    this.syncClientManager = syncClientManager;
+    this.config = config;
+    this.fragmentSize = fragmentSize;
+    this.totalSize = files.stream().mapToLong(File::length).sum();
+  }
+
+  public void transmit() throws ConsensusGroupModifyPeerException {
+    startTime = System.nanoTime();
+    int parallelism =
+        Math.min(config.getReplication().getSnapshotTransmitParallelism(), files.size());
+    if (parallelism <= 0) {
+      return;
+    }
+    // the largest files first, so that the streams finish at about the same time
+    List<File> sortedFiles = new ArrayList<>(files);
+    sortedFiles.sort(Comparator.comparingLong(File::length).reversed());
+    Queue<File> pendingFiles = new ConcurrentLinkedQueue<>(sortedFiles);
+
+    ExecutorService streams =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            parallelism,
+            ThreadName.IOT_CONSENSUS_SNAPSHOT_TRANSMITTER.getName()
+                + "-"
+                + targetPeer.getGroupId());
+    try {
+      List<Future<Void>> futures = new ArrayList<>(parallelism);
+      for (int i = 0; i < parallelism; i++) {
+        futures.add(
+            streams.submit(
+                () -> {
+                  ByteBuffer buffer = ByteBuffer.allocate(fragmentSize);
+                  File file;
+                  while (!failed && (file = pendingFiles.poll()) != null) {
+                    transmitFile(file, buffer);
+                  }
+                  return null;
+                }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      throw new ConsensusGroupModifyPeerException(
+          String.format("[SNAPSHOT TRANSMISSION] Error when send snapshot file to %s", targetPeer),
+          e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ConsensusGroupModifyPeerException(
+          String.format(
+              "[SNAPSHOT TRANSMISSION] Interrupted when send snapshot file to %s", targetPeer),
+          e);
+    } finally {
+      failed = true;
+      streams.shutdownNow();
+    }
+  }
+
+  private void transmitFile(File file, ByteBuffer buffer) throws Exception {
+    int retryTimes = 0;
+    while (true) {
+      try {
+        transmitFileFromCheckpoint(file, buffer);
+        break;
+      } catch (Exception e) {
+        if (failed || ++retryTimes > MAX_RETRY_TIMES_PER_FILE) {
+          failed = true;
+          throw e;
+        }
+        long waitTimeMs =
+            Math.min(
+                config.getReplication().getBasicRetryWaitTimeMs() << retryTimes,
+                config.getReplication().getMaxRetryWaitTimeMs());
+        LOGGER.warn(
+            "[SNAPSHOT TRANSMISSION] Failed to transmit {} to {} at offset {}, retry {}/{} after {}ms",
+            file,
+            targetPeer,
+            checkpoints.getOrDefault(file, 0L),
+            retryTimes,
+            MAX_RETRY_TIMES_PER_FILE,
+            waitTimeMs,
+            e);
+        TimeUnit.MILLISECONDS.sleep(waitTimeMs);
+      }
+    }
+    if (failed) {
+      // stopped by the failure of another stream
+      return;
+    }
+    LOGGER.info(
+        "[SNAPSHOT TRANSMISSION] The overall progress for dir {}: files {}/{} done, size {}/{} done, time {} passed. File {} done.",
+        snapshotId,
+        transmittedFileNum.incrementAndGet(),
+        files.size(),
+        humanReadableByteCountSI(transmittedSize.get()),
+        humanReadableByteCountSI(totalSize),
+        CommonDateTimeUtils.convertMillisecondToDurationStr(
+            (System.nanoTime() - startTime) / 1_000_000),
+        file);
+  }
+
+  private void transmitFileFromCheckpoint(File file, ByteBuffer buffer) throws Exception {
+    SnapshotFragmentReader reader =
+        new SnapshotFragmentReader(
+            snapshotId, file.toPath(), checkpoints.getOrDefault(file, 0L), buffer);
+    try (SyncIoTConsensusServiceClient client =
+        syncClientManager.borrowClient(targetPeer.getEndpoint())) {
+      while (!failed && reader.hasNext()) {
+        SnapshotFragment fragment = reader.next();
+        TSendSnapshotFragmentReq req = fragment.toTSendSnapshotFragmentReq();
+        req.setConsensusGroupId(targetPeer.getGroupId().convertToTConsensusGroupId());
+        rateLimiter.acquireTransitDataSizeWithRateLimiter(req.getChunkLength());
+        TSendSnapshotFragmentRes res = client.sendSnapshotFragment(req);
+        TSStatus status = res.getStatus();
+        if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+          throw new IOException(
+              String.format(
+                  "[SNAPSHOT TRANSMISSION] Error when transmitting snapshot fragment to %s: %s",
+                  targetPeer, status));
+        }
+        checkpoints.put(file, fragment.getStartOffset() + fragment.getFragmentSize());
+        transmittedSize.addAndGet(fragment.getFragmentSize());
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  public long getTransmittedSize() {
+    return transmittedSize.get();
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.logdispatcher;
+
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.client.IClientManager;
+import org.apache.iotdb.commons.consensus.DataRegionId;
+import org.apache.iotdb.consensus.common.Peer;
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
+import org.apache.iotdb.consensus.iot.client.AsyncIoTConsensusServiceClient;
+import org.apache.iotdb.consensus.iot.client.DispatchLogHandler;
+import org.apache.iotdb.consensus.iot.client.MultiRegionDispatchLogHandler;
+import org.apache.iotdb.consensus.iot.logdispatcher.LogDispatcher.LogDispatcherThread;
+import org.apache.iotdb.consensus.iot.thrift.TLogEntry;
+import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesReq;
+import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesRes;
+import org.apache.iotdb.consensus.iot.thrift.TSyncMultiRegionLogEntriesReq;
+import org.apache.iotdb.consensus.iot.thrift.TSyncMultiRegionLogEntriesRes;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.apache.thrift.TApplicationException;
+import org.apache.thrift.TException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.stubbing.OngoingStubbing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+public class MultiplexedLogDispatcherTest {
+
+  private static final TEndPoint ENDPOINT = new TEndPoint("127.0.0.1", 6667);
+
+  private final IoTConsensusConfig config = IoTConsensusConfig.newBuilder().build();
+  private final List<TSyncMultiRegionLogEntriesReq> sentReqs = new CopyOnWriteArrayList<>();
+  private final List<MultiRegionDispatchLogHandler> sentHandlers = new CopyOnWriteArrayList<>();
+  private ExecutorService dispatchThreadPool;
+  private MultiplexedLogDispatcher dispatcher;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() throws Exception {
+    AsyncIoTConsensusServiceClient client = Mockito.mock(AsyncIoTConsensusServiceClient.class);
+    Mockito.doAnswer(
+            invocation -> {
+              sentReqs.add(invocation.getArgument(0));
+              sentHandlers.add(invocation.getArgument(1));
+              return null;
+            })
+        .when(client)
+        .syncMultiRegionLogEntries(Mockito.any(), Mockito.any());
+    IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager =
+        Mockito.mock(IClientManager.class);
+    Mockito.when(clientManager.borrowClient(ENDPOINT)).thenReturn(client);
+    // a single thread, so that the dispatch can be held until all the dispatchers are registered
+    dispatchThreadPool = Executors.newSingleThreadExecutor();
+    dispatcher = new MultiplexedLogDispatcher(config, clientManager, dispatchThreadPool);
+  }
+
+  @After
+  public void tearDown() {
+    dispatcher.stop();
+  }
+
+  @Test
+  public void testBatchesOfSameEndpointSentTogether() throws Exception {
+    LogDispatcherThread thread1 = mockDispatcherThread(1, newBatch(1), newBatch(2));
+    LogDispatcherThread thread2 = mockDispatcherThread(2, newBatch(1), newBatch(2));
+    registerTogether(thread1, thread2);
+    waitForSentRequests(2);
+
+    Map<Integer, List<Long>> sentIndexesOfRegions = new HashMap<>();
+    for (TSyncMultiRegionLogEntriesReq req : sentReqs) {
+      // the batches of both the regions are sent in one request
+      Assert.assertEquals(2, req.getReqsSize());
+      for (TSyncLogEntriesReq syncLogEntriesReq : req.getReqs()) {
+        sentIndexesOfRegions
+            .computeIfAbsent(
+                syncLogEntriesReq.getConsensusGroupId().getId(), k -> new ArrayList<>())
+            .addAll(
+                syncLogEntriesReq.getLogEntries().stream()
+                    .map(TLogEntry::getSearchIndex)
+                    .collect(Collectors.toList()));
+      }
+    }
+    // the batches of each region are sent in order
+    Assert.assertEquals(Arrays.asList(1L, 2L), sentIndexesOfRegions.get(1));
+    Assert.assertEquals(Arrays.asList(1L, 2L), sentIndexesOfRegions.get(2));
+    Mockito.verify(thread1, Mockito.never()).sendBatchAsync(Mockito.any(), Mockito.any());
+    Mockito.verify(thread2, Mockito.never()).sendBatchAsync(Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  public void testSingleBatchSentAlone() throws Exception {
+    Batch batch = newBatch(1);
+    LogDispatcherThread thread = mockDispatcherThread(1, batch);
+    registerTogether(thread);
+
+    Mockito.verify(thread, Mockito.timeout(10_000))
+        .sendBatchAsync(Mockito.eq(batch), Mockito.any(DispatchLogHandler.class));
+    Assert.assertTrue(sentReqs.isEmpty());
+  }
+
+  @Test
+  public void testResponsesMappedBackToBatches() throws Exception {
+    Map<Integer, LogDispatcherThread> threads = new HashMap<>();
+    Map<Integer, Batch> batches = new HashMap<>();
+    for (int regionId = 1; regionId <= 3; regionId++) {
+      Batch batch = newBatch(regionId * 10L);
+      batches.put(regionId, batch);
+      threads.put(regionId, mockDispatcherThread(regionId, batch));
+    }
+    registerTogether(threads.values().toArray(new LogDispatcherThread[0]));
+    waitForSentRequests(1);
+
+    TSyncMultiRegionLogEntriesReq req = sentReqs.get(0);
+    Assert.assertEquals(3, req.getReqsSize());
+    List<TSyncLogEntriesRes> resList = new ArrayList<>();
+    for (int i = 0; i < req.getReqsSize(); i++) {
+      resList.add(
+          new TSyncLogEntriesRes(
+              Collections.singletonList(
+                  new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode()))));
+    }
+    sentHandlers.get(0).onComplete(new TSyncMultiRegionLogEntriesRes(resList));
+
+    // each response completes the batch of the region it's sent for
+    for (int regionId = 1; regionId <= 3; regionId++) {
+      LogDispatcherThread thread = threads.get(regionId);
+      Mockito.verify(thread.getSyncStatus()).removeBatch(batches.get(regionId));
+      Mockito.verify(thread.getSyncStatus(), Mockito.times(1)).removeBatch(Mockito.any());
+    }
+  }
+
+  @Test
+  public void testResendSeparatelyIfMultiRegionUnsupported() throws Exception {
+    Batch batch1 = newBatch(1);
+    Batch batch2 = newBatch(2);
+    LogDispatcherThread thread1 = mockDispatcherThread(1, batch1);
+    LogDispatcherThread thread2 = mockDispatcherThread(2, batch2);
+    registerTogether(thread1, thread2);
+    waitForSentRequests(1);
+
+    sentHandlers.get(0).onError(new TException(new TApplicationException()));
+
+    Mockito.verify(thread1).sendBatchAsync(Mockito.eq(batch1), Mockito.any());
+    Mockito.verify(thread2).sendBatchAsync(Mockito.eq(batch2), Mockito.any());
+  }
+
+  /**
+   * Registers the dispatchers while the only dispatch thread is busy, so that their batches are got
+   * in the same dispatch.
+   */
+  private void registerTogether(LogDispatcherThread... threads) {
+    CountDownLatch latch = new CountDownLatch(1);
+    dispatchThreadPool.submit(
+        () -> {
+          latch.await();
+          return null;
+        });
+    for (LogDispatcherThread thread : threads) {
+      dispatcher.register(thread);
+    }
+    latch.countDown();
+  }
+
+  private void waitForSentRequests(int expected) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (sentReqs.size() < expected && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(expected, sentReqs.size());
+  }
+
+  private LogDispatcherThread mockDispatcherThread(int regionId, Batch... batches) {
+    Peer peer = new Peer(new DataRegionId(regionId), 2, ENDPOINT);
+    LogDispatcherThread thread = Mockito.mock(LogDispatcherThread.class);
+    Mockito.when(thread.getPeer()).thenReturn(peer);
+    Mockito.when(thread.getConfig()).thenReturn(config);
+    Mockito.when(thread.getLogDispatcherThreadMetrics())
+        .thenReturn(Mockito.mock(LogDispatcherThreadMetrics.class));
+    Mockito.when(thread.getSyncStatus()).thenReturn(Mockito.mock(SyncStatus.class));
+    Mockito.when(thread.buildSyncLogEntriesReq(Mockito.any()))
+        .thenAnswer(
+            invocation ->
+                new TSyncLogEntriesReq(
+                    "1",
+                    peer.getGroupId().convertToTConsensusGroupId(),
+                    ((Batch) invocation.getArgument(0)).getLogEntries()));
+    // the given batches in order, then nothing more to send
+    OngoingStubbing<Batch> stubbing = Mockito.when(thread.tryGetBatch());
+    for (Batch batch : batches) {
+      stubbing = stubbing.thenReturn(batch);
+    }
+    stubbing.thenReturn(null);
+    return thread;
+  }
+
+  private Batch newBatch(long searchIndex) {
+    Batch batch = new Batch(config);
+    batch.addTLogEntry(new TLogEntry(Collections.emptyList(), searchIndex, false, 1));
+    batch.buildIndex();
+    return batch;
+  }
+}
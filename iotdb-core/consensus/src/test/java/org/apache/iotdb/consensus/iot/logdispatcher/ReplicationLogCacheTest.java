@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.logdispatcher;
+
+import org.apache.iotdb.commons.memory.AtomicLongMemoryBlock;
+import org.apache.iotdb.commons.memory.IMemoryBlock;
+import org.apache.iotdb.consensus.common.request.ByteBufferConsensusRequest;
+import org.apache.iotdb.consensus.common.request.IndexedConsensusRequest;
+import org.apache.iotdb.consensus.iot.thrift.TLogEntry;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+
+public class ReplicationLogCacheTest {
+
+  // the cache can use at most 20% of it, and the queues 60%
+  private static final long MEMORY_BLOCK_SIZE = 16 * 1024L;
+  private static final int REQUEST_SIZE = 1000;
+
+  private final IoTConsensusMemoryManager memoryManager = IoTConsensusMemoryManager.getInstance();
+  private IMemoryBlock previousMemoryBlock;
+
+  @Before
+  public void setUp() {
+    previousMemoryBlock = memoryManager.getMemoryBlock();
+    memoryManager.setMemoryBlock(new AtomicLongMemoryBlock("Test", null, MEMORY_BLOCK_SIZE));
+  }
+
+  @After
+  public void tearDown() {
+    memoryManager.reset();
+    memoryManager.setMemoryBlock(previousMemoryBlock);
+  }
+
+  @Test
+  public void testGetAndEvict() {
+    ReplicationLogCache cache = new ReplicationLogCache(memoryManager);
+    for (long i = 1; i <= 3; i++) {
+      cache.put(newRequest(i));
+    }
+    Assert.assertEquals(3, cache.size());
+    Assert.assertEquals(3L * REQUEST_SIZE, memoryManager.getCacheMemorySizeInByte());
+
+    TLogEntry entry = cache.get(2);
+    Assert.assertNotNull(entry);
+    Assert.assertEquals(2, entry.getSearchIndex());
+    Assert.assertFalse(entry.isFromWAL());
+    Assert.assertNull(cache.get(4));
+    Assert.assertEquals(1, cache.getHitCount());
+    Assert.assertEquals(1, cache.getMissCount());
+
+    // the logs before 3 have been synchronized to all the followers
+    cache.evictBefore(3);
+    Assert.assertEquals(1, cache.size());
+    Assert.assertNull(cache.get(2));
+    Assert.assertNotNull(cache.get(3));
+    Assert.assertEquals(REQUEST_SIZE, memoryManager.getCacheMemorySizeInByte());
+
+    cache.close();
+    Assert.assertEquals(0, cache.size());
+    Assert.assertEquals(0, memoryManager.getCacheMemorySizeInByte());
+    Assert.assertEquals(0, memoryManager.getMemorySizeInByte());
+  }
+
+  @Test
+  public void testRequestInCacheAndQueueIsCountedOnce() {
+    ReplicationLogCache cache = new ReplicationLogCache(memoryManager);
+    IndexedConsensusRequest request = newRequest(1);
+    cache.put(request);
+    Assert.assertEquals(REQUEST_SIZE, memoryManager.getMemorySizeInByte());
+
+    // the queues of two followers take the request
+    Assert.assertTrue(memoryManager.reserve(request));
+    Assert.assertTrue(memoryManager.reserve(request));
+    Assert.assertEquals(REQUEST_SIZE, memoryManager.getMemorySizeInByte());
+
+    memoryManager.free(request);
+    memoryManager.free(request);
+    Assert.assertEquals(REQUEST_SIZE, memoryManager.getMemorySizeInByte());
+    Assert.assertNotNull(cache.get(1));
+
+    cache.evictBefore(2);
+    Assert.assertEquals(0, memoryManager.getCacheMemorySizeInByte());
+    Assert.assertEquals(0, memoryManager.getMemorySizeInByte());
+    cache.close();
+  }
+
+  @Test
+  public void testCacheGivesWayToQueues() {
+    ReplicationLogCache cache = new ReplicationLogCache(memoryManager);
+    for (long i = 1; i <= 3; i++) {
+      cache.put(newRequest(i));
+    }
+    // the queues of a follower stuck at 3 take the memory left for queues
+    for (long i = 4; i <= 9; i++) {
+      Assert.assertTrue(memoryManager.reserve(newRequest(i)));
+    }
+    Assert.assertEquals(3, cache.size());
+    Assert.assertEquals(9L * REQUEST_SIZE, memoryManager.getMemorySizeInByte());
+
+    // the eldest cached request is evicted for the queues
+    Assert.assertTrue(memoryManager.reserve(newRequest(10)));
+    Assert.assertEquals(2, cache.size());
+    Assert.assertNull(cache.get(1));
+    Assert.assertNotNull(cache.get(2));
+    Assert.assertNotNull(cache.get(3));
+    Assert.assertEquals(2L * REQUEST_SIZE, memoryManager.getCacheMemorySizeInByte());
+    Assert.assertEquals(9L * REQUEST_SIZE, memoryManager.getMemorySizeInByte());
+
+    // a closed cache no longer gives way, and the requests in the queues are never evicted
+    cache.close();
+    Assert.assertTrue(memoryManager.reserve(newRequest(11)));
+    Assert.assertTrue(memoryManager.reserve(newRequest(12)));
+    Assert.assertFalse(memoryManager.reserve(newRequest(13)));
+    Assert.assertEquals(9L * REQUEST_SIZE, memoryManager.getMemorySizeInByte());
+  }
+
+  @Test
+  public void testEvictEldestWhenMemoryIsInsufficient() {
+    ReplicationLogCache cache = new ReplicationLogCache(memoryManager);
+    for (long i = 1; i <= 10; i++) {
+      cache.put(newRequest(i));
+      Assert.assertNotNull(cache.get(i));
+    }
+    // only the newest requests fit in the cache
+    Assert.assertEquals(3, cache.size());
+    for (long i = 1; i <= 7; i++) {
+      Assert.assertNull(cache.get(i));
+    }
+    for (long i = 8; i <= 10; i++) {
+      Assert.assertNotNull(cache.get(i));
+    }
+    Assert.assertEquals(3L * REQUEST_SIZE, memoryManager.getCacheMemorySizeInByte());
+
+    // a request larger than the cache is not cached, and evicts nothing
+    IndexedConsensusRequest largeRequest =
+        new IndexedConsensusRequest(
+            11,
+            Collections.singletonList(
+                new ByteBufferConsensusRequest(ByteBuffer.allocate(4 * REQUEST_SIZE))));
+    largeRequest.buildSerializedRequests();
+    cache.put(largeRequest);
+    Assert.assertNull(cache.get(11));
+    Assert.assertEquals(3, cache.size());
+    for (long i = 8; i <= 10; i++) {
+      Assert.assertNotNull(cache.get(i));
+    }
+    cache.close();
+    Assert.assertEquals(0, memoryManager.getMemorySizeInByte());
+  }
+
+  private static IndexedConsensusRequest newRequest(long searchIndex) {
+    IndexedConsensusRequest request =
+        new IndexedConsensusRequest(
+            searchIndex,
+            Collections.singletonList(
+                new ByteBufferConsensusRequest(ByteBuffer.allocate(REQUEST_SIZE))));
+    request.buildSerializedRequests();
+    return request;
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.snapshot;
+
+import org.apache.iotdb.consensus.iot.thrift.TSendSnapshotFragmentReq;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+public class SnapshotFragmentReaderTest {
+
+  private static final String SNAPSHOT_ID = "snapshot_1_test";
+
+  private File snapshotFile;
+  private byte[] content;
+
+  @Before
+  public void setUp() throws IOException {
+    File snapshotDir = new File("target" + File.separator + SNAPSHOT_ID);
+    Assert.assertTrue(snapshotDir.exists() || snapshotDir.mkdirs());
+    snapshotFile = new File(snapshotDir, "test.tsfile");
+    content = new byte[1000];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) i;
+    }
+    Files.write(snapshotFile.toPath(), content);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(snapshotFile.toPath());
+    Files.deleteIfExists(snapshotFile.getParentFile().toPath());
+  }
+
+  @Test
+  public void testResumeFromOffset() throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(300);
+    SnapshotFragmentReader reader =
+        new SnapshotFragmentReader(SNAPSHOT_ID, snapshotFile.toPath(), 400, buffer);
+    try {
+      long expectedOffset = 400;
+      while (reader.hasNext()) {
+        SnapshotFragment fragment = reader.next();
+        Assert.assertEquals(expectedOffset, fragment.getStartOffset());
+        Assert.assertEquals(content.length, fragment.getTotalSize());
+        ByteBuffer chunk = fragment.getFileChunk();
+        for (int i = 0; i < fragment.getFragmentSize(); i++) {
+          Assert.assertEquals(content[(int) expectedOffset + i], chunk.get(i));
+        }
+        expectedOffset += fragment.getFragmentSize();
+      }
+      Assert.assertEquals(content.length, expectedOffset);
+      Assert.assertEquals(600, reader.getTotalReadSize());
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testChecksum() throws IOException {
+    SnapshotFragmentReader reader = new SnapshotFragmentReader(SNAPSHOT_ID, snapshotFile.toPath());
+    try {
+      Assert.assertTrue(reader.hasNext());
+      TSendSnapshotFragmentReq req = reader.next().toTSendSnapshotFragmentReq();
+      Assert.assertTrue(req.isSetChecksum());
+      Assert.assertEquals(req.getChecksum(), SnapshotFragment.checksum(req.fileChunk));
+      // the checksum doesn't change the position of the chunk
+      Assert.assertEquals(content.length, req.fileChunk.remaining());
+
+      req.fileChunk.put(0, (byte) (content[0] + 1));
+      Assert.assertNotEquals(req.getChecksum(), SnapshotFragment.checksum(req.fileChunk));
+    } finally {
+      reader.close();
+    }
+  }
+}
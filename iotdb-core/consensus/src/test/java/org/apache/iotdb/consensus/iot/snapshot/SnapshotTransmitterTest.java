@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.snapshot;
+
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.client.IClientManager;
+import org.apache.iotdb.commons.consensus.DataRegionId;
+import org.apache.iotdb.consensus.common.Peer;
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
+import org.apache.iotdb.consensus.exception.ConsensusGroupModifyPeerException;
+import org.apache.iotdb.consensus.iot.client.SyncIoTConsensusServiceClient;
+import org.apache.iotdb.consensus.iot.thrift.TSendSnapshotFragmentReq;
+import org.apache.iotdb.consensus.iot.thrift.TSendSnapshotFragmentRes;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.apache.thrift.TException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SnapshotTransmitterTest {
+
+  private static final String SNAPSHOT_ID = "snapshot_1_transmitter_test";
+  private static final int FRAGMENT_SIZE = 100;
+
+  private final Peer targetPeer = new Peer(new DataRegionId(1), 2, new TEndPoint("0.0.0.0", 6667));
+  private final IoTConsensusConfig config =
+      IoTConsensusConfig.newBuilder()
+          .setReplication(
+              IoTConsensusConfig.Replication.newBuilder()
+                  .setBasicRetryWaitTimeMs(1)
+                  .setMaxRetryWaitTimeMs(10)
+                  .setSnapshotTransmitParallelism(3)
+                  .build())
+          .build();
+
+  private File snapshotDir;
+  private SyncIoTConsensusServiceClient client;
+  private IClientManager<TEndPoint, SyncIoTConsensusServiceClient> clientManager;
+
+  // file path -> the content received by the peer
+  private final Map<String, byte[]> receivedFiles = new ConcurrentHashMap<>();
+  // file path -> the offsets of the fragments sent to the peer, in order
+  private final Map<String, List<Long>> sentOffsets = new ConcurrentHashMap<>();
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() throws Exception {
+    snapshotDir = new File("target" + File.separator + SNAPSHOT_ID);
+    Assert.assertTrue(snapshotDir.exists() || snapshotDir.mkdirs());
+    client = Mockito.mock(SyncIoTConsensusServiceClient.class);
+    clientManager = Mockito.mock(IClientManager.class);
+    Mockito.when(clientManager.borrowClient(ArgumentMatchers.any())).thenReturn(client);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    File[] files = snapshotDir.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        Files.deleteIfExists(file.toPath());
+      }
+    }
+    Files.deleteIfExists(snapshotDir.toPath());
+  }
+
+  @Test
+  public void testResendFragmentOnChecksumMismatch() throws Exception {
+    File file = createFile("checksum.tsfile", 1000);
+    AtomicBoolean corrupted = new AtomicBoolean(false);
+    Mockito.when(client.sendSnapshotFragment(ArgumentMatchers.any()))
+        .thenAnswer(
+            invocation -> {
+              TSendSnapshotFragmentReq req = invocation.getArgument(0);
+              if (req.getOffset() == 300 && corrupted.compareAndSet(false, true)) {
+                // the chunk is corrupted on the way
+                int position = req.fileChunk.position();
+                req.fileChunk.put(position, (byte) ~req.fileChunk.get(position));
+              }
+              return receive(req);
+            });
+
+    newTransmitter(Collections.singletonList(file)).transmit();
+
+    Assert.assertTrue(corrupted.get());
+    assertReceived(file);
+    // only the corrupted fragment is resent
+    Assert.assertEquals(
+        Arrays.asList(0L, 100L, 200L, 300L, 300L, 400L, 500L, 600L, 700L, 800L, 900L),
+        sentOffsets.get(file.getAbsolutePath()));
+  }
+
+  @Test
+  public void testResumeFromCheckpoint() throws Exception {
+    File file = createFile("resume.tsfile", 1000);
+    AtomicBoolean disconnected = new AtomicBoolean(false);
+    Mockito.when(client.sendSnapshotFragment(ArgumentMatchers.any()))
+        .thenAnswer(
+            invocation -> {
+              TSendSnapshotFragmentReq req = invocation.getArgument(0);
+              if (req.getOffset() == 500 && disconnected.compareAndSet(false, true)) {
+                recordOffset(req);
+                throw new TException("connection reset");
+              }
+              return receive(req);
+            });
+
+    SnapshotTransmitter transmitter = newTransmitter(Collections.singletonList(file));
+    transmitter.transmit();
+
+    Assert.assertTrue(disconnected.get());
+    assertReceived(file);
+    // the file is resumed from the last acknowledged offset instead of from the beginning
+    Assert.assertEquals(
+        Arrays.asList(0L, 100L, 200L, 300L, 400L, 500L, 500L, 600L, 700L, 800L, 900L),
+        sentOffsets.get(file.getAbsolutePath()));
+    Assert.assertEquals(1000, transmitter.getTransmittedSize());
+    // the client is borrowed again to reconnect
+    Mockito.verify(clientManager, Mockito.times(2)).borrowClient(targetPeer.getEndpoint());
+  }
+
+  @Test(timeout = 30000)
+  public void testStopOtherStreamsWhenOneFails() throws Exception {
+    File brokenFile = createFile("broken.tsfile", 100);
+    List<File> otherFiles =
+        Arrays.asList(createFile("other1.tsfile", 1000), createFile("other2.tsfile", 1000));
+    List<File> files = new ArrayList<>(otherFiles);
+    files.add(brokenFile);
+
+    AtomicInteger brokenFileAttempts = new AtomicInteger(0);
+    CountDownLatch brokenFileGivenUp = new CountDownLatch(1);
+    Mockito.when(client.sendSnapshotFragment(ArgumentMatchers.any()))
+        .thenAnswer(
+            invocation -> {
+              TSendSnapshotFragmentReq req = invocation.getArgument(0);
+              if (req.getFilePath().equals(brokenFile.getAbsolutePath())) {
+                // the first attempt and all the retries fail
+                if (brokenFileAttempts.incrementAndGet() > 5) {
+                  brokenFileGivenUp.countDown();
+                }
+                throw new TException("connection refused");
+              }
+              if (req.getOffset() > 0) {
+                // keep the other streams running until the broken one gives up
+                Assert.assertTrue(brokenFileGivenUp.await(10, TimeUnit.SECONDS));
+                TimeUnit.MILLISECONDS.sleep(100);
+              }
+              return receive(req);
+            });
+
+    SnapshotTransmitter transmitter = newTransmitter(files);
+    try {
+      transmitter.transmit();
+      Assert.fail("The transmission should fail");
+    } catch (ConsensusGroupModifyPeerException e) {
+      Assert.assertTrue(e.getCause() instanceof TException);
+    }
+
+    Assert.assertEquals(6, brokenFileAttempts.get());
+    // the other streams stop after the fragment in flight instead of finishing their files
+    for (File file : otherFiles) {
+      Assert.assertEquals(Arrays.asList(0L, 100L), sentOffsets.get(file.getAbsolutePath()));
+    }
+    Assert.assertEquals(400, transmitter.getTransmittedSize());
+  }
+
+  private SnapshotTransmitter newTransmitter(List<File> files) {
+    return new SnapshotTransmitter(
+        SNAPSHOT_ID, targetPeer, files, clientManager, config, FRAGMENT_SIZE);
+  }
+
+  private File createFile(String name, int size) throws IOException {
+    File file = new File(snapshotDir, name);
+    byte[] content = new byte[size];
+    for (int i = 0; i < size; i++) {
+      content[i] = (byte) (i * 31 + name.length());
+    }
+    Files.write(file.toPath(), content);
+    return file;
+  }
+
+  private void recordOffset(TSendSnapshotFragmentReq req) {
+    sentOffsets
+        .computeIfAbsent(req.getFilePath(), k -> Collections.synchronizedList(new ArrayList<>()))
+        .add(req.getOffset());
+  }
+
+  /** Act as the receiver, which verifies the checksum before writing the fragment. */
+  private TSendSnapshotFragmentRes receive(TSendSnapshotFragmentReq req) {
+    recordOffset(req);
+    if (SnapshotFragment.checksum(req.fileChunk) != req.getChecksum()) {
+      return new TSendSnapshotFragmentRes(
+          new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode()));
+    }
+    byte[] content = receivedFiles.computeIfAbsent(req.getFilePath(), k -> new byte[0]);
+    int end = (int) (req.getOffset() + req.getChunkLength());
+    if (content.length < end) {
+      content = Arrays.copyOf(content, end);
+    }
+    ByteBuffer chunk = req.fileChunk.duplicate();
+    chunk.get(content, (int) req.getOffset(), (int) req.getChunkLength());
+    receivedFiles.put(req.getFilePath(), content);
+    return new TSendSnapshotFragmentRes(new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode()));
+  }
+
+  private void assertReceived(File file) throws IOException {
+    Assert.assertArrayEquals(
+        Files.readAllBytes(file.toPath()), receivedFiles.get(file.getAbsolutePath()));
+  }
+}
@@ -434,6 +434,30 @@ public class IoTDBConfig {
   /** Mods cache size limit per fi */
   private long modsCacheSizeLimitPerFI = 32 * 1024 * 1024;
 
+  /** Whether to reject the data queries whose estimated memory doesn't fit in the free memory */
+  private boolean enableQueryAdmissionControl = false;
+
+  /**
+   * The max size of the decoded pages shared between concurrent scans of the same disk page. 0 or
+   * negative to disable the sharing.
+   */
+  private long decodedPageCacheSizeInBytes = 16 * 1024 * 1024L;
+
+  /** Whether to prune the devices of the probe side scans of inner joins by the build side keys */
+  private boolean enableDynamicFilter = true;
+
+  /**
+   * The max size of the build side buffered by an inner join to collect its dynamic filter, no
+   * filter is published if the build side is larger.
+   */
+  private long dynamicFilterMaxBuildSizeInBytes = 8 * 1024 * 1024L;
+
+  /**
+   * The max number of distinct keys kept exactly in a dynamic filter, a Bloom filter with the min
+   * and max keys is used for more keys.
+   */
+  private int dynamicFilterMaxExactValues = 1024;
+
   /**
    * The strategy of inner space compaction task. There are just one inner space compaction strategy
    * SIZE_TIRED_COMPACTION:
@@ -844,12 +868,34 @@ public class IoTDBConfig {
   /** the interval to log recover progress of each vsg when starting iotdb */
   private long recoveryLogIntervalInMs = 5_000L;
 
+  /**
+   * the number of threads of each disk to load the sealed TsFileResources when starting iotdb, data
+   * dirs on the same disk share these threads
+   */
+  private int recoveryThreadCountPerDisk = 4;
+
   /**
    * Separate sequence and unsequence data or not. If it is false, then all data will be written
    * into unsequence data dir.
    */
   private boolean enableSeparateData = true;
 
+  /**
+   * Materialized rollup views maintained incrementally at flush and compaction, in the format of
+   * "database:measurement:interval" separated by ",". The interval uses the timestamp precision.
+   * The views are kept in memory only and start empty after a restart.
+   */
+  private String rollupViewDefinitions = "";
+
+  /** The maximum number of interval buckets kept for each device of a materialized rollup view. */
+  private int rollupViewMaxBucketNumPerSeries = 10000;
+
+  /**
+   * The interval to recompute the invalidated buckets of the materialized rollup views, in ms. A
+   * non-positive value disables it.
+   */
+  private long rollupViewRecomputeIntervalInMs = 60_000L;
+
   /** the method to transform device path to device id, can be 'Plain' or 'SHA256' */
   private String deviceIDTransformationMethod = "Plain";
 
@@ -957,6 +1003,35 @@ public class IoTDBConfig {
    */
   private int partitionCacheSize = 1000;
 
+  /**
+   * How long before the next time partition opens that the data partitions of the next time
+   * partition are created and cached for the series slots written in the current one. 0 means
+   * disabled.
+   */
+  private long partitionCachePrefetchAheadTimeInMs = 5 * 60 * 1000L;
+
+  /**
+   * How long the schema fetches of the writes missing the schema cache at most wait to be batched
+   * into one fetch, only when another schema fetch is in flight. 0 means the fetches are not
+   * batched, while the concurrent fetches of the same series are still collapsed into one.
+   */
+  private long schemaFetchBatchWindowInMs = 2;
+
+  /**
+   * The max number of cached devices persisted in the schema cache snapshot, which are fetched
+   * again to warm up the schema cache after restart. 0 means disabled.
+   */
+  private int schemaCacheWarmupDeviceNum = 100_000;
+
+  /** The interval of persisting the schema cache snapshot besides the graceful shutdown. */
+  private long schemaCacheSnapshotIntervalInMs = 10 * 60 * 1000L;
+
+  /**
+   * Whether to count the points written into each series partition slot of the led DataRegions,
+   * which are reported to the ConfigNode to detect the hot series partition slots.
+   */
+  private boolean enableSeriesSlotWriteStatistics = false;
+
   /** Cache size of user and role */
   private int authorCacheSize = 100;
 
@@ -1084,8 +1159,28 @@ public class IoTDBConfig {
   private int maxSizePerBatch = 16 * 1024 * 1024;
   private int maxPendingBatchesNum = 5;
   private double maxMemoryRatioForQueue = 0.6;
+
+  /**
+   * The maximum ratio of the IoTConsensus memory used to cache the recently written logs, which are
+   * read by the lagging followers instead of WAL.
+   */
+  private double maxMemoryRatioForLogCache = 0.2;
+
   private long regionMigrationSpeedLimitBytesPerSecond = 48 * 1024 * 1024L;
 
+  /**
+   * Whether to dispatch the logs of all the IoTConsensus data regions with a shared thread pool,
+   * coalescing the batches sent to the same peer into one RPC, instead of a thread per region and
+   * peer. All the DataNodes should support the multi-region RPC before it's enabled.
+   */
+  private boolean enableIoTConsensusMultiplexedDispatch = false;
+
+  /** The number of threads dispatching the logs if the multiplexed dispatch is enabled. */
+  private int iotConsensusMultiplexedDispatchThreadNum = 4;
+
+  /** The number of files of a snapshot transmitted in parallel in region migration. */
+  private int iotConsensusSnapshotTransmitParallelism = 4;
+
   // IoTConsensusV2 Config
   private int iotConsensusV2PipelineSize = 5;
   private String iotConsensusV2Mode = ConsensusFactory.IOT_CONSENSUS_V2_BATCH_MODE;
@@ -1237,6 +1332,10 @@ public class IoTDBConfig {
     return maxMemoryRatioForQueue;
   }
 
+  public double getMaxMemoryRatioForLogCache() {
+    return maxMemoryRatioForLogCache;
+  }
+
   public void setMaxLogEntriesNumPerBatch(int maxLogEntriesNumPerBatch) {
     this.maxLogEntriesNumPerBatch = maxLogEntriesNumPerBatch;
   }
@@ -1250,6 +1349,33 @@ public class IoTDBConfig {
     this.regionMigrationSpeedLimitBytesPerSecond = regionMigrationSpeedLimitBytesPerSecond;
   }
 
+  public boolean isEnableIoTConsensusMultiplexedDispatch() {
+    return enableIoTConsensusMultiplexedDispatch;
+  }
+
+  public void setEnableIoTConsensusMultiplexedDispatch(
+      boolean enableIoTConsensusMultiplexedDispatch) {
+    this.enableIoTConsensusMultiplexedDispatch = enableIoTConsensusMultiplexedDispatch;
+  }
+
+  public int getIoTConsensusMultiplexedDispatchThreadNum() {
+    return iotConsensusMultiplexedDispatchThreadNum;
+  }
+
+  public void setIoTConsensusMultiplexedDispatchThreadNum(
+      int iotConsensusMultiplexedDispatchThreadNum) {
+    this.iotConsensusMultiplexedDispatchThreadNum = iotConsensusMultiplexedDispatchThreadNum;
+  }
+
+  public int getIoTConsensusSnapshotTransmitParallelism() {
+    return iotConsensusSnapshotTransmitParallelism;
+  }
+
+  public void setIoTConsensusSnapshotTransmitParallelism(
+      int iotConsensusSnapshotTransmitParallelism) {
+    this.iotConsensusSnapshotTransmitParallelism = iotConsensusSnapshotTransmitParallelism;
+  }
+
   public int getIotConsensusV2PipelineSize() {
     return iotConsensusV2PipelineSize;
   }
@@ -1286,6 +1412,10 @@ public class IoTDBConfig {
     this.maxMemoryRatioForQueue = maxMemoryRatioForQueue;
   }
 
+  public void setMaxMemoryRatioForLogCache(double maxMemoryRatioForLogCache) {
+    this.maxMemoryRatioForLogCache = maxMemoryRatioForLogCache;
+  }
+
   public float getUdfMemoryBudgetInMB() {
     return udfMemoryBudgetInMB;
   }
@@ -1547,6 +1677,30 @@ public class IoTDBConfig {
     this.enableSeparateData = enableSeparateData;
   }
 
+  public String getRollupViewDefinitions() {
+    return rollupViewDefinitions;
+  }
+
+  public void setRollupViewDefinitions(String rollupViewDefinitions) {
+    this.rollupViewDefinitions = rollupViewDefinitions;
+  }
+
+  public int getRollupViewMaxBucketNumPerSeries() {
+    return rollupViewMaxBucketNumPerSeries;
+  }
+
+  public void setRollupViewMaxBucketNumPerSeries(int rollupViewMaxBucketNumPerSeries) {
+    this.rollupViewMaxBucketNumPerSeries = rollupViewMaxBucketNumPerSeries;
+  }
+
+  public long getRollupViewRecomputeIntervalInMs() {
+    return rollupViewRecomputeIntervalInMs;
+  }
+
+  public void setRollupViewRecomputeIntervalInMs(long rollupViewRecomputeIntervalInMs) {
+    this.rollupViewRecomputeIntervalInMs = rollupViewRecomputeIntervalInMs;
+  }
+
   public String getSystemDir() {
     return systemDir;
   }
@@ -2703,6 +2857,14 @@ public class IoTDBConfig {
     this.recoveryLogIntervalInMs = recoveryLogIntervalInMs;
   }
 
+  public int getRecoveryThreadCountPerDisk() {
+    return recoveryThreadCountPerDisk;
+  }
+
+  public void setRecoveryThreadCountPerDisk(int recoveryThreadCountPerDisk) {
+    this.recoveryThreadCountPerDisk = recoveryThreadCountPerDisk;
+  }
+
   public boolean isRpcAdvancedCompressionEnable() {
     return rpcAdvancedCompressionEnable;
   }
@@ -3222,6 +3384,46 @@ public class IoTDBConfig {
     this.partitionCacheSize = partitionCacheSize;
   }
 
+  public long getPartitionCachePrefetchAheadTimeInMs() {
+    return partitionCachePrefetchAheadTimeInMs;
+  }
+
+  public void setPartitionCachePrefetchAheadTimeInMs(long partitionCachePrefetchAheadTimeInMs) {
+    this.partitionCachePrefetchAheadTimeInMs = partitionCachePrefetchAheadTimeInMs;
+  }
+
+  public boolean isEnableSeriesSlotWriteStatistics() {
+    return enableSeriesSlotWriteStatistics;
+  }
+
+  public void setEnableSeriesSlotWriteStatistics(boolean enableSeriesSlotWriteStatistics) {
+    this.enableSeriesSlotWriteStatistics = enableSeriesSlotWriteStatistics;
+  }
+
+  public long getSchemaFetchBatchWindowInMs() {
+    return schemaFetchBatchWindowInMs;
+  }
+
+  public void setSchemaFetchBatchWindowInMs(long schemaFetchBatchWindowInMs) {
+    this.schemaFetchBatchWindowInMs = schemaFetchBatchWindowInMs;
+  }
+
+  public int getSchemaCacheWarmupDeviceNum() {
+    return schemaCacheWarmupDeviceNum;
+  }
+
+  public void setSchemaCacheWarmupDeviceNum(int schemaCacheWarmupDeviceNum) {
+    this.schemaCacheWarmupDeviceNum = schemaCacheWarmupDeviceNum;
+  }
+
+  public long getSchemaCacheSnapshotIntervalInMs() {
+    return schemaCacheSnapshotIntervalInMs;
+  }
+
+  public void setSchemaCacheSnapshotIntervalInMs(long schemaCacheSnapshotIntervalInMs) {
+    this.schemaCacheSnapshotIntervalInMs = schemaCacheSnapshotIntervalInMs;
+  }
+
   public int getAuthorCacheSize() {
     return authorCacheSize;
   }
@@ -4212,6 +4414,46 @@ public class IoTDBConfig {
     return modsCacheSizeLimitPerFI;
   }
 
+  public boolean isEnableQueryAdmissionControl() {
+    return enableQueryAdmissionControl;
+  }
+
+  public void setEnableQueryAdmissionControl(boolean enableQueryAdmissionControl) {
+    this.enableQueryAdmissionControl = enableQueryAdmissionControl;
+  }
+
+  public long getDecodedPageCacheSizeInBytes() {
+    return decodedPageCacheSizeInBytes;
+  }
+
+  public void setDecodedPageCacheSizeInBytes(long decodedPageCacheSizeInBytes) {
+    this.decodedPageCacheSizeInBytes = decodedPageCacheSizeInBytes;
+  }
+
+  public boolean isEnableDynamicFilter() {
+    return enableDynamicFilter;
+  }
+
+  public void setEnableDynamicFilter(boolean enableDynamicFilter) {
+    this.enableDynamicFilter = enableDynamicFilter;
+  }
+
+  public long getDynamicFilterMaxBuildSizeInBytes() {
+    return dynamicFilterMaxBuildSizeInBytes;
+  }
+
+  public void setDynamicFilterMaxBuildSizeInBytes(long dynamicFilterMaxBuildSizeInBytes) {
+    this.dynamicFilterMaxBuildSizeInBytes = dynamicFilterMaxBuildSizeInBytes;
+  }
+
+  public int getDynamicFilterMaxExactValues() {
+    return dynamicFilterMaxExactValues;
+  }
+
+  public void setDynamicFilterMaxExactValues(int dynamicFilterMaxExactValues) {
+    this.dynamicFilterMaxExactValues = dynamicFilterMaxExactValues;
+  }
+
   public void setSortTmpDir(String sortTmpDir) {
     this.sortTmpDir = sortTmpDir;
   }
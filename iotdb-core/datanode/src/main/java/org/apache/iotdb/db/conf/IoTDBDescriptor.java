@@ -827,11 +827,35 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "recovery_log_interval_in_ms", String.valueOf(conf.getRecoveryLogIntervalInMs()))));
 
+    int recoveryThreadCountPerDisk =
+        Integer.parseInt(
+            properties.getProperty(
+                "recovery_thread_count_per_disk",
+                String.valueOf(conf.getRecoveryThreadCountPerDisk())));
+    if (recoveryThreadCountPerDisk > 0) {
+      conf.setRecoveryThreadCountPerDisk(recoveryThreadCountPerDisk);
+    }
+
     conf.setEnableSeparateData(
         Boolean.parseBoolean(
             properties.getProperty(
                 "enable_separate_data", Boolean.toString(conf.isEnableSeparateData()))));
 
+    conf.setRollupViewDefinitions(
+        properties.getProperty("rollup_view_definitions", conf.getRollupViewDefinitions()));
+
+    conf.setRollupViewMaxBucketNumPerSeries(
+        Integer.parseInt(
+            properties.getProperty(
+                "rollup_view_max_bucket_num_per_series",
+                Integer.toString(conf.getRollupViewMaxBucketNumPerSeries()))));
+
+    conf.setRollupViewRecomputeIntervalInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "rollup_view_recompute_interval_in_ms",
+                Long.toString(conf.getRollupViewRecomputeIntervalInMs()))));
+
     conf.setWindowEvaluationThreadCount(
         Integer.parseInt(
             properties.getProperty(
@@ -1073,6 +1097,35 @@ public class IoTDBDescriptor {
     loadFixedSizeLimitForQuery(
         properties, "mods_cache_size_limit_per_fi_in_bytes", conf::setModsCacheSizeLimitPerFI);
 
+    conf.setEnableQueryAdmissionControl(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_query_admission_control",
+                Boolean.toString(conf.isEnableQueryAdmissionControl()))));
+
+    conf.setDecodedPageCacheSizeInBytes(
+        Long.parseLong(
+            properties.getProperty(
+                "decoded_page_cache_size_in_bytes",
+                Long.toString(conf.getDecodedPageCacheSizeInBytes()))));
+
+    conf.setEnableDynamicFilter(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_dynamic_filter", Boolean.toString(conf.isEnableDynamicFilter()))));
+
+    conf.setDynamicFilterMaxBuildSizeInBytes(
+        Long.parseLong(
+            properties.getProperty(
+                "dynamic_filter_max_build_size_in_bytes",
+                Long.toString(conf.getDynamicFilterMaxBuildSizeInBytes()))));
+
+    conf.setDynamicFilterMaxExactValues(
+        Integer.parseInt(
+            properties.getProperty(
+                "dynamic_filter_max_exact_values",
+                Integer.toString(conf.getDynamicFilterMaxExactValues()))));
+
     // tmp filePath for sort operator
     conf.setSortTmpDir(properties.getProperty("sort_tmp_dir", conf.getSortTmpDir()));
 
@@ -1192,12 +1245,42 @@ public class IoTDBDescriptor {
                 "data_region_iot_max_memory_ratio_for_queue",
                 ConfigurationFileUtils.getConfigurationDefaultValue(
                     "data_region_iot_max_memory_ratio_for_queue"))));
+    conf.setMaxMemoryRatioForLogCache(
+        Double.parseDouble(
+            properties.getProperty(
+                "data_region_iot_max_memory_ratio_for_log_cache",
+                ConfigurationFileUtils.getConfigurationDefaultValue(
+                    "data_region_iot_max_memory_ratio_for_log_cache"))));
     conf.setRegionMigrationSpeedLimitBytesPerSecond(
         Long.parseLong(
             properties.getProperty(
                 "region_migration_speed_limit_bytes_per_second",
                 ConfigurationFileUtils.getConfigurationDefaultValue(
                     "region_migration_speed_limit_bytes_per_second"))));
+    conf.setEnableIoTConsensusMultiplexedDispatch(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "data_region_iot_enable_multiplexed_dispatch",
+                ConfigurationFileUtils.getConfigurationDefaultValue(
+                    "data_region_iot_enable_multiplexed_dispatch"))));
+    int multiplexedDispatchThreadNum =
+        Integer.parseInt(
+            properties.getProperty(
+                "data_region_iot_multiplexed_dispatch_thread_num",
+                ConfigurationFileUtils.getConfigurationDefaultValue(
+                    "data_region_iot_multiplexed_dispatch_thread_num")));
+    if (multiplexedDispatchThreadNum > 0) {
+      conf.setIoTConsensusMultiplexedDispatchThreadNum(multiplexedDispatchThreadNum);
+    }
+    int snapshotTransmitParallelism =
+        Integer.parseInt(
+            properties.getProperty(
+                "data_region_iot_snapshot_transmit_parallelism",
+                ConfigurationFileUtils.getConfigurationDefaultValue(
+                    "data_region_iot_snapshot_transmit_parallelism")));
+    if (snapshotTransmitParallelism > 0) {
+      conf.setIoTConsensusSnapshotTransmitParallelism(snapshotTransmitParallelism);
+    }
   }
 
   private void loadIoTConsensusV2Props(TrimProperties properties) throws IOException {
@@ -2742,6 +2825,35 @@ public class IoTDBDescriptor {
         Integer.parseInt(
             properties.getProperty(
                 "partition_cache_size", Integer.toString(conf.getPartitionCacheSize()))));
+    conf.setPartitionCachePrefetchAheadTimeInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "partition_cache_prefetch_ahead_time_in_ms",
+                Long.toString(conf.getPartitionCachePrefetchAheadTimeInMs()))));
+    conf.setSchemaFetchBatchWindowInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "schema_fetch_batch_window_in_ms",
+                Long.toString(conf.getSchemaFetchBatchWindowInMs()))));
+    conf.setSchemaCacheWarmupDeviceNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "schema_cache_warmup_device_num",
+                Integer.toString(conf.getSchemaCacheWarmupDeviceNum()))));
+    final long schemaCacheSnapshotIntervalInMs =
+        Long.parseLong(
+            properties.getProperty(
+                "schema_cache_snapshot_interval_in_ms",
+                Long.toString(conf.getSchemaCacheSnapshotIntervalInMs())));
+    if (schemaCacheSnapshotIntervalInMs > 0) {
+      conf.setSchemaCacheSnapshotIntervalInMs(schemaCacheSnapshotIntervalInMs);
+    }
+
+    conf.setEnableSeriesSlotWriteStatistics(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_series_slot_write_statistics",
+                Boolean.toString(conf.isEnableSeriesSlotWriteStatistics()))));
 
     conf.setDriverTaskExecutionTimeSliceInMs(
         Integer.parseInt(
@@ -158,8 +158,15 @@ public class DataRegionConsensusImpl {
                           .setMaxSizePerBatch(CONF.getMaxSizePerBatch())
                           .setMaxPendingBatchesNum(CONF.getMaxPendingBatchesNum())
                           .setMaxMemoryRatioForQueue(CONF.getMaxMemoryRatioForQueue())
+                          .setMaxMemoryRatioForLogCache(CONF.getMaxMemoryRatioForLogCache())
                           .setRegionMigrationSpeedLimitBytesPerSecond(
                               CONF.getRegionMigrationSpeedLimitBytesPerSecond())
+                          .setEnableMultiplexedDispatch(
+                              CONF.isEnableIoTConsensusMultiplexedDispatch())
+                          .setMultiplexedDispatchThreadNum(
+                              CONF.getIoTConsensusMultiplexedDispatchThreadNum())
+                          .setSnapshotTransmitParallelism(
+                              CONF.getIoTConsensusSnapshotTransmitParallelism())
                           .build())
                   .build())
           .setPipeConsensusConfig(
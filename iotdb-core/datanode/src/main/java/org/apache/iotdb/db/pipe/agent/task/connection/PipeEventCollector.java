@@ -23,6 +23,7 @@ import org.apache.iotdb.commons.audit.UserEntity;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.pipe.agent.task.connection.UnboundedBlockingPendingQueue;
 import org.apache.iotdb.commons.pipe.agent.task.progress.PipeEventCommitManager;
+import org.apache.iotdb.commons.pipe.config.PipeConfig;
 import org.apache.iotdb.commons.pipe.datastructure.pattern.IoTDBTreePatternOperations;
 import org.apache.iotdb.commons.pipe.event.EnrichedEvent;
 import org.apache.iotdb.commons.pipe.event.ProgressReportEvent;
@@ -139,6 +140,12 @@ public class PipeEventCollector implements EventCollector {
       return;
     }
 
+    if (!forceTabletFormat
+        && canRewrite4TsFileEvent(sourceEvent)
+        && sourceEvent.rewriteWithPatternAndTime(this::collectRewrittenTsFileEvent)) {
+      return;
+    }
+
     try {
       sourceEvent.consumeTabletInsertionEventsWithRetry(
           this::collectParsedRawTableEvent, "PipeEventCollector::parseAndCollectEvent");
@@ -155,6 +162,21 @@ public class PipeEventCollector implements EventCollector {
             && !sourceEvent.shouldParseTime());
   }
 
+  /**
+   * The chunks of a TsFile can be copied into a new TsFile instead of being parsed into tablets,
+   * unless the mods or the privileges need to be applied to the data.
+   */
+  private static boolean canRewrite4TsFileEvent(final PipeTsFileInsertionEvent sourceEvent) {
+    return PipeConfig.getInstance().getPipeTsFileChunkRewriteEnabled()
+        && !sourceEvent.isWithMod()
+        && !sourceEvent.shouldParse4Privilege();
+  }
+
+  private void collectRewrittenTsFileEvent(final PipeTsFileInsertionEvent rewrittenEvent) {
+    hasNoGeneratedEvent = false;
+    collectEvent(rewrittenEvent);
+  }
+
   private void collectParsedRawTableEvent(final PipeRawTabletInsertionEvent parsedEvent) {
     if (!parsedEvent.hasNoNeedParsingAndIsEmpty()) {
       hasNoGeneratedEvent = false;
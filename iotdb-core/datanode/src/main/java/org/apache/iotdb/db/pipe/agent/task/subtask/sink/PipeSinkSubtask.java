@@ -319,6 +319,24 @@ public class PipeSinkSubtask extends PipeAbstractSinkSubtask {
         : 0;
   }
 
+  public long getAdaptiveBatchSizeInBytes() {
+    return outputPipeSink instanceof IoTDBDataRegionAsyncSink
+        ? ((IoTDBDataRegionAsyncSink) outputPipeSink).getAdaptiveBatchSizeInBytes()
+        : 0;
+  }
+
+  public int getAdaptiveBatchLingerInMs() {
+    return outputPipeSink instanceof IoTDBDataRegionAsyncSink
+        ? ((IoTDBDataRegionAsyncSink) outputPipeSink).getAdaptiveBatchLingerInMs()
+        : 0;
+  }
+
+  public int getAdaptiveConcurrentTransfers() {
+    return outputPipeSink instanceof IoTDBDataRegionAsyncSink
+        ? ((IoTDBDataRegionAsyncSink) outputPipeSink).getAdaptiveConcurrentTransfers()
+        : 0;
+  }
+
   public int getBatchSize() {
     if (outputPipeSink instanceof IoTDBDataRegionAsyncSink) {
       return ((IoTDBDataRegionAsyncSink) outputPipeSink).getBatchSize();
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.iotdb.db.pipe.event.common.tablet;
+
+import org.apache.iotdb.db.pipe.event.common.row.PipeDataTypeTransformer;
+import org.apache.iotdb.pipe.api.access.ColumnBatch;
+import org.apache.iotdb.pipe.api.type.Type;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BitMap;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/** The {@link ColumnBatch} backed by the columns parsed from a tree model tablet event. */
+public class PipeColumnBatch implements ColumnBatch {
+
+  private final String deviceId;
+  private final boolean isAligned;
+  private final IMeasurementSchema[] measurementSchemaList;
+
+  private final long[] timestampColumn;
+  private final TSDataType[] valueColumnTypes;
+  private final Object[] valueColumns;
+  private final BitMap[] bitMaps;
+  private final int rowCount;
+
+  private final String[] columnNameStringList;
+
+  public PipeColumnBatch(
+      final String deviceId,
+      final boolean isAligned,
+      final IMeasurementSchema[] measurementSchemaList,
+      final long[] timestampColumn,
+      final TSDataType[] valueColumnTypes,
+      final Object[] valueColumns,
+      final BitMap[] bitMaps,
+      final int rowCount,
+      final String[] columnNameStringList) {
+    this.deviceId = deviceId;
+    this.isAligned = isAligned;
+    this.measurementSchemaList = measurementSchemaList;
+    this.timestampColumn = timestampColumn;
+    this.valueColumnTypes = valueColumnTypes;
+    this.valueColumns = valueColumns;
+    this.bitMaps = bitMaps;
+    this.rowCount = rowCount;
+    this.columnNameStringList = columnNameStringList;
+  }
+
+  @Override
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  @Override
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  @Override
+  public int getColumnCount() {
+    return valueColumns.length;
+  }
+
+  @Override
+  public long[] getTimes() {
+    return timestampColumn;
+  }
+
+  @Override
+  public String getColumnName(final int columnIndex) {
+    return columnNameStringList[columnIndex];
+  }
+
+  @Override
+  public Type getDataType(final int columnIndex) {
+    return PipeDataTypeTransformer.transformToPipeDataType(valueColumnTypes[columnIndex]);
+  }
+
+  @Override
+  public boolean isNull(final int rowIndex, final int columnIndex) {
+    return Objects.nonNull(bitMaps[columnIndex]) && bitMaps[columnIndex].isMarked(rowIndex);
+  }
+
+  @Override
+  public boolean mayHaveNull(final int columnIndex) {
+    return Objects.nonNull(bitMaps[columnIndex])
+        && !bitMaps[columnIndex].isAllUnmarked(rowCount);
+  }
+
+  @Override
+  public boolean[] getBooleanColumn(final int columnIndex) {
+    return (boolean[]) valueColumns[columnIndex];
+  }
+
+  @Override
+  public int[] getIntColumn(final int columnIndex) {
+    return (int[]) valueColumns[columnIndex];
+  }
+
+  @Override
+  public long[] getLongColumn(final int columnIndex) {
+    return (long[]) valueColumns[columnIndex];
+  }
+
+  @Override
+  public float[] getFloatColumn(final int columnIndex) {
+    return (float[]) valueColumns[columnIndex];
+  }
+
+  @Override
+  public double[] getDoubleColumn(final int columnIndex) {
+    return (double[]) valueColumns[columnIndex];
+  }
+
+  @Override
+  public LocalDate[] getDateColumn(final int columnIndex) {
+    return (LocalDate[]) valueColumns[columnIndex];
+  }
+
+  @Override
+  public Binary[] getBinaryColumn(final int columnIndex) {
+    return (Binary[]) valueColumns[columnIndex];
+  }
+
+  /////////////////////////////// For PipeColumnBatchCollector ///////////////////////////////
+
+  boolean isAligned() {
+    return isAligned;
+  }
+
+  IMeasurementSchema[] getMeasurementSchemaList() {
+    return measurementSchemaList;
+  }
+
+  Object[] getValueColumns() {
+    return valueColumns;
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.iotdb.db.pipe.event.common.tablet;
+
+import org.apache.iotdb.commons.pipe.agent.task.meta.PipeTaskMeta;
+import org.apache.iotdb.commons.pipe.event.EnrichedEvent;
+import org.apache.iotdb.pipe.api.access.ColumnBatch;
+import org.apache.iotdb.pipe.api.collector.ColumnBatchCollector;
+import org.apache.iotdb.pipe.api.exception.PipeException;
+
+import org.apache.tsfile.utils.BitMap;
+import org.apache.tsfile.write.record.Tablet;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Objects;
+
+public class PipeColumnBatchCollector extends PipeTabletCollector implements ColumnBatchCollector {
+
+  public PipeColumnBatchCollector(PipeTaskMeta pipeTaskMeta, EnrichedEvent sourceEvent) {
+    super(pipeTaskMeta, sourceEvent);
+  }
+
+  @Override
+  public void collectRows(
+      final ColumnBatch batch, final int[] rowIndexes, final int selectedRowCount) {
+    collectRows(batch, rowIndexes, selectedRowCount, null);
+  }
+
+  @Override
+  public void collectRows(
+      final ColumnBatch batch,
+      final int[] rowIndexes,
+      final int selectedRowCount,
+      final BitMap[] discardedValues) {
+    if (!(batch instanceof PipeColumnBatch)) {
+      throw new PipeException("ColumnBatch can not be customized");
+    }
+    if (selectedRowCount <= 0) {
+      return;
+    }
+
+    final PipeColumnBatch pipeColumnBatch = (PipeColumnBatch) batch;
+    final long[] sourceTimestampColumn = pipeColumnBatch.getTimes();
+    final Object[] sourceValueColumns = pipeColumnBatch.getValueColumns();
+
+    final long[] timestampColumn = new long[selectedRowCount];
+    for (int i = 0; i < selectedRowCount; ++i) {
+      timestampColumn[i] = sourceTimestampColumn[rowIndexes[i]];
+    }
+
+    final Object[] valueColumns = new Object[sourceValueColumns.length];
+    final BitMap[] bitMaps = new BitMap[sourceValueColumns.length];
+    for (int columnIndex = 0; columnIndex < sourceValueColumns.length; ++columnIndex) {
+      valueColumns[columnIndex] =
+          gatherColumn(sourceValueColumns[columnIndex], rowIndexes, selectedRowCount);
+
+      final BitMap discarded =
+          Objects.nonNull(discardedValues) ? discardedValues[columnIndex] : null;
+      final boolean mayHaveNull = pipeColumnBatch.mayHaveNull(columnIndex);
+      bitMaps[columnIndex] = new BitMap(selectedRowCount);
+      if (!mayHaveNull && Objects.isNull(discarded)) {
+        continue;
+      }
+      for (int i = 0; i < selectedRowCount; ++i) {
+        final int rowIndex = rowIndexes[i];
+        if (mayHaveNull && pipeColumnBatch.isNull(rowIndex, columnIndex)
+            || Objects.nonNull(discarded) && discarded.isMarked(rowIndex)) {
+          bitMaps[columnIndex].mark(i);
+        }
+      }
+    }
+
+    isAligned = pipeColumnBatch.isAligned();
+    collectTablet(
+        new Tablet(
+            pipeColumnBatch.getDeviceId(),
+            Arrays.asList(pipeColumnBatch.getMeasurementSchemaList()),
+            timestampColumn,
+            valueColumns,
+            bitMaps,
+            selectedRowCount));
+  }
+
+  private static Object gatherColumn(
+      final Object sourceColumn, final int[] rowIndexes, final int selectedRowCount) {
+    if (sourceColumn instanceof int[]) {
+      final int[] source = (int[]) sourceColumn;
+      final int[] column = new int[selectedRowCount];
+      for (int i = 0; i < selectedRowCount; ++i) {
+        column[i] = source[rowIndexes[i]];
+      }
+      return column;
+    }
+    if (sourceColumn instanceof long[]) {
+      final long[] source = (long[]) sourceColumn;
+      final long[] column = new long[selectedRowCount];
+      for (int i = 0; i < selectedRowCount; ++i) {
+        column[i] = source[rowIndexes[i]];
+      }
+      return column;
+    }
+    if (sourceColumn instanceof float[]) {
+      final float[] source = (float[]) sourceColumn;
+      final float[] column = new float[selectedRowCount];
+      for (int i = 0; i < selectedRowCount; ++i) {
+        column[i] = source[rowIndexes[i]];
+      }
+      return column;
+    }
+    if (sourceColumn instanceof double[]) {
+      final double[] source = (double[]) sourceColumn;
+      final double[] column = new double[selectedRowCount];
+      for (int i = 0; i < selectedRowCount; ++i) {
+        column[i] = source[rowIndexes[i]];
+      }
+      return column;
+    }
+    if (sourceColumn instanceof boolean[]) {
+      final boolean[] source = (boolean[]) sourceColumn;
+      final boolean[] column = new boolean[selectedRowCount];
+      for (int i = 0; i < selectedRowCount; ++i) {
+        column[i] = source[rowIndexes[i]];
+      }
+      return column;
+    }
+    if (sourceColumn instanceof Object[]) {
+      // LocalDate[] and Binary[]
+      final Object[] source = (Object[]) sourceColumn;
+      final Object[] column =
+          (Object[]) Array.newInstance(source.getClass().getComponentType(), selectedRowCount);
+      for (int i = 0; i < selectedRowCount; ++i) {
+        column[i] = source[rowIndexes[i]];
+      }
+      return column;
+    }
+    throw new PipeException(
+        String.format(
+            "Unsupported column type %s",
+            Objects.nonNull(sourceColumn) ? sourceColumn.getClass() : null));
+  }
+}
@@ -39,7 +39,9 @@ import org.apache.iotdb.db.pipe.metric.overview.PipeDataNodeSinglePipeMetrics;
 import org.apache.iotdb.db.pipe.resource.PipeDataNodeResourceManager;
 import org.apache.iotdb.db.pipe.resource.memory.PipeMemoryWeightUtil;
 import org.apache.iotdb.db.pipe.resource.memory.PipeTabletMemoryBlock;
+import org.apache.iotdb.pipe.api.access.ColumnBatch;
 import org.apache.iotdb.pipe.api.access.Row;
+import org.apache.iotdb.pipe.api.collector.ColumnBatchCollector;
 import org.apache.iotdb.pipe.api.collector.RowCollector;
 import org.apache.iotdb.pipe.api.collector.TabletCollector;
 import org.apache.iotdb.pipe.api.event.dml.insertion.TabletInsertionEvent;
@@ -432,6 +434,12 @@ public class PipeRawTabletInsertionEvent extends PipeInsertionEvent
     return initEventParser().processTabletWithCollect(consumer);
   }
 
+  @Override
+  public Iterable<TabletInsertionEvent> processColumnBatch(
+      final BiConsumer<ColumnBatch, ColumnBatchCollector> consumer) {
+    return initEventParser().processColumnBatch(consumer);
+  }
+
   /////////////////////////// convertToTablet ///////////////////////////
 
   public boolean isAligned() {
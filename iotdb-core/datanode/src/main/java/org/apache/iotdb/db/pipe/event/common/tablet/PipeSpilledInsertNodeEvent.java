@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.event.common.tablet;
+
+import org.apache.iotdb.commons.consensus.index.ProgressIndex;
+import org.apache.iotdb.commons.consensus.index.impl.MinimumProgressIndex;
+import org.apache.iotdb.commons.pipe.agent.task.meta.PipeTaskMeta;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.TablePattern;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.TreePattern;
+import org.apache.iotdb.commons.pipe.event.EnrichedEvent;
+import org.apache.iotdb.db.pipe.source.dataregion.realtime.spill.PipeRealtimeEventSpillLog;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeType;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertNode;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * The placeholder of a {@link PipeInsertNodeTabletInsertionEvent} whose {@link InsertNode} has been
+ * spilled to a {@link PipeRealtimeEventSpillLog}. It only keeps the position of the spilled entry
+ * and the progress index in memory, and is replayed as an equivalent {@link
+ * PipeInsertNodeTabletInsertionEvent} when supplied.
+ */
+public class PipeSpilledInsertNodeEvent extends EnrichedEvent {
+
+  private final PipeRealtimeEventSpillLog spillLog;
+  private final PipeRealtimeEventSpillLog.Entry entry;
+
+  private final Boolean isTableModelEvent;
+  private final String databaseNameFromDataRegion;
+  private ProgressIndex progressIndex;
+
+  private PipeSpilledInsertNodeEvent(
+      final PipeInsertNodeTabletInsertionEvent event,
+      final PipeRealtimeEventSpillLog spillLog,
+      final PipeRealtimeEventSpillLog.Entry entry) {
+    super(
+        event.getPipeName(),
+        event.getCreationTime(),
+        event.getPipeTaskMeta(),
+        event.getTreePattern(),
+        event.getTablePattern(),
+        event.getUserId(),
+        event.getUserName(),
+        event.getCliHostname(),
+        event.isSkipIfNoPrivileges(),
+        event.getStartTime(),
+        event.getEndTime());
+
+    this.spillLog = spillLog;
+    this.entry = entry;
+
+    this.isTableModelEvent = event.getRawIsTableModelEvent();
+    this.databaseNameFromDataRegion = event.getSourceDatabaseNameFromDataRegion();
+    this.progressIndex = event.getProgressIndex();
+
+    this.isPatternParsed = !event.shouldParsePattern();
+    this.isTimeParsed = !event.shouldParseTime();
+    this.shouldReportOnCommit = event.isShouldReportOnCommit();
+    this.replicateIndexForIoTV2 = event.getReplicateIndexForIoTV2();
+  }
+
+  /**
+   * Spill the {@link InsertNode} of the event to the log. The event itself is left untouched, and
+   * should be released by the caller if the spilling succeeds.
+   *
+   * @return the placeholder of the spilled event, or {@code null} if the log is full
+   */
+  public static PipeSpilledInsertNodeEvent spill(
+      final PipeInsertNodeTabletInsertionEvent event, final PipeRealtimeEventSpillLog spillLog)
+      throws Exception {
+    final PipeRealtimeEventSpillLog.Entry entry = spillLog.append(event.getByteBuffer());
+    return Objects.nonNull(entry) ? new PipeSpilledInsertNodeEvent(event, spillLog, entry) : null;
+  }
+
+  /**
+   * Read the spilled {@link InsertNode} back and rebuild the {@link
+   * PipeInsertNodeTabletInsertionEvent} with the same progress index and parsing states.
+   */
+  public PipeInsertNodeTabletInsertionEvent replay() throws IOException {
+    final InsertNode insertNode = (InsertNode) PlanNodeType.deserialize(spillLog.read(entry));
+    final PipeInsertNodeTabletInsertionEvent event =
+        new PipeInsertNodeTabletInsertionEvent(
+            isTableModelEvent,
+            databaseNameFromDataRegion,
+            insertNode,
+            pipeName,
+            creationTime,
+            pipeTaskMeta,
+            treePattern,
+            tablePattern,
+            userId,
+            userName,
+            cliHostname,
+            skipIfNoPrivileges,
+            startTime,
+            endTime);
+    event.bindProgressIndex(progressIndex);
+    if (isPatternParsed) {
+      event.skipParsingPattern();
+    }
+    if (isTimeParsed) {
+      event.skipParsingTime();
+    }
+    if (!shouldReportOnCommit) {
+      event.skipReportOnCommit();
+    }
+    event.setReplicateIndexForIoTV2(replicateIndexForIoTV2);
+    return event;
+  }
+
+  /////////////////////////// EnrichedEvent ///////////////////////////
+
+  @Override
+  public boolean internallyIncreaseResourceReferenceCount(final String holderMessage) {
+    return true;
+  }
+
+  @Override
+  public boolean internallyDecreaseResourceReferenceCount(final String holderMessage) {
+    spillLog.release(entry);
+    return true;
+  }
+
+  @Override
+  public void bindProgressIndex(final ProgressIndex progressIndex) {
+    this.progressIndex = progressIndex;
+  }
+
+  @Override
+  public ProgressIndex getProgressIndex() {
+    return progressIndex == null ? MinimumProgressIndex.INSTANCE : progressIndex;
+  }
+
+  @Override
+  public EnrichedEvent shallowCopySelfAndBindPipeTaskMetaForProgressReport(
+      final String pipeName,
+      final long creationTime,
+      final PipeTaskMeta pipeTaskMeta,
+      final TreePattern treePattern,
+      final TablePattern tablePattern,
+      final String userId,
+      final String userName,
+      final String cliHostname,
+      final boolean skipIfNoPrivileges,
+      final long startTime,
+      final long endTime) {
+    throw new UnsupportedOperationException(
+        "PipeSpilledInsertNodeEvent does not support shallowCopySelfAndBindPipeTaskMetaForProgressReport.");
+  }
+
+  @Override
+  public boolean isGeneratedByPipe() {
+    // The events generated by pipe are never extracted as tablets by the realtime sources
+    return false;
+  }
+
+  @Override
+  public boolean mayEventTimeOverlappedWithTimeRange() {
+    return true;
+  }
+
+  @Override
+  public boolean mayEventPathsOverlappedWithPattern() {
+    return true;
+  }
+
+  /////////////////////////// Object ///////////////////////////
+
+  @Override
+  public String toString() {
+    return String.format(
+            "PipeSpilledInsertNodeEvent{spillLog=%s, entry=%s, progressIndex=%s}",
+            spillLog, entry, progressIndex)
+        + " - "
+        + super.toString();
+  }
+}
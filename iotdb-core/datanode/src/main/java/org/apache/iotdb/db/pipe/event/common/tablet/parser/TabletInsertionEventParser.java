@@ -25,7 +25,9 @@ import org.apache.iotdb.commons.pipe.event.EnrichedEvent;
 import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowNode;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertTabletNode;
+import org.apache.iotdb.pipe.api.access.ColumnBatch;
 import org.apache.iotdb.pipe.api.access.Row;
+import org.apache.iotdb.pipe.api.collector.ColumnBatchCollector;
 import org.apache.iotdb.pipe.api.collector.RowCollector;
 import org.apache.iotdb.pipe.api.collector.TabletCollector;
 import org.apache.iotdb.pipe.api.event.dml.insertion.TabletInsertionEvent;
@@ -641,5 +643,8 @@ public abstract class TabletInsertionEventParser {
   public abstract List<TabletInsertionEvent> processTabletWithCollect(
       final BiConsumer<Tablet, TabletCollector> consumer);
 
+  public abstract List<TabletInsertionEvent> processColumnBatch(
+      final BiConsumer<ColumnBatch, ColumnBatchCollector> consumer);
+
   public abstract Tablet convertToTablet();
 }
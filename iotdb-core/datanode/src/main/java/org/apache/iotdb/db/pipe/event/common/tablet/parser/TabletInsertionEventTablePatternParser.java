@@ -26,7 +26,9 @@ import org.apache.iotdb.commons.pipe.event.EnrichedEvent;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertNode;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.RelationalInsertRowNode;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.RelationalInsertTabletNode;
+import org.apache.iotdb.pipe.api.access.ColumnBatch;
 import org.apache.iotdb.pipe.api.access.Row;
+import org.apache.iotdb.pipe.api.collector.ColumnBatchCollector;
 import org.apache.iotdb.pipe.api.collector.RowCollector;
 import org.apache.iotdb.pipe.api.collector.TabletCollector;
 import org.apache.iotdb.pipe.api.event.dml.insertion.TabletInsertionEvent;
@@ -125,6 +127,15 @@ public class TabletInsertionEventTablePatternParser extends TabletInsertionEvent
     return Collections.emptyList();
   }
 
+  @Override
+  public List<TabletInsertionEvent> processColumnBatch(
+      BiConsumer<ColumnBatch, ColumnBatchCollector> consumer) {
+    if (LOGGER.isWarnEnabled()) {
+      LOGGER.warn("TablePatternParser does not support column batch processing");
+    }
+    return Collections.emptyList();
+  }
+
   ////////////////////////////  convertToTablet  ////////////////////////////
 
   @Override
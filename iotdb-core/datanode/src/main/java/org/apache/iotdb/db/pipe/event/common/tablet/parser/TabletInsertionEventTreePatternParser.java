@@ -30,11 +30,15 @@ import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.auth.AuthorityChecker;
 import org.apache.iotdb.db.pipe.event.common.row.PipeRow;
 import org.apache.iotdb.db.pipe.event.common.row.PipeRowCollector;
+import org.apache.iotdb.db.pipe.event.common.tablet.PipeColumnBatch;
+import org.apache.iotdb.db.pipe.event.common.tablet.PipeColumnBatchCollector;
 import org.apache.iotdb.db.pipe.event.common.tablet.PipeTabletCollector;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertNode;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowNode;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertTabletNode;
+import org.apache.iotdb.pipe.api.access.ColumnBatch;
 import org.apache.iotdb.pipe.api.access.Row;
+import org.apache.iotdb.pipe.api.collector.ColumnBatchCollector;
 import org.apache.iotdb.pipe.api.collector.RowCollector;
 import org.apache.iotdb.pipe.api.collector.TabletCollector;
 import org.apache.iotdb.pipe.api.event.dml.insertion.TabletInsertionEvent;
@@ -189,6 +193,31 @@ public class TabletInsertionEventTreePatternParser extends TabletInsertionEventP
     return tabletCollector.convertToTabletInsertionEvents(shouldReport);
   }
 
+  @Override
+  public List<TabletInsertionEvent> processColumnBatch(
+      final BiConsumer<ColumnBatch, ColumnBatchCollector> consumer) {
+    if (valueColumns.length == 0 || timestampColumn.length == 0) {
+      return Collections.emptyList();
+    }
+
+    final PipeColumnBatchCollector columnBatchCollector =
+        new PipeColumnBatchCollector(pipeTaskMeta, sourceEvent);
+    consumer.accept(
+        // Used for tree model
+        new PipeColumnBatch(
+            Objects.nonNull(deviceIdString) ? deviceIdString : deviceId.toString(),
+            isAligned,
+            measurementSchemaList,
+            timestampColumn,
+            valueColumnDataTypes,
+            valueColumns,
+            nullValueColumnBitmaps,
+            rowCount,
+            columnNameStringList),
+        columnBatchCollector);
+    return columnBatchCollector.convertToTabletInsertionEvents(shouldReport);
+  }
+
   ////////////////////////////  convertToTablet  ////////////////////////////
 
   @Override
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.event.common.tsfile;
+
+import org.apache.iotdb.commons.pipe.agent.task.meta.PipeTaskMeta;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.TablePattern;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.TreePattern;
+import org.apache.iotdb.commons.pipe.resource.ref.PipePhantomReferenceManager.PipeEventResource;
+import org.apache.iotdb.db.pipe.resource.tsfile.PipeTsFileResourceManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.common.constant.TsFileConstant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The event of a TsFile rewritten from the chunks of a {@link PipeTsFileInsertionEvent} matched by
+ * its pattern and time range. It shares the {@link TsFileResource} and the progress of the original
+ * event, while the rewritten TsFile is owned by this event only and deleted when it's released.
+ */
+public class PipeRewrittenTsFileInsertionEvent extends PipeTsFileInsertionEvent {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(PipeRewrittenTsFileInsertionEvent.class);
+
+  private static final String TS_FILE_PREFIX = "rw"; // rw means rewritten
+  private static final AtomicLong TS_FILE_ID_GENERATOR = new AtomicLong(0);
+
+  PipeRewrittenTsFileInsertionEvent(
+      final PipeTsFileInsertionEvent originalEvent,
+      final TsFileResource resource,
+      final File rewrittenTsFile) {
+    super(
+        originalEvent.getRawIsTableModelEvent(),
+        originalEvent.getSourceDatabaseNameFromDataRegion(),
+        resource,
+        rewrittenTsFile,
+        // The rewritten TsFile is only generated when the mods need not be transferred
+        false,
+        originalEvent.isLoaded(),
+        originalEvent.isGeneratedByHistoricalExtractor(),
+        null,
+        originalEvent.getPipeName(),
+        originalEvent.getCreationTime(),
+        originalEvent.getPipeTaskMeta(),
+        originalEvent.getTreePattern(),
+        originalEvent.getTablePattern(),
+        originalEvent.getUserId(),
+        originalEvent.getUserName(),
+        originalEvent.getCliHostname(),
+        originalEvent.isSkipIfNoPrivileges(),
+        originalEvent.getStartTime(),
+        originalEvent.getEndTime());
+
+    // The database may have been renamed by the processor
+    tableModelDatabaseName = originalEvent.getRawTableModelDataBase();
+    treeModelDatabaseName = originalEvent.getRawTreeModelDataBase();
+
+    // The data out of the pattern and time range have been filtered out by rewriting
+    isPatternParsed = true;
+    isTimeParsed = true;
+
+    overridingProgressIndex = originalEvent.overridingProgressIndex;
+  }
+
+  /**
+   * Get a new file to rewrite the given TsFile into. It's placed in the pipe's dir of the TsFile,
+   * so that it's cleaned up together with the hard-linked TsFiles of the pipe.
+   */
+  static File getRewrittenTsFile(final File tsFile, final String pipeName) throws IOException {
+    final File pipeDir =
+        PipeTsFileResourceManager.getHardlinkOrCopiedFileInPipeDir(tsFile, pipeName)
+            .getParentFile();
+    if (!pipeDir.exists() && !pipeDir.mkdirs() && !pipeDir.exists()) {
+      throw new IOException(String.format("Failed to create pipe dir %s", pipeDir.getPath()));
+    }
+
+    final String tsFileName = tsFile.getName();
+    return new File(
+        pipeDir,
+        TS_FILE_PREFIX
+            + "_"
+            + TS_FILE_ID_GENERATOR.getAndIncrement()
+            + "_"
+            + tsFileName
+                .substring(0, tsFileName.length() - TsFileConstant.TSFILE_SUFFIX.length())
+                .replace('-', '_')
+            + TsFileConstant.TSFILE_SUFFIX);
+  }
+
+  /////////////////////////// EnrichedEvent ///////////////////////////
+
+  @Override
+  public boolean internallyIncreaseResourceReferenceCount(final String holderMessage) {
+    // The rewritten TsFile is held by this event only
+    return true;
+  }
+
+  @Override
+  public boolean internallyDecreaseResourceReferenceCount(final String holderMessage) {
+    close();
+    deleteRewrittenTsFile(getTsFile());
+    return true;
+  }
+
+  private static void deleteRewrittenTsFile(final File rewrittenTsFile) {
+    try {
+      Files.deleteIfExists(rewrittenTsFile.toPath());
+    } catch (final IOException e) {
+      LOGGER.warn("Failed to delete rewritten TsFile {}.", rewrittenTsFile.getPath(), e);
+    }
+  }
+
+  @Override
+  public PipeTsFileInsertionEvent shallowCopySelfAndBindPipeTaskMetaForProgressReport(
+      final String pipeName,
+      final long creationTime,
+      final PipeTaskMeta pipeTaskMeta,
+      final TreePattern treePattern,
+      final TablePattern tablePattern,
+      final String userId,
+      final String userName,
+      final String cliHostname,
+      final boolean skipIfNoPrivileges,
+      final long startTime,
+      final long endTime) {
+    throw new UnsupportedOperationException(
+        "PipeRewrittenTsFileInsertionEvent does not support shallowCopySelfAndBindPipeTaskMetaForProgressReport.");
+  }
+
+  @Override
+  public boolean equalsInPipeConsensus(final Object o) {
+    throw new UnsupportedOperationException(
+        "PipeRewrittenTsFileInsertionEvent does not support equalsInPipeConsensus.");
+  }
+
+  /////////////////////////// ReferenceTrackableEvent ///////////////////////////
+
+  @Override
+  public PipeEventResource eventResourceBuilder() {
+    return new PipeRewrittenTsFileInsertionEventResource(
+        this.isReleased, this.referenceCount, getTsFile());
+  }
+
+  private static class PipeRewrittenTsFileInsertionEventResource extends PipeEventResource {
+
+    private final File rewrittenTsFile;
+
+    private PipeRewrittenTsFileInsertionEventResource(
+        final AtomicBoolean isReleased,
+        final AtomicInteger referenceCount,
+        final File rewrittenTsFile) {
+      super(isReleased, referenceCount);
+      this.rewrittenTsFile = rewrittenTsFile;
+    }
+
+    @Override
+    protected void finalizeResource() {
+      deleteRewrittenTsFile(rewrittenTsFile);
+    }
+  }
+}
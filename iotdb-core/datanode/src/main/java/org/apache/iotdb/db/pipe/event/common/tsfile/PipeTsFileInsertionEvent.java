@@ -41,6 +41,7 @@ import org.apache.iotdb.db.pipe.event.common.tablet.PipeRawTabletInsertionEvent;
 import org.apache.iotdb.db.pipe.event.common.tsfile.aggregator.TsFileInsertionPointCounter;
 import org.apache.iotdb.db.pipe.event.common.tsfile.parser.TsFileInsertionEventParser;
 import org.apache.iotdb.db.pipe.event.common.tsfile.parser.TsFileInsertionEventParserProvider;
+import org.apache.iotdb.db.pipe.event.common.tsfile.rewriter.TsFileChunkRewriter;
 import org.apache.iotdb.db.pipe.metric.overview.PipeDataNodeSinglePipeMetrics;
 import org.apache.iotdb.db.pipe.resource.PipeDataNodeResourceManager;
 import org.apache.iotdb.db.pipe.resource.memory.PipeMemoryManager;
@@ -60,6 +61,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -71,6 +73,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 public class PipeTsFileInsertionEvent extends PipeInsertionEvent
     implements TsFileInsertionEvent, ReferenceTrackableEvent {
@@ -781,6 +784,51 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
     }
   }
 
+  /**
+   * Rewrite the chunks of the TsFile matched by the pattern and time range into a new TsFile, and
+   * pass the event of the new TsFile to the consumer if it's not empty. Only the chunks crossing
+   * the bounds of the time range are decoded, so it's much cheaper than parsing the TsFile into
+   * tablets, which are encoded again by the sink.
+   *
+   * @return {@code false} if the TsFile can not be rewritten at chunk level, then it should be
+   *     parsed into tablets instead
+   */
+  public boolean rewriteWithPatternAndTime(final Consumer<PipeTsFileInsertionEvent> consumer)
+      throws IOException {
+    final boolean isTableModelEvent = isTableModelEvent();
+    final File rewrittenTsFile =
+        PipeRewrittenTsFileInsertionEvent.getRewrittenTsFile(tsFile, pipeName);
+    try (final TsFileChunkRewriter rewriter =
+        new TsFileChunkRewriter(
+            tsFile,
+            !isTableModelEvent && shouldParsePattern() ? treePattern : null,
+            isTableModelEvent && shouldParsePattern() ? tablePattern : null,
+            isTableModelEvent,
+            shouldParseTime() ? startTime : Long.MIN_VALUE,
+            shouldParseTime() ? endTime : Long.MAX_VALUE)) {
+      if (!rewriter.rewriteTo(rewrittenTsFile)) {
+        return false;
+      }
+
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(
+            "Pipe {}: rewrote TsFile {} into {} with {} chunks copied and {} chunks decoded.",
+            pipeName,
+            tsFile,
+            rewrittenTsFile,
+            rewriter.getCopiedChunkNum(),
+            rewriter.getDecodedChunkNum());
+      }
+      if (rewriter.isEmpty()) {
+        Files.deleteIfExists(rewrittenTsFile.toPath());
+        return true;
+      }
+    }
+
+    consumer.accept(new PipeRewrittenTsFileInsertionEvent(this, resource, rewrittenTsFile));
+    return true;
+  }
+
   public long count(final boolean skipReportOnCommit) throws Exception {
     AtomicLong count = new AtomicLong();
 
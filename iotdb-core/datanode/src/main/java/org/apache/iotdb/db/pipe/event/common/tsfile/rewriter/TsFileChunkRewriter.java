@@ -0,0 +1,497 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.event.common.tsfile.rewriter;
+
+import org.apache.iotdb.commons.pipe.datastructure.pattern.TablePattern;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.TreePattern;
+
+import org.apache.tsfile.encrypt.EncryptParameter;
+import org.apache.tsfile.encrypt.EncryptUtils;
+import org.apache.tsfile.file.header.ChunkHeader;
+import org.apache.tsfile.file.metadata.AbstractAlignedChunkMetadata;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.TableSchema;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.TsFileDeviceIterator;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.BatchData;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.read.filter.basic.Filter;
+import org.apache.tsfile.read.filter.factory.TimeFilterApi;
+import org.apache.tsfile.read.reader.chunk.AlignedChunkReader;
+import org.apache.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.tsfile.utils.Pair;
+import org.apache.tsfile.utils.TsPrimitiveType;
+import org.apache.tsfile.write.chunk.AlignedChunkWriterImpl;
+import org.apache.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.apache.tsfile.write.writer.TsFileIOWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Rewrites the data of a TsFile matched by a pattern and a time range into a new TsFile at chunk
+ * level. The chunks fully inside the time range are copied byte-for-byte, and only the chunks
+ * crossing the bounds of the time range are decoded and encoded again, which is much cheaper than
+ * parsing the whole TsFile into tablets.
+ */
+public class TsFileChunkRewriter implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TsFileChunkRewriter.class);
+
+  // Null for table model TsFiles
+  private final TreePattern treePattern;
+  // Null for tree model TsFiles
+  private final TablePattern tablePattern;
+  private final boolean isTableModel;
+  private final long startTime;
+  private final long endTime;
+  private final Filter timeFilter;
+
+  private final TsFileSequenceReader tsFileSequenceReader;
+
+  private TsFileIOWriter writer;
+  private IDeviceID currentChunkGroupDevice;
+  private boolean isEmpty = true;
+
+  private int copiedChunkNum = 0;
+  private int decodedChunkNum = 0;
+
+  public TsFileChunkRewriter(
+      final File tsFile,
+      final TreePattern treePattern,
+      final TablePattern tablePattern,
+      final boolean isTableModel,
+      final long startTime,
+      final long endTime)
+      throws IOException {
+    this.treePattern = treePattern;
+    this.tablePattern = tablePattern;
+    this.isTableModel = isTableModel;
+    this.startTime = startTime;
+    this.endTime = endTime;
+    this.timeFilter = TimeFilterApi.between(startTime, endTime);
+
+    tsFileSequenceReader = new TsFileSequenceReader(tsFile.getPath(), true, true);
+  }
+
+  /**
+   * Rewrite the matched data into the target TsFile. The target TsFile is deleted if the rewriting
+   * fails.
+   *
+   * @return {@code false} if the TsFile can not be rewritten at chunk level, then it should be
+   *     parsed into tablets instead
+   */
+  public boolean rewriteTo(final File targetTsFile) throws IOException {
+    if (!isEncryptedAsDefault()) {
+      return false;
+    }
+
+    boolean isSuccessful = false;
+    writer = new TsFileIOWriter(targetTsFile);
+    try {
+      if (isTableModel) {
+        registerTableSchemas();
+      }
+
+      final TsFileDeviceIterator deviceIterator =
+          tsFileSequenceReader.getAllDevicesIteratorWithIsAligned();
+      while (deviceIterator.hasNext()) {
+        final Pair<IDeviceID, Boolean> deviceIsAligned = deviceIterator.next();
+        final IDeviceID deviceId = deviceIsAligned.getLeft();
+        if (!mayMatchDevice(deviceId)) {
+          continue;
+        }
+
+        final boolean isDeviceRewritten =
+            Boolean.TRUE.equals(deviceIsAligned.getRight())
+                ? rewriteAlignedDevice(deviceId)
+                : rewriteNonAlignedDevice(deviceId);
+        if (!isDeviceRewritten) {
+          return false;
+        }
+        if (Objects.nonNull(currentChunkGroupDevice)) {
+          writer.endChunkGroup();
+          currentChunkGroupDevice = null;
+        }
+      }
+
+      writer.endFile();
+      isSuccessful = true;
+      return true;
+    } finally {
+      if (!isSuccessful) {
+        try {
+          writer.close();
+        } finally {
+          Files.deleteIfExists(targetTsFile.toPath());
+        }
+      }
+    }
+  }
+
+  // The chunks are copied as they are, so they must be encrypted in the same way as the TsFiles
+  // written by the receiver
+  private boolean isEncryptedAsDefault() throws IOException {
+    final EncryptParameter param = tsFileSequenceReader.getEncryptParam();
+    return Objects.equals(param.getType(), EncryptUtils.getEncryptParameter().getType())
+        && Arrays.equals(param.getKey(), EncryptUtils.getEncryptParameter().getKey());
+  }
+
+  private void registerTableSchemas() throws IOException {
+    for (final Map.Entry<String, TableSchema> entry :
+        tsFileSequenceReader.getTableSchemaMap().entrySet()) {
+      if (Objects.isNull(tablePattern) || tablePattern.matchesTable(entry.getKey())) {
+        writer.getSchema().registerTableSchema(entry.getValue());
+      }
+    }
+  }
+
+  private boolean mayMatchDevice(final IDeviceID deviceId) {
+    if (isTableModel) {
+      return Objects.isNull(tablePattern) || tablePattern.matchesTable(deviceId.getTableName());
+    }
+    return Objects.isNull(treePattern) || treePattern.mayOverlapWithDevice(deviceId);
+  }
+
+  private boolean matchesMeasurement(final IDeviceID deviceId, final String measurement) {
+    return isTableModel
+        || Objects.isNull(treePattern)
+        || treePattern.coversDevice(deviceId)
+        || treePattern.matchesMeasurement(deviceId, measurement);
+  }
+
+  /////////////////////////////// Non-aligned ///////////////////////////////
+
+  private boolean rewriteNonAlignedDevice(final IDeviceID deviceId) throws IOException {
+    // Sort the measurements to write the chunks in the order of the series
+    final Map<String, List<ChunkMetadata>> measurementChunkMetadataListMap =
+        new TreeMap<>(tsFileSequenceReader.readChunkMetadataInDevice(deviceId));
+    for (final Map.Entry<String, List<ChunkMetadata>> entry :
+        measurementChunkMetadataListMap.entrySet()) {
+      if (!matchesMeasurement(deviceId, entry.getKey())) {
+        continue;
+      }
+
+      for (final ChunkMetadata chunkMetadata : entry.getValue()) {
+        if (isOutOfTimeRange(chunkMetadata)) {
+          continue;
+        }
+
+        if (isInTimeRange(chunkMetadata)) {
+          startChunkGroupIfNecessary(deviceId);
+          writer.writeChunk(tsFileSequenceReader.readMemChunk(chunkMetadata), chunkMetadata);
+          ++copiedChunkNum;
+        } else {
+          decodeNonAlignedChunk(deviceId, chunkMetadata);
+          ++decodedChunkNum;
+        }
+      }
+    }
+    return true;
+  }
+
+  private void decodeNonAlignedChunk(final IDeviceID deviceId, final ChunkMetadata chunkMetadata)
+      throws IOException {
+    final Chunk chunk = tsFileSequenceReader.readMemChunk(chunkMetadata);
+    final ChunkHeader header = chunk.getHeader();
+    final ChunkWriterImpl chunkWriter =
+        new ChunkWriterImpl(
+            new MeasurementSchema(
+                header.getMeasurementID(),
+                header.getDataType(),
+                header.getEncodingType(),
+                header.getCompressionType()));
+
+    long pointNum = 0;
+    final ChunkReader chunkReader = new ChunkReader(chunk, timeFilter);
+    while (chunkReader.hasNextSatisfiedPage()) {
+      final BatchData batchData = chunkReader.nextPageData();
+      while (batchData.hasCurrent()) {
+        final long time = batchData.currentTime();
+        if (startTime <= time && time <= endTime) {
+          writeDataPoint(chunkWriter, time, batchData.currentTsPrimitiveType());
+          ++pointNum;
+        }
+        batchData.next();
+      }
+    }
+
+    if (pointNum > 0) {
+      startChunkGroupIfNecessary(deviceId);
+      chunkWriter.writeToFileWriter(writer);
+    }
+  }
+
+  private static void writeDataPoint(
+      final ChunkWriterImpl chunkWriter, final long time, final TsPrimitiveType value) {
+    switch (chunkWriter.getDataType()) {
+      case TEXT:
+      case STRING:
+      case BLOB:
+      case OBJECT:
+        chunkWriter.write(time, value.getBinary());
+        break;
+      case DOUBLE:
+        chunkWriter.write(time, value.getDouble());
+        break;
+      case BOOLEAN:
+        chunkWriter.write(time, value.getBoolean());
+        break;
+      case INT64:
+      case TIMESTAMP:
+        chunkWriter.write(time, value.getLong());
+        break;
+      case INT32:
+      case DATE:
+        chunkWriter.write(time, value.getInt());
+        break;
+      case FLOAT:
+        chunkWriter.write(time, value.getFloat());
+        break;
+      default:
+        throw new UnsupportedOperationException("Unknown data type " + chunkWriter.getDataType());
+    }
+  }
+
+  /////////////////////////////// Aligned ///////////////////////////////
+
+  private boolean rewriteAlignedDevice(final IDeviceID deviceId) throws IOException {
+    final List<AbstractAlignedChunkMetadata> alignedChunkMetadataList =
+        tsFileSequenceReader.getAlignedChunkMetadata(deviceId, !isTableModel);
+    if (alignedChunkMetadataList.isEmpty()) {
+      return true;
+    }
+
+    // The value columns matched by the pattern, which are in the same order in all the chunks
+    final List<Integer> columnIndexes = new ArrayList<>();
+    final List<IMeasurementSchema> columnSchemas = new ArrayList<>();
+    final int columnNum = alignedChunkMetadataList.get(0).getValueChunkMetadataList().size();
+    for (int i = 0; i < columnNum; ++i) {
+      final IChunkMetadata valueChunkMetadata =
+          getFirstNonNullValueChunkMetadata(alignedChunkMetadataList, i);
+      if (Objects.nonNull(valueChunkMetadata)
+          && matchesMeasurement(deviceId, valueChunkMetadata.getMeasurementUid())) {
+        columnIndexes.add(i);
+        columnSchemas.add(
+            new MeasurementSchema(
+                valueChunkMetadata.getMeasurementUid(), valueChunkMetadata.getDataType()));
+      }
+    }
+    if (columnIndexes.isEmpty()) {
+      // The rows with no fields of a table can't be rewritten without value chunks
+      return !isTableModel;
+    }
+
+    for (final AbstractAlignedChunkMetadata alignedChunkMetadata : alignedChunkMetadataList) {
+      if (isOutOfTimeRange(alignedChunkMetadata)) {
+        continue;
+      }
+
+      final List<IChunkMetadata> valueChunkMetadataList = new ArrayList<>(columnIndexes.size());
+      boolean hasValue = false;
+      for (final int columnIndex : columnIndexes) {
+        final IChunkMetadata valueChunkMetadata =
+            alignedChunkMetadata.getValueChunkMetadataList().get(columnIndex);
+        if (Objects.nonNull(valueChunkMetadata)
+            && valueChunkMetadata.getStatistics().getCount() > 0) {
+          valueChunkMetadataList.add(valueChunkMetadata);
+          hasValue = true;
+        } else {
+          valueChunkMetadataList.add(null);
+        }
+      }
+      // For tree model, the rows with only null values of the matched measurements are ignored
+      if (!hasValue && !isTableModel) {
+        continue;
+      }
+
+      if (isInTimeRange(alignedChunkMetadata)) {
+        copyAlignedChunk(
+            deviceId,
+            (ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata(),
+            valueChunkMetadataList,
+            columnSchemas);
+        ++copiedChunkNum;
+      } else {
+        if (!hasValue) {
+          return false;
+        }
+        decodeAlignedChunk(
+            deviceId,
+            (ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata(),
+            valueChunkMetadataList,
+            columnSchemas);
+        ++decodedChunkNum;
+      }
+    }
+    return true;
+  }
+
+  private static IChunkMetadata getFirstNonNullValueChunkMetadata(
+      final List<AbstractAlignedChunkMetadata> alignedChunkMetadataList, final int columnIndex) {
+    for (final AbstractAlignedChunkMetadata alignedChunkMetadata : alignedChunkMetadataList) {
+      final IChunkMetadata valueChunkMetadata =
+          alignedChunkMetadata.getValueChunkMetadataList().get(columnIndex);
+      if (Objects.nonNull(valueChunkMetadata)) {
+        return valueChunkMetadata;
+      }
+    }
+    return null;
+  }
+
+  private void copyAlignedChunk(
+      final IDeviceID deviceId,
+      final ChunkMetadata timeChunkMetadata,
+      final List<IChunkMetadata> valueChunkMetadataList,
+      final List<IMeasurementSchema> columnSchemas)
+      throws IOException {
+    startChunkGroupIfNecessary(deviceId);
+    writer.writeChunk(tsFileSequenceReader.readMemChunk(timeChunkMetadata), timeChunkMetadata);
+    for (int i = 0; i < valueChunkMetadataList.size(); ++i) {
+      final ChunkMetadata valueChunkMetadata = (ChunkMetadata) valueChunkMetadataList.get(i);
+      if (Objects.isNull(valueChunkMetadata)) {
+        // Keep the value chunks aligned with the time chunks
+        final IMeasurementSchema schema = columnSchemas.get(i);
+        writer.writeEmptyValueChunk(
+            schema.getMeasurementName(),
+            schema.getCompressor(),
+            schema.getType(),
+            schema.getEncodingType(),
+            Statistics.getStatsByType(schema.getType()));
+      } else {
+        writer.writeChunk(
+            tsFileSequenceReader.readMemChunk(valueChunkMetadata), valueChunkMetadata);
+      }
+    }
+  }
+
+  private void decodeAlignedChunk(
+      final IDeviceID deviceId,
+      final ChunkMetadata timeChunkMetadata,
+      final List<IChunkMetadata> valueChunkMetadataList,
+      final List<IMeasurementSchema> columnSchemas)
+      throws IOException {
+    final Chunk timeChunk = tsFileSequenceReader.readMemChunk(timeChunkMetadata);
+    final List<Chunk> valueChunks = new ArrayList<>();
+    // The index of each value chunk in the matched columns
+    final List<Integer> valueChunkColumnIndexes = new ArrayList<>();
+    final List<IMeasurementSchema> schemas = new ArrayList<>(columnSchemas);
+    for (int i = 0; i < valueChunkMetadataList.size(); ++i) {
+      final ChunkMetadata valueChunkMetadata = (ChunkMetadata) valueChunkMetadataList.get(i);
+      if (Objects.isNull(valueChunkMetadata)) {
+        continue;
+      }
+      final Chunk valueChunk = tsFileSequenceReader.readMemChunk(valueChunkMetadata);
+      final ChunkHeader header = valueChunk.getHeader();
+      valueChunks.add(valueChunk);
+      valueChunkColumnIndexes.add(i);
+      schemas.set(
+          i,
+          new MeasurementSchema(
+              header.getMeasurementID(),
+              header.getDataType(),
+              header.getEncodingType(),
+              header.getCompressionType()));
+    }
+
+    final AlignedChunkWriterImpl chunkWriter = new AlignedChunkWriterImpl(schemas);
+    final TsPrimitiveType[] row = new TsPrimitiveType[schemas.size()];
+    long pointNum = 0;
+    final AlignedChunkReader chunkReader =
+        new AlignedChunkReader(timeChunk, valueChunks, timeFilter);
+    while (chunkReader.hasNextSatisfiedPage()) {
+      final BatchData batchData = chunkReader.nextPageData();
+      while (batchData.hasCurrent()) {
+        final long time = batchData.currentTime();
+        if (startTime <= time && time <= endTime) {
+          final TsPrimitiveType[] values = batchData.getVector();
+          Arrays.fill(row, null);
+          for (int i = 0; i < valueChunkColumnIndexes.size(); ++i) {
+            row[valueChunkColumnIndexes.get(i)] = values[i];
+          }
+          chunkWriter.write(time, row);
+          ++pointNum;
+        }
+        batchData.next();
+      }
+    }
+
+    if (pointNum > 0) {
+      startChunkGroupIfNecessary(deviceId);
+      chunkWriter.writeToFileWriter(writer);
+    }
+  }
+
+  /////////////////////////////// Utils ///////////////////////////////
+
+  private void startChunkGroupIfNecessary(final IDeviceID deviceId) throws IOException {
+    if (Objects.isNull(currentChunkGroupDevice)) {
+      writer.startChunkGroup(deviceId);
+      currentChunkGroupDevice = deviceId;
+      isEmpty = false;
+    }
+  }
+
+  private boolean isOutOfTimeRange(final IChunkMetadata chunkMetadata) {
+    return chunkMetadata.getEndTime() < startTime || endTime < chunkMetadata.getStartTime();
+  }
+
+  private boolean isInTimeRange(final IChunkMetadata chunkMetadata) {
+    return startTime <= chunkMetadata.getStartTime() && chunkMetadata.getEndTime() <= endTime;
+  }
+
+  /**
+   * @return {@code true} if no data is written into the target TsFile
+   */
+  public boolean isEmpty() {
+    return isEmpty;
+  }
+
+  public int getCopiedChunkNum() {
+    return copiedChunkNum;
+  }
+
+  public int getDecodedChunkNum() {
+    return decodedChunkNum;
+  }
+
+  @Override
+  public void close() {
+    try {
+      tsFileSequenceReader.close();
+    } catch (final IOException e) {
+      LOGGER.warn("Failed to close TsFileSequenceReader", e);
+    }
+  }
+}
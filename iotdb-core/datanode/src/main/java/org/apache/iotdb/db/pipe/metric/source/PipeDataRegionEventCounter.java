@@ -21,6 +21,7 @@ package org.apache.iotdb.db.pipe.metric.source;
 
 import org.apache.iotdb.commons.pipe.metric.PipeEventCounter;
 import org.apache.iotdb.db.pipe.event.common.heartbeat.PipeHeartbeatEvent;
+import org.apache.iotdb.db.pipe.event.common.tablet.PipeSpilledInsertNodeEvent;
 import org.apache.iotdb.db.pipe.event.realtime.PipeRealtimeEvent;
 import org.apache.iotdb.pipe.api.event.Event;
 import org.apache.iotdb.pipe.api.event.dml.insertion.TabletInsertionEvent;
@@ -60,7 +61,8 @@ public class PipeDataRegionEventCounter extends PipeEventCounter {
     }
     if (event instanceof PipeHeartbeatEvent) {
       pipeHeartbeatEventCount.incrementAndGet();
-    } else if (event instanceof TabletInsertionEvent) {
+    } else if (event instanceof TabletInsertionEvent
+        || event instanceof PipeSpilledInsertNodeEvent) {
       tabletInsertionEventCount.incrementAndGet();
     } else if (event instanceof TsFileInsertionEvent) {
       tsFileInsertionEventCount.incrementAndGet();
@@ -77,7 +79,8 @@ public class PipeDataRegionEventCounter extends PipeEventCounter {
     }
     if (event instanceof PipeHeartbeatEvent) {
       pipeHeartbeatEventCount.decrementAndGet();
-    } else if (event instanceof TabletInsertionEvent) {
+    } else if (event instanceof TabletInsertionEvent
+        || event instanceof PipeSpilledInsertNodeEvent) {
       tabletInsertionEventCount.decrementAndGet();
     } else if (event instanceof TsFileInsertionEvent) {
       tsFileInsertionEventCount.decrementAndGet();
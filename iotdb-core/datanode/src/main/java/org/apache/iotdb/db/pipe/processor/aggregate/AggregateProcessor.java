@@ -31,11 +31,10 @@ import org.apache.iotdb.commons.pipe.event.EnrichedEvent;
 import org.apache.iotdb.commons.utils.PathUtils;
 import org.apache.iotdb.db.pipe.agent.PipeDataNodeAgent;
 import org.apache.iotdb.db.pipe.agent.plugin.dataregion.PipeDataRegionPluginAgent;
-import org.apache.iotdb.db.pipe.event.common.row.PipeResetTabletRow;
-import org.apache.iotdb.db.pipe.event.common.row.PipeRow;
-import org.apache.iotdb.db.pipe.event.common.row.PipeRowCollector;
+import org.apache.iotdb.db.pipe.event.common.row.PipeBinaryTransformer;
 import org.apache.iotdb.db.pipe.event.common.tablet.PipeInsertNodeTabletInsertionEvent;
 import org.apache.iotdb.db.pipe.event.common.tablet.PipeRawTabletInsertionEvent;
+import org.apache.iotdb.db.pipe.event.common.tablet.PipeTabletCollector;
 import org.apache.iotdb.db.pipe.event.common.tsfile.PipeTsFileInsertionEvent;
 import org.apache.iotdb.db.pipe.processor.aggregate.operator.aggregatedresult.AggregatedResultOperator;
 import org.apache.iotdb.db.pipe.processor.aggregate.operator.intermediateresult.IntermediateResultOperator;
@@ -45,10 +44,10 @@ import org.apache.iotdb.db.pipe.processor.aggregate.window.processor.AbstractWin
 import org.apache.iotdb.db.queryengine.transformation.dag.udf.UDFParametersFactory;
 import org.apache.iotdb.db.storageengine.StorageEngine;
 import org.apache.iotdb.pipe.api.PipeProcessor;
-import org.apache.iotdb.pipe.api.access.Row;
+import org.apache.iotdb.pipe.api.access.ColumnBatch;
 import org.apache.iotdb.pipe.api.annotation.TreeModel;
 import org.apache.iotdb.pipe.api.collector.EventCollector;
-import org.apache.iotdb.pipe.api.collector.RowCollector;
+import org.apache.iotdb.pipe.api.collector.TabletCollector;
 import org.apache.iotdb.pipe.api.customizer.configuration.PipeProcessorRuntimeConfiguration;
 import org.apache.iotdb.pipe.api.customizer.configuration.PipeRuntimeEnvironment;
 import org.apache.iotdb.pipe.api.customizer.parameter.PipeParameterValidator;
@@ -64,6 +63,8 @@ import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.BitMap;
 import org.apache.tsfile.utils.Pair;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
 import org.apache.tsfile.write.schema.MeasurementSchema;
 
 import java.io.IOException;
@@ -391,21 +392,20 @@ public class AggregateProcessor implements PipeProcessor {
         .set(System.currentTimeMillis());
 
     final AtomicReference<Exception> exception = new AtomicReference<>();
-    final TimeWindowStateProgressIndex[] progressIndex = {
-      new TimeWindowStateProgressIndex(new ConcurrentHashMap<>())
-    };
+    final Map<String, Pair<Long, ByteBuffer>> timeSeries2TimestampWindowBufferPairMap =
+        new HashMap<>();
 
     final Iterable<TabletInsertionEvent> outputEvents =
-        tabletInsertionEvent.processRowByRow(
-            (row, rowCollector) ->
-                progressIndex[0] =
-                    (TimeWindowStateProgressIndex)
-                        progressIndex[0].updateToMinimumEqualOrIsAfterProgressIndex(
-                            new TimeWindowStateProgressIndex(
-                                processRow(row, rowCollector, exception))));
+        tabletInsertionEvent.processColumnBatch(
+            (batch, collector) ->
+                processColumnBatch(
+                    batch, collector, timeSeries2TimestampWindowBufferPairMap, exception));
 
     // Must reset progressIndex before collection
-    ((EnrichedEvent) tabletInsertionEvent).bindProgressIndex(progressIndex[0]);
+    ((EnrichedEvent) tabletInsertionEvent)
+        .bindProgressIndex(
+            new TimeWindowStateProgressIndex(
+                new ConcurrentHashMap<>(timeSeries2TimestampWindowBufferPairMap)));
 
     outputEvents.forEach(
         event -> {
@@ -421,26 +421,30 @@ public class AggregateProcessor implements PipeProcessor {
     }
   }
 
-  private Map<String, Pair<Long, ByteBuffer>> processRow(
-      final Row row, final RowCollector rowCollector, final AtomicReference<Exception> exception) {
-    final Map<String, Pair<Long, ByteBuffer>> resultMap = new HashMap<>();
-
-    final long timestamp = row.getTime();
-    for (int index = 0, size = row.size(); index < size; ++index) {
-      // Do not calculate null values
-      if (row.isNull(index)) {
-        continue;
-      }
+  /**
+   * Update the windows of the timeSeries column by column, so that the state of a timeSeries is
+   * looked up and locked once per column instead of once per value.
+   */
+  private void processColumnBatch(
+      final ColumnBatch batch,
+      final TabletCollector collector,
+      final Map<String, Pair<Long, ByteBuffer>> timeSeries2TimestampWindowBufferPairMap,
+      final AtomicReference<Exception> exception) {
+    final int rowCount = batch.getRowCount();
+    final long[] times = batch.getTimes();
+
+    // All the timeSeries we stored are without database here if the parameters "outputDatabase"
+    // is configured, because we do not support the same timeSeries (all the same except database)
+    // in that mode, without the database we can save space and prevent string replacing problems.
+    final String devicePrefix =
+        (outputDatabaseWithPathSeparator.isEmpty()
+                ? batch.getDeviceId()
+                : batch.getDeviceId().replaceFirst(databaseWithPathSeparator, ""))
+            + TsFileConstant.PATH_SEPARATOR;
 
-      // All the timeSeries we stored are without database here if the parameters "outputDatabase"
-      // is configured, because we do not support the same timeSeries (all the same except database)
-      // in that mode, without the database we can save space and prevent string replacing problems.
-      final String timeSeries =
-          (outputDatabaseWithPathSeparator.isEmpty()
-                  ? row.getDeviceId()
-                  : row.getDeviceId().replaceFirst(databaseWithPathSeparator, ""))
-              + TsFileConstant.PATH_SEPARATOR
-              + row.getColumnName(index);
+    for (int index = 0, size = batch.getColumnCount(); index < size; ++index) {
+      final String timeSeries = devicePrefix + batch.getColumnName(index);
+      final boolean mayHaveNull = batch.mayHaveNull(index);
 
       final AtomicReference<TimeSeriesRuntimeState> stateReference =
           pipeName2timeSeries2TimeSeriesRuntimeStateMap
@@ -455,70 +459,162 @@ public class AggregateProcessor implements PipeProcessor {
                               systemParameters,
                               windowingProcessor)));
 
-      final Pair<List<WindowOutput>, Pair<Long, ByteBuffer>> result;
       synchronized (stateReference) {
         final TimeSeriesRuntimeState state = stateReference.get();
         try {
-          switch (row.getDataType(index)) {
+          switch (batch.getDataType(index)) {
             case BOOLEAN:
-              result =
-                  state.updateWindows(
-                      timestamp, row.getBoolean(index), outputMinReportIntervalMilliseconds);
+              final boolean[] booleanColumn = batch.getBooleanColumn(index);
+              for (int rowIndex = 0; rowIndex < rowCount; ++rowIndex) {
+                // Do not calculate null values
+                if (!mayHaveNull || !batch.isNull(rowIndex, index)) {
+                  handleResult(
+                      state.updateWindows(
+                          times[rowIndex],
+                          booleanColumn[rowIndex],
+                          outputMinReportIntervalMilliseconds),
+                      timeSeries,
+                      collector,
+                      timeSeries2TimestampWindowBufferPairMap);
+                }
+              }
               break;
             case INT32:
-              result =
-                  state.updateWindows(
-                      timestamp, row.getInt(index), outputMinReportIntervalMilliseconds);
+              final int[] intColumn = batch.getIntColumn(index);
+              for (int rowIndex = 0; rowIndex < rowCount; ++rowIndex) {
+                if (!mayHaveNull || !batch.isNull(rowIndex, index)) {
+                  handleResult(
+                      state.updateWindows(
+                          times[rowIndex],
+                          intColumn[rowIndex],
+                          outputMinReportIntervalMilliseconds),
+                      timeSeries,
+                      collector,
+                      timeSeries2TimestampWindowBufferPairMap);
+                }
+              }
               break;
             case DATE:
-              result =
-                  state.updateWindows(
-                      timestamp, row.getDate(index), outputMinReportIntervalMilliseconds);
+              final LocalDate[] dateColumn = batch.getDateColumn(index);
+              for (int rowIndex = 0; rowIndex < rowCount; ++rowIndex) {
+                if (!mayHaveNull || !batch.isNull(rowIndex, index)) {
+                  handleResult(
+                      state.updateWindows(
+                          times[rowIndex],
+                          dateColumn[rowIndex],
+                          outputMinReportIntervalMilliseconds),
+                      timeSeries,
+                      collector,
+                      timeSeries2TimestampWindowBufferPairMap);
+                }
+              }
               break;
             case INT64:
             case TIMESTAMP:
-              result =
-                  state.updateWindows(
-                      timestamp, row.getLong(index), outputMinReportIntervalMilliseconds);
+              final long[] longColumn = batch.getLongColumn(index);
+              for (int rowIndex = 0; rowIndex < rowCount; ++rowIndex) {
+                if (!mayHaveNull || !batch.isNull(rowIndex, index)) {
+                  handleResult(
+                      state.updateWindows(
+                          times[rowIndex],
+                          longColumn[rowIndex],
+                          outputMinReportIntervalMilliseconds),
+                      timeSeries,
+                      collector,
+                      timeSeries2TimestampWindowBufferPairMap);
+                }
+              }
               break;
             case FLOAT:
-              result =
-                  state.updateWindows(
-                      timestamp, row.getFloat(index), outputMinReportIntervalMilliseconds);
+              final float[] floatColumn = batch.getFloatColumn(index);
+              for (int rowIndex = 0; rowIndex < rowCount; ++rowIndex) {
+                if (!mayHaveNull || !batch.isNull(rowIndex, index)) {
+                  handleResult(
+                      state.updateWindows(
+                          times[rowIndex],
+                          floatColumn[rowIndex],
+                          outputMinReportIntervalMilliseconds),
+                      timeSeries,
+                      collector,
+                      timeSeries2TimestampWindowBufferPairMap);
+                }
+              }
               break;
             case DOUBLE:
-              result =
-                  state.updateWindows(
-                      timestamp, row.getDouble(index), outputMinReportIntervalMilliseconds);
+              final double[] doubleColumn = batch.getDoubleColumn(index);
+              for (int rowIndex = 0; rowIndex < rowCount; ++rowIndex) {
+                if (!mayHaveNull || !batch.isNull(rowIndex, index)) {
+                  handleResult(
+                      state.updateWindows(
+                          times[rowIndex],
+                          doubleColumn[rowIndex],
+                          outputMinReportIntervalMilliseconds),
+                      timeSeries,
+                      collector,
+                      timeSeries2TimestampWindowBufferPairMap);
+                }
+              }
               break;
             case TEXT:
             case STRING:
-              result =
-                  state.updateWindows(
-                      timestamp, row.getString(index), outputMinReportIntervalMilliseconds);
+              final Binary[] stringColumn = batch.getBinaryColumn(index);
+              for (int rowIndex = 0; rowIndex < rowCount; ++rowIndex) {
+                if (!mayHaveNull || !batch.isNull(rowIndex, index)) {
+                  handleResult(
+                      state.updateWindows(
+                          times[rowIndex],
+                          stringColumn[rowIndex].getStringValue(TSFileConfig.STRING_CHARSET),
+                          outputMinReportIntervalMilliseconds),
+                      timeSeries,
+                      collector,
+                      timeSeries2TimestampWindowBufferPairMap);
+                }
+              }
               break;
             case BLOB:
             case OBJECT:
-              result =
-                  state.updateWindows(
-                      timestamp, row.getBinary(index), outputMinReportIntervalMilliseconds);
+              final Binary[] binaryColumn = batch.getBinaryColumn(index);
+              for (int rowIndex = 0; rowIndex < rowCount; ++rowIndex) {
+                if (!mayHaveNull || !batch.isNull(rowIndex, index)) {
+                  handleResult(
+                      state.updateWindows(
+                          times[rowIndex],
+                          PipeBinaryTransformer.transformToPipeBinary(binaryColumn[rowIndex]),
+                          outputMinReportIntervalMilliseconds),
+                      timeSeries,
+                      collector,
+                      timeSeries2TimestampWindowBufferPairMap);
+                }
+              }
               break;
             default:
               throw new UnsupportedOperationException(
-                  String.format("The type %s is not supported", row.getDataType(index)));
-          }
-          if (Objects.nonNull(result)) {
-            collectWindowOutputs(result.getLeft(), timeSeries, rowCollector);
-            if (Objects.nonNull(result.getRight())) {
-              resultMap.put(timeSeries, result.getRight());
-            }
+                  String.format("The type %s is not supported", batch.getDataType(index)));
           }
         } catch (final IOException | UnsupportedOperationException e) {
           exception.set(e);
         }
       }
     }
-    return resultMap;
+  }
+
+  private void handleResult(
+      final Pair<List<WindowOutput>, Pair<Long, ByteBuffer>> result,
+      final String timeSeries,
+      final TabletCollector collector,
+      final Map<String, Pair<Long, ByteBuffer>> timeSeries2TimestampWindowBufferPairMap)
+      throws IOException {
+    if (Objects.isNull(result)) {
+      return;
+    }
+    collectWindowOutputs(result.getLeft(), timeSeries, collector);
+    if (Objects.nonNull(result.getRight())) {
+      // Keep the latest state of the timeSeries, like the progress index merged row by row
+      timeSeries2TimestampWindowBufferPairMap.merge(
+          timeSeries,
+          result.getRight(),
+          (oldPair, newPair) -> oldPair.getLeft() <= newPair.getLeft() ? newPair : oldPair);
+    }
   }
 
   @Override
@@ -576,15 +672,15 @@ public class AggregateProcessor implements PipeProcessor {
                 final AtomicReference<TimeSeriesRuntimeState> stateReference =
                     pipeName2timeSeries2TimeSeriesRuntimeStateMap.get(pipeName).get(timeSeries);
                 synchronized (stateReference) {
-                  final PipeRowCollector rowCollector =
-                      new PipeRowCollector(pipeTaskMeta, null, dataBaseName, isTableModel);
+                  final PipeTabletCollector tabletCollector =
+                      new PipeTabletCollector(pipeTaskMeta, null, dataBaseName, isTableModel);
                   try {
                     collectWindowOutputs(
-                        stateReference.get().forceOutput(), timeSeries, rowCollector);
+                        stateReference.get().forceOutput(), timeSeries, tabletCollector);
                   } catch (final IOException e) {
                     exception.set(e);
                   }
-                  rowCollector
+                  tabletCollector
                       .convertToTabletInsertionEvents(false)
                       .forEach(
                           tabletEvent -> {
@@ -617,10 +713,10 @@ public class AggregateProcessor implements PipeProcessor {
    *
    * @param outputs the {@link WindowOutput} output
    * @param timeSeries the timeSeries‘ name
-   * @param collector {@link RowCollector}
+   * @param collector {@link TabletCollector}
    */
   public void collectWindowOutputs(
-      final List<WindowOutput> outputs, final String timeSeries, final RowCollector collector)
+      final List<WindowOutput> outputs, final String timeSeries, final TabletCollector collector)
       throws IOException {
     if (Objects.isNull(outputs) || outputs.isEmpty()) {
       return;
@@ -753,12 +849,14 @@ public class AggregateProcessor implements PipeProcessor {
     }
 
     // Filter null outputs
-    final Integer[] originColumnIndex2FilteredColumnIndexMapperList =
-        new Integer[columnNameStringList.length];
-    int filteredCount = 0;
+    final List<IMeasurementSchema> filteredMeasurementSchemaList = new ArrayList<>();
+    final List<Object> filteredValueColumns = new ArrayList<>();
+    final List<BitMap> filteredBitMaps = new ArrayList<>();
     for (int i = 0; i < columnNameStringList.length; ++i) {
       if (!bitMaps[i].isAllMarked()) {
-        originColumnIndex2FilteredColumnIndexMapperList[i] = ++filteredCount;
+        filteredMeasurementSchemaList.add(measurementSchemaList[i]);
+        filteredValueColumns.add(valueColumns[i]);
+        filteredBitMaps.add(bitMaps[i]);
       }
     }
 
@@ -767,77 +865,15 @@ public class AggregateProcessor implements PipeProcessor {
             ? timeSeries
             : outputDatabaseWithPathSeparator + timeSeries;
 
-    if (filteredCount == columnNameStringList.length) {
-      // No filter, collect rows
-      for (int rowIndex = 0; rowIndex < distinctOutputs.size(); ++rowIndex) {
-        collector.collectRow(
-            rowIndex == 0
-                ? new PipeResetTabletRow(
-                    rowIndex,
-                    outputTimeSeries,
-                    false,
-                    measurementSchemaList,
-                    timestampColumn,
-                    valueColumnTypes,
-                    valueColumns,
-                    bitMaps,
-                    columnNameStringList)
-                : new PipeRow(
-                    rowIndex,
-                    outputTimeSeries,
-                    false,
-                    measurementSchemaList,
-                    timestampColumn,
-                    valueColumnTypes,
-                    valueColumns,
-                    bitMaps,
-                    columnNameStringList));
-      }
-    } else {
-      // Recompute the column arrays
-      final MeasurementSchema[] filteredMeasurementSchemaList =
-          new MeasurementSchema[filteredCount];
-      final String[] filteredColumnNameStringList = new String[filteredCount];
-      final TSDataType[] filteredValueColumnTypes = new TSDataType[filteredCount];
-      final Object[] filteredValueColumns = new Object[filteredCount];
-      final BitMap[] filteredBitMaps = new BitMap[filteredCount];
-
-      for (int i = 0; i < originColumnIndex2FilteredColumnIndexMapperList.length; i++) {
-        if (originColumnIndex2FilteredColumnIndexMapperList[i] != null) {
-          final int filteredColumnIndex = originColumnIndex2FilteredColumnIndexMapperList[i];
-          filteredMeasurementSchemaList[filteredColumnIndex] = measurementSchemaList[i];
-          filteredColumnNameStringList[filteredColumnIndex] = columnNameStringList[i];
-          filteredValueColumnTypes[filteredColumnIndex] = valueColumnTypes[i];
-          filteredBitMaps[filteredColumnIndex] = bitMaps[i];
-          filteredValueColumns[filteredColumnIndex] = valueColumns[i];
-        }
-      }
-      // Collect rows
-      for (int rowIndex = 0; rowIndex < distinctOutputs.size(); ++rowIndex) {
-        collector.collectRow(
-            rowIndex == 0
-                ? new PipeResetTabletRow(
-                    rowIndex,
-                    outputTimeSeries,
-                    false,
-                    filteredMeasurementSchemaList,
-                    timestampColumn,
-                    filteredValueColumnTypes,
-                    filteredValueColumns,
-                    filteredBitMaps,
-                    filteredColumnNameStringList)
-                : new PipeRow(
-                    rowIndex,
-                    outputTimeSeries,
-                    false,
-                    filteredMeasurementSchemaList,
-                    timestampColumn,
-                    filteredValueColumnTypes,
-                    filteredValueColumns,
-                    filteredBitMaps,
-                    filteredColumnNameStringList));
-      }
-    }
+    // Collect all the outputs of the timeSeries as a tablet
+    collector.collectTablet(
+        new Tablet(
+            outputTimeSeries,
+            filteredMeasurementSchemaList,
+            timestampColumn,
+            filteredValueColumns.toArray(),
+            filteredBitMaps.toArray(new BitMap[0]),
+            distinctOutputs.size()));
   }
 
   @Override
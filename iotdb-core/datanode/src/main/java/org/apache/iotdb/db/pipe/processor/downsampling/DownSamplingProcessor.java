@@ -26,9 +26,9 @@ import org.apache.iotdb.db.pipe.event.common.tablet.PipeRawTabletInsertionEvent;
 import org.apache.iotdb.db.pipe.event.common.tsfile.PipeTsFileInsertionEvent;
 import org.apache.iotdb.db.storageengine.StorageEngine;
 import org.apache.iotdb.pipe.api.PipeProcessor;
-import org.apache.iotdb.pipe.api.access.Row;
+import org.apache.iotdb.pipe.api.access.ColumnBatch;
+import org.apache.iotdb.pipe.api.collector.ColumnBatchCollector;
 import org.apache.iotdb.pipe.api.collector.EventCollector;
-import org.apache.iotdb.pipe.api.collector.RowCollector;
 import org.apache.iotdb.pipe.api.customizer.configuration.PipeProcessorRuntimeConfiguration;
 import org.apache.iotdb.pipe.api.customizer.parameter.PipeParameterValidator;
 import org.apache.iotdb.pipe.api.customizer.parameter.PipeParameters;
@@ -37,8 +37,13 @@ import org.apache.iotdb.pipe.api.event.dml.insertion.TabletInsertionEvent;
 import org.apache.iotdb.pipe.api.event.dml.insertion.TsFileInsertionEvent;
 
 import org.apache.tsfile.common.constant.TsFileConstant;
+import org.apache.tsfile.utils.Binary;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
 
 import static org.apache.iotdb.commons.pipe.config.constant.PipeProcessorConstant.PROCESSOR_DOWN_SAMPLING_MEMORY_LIMIT_IN_BYTES_DEFAULT_VALUE;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeProcessorConstant.PROCESSOR_DOWN_SAMPLING_MEMORY_LIMIT_IN_BYTES_KEY;
@@ -103,20 +108,21 @@ public abstract class DownSamplingProcessor implements PipeProcessor {
       return;
     }
 
-    final AtomicReference<String> deviceSuffix = new AtomicReference<>();
     final AtomicReference<Exception> exception = new AtomicReference<>();
 
     tabletInsertionEvent
-        .processRowByRow(
-            (row, rowCollector) -> {
+        .processColumnBatch(
+            (batch, collector) -> {
               // To reduce the memory usage, we use the device suffix
               // instead of the full path as the key.
-              if (deviceSuffix.get() == null) {
-                deviceSuffix.set(
-                    row.getDeviceId().replaceFirst(this.dataBaseNameWithPathSeparator, ""));
-              }
+              final String deviceSuffix =
+                  batch.getDeviceId().replaceFirst(this.dataBaseNameWithPathSeparator, "");
 
-              processRow(row, rowCollector, deviceSuffix.get(), exception);
+              try {
+                processColumnBatch(batch, collector, deviceSuffix);
+              } catch (Exception e) {
+                exception.set(e);
+              }
             })
         .forEach(
             event -> {
@@ -132,11 +138,72 @@ public abstract class DownSamplingProcessor implements PipeProcessor {
     }
   }
 
-  protected abstract void processRow(
-      Row row,
-      RowCollector rowCollector,
-      String deviceSuffix,
-      AtomicReference<Exception> exception);
+  /**
+   * Down-sample the rows of a device. The values of a column are processed in a tight loop over the
+   * primitive array, without boxing them into rows.
+   */
+  protected abstract void processColumnBatch(
+      ColumnBatch batch, ColumnBatchCollector collector, String deviceSuffix) throws IOException;
+
+  protected static String[] getTimeSeriesSuffixes(
+      final ColumnBatch batch, final String deviceSuffix) {
+    final String[] timeSeriesSuffixes = new String[batch.getColumnCount()];
+    for (int i = 0; i < timeSeriesSuffixes.length; ++i) {
+      timeSeriesSuffixes[i] = deviceSuffix + TsFileConstant.PATH_SEPARATOR + batch.getColumnName(i);
+    }
+    return timeSeriesSuffixes;
+  }
+
+  /**
+   * @return the accessor of the values in the column as double, or {@code null} if the column is
+   *     not numerical
+   */
+  protected static IntToDoubleFunction getNumericalColumn(
+      final ColumnBatch batch, final int columnIndex) {
+    switch (batch.getDataType(columnIndex)) {
+      case INT32:
+        final int[] intColumn = batch.getIntColumn(columnIndex);
+        return rowIndex -> intColumn[rowIndex];
+      case INT64:
+      case TIMESTAMP:
+        final long[] longColumn = batch.getLongColumn(columnIndex);
+        return rowIndex -> longColumn[rowIndex];
+      case FLOAT:
+        final float[] floatColumn = batch.getFloatColumn(columnIndex);
+        return rowIndex -> floatColumn[rowIndex];
+      case DOUBLE:
+        final double[] doubleColumn = batch.getDoubleColumn(columnIndex);
+        return rowIndex -> doubleColumn[rowIndex];
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * @return the accessor of the values in the non-numerical column
+   */
+  protected static IntFunction<Object> getNonNumericalColumn(
+      final ColumnBatch batch, final int columnIndex) {
+    switch (batch.getDataType(columnIndex)) {
+      case BOOLEAN:
+        final boolean[] booleanColumn = batch.getBooleanColumn(columnIndex);
+        return rowIndex -> booleanColumn[rowIndex];
+      case DATE:
+        final LocalDate[] dateColumn = batch.getDateColumn(columnIndex);
+        return rowIndex -> dateColumn[rowIndex];
+      case TEXT:
+      case STRING:
+      case BLOB:
+      case OBJECT:
+        final Binary[] binaryColumn = batch.getBinaryColumn(columnIndex);
+        return rowIndex -> binaryColumn[rowIndex];
+      default:
+        throw new UnsupportedOperationException(
+            String.format(
+                "The type %s is not supported in column %s",
+                batch.getDataType(columnIndex), batch.getColumnName(columnIndex)));
+    }
+  }
 
   /**
    * If data comes in {@link TsFileInsertionEvent}, we will not split it into {@link
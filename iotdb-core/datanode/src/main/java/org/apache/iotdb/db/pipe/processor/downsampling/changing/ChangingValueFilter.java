@@ -19,12 +19,9 @@
 
 package org.apache.iotdb.db.pipe.processor.downsampling.changing;
 
-import org.apache.iotdb.pipe.api.type.Binary;
-
-import java.time.LocalDate;
 import java.util.Objects;
 
-public class ChangingValueFilter<T> {
+public class ChangingValueFilter {
 
   private final ChangingValueSamplingProcessor processor;
 
@@ -34,67 +31,117 @@ public class ChangingValueFilter<T> {
    */
   private long lastStoredTimestamp;
 
-  private T lastStoredValue;
+  /**
+   * Whether the values are numerical. The numerical values are stored and compared as double to
+   * avoid boxing, and the others are compared by equality.
+   */
+  private boolean isNumerical;
+
+  private double lastStoredNumericalValue;
+
+  private Object lastStoredValue;
 
   public ChangingValueFilter(
       final ChangingValueSamplingProcessor processor,
       final long firstTimestamp,
-      final T firstValue) {
+      final double firstValue) {
     this.processor = processor;
     init(firstTimestamp, firstValue);
   }
 
-  private void init(final long firstTimestamp, final T firstValue) {
-    lastStoredTimestamp = firstTimestamp;
-    lastStoredValue = firstValue;
+  public ChangingValueFilter(
+      final ChangingValueSamplingProcessor processor,
+      final long firstTimestamp,
+      final Object firstValue) {
+    this.processor = processor;
+    init(firstTimestamp, firstValue);
   }
 
-  public boolean filter(final long timestamp, final T value) {
-    try {
-      return tryFilter(timestamp, value);
-    } catch (final Exception e) {
+  private void init(final long firstTimestamp, final double firstValue) {
+    isNumerical = true;
+    lastStoredValue = null;
+    reset(firstTimestamp, firstValue);
+  }
+
+  private void init(final long firstTimestamp, final Object firstValue) {
+    isNumerical = false;
+    reset(firstTimestamp, firstValue);
+  }
+
+  /** Filter a numerical value, i.e. INT32, INT64, TIMESTAMP, FLOAT or DOUBLE. */
+  public boolean filter(final long timestamp, final double value) {
+    // The data type of the time series has changed
+    if (!isNumerical) {
       init(timestamp, value);
       return true;
     }
-  }
-
-  private boolean tryFilter(final long timestamp, final T value) {
-    final long timeDiff = Math.abs(timestamp - lastStoredTimestamp);
 
-    if (timeDiff <= processor.getCompressionMinTimeInterval()) {
-      return false;
+    final int timeCheckResult = checkTime(timestamp);
+    if (timeCheckResult != 0) {
+      if (timeCheckResult > 0) {
+        reset(timestamp, value);
+      }
+      return timeCheckResult > 0;
     }
 
-    if (timeDiff >= processor.getCompressionMaxTimeInterval()) {
+    // For numerical types, we compare the value difference
+    if (Math.abs(lastStoredNumericalValue - value) > processor.getCompressionDeviation()) {
       reset(timestamp, value);
       return true;
     }
 
-    // For non-numerical types, we only compare the value
-    if (value instanceof Boolean
-        || value instanceof String
-        || value instanceof Binary
-        || value instanceof LocalDate) {
-      if (Objects.equals(lastStoredValue, value)) {
-        return false;
-      }
+    return false;
+  }
 
-      reset(timestamp, value);
+  /** Filter a non-numerical value, i.e. BOOLEAN, DATE, TEXT, STRING or BLOB. */
+  public boolean filter(final long timestamp, final Object value) {
+    // The data type of the time series has changed
+    if (isNumerical) {
+      init(timestamp, value);
       return true;
     }
 
-    // For other numerical types, we compare the value difference
-    if (Math.abs(
-            Double.parseDouble(lastStoredValue.toString()) - Double.parseDouble(value.toString()))
-        > processor.getCompressionDeviation()) {
-      reset(timestamp, value);
-      return true;
+    final int timeCheckResult = checkTime(timestamp);
+    if (timeCheckResult != 0) {
+      if (timeCheckResult > 0) {
+        reset(timestamp, value);
+      }
+      return timeCheckResult > 0;
     }
 
-    return false;
+    // For non-numerical types, we only compare the value
+    if (Objects.equals(lastStoredValue, value)) {
+      return false;
+    }
+
+    reset(timestamp, value);
+    return true;
+  }
+
+  /**
+   * @return negative if the point shall be discarded regardless of the value, positive if it shall
+   *     be stored regardless of the value, or 0 if the value decides
+   */
+  private int checkTime(final long timestamp) {
+    final long timeDiff = Math.abs(timestamp - lastStoredTimestamp);
+
+    if (timeDiff <= processor.getCompressionMinTimeInterval()) {
+      return -1;
+    }
+
+    if (timeDiff >= processor.getCompressionMaxTimeInterval()) {
+      return 1;
+    }
+
+    return 0;
+  }
+
+  private void reset(final long timestamp, final double value) {
+    lastStoredTimestamp = timestamp;
+    lastStoredNumericalValue = value;
   }
 
-  private void reset(final long timestamp, final T value) {
+  private void reset(final long timestamp, final Object value) {
     lastStoredTimestamp = timestamp;
     lastStoredValue = value;
   }
@@ -20,23 +20,23 @@
 package org.apache.iotdb.db.pipe.processor.downsampling.changing;
 
 import org.apache.iotdb.commons.pipe.config.constant.PipeProcessorConstant;
-import org.apache.iotdb.db.pipe.event.common.row.PipeRemarkableRow;
-import org.apache.iotdb.db.pipe.event.common.row.PipeRow;
 import org.apache.iotdb.db.pipe.processor.downsampling.DownSamplingProcessor;
 import org.apache.iotdb.db.pipe.processor.downsampling.PartialPathLastObjectCache;
-import org.apache.iotdb.pipe.api.access.Row;
+import org.apache.iotdb.pipe.api.access.ColumnBatch;
 import org.apache.iotdb.pipe.api.annotation.TreeModel;
-import org.apache.iotdb.pipe.api.collector.RowCollector;
+import org.apache.iotdb.pipe.api.collector.ColumnBatchCollector;
 import org.apache.iotdb.pipe.api.customizer.configuration.PipeProcessorRuntimeConfiguration;
 import org.apache.iotdb.pipe.api.customizer.parameter.PipeParameterValidator;
 import org.apache.iotdb.pipe.api.customizer.parameter.PipeParameters;
 
-import org.apache.tsfile.common.constant.TsFileConstant;
+import org.apache.tsfile.utils.BitMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
 
 @TreeModel
 public class ChangingValueSamplingProcessor extends DownSamplingProcessor {
@@ -64,7 +64,7 @@ public class ChangingValueSamplingProcessor extends DownSamplingProcessor {
    */
   private long compressionMaxTimeInterval;
 
-  private PartialPathLastObjectCache<ChangingValueFilter<?>> pathLastObjectCache;
+  private PartialPathLastObjectCache<ChangingValueFilter> pathLastObjectCache;
 
   @Override
   public void validate(PipeParameterValidator validator) throws Exception {
@@ -137,9 +137,9 @@ public class ChangingValueSamplingProcessor extends DownSamplingProcessor {
   @Override
   protected PartialPathLastObjectCache<?> initPathLastObjectCache(long memoryLimitInBytes) {
     pathLastObjectCache =
-        new PartialPathLastObjectCache<ChangingValueFilter<?>>(memoryLimitInBytes) {
+        new PartialPathLastObjectCache<ChangingValueFilter>(memoryLimitInBytes) {
           @Override
-          protected long calculateMemoryUsage(ChangingValueFilter<?> object) {
+          protected long calculateMemoryUsage(ChangingValueFilter object) {
             return 64; // Long.BYTES * 8
           }
         };
@@ -147,44 +147,58 @@ public class ChangingValueSamplingProcessor extends DownSamplingProcessor {
   }
 
   @Override
-  protected void processRow(
-      Row row,
-      RowCollector rowCollector,
-      String deviceSuffix,
-      AtomicReference<Exception> exception) {
-    final PipeRemarkableRow remarkableRow = new PipeRemarkableRow((PipeRow) row);
-
-    boolean hasNonNullMeasurements = false;
-    for (int i = 0, size = row.size(); i < size; i++) {
-      if (row.isNull(i)) {
-        continue;
-      }
-
-      final String timeSeriesSuffix =
-          deviceSuffix + TsFileConstant.PATH_SEPARATOR + row.getColumnName(i);
-      final ChangingValueFilter filter =
-          pathLastObjectCache.getPartialPathLastObject(timeSeriesSuffix);
+  protected void processColumnBatch(
+      ColumnBatch batch, ColumnBatchCollector collector, String deviceSuffix) throws IOException {
+    final int rowCount = batch.getRowCount();
+    final int columnCount = batch.getColumnCount();
+    final long[] times = batch.getTimes();
+    final String[] timeSeriesSuffixes = getTimeSeriesSuffixes(batch, deviceSuffix);
+
+    final boolean[] hasNonNullMeasurements = new boolean[rowCount];
+    final BitMap[] discardedValues = new BitMap[columnCount];
+    for (int i = 0; i < columnCount; ++i) {
+      final boolean mayHaveNull = batch.mayHaveNull(i);
+      final IntToDoubleFunction numericalColumn = getNumericalColumn(batch, i);
+      final IntFunction<Object> nonNumericalColumn =
+          Objects.isNull(numericalColumn) ? getNonNumericalColumn(batch, i) : null;
+
+      ChangingValueFilter filter =
+          pathLastObjectCache.getPartialPathLastObject(timeSeriesSuffixes[i]);
+      for (int rowIndex = 0; rowIndex < rowCount; ++rowIndex) {
+        if (mayHaveNull && batch.isNull(rowIndex, i)) {
+          continue;
+        }
 
-      if (filter != null) {
-        if (filter.filter(row.getTime(), row.getObject(i))) {
-          hasNonNullMeasurements = true;
+        if (filter == null) {
+          filter =
+              Objects.nonNull(numericalColumn)
+                  ? new ChangingValueFilter(
+                      this, times[rowIndex], numericalColumn.applyAsDouble(rowIndex))
+                  : new ChangingValueFilter(
+                      this, times[rowIndex], nonNumericalColumn.apply(rowIndex));
+          pathLastObjectCache.setPartialPathLastObject(timeSeriesSuffixes[i], filter);
+          hasNonNullMeasurements[rowIndex] = true;
+        } else if (Objects.nonNull(numericalColumn)
+            ? filter.filter(times[rowIndex], numericalColumn.applyAsDouble(rowIndex))
+            : filter.filter(times[rowIndex], nonNumericalColumn.apply(rowIndex))) {
+          hasNonNullMeasurements[rowIndex] = true;
         } else {
-          remarkableRow.markNull(i);
+          if (discardedValues[i] == null) {
+            discardedValues[i] = new BitMap(rowCount);
+          }
+          discardedValues[i].mark(rowIndex);
         }
-      } else {
-        hasNonNullMeasurements = true;
-        pathLastObjectCache.setPartialPathLastObject(
-            timeSeriesSuffix, new ChangingValueFilter<>(this, row.getTime(), row.getObject(i)));
       }
     }
 
-    if (hasNonNullMeasurements) {
-      try {
-        rowCollector.collectRow(remarkableRow);
-      } catch (IOException e) {
-        exception.set(e);
+    final int[] selectedRowIndexes = new int[rowCount];
+    int selectedRowCount = 0;
+    for (int rowIndex = 0; rowIndex < rowCount; ++rowIndex) {
+      if (hasNonNullMeasurements[rowIndex]) {
+        selectedRowIndexes[selectedRowCount++] = rowIndex;
       }
     }
+    collector.collectRows(batch, selectedRowIndexes, selectedRowCount, discardedValues);
   }
 
   double getCompressionDeviation() {
@@ -19,12 +19,9 @@
 
 package org.apache.iotdb.db.pipe.processor.downsampling.sdt;
 
-import org.apache.iotdb.pipe.api.type.Binary;
-
-import java.time.LocalDate;
 import java.util.Objects;
 
-public class SwingingDoorTrendingFilter<T> {
+public class SwingingDoorTrendingFilter {
 
   private final SwingingDoorTrendingSamplingProcessor processor;
 
@@ -40,13 +37,19 @@ public class SwingingDoorTrendingFilter<T> {
    */
   private double lowerDoor;
 
+  /**
+   * Whether the values are numerical. The numerical values are stored and compared as double to
+   * avoid boxing, and the others are compared by equality.
+   */
+  private boolean isNumerical;
+
   /**
    * The last read time and value if upperDoor >= lowerDoor meaning out of compressionDeviation
    * range, will store lastReadTimestamp and lastReadValue
    */
   private long lastReadTimestamp;
 
-  private T lastReadValue;
+  private double lastReadNumericalValue;
 
   /**
    * The last stored time and value we compare current point against lastReadTimestamp and
@@ -54,66 +57,60 @@ public class SwingingDoorTrendingFilter<T> {
    */
   private long lastStoredTimestamp;
 
-  private T lastStoredValue;
+  private double lastStoredNumericalValue;
+
+  private Object lastStoredValue;
 
   public SwingingDoorTrendingFilter(
       final SwingingDoorTrendingSamplingProcessor processor,
       final long firstTimestamp,
-      final T firstValue) {
+      final double firstValue) {
     this.processor = processor;
     init(firstTimestamp, firstValue);
   }
 
-  private void init(final long firstTimestamp, final T firstValue) {
-    upperDoor = Double.MIN_VALUE;
-    lowerDoor = Double.MAX_VALUE;
+  public SwingingDoorTrendingFilter(
+      final SwingingDoorTrendingSamplingProcessor processor,
+      final long firstTimestamp,
+      final Object firstValue) {
+    this.processor = processor;
+    init(firstTimestamp, firstValue);
+  }
+
+  private void init(final long firstTimestamp, final double firstValue) {
+    isNumerical = true;
+    lastStoredValue = null;
 
     lastReadTimestamp = firstTimestamp;
-    lastReadValue = firstValue;
+    lastReadNumericalValue = firstValue;
 
-    lastStoredTimestamp = firstTimestamp;
-    lastStoredValue = firstValue;
+    reset(firstTimestamp, firstValue);
   }
 
-  public boolean filter(final long timestamp, final T value) {
-    try {
-      return tryFilter(timestamp, value);
-    } catch (final Exception e) {
-      init(timestamp, value);
-      return true;
-    }
+  private void init(final long firstTimestamp, final Object firstValue) {
+    isNumerical = false;
+    reset(firstTimestamp, firstValue);
   }
 
-  private boolean tryFilter(final long timestamp, final T value) {
-    final long timeDiff = timestamp - lastStoredTimestamp;
-    final long absTimeDiff = Math.abs(timeDiff);
-
-    if (absTimeDiff <= processor.getCompressionMinTimeInterval()) {
-      return false;
-    }
-
-    if (absTimeDiff >= processor.getCompressionMaxTimeInterval()) {
-      reset(timestamp, value);
+  /** Filter a numerical value, i.e. INT32, INT64, TIMESTAMP, FLOAT or DOUBLE. */
+  public boolean filter(final long timestamp, final double value) {
+    // The data type of the time series has changed
+    if (!isNumerical) {
+      init(timestamp, value);
       return true;
     }
 
-    // For boolean and string type, we only compare the value
-    if (value instanceof Boolean
-        || value instanceof String
-        || value instanceof Binary
-        || value instanceof LocalDate) {
-      if (Objects.equals(lastStoredValue, value)) {
-        return false;
+    final long timeDiff = timestamp - lastStoredTimestamp;
+    final int timeCheckResult = checkTime(timeDiff);
+    if (timeCheckResult != 0) {
+      if (timeCheckResult > 0) {
+        reset(timestamp, value);
       }
-
-      reset(timestamp, value);
-      return true;
+      return timeCheckResult > 0;
     }
 
-    // For other numerical types, we compare the value and the time difference
-    final double doubleValue = Double.parseDouble(value.toString());
-    final double lastStoredDoubleValue = Double.parseDouble(lastStoredValue.toString());
-    final double valueDiff = doubleValue - lastStoredDoubleValue;
+    // For numerical types, we compare the value and the time difference
+    final double valueDiff = value - lastStoredNumericalValue;
 
     final double currentUpperSlope = (valueDiff - processor.getCompressionDeviation()) / timeDiff;
     if (currentUpperSlope > upperDoor) {
@@ -127,24 +124,75 @@ public class SwingingDoorTrendingFilter<T> {
 
     if (upperDoor > lowerDoor) {
       lastStoredTimestamp = lastReadTimestamp;
-      lastStoredValue = lastReadValue;
+      lastStoredNumericalValue = lastReadNumericalValue;
 
       upperDoor = currentUpperSlope;
       lowerDoor = currentLowerSlope;
 
-      lastReadValue = value;
+      lastReadNumericalValue = value;
       lastReadTimestamp = timestamp;
 
       return true;
     }
 
-    lastReadValue = value;
+    lastReadNumericalValue = value;
     lastReadTimestamp = timestamp;
 
     return false;
   }
 
-  private void reset(final long timestamp, final T value) {
+  /** Filter a non-numerical value, i.e. BOOLEAN, DATE, TEXT, STRING or BLOB. */
+  public boolean filter(final long timestamp, final Object value) {
+    // The data type of the time series has changed
+    if (isNumerical) {
+      init(timestamp, value);
+      return true;
+    }
+
+    final int timeCheckResult = checkTime(timestamp - lastStoredTimestamp);
+    if (timeCheckResult != 0) {
+      if (timeCheckResult > 0) {
+        reset(timestamp, value);
+      }
+      return timeCheckResult > 0;
+    }
+
+    // For boolean and string type, we only compare the value
+    if (Objects.equals(lastStoredValue, value)) {
+      return false;
+    }
+
+    reset(timestamp, value);
+    return true;
+  }
+
+  /**
+   * @return negative if the point shall be discarded regardless of the value, positive if it shall
+   *     be stored regardless of the value, or 0 if the value decides
+   */
+  private int checkTime(final long timeDiff) {
+    final long absTimeDiff = Math.abs(timeDiff);
+
+    if (absTimeDiff <= processor.getCompressionMinTimeInterval()) {
+      return -1;
+    }
+
+    if (absTimeDiff >= processor.getCompressionMaxTimeInterval()) {
+      return 1;
+    }
+
+    return 0;
+  }
+
+  private void reset(final long timestamp, final double value) {
+    upperDoor = Double.MIN_VALUE;
+    lowerDoor = Double.MAX_VALUE;
+
+    lastStoredTimestamp = timestamp;
+    lastStoredNumericalValue = value;
+  }
+
+  private void reset(final long timestamp, final Object value) {
     upperDoor = Double.MIN_VALUE;
     lowerDoor = Double.MAX_VALUE;
 
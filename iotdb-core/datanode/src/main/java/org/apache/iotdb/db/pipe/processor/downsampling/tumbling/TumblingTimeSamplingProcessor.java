@@ -22,19 +22,18 @@ package org.apache.iotdb.db.pipe.processor.downsampling.tumbling;
 import org.apache.iotdb.db.pipe.processor.downsampling.DownSamplingProcessor;
 import org.apache.iotdb.db.pipe.processor.downsampling.PartialPathLastObjectCache;
 import org.apache.iotdb.db.utils.TimestampPrecisionUtils;
-import org.apache.iotdb.pipe.api.access.Row;
+import org.apache.iotdb.pipe.api.access.ColumnBatch;
 import org.apache.iotdb.pipe.api.annotation.TreeModel;
-import org.apache.iotdb.pipe.api.collector.RowCollector;
+import org.apache.iotdb.pipe.api.collector.ColumnBatchCollector;
 import org.apache.iotdb.pipe.api.customizer.configuration.PipeProcessorRuntimeConfiguration;
 import org.apache.iotdb.pipe.api.customizer.parameter.PipeParameterValidator;
 import org.apache.iotdb.pipe.api.customizer.parameter.PipeParameters;
 
-import org.apache.tsfile.common.constant.TsFileConstant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
 
 import static org.apache.iotdb.commons.pipe.config.constant.PipeProcessorConstant.PROCESSOR_DOWN_SAMPLING_MEMORY_LIMIT_IN_BYTES_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeProcessorConstant.PROCESSOR_DOWN_SAMPLING_SPLIT_FILE_KEY;
@@ -99,39 +98,58 @@ public class TumblingTimeSamplingProcessor extends DownSamplingProcessor {
   }
 
   @Override
-  protected void processRow(
-      Row row,
-      RowCollector rowCollector,
-      String deviceSuffix,
-      AtomicReference<Exception> exception) {
-    for (int index = 0, size = row.size(); index < size; ++index) {
-      if (row.isNull(index)) {
-        continue;
+  protected void processColumnBatch(
+      ColumnBatch batch, ColumnBatchCollector collector, String deviceSuffix)
+      throws IOException {
+    final int rowCount = batch.getRowCount();
+    final int columnCount = batch.getColumnCount();
+    final long[] times = batch.getTimes();
+
+    final String[] timeSeriesSuffixes = getTimeSeriesSuffixes(batch, deviceSuffix);
+    final long[] lastSampleTimes = new long[columnCount];
+    final boolean[] hasLastSampleTime = new boolean[columnCount];
+    final boolean[] isLastSampleTimeUpdated = new boolean[columnCount];
+    final boolean[] mayHaveNull = new boolean[columnCount];
+    for (int i = 0; i < columnCount; ++i) {
+      final Long lastSampleTime =
+          pathLastObjectCache.getPartialPathLastObject(timeSeriesSuffixes[i]);
+      if (lastSampleTime != null) {
+        lastSampleTimes[i] = lastSampleTime;
+        hasLastSampleTime[i] = true;
       }
+      mayHaveNull[i] = batch.mayHaveNull(i);
+    }
+
+    final int[] selectedRowIndexes = new int[rowCount];
+    int selectedRowCount = 0;
+    for (int rowIndex = 0; rowIndex < rowCount; ++rowIndex) {
+      final long currentRowTime = times[rowIndex];
+      for (int index = 0; index < columnCount; ++index) {
+        if (mayHaveNull[index] && batch.isNull(rowIndex, index)) {
+          continue;
+        }
 
-      final String timeSeriesSuffix =
-          deviceSuffix + TsFileConstant.PATH_SEPARATOR + row.getColumnName(index);
-      final long currentRowTime = row.getTime();
-      final Long lastSampleTime = pathLastObjectCache.getPartialPathLastObject(timeSeriesSuffix);
-
-      if (lastSampleTime == null
-          || Math.abs(currentRowTime - lastSampleTime) >= intervalInCurrentPrecision) {
-        try {
-          rowCollector.collectRow(row);
-
-          pathLastObjectCache.setPartialPathLastObject(timeSeriesSuffix, currentRowTime);
-          for (int j = index + 1; j < size; ++j) {
-            if (!row.isNull(j)) {
-              pathLastObjectCache.setPartialPathLastObject(
-                  deviceSuffix + TsFileConstant.PATH_SEPARATOR + row.getColumnName(j),
-                  currentRowTime);
+        if (!hasLastSampleTime[index]
+            || Math.abs(currentRowTime - lastSampleTimes[index]) >= intervalInCurrentPrecision) {
+          selectedRowIndexes[selectedRowCount++] = rowIndex;
+          for (int j = index; j < columnCount; ++j) {
+            if (!mayHaveNull[j] || !batch.isNull(rowIndex, j)) {
+              lastSampleTimes[j] = currentRowTime;
+              hasLastSampleTime[j] = true;
+              isLastSampleTimeUpdated[j] = true;
             }
           }
-          return;
-        } catch (Exception e) {
-          exception.set(e);
+          break;
         }
       }
     }
+
+    for (int i = 0; i < columnCount; ++i) {
+      if (isLastSampleTimeUpdated[i]) {
+        pathLastObjectCache.setPartialPathLastObject(timeSeriesSuffixes[i], lastSampleTimes[i]);
+      }
+    }
+
+    collector.collectRows(batch, selectedRowIndexes, selectedRowCount);
   }
 }
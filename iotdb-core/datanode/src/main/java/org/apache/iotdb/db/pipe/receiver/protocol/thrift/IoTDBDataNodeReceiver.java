@@ -182,8 +182,6 @@ public class IoTDBDataNodeReceiver extends IoTDBFileReceiver {
 
   private static final PipeConfig PIPE_CONFIG = PipeConfig.getInstance();
 
-  private PipeMemoryBlock allocatedMemoryBlock;
-
   static {
     try {
       folderManager =
@@ -486,6 +484,14 @@ public class IoTDBDataNodeReceiver extends IoTDBFileReceiver {
   private TPipeTransferResp handleTransferTabletBatch(final PipeTransferTabletBatchReq req) {
     final Pair<InsertRowsStatement, InsertMultiTabletsStatement> statementPair =
         req.constructStatements();
+    if (PIPE_CONFIG.isPipeReceiverParallelApplyEnabled()) {
+      return new TPipeTransferResp(
+          PipeReceiverStatusHandler.getPriorStatus(
+              executeBatchStatementsInParallel(
+                  Stream.of(statementPair.getLeft(), statementPair.getRight())
+                      .filter(statement -> !statement.isEmpty())
+                      .collect(Collectors.toList()))));
+    }
     return new TPipeTransferResp(
         PipeReceiverStatusHandler.getPriorStatus(
             Stream.of(
@@ -500,6 +506,10 @@ public class IoTDBDataNodeReceiver extends IoTDBFileReceiver {
 
   private TPipeTransferResp handleTransferTabletBatchV2(final PipeTransferTabletBatchReqV2 req) {
     final List<InsertBaseStatement> statementSet = req.constructStatements();
+    if (PIPE_CONFIG.isPipeReceiverParallelApplyEnabled()) {
+      return new TPipeTransferResp(
+          PipeReceiverStatusHandler.getPriorStatus(executeBatchStatementsInParallel(statementSet)));
+    }
     return new TPipeTransferResp(
         PipeReceiverStatusHandler.getPriorStatus(
             (statementSet.isEmpty()
@@ -508,6 +518,26 @@ public class IoTDBDataNodeReceiver extends IoTDBFileReceiver {
                 .collect(Collectors.toList())));
   }
 
+  /**
+   * Apply the statements of a batch by {@link PipeStatementParallelApplier}, which partitions them
+   * by device and applies the partitions concurrently on behalf of the current session.
+   */
+  private List<TSStatus> executeBatchStatementsInParallel(
+      final List<InsertBaseStatement> statements) {
+    if (statements.isEmpty()) {
+      return Collections.singletonList(RpcUtils.SUCCESS_STATUS);
+    }
+
+    // Login in advance, so that the appliers need not login concurrently
+    final TSStatus loginStatus = loginIfNecessary();
+    if (loginStatus.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+      return Collections.singletonList(loginStatus);
+    }
+
+    return PipeStatementParallelApplier.getInstance()
+        .apply(statements, this::executeBatchStatementAndAddRedirectInfo);
+  }
+
   @Override
   protected String getClusterId() {
     return IoTDBDescriptor.getInstance().getConfig().getClusterId();
@@ -792,6 +822,8 @@ public class IoTDBDataNodeReceiver extends IoTDBFileReceiver {
   private TSStatus executeStatementAndClassifyExceptions(
       final Statement statement, final int tryCount) {
     long estimatedMemory = 0L;
+    // Local to the execution, since the statements of a batch may be executed concurrently
+    PipeMemoryBlock allocatedMemoryBlock = null;
     final double pipeReceiverActualToEstimatedMemoryRatio =
         PIPE_CONFIG.getPipeReceiverActualToEstimatedMemoryRatio();
     try {
@@ -853,7 +885,6 @@ public class IoTDBDataNodeReceiver extends IoTDBFileReceiver {
     } finally {
       if (Objects.nonNull(allocatedMemoryBlock)) {
         allocatedMemoryBlock.close();
-        allocatedMemoryBlock = null;
       }
     }
   }
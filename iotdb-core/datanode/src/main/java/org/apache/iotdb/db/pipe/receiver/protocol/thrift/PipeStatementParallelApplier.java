@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.receiver.protocol.thrift;
+
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.partition.executor.SeriesPartitionExecutor;
+import org.apache.iotdb.commons.pipe.config.PipeConfig;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.protocol.session.IClientSession;
+import org.apache.iotdb.db.protocol.session.SessionManager;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertBaseStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertMultiTabletsStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowsStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertTabletStatement;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Applies the statements of a batch received by the pipe receiver concurrently.
+ *
+ * <p>The rows and tablets of the statements are partitioned into lanes by the database and the
+ * series partition slot of their devices, so the writes of the same data region tend to be applied
+ * in the same lane. Each lane applies its share of the statements in the order of the batch, hence
+ * the order of the writes of each device is preserved. The batch is responded only after all the
+ * lanes are done, so the sender still commits the progress of the batch as a whole.
+ *
+ * <p>The number of lanes adapts to the write backpressure of this node: it's halved once any lane
+ * is rejected, and increased by one after each batch applied without rejection, up to {@link
+ * PipeConfig#getPipeReceiverParallelApplyMaxParallelism()}.
+ */
+public class PipeStatementParallelApplier {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PipeStatementParallelApplier.class);
+
+  private static final IoTDBConfig IOTDB_CONFIG = IoTDBDescriptor.getInstance().getConfig();
+  private static final PipeConfig PIPE_CONFIG = PipeConfig.getInstance();
+  private static final SessionManager SESSION_MANAGER = SessionManager.getInstance();
+
+  private static final Set<Integer> BACKPRESSURE_STATUS_CODES =
+      new HashSet<>(
+          Arrays.asList(
+              TSStatusCode.WRITE_PROCESS_REJECT.getStatusCode(),
+              TSStatusCode.PIPE_RECEIVER_TEMPORARY_UNAVAILABLE_EXCEPTION.getStatusCode(),
+              TSStatusCode.MPP_MEMORY_NOT_ENOUGH.getStatusCode()));
+
+  private final SeriesPartitionExecutor partitionExecutor =
+      SeriesPartitionExecutor.getSeriesPartitionExecutor(
+          IOTDB_CONFIG.getSeriesPartitionExecutorClass(), IOTDB_CONFIG.getSeriesPartitionSlotNum());
+
+  private final ExecutorService applyExecutor =
+      IoTDBThreadPoolFactory.newCachedThreadPool(
+          ThreadName.PIPE_RECEIVER_PARALLEL_APPLY_POOL.getName());
+
+  private final AtomicInteger parallelism =
+      new AtomicInteger(PIPE_CONFIG.getPipeReceiverParallelApplyMaxParallelism());
+
+  /**
+   * Apply the statements concurrently on behalf of the current session.
+   *
+   * @param executor executes a statement and returns its status, which must be thread-safe
+   * @return the statuses of all the statements applied, in no particular order
+   */
+  public List<TSStatus> apply(
+      final List<InsertBaseStatement> statements,
+      final Function<InsertBaseStatement, TSStatus> executor) {
+    final List<List<InsertBaseStatement>> lanes = partition(statements, getParallelism());
+    if (lanes.size() <= 1) {
+      final List<TSStatus> statuses =
+          applyLane(lanes.isEmpty() ? statements : lanes.get(0), executor);
+      adjustParallelism(statuses);
+      return statuses;
+    }
+
+    final IClientSession session = SESSION_MANAGER.getCurrSession();
+    final List<Future<List<TSStatus>>> futures = new ArrayList<>(lanes.size() - 1);
+    for (final List<InsertBaseStatement> lane : lanes.subList(1, lanes.size())) {
+      futures.add(
+          applyExecutor.submit(
+              () -> {
+                SESSION_MANAGER.bindSessionToCurrentThread(session);
+                try {
+                  return applyLane(lane, executor);
+                } finally {
+                  SESSION_MANAGER.unbindSessionFromCurrentThread();
+                }
+              }));
+    }
+
+    // The first lane is applied by the current thread
+    final List<TSStatus> statuses = new ArrayList<>(applyLane(lanes.get(0), executor));
+    for (final Future<List<TSStatus>> future : futures) {
+      statuses.addAll(getLaneStatuses(future));
+    }
+    adjustParallelism(statuses);
+    return statuses;
+  }
+
+  private static List<TSStatus> applyLane(
+      final List<InsertBaseStatement> lane,
+      final Function<InsertBaseStatement, TSStatus> executor) {
+    final List<TSStatus> statuses = new ArrayList<>(lane.size());
+    for (final InsertBaseStatement statement : lane) {
+      statuses.add(executor.apply(statement));
+    }
+    return statuses;
+  }
+
+  private static List<TSStatus> getLaneStatuses(final Future<List<TSStatus>> future) {
+    try {
+      return future.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Collections.singletonList(
+          RpcUtils.getStatus(
+              TSStatusCode.PIPE_RECEIVER_TEMPORARY_UNAVAILABLE_EXCEPTION,
+              "Interrupted when applying statements in parallel."));
+    } catch (final ExecutionException e) {
+      LOGGER.warn("Exception occurred when applying statements in parallel.", e.getCause());
+      return Collections.singletonList(
+          RpcUtils.getStatus(
+              TSStatusCode.PIPE_RECEIVER_TEMPORARY_UNAVAILABLE_EXCEPTION,
+              "Exception occurred when applying statements in parallel: "
+                  + e.getCause().getMessage()));
+    }
+  }
+
+  /////////////////////////////// Partition ///////////////////////////////
+
+  /**
+   * Partition the statements into at most laneNum lanes. The statements batching multiple devices
+   * are split by device, and the split statements keep the order of the original ones in each lane.
+   */
+  List<List<InsertBaseStatement>> partition(
+      final List<InsertBaseStatement> statements, final int laneNum) {
+    if (laneNum <= 1) {
+      return Collections.singletonList(statements);
+    }
+
+    final Map<Integer, List<InsertBaseStatement>> lanes = new LinkedHashMap<>();
+    for (final InsertBaseStatement statement : statements) {
+      if (statement instanceof InsertRowsStatement) {
+        final Map<Integer, List<InsertRowStatement>> laneRows = new LinkedHashMap<>();
+        for (final InsertRowStatement row :
+            ((InsertRowsStatement) statement).getInsertRowStatementList()) {
+          laneRows.computeIfAbsent(getLane(row, laneNum), k -> new ArrayList<>()).add(row);
+        }
+        laneRows.forEach(
+            (lane, rows) -> {
+              final InsertRowsStatement split = new InsertRowsStatement();
+              copyAttributes(statement, split);
+              split.setInsertRowStatementList(rows);
+              lanes.computeIfAbsent(lane, k -> new ArrayList<>()).add(split);
+            });
+      } else if (statement instanceof InsertMultiTabletsStatement) {
+        final Map<Integer, List<InsertTabletStatement>> laneTablets = new LinkedHashMap<>();
+        for (final InsertTabletStatement tablet :
+            ((InsertMultiTabletsStatement) statement).getInsertTabletStatementList()) {
+          laneTablets.computeIfAbsent(getLane(tablet, laneNum), k -> new ArrayList<>()).add(tablet);
+        }
+        laneTablets.forEach(
+            (lane, tablets) -> {
+              final InsertMultiTabletsStatement split = new InsertMultiTabletsStatement();
+              copyAttributes(statement, split);
+              split.setInsertTabletStatementList(tablets);
+              lanes.computeIfAbsent(lane, k -> new ArrayList<>()).add(split);
+            });
+      } else {
+        lanes.computeIfAbsent(getLane(statement, laneNum), k -> new ArrayList<>()).add(statement);
+      }
+    }
+    return new ArrayList<>(lanes.values());
+  }
+
+  private static void copyAttributes(
+      final InsertBaseStatement original, final InsertBaseStatement split) {
+    split.setWriteToTable(original.isWriteToTable());
+    original.getDatabaseName().ifPresent(split::setDatabaseName);
+  }
+
+  private int getLane(final InsertBaseStatement statement, final int laneNum) {
+    final int key;
+    if (statement.isWriteToTable()) {
+      // The devices of a table can not be told before the statement is analyzed, hence the whole
+      // table is applied in one lane
+      key = Objects.hash(statement.getDatabaseName().orElse(null), statement.getTableName());
+    } else {
+      key =
+          partitionExecutor
+              .getSeriesPartitionSlot(statement.getDevicePath().getIDeviceID())
+              .getSlotId();
+    }
+    return Math.floorMod(key, laneNum);
+  }
+
+  /////////////////////////////// Parallelism ///////////////////////////////
+
+  private int getParallelism() {
+    final int maxParallelism = PIPE_CONFIG.getPipeReceiverParallelApplyMaxParallelism();
+    return Math.max(1, Math.min(parallelism.get(), maxParallelism));
+  }
+
+  private void adjustParallelism(final List<TSStatus> statuses) {
+    final int maxParallelism =
+        Math.max(1, PIPE_CONFIG.getPipeReceiverParallelApplyMaxParallelism());
+    if (statuses.stream()
+        .anyMatch(status -> BACKPRESSURE_STATUS_CODES.contains(status.getCode()))) {
+      final int current = parallelism.get();
+      final int decreased = Math.max(1, Math.min(current, maxParallelism) / 2);
+      if (current != decreased && parallelism.compareAndSet(current, decreased)) {
+        LOGGER.info(
+            "Write backpressure encountered, the parallelism of pipe receiver applying is decreased from {} to {}.",
+            current,
+            decreased);
+      }
+    } else {
+      parallelism.getAndUpdate(current -> Math.min(current + 1, maxParallelism));
+    }
+  }
+
+  int getCurrentParallelism() {
+    return parallelism.get();
+  }
+
+  /////////////////////////////// Singleton ///////////////////////////////
+
+  private PipeStatementParallelApplier() {
+    // Use getInstance() instead
+  }
+
+  public static PipeStatementParallelApplier getInstance() {
+    return PipeStatementParallelApplierHolder.INSTANCE;
+  }
+
+  private static class PipeStatementParallelApplierHolder {
+
+    private static final PipeStatementParallelApplier INSTANCE = new PipeStatementParallelApplier();
+
+    private PipeStatementParallelApplierHolder() {
+      // Empty constructor
+    }
+  }
+}
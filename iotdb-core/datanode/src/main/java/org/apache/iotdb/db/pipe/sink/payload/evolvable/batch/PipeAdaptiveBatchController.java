@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.sink.payload.evolvable.batch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tunes the batch size, the linger time (max delay) and the number of concurrent batch transfers of
+ * a sink by the feedback of the transferred batches, to maximize the throughput while keeping the
+ * latency of a batch under the latency SLO.
+ *
+ * <p>The latency of a batch is modeled as {@code linger + RTT + cost * compressedSize}, where:
+ *
+ * <ul>
+ *   <li>RTT is the windowed minimum of the batch latencies, like the min RTT of BBR;
+ *   <li>cost is the EWMA of the service time (the transmission time and the apply time on the
+ *       receiver, i.e. the latency minus RTT) per compressed byte;
+ *   <li>the compressed size is the batch size multiplied by the EWMA of the compression ratio.
+ * </ul>
+ *
+ * <p>Half of the SLO is reserved as headroom, and the rest is split evenly between lingering and
+ * serving, which decides the batch size and the linger time. The concurrency is chosen so that the
+ * link keeps busy while the response of a batch is on the way back, i.e. {@code (RTT + service) /
+ * service} transfers.
+ */
+public class PipeAdaptiveBatchController {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PipeAdaptiveBatchController.class);
+
+  private static final double EWMA_ALPHA = 0.2;
+  private static final double SLO_HEADROOM_RATIO = 0.5;
+  private static final long MIN_BATCH_SIZE_IN_BYTES = 16 * 1024L;
+  private static final int MIN_LINGER_IN_MS = 1;
+  private static final long MIN_RTT_WINDOW_IN_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+  private final long latencySloInNanos;
+  private final long maxBatchSizeInBytes;
+  private final int maxLingerInMs;
+  private final int maxConcurrentTransfers;
+
+  private volatile long batchSizeInBytes;
+  private volatile int lingerInMs;
+  private volatile int concurrentTransfers;
+
+  // Guarded by this
+  private long minRttInNanos = Long.MAX_VALUE;
+  private long minRttUpdateTimeInNanos = Long.MIN_VALUE;
+  private double costInNanosPerCompressedByte = -1;
+  private double compressionRatio = 1;
+
+  private final Object transferSlotLock = new Object();
+  private int inFlightTransfers = 0;
+
+  public PipeAdaptiveBatchController(
+      final long latencySloInMs,
+      final long initialBatchSizeInBytes,
+      final long maxBatchSizeInBytes,
+      final int initialLingerInMs,
+      final int maxConcurrentTransfers) {
+    this.latencySloInNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, latencySloInMs));
+    this.maxBatchSizeInBytes = Math.max(MIN_BATCH_SIZE_IN_BYTES, maxBatchSizeInBytes);
+    this.maxLingerInMs =
+        (int) Math.max(MIN_LINGER_IN_MS, Math.min(Integer.MAX_VALUE, latencySloInMs / 2));
+    this.maxConcurrentTransfers = Math.max(1, maxConcurrentTransfers);
+
+    this.batchSizeInBytes =
+        Math.max(MIN_BATCH_SIZE_IN_BYTES, Math.min(initialBatchSizeInBytes, maxBatchSizeInBytes));
+    this.lingerInMs = Math.max(MIN_LINGER_IN_MS, Math.min(initialLingerInMs, maxLingerInMs));
+    this.concurrentTransfers = this.maxConcurrentTransfers;
+  }
+
+  /////////////////////////////// Feedback ///////////////////////////////
+
+  /**
+   * Record a batch successfully transferred.
+   *
+   * @param latencyInNanos the time from sending the request to receiving the response
+   */
+  public synchronized void onBatchTransferred(
+      final long uncompressedSizeInBytes,
+      final long compressedSizeInBytes,
+      final long latencyInNanos) {
+    if (uncompressedSizeInBytes <= 0 || compressedSizeInBytes <= 0 || latencyInNanos <= 0) {
+      return;
+    }
+
+    final long currentTime = System.nanoTime();
+    if (latencyInNanos <= minRttInNanos
+        || currentTime - minRttUpdateTimeInNanos > MIN_RTT_WINDOW_IN_NANOS) {
+      minRttInNanos = latencyInNanos;
+      minRttUpdateTimeInNanos = currentTime;
+    }
+
+    compressionRatio =
+        ewma(compressionRatio, (double) compressedSizeInBytes / uncompressedSizeInBytes);
+    final double cost = (double) (latencyInNanos - minRttInNanos) / compressedSizeInBytes;
+    costInNanosPerCompressedByte =
+        costInNanosPerCompressedByte < 0 ? cost : ewma(costInNanosPerCompressedByte, cost);
+
+    adjust();
+  }
+
+  /** Record a batch failed or rejected by the receiver, which is regarded as congestion. */
+  public synchronized void onBatchFailed() {
+    batchSizeInBytes = Math.max(MIN_BATCH_SIZE_IN_BYTES, batchSizeInBytes / 2);
+    concurrentTransfers = Math.max(1, concurrentTransfers / 2);
+  }
+
+  private static double ewma(final double average, final double sample) {
+    return average * (1 - EWMA_ALPHA) + sample * EWMA_ALPHA;
+  }
+
+  private void adjust() {
+    final long budgetInNanos = (long) (latencySloInNanos * SLO_HEADROOM_RATIO) - minRttInNanos;
+    if (budgetInNanos <= 0) {
+      // The RTT alone exceeds the SLO, ship small batches as soon as possible and pipeline them
+      batchSizeInBytes = MIN_BATCH_SIZE_IN_BYTES;
+      lingerInMs = MIN_LINGER_IN_MS;
+      concurrentTransfers = maxConcurrentTransfers;
+      return;
+    }
+
+    final double costInNanosPerByte = Math.max(costInNanosPerCompressedByte * compressionRatio, 0);
+    batchSizeInBytes =
+        costInNanosPerByte <= 0
+            ? maxBatchSizeInBytes
+            : (long)
+                Math.max(
+                    MIN_BATCH_SIZE_IN_BYTES,
+                    Math.min(maxBatchSizeInBytes, budgetInNanos / 2 / costInNanosPerByte));
+    lingerInMs =
+        (int)
+            Math.max(
+                MIN_LINGER_IN_MS,
+                Math.min(maxLingerInMs, TimeUnit.NANOSECONDS.toMillis(budgetInNanos / 2)));
+
+    final double serviceTimeInNanos = Math.max(1, costInNanosPerByte * batchSizeInBytes);
+    concurrentTransfers =
+        (int)
+            Math.max(
+                1,
+                Math.min(
+                    maxConcurrentTransfers,
+                    Math.ceil((minRttInNanos + serviceTimeInNanos) / serviceTimeInNanos)));
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(
+          "Adaptive batch adjusted: rtt {}ns, cost {}ns/B, compression ratio {}, batch size {}B, linger {}ms, concurrent transfers {}.",
+          minRttInNanos,
+          costInNanosPerCompressedByte,
+          compressionRatio,
+          batchSizeInBytes,
+          lingerInMs,
+          concurrentTransfers);
+    }
+  }
+
+  /////////////////////////////// Concurrency ///////////////////////////////
+
+  /**
+   * Wait until the in-flight transfers are fewer than the chosen concurrency, then take a slot
+   * which must be returned by {@link #releaseTransferSlot()}. The waiting is bounded by the SLO, so
+   * a lost response will not block the sink forever. If the waiting times out, the slot is taken
+   * beyond the concurrency and a warning is logged.
+   *
+   * @return {@code false} if the slot is taken beyond the concurrency
+   */
+  public boolean acquireTransferSlot() {
+    final long deadline = System.nanoTime() + latencySloInNanos;
+    synchronized (transferSlotLock) {
+      long remainingInNanos;
+      while (inFlightTransfers >= concurrentTransfers
+          && (remainingInNanos = deadline - System.nanoTime()) > 0) {
+        try {
+          TimeUnit.NANOSECONDS.timedWait(transferSlotLock, remainingInNanos);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+
+      final boolean isWithinConcurrency = inFlightTransfers < concurrentTransfers;
+      if (!isWithinConcurrency) {
+        LOGGER.warn(
+            "Timed out waiting {}ms for a transfer slot, {} batches are in flight while the concurrency is {}. Transfer the batch anyway, some responses may be lost.",
+            TimeUnit.NANOSECONDS.toMillis(latencySloInNanos),
+            inFlightTransfers,
+            concurrentTransfers);
+      }
+      ++inFlightTransfers;
+      return isWithinConcurrency;
+    }
+  }
+
+  public void releaseTransferSlot() {
+    synchronized (transferSlotLock) {
+      inFlightTransfers = Math.max(0, inFlightTransfers - 1);
+      transferSlotLock.notifyAll();
+    }
+  }
+
+  /////////////////////////////// Getters ///////////////////////////////
+
+  public long getBatchSizeInBytes() {
+    return batchSizeInBytes;
+  }
+
+  public long getMaxBatchSizeInBytes() {
+    return maxBatchSizeInBytes;
+  }
+
+  public int getLingerInMs() {
+    return lingerInMs;
+  }
+
+  public int getConcurrentTransfers() {
+    return concurrentTransfers;
+  }
+}
@@ -46,8 +46,13 @@ public abstract class PipeTabletEventBatch implements AutoCloseable {
   private final int maxDelayInMs;
   private long firstEventProcessingTime = Long.MIN_VALUE;
 
+  // If set, the batch size and the max delay are decided by the controller instead
+  private volatile PipeAdaptiveBatchController adaptiveController;
+
   protected long totalBufferSize = 0;
   private final PipeMemoryBlock allocatedMemoryBlock;
+  // Avoid waiting for the memory on every event once growing the memory block has failed
+  private boolean isMemoryBlockGrowthFailed = false;
 
   protected volatile boolean isClosed = false;
 
@@ -110,9 +115,52 @@ public abstract class PipeTabletEventBatch implements AutoCloseable {
       }
     }
 
+    tryGrowMemoryBlockForAdaptiveBatch();
     return shouldEmit();
   }
 
+  /**
+   * The memory block reserves the configured batch size. When the adaptive controller raises the
+   * batch size above it, grow the memory block once the buffer is full. If the memory is
+   * insufficient, the batch is emitted at the reserved size.
+   */
+  private void tryGrowMemoryBlockForAdaptiveBatch() {
+    final PipeAdaptiveBatchController controller = adaptiveController;
+    if (Objects.isNull(controller)
+        || isMemoryBlockGrowthFailed
+        || totalBufferSize < allocatedMemoryBlock.getMemoryUsageInBytes()) {
+      return;
+    }
+
+    final long targetSizeInBytes = controller.getBatchSizeInBytes();
+    if (targetSizeInBytes <= allocatedMemoryBlock.getMemoryUsageInBytes()) {
+      return;
+    }
+
+    PipeDataNodeResourceManager.memory().resize(allocatedMemoryBlock, targetSizeInBytes, false);
+    if (allocatedMemoryBlock.getMemoryUsageInBytes() < targetSizeInBytes) {
+      isMemoryBlockGrowthFailed = true;
+      LOGGER.info(
+          "Failed to grow the memory of the adaptive batch from {} to {} bytes, the batch will be emitted at the reserved size.",
+          allocatedMemoryBlock.getMemoryUsageInBytes(),
+          targetSizeInBytes);
+    }
+  }
+
+  /** Return the memory grown for the adaptive batch when the controller lowers the batch size. */
+  private void tryShrinkMemoryBlockForAdaptiveBatch() {
+    final PipeAdaptiveBatchController controller = adaptiveController;
+    if (Objects.isNull(controller)) {
+      return;
+    }
+
+    isMemoryBlockGrowthFailed = false;
+    final long targetSizeInBytes = Math.max(maxBatchSizeInBytes, controller.getBatchSizeInBytes());
+    if (allocatedMemoryBlock.getMemoryUsageInBytes() > targetSizeInBytes) {
+      PipeDataNodeResourceManager.memory().forceResize(allocatedMemoryBlock, targetSizeInBytes);
+    }
+  }
+
   /**
    * Added an {@link TabletInsertionEvent} into batch.
    *
@@ -125,8 +173,17 @@ public abstract class PipeTabletEventBatch implements AutoCloseable {
       throws WALPipeException, IOException;
 
   public boolean shouldEmit() {
+    final PipeAdaptiveBatchController controller = adaptiveController;
+    // The adaptive batch size is capped by the memory reserved for the batch
+    final long batchSizeInBytes =
+        Objects.nonNull(controller)
+            ? Math.min(
+                controller.getBatchSizeInBytes(), allocatedMemoryBlock.getMemoryUsageInBytes())
+            : maxBatchSizeInBytes;
+    final int delayInMs = Objects.nonNull(controller) ? controller.getLingerInMs() : maxDelayInMs;
+
     final long diff = System.currentTimeMillis() - firstEventProcessingTime;
-    if (totalBufferSize >= maxBatchSizeInBytes || diff >= maxDelayInMs) {
+    if (totalBufferSize >= batchSizeInBytes || diff >= delayInMs) {
       recordMetric.accept(diff, totalBufferSize, events.size());
       return true;
     }
@@ -139,6 +196,8 @@ public abstract class PipeTabletEventBatch implements AutoCloseable {
     totalBufferSize = 0;
 
     firstEventProcessingTime = Long.MIN_VALUE;
+
+    tryShrinkMemoryBlockForAdaptiveBatch();
   }
 
   @Override
@@ -182,6 +241,10 @@ public abstract class PipeTabletEventBatch implements AutoCloseable {
     return events.isEmpty();
   }
 
+  public void setAdaptiveController(final PipeAdaptiveBatchController adaptiveController) {
+    this.adaptiveController = adaptiveController;
+  }
+
   @FunctionalInterface
   public interface TriLongConsumer {
     void accept(long l1, long l2, long l3);
@@ -46,6 +46,14 @@ import java.util.concurrent.ConcurrentHashMap;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.CONNECTOR_FORMAT_HYBRID_VALUE;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.CONNECTOR_FORMAT_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.CONNECTOR_FORMAT_TS_FILE_VALUE;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.CONNECTOR_IOTDB_BATCH_ADAPTIVE_ENABLE_DEFAULT_VALUE;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.CONNECTOR_IOTDB_BATCH_ADAPTIVE_ENABLE_KEY;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.CONNECTOR_IOTDB_BATCH_ADAPTIVE_LATENCY_SLO_MS_DEFAULT_VALUE;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.CONNECTOR_IOTDB_BATCH_ADAPTIVE_LATENCY_SLO_MS_KEY;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.CONNECTOR_IOTDB_BATCH_ADAPTIVE_MAX_CONCURRENT_TRANSFERS_DEFAULT_VALUE;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.CONNECTOR_IOTDB_BATCH_ADAPTIVE_MAX_CONCURRENT_TRANSFERS_KEY;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.CONNECTOR_IOTDB_BATCH_ADAPTIVE_MAX_SIZE_DEFAULT_VALUE;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.CONNECTOR_IOTDB_BATCH_ADAPTIVE_MAX_SIZE_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.CONNECTOR_IOTDB_BATCH_DELAY_MS_DEFAULT_VALUE;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.CONNECTOR_IOTDB_BATCH_DELAY_MS_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.CONNECTOR_IOTDB_BATCH_DELAY_SECONDS_KEY;
@@ -56,6 +64,10 @@ import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.CON
 import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.CONNECTOR_LEADER_CACHE_ENABLE_DEFAULT_VALUE;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.CONNECTOR_LEADER_CACHE_ENABLE_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.SINK_FORMAT_KEY;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.SINK_IOTDB_BATCH_ADAPTIVE_ENABLE_KEY;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.SINK_IOTDB_BATCH_ADAPTIVE_LATENCY_SLO_MS_KEY;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.SINK_IOTDB_BATCH_ADAPTIVE_MAX_CONCURRENT_TRANSFERS_KEY;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.SINK_IOTDB_BATCH_ADAPTIVE_MAX_SIZE_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.SINK_IOTDB_BATCH_DELAY_MS_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.SINK_IOTDB_BATCH_DELAY_SECONDS_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeSinkConstant.SINK_IOTDB_BATCH_SIZE_KEY;
@@ -70,6 +82,9 @@ public class PipeTransferBatchReqBuilder implements AutoCloseable {
   private final int requestMaxDelayInMs;
   private final long requestMaxBatchSizeInBytes;
 
+  // Only available for the plain batches of the sinks reporting the feedback of transfers
+  private final PipeAdaptiveBatchController adaptiveController;
+
   private Histogram tabletBatchSizeHistogram = new DoNothingHistogram();
   private Histogram tsFileBatchSizeHistogram = new DoNothingHistogram();
   private Histogram tabletBatchTimeIntervalHistogram = new DoNothingHistogram();
@@ -87,6 +102,15 @@ public class PipeTransferBatchReqBuilder implements AutoCloseable {
       new ConcurrentHashMap<>();
 
   public PipeTransferBatchReqBuilder(final PipeParameters parameters) {
+    this(parameters, false);
+  }
+
+  /**
+   * @param supportsAdaptiveBatching whether the sink reports the feedback of the transferred
+   *     batches to {@link #getAdaptiveController()}, which is required by adaptive batching
+   */
+  public PipeTransferBatchReqBuilder(
+      final PipeParameters parameters, final boolean supportsAdaptiveBatching) {
     final boolean usingTsFileBatch =
         parameters
             .getStringOrDefault(
@@ -120,12 +144,58 @@ public class PipeTransferBatchReqBuilder implements AutoCloseable {
             usingTsFileBatch
                 ? CONNECTOR_IOTDB_TS_FILE_BATCH_SIZE_DEFAULT_VALUE
                 : CONNECTOR_IOTDB_PLAIN_BATCH_SIZE_DEFAULT_VALUE);
+
+    // TsFile batches are not responded by batch, so they can not be tuned by feedback
+    adaptiveController =
+        supportsAdaptiveBatching
+                && !usingTsFileBatch
+                && parameters.getBooleanOrDefault(
+                    Arrays.asList(
+                        CONNECTOR_IOTDB_BATCH_ADAPTIVE_ENABLE_KEY,
+                        SINK_IOTDB_BATCH_ADAPTIVE_ENABLE_KEY),
+                    CONNECTOR_IOTDB_BATCH_ADAPTIVE_ENABLE_DEFAULT_VALUE)
+            ? new PipeAdaptiveBatchController(
+                parameters.getLongOrDefault(
+                    Arrays.asList(
+                        CONNECTOR_IOTDB_BATCH_ADAPTIVE_LATENCY_SLO_MS_KEY,
+                        SINK_IOTDB_BATCH_ADAPTIVE_LATENCY_SLO_MS_KEY),
+                    CONNECTOR_IOTDB_BATCH_ADAPTIVE_LATENCY_SLO_MS_DEFAULT_VALUE),
+                requestMaxBatchSizeInBytes,
+                Math.max(
+                    requestMaxBatchSizeInBytes,
+                    parameters.getLongOrDefault(
+                        Arrays.asList(
+                            CONNECTOR_IOTDB_BATCH_ADAPTIVE_MAX_SIZE_KEY,
+                            SINK_IOTDB_BATCH_ADAPTIVE_MAX_SIZE_KEY),
+                        CONNECTOR_IOTDB_BATCH_ADAPTIVE_MAX_SIZE_DEFAULT_VALUE)),
+                requestMaxDelayInMs,
+                parameters.getIntOrDefault(
+                    Arrays.asList(
+                        CONNECTOR_IOTDB_BATCH_ADAPTIVE_MAX_CONCURRENT_TRANSFERS_KEY,
+                        SINK_IOTDB_BATCH_ADAPTIVE_MAX_CONCURRENT_TRANSFERS_KEY),
+                    CONNECTOR_IOTDB_BATCH_ADAPTIVE_MAX_CONCURRENT_TRANSFERS_DEFAULT_VALUE))
+            : null;
+
     this.defaultBatch =
         usingTsFileBatch
             ? new PipeTabletEventTsFileBatch(
                 requestMaxDelayInMs, requestMaxBatchSizeInBytes, this::recordTsFileMetric)
-            : new PipeTabletEventPlainBatch(
-                requestMaxDelayInMs, requestMaxBatchSizeInBytes, this::recordTabletMetric);
+            : constructPlainBatch();
+  }
+
+  private PipeTabletEventPlainBatch constructPlainBatch() {
+    if (Objects.isNull(adaptiveController)) {
+      return new PipeTabletEventPlainBatch(
+          requestMaxDelayInMs, requestMaxBatchSizeInBytes, this::recordTabletMetric);
+    }
+
+    // Reserve the configured batch size, the batch grows its memory when the controller raises the
+    // batch size above it
+    final PipeTabletEventPlainBatch batch =
+        new PipeTabletEventPlainBatch(
+            requestMaxDelayInMs, requestMaxBatchSizeInBytes, this::recordTabletMetric);
+    batch.setAdaptiveController(adaptiveController);
+    return batch;
   }
 
   /**
@@ -165,13 +235,7 @@ public class PipeTransferBatchReqBuilder implements AutoCloseable {
       defaultBatch.onEvent(event);
       return;
     }
-    endPointToBatch
-        .computeIfAbsent(
-            endPoint,
-            k ->
-                new PipeTabletEventPlainBatch(
-                    requestMaxDelayInMs, requestMaxBatchSizeInBytes, this::recordTabletMetric))
-        .onEvent(event);
+    endPointToBatch.computeIfAbsent(endPoint, k -> constructPlainBatch()).onEvent(event);
   }
 
   /** Get all batches that have at least 1 event. */
@@ -191,6 +255,13 @@ public class PipeTransferBatchReqBuilder implements AutoCloseable {
     return nonEmptyAndShouldEmitBatches;
   }
 
+  /**
+   * @return the controller tuning the batches, or {@code null} if adaptive batching is disabled
+   */
+  public PipeAdaptiveBatchController getAdaptiveController() {
+    return adaptiveController;
+  }
+
   public boolean isEmpty() {
     return defaultBatch.isEmpty()
         && endPointToBatch.values().stream().allMatch(PipeTabletEventPlainBatch::isEmpty);
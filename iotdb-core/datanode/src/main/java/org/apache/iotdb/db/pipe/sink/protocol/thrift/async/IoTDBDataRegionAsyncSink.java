@@ -35,6 +35,7 @@ import org.apache.iotdb.db.pipe.event.common.tsfile.PipeTsFileInsertionEvent;
 import org.apache.iotdb.db.pipe.metric.sink.PipeDataRegionSinkMetrics;
 import org.apache.iotdb.db.pipe.metric.source.PipeDataRegionEventCounter;
 import org.apache.iotdb.db.pipe.sink.client.IoTDBDataNodeAsyncClientManager;
+import org.apache.iotdb.db.pipe.sink.payload.evolvable.batch.PipeAdaptiveBatchController;
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.batch.PipeTabletEventBatch;
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.batch.PipeTabletEventPlainBatch;
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.batch.PipeTabletEventTsFileBatch;
@@ -183,7 +184,7 @@ public class IoTDBDataRegionAsyncSink extends IoTDBSink {
             skipIfNoPrivileges);
 
     if (isTabletBatchModeEnabled) {
-      tabletBatchBuilder = new PipeTransferBatchReqBuilder(parameters);
+      tabletBatchBuilder = new PipeTransferBatchReqBuilder(parameters, true);
     }
 
     enableSendTsFileLimit =
@@ -336,6 +337,7 @@ public class IoTDBDataRegionAsyncSink extends IoTDBSink {
       final PipeTransferTabletBatchEventHandler pipeTransferTabletBatchEventHandler) {
     AsyncPipeDataTransferServiceClient client = null;
     try {
+      pipeTransferTabletBatchEventHandler.awaitTransferSlot();
       client = clientManager.borrowClient(endPoint);
       pipeTransferTabletBatchEventHandler.transfer(client);
     } catch (final Exception ex) {
@@ -817,6 +819,28 @@ public class IoTDBDataRegionAsyncSink extends IoTDBSink {
     return pendingHandlers.size();
   }
 
+  public long getAdaptiveBatchSizeInBytes() {
+    final PipeAdaptiveBatchController controller = getAdaptiveBatchController();
+    return Objects.nonNull(controller) ? controller.getBatchSizeInBytes() : 0;
+  }
+
+  public int getAdaptiveBatchLingerInMs() {
+    final PipeAdaptiveBatchController controller = getAdaptiveBatchController();
+    return Objects.nonNull(controller) ? controller.getLingerInMs() : 0;
+  }
+
+  public int getAdaptiveConcurrentTransfers() {
+    final PipeAdaptiveBatchController controller = getAdaptiveBatchController();
+    return Objects.nonNull(controller) ? controller.getConcurrentTransfers() : 0;
+  }
+
+  //////////////////////// APIs provided for PipeTransferTabletBatchEventHandler
+  // ////////////////////////
+
+  public PipeAdaptiveBatchController getAdaptiveBatchController() {
+    return Objects.nonNull(tabletBatchBuilder) ? tabletBatchBuilder.getAdaptiveController() : null;
+  }
+
   //////////////////////// APIs provided for PipeTransferTrackableHandler ////////////////////////
 
   public boolean isClosed() {
@@ -24,6 +24,7 @@ import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.client.async.AsyncPipeDataTransferServiceClient;
 import org.apache.iotdb.commons.pipe.event.EnrichedEvent;
 import org.apache.iotdb.commons.pipe.resource.log.PipeLogger;
+import org.apache.iotdb.db.pipe.sink.payload.evolvable.batch.PipeAdaptiveBatchController;
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.batch.PipeTabletEventPlainBatch;
 import org.apache.iotdb.db.pipe.sink.protocol.thrift.async.IoTDBDataRegionAsyncSink;
 import org.apache.iotdb.db.pipe.sink.util.cacher.LeaderCacheUtils;
@@ -40,6 +41,8 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 public class PipeTransferTabletBatchEventHandler extends PipeTransferTrackableHandler {
@@ -51,8 +54,14 @@ public class PipeTransferTabletBatchEventHandler extends PipeTransferTrackableHa
   private final Map<Pair<String, Long>, Long> pipeName2BytesAccumulated;
 
   private final TPipeTransferReq req;
+  private final long uncompressedReqSizeInBytes;
   private final double reqCompressionRatio;
 
+  // Null if adaptive batching is disabled
+  private final PipeAdaptiveBatchController adaptiveController;
+  private final AtomicBoolean isTransferSlotAcquired = new AtomicBoolean(false);
+  private volatile long transferStartTimeInNanos;
+
   public PipeTransferTabletBatchEventHandler(
       final PipeTabletEventPlainBatch batch, final IoTDBDataRegionAsyncSink connector)
       throws IOException {
@@ -63,8 +72,21 @@ public class PipeTransferTabletBatchEventHandler extends PipeTransferTrackableHa
     pipeName2BytesAccumulated = batch.deepCopyPipeName2BytesAccumulated();
 
     final TPipeTransferReq uncompressedReq = batch.toTPipeTransferReq();
+    uncompressedReqSizeInBytes = uncompressedReq.getBody().length;
     req = connector.compressIfNeeded(uncompressedReq);
-    reqCompressionRatio = (double) req.getBody().length / uncompressedReq.getBody().length;
+    reqCompressionRatio = (double) req.getBody().length / uncompressedReqSizeInBytes;
+
+    adaptiveController = connector.getAdaptiveBatchController();
+  }
+
+  /**
+   * Wait until the number of the in-flight batches is below the concurrency chosen by adaptive
+   * batching. The slot is released when this handler completes or fails.
+   */
+  public void awaitTransferSlot() {
+    if (Objects.nonNull(adaptiveController) && isTransferSlotAcquired.compareAndSet(false, true)) {
+      adaptiveController.acquireTransferSlot();
+    }
   }
 
   public void transfer(final AsyncPipeDataTransferServiceClient client) throws TException {
@@ -76,9 +98,47 @@ public class PipeTransferTabletBatchEventHandler extends PipeTransferTrackableHa
           (long) (entry.getValue() * reqCompressionRatio));
     }
 
+    transferStartTimeInNanos = System.nanoTime();
     tryTransfer(client, req);
   }
 
+  @Override
+  public void onComplete(final TPipeTransferResp response) {
+    final int statusCode =
+        Objects.nonNull(response) && Objects.nonNull(response.getStatus())
+            ? response.getStatus().getCode()
+            : TSStatusCode.PIPE_ERROR.getStatusCode();
+    reportToAdaptiveController(
+        statusCode == TSStatusCode.SUCCESS_STATUS.getStatusCode()
+            || statusCode == TSStatusCode.REDIRECTION_RECOMMEND.getStatusCode());
+    super.onComplete(response);
+  }
+
+  @Override
+  public void onError(final Exception exception) {
+    reportToAdaptiveController(false);
+    super.onError(exception);
+  }
+
+  private void reportToAdaptiveController(final boolean isSuccessful) {
+    if (Objects.isNull(adaptiveController) || !isTransferSlotAcquired.compareAndSet(true, false)) {
+      return;
+    }
+
+    try {
+      if (isSuccessful) {
+        adaptiveController.onBatchTransferred(
+            uncompressedReqSizeInBytes,
+            req.getBody().length,
+            System.nanoTime() - transferStartTimeInNanos);
+      } else {
+        adaptiveController.onBatchFailed();
+      }
+    } finally {
+      adaptiveController.releaseTransferSlot();
+    }
+  }
+
   @Override
   protected boolean onCompleteInternal(final TPipeTransferResp response) {
     // Just in case
@@ -20,10 +20,14 @@
 package org.apache.iotdb.db.pipe.source.dataregion.realtime;
 
 import org.apache.iotdb.commons.exception.pipe.PipeRuntimeNonCriticalException;
+import org.apache.iotdb.commons.pipe.config.PipeConfig;
 import org.apache.iotdb.commons.pipe.event.ProgressReportEvent;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.pipe.agent.PipeDataNodeAgent;
 import org.apache.iotdb.db.pipe.event.common.deletion.PipeDeleteDataNodeEvent;
 import org.apache.iotdb.db.pipe.event.common.heartbeat.PipeHeartbeatEvent;
+import org.apache.iotdb.db.pipe.event.common.tablet.PipeInsertNodeTabletInsertionEvent;
+import org.apache.iotdb.db.pipe.event.common.tablet.PipeSpilledInsertNodeEvent;
 import org.apache.iotdb.db.pipe.event.common.tsfile.PipeTsFileInsertionEvent;
 import org.apache.iotdb.db.pipe.event.realtime.PipeRealtimeEvent;
 import org.apache.iotdb.db.pipe.metric.overview.PipeDataNodeRemainingEventAndTimeOperator;
@@ -31,6 +35,7 @@ import org.apache.iotdb.db.pipe.metric.overview.PipeDataNodeSinglePipeMetrics;
 import org.apache.iotdb.db.pipe.resource.PipeDataNodeResourceManager;
 import org.apache.iotdb.db.pipe.source.dataregion.realtime.assigner.PipeTsFileEpochProgressIndexKeeper;
 import org.apache.iotdb.db.pipe.source.dataregion.realtime.epoch.TsFileEpoch;
+import org.apache.iotdb.db.pipe.source.dataregion.realtime.spill.PipeRealtimeEventSpillLog;
 import org.apache.iotdb.pipe.api.event.Event;
 import org.apache.iotdb.pipe.api.event.dml.insertion.TabletInsertionEvent;
 import org.apache.iotdb.pipe.api.event.dml.insertion.TsFileInsertionEvent;
@@ -38,6 +43,8 @@ import org.apache.iotdb.pipe.api.event.dml.insertion.TsFileInsertionEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.util.Objects;
 import java.util.Optional;
 
 public class PipeRealtimeDataRegionHybridSource extends PipeRealtimeDataRegionSource {
@@ -45,6 +52,11 @@ public class PipeRealtimeDataRegionHybridSource extends PipeRealtimeDataRegionSo
   private static final Logger LOGGER =
       LoggerFactory.getLogger(PipeRealtimeDataRegionHybridSource.class);
 
+  private static final String SPILL_DIR_NAME = "spill";
+
+  // Created lazily by the extracting thread when the memory is exhausted for the first time
+  private volatile PipeRealtimeEventSpillLog spillLog;
+
   @Override
   protected void doExtract(final PipeRealtimeEvent event) {
     final Event eventToExtract = event.getEvent();
@@ -76,10 +88,17 @@ public class PipeRealtimeDataRegionHybridSource extends PipeRealtimeDataRegionSo
     return shouldExtractInsertion;
   }
 
-  private void extractTabletInsertion(final PipeRealtimeEvent event) {
+  private void extractTabletInsertion(final PipeRealtimeEvent originalEvent) {
     TsFileEpoch.State state;
 
-    if (canNotUseTabletAnymore(event)) {
+    // If the memory is exhausted, try to spill the tablet to disk before degrading to tsFile
+    final PipeRealtimeEvent spilledEvent =
+        mayInsertNodeMemoryReachDangerousThreshold()
+            ? trySpillTabletInsertion(originalEvent)
+            : null;
+    final PipeRealtimeEvent event = Objects.nonNull(spilledEvent) ? spilledEvent : originalEvent;
+
+    if (Objects.isNull(spilledEvent) && canNotUseTabletAnymore(event)) {
       event.getTsFileEpoch().migrateState(this, curState -> TsFileEpoch.State.USING_TSFILE);
       PipeTsFileEpochProgressIndexKeeper.getInstance()
           .registerProgressIndex(dataRegionId, pipeName, event.getTsFileEpoch().getResource());
@@ -199,6 +218,74 @@ public class PipeRealtimeDataRegionHybridSource extends PipeRealtimeDataRegionSo
     }
   }
 
+  /**
+   * Spill the insertNode of the event to the {@link PipeRealtimeEventSpillLog}, and release the
+   * event so that the insertNode is not pinned by this pipe anymore.
+   *
+   * @return the event holding the placeholder of the spilled event, or {@code null} if the event
+   *     can not be spilled
+   */
+  private PipeRealtimeEvent trySpillTabletInsertion(final PipeRealtimeEvent event) {
+    if (isClosed.get()
+        || !(event.getEvent() instanceof PipeInsertNodeTabletInsertionEvent)
+        || event.getTsFileEpoch().getState(this) == TsFileEpoch.State.USING_TSFILE) {
+      return null;
+    }
+    final long spillMaxSizeInBytes =
+        PipeConfig.getInstance().getPipeSourceRealtimeSpillMaxSizeInBytes();
+    if (spillMaxSizeInBytes <= 0) {
+      return null;
+    }
+
+    final PipeSpilledInsertNodeEvent spilledInsertNodeEvent;
+    try {
+      if (Objects.isNull(spillLog)) {
+        spillLog = new PipeRealtimeEventSpillLog(getSpillDir(), spillMaxSizeInBytes);
+        LOGGER.info(
+            "Pipe task {}@{} starts to spill tablets to {} under memory pressure.",
+            pipeName,
+            dataRegionId,
+            spillLog);
+      }
+      spilledInsertNodeEvent =
+          PipeSpilledInsertNodeEvent.spill(
+              (PipeInsertNodeTabletInsertionEvent) event.getEvent(), spillLog);
+    } catch (final Exception e) {
+      LOGGER.warn(
+          "Pipe task {}@{} failed to spill tablet event {}, fall back to tsFile.",
+          pipeName,
+          dataRegionId,
+          event,
+          e);
+      return null;
+    }
+    if (Objects.isNull(spilledInsertNodeEvent)) {
+      // The spill log is full
+      return null;
+    }
+
+    final PipeRealtimeEvent spilledEvent =
+        new PipeRealtimeEvent(spilledInsertNodeEvent, event.getTsFileEpoch(), null);
+    spilledEvent.increaseReferenceCount(PipeRealtimeDataRegionHybridSource.class.getName());
+    event.decreaseReferenceCount(PipeRealtimeDataRegionHybridSource.class.getName(), false);
+    return spilledEvent;
+  }
+
+  private File getSpillDir() {
+    return new File(
+        IoTDBDescriptor.getInstance().getConfig().getDataDirs()[0]
+            + File.separator
+            + PipeConfig.getInstance().getPipeHardlinkBaseDirName()
+            + File.separator
+            + SPILL_DIR_NAME
+            + File.separator
+            + pipeName
+            + "_"
+            + dataRegionId
+            + "_"
+            + creationTime);
+  }
+
   // If the insertNode's memory has reached the dangerous threshold, we should not extract any
   // tablets.
   private boolean canNotUseTabletAnymore(final PipeRealtimeEvent event) {
@@ -208,7 +295,7 @@ public class PipeRealtimeDataRegionHybridSource extends PipeRealtimeDataRegionSo
     final long totalFloatingMemorySizeInBytes =
         PipeDataNodeResourceManager.memory().getTotalFloatingMemorySizeInBytes();
     final boolean mayInsertNodeMemoryReachDangerousThreshold =
-        floatingMemoryUsageInByte * pipeCount >= totalFloatingMemorySizeInBytes;
+        mayInsertNodeMemoryReachDangerousThreshold();
     if (mayInsertNodeMemoryReachDangerousThreshold && event.mayExtractorUseTablets(this)) {
       final PipeDataNodeRemainingEventAndTimeOperator operator =
           PipeDataNodeSinglePipeMetrics.getInstance().remainingEventAndTimeOperatorMap.get(pipeID);
@@ -226,6 +313,12 @@ public class PipeRealtimeDataRegionHybridSource extends PipeRealtimeDataRegionSo
     return mayInsertNodeMemoryReachDangerousThreshold;
   }
 
+  private boolean mayInsertNodeMemoryReachDangerousThreshold() {
+    return PipeDataNodeAgent.task().getFloatingMemoryUsageInByte(pipeName)
+            * PipeDataNodeAgent.task().getPipeCount()
+        >= PipeDataNodeResourceManager.memory().getTotalFloatingMemorySizeInBytes();
+  }
+
   @Override
   public Event supply() {
     PipeRealtimeEvent realtimeEvent = (PipeRealtimeEvent) pendingQueue.directPoll();
@@ -235,7 +328,9 @@ public class PipeRealtimeDataRegionHybridSource extends PipeRealtimeDataRegionSo
 
       // Used to judge the type of the event, not directly for supplying.
       final Event eventToSupply = realtimeEvent.getEvent();
-      if (eventToSupply instanceof TabletInsertionEvent) {
+      if (eventToSupply instanceof PipeSpilledInsertNodeEvent) {
+        suppliedEvent = supplySpilledTabletInsertion(realtimeEvent);
+      } else if (eventToSupply instanceof TabletInsertionEvent) {
         suppliedEvent = supplyTabletInsertion(realtimeEvent);
       } else if (eventToSupply instanceof TsFileInsertionEvent) {
         suppliedEvent = supplyTsFileInsertion(realtimeEvent);
@@ -282,6 +377,33 @@ public class PipeRealtimeDataRegionHybridSource extends PipeRealtimeDataRegionSo
     }
   }
 
+  private Event supplySpilledTabletInsertion(final PipeRealtimeEvent event) {
+    final PipeInsertNodeTabletInsertionEvent replayedEvent;
+    try {
+      replayedEvent = ((PipeSpilledInsertNodeEvent) event.getEvent()).replay();
+    } catch (final Exception e) {
+      // The data represented by this event has been carried by the following tsfile event, like
+      // the unreliable tablet events.
+      event.getTsFileEpoch().migrateState(this, s -> TsFileEpoch.State.USING_BOTH);
+      LOGGER.warn(
+          "Discard spilled tablet event {} because it can not be replayed. "
+              + "Change the state of TsFileEpoch to USING_BOTH.",
+          event,
+          e);
+      return null;
+    }
+
+    if (replayedEvent.increaseReferenceCount(PipeRealtimeDataRegionHybridSource.class.getName())) {
+      return replayedEvent;
+    }
+    event.getTsFileEpoch().migrateState(this, s -> TsFileEpoch.State.USING_BOTH);
+    LOGGER.warn(
+        "Discard spilled tablet event {} because it is not reliable anymore. "
+            + "Change the state of TsFileEpoch to USING_BOTH.",
+        event);
+    return null;
+  }
+
   private Event supplyTsFileInsertion(final PipeRealtimeEvent event) {
     if (event.increaseReferenceCount(PipeRealtimeDataRegionHybridSource.class.getName())) {
       return event.getEvent();
@@ -303,4 +425,15 @@ public class PipeRealtimeDataRegionHybridSource extends PipeRealtimeDataRegionSo
       return null;
     }
   }
+
+  @Override
+  public void close() throws Exception {
+    try {
+      super.close();
+    } finally {
+      if (Objects.nonNull(spillLog)) {
+        spillLog.close();
+      }
+    }
+  }
 }
@@ -35,6 +35,7 @@ import org.apache.iotdb.commons.utils.TimePartitionUtils;
 import org.apache.iotdb.db.pipe.agent.PipeDataNodeAgent;
 import org.apache.iotdb.db.pipe.event.common.heartbeat.PipeHeartbeatEvent;
 import org.apache.iotdb.db.pipe.event.common.tablet.PipeInsertNodeTabletInsertionEvent;
+import org.apache.iotdb.db.pipe.event.common.tablet.PipeSpilledInsertNodeEvent;
 import org.apache.iotdb.db.pipe.event.common.tsfile.PipeTsFileInsertionEvent;
 import org.apache.iotdb.db.pipe.event.realtime.PipeRealtimeEvent;
 import org.apache.iotdb.db.pipe.metric.source.PipeDataRegionEventCounter;
@@ -469,7 +470,8 @@ public abstract class PipeRealtimeDataRegionSource implements PipeExtractor {
 
   protected void maySkipIndex4Event(final PipeRealtimeEvent event) {
     if (event.getEvent() instanceof PipeTsFileInsertionEvent
-        || event.getEvent() instanceof PipeInsertNodeTabletInsertionEvent) {
+        || event.getEvent() instanceof PipeInsertNodeTabletInsertionEvent
+        || event.getEvent() instanceof PipeSpilledInsertNodeEvent) {
       maySkipProgressIndexForRealtimeEvent(event);
     }
   }
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.source.dataregion.realtime.spill;
+
+import org.apache.tsfile.external.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A bounded on-disk log of the serialized events spilled by a realtime source, used when the memory
+ * budget of the pipe is exhausted.
+ *
+ * <p>The entries are appended sequentially into segment files, and each of them is read once when
+ * the spilled event is supplied. A segment is deleted once all its entries are released, except the
+ * writing one, which is truncated and reused instead. The log is not durable: it's deleted when the
+ * source is closed, and the spilled events are re-extracted from the committed progress after
+ * restart like any other uncommitted events.
+ */
+public class PipeRealtimeEventSpillLog implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PipeRealtimeEventSpillLog.class);
+
+  private static final long SEGMENT_SIZE_IN_BYTES = 16 * 1024 * 1024L;
+  private static final String SEGMENT_SUFFIX = ".spill";
+
+  private final File dir;
+  private final long maxSizeInBytes;
+
+  // Guarded by this
+  private final Map<Long, Segment> segments = new HashMap<>();
+  private Segment writingSegment;
+  private long nextSegmentId = 0;
+  private long totalSizeInBytes = 0;
+  private boolean isClosed = false;
+
+  public PipeRealtimeEventSpillLog(final File dir, final long maxSizeInBytes) throws IOException {
+    if (dir.exists()) {
+      FileUtils.deleteQuietly(dir);
+    }
+    if (!dir.mkdirs() && !dir.isDirectory()) {
+      throw new IOException(String.format("Failed to create spill dir %s", dir.getPath()));
+    }
+    this.dir = dir;
+    this.maxSizeInBytes = maxSizeInBytes;
+  }
+
+  /**
+   * Append the buffer to the log.
+   *
+   * @return the appended entry, or {@code null} if the log is closed or full
+   */
+  public synchronized Entry append(final ByteBuffer buffer) throws IOException {
+    final int length = buffer.remaining();
+    if (isClosed || totalSizeInBytes + length > maxSizeInBytes) {
+      return null;
+    }
+
+    if (Objects.isNull(writingSegment)
+        || (writingSegment.size > 0 && writingSegment.size + length > SEGMENT_SIZE_IN_BYTES)) {
+      rollWritingSegment();
+    }
+
+    final Segment segment = writingSegment;
+    final long offset = segment.size;
+    while (buffer.hasRemaining()) {
+      segment.channel.write(buffer, segment.size + (length - buffer.remaining()));
+    }
+    segment.size += length;
+    ++segment.liveEntryCount;
+    totalSizeInBytes += length;
+    return new Entry(segment.id, offset, length);
+  }
+
+  private void rollWritingSegment() throws IOException {
+    final Segment previousSegment = writingSegment;
+    final long segmentId = nextSegmentId++;
+    writingSegment =
+        new Segment(
+            segmentId,
+            FileChannel.open(
+                new File(dir, segmentId + SEGMENT_SUFFIX).toPath(),
+                StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE));
+    segments.put(segmentId, writingSegment);
+
+    if (Objects.nonNull(previousSegment) && previousSegment.liveEntryCount == 0) {
+      deleteSegment(previousSegment);
+    }
+  }
+
+  public synchronized ByteBuffer read(final Entry entry) throws IOException {
+    final Segment segment = segments.get(entry.segmentId);
+    if (isClosed || Objects.isNull(segment)) {
+      throw new IOException(String.format("Spilled entry %s is not available", entry));
+    }
+
+    final ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+    while (buffer.hasRemaining()) {
+      if (segment.channel.read(buffer, entry.offset + buffer.position()) < 0) {
+        throw new IOException(
+            String.format("Unexpected end of segment %s when reading %s", segment.id, entry));
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  public synchronized void release(final Entry entry) {
+    final Segment segment = segments.get(entry.segmentId);
+    if (isClosed || Objects.isNull(segment) || --segment.liveEntryCount > 0) {
+      return;
+    }
+
+    if (segment != writingSegment) {
+      deleteSegment(segment);
+      return;
+    }
+
+    // All the entries have been released, reuse the writing segment from the beginning
+    try {
+      segment.channel.truncate(0);
+      totalSizeInBytes -= segment.size;
+      segment.size = 0;
+    } catch (final IOException e) {
+      LOGGER.warn("Failed to truncate spill segment {} in {}.", segment.id, dir, e);
+      writingSegment = null;
+      deleteSegment(segment);
+    }
+  }
+
+  private void deleteSegment(final Segment segment) {
+    segments.remove(segment.id);
+    totalSizeInBytes -= segment.size;
+    try {
+      segment.channel.close();
+    } catch (final IOException e) {
+      LOGGER.warn("Failed to close spill segment {} in {}.", segment.id, dir, e);
+    }
+    FileUtils.deleteQuietly(new File(dir, segment.id + SEGMENT_SUFFIX));
+  }
+
+  public synchronized long getTotalSizeInBytes() {
+    return totalSizeInBytes;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (isClosed) {
+      return;
+    }
+    isClosed = true;
+
+    for (final Segment segment : segments.values()) {
+      try {
+        segment.channel.close();
+      } catch (final IOException e) {
+        LOGGER.warn("Failed to close spill segment {} in {}.", segment.id, dir, e);
+      }
+    }
+    segments.clear();
+    writingSegment = null;
+    totalSizeInBytes = 0;
+    FileUtils.deleteQuietly(dir);
+  }
+
+  @Override
+  public String toString() {
+    return "PipeRealtimeEventSpillLog{dir=" + dir + ", maxSizeInBytes=" + maxSizeInBytes + '}';
+  }
+
+  /////////////////////////////// Entry & Segment ///////////////////////////////
+
+  public static class Entry {
+
+    private final long segmentId;
+    private final long offset;
+    private final int length;
+
+    private Entry(final long segmentId, final long offset, final int length) {
+      this.segmentId = segmentId;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    public int getLength() {
+      return length;
+    }
+
+    @Override
+    public String toString() {
+      return "Entry{segmentId=" + segmentId + ", offset=" + offset + ", length=" + length + '}';
+    }
+  }
+
+  private static class Segment {
+
+    private final long id;
+    private final FileChannel channel;
+    private long size = 0;
+    private int liveEntryCount = 0;
+
+    private Segment(final long id, final FileChannel channel) {
+      this.id = id;
+      this.channel = channel;
+    }
+  }
+}
@@ -459,6 +459,21 @@ public class SessionManager implements SessionManagerMBean {
     currSessionIdleTime.remove();
   }
 
+  /**
+   * Bind a registered session to the current thread, so that a helper thread of the session's
+   * client thread can execute statements on behalf of the session. Different from {@link
+   * #registerSession(IClientSession)}, the session is not owned by the current thread, and it must
+   * be unbound by {@link #unbindSessionFromCurrentThread()} instead of being removed.
+   */
+  public void bindSessionToCurrentThread(IClientSession session) {
+    this.currSession.set(session);
+  }
+
+  public void unbindSessionFromCurrentThread() {
+    currSession.remove();
+    currSessionIdleTime.remove();
+  }
+
   public void removeCurrSessionForMqtt(MqttClientSession mqttClientSession) {
     if (mqttClientSession != null) {
       sessions.remove(mqttClientSession);
@@ -191,6 +191,7 @@ import org.apache.iotdb.db.service.RegionMigrateService;
 import org.apache.iotdb.db.service.externalservice.ExternalServiceManagementService;
 import org.apache.iotdb.db.service.metrics.FileMetrics;
 import org.apache.iotdb.db.storageengine.StorageEngine;
+import org.apache.iotdb.db.storageengine.dataregion.SeriesSlotWriteStatistics;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.repair.RepairTaskStatus;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
@@ -398,6 +399,9 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
 
   private final ClusterTopology clusterTopology = ClusterTopology.getInstance();
 
+  private final HeartbeatStatisticsEncoder heartbeatStatisticsEncoder =
+      new HeartbeatStatisticsEncoder();
+
   private final CommonConfig commonConfig = CommonDescriptor.getInstance().getConfig();
 
   private final ExecutorService schemaExecutor =
@@ -618,7 +622,12 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
 
   @Override
   public TSStatus invalidatePartitionCache(final TInvalidateCacheReq req) {
-    ClusterPartitionFetcher.getInstance().invalidAllCache();
+    if (req.isStorageGroup() && Objects.nonNull(req.getFullPath())) {
+      // Only the partitions of the database are changed, keep the others cached
+      ClusterPartitionFetcher.getInstance().invalidDatabaseCache(req.getFullPath());
+    } else {
+      ClusterPartitionFetcher.getInstance().invalidAllCache();
+    }
     return new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode());
   }
 
@@ -2169,6 +2178,10 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
           .getDataRegionRatioMap()
           .forEach((key, value) -> regionRawDataSize.put(Integer.parseInt(key), value.getLeft()));
       resp.setDataRegionRawDataSize(regionRawDataSize);
+      if (IoTDBDescriptor.getInstance().getConfig().isEnableSeriesSlotWriteStatistics()) {
+        resp.setDataRegionSeriesSlotWritePoints(
+            SeriesSlotWriteStatistics.getInstance().sampleAndReset());
+      }
     }
     AuthorityChecker.getAuthorityFetcher().refreshToken();
     resp.setHeartbeatTimestamp(req.getHeartbeatTimestamp());
@@ -2215,6 +2228,9 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
                   req.getCurrentRegionOperations()));
     }
 
+    // Only send the changed region statistics when the ConfigNode has applied the last response
+    heartbeatStatisticsEncoder.encode(req, resp);
+
     return resp;
   }
 
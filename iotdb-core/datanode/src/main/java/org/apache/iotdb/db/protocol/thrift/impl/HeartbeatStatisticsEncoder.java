@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.thrift.impl;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.mpp.rpc.thrift.TDataNodeHeartbeatReq;
+import org.apache.iotdb.mpp.rpc.thrift.TDataNodeHeartbeatResp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Encodes the region statistics of the heartbeat response as the delta against the last response,
+ * i.e. judgedLeaders and consensusLogicalTimeMap only contain the entries changed since then. Each
+ * response is versioned, and the delta is only sent when the ConfigNode reports that it has applied
+ * the last response; otherwise, the full statistics are sent.
+ *
+ * <p>dataRegionRawDataSize is always sent in full, since it's only sampled in some of the
+ * heartbeats and a delta against a lost sampling could never be corrected.
+ */
+public class HeartbeatStatisticsEncoder {
+
+  // The version of the last response
+  private long version = 0;
+
+  // The statistics sent in the last response, which are the base of the next delta
+  private final Map<TConsensusGroupId, Boolean> lastJudgedLeaders = new HashMap<>();
+  private final Map<TConsensusGroupId, Long> lastConsensusLogicalTimeMap = new HashMap<>();
+
+  /**
+   * Replace the region statistics of the response with the delta if possible, and record them as
+   * the base of the next delta.
+   */
+  public synchronized void encode(TDataNodeHeartbeatReq req, TDataNodeHeartbeatResp resp) {
+    final boolean isDelta = req.isSetStatisticsVersion() && req.getStatisticsVersion() == version;
+    if (isDelta) {
+      resp.setStatisticsBaseVersion(version);
+    }
+    version++;
+    resp.setStatisticsVersion(version);
+
+    if (resp.isSetJudgedLeaders()) {
+      if (isDelta) {
+        final List<TConsensusGroupId> removedRegions = new ArrayList<>();
+        lastJudgedLeaders.keySet().stream()
+            .filter(regionId -> !resp.getJudgedLeaders().containsKey(regionId))
+            .forEach(removedRegions::add);
+        resp.setRemovedStatisticsRegions(removedRegions);
+      }
+      resp.setJudgedLeaders(encode(resp.getJudgedLeaders(), lastJudgedLeaders, isDelta));
+    }
+    if (resp.isSetConsensusLogicalTimeMap()) {
+      resp.setConsensusLogicalTimeMap(
+          encode(resp.getConsensusLogicalTimeMap(), lastConsensusLogicalTimeMap, isDelta));
+    }
+  }
+
+  private static <K, V> Map<K, V> encode(Map<K, V> current, Map<K, V> last, boolean isDelta) {
+    final Map<K, V> result;
+    if (isDelta) {
+      result = new HashMap<>();
+      current.forEach(
+          (key, value) -> {
+            if (!Objects.equals(last.get(key), value)) {
+              result.put(key, value);
+            }
+          });
+    } else {
+      result = current;
+    }
+    last.clear();
+    last.putAll(current);
+    return result;
+  }
+}
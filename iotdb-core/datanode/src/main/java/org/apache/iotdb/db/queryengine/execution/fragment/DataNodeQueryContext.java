@@ -59,6 +59,18 @@ public class DataNodeQueryContext {
 
   private final AtomicInteger dataNodeFINum;
 
+  // the number of fragment instances of the query on this DataNode, used by the admission control
+  private final int totalDataNodeFINum;
+  // whether the query is used to monitor and manage the system, e.g. SHOW QUERIES
+  private volatile boolean highestPriority = false;
+  // the timeout of the query, after which the memory kept by the admission control expires
+  private volatile long timeoutInMs = Long.MAX_VALUE;
+
+  // the memory kept by the admission control for the fragment instances not planned yet, -1 if the
+  // query has not been admitted
+  @GuardedBy("QueryAdmissionController")
+  private long admittedMemoryNotPlanned = -1;
+
   // TODO consider more fine-grained locks, now the AtomicInteger in uncachedPathToSeriesScanInfo is
   // unnecessary
   private final ReentrantLock lock = new ReentrantLock();
@@ -66,6 +78,7 @@ public class DataNodeQueryContext {
   public DataNodeQueryContext(int dataNodeFINum) {
     this.uncachedPathToSeriesScanInfo = new ConcurrentHashMap<>();
     this.dataNodeFINum = new AtomicInteger(dataNodeFINum);
+    this.totalDataNodeFINum = dataNodeFINum;
     this.deviceCountAndMeasurementValues = new HashMap<>();
   }
 
@@ -133,6 +146,34 @@ public class DataNodeQueryContext {
     return dataNodeFINum.decrementAndGet();
   }
 
+  public int getTotalDataNodeFINum() {
+    return totalDataNodeFINum;
+  }
+
+  public boolean isHighestPriority() {
+    return highestPriority;
+  }
+
+  public void setHighestPriority(boolean highestPriority) {
+    this.highestPriority = highestPriority;
+  }
+
+  public long getTimeoutInMs() {
+    return timeoutInMs;
+  }
+
+  public void setTimeoutInMs(long timeoutInMs) {
+    this.timeoutInMs = timeoutInMs;
+  }
+
+  public long getAdmittedMemoryNotPlanned() {
+    return admittedMemoryNotPlanned;
+  }
+
+  public void setAdmittedMemoryNotPlanned(long admittedMemoryNotPlanned) {
+    this.admittedMemoryNotPlanned = admittedMemoryNotPlanned;
+  }
+
   public void lock(boolean isDeviceInMultiRegion) {
     // When a device exists in only one region, there will be no intermediate state.
     if (isDeviceInMultiRegion) {
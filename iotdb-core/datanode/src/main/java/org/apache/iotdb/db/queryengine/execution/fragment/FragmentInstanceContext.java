@@ -34,6 +34,7 @@ import org.apache.iotdb.db.queryengine.common.DeviceContext;
 import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
 import org.apache.iotdb.db.queryengine.common.QueryId;
 import org.apache.iotdb.db.queryengine.common.SessionInfo;
+import org.apache.iotdb.db.queryengine.execution.memory.QueryAdmissionController;
 import org.apache.iotdb.db.queryengine.metric.DriverSchedulerMetricSet;
 import org.apache.iotdb.db.queryengine.metric.QueryRelatedResourceMetricSet;
 import org.apache.iotdb.db.queryengine.metric.QueryResourceMetricSet;
@@ -1076,6 +1077,7 @@ public class FragmentInstanceContext extends QueryContext {
     }
 
     if (dataNodeQueryContext.decreaseDataNodeFINum() == 0) {
+      QueryAdmissionController.getInstance().release(dataNodeQueryContext);
       dataNodeQueryContext = null;
       dataNodeQueryContextMap.remove(id.getQueryId());
     }
@@ -34,6 +34,7 @@ import org.apache.iotdb.db.queryengine.execution.driver.IDriver;
 import org.apache.iotdb.db.queryengine.execution.exchange.MPPDataExchangeManager;
 import org.apache.iotdb.db.queryengine.execution.exchange.MPPDataExchangeService;
 import org.apache.iotdb.db.queryengine.execution.exchange.sink.ISink;
+import org.apache.iotdb.db.queryengine.execution.memory.QueryAdmissionController;
 import org.apache.iotdb.db.queryengine.execution.schedule.DriverScheduler;
 import org.apache.iotdb.db.queryengine.execution.schedule.IDriverScheduler;
 import org.apache.iotdb.db.queryengine.metric.QueryExecutionMetricSet;
@@ -119,6 +120,12 @@ public class FragmentInstanceManager {
         2000,
         2000,
         TimeUnit.MILLISECONDS);
+    ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+        instanceManagementExecutor,
+        QueryAdmissionController.getInstance()::releaseExpired,
+        2000,
+        2000,
+        TimeUnit.MILLISECONDS);
 
     this.intoOperationExecutor =
         IoTDBThreadPoolFactory.newFixedThreadPool(
@@ -148,6 +155,11 @@ public class FragmentInstanceManager {
                 int dataNodeFINum = instance.getDataNodeFINum();
                 DataNodeQueryContext dataNodeQueryContext =
                     getOrCreateDataNodeQueryContext(instanceId.getQueryId(), dataNodeFINum);
+                if (instance.isHighestPriority()) {
+                  // always admitted by the admission control
+                  dataNodeQueryContext.setHighestPriority(true);
+                }
+                dataNodeQueryContext.setTimeoutInMs(instance.getTimeOut());
 
                 FragmentInstanceContext context =
                     instanceContext.computeIfAbsent(
@@ -332,6 +344,7 @@ public class FragmentInstanceManager {
   /** Aborts a FragmentInstance. keep FragmentInstanceContext for later state tracking */
   public FragmentInstanceInfo abortFragmentInstance(FragmentInstanceId fragmentInstanceId) {
     instanceExecution.remove(fragmentInstanceId);
+    releaseAdmittedMemory(fragmentInstanceId.getQueryId());
     FragmentInstanceContext context = instanceContext.get(fragmentInstanceId);
     if (context != null) {
       context.abort();
@@ -344,6 +357,7 @@ public class FragmentInstanceManager {
   public FragmentInstanceInfo cancelTask(FragmentInstanceId instanceId, boolean hasThrowable) {
     logger.debug("[CancelFI]");
     requireNonNull(instanceId, "taskId is null");
+    releaseAdmittedMemory(instanceId.getQueryId());
 
     FragmentInstanceContext context = instanceContext.remove(instanceId);
     if (context != null) {
@@ -358,6 +372,17 @@ public class FragmentInstanceManager {
     return null;
   }
 
+  /**
+   * The fragment instances of a cancelled query which have not arrived will never be planned, so
+   * the memory kept for them by the admission control is returned.
+   */
+  private void releaseAdmittedMemory(QueryId queryId) {
+    DataNodeQueryContext dataNodeQueryContext = dataNodeQueryContextMap.get(queryId);
+    if (dataNodeQueryContext != null) {
+      QueryAdmissionController.getInstance().release(dataNodeQueryContext);
+    }
+  }
+
   /**
    * Gets the info for the specified fragment instance.
    *
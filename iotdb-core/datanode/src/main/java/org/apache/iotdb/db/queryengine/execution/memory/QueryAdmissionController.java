@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.memory;
+
+import org.apache.iotdb.commons.exception.IoTDBRuntimeException;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.fragment.DataNodeQueryContext;
+import org.apache.iotdb.db.queryengine.metric.QueryRelatedResourceMetricSet;
+import org.apache.iotdb.db.queryengine.plan.planner.LocalExecutionPlanner;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Admits the data queries on this DataNode before the memory of their fragment instances is
+ * reserved, so that a burst of queries is turned away early instead of failing some fragment
+ * instances of a query in the middle of planning while the others hold memory and driver threads.
+ *
+ * <p>A query is admitted once, when the first of its fragment instances on this DataNode is
+ * planned. The memory of the query is estimated by the planner's estimate of that fragment instance
+ * times the number of fragment instances of the query on this DataNode. The memory of the fragment
+ * instances not planned yet is kept aside for the query, and a new query is only admitted if its
+ * memory fits in the free memory for operators minus the memory kept aside for the admitted
+ * queries. The later fragment instances of an admitted query are never rejected by the admission
+ * control.
+ *
+ * <p>A rejected query fails fast with {@link TSStatusCode#TOO_MANY_CONCURRENT_QUERIES_ERROR}, which
+ * the coordinator retries later, so no RPC thread is parked waiting for memory. The rejected
+ * queries are the queue of the admission control: the number of them waiting for a retry and the
+ * time they wait until admitted are exported as metrics.
+ *
+ * <p>The memory kept aside for a query is returned when all its fragment instances on this DataNode
+ * are done, or when the query is cancelled, since the fragment instances whose dispatch is given up
+ * never arrive. It also expires after the timeout of the query in case the cancellation is lost.
+ */
+public class QueryAdmissionController {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(QueryAdmissionController.class);
+
+  private final boolean enabled;
+  private final LongSupplier freeMemorySupplier;
+  private final long totalMemory;
+  private final LongConsumer waitTimeRecorder;
+
+  // the memory kept aside for the fragment instances of the admitted queries not planned yet
+  private long admittedMemoryNotPlanned = 0;
+  // the expire time of the memory kept aside for each admitted query
+  private final Map<DataNodeQueryContext, Long> keptAsideExpireTimes = new HashMap<>();
+  // the rejected queries waiting for a retry, and the time they were first rejected
+  private final Map<QueryId, WaitingQuery> waitingQueries = new HashMap<>();
+
+  private final AtomicLong admittedCount = new AtomicLong(0);
+  private final AtomicLong rejectedCount = new AtomicLong(0);
+
+  private QueryAdmissionController() {
+    this(
+        IoTDBDescriptor.getInstance().getConfig().isEnableQueryAdmissionControl(),
+        LocalExecutionPlanner.getInstance()::getFreeMemoryForOperators,
+        LocalExecutionPlanner.getInstance().getAllocateMemoryForOperators(),
+        QueryRelatedResourceMetricSet.getInstance()::updateQueryAdmissionWaitTime);
+  }
+
+  QueryAdmissionController(
+      boolean enabled,
+      LongSupplier freeMemorySupplier,
+      long totalMemory,
+      LongConsumer waitTimeRecorder) {
+    this.enabled = enabled;
+    this.freeMemorySupplier = freeMemorySupplier;
+    this.totalMemory = totalMemory;
+    this.waitTimeRecorder = waitTimeRecorder;
+  }
+
+  public static QueryAdmissionController getInstance() {
+    return QueryAdmissionControllerHolder.INSTANCE;
+  }
+
+  /**
+   * Called by the planner before it reserves the estimated memory of a fragment instance.
+   *
+   * @param queryId the id of the query of the fragment instance
+   * @param queryContext the context of the query of the fragment instance on this DataNode
+   * @param estimatedMemory the memory of the fragment instance estimated by the planner
+   * @throws IoTDBRuntimeException if the query is not admitted
+   */
+  public synchronized void admit(
+      QueryId queryId, DataNodeQueryContext queryContext, long estimatedMemory) {
+    if (!enabled) {
+      return;
+    }
+    long notPlanned = queryContext.getAdmittedMemoryNotPlanned();
+    if (notPlanned >= 0) {
+      // the memory kept aside is about to be reserved by the planner
+      long planned = Math.min(notPlanned, estimatedMemory);
+      queryContext.setAdmittedMemoryNotPlanned(notPlanned - planned);
+      admittedMemoryNotPlanned -= planned;
+      if (notPlanned == planned) {
+        keptAsideExpireTimes.remove(queryContext);
+      }
+      return;
+    }
+
+    // the estimate is capped so that the query can always be admitted once the others finish
+    long queryMemory =
+        Math.min(estimatedMemory * Math.max(queryContext.getTotalDataNodeFINum(), 1), totalMemory);
+    long freeMemory = freeMemorySupplier.getAsLong();
+    long currentTime = System.currentTimeMillis();
+    if (!queryContext.isHighestPriority() && queryMemory + admittedMemoryNotPlanned > freeMemory) {
+      rejectedCount.incrementAndGet();
+      waitingQueries.computeIfAbsent(
+          queryId,
+          k ->
+              new WaitingQuery(
+                  currentTime, expireTime(currentTime, queryContext.getTimeoutInMs())));
+      LOGGER.debug(
+          "Query is rejected by admission control, estimated memory: {}B, free memory: {}B, "
+              + "memory kept for admitted queries: {}B",
+          queryMemory,
+          freeMemory,
+          admittedMemoryNotPlanned);
+      throw new IoTDBRuntimeException(
+          String.format(
+              "There is not enough memory to admit current query, current remaining free memory "
+                  + "is %dB, %dB of which is kept for the admitted queries, estimated memory "
+                  + "usage for current query is %dB",
+              freeMemory, admittedMemoryNotPlanned, queryMemory),
+          TSStatusCode.TOO_MANY_CONCURRENT_QUERIES_ERROR.getStatusCode());
+    }
+    long keptAside = Math.max(queryMemory - estimatedMemory, 0);
+    queryContext.setAdmittedMemoryNotPlanned(keptAside);
+    admittedMemoryNotPlanned += keptAside;
+    if (keptAside > 0) {
+      keptAsideExpireTimes.put(
+          queryContext, expireTime(currentTime, queryContext.getTimeoutInMs()));
+    }
+    admittedCount.incrementAndGet();
+
+    WaitingQuery waitingQuery = waitingQueries.remove(queryId);
+    waitTimeRecorder.accept(
+        waitingQuery == null ? 0 : currentTime - waitingQuery.firstRejectedTime);
+  }
+
+  /**
+   * Called when all the fragment instances of the query on this DataNode are done or the query is
+   * cancelled, returns the memory kept for the fragment instances which have never been planned.
+   */
+  public synchronized void release(DataNodeQueryContext queryContext) {
+    long notPlanned = queryContext.getAdmittedMemoryNotPlanned();
+    if (notPlanned > 0) {
+      admittedMemoryNotPlanned -= notPlanned;
+      queryContext.setAdmittedMemoryNotPlanned(0);
+    }
+    keptAsideExpireTimes.remove(queryContext);
+  }
+
+  /**
+   * Returns the memory kept for the queries whose timeout has passed, and forgets the rejected
+   * queries which are not retried before their timeout.
+   */
+  public void releaseExpired() {
+    releaseExpired(System.currentTimeMillis());
+  }
+
+  synchronized void releaseExpired(long currentTime) {
+    Iterator<Map.Entry<DataNodeQueryContext, Long>> iterator =
+        keptAsideExpireTimes.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<DataNodeQueryContext, Long> entry = iterator.next();
+      if (entry.getValue() <= currentTime) {
+        DataNodeQueryContext queryContext = entry.getKey();
+        LOGGER.warn(
+            "The memory kept by admission control for a query expires, {}B is released",
+            queryContext.getAdmittedMemoryNotPlanned());
+        admittedMemoryNotPlanned -= queryContext.getAdmittedMemoryNotPlanned();
+        queryContext.setAdmittedMemoryNotPlanned(0);
+        iterator.remove();
+      }
+    }
+    waitingQueries.values().removeIf(waitingQuery -> waitingQuery.expireTime <= currentTime);
+  }
+
+  private static long expireTime(long currentTime, long timeoutInMs) {
+    return timeoutInMs >= Long.MAX_VALUE - currentTime ? Long.MAX_VALUE : currentTime + timeoutInMs;
+  }
+
+  public synchronized int getQueueSize() {
+    return waitingQueries.size();
+  }
+
+  public synchronized long getAdmittedMemoryNotPlanned() {
+    return admittedMemoryNotPlanned;
+  }
+
+  public long getAdmittedCount() {
+    return admittedCount.get();
+  }
+
+  public long getRejectedCount() {
+    return rejectedCount.get();
+  }
+
+  private static class WaitingQuery {
+
+    private final long firstRejectedTime;
+    private final long expireTime;
+
+    private WaitingQuery(long firstRejectedTime, long expireTime) {
+      this.firstRejectedTime = firstRejectedTime;
+      this.expireTime = expireTime;
+    }
+  }
+
+  private static class QueryAdmissionControllerHolder {
+
+    private static final QueryAdmissionController INSTANCE = new QueryAdmissionController();
+
+    private QueryAdmissionControllerHolder() {}
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process.join.dynamicfilter;
+
+import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.DeviceEntry;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.utils.Binary;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Prunes the devices of a table scan whose TAG or ATTRIBUTE values can't match the build side of
+ * the joins above it, so that none of their data is read.
+ */
+public class DeviceDynamicFilter {
+
+  public static final String PRUNED_DEVICE_NUMBER = "PrunedDeviceNumber";
+
+  private final List<DynamicFilterTarget> targets;
+  // (deviceEntry, index of the TAG column) -> value of the TAG column
+  private final BiFunction<DeviceEntry, Integer, String> tagValueExtractor;
+
+  public DeviceDynamicFilter(
+      List<DynamicFilterTarget> targets,
+      BiFunction<DeviceEntry, Integer, String> tagValueExtractor) {
+    this.targets = targets;
+    this.tagValueExtractor = tagValueExtractor;
+  }
+
+  /**
+   * @return true if no row of the device can appear in the result of the joins
+   */
+  public boolean canSkip(DeviceEntry deviceEntry) {
+    for (DynamicFilterTarget target : targets) {
+      DynamicFilter filter = target.getFilter();
+      if (!filter.isPublished()) {
+        continue;
+      }
+      Binary value;
+      if (target.getColumnCategory() == TsTableColumnCategory.TAG) {
+        String tagValue = tagValueExtractor.apply(deviceEntry, target.getColumnIndex());
+        value = tagValue == null ? null : new Binary(tagValue, TSFileConfig.STRING_CHARSET);
+      } else {
+        value = deviceEntry.getAttributeColumnValues()[target.getColumnIndex()];
+      }
+      if (!filter.mightContain(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process.join.dynamicfilter;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BloomFilter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The values of one join key on the build side of an inner join, published by the build side once
+ * it has been collected and used to prune the probe side before it is read. Every value might match
+ * before the filter is published.
+ *
+ * <p>The values are kept exactly if there are only a few of them, otherwise a Bloom filter together
+ * with the min and max values is kept. NULL never matches, since it can't appear in the result of
+ * an inner join.
+ */
+public class DynamicFilter {
+
+  private static final double BLOOM_FILTER_ERROR_RATE = 0.05;
+
+  private final int maxExactValues;
+
+  // null before the filter is published
+  private volatile Domain domain;
+
+  public DynamicFilter(int maxExactValues) {
+    this.maxExactValues = maxExactValues;
+  }
+
+  /** Publish the collected values, it is called at most once by the build side. */
+  public void publish(Set<Binary> values) {
+    if (values.size() <= maxExactValues) {
+      domain = new Domain(new HashSet<>(values), null, null, null);
+      return;
+    }
+    BloomFilter bloomFilter =
+        BloomFilter.getEmptyBloomFilter(BLOOM_FILTER_ERROR_RATE, values.size());
+    Binary min = null;
+    Binary max = null;
+    for (Binary value : values) {
+      bloomFilter.add(value.getStringValue(TSFileConfig.STRING_CHARSET));
+      if (min == null || value.compareTo(min) < 0) {
+        min = value;
+      }
+      if (max == null || value.compareTo(max) > 0) {
+        max = value;
+      }
+    }
+    domain = new Domain(null, bloomFilter, min, max);
+  }
+
+  public boolean isPublished() {
+    return domain != null;
+  }
+
+  /**
+   * @return false if the value is known to match none of the values on the build side
+   */
+  public boolean mightContain(Binary value) {
+    Domain currentDomain = domain;
+    if (currentDomain == null) {
+      return true;
+    }
+    if (value == null) {
+      return false;
+    }
+    if (currentDomain.values != null) {
+      return currentDomain.values.contains(value);
+    }
+    return value.compareTo(currentDomain.min) >= 0
+        && value.compareTo(currentDomain.max) <= 0
+        && currentDomain.bloomFilter.contains(value.getStringValue(TSFileConfig.STRING_CHARSET));
+  }
+
+  private static class Domain {
+
+    // exactly the values on the build side, null if the Bloom filter is used
+    private final Set<Binary> values;
+    private final BloomFilter bloomFilter;
+    private final Binary min;
+    private final Binary max;
+
+    private Domain(Set<Binary> values, BloomFilter bloomFilter, Binary min, Binary max) {
+      this.values = values;
+      this.bloomFilter = bloomFilter;
+      this.min = min;
+      this.max = max;
+    }
+  }
+}
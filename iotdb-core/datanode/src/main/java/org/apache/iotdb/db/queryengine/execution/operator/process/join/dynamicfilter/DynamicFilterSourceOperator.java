@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process.join.dynamicfilter;
+
+import org.apache.iotdb.db.queryengine.execution.MemoryEstimationHelper;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.process.ProcessOperator;
+import org.apache.iotdb.db.queryengine.plan.planner.memory.MemoryReservationManager;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The build side of an inner join. Before any data is returned, it buffers the child up to {@code
+ * maxBufferedSizeInBytes} and publishes the values of the join keys to the {@link DynamicFilter}s,
+ * then the buffered data is returned followed by the rest of the child. No filter is published if
+ * the child is larger than the buffer, the probe side is read without pruning then.
+ */
+public class DynamicFilterSourceOperator implements ProcessOperator {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(DynamicFilterSourceOperator.class);
+
+  public static final String DYNAMIC_FILTER_STATE = "DynamicFilterState";
+
+  private final OperatorContext operatorContext;
+  private final Operator child;
+  private final int[] joinKeyPositions;
+  // the i-th filter is collected from the column at joinKeyPositions[i]
+  private final List<DynamicFilter> filters;
+  private final long maxBufferedSizeInBytes;
+  private final MemoryReservationManager memoryReservationManager;
+
+  private boolean collecting = true;
+  private List<Set<Binary>> collectedValues;
+  private final List<TsBlock> bufferedBlocks = new ArrayList<>();
+  private int bufferedBlockIndex = 0;
+  private long bufferedSizeInBytes = 0;
+
+  public DynamicFilterSourceOperator(
+      OperatorContext operatorContext,
+      Operator child,
+      int[] joinKeyPositions,
+      List<DynamicFilter> filters,
+      long maxBufferedSizeInBytes) {
+    this.operatorContext = operatorContext;
+    this.child = child;
+    this.joinKeyPositions = joinKeyPositions;
+    this.filters = filters;
+    this.maxBufferedSizeInBytes = maxBufferedSizeInBytes;
+    this.memoryReservationManager =
+        operatorContext
+            .getDriverContext()
+            .getFragmentInstanceContext()
+            .getMemoryReservationContext();
+    this.collectedValues = new ArrayList<>(filters.size());
+    for (int i = 0; i < filters.size(); i++) {
+      collectedValues.add(new HashSet<>());
+    }
+  }
+
+  public boolean isCollecting() {
+    return collecting;
+  }
+
+  /**
+   * Buffer the child until it is blocked, the time slice is used up or the collecting is finished.
+   * The parent should call it instead of {@link #next()} while {@link #isCollecting()}.
+   */
+  public void collect() throws Exception {
+    long maxRuntime = operatorContext.getMaxRunTime().roundTo(TimeUnit.NANOSECONDS);
+    long start = System.nanoTime();
+    while (collecting && System.nanoTime() - start < maxRuntime) {
+      if (!child.isBlocked().isDone()) {
+        return;
+      }
+      if (!child.hasNextWithTimer()) {
+        finishCollecting(true);
+        return;
+      }
+      TsBlock tsBlock = child.nextWithTimer();
+      if (tsBlock == null || tsBlock.isEmpty()) {
+        continue;
+      }
+      long size = tsBlock.getRetainedSizeInBytes();
+      bufferedSizeInBytes += size;
+      memoryReservationManager.reserveMemoryCumulatively(size);
+      bufferedBlocks.add(tsBlock);
+      if (bufferedSizeInBytes > maxBufferedSizeInBytes) {
+        finishCollecting(false);
+        return;
+      }
+      for (int i = 0; i < joinKeyPositions.length; i++) {
+        Column column = tsBlock.getColumn(joinKeyPositions[i]);
+        Set<Binary> values = collectedValues.get(i);
+        for (int row = 0, positionCount = column.getPositionCount(); row < positionCount; row++) {
+          if (!column.isNull(row)) {
+            values.add(column.getBinary(row));
+          }
+        }
+      }
+    }
+  }
+
+  private void finishCollecting(boolean publish) {
+    collecting = false;
+    if (publish) {
+      for (int i = 0; i < filters.size(); i++) {
+        filters.get(i).publish(collectedValues.get(i));
+      }
+    }
+    collectedValues = null;
+    operatorContext.recordSpecifiedInfo(DYNAMIC_FILTER_STATE, publish ? "PUBLISHED" : "SKIPPED");
+  }
+
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    if (!collecting && bufferedBlockIndex < bufferedBlocks.size()) {
+      return NOT_BLOCKED;
+    }
+    return child.isBlocked();
+  }
+
+  @Override
+  public TsBlock next() throws Exception {
+    if (collecting) {
+      collect();
+      return null;
+    }
+    if (bufferedBlockIndex < bufferedBlocks.size()) {
+      TsBlock tsBlock = bufferedBlocks.get(bufferedBlockIndex);
+      bufferedBlocks.set(bufferedBlockIndex++, null);
+      releaseBufferedMemory(tsBlock.getRetainedSizeInBytes());
+      return tsBlock;
+    }
+    return child.nextWithTimer();
+  }
+
+  @Override
+  public boolean hasNext() throws Exception {
+    return collecting || bufferedBlockIndex < bufferedBlocks.size() || child.hasNextWithTimer();
+  }
+
+  @Override
+  public boolean isFinished() throws Exception {
+    return !hasNext();
+  }
+
+  private void releaseBufferedMemory(long size) {
+    bufferedSizeInBytes -= size;
+    memoryReservationManager.releaseMemoryCumulatively(size);
+  }
+
+  @Override
+  public void close() throws Exception {
+    child.close();
+    if (bufferedSizeInBytes > 0) {
+      releaseBufferedMemory(bufferedSizeInBytes);
+    }
+    bufferedBlocks.clear();
+  }
+
+  @Override
+  public long calculateMaxPeekMemory() {
+    return child.calculateMaxPeekMemoryWithCounter();
+  }
+
+  @Override
+  public long calculateMaxReturnSize() {
+    return child.calculateMaxReturnSize();
+  }
+
+  @Override
+  public long calculateRetainedSizeAfterCallingNext() {
+    return child.calculateRetainedSizeAfterCallingNext();
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    return INSTANCE_SIZE
+        + MemoryEstimationHelper.getEstimatedSizeOfAccountableObject(child)
+        + MemoryEstimationHelper.getEstimatedSizeOfAccountableObject(operatorContext)
+        + RamUsageEstimator.sizeOf(joinKeyPositions);
+  }
+
+  @Override
+  public OperatorContext getOperatorContext() {
+    return operatorContext;
+  }
+}
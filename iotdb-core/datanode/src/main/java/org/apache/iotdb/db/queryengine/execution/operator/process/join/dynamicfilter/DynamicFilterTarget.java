@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process.join.dynamicfilter;
+
+import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
+
+/** A TAG or ATTRIBUTE column of a table scan on the probe side, pruned by a dynamic filter. */
+public class DynamicFilterTarget {
+
+  private final DynamicFilter filter;
+  private final TsTableColumnCategory columnCategory;
+  // index of the column in the TAG columns or the ATTRIBUTE columns of the table
+  private final int columnIndex;
+
+  public DynamicFilterTarget(
+      DynamicFilter filter, TsTableColumnCategory columnCategory, int columnIndex) {
+    this.filter = filter;
+    this.columnCategory = columnCategory;
+    this.columnIndex = columnIndex;
+  }
+
+  public DynamicFilter getFilter() {
+    return filter;
+  }
+
+  public TsTableColumnCategory getColumnCategory() {
+    return columnCategory;
+  }
+
+  public int getColumnIndex() {
+    return columnIndex;
+  }
+}
@@ -27,9 +27,13 @@ import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeTTLCache;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.SeriesScanOptions;
 import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
+import org.apache.iotdb.db.storageengine.buffer.DecodedPageCache;
+import org.apache.iotdb.db.storageengine.buffer.DecodedPageCache.DecodedPageCacheKey;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.AlignedReadOnlyMemChunk;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.ReadOnlyMemChunk;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.DiskAlignedChunkLoader;
+import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.DiskChunkLoader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.MemAlignedPageReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.MemChunkLoader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.MemPageReader;
@@ -37,6 +41,7 @@ import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.DescPrior
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.MergeReaderPriority;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.NoDataPointReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.PriorityMergeReader;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.utils.CommonUtils;
 import org.apache.iotdb.db.utils.SchemaUtils;
@@ -156,6 +161,12 @@ public class SeriesScanUtil implements Accountable {
 
   protected TimeRange satisfiedTimeRange;
 
+  // the number of files, chunks and pages skipped because their statistics prove that none of
+  // their points satisfies the push down filter
+  private long prunedFileCount = 0;
+  private long prunedChunkCount = 0;
+  private long prunedPageCount = 0;
+
   public SeriesScanUtil(
       IFullPath seriesPath,
       Ordering scanOrder,
@@ -334,6 +345,18 @@ public class SeriesScanUtil implements Accountable {
         && filterAllSatisfy(scanOptions.getPushDownFilter(), firstTimeSeriesMetadata);
   }
 
+  public long getPrunedFileCount() {
+    return prunedFileCount;
+  }
+
+  public long getPrunedChunkCount() {
+    return prunedChunkCount;
+  }
+
+  public long getPrunedPageCount() {
+    return prunedPageCount;
+  }
+
   @SuppressWarnings("squid:S3740")
   public Statistics currentFileTimeStatistics() {
     return firstTimeSeriesMetadata.getTimeStatistics();
@@ -418,6 +441,7 @@ public class SeriesScanUtil implements Accountable {
     Filter pushDownFilter = scanOptions.getPushDownFilter();
     if (pushDownFilter != null && pushDownFilter.canSkip(firstChunkMetadata)) {
       skipCurrentChunk();
+      prunedChunkCount++;
       return;
     }
 
@@ -709,17 +733,21 @@ public class SeriesScanUtil implements Accountable {
     // init TsBlockBuilder for each page reader
     pageReaderList.forEach(p -> p.initTsBlockBuilder(getTsDataTypeList()));
 
+    TsFileID tsFileID = getTsFileIDOfSharedPages(chunkLoader);
+    long[] chunkOffsets = tsFileID == null ? null : getChunkOffsets(chunkMetaData);
+
     if (chunkMetaData.isSeq()) {
       if (orderUtils.getAscending()) {
-        for (IPageReader iPageReader : pageReaderList) {
+        for (int i = 0; i < pageReaderList.size(); i++) {
           seqPageReaders.add(
               new VersionPageReader(
                   context,
                   timestampInFileName,
                   chunkMetaData.getVersion(),
                   chunkMetaData.getOffsetOfChunkHeader(),
-                  iPageReader,
-                  true));
+                  pageReaderList.get(i),
+                  true,
+                  getDecodedPageCacheKey(tsFileID, chunkOffsets, pageReaderList.get(i))));
         }
       } else {
         for (int i = pageReaderList.size() - 1; i >= 0; i--) {
@@ -730,20 +758,22 @@ public class SeriesScanUtil implements Accountable {
                   chunkMetaData.getVersion(),
                   chunkMetaData.getOffsetOfChunkHeader(),
                   pageReaderList.get(i),
-                  true));
+                  true,
+                  getDecodedPageCacheKey(tsFileID, chunkOffsets, pageReaderList.get(i))));
         }
       }
     } else {
-      pageReaderList.forEach(
-          pageReader ->
-              unSeqPageReaders.add(
-                  new VersionPageReader(
-                      context,
-                      timestampInFileName,
-                      chunkMetaData.getVersion(),
-                      chunkMetaData.getOffsetOfChunkHeader(),
-                      pageReader,
-                      false)));
+      for (int i = 0; i < pageReaderList.size(); i++) {
+        unSeqPageReaders.add(
+            new VersionPageReader(
+                context,
+                timestampInFileName,
+                chunkMetaData.getVersion(),
+                chunkMetaData.getOffsetOfChunkHeader(),
+                pageReaderList.get(i),
+                false,
+                getDecodedPageCacheKey(tsFileID, chunkOffsets, pageReaderList.get(i))));
+      }
     }
 
     if (LOGGER.isDebugEnabled()) {
@@ -753,6 +783,62 @@ public class SeriesScanUtil implements Accountable {
     }
   }
 
+  /**
+   * @return the TsFileID of the chunk if its decoded pages can be shared with other scans, null
+   *     otherwise
+   */
+  private TsFileID getTsFileIDOfSharedPages(IChunkLoader chunkLoader) {
+    if (!DecodedPageCache.getInstance().isEnabled()) {
+      return null;
+    }
+    if (chunkLoader instanceof DiskChunkLoader) {
+      return ((DiskChunkLoader) chunkLoader).getTsFileID();
+    } else if (chunkLoader instanceof DiskAlignedChunkLoader) {
+      return ((DiskAlignedChunkLoader) chunkLoader).getTsFileID();
+    }
+    return null;
+  }
+
+  private long[] getChunkOffsets(IChunkMetadata chunkMetaData) {
+    if (!(chunkMetaData instanceof AbstractAlignedChunkMetadata)) {
+      return new long[] {chunkMetaData.getOffsetOfChunkHeader()};
+    }
+    AbstractAlignedChunkMetadata alignedChunkMetadata =
+        (AbstractAlignedChunkMetadata) chunkMetaData;
+    List<IChunkMetadata> valueChunkMetadataList = alignedChunkMetadata.getValueChunkMetadataList();
+    long[] chunkOffsets = new long[valueChunkMetadataList.size() + 1];
+    chunkOffsets[0] = alignedChunkMetadata.getOffsetOfChunkHeader();
+    for (int i = 0; i < valueChunkMetadataList.size(); i++) {
+      IChunkMetadata valueChunkMetadata = valueChunkMetadataList.get(i);
+      chunkOffsets[i + 1] =
+          valueChunkMetadata == null ? -1 : valueChunkMetadata.getOffsetOfChunkHeader();
+    }
+    return chunkOffsets;
+  }
+
+  /**
+   * The decoded page can be shared only if it doesn't depend on this scan. The push down filter,
+   * the limit and the offset are checked later while reading the page, since they are set after the
+   * page reader is created.
+   */
+  private DecodedPageCacheKey getDecodedPageCacheKey(
+      TsFileID tsFileID, long[] chunkOffsets, IPageReader pageReader) {
+    if (tsFileID == null
+        || pageReader.isModified()
+        || pageReader.getTimeStatistics() == null
+        || !filterAllSatisfy(scanOptions.getGlobalTimeFilter(), pageReader)) {
+      return null;
+    }
+    // the pages not satisfying the time filter are skipped by the chunk reader, so the page is
+    // identified by its start time, which is unique in a chunk, instead of its index in the list
+    return new DecodedPageCacheKey(
+        tsFileID,
+        chunkOffsets,
+        pageReader.getTimeStatistics().getStartTime(),
+        getTsDataTypeList(),
+        pageReader.getClass());
+  }
+
   private void unpackOneFakeMemChunkMetaData(
       IChunkMetadata chunkMetaData, MemChunkLoader chunkLoader, long timestampInFileName) {
     ReadOnlyMemChunk readOnlyMemChunk = chunkLoader.getReadOnlyMemChunk();
@@ -1390,6 +1476,7 @@ public class SeriesScanUtil implements Accountable {
     Filter pushDownFilter = scanOptions.getPushDownFilter();
     if (pushDownFilter != null && pushDownFilter.canSkip(pageReader)) {
       skipCurrentPage();
+      prunedPageCount++;
       return;
     }
 
@@ -1869,6 +1956,7 @@ public class SeriesScanUtil implements Accountable {
     Filter pushDownFilter = scanOptions.getPushDownFilter();
     if (pushDownFilter != null && pushDownFilter.canSkip(firstTimeSeriesMetadata)) {
       skipCurrentFile();
+      prunedFileCount++;
       return;
     }
 
@@ -1985,14 +2073,20 @@ public class SeriesScanUtil implements Accountable {
     protected final boolean isAligned;
     protected final boolean isMem;
 
+    // not null if the decoded data of this page may be shared with the other scans
+    private final DecodedPageCacheKey decodedPageCacheKey;
+    private boolean scanSpecific = false;
+
     VersionPageReader(
         QueryContext context,
         long fileTimestamp,
         long version,
         long offset,
         IPageReader data,
-        boolean isSeq) {
+        boolean isSeq,
+        DecodedPageCacheKey decodedPageCacheKey) {
       this.context = context;
+      this.decodedPageCacheKey = decodedPageCacheKey;
       this.version = new MergeReaderPriority(fileTimestamp, version, offset, isSeq);
       this.data = data;
       this.isSeq = isSeq;
@@ -2030,7 +2124,11 @@ public class SeriesScanUtil implements Accountable {
     public TsBlock getAllSatisfiedPageData(boolean ascending) throws IOException {
       long startTime = System.nanoTime();
       try {
-        TsBlock tsBlock = data.getAllSatisfiedData();
+        // the shared TsBlock is read-only, so it is never reversed
+        TsBlock tsBlock =
+            ascending && canShareDecodedPage()
+                ? DecodedPageCache.getInstance().get(decodedPageCacheKey, data)
+                : data.getAllSatisfiedData();
         if (!ascending) {
           tsBlock.reverse();
         }
@@ -2060,7 +2158,14 @@ public class SeriesScanUtil implements Accountable {
       }
     }
 
+    private boolean canShareDecodedPage() {
+      return decodedPageCacheKey != null && !scanSpecific && !data.isModified();
+    }
+
     public void addPushDownFilter(Filter pushDownFilter) {
+      if (pushDownFilter != null) {
+        scanSpecific = true;
+      }
       data.addRecordFilter(pushDownFilter);
     }
 
@@ -2073,6 +2178,9 @@ public class SeriesScanUtil implements Accountable {
     }
 
     public void setLimitOffset(PaginationController paginationController) {
+      if (paginationController.hasCurOffset() || paginationController.hasLimit()) {
+        scanSpecific = true;
+      }
       data.setLimitOffset(paginationController);
     }
   }
@@ -37,12 +37,15 @@ import org.apache.iotdb.db.queryengine.plan.relational.metadata.DeviceEntry;
 import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
 import org.apache.iotdb.db.storageengine.dataregion.read.IQueryDataSource;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.storageengine.dataregion.rollup.RollupViewManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 
 import org.apache.tsfile.block.column.Column;
 import org.apache.tsfile.block.column.ColumnBuilder;
 import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
 import org.apache.tsfile.file.metadata.statistics.StringStatistics;
 import org.apache.tsfile.read.common.TimeRange;
@@ -50,11 +53,13 @@ import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.tsfile.read.common.block.column.BinaryColumn;
 import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.read.filter.basic.Filter;
 import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.Pair;
 import org.apache.tsfile.write.schema.IMeasurementSchema;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -70,6 +75,15 @@ import static org.apache.tsfile.read.common.block.TsBlockUtil.skipPointsOutOfTim
 
 public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOperator {
 
+  private static final String ROLLUP_ANSWERED_TIME_RANGE_COUNT = "RollupAnsweredTimeRangeCount";
+  private static final String PRUNED_FILE_NUMBER = "PrunedFileNumber";
+  private static final String PRUNED_CHUNK_NUMBER = "PrunedChunkNumber";
+  private static final String PRUNED_PAGE_NUMBER = "PrunedPageNumber";
+  private static final String STATISTICS_ANSWERED_FILE_NUMBER = "StatisticsAnsweredFileNumber";
+  private static final String STATISTICS_ANSWERED_CHUNK_NUMBER = "StatisticsAnsweredChunkNumber";
+  private static final String STATISTICS_ANSWERED_PAGE_NUMBER = "StatisticsAnsweredPageNumber";
+  private static final String DECODED_PAGE_NUMBER = "DecodedPageNumber";
+
   private boolean finished = false;
   private TsBlock inputTsBlock;
 
@@ -110,6 +124,24 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
 
   private boolean allAggregatorsHasFinalResult = false;
 
+  // whether the date_bin windows can be answered by the materialized rollup views
+  private final boolean canUseRollupViews;
+  // the current time range if it has been answered by the rollup views, otherwise null
+  private TimeRange rollupAnsweredTimeRange;
+  private long rollupAnsweredTimeRangeCount = 0;
+
+  // files, chunks and pages whose statistics prove that none of their points satisfies the push
+  // down filter, only counted for the devices already consumed
+  private long prunedFileCount = 0;
+  private long prunedChunkCount = 0;
+  private long prunedPageCount = 0;
+  // files, chunks and pages aggregated from statistics, all of their points satisfy the filters
+  private long statisticsAnsweredFileCount = 0;
+  private long statisticsAnsweredChunkCount = 0;
+  private long statisticsAnsweredPageCount = 0;
+  // pages which have to be decoded, including the batches merged from the overlapped pages
+  private long decodedPageCount = 0;
+
   protected AbstractAggTableScanOperator(AbstractAggTableScanOperatorParameter parameter) {
 
     this.sourceId = parameter.sourceId;
@@ -147,6 +179,7 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
         timeIterator.getType() == ITableTimeRangeIterator.TimeIteratorType.DATE_BIN_TIME_ITERATOR
             ? 1
             : 0;
+    this.canUseRollupViews = canUseRollupViews();
 
     constructAlignedSeriesScanUtil();
   }
@@ -295,6 +328,11 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
     updateCurTimeRange(inputTsBlock.getStartTime());
 
     TimeRange curTimeRange = timeIterator.getCurTimeRange();
+    if (rollupAnsweredTimeRange != null) {
+      // the points in current time range have been aggregated from the rollup views
+      inputTsBlock = skipPointsNotAfter(inputTsBlock, curTimeRange.getMax());
+      return new Pair<>(inputTsBlock != null, inputTsBlock);
+    }
     // check if the tsBlock does not contain points in current interval
     if (satisfiedTimeRange(inputTsBlock, curTimeRange, ascending)) {
       // skip points that cannot be calculated
@@ -489,6 +527,12 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
           }
         }
 
+        if (isAnsweredByRollupViews(
+            fileTimeStatistics.getStartTime(), fileTimeStatistics.getEndTime())) {
+          seriesScanUtil.skipCurrentFile();
+          continue;
+        }
+
         // calc from fileMetaData
         if (timeIterator
             .getCurTimeRange()
@@ -499,6 +543,7 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
           }
           calcFromStatistics(fileTimeStatistics, statisticsList);
           seriesScanUtil.skipCurrentFile();
+          statisticsAnsweredFileCount++;
           if (isAllAggregatorsHasFinalResult(tableAggregators)) {
             return true;
           } else {
@@ -542,6 +587,12 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
           }
         }
 
+        if (isAnsweredByRollupViews(
+            chunkTimeStatistics.getStartTime(), chunkTimeStatistics.getEndTime())) {
+          seriesScanUtil.skipCurrentChunk();
+          continue;
+        }
+
         // calc from chunkMetaData
         if (timeIterator
             .getCurTimeRange()
@@ -553,6 +604,7 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
           }
           calcFromStatistics(chunkTimeStatistics, statisticsList);
           seriesScanUtil.skipCurrentChunk();
+          statisticsAnsweredChunkCount++;
           if (isAllAggregatorsHasFinalResult(tableAggregators)) {
             return true;
           } else {
@@ -592,6 +644,12 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
             }
           }
 
+          if (isAnsweredByRollupViews(
+              pageTimeStatistics.getStartTime(), pageTimeStatistics.getEndTime())) {
+            seriesScanUtil.skipCurrentPage();
+            continue;
+          }
+
           // can use pageHeader
           if (timeIterator
               .getCurTimeRange()
@@ -602,6 +660,7 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
             }
             calcFromStatistics(pageTimeStatistics, statisticsList);
             seriesScanUtil.skipCurrentPage();
+            statisticsAnsweredPageCount++;
             if (isAllAggregatorsHasFinalResult(tableAggregators)) {
               return true;
             } else {
@@ -615,6 +674,7 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
         if (originalTsBlock == null) {
           continue;
         }
+        decodedPageCount++;
 
         // calc from raw data
         if (calcUsingRawData(originalTsBlock)) {
@@ -636,12 +696,121 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
 
     if (!timeIterator.hasCachedTimeRange()) {
       timeIterator.updateCurTimeRange(startTime);
+      calcFromRollupViews(startTime);
     } else if (timeIterator.canFinishCurrentTimeRange(startTime)) {
       updateResultTsBlock();
       timeIterator.resetCurTimeRange();
       timeIterator.updateCurTimeRange(startTime);
       resetTableAggregators();
+      calcFromRollupViews(startTime);
+    }
+  }
+
+  private boolean canUseRollupViews() {
+    if (!RollupViewManager.getInstance().isEnabled()
+        || timeIterator.getType() != ITableTimeRangeIterator.TimeIteratorType.DATE_BIN_TIME_ITERATOR
+        || !ascending
+        || !canUseStatistics
+        || seriesScanOptions.getPushDownFilter() != null
+        || seriesScanOptions.isTableViewForTreeModel()
+        || tableAggregators.isEmpty()) {
+      return false;
+    }
+    // the rollup views only keep the statistics of the field columns
+    for (int inputChannel : aggregatorInputChannels) {
+      if (aggColumnSchemas.get(inputChannel).getColumnCategory() != TsTableColumnCategory.FIELD) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Try to aggregate the newly started time range from the rollup views, the data of the time range
+   * is skipped afterwards if succeeded.
+   *
+   * @param startTime the first time of the current device seen in the time range
+   */
+  private void calcFromRollupViews(long startTime) {
+    rollupAnsweredTimeRange = null;
+    if (!canUseRollupViews
+        || currentDeviceIndex >= deviceCount
+        || deviceEntries.get(currentDeviceIndex) == null) {
+      return;
     }
+    TimeRange curTimeRange = timeIterator.getCurTimeRange();
+    Filter globalTimeFilter = seriesScanOptions.getGlobalTimeFilter();
+    if (globalTimeFilter != null
+        && !globalTimeFilter.containStartEndTime(curTimeRange.getMin(), curTimeRange.getMax())) {
+      return;
+    }
+    IDeviceID deviceID = deviceEntries.get(currentDeviceIndex).getDeviceID();
+    // the unsequence data in memory or not yet compacted may not be observed by the views
+    for (TsFileResource unseqResource : queryDataSource.getUnseqResources()) {
+      Optional<Long> unseqStartTime = unseqResource.getStartTime(deviceID);
+      Optional<Long> unseqEndTime = unseqResource.getEndTime(deviceID);
+      if (unseqStartTime.isPresent()
+          && unseqEndTime.isPresent()
+          && unseqStartTime.get() <= curTimeRange.getMax()
+          && unseqEndTime.get() >= curTimeRange.getMin()) {
+        return;
+      }
+    }
+
+    String dataRegionId =
+        operatorContext.getInstanceContext().getDataRegion().getDataRegionIdString();
+    Statistics[] valueStatistics = new Statistics[measurementCount];
+    Statistics timeStatistics = Statistics.getStatsByType(TSDataType.VECTOR);
+    for (int inputChannel : aggregatorInputChannels) {
+      int measurementIndex = aggColumnsIndexArray[inputChannel];
+      if (valueStatistics[measurementIndex] != null) {
+        continue;
+      }
+      Statistics<? extends Serializable> statistics =
+          RollupViewManager.getInstance()
+              .read(
+                  dataRegionId,
+                  deviceID,
+                  measurementColumnNames.get(measurementIndex),
+                  curTimeRange.getMin(),
+                  curTimeRange.getMax());
+      // data before the first visible time (e.g. expired by TTL) is hidden from the query
+      if (statistics == null
+          || statistics.getType() != measurementColumnTSDataTypes.get(measurementIndex)
+          || statistics.getStartTime() < startTime) {
+        return;
+      }
+      valueStatistics[measurementIndex] = statistics;
+      if (timeStatistics.isEmpty()) {
+        timeStatistics.setStartTime(statistics.getStartTime());
+        timeStatistics.setEndTime(statistics.getEndTime());
+        timeStatistics.setEmpty(false);
+      } else {
+        timeStatistics.setStartTime(
+            Math.min(timeStatistics.getStartTime(), statistics.getStartTime()));
+        timeStatistics.setEndTime(Math.max(timeStatistics.getEndTime(), statistics.getEndTime()));
+      }
+      timeStatistics.setCount(Math.max(timeStatistics.getCount(), statistics.getCount()));
+    }
+
+    calcFromStatistics(timeStatistics, valueStatistics);
+    rollupAnsweredTimeRange = curTimeRange;
+    operatorContext.recordSpecifiedInfo(
+        ROLLUP_ANSWERED_TIME_RANGE_COUNT, Long.toString(++rollupAnsweredTimeRangeCount));
+  }
+
+  private boolean isAnsweredByRollupViews(long startTime, long endTime) {
+    return rollupAnsweredTimeRange != null && rollupAnsweredTimeRange.contains(startTime, endTime);
+  }
+
+  private static TsBlock skipPointsNotAfter(TsBlock tsBlock, long time) {
+    Column timeColumn = tsBlock.getTimeColumn();
+    int positionCount = tsBlock.getPositionCount();
+    int index = 0;
+    while (index < positionCount && timeColumn.getLong(index) <= time) {
+      index++;
+    }
+    return index >= positionCount ? null : tsBlock.subTsBlock(index);
   }
 
   /** Append a row of aggregation results to the result tsBlock. */
@@ -731,8 +900,28 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
 
   private void nextDevice() {
     currentDeviceIndex++;
+    rollupAnsweredTimeRange = null;
     this.operatorContext.recordSpecifiedInfo(
         CURRENT_DEVICE_INDEX_STRING, Integer.toString(currentDeviceIndex));
+    // the SeriesScanUtil of the consumed device is replaced afterwards
+    prunedFileCount += seriesScanUtil.getPrunedFileCount();
+    prunedChunkCount += seriesScanUtil.getPrunedChunkCount();
+    prunedPageCount += seriesScanUtil.getPrunedPageCount();
+    recordStatisticsUsage();
+  }
+
+  /** Record how many files, chunks and pages are pruned, answered by statistics or decoded. */
+  private void recordStatisticsUsage() {
+    operatorContext.recordSpecifiedInfo(PRUNED_FILE_NUMBER, Long.toString(prunedFileCount));
+    operatorContext.recordSpecifiedInfo(PRUNED_CHUNK_NUMBER, Long.toString(prunedChunkCount));
+    operatorContext.recordSpecifiedInfo(PRUNED_PAGE_NUMBER, Long.toString(prunedPageCount));
+    operatorContext.recordSpecifiedInfo(
+        STATISTICS_ANSWERED_FILE_NUMBER, Long.toString(statisticsAnsweredFileCount));
+    operatorContext.recordSpecifiedInfo(
+        STATISTICS_ANSWERED_CHUNK_NUMBER, Long.toString(statisticsAnsweredChunkCount));
+    operatorContext.recordSpecifiedInfo(
+        STATISTICS_ANSWERED_PAGE_NUMBER, Long.toString(statisticsAnsweredPageCount));
+    operatorContext.recordSpecifiedInfo(DECODED_PAGE_NUMBER, Long.toString(decodedPageCount));
   }
 
   protected void resetTableAggregators() {
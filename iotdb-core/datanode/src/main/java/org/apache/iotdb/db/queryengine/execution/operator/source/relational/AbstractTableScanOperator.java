@@ -22,6 +22,8 @@ package org.apache.iotdb.db.queryengine.execution.operator.source.relational;
 import org.apache.iotdb.commons.path.AlignedFullPath;
 import org.apache.iotdb.db.queryengine.execution.MemoryEstimationHelper;
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.dynamicfilter.DeviceDynamicFilter;
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.dynamicfilter.DynamicFilterTarget;
 import org.apache.iotdb.db.queryengine.execution.operator.source.AbstractSeriesScanOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.AlignedSeriesScanUtil;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
@@ -90,6 +92,12 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
 
   private int currentDeviceIndex;
 
+  // null if no dynamic filter is pushed down to this scan
+  private final DeviceDynamicFilter deviceDynamicFilter;
+  // whether any data of current device has been read, a device can only be pruned before that
+  private boolean currentDeviceStarted;
+  private int prunedDeviceCount;
+
   public AbstractTableScanOperator(AbstractTableScanOperatorParameter parameter) {
     this.sourceId = parameter.sourceId;
     this.operatorContext = parameter.context;
@@ -117,6 +125,10 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
             (1L + parameter.columnsIndexArray.length)
                 * TSFileDescriptor.getInstance().getConfig().getPageSizeInByte());
     this.maxTsBlockLineNum = parameter.maxTsBlockLineNum;
+    this.deviceDynamicFilter =
+        parameter.dynamicFilterTargets.isEmpty()
+            ? null
+            : new DeviceDynamicFilter(parameter.dynamicFilterTargets, this::getNthIdColumnValue);
 
     constructAlignedSeriesScanUtil();
   }
@@ -128,6 +140,10 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
     }
 
     try {
+      skipDevicesPrunedByDynamicFilter();
+      if (currentDeviceIndex >= deviceCount) {
+        return null;
+      }
 
       // start stopwatch
       long maxRuntime = operatorContext.getMaxRunTime().roundTo(TimeUnit.NANOSECONDS);
@@ -164,6 +180,7 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
           && measurementDataBlock == null
           && currentDeviceNoMoreData) {
         currentDeviceIndex++;
+        currentDeviceStarted = false;
         prepareForNextDevice();
       }
 
@@ -187,6 +204,26 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
     return checkTsBlockSizeAndGetResult();
   }
 
+  // the dynamic filters are published by the build side of the joins before the probe side is read,
+  // so the devices are checked right before any of their data is read
+  private void skipDevicesPrunedByDynamicFilter() {
+    if (deviceDynamicFilter == null || currentDeviceStarted) {
+      return;
+    }
+    int startDeviceIndex = currentDeviceIndex;
+    while (currentDeviceIndex < deviceCount
+        && deviceDynamicFilter.canSkip(deviceEntries.get(currentDeviceIndex))) {
+      currentDeviceIndex++;
+    }
+    if (currentDeviceIndex != startDeviceIndex) {
+      prunedDeviceCount += currentDeviceIndex - startDeviceIndex;
+      operatorContext.recordSpecifiedInfo(
+          DeviceDynamicFilter.PRUNED_DEVICE_NUMBER, Integer.toString(prunedDeviceCount));
+      prepareForNextDevice();
+    }
+    currentDeviceStarted = true;
+  }
+
   @Override
   protected void appendToBuilder(TsBlock tsBlock) {
     if (measurementDataBuilder.isEmpty()
@@ -321,6 +358,7 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
     public final Set<String> allSensors;
     public final List<IMeasurementSchema> measurementSchemas;
     public final int maxTsBlockLineNum;
+    public final List<DynamicFilterTarget> dynamicFilterTargets;
 
     public AbstractTableScanOperatorParameter(
         Set<String> allSensors,
@@ -333,7 +371,8 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
         SeriesScanOptions seriesScanOptions,
         List<String> measurementColumnNames,
         List<IMeasurementSchema> measurementSchemas,
-        int maxTsBlockLineNum) {
+        int maxTsBlockLineNum,
+        List<DynamicFilterTarget> dynamicFilterTargets) {
       this.allSensors = allSensors;
       this.context = context;
       this.sourceId = sourceId;
@@ -345,6 +384,7 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
       this.measurementColumnNames = measurementColumnNames;
       this.measurementSchemas = measurementSchemas;
       this.maxTsBlockLineNum = maxTsBlockLineNum;
+      this.dynamicFilterTargets = dynamicFilterTargets;
     }
   }
 }
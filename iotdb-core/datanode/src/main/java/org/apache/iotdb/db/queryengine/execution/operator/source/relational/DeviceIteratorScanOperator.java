@@ -22,6 +22,7 @@ package org.apache.iotdb.db.queryengine.execution.operator.source.relational;
 import org.apache.iotdb.db.queryengine.execution.MemoryEstimationHelper;
 import org.apache.iotdb.db.queryengine.execution.operator.Operator;
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.dynamicfilter.DeviceDynamicFilter;
 import org.apache.iotdb.db.queryengine.execution.operator.source.AbstractDataSourceOperator;
 import org.apache.iotdb.db.queryengine.plan.relational.metadata.DeviceEntry;
 import org.apache.iotdb.db.storageengine.dataregion.read.IQueryDataSource;
@@ -53,13 +54,27 @@ public class DeviceIteratorScanOperator extends AbstractDataSourceOperator {
   // When isBlocked is not called for a device, hasNext will return true and next will return null.
   private boolean currentDeviceInit;
 
+  // null if no dynamic filter is pushed down to this scan
+  private final DeviceDynamicFilter deviceDynamicFilter;
+  private int prunedDeviceIndex = -1;
+  private int prunedDeviceCount;
+
   public DeviceIteratorScanOperator(
       OperatorContext operatorContext,
       List<DeviceEntry> deviceEntries,
       DeviceChildOperatorTreeGenerator childOperatorTreeGenerator) {
+    this(operatorContext, deviceEntries, childOperatorTreeGenerator, null);
+  }
+
+  public DeviceIteratorScanOperator(
+      OperatorContext operatorContext,
+      List<DeviceEntry> deviceEntries,
+      DeviceChildOperatorTreeGenerator childOperatorTreeGenerator,
+      DeviceDynamicFilter deviceDynamicFilter) {
     this.operatorContext = operatorContext;
     this.deviceEntries = deviceEntries;
     this.deviceChildOperatorTreeGenerator = childOperatorTreeGenerator;
+    this.deviceDynamicFilter = deviceDynamicFilter;
     this.currentDeviceIndex = 0;
     this.currentDeviceInit = false;
     this.operatorContext.recordSpecifiedInfo(
@@ -69,6 +84,13 @@ public class DeviceIteratorScanOperator extends AbstractDataSourceOperator {
 
   @Override
   public boolean hasNext() throws Exception {
+    // a device can only be pruned before any of its data is read
+    while (!currentDeviceInit && isCurrentDevicePruned()) {
+      if (currentDeviceIndex + 1 >= deviceEntries.size()) {
+        return false;
+      }
+      nextDevice();
+    }
     if (currentDeviceRootOperator != null && currentDeviceRootOperator.hasNext()) {
       return true;
     } else {
@@ -89,6 +111,23 @@ public class DeviceIteratorScanOperator extends AbstractDataSourceOperator {
     return !hasNext();
   }
 
+  private boolean isCurrentDevicePruned() {
+    if (deviceDynamicFilter == null || currentDeviceIndex >= deviceEntries.size()) {
+      return false;
+    }
+    if (prunedDeviceIndex == currentDeviceIndex) {
+      return true;
+    }
+    if (deviceDynamicFilter.canSkip(deviceEntries.get(currentDeviceIndex))) {
+      prunedDeviceIndex = currentDeviceIndex;
+      prunedDeviceCount++;
+      operatorContext.recordSpecifiedInfo(
+          DeviceDynamicFilter.PRUNED_DEVICE_NUMBER, Integer.toString(prunedDeviceCount));
+      return true;
+    }
+    return false;
+  }
+
   private void nextDevice() throws Exception {
     currentDeviceIndex++;
     deviceChildOperatorTreeGenerator.getCurrentDeviceStartCloseOperator().close();
@@ -22,8 +22,10 @@ package org.apache.iotdb.db.queryengine.execution.operator.source.relational;
 import org.apache.iotdb.db.queryengine.execution.MemoryEstimationHelper;
 import org.apache.iotdb.db.queryengine.execution.operator.Operator;
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.dynamicfilter.DynamicFilterSourceOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.join.merge.comparator.JoinKeyComparator;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.utils.RamUsageEstimator;
@@ -34,6 +36,10 @@ public class MergeSortInnerJoinOperator extends AbstractMergeSortJoinOperator {
   private static final long INSTANCE_SIZE =
       RamUsageEstimator.shallowSizeOfInstance(MergeSortInnerJoinOperator.class);
 
+  // not null if the right child publishes dynamic filters to the left child, the left child is not
+  // read until the right child has been collected
+  private final DynamicFilterSourceOperator dynamicFilterSource;
+
   public MergeSortInnerJoinOperator(
       OperatorContext operatorContext,
       Operator leftChild,
@@ -54,6 +60,31 @@ public class MergeSortInnerJoinOperator extends AbstractMergeSortJoinOperator {
         rightOutputSymbolIdx,
         joinKeyComparators,
         dataTypes);
+    this.dynamicFilterSource =
+        rightChild instanceof DynamicFilterSourceOperator
+            ? (DynamicFilterSourceOperator) rightChild
+            : null;
+  }
+
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    if (isCollectingDynamicFilter()) {
+      return rightChild.isBlocked();
+    }
+    return super.isBlocked();
+  }
+
+  @Override
+  public TsBlock next() throws Exception {
+    if (isCollectingDynamicFilter()) {
+      dynamicFilterSource.collect();
+      return null;
+    }
+    return super.next();
+  }
+
+  private boolean isCollectingDynamicFilter() {
+    return dynamicFilterSource != null && dynamicFilterSource.isCollecting();
   }
 
   @Override
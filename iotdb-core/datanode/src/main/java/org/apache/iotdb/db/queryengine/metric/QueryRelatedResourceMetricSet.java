@@ -23,6 +23,7 @@ import org.apache.iotdb.commons.service.metric.enums.Metric;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.db.queryengine.execution.exchange.MPPDataExchangeService;
 import org.apache.iotdb.db.queryengine.execution.memory.MemoryPool;
+import org.apache.iotdb.db.queryengine.execution.memory.QueryAdmissionController;
 import org.apache.iotdb.db.queryengine.plan.Coordinator;
 import org.apache.iotdb.db.queryengine.plan.planner.LocalExecutionPlanner;
 import org.apache.iotdb.db.storageengine.rescon.memory.TsFileResourceManager;
@@ -58,6 +59,21 @@ public class QueryRelatedResourceMetricSet implements IMetricSet {
   private static final String FRAGMENT_INSTANCE_EXECUTION_SIZE = "fragment_instance_execution_size";
   private static final String FRAGMENT_INSTANCE_DRIVER_SIZE = "fragment_instance_driver_size";
 
+  /////////////////////////////////////////////////////////////////////////////////////////////////
+  // QueryAdmissionController
+  /////////////////////////////////////////////////////////////////////////////////////////////////
+  private static final String QUERY_ADMISSION = "query_admission";
+  private static final String QUEUE_SIZE = "queue_size";
+  private static final String ADMITTED_COUNT = "admitted_count";
+  private static final String REJECTED_COUNT = "rejected_count";
+  private static final String ADMITTED_MEMORY_NOT_PLANNED = "admitted_memory_not_planned";
+  private static final String WAIT_TIME = "wait_time";
+  private Timer queryAdmissionWaitTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+
+  public void updateQueryAdmissionWaitTime(long costInMs) {
+    queryAdmissionWaitTimer.updateMillis(costInMs);
+  }
+
   /////////////////////////////////////////////////////////////////////////////////////////////////
   // FragmentInstanceManager
   /////////////////////////////////////////////////////////////////////////////////////////////////
@@ -165,6 +181,53 @@ public class QueryRelatedResourceMetricSet implements IMetricSet {
             Tag.NAME.toString(),
             FRAGMENT_INSTANCE_DRIVER_SIZE);
 
+    // QueryAdmissionController
+    QueryAdmissionController admissionController = QueryAdmissionController.getInstance();
+    metricService.createAutoGauge(
+        Metric.FRAGMENT_INSTANCE_MANAGER.toString(),
+        MetricLevel.IMPORTANT,
+        admissionController,
+        QueryAdmissionController::getQueueSize,
+        Tag.TYPE.toString(),
+        QUERY_ADMISSION,
+        Tag.NAME.toString(),
+        QUEUE_SIZE);
+    metricService.createAutoGauge(
+        Metric.FRAGMENT_INSTANCE_MANAGER.toString(),
+        MetricLevel.IMPORTANT,
+        admissionController,
+        QueryAdmissionController::getAdmittedCount,
+        Tag.TYPE.toString(),
+        QUERY_ADMISSION,
+        Tag.NAME.toString(),
+        ADMITTED_COUNT);
+    metricService.createAutoGauge(
+        Metric.FRAGMENT_INSTANCE_MANAGER.toString(),
+        MetricLevel.IMPORTANT,
+        admissionController,
+        QueryAdmissionController::getRejectedCount,
+        Tag.TYPE.toString(),
+        QUERY_ADMISSION,
+        Tag.NAME.toString(),
+        REJECTED_COUNT);
+    metricService.createAutoGauge(
+        Metric.FRAGMENT_INSTANCE_MANAGER.toString(),
+        MetricLevel.IMPORTANT,
+        admissionController,
+        QueryAdmissionController::getAdmittedMemoryNotPlanned,
+        Tag.TYPE.toString(),
+        QUERY_ADMISSION,
+        Tag.NAME.toString(),
+        ADMITTED_MEMORY_NOT_PLANNED);
+    queryAdmissionWaitTimer =
+        metricService.getOrCreateTimer(
+            Metric.FRAGMENT_INSTANCE_MANAGER.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.TYPE.toString(),
+            QUERY_ADMISSION,
+            Tag.NAME.toString(),
+            WAIT_TIME);
+
     // MemoryPool
     metricService
         .getOrCreateGauge(MEMORY_POOL, MetricLevel.IMPORTANT, Tag.NAME.toString(), MAX_BYTES)
@@ -284,6 +347,25 @@ public class QueryRelatedResourceMetricSet implements IMetricSet {
         Tag.NAME.toString(),
         FRAGMENT_INSTANCE_DRIVER_SIZE);
 
+    // QueryAdmissionController
+    for (String name :
+        new String[] {QUEUE_SIZE, ADMITTED_COUNT, REJECTED_COUNT, ADMITTED_MEMORY_NOT_PLANNED}) {
+      metricService.remove(
+          MetricType.AUTO_GAUGE,
+          Metric.FRAGMENT_INSTANCE_MANAGER.toString(),
+          Tag.TYPE.toString(),
+          QUERY_ADMISSION,
+          Tag.NAME.toString(),
+          name);
+    }
+    metricService.remove(
+        MetricType.TIMER,
+        Metric.FRAGMENT_INSTANCE_MANAGER.toString(),
+        Tag.TYPE.toString(),
+        QUERY_ADMISSION,
+        Tag.NAME.toString(),
+        WAIT_TIME);
+
     // MemoryPool
     metricService.remove(MetricType.GAUGE, MEMORY_POOL, Tag.NAME.toString(), MAX_BYTES);
     metricService.remove(MetricType.AUTO_GAUGE, MEMORY_POOL, Tag.NAME.toString(), REMAINING_BYTES);
@@ -25,6 +25,11 @@ import org.apache.iotdb.common.rpc.thrift.TSeriesPartitionSlot;
 import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
 import org.apache.iotdb.commons.client.IClientManager;
 import org.apache.iotdb.commons.client.exception.ClientManagerException;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.SingleFlight;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.concurrent.threadpool.ScheduledExecutorUtil;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.consensus.ConfigRegionId;
 import org.apache.iotdb.commons.exception.IoTDBRuntimeException;
 import org.apache.iotdb.commons.partition.DataPartition;
@@ -33,6 +38,8 @@ import org.apache.iotdb.commons.partition.SchemaNodeManagementPartition;
 import org.apache.iotdb.commons.partition.SchemaPartition;
 import org.apache.iotdb.commons.partition.executor.SeriesPartitionExecutor;
 import org.apache.iotdb.commons.path.PathPatternTree;
+import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
+import org.apache.iotdb.commons.utils.TimePartitionUtils;
 import org.apache.iotdb.confignode.rpc.thrift.TDataPartitionReq;
 import org.apache.iotdb.confignode.rpc.thrift.TDataPartitionTableResp;
 import org.apache.iotdb.confignode.rpc.thrift.TSchemaNodeManagementReq;
@@ -52,6 +59,8 @@ import org.apache.iotdb.rpc.TSStatusCode;
 
 import org.apache.thrift.TException;
 import org.apache.tsfile.file.metadata.IDeviceID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 
@@ -65,14 +74,21 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.apache.iotdb.commons.schema.table.Audit.TREE_MODEL_AUDIT_DATABASE;
 
 public class ClusterPartitionFetcher implements IPartitionFetcher {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(ClusterPartitionFetcher.class);
+
   private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
 
+  private static final long PREFETCH_CHECK_INTERVAL_IN_MS = 1000L;
+
   private final SeriesPartitionExecutor partitionExecutor;
 
   private final PartitionCache partitionCache;
@@ -80,6 +96,23 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
   private final IClientManager<ConfigRegionId, ConfigNodeClient> configNodeClientManager =
       ConfigNodeClientManager.getInstance();
 
+  private final SingleFlight<TDataPartitionReq, TDataPartitionTableResp> getDataPartitionFlights =
+      new SingleFlight<>();
+  private final SingleFlight<TDataPartitionReq, TDataPartitionTableResp>
+      getOrCreateDataPartitionFlights = new SingleFlight<>();
+
+  /**
+   * The random delay of the prefetch of this node within the first half of the prefetch ahead time,
+   * so that the DataNodes will not prefetch at the same time.
+   */
+  private final long prefetchJitterInMs;
+
+  /** The start time of the latest time partition whose data partitions have been prefetched */
+  private volatile long prefetchedTimePartitionStartTime = Long.MIN_VALUE;
+
+  /** Null if the prefetch is disabled */
+  private final ScheduledExecutorService prefetchExecutor;
+
   private static final class ClusterPartitionFetcherHolder {
 
     private static final ClusterPartitionFetcher INSTANCE = new ClusterPartitionFetcher();
@@ -96,6 +129,41 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
         SeriesPartitionExecutor.getSeriesPartitionExecutor(
             config.getSeriesPartitionExecutorClass(), config.getSeriesPartitionSlotNum());
     this.partitionCache = new PartitionCache();
+
+    final long prefetchAheadTimeInMs = config.getPartitionCachePrefetchAheadTimeInMs();
+    this.prefetchJitterInMs =
+        prefetchAheadTimeInMs > 0
+            ? ThreadLocalRandom.current().nextLong(prefetchAheadTimeInMs / 2 + 1)
+            : 0;
+    if (prefetchAheadTimeInMs > 0) {
+      this.prefetchExecutor =
+          IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+              ThreadName.PARTITION_CACHE_PREFETCH.getName());
+      ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+          prefetchExecutor,
+          this::prefetchNextTimePartition,
+          PREFETCH_CHECK_INTERVAL_IN_MS,
+          PREFETCH_CHECK_INTERVAL_IN_MS,
+          TimeUnit.MILLISECONDS);
+    } else {
+      this.prefetchExecutor = null;
+    }
+  }
+
+  /** Stop the prefetch of the data partitions, e.g. when the DataNode is shutting down. */
+  public void stop() {
+    if (prefetchExecutor == null) {
+      return;
+    }
+    prefetchExecutor.shutdownNow();
+    try {
+      if (!prefetchExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+        LOGGER.warn("The prefetch of the data partitions does not stop in 30s.");
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LOGGER.warn("Interrupted when waiting for the prefetch of the data partitions to stop.");
+    }
   }
 
   @Override
@@ -107,6 +175,8 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
         partitionCache.getDatabaseToDevice(deviceIDs, true, false, userName);
     SchemaPartition schemaPartition = partitionCache.getSchemaPartition(storageGroupToDeviceMap);
     if (null == schemaPartition) {
+      final Map<String, Long> versions =
+          partitionCache.getPartitionVersions(storageGroupToDeviceMap.keySet());
       try (final ConfigNodeClient client =
           configNodeClientManager.borrowClient(ConfigNodeInfo.CONFIG_REGION_ID)) {
         final TSchemaPartitionTableResp schemaPartitionTableResp =
@@ -115,7 +185,7 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
             == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
           schemaPartition = parseSchemaPartitionTableResp(schemaPartitionTableResp);
           partitionCache.updateSchemaPartitionCache(
-              schemaPartitionTableResp.getSchemaPartitionTable());
+              schemaPartitionTableResp.getSchemaPartitionTable(), versions);
         } else {
           throw new IoTDBRuntimeException(
               schemaPartitionTableResp.getStatus().getMessage(),
@@ -151,6 +221,8 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
         partitionCache.getDatabaseToDevice(deviceIDs, true, true, userName);
     SchemaPartition schemaPartition = partitionCache.getSchemaPartition(storageGroupToDeviceMap);
     if (null == schemaPartition) {
+      final Map<String, Long> versions =
+          partitionCache.getPartitionVersions(storageGroupToDeviceMap.keySet());
       try (final ConfigNodeClient client =
           configNodeClientManager.borrowClient(ConfigNodeInfo.CONFIG_REGION_ID)) {
         final TSchemaPartitionTableResp schemaPartitionTableResp =
@@ -159,7 +231,7 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
             == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
           schemaPartition = parseSchemaPartitionTableResp(schemaPartitionTableResp);
           partitionCache.updateSchemaPartitionCache(
-              schemaPartitionTableResp.getSchemaPartitionTable());
+              schemaPartitionTableResp.getSchemaPartitionTable(), versions);
         } else {
           throw new IoTDBRuntimeException(
               schemaPartitionTableResp.getStatus().getMessage(),
@@ -198,22 +270,15 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
       final Map<String, List<DataPartitionQueryParam>> sgNameToQueryParamsMap) {
     DataPartition dataPartition = partitionCache.getDataPartition(sgNameToQueryParamsMap);
     if (null == dataPartition) {
-      try (ConfigNodeClient client =
-          configNodeClientManager.borrowClient(ConfigNodeInfo.CONFIG_REGION_ID)) {
-        final TDataPartitionTableResp dataPartitionTableResp =
-            client.getDataPartitionTable(constructDataPartitionReqForQuery(sgNameToQueryParamsMap));
-        if (dataPartitionTableResp.getStatus().getCode()
-            == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
-          dataPartition = parseDataPartitionResp(dataPartitionTableResp);
-          partitionCache.updateDataPartitionCache(dataPartitionTableResp.getDataPartitionTable());
-        } else {
-          throw new StatementAnalyzeException(
-              "An error occurred when executing getDataPartition():"
-                  + dataPartitionTableResp.getStatus().getMessage());
-        }
-      } catch (final ClientManagerException | TException e) {
+      final TDataPartitionTableResp dataPartitionTableResp =
+          fetchDataPartitionTable(constructDataPartitionReqForQuery(sgNameToQueryParamsMap), false);
+      if (dataPartitionTableResp.getStatus().getCode()
+          == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        dataPartition = parseDataPartitionResp(dataPartitionTableResp);
+      } else {
         throw new StatementAnalyzeException(
-            "An error occurred when executing getDataPartition():" + e.getMessage());
+            "An error occurred when executing getDataPartition():"
+                + dataPartitionTableResp.getStatus().getMessage());
       }
     }
     return dataPartition;
@@ -246,25 +311,18 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
   @Override
   public DataPartition getOrCreateDataPartition(
       final Map<String, List<DataPartitionQueryParam>> sgNameToQueryParamsMap) {
+    recordWrittenSeriesSlots(sgNameToQueryParamsMap);
     DataPartition dataPartition = partitionCache.getDataPartition(sgNameToQueryParamsMap);
     if (null == dataPartition) {
-      // Do not use data partition cache
-      try (final ConfigNodeClient client =
-          configNodeClientManager.borrowClient(ConfigNodeInfo.CONFIG_REGION_ID)) {
-        final TDataPartitionTableResp dataPartitionTableResp =
-            client.getOrCreateDataPartitionTable(constructDataPartitionReq(sgNameToQueryParamsMap));
-        if (dataPartitionTableResp.getStatus().getCode()
-            == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
-          dataPartition = parseDataPartitionResp(dataPartitionTableResp);
-          partitionCache.updateDataPartitionCache(dataPartitionTableResp.getDataPartitionTable());
-        } else {
-          throw new StatementAnalyzeException(
-              "An error occurred when executing getOrCreateDataPartition():"
-                  + dataPartitionTableResp.getStatus().getMessage());
-        }
-      } catch (final ClientManagerException | TException e) {
+      final TDataPartitionTableResp dataPartitionTableResp =
+          fetchDataPartitionTable(constructDataPartitionReq(sgNameToQueryParamsMap), true);
+      if (dataPartitionTableResp.getStatus().getCode()
+          == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        dataPartition = parseDataPartitionResp(dataPartitionTableResp);
+      } else {
         throw new StatementAnalyzeException(
-            "An error occurred when executing getOrCreateDataPartition():" + e.getMessage());
+            "An error occurred when executing getOrCreateDataPartition():"
+                + dataPartitionTableResp.getStatus().getMessage());
       }
     }
     return dataPartition;
@@ -273,36 +331,73 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
   @Override
   public DataPartition getOrCreateDataPartition(
       final List<DataPartitionQueryParam> dataPartitionQueryParams, final String userName) {
-    DataPartition dataPartition;
-    try (final ConfigNodeClient client =
-        configNodeClientManager.borrowClient(ConfigNodeInfo.CONFIG_REGION_ID)) {
-      final Map<String, List<DataPartitionQueryParam>> splitDataPartitionQueryParams =
-          splitDataPartitionQueryParam(
-              dataPartitionQueryParams, config.isAutoCreateSchemaEnabled(), userName);
-      dataPartition = partitionCache.getDataPartition(splitDataPartitionQueryParams);
-
-      if (null == dataPartition) {
-        final TDataPartitionReq req = constructDataPartitionReq(splitDataPartitionQueryParams);
-        final TDataPartitionTableResp dataPartitionTableResp =
-            client.getOrCreateDataPartitionTable(req);
-
-        if (dataPartitionTableResp.getStatus().getCode()
-            == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
-          dataPartition = parseDataPartitionResp(dataPartitionTableResp);
-          partitionCache.updateDataPartitionCache(dataPartitionTableResp.getDataPartitionTable());
-        } else {
-          throw new IoTDBRuntimeException(
-              dataPartitionTableResp.getStatus().getMessage(),
-              dataPartitionTableResp.getStatus().getCode());
-        }
+    final Map<String, List<DataPartitionQueryParam>> splitDataPartitionQueryParams =
+        splitDataPartitionQueryParam(
+            dataPartitionQueryParams, config.isAutoCreateSchemaEnabled(), userName);
+    recordWrittenSeriesSlots(splitDataPartitionQueryParams);
+    DataPartition dataPartition = partitionCache.getDataPartition(splitDataPartitionQueryParams);
+    if (null == dataPartition) {
+      final TDataPartitionTableResp dataPartitionTableResp =
+          fetchDataPartitionTable(constructDataPartitionReq(splitDataPartitionQueryParams), true);
+      if (dataPartitionTableResp.getStatus().getCode()
+          == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        dataPartition = parseDataPartitionResp(dataPartitionTableResp);
+      } else {
+        throw new IoTDBRuntimeException(
+            dataPartitionTableResp.getStatus().getMessage(),
+            dataPartitionTableResp.getStatus().getCode());
       }
-    } catch (final ClientManagerException | TException e) {
-      throw new StatementAnalyzeException(
-          "An error occurred when executing getOrCreateDataPartition():" + e.getMessage());
     }
     return dataPartition;
   }
 
+  private void recordWrittenSeriesSlots(
+      final Map<String, List<DataPartitionQueryParam>> databaseToQueryParamsMap) {
+    if (prefetchExecutor != null) {
+      partitionCache.recordWrittenSeriesSlots(
+          databaseToQueryParamsMap,
+          TimePartitionUtils.getTimePartitionSlot(CommonDateTimeUtils.currentTime()));
+    }
+  }
+
+  /**
+   * Fetch the data partition table from config node and update the cache by it. The concurrent
+   * fetches of the same request are collapsed into one, e.g. when the writes of many clients to the
+   * same devices miss the cache at the same time as a new time partition opens.
+   *
+   * @param isAutoCreate whether to create the data partitions which do not exist
+   * @return the response, whose status is not checked
+   */
+  private TDataPartitionTableResp fetchDataPartitionTable(
+      final TDataPartitionReq req, final boolean isAutoCreate) {
+    return (isAutoCreate ? getOrCreateDataPartitionFlights : getDataPartitionFlights)
+        .execute(
+            req,
+            () -> {
+              final Map<String, Long> versions =
+                  partitionCache.getPartitionVersions(req.getPartitionSlotsMap().keySet());
+              try (final ConfigNodeClient client =
+                  configNodeClientManager.borrowClient(ConfigNodeInfo.CONFIG_REGION_ID)) {
+                final TDataPartitionTableResp dataPartitionTableResp =
+                    isAutoCreate
+                        ? client.getOrCreateDataPartitionTable(req)
+                        : client.getDataPartitionTable(req);
+                if (dataPartitionTableResp.getStatus().getCode()
+                    == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+                  partitionCache.updateDataPartitionCache(
+                      dataPartitionTableResp.getDataPartitionTable(), versions);
+                }
+                return dataPartitionTableResp;
+              } catch (final ClientManagerException | TException e) {
+                throw new StatementAnalyzeException(
+                    String.format(
+                        "An error occurred when executing %s():%s",
+                        isAutoCreate ? "getOrCreateDataPartition" : "getDataPartition",
+                        e.getMessage()));
+              }
+            });
+  }
+
   @Override
   public boolean updateRegionCache(final TRegionRouteReq req) {
     return partitionCache.updateGroupIdToReplicaSetMap(req.getTimestamp(), req.getRegionRouteMap());
@@ -317,6 +412,55 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
     partitionCache.invalidAllCache();
   }
 
+  /** Invalidate the cache of the given database only, e.g. when the database is deleted. */
+  public void invalidDatabaseCache(final String database) {
+    partitionCache.invalidDatabaseCache(database);
+  }
+
+  /**
+   * Create and cache the data partitions of the next time partition ahead of time for the series
+   * slots written in the current time partition, so that the writes will not miss the cache and
+   * stampede the config node at the moment the next time partition opens. The series slots only
+   * read are not prefetched, so no data partition is created for them.
+   */
+  private void prefetchNextTimePartition() {
+    final long currentTime = CommonDateTimeUtils.currentTime();
+    final long nextTimePartitionStartTime =
+        TimePartitionUtils.getTimePartitionUpperBound(currentTime);
+    final long prefetchAheadTime =
+        CommonDateTimeUtils.convertMilliTimeWithPrecision(
+            config.getPartitionCachePrefetchAheadTimeInMs() - prefetchJitterInMs,
+            CommonDescriptor.getInstance().getConfig().getTimestampPrecision());
+    if (nextTimePartitionStartTime == Long.MAX_VALUE
+        || nextTimePartitionStartTime == prefetchedTimePartitionStartTime
+        || nextTimePartitionStartTime - currentTime > prefetchAheadTime) {
+      return;
+    }
+
+    final Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> partitionSlotsMap =
+        partitionCache.getDataPartitionSlotsToPrefetch(
+            TimePartitionUtils.getTimePartitionSlot(currentTime),
+            TimePartitionUtils.getTimePartitionSlot(nextTimePartitionStartTime));
+    if (!partitionSlotsMap.isEmpty()) {
+      final TDataPartitionTableResp dataPartitionTableResp =
+          fetchDataPartitionTable(new TDataPartitionReq(partitionSlotsMap), true);
+      if (dataPartitionTableResp.getStatus().getCode()
+          != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        // Retry in the next check
+        LOGGER.warn(
+            "Failed to prefetch the data partitions of the time partition starting at {}, status: {}",
+            nextTimePartitionStartTime,
+            dataPartitionTableResp.getStatus());
+        return;
+      }
+      LOGGER.info(
+          "Prefetched the data partitions of {} series slots for the time partition starting at {}.",
+          partitionSlotsMap.values().stream().mapToInt(Map::size).sum(),
+          nextTimePartitionStartTime);
+    }
+    prefetchedTimePartitionStartTime = nextTimePartitionStartTime;
+  }
+
   @Override
   public SchemaPartition getOrCreateSchemaPartition(
       final String database, final List<IDeviceID> deviceIDs, final String userName) {
@@ -344,6 +488,8 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
               ? partitionCache.getSchemaPartition(Collections.singletonMap(database, deviceIDs))
               : null;
       if (null == schemaPartition) {
+        final Map<String, Long> versions =
+            partitionCache.getPartitionVersions(Collections.singleton(database));
         final List<TSeriesPartitionSlot> partitionSlots =
             Objects.nonNull(deviceIDs)
                 ? deviceIDs.stream()
@@ -361,7 +507,7 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
             == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
           schemaPartition = parseSchemaPartitionTableResp(schemaPartitionTableResp);
           partitionCache.updateSchemaPartitionCache(
-              schemaPartitionTableResp.getSchemaPartitionTable());
+              schemaPartitionTableResp.getSchemaPartitionTable(), versions);
         } else {
           throw new IoTDBRuntimeException(
               schemaPartitionTableResp.getStatus().getMessage(),
@@ -48,6 +48,7 @@ import org.apache.iotdb.confignode.rpc.thrift.TDatabaseSchema;
 import org.apache.iotdb.confignode.rpc.thrift.TDatabaseSchemaResp;
 import org.apache.iotdb.confignode.rpc.thrift.TGetDatabaseReq;
 import org.apache.iotdb.confignode.rpc.thrift.TRegionRouteMapResp;
+import org.apache.iotdb.confignode.rpc.thrift.TTimeSlotList;
 import org.apache.iotdb.db.auth.AuthorityChecker;
 import org.apache.iotdb.db.conf.DataNodeMemoryConfig;
 import org.apache.iotdb.db.conf.IoTDBConfig;
@@ -69,8 +70,11 @@ import org.apache.tsfile.file.metadata.IDeviceID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -79,6 +83,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -105,12 +110,29 @@ public class PartitionCache {
   /** database -> dataPartitionTable */
   private final Cache<String, DataPartitionTable> dataPartitionCache;
 
+  /**
+   * database -> seriesPartitionSlot -> the latest time partition slot written, the candidates of
+   * the data partition prefetch
+   */
+  private final Map<String, Map<TSeriesPartitionSlot, TTimePartitionSlot>> writtenSeriesSlots =
+      new ConcurrentHashMap<>();
+
   /** the latest time when groupIdToReplicaSetMap updated. */
   private final AtomicLong latestUpdateTime = new AtomicLong(0);
 
   /** TConsensusGroupId -> TRegionReplicaSet */
   private final Map<TConsensusGroupId, TRegionReplicaSet> groupIdToReplicaSetMap = new HashMap<>();
 
+  /**
+   * The version of the partition tables, which is increased once all the partition tables are
+   * invalidated. The version of the partition tables of a database is the sum of it and the version
+   * in {@link #databasePartitionVersions}.
+   */
+  private final AtomicLong allPartitionVersion = new AtomicLong(0);
+
+  /** database -> version, which is increased once the partition tables of it are invalidated */
+  private final Map<String, Long> databasePartitionVersions = new ConcurrentHashMap<>();
+
   /** The lock of cache */
   private final ReentrantReadWriteLock databaseCacheLock = new ReentrantReadWriteLock();
 
@@ -794,11 +816,28 @@ public class PartitionCache {
    */
   public void updateSchemaPartitionCache(
       final Map<String, Map<TSeriesPartitionSlot, TConsensusGroupId>> schemaPartitionTable) {
+    updateSchemaPartitionCache(schemaPartitionTable, null);
+  }
+
+  /**
+   * update schemaPartitionCache by schemaPartition, skipping the databases invalidated since the
+   * versions are taken.
+   *
+   * @param schemaPartitionTable database to SeriesPartitionSlot to ConsensusGroupId map
+   * @param versions the versions taken by {@link #getPartitionVersions} before fetching the
+   *     schemaPartitionTable, null means no check
+   */
+  public void updateSchemaPartitionCache(
+      final Map<String, Map<TSeriesPartitionSlot, TConsensusGroupId>> schemaPartitionTable,
+      final @Nullable Map<String, Long> versions) {
     schemaPartitionCacheLock.writeLock().lock();
     try {
       for (final Map.Entry<String, Map<TSeriesPartitionSlot, TConsensusGroupId>> entry1 :
           schemaPartitionTable.entrySet()) {
         final String databaseName = entry1.getKey();
+        if (isPartitionVersionChanged(databaseName, versions)) {
+          continue;
+        }
         SchemaPartitionTable result = schemaPartitionCache.getIfPresent(databaseName);
         if (null == result) {
           result = new SchemaPartitionTable();
@@ -999,13 +1038,29 @@ public class PartitionCache {
   public void updateDataPartitionCache(
       Map<String, Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TConsensusGroupId>>>>
           dataPartitionTable) {
+    updateDataPartitionCache(dataPartitionTable, null);
+  }
+
+  /**
+   * update dataPartitionCache by dataPartition, skipping the databases invalidated since the
+   * versions are taken.
+   *
+   * @param dataPartitionTable database to seriesPartitionSlot to timePartitionSlot to
+   *     ConsensusGroupId map
+   * @param versions the versions taken by {@link #getPartitionVersions} before fetching the
+   *     dataPartitionTable, null means no check
+   */
+  public void updateDataPartitionCache(
+      Map<String, Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TConsensusGroupId>>>>
+          dataPartitionTable,
+      @Nullable Map<String, Long> versions) {
     dataPartitionCacheLock.writeLock().lock();
     try {
       for (Map.Entry<
               String, Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TConsensusGroupId>>>>
           entry1 : dataPartitionTable.entrySet()) {
         String databaseName = entry1.getKey();
-        if (null != databaseName) {
+        if (null != databaseName && !isPartitionVersionChanged(databaseName, versions)) {
           DataPartitionTable result = dataPartitionCache.getIfPresent(databaseName);
           boolean needToUpdateCache = (null == result);
           if (needToUpdateCache) {
@@ -1043,6 +1098,84 @@ public class PartitionCache {
     }
   }
 
+  /**
+   * Record the series slots written into the current time partition, only they are prefetched.
+   *
+   * @param databaseToQueryParamsMap database to the data partitions to be written
+   */
+  public void recordWrittenSeriesSlots(
+      final Map<String, List<DataPartitionQueryParam>> databaseToQueryParamsMap,
+      final TTimePartitionSlot currentTimePartitionSlot) {
+    for (final Map.Entry<String, List<DataPartitionQueryParam>> entry :
+        databaseToQueryParamsMap.entrySet()) {
+      Map<TSeriesPartitionSlot, TTimePartitionSlot> seriesSlots = null;
+      for (final DataPartitionQueryParam param : entry.getValue()) {
+        if (param.getDeviceID() == null
+            || param.getTimePartitionSlotList() == null
+            || !param.getTimePartitionSlotList().contains(currentTimePartitionSlot)) {
+          // The writes of the historical data don't indicate the next time partition
+          continue;
+        }
+        if (seriesSlots == null) {
+          seriesSlots =
+              writtenSeriesSlots.computeIfAbsent(entry.getKey(), k -> new ConcurrentHashMap<>());
+        }
+        seriesSlots.put(
+            partitionExecutor.getSeriesPartitionSlot(param.getDeviceID()),
+            currentTimePartitionSlot);
+      }
+    }
+  }
+
+  /**
+   * Get the series slots written in the current time partition whose data partitions of the next
+   * time partition are not cached, which will very likely be written into the next time partition
+   * once it opens. The series slots written before the current time partition are forgotten.
+   *
+   * @return database to seriesPartitionSlot to the next time partition map
+   */
+  public Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> getDataPartitionSlotsToPrefetch(
+      final TTimePartitionSlot currentTimePartitionSlot,
+      final TTimePartitionSlot nextTimePartitionSlot) {
+    final Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> result = new HashMap<>();
+    dataPartitionCacheLock.readLock().lock();
+    try {
+      for (final Map.Entry<String, Map<TSeriesPartitionSlot, TTimePartitionSlot>> entry1 :
+          writtenSeriesSlots.entrySet()) {
+        final DataPartitionTable dataPartitionTable =
+            dataPartitionCache.getIfPresent(entry1.getKey());
+        entry1
+            .getValue()
+            .entrySet()
+            .removeIf(
+                entry2 ->
+                    entry2.getValue().getStartTime() < currentTimePartitionSlot.getStartTime());
+        for (final Map.Entry<TSeriesPartitionSlot, TTimePartitionSlot> entry2 :
+            entry1.getValue().entrySet()) {
+          final SeriesPartitionTable seriesPartitionTable =
+              dataPartitionTable == null
+                  ? null
+                  : dataPartitionTable.getDataPartitionMap().get(entry2.getKey());
+          if (entry2.getValue().equals(currentTimePartitionSlot)
+              && (seriesPartitionTable == null
+                  || !seriesPartitionTable
+                      .getSeriesPartitionMap()
+                      .containsKey(nextTimePartitionSlot))) {
+            result
+                .computeIfAbsent(entry1.getKey(), k -> new HashMap<>())
+                .put(
+                    entry2.getKey(),
+                    new TTimeSlotList(
+                        Collections.singletonList(nextTimePartitionSlot), false, false));
+          }
+        }
+      }
+    } finally {
+      dataPartitionCacheLock.readLock().unlock();
+    }
+    return result;
+  }
+
   /** invalid all dataPartitionCache */
   public void invalidAllDataPartitionCache() {
     dataPartitionCacheLock.writeLock().lock();
@@ -1059,6 +1192,7 @@ public class PartitionCache {
     if (logger.isDebugEnabled()) {
       logger.debug("[Partition Cache] invalid");
     }
+    allPartitionVersion.incrementAndGet();
     removeFromDatabaseCache();
     invalidAllDataPartitionCache();
     invalidAllSchemaPartitionCache();
@@ -1068,6 +1202,66 @@ public class PartitionCache {
     }
   }
 
+  /**
+   * Invalidate the database cache and the partition tables of the given database only, the
+   * partitions of the other databases are still served by the cache. The replica sets are kept
+   * since they are updated by the region route map pushed from config node.
+   */
+  public void invalidDatabaseCache(final String database) {
+    if (logger.isDebugEnabled()) {
+      logger.debug("[Partition Cache] invalid database {}", database);
+    }
+    databaseCacheLock.writeLock().lock();
+    try {
+      databaseCache.remove(database);
+    } finally {
+      databaseCacheLock.writeLock().unlock();
+    }
+    schemaPartitionCacheLock.writeLock().lock();
+    dataPartitionCacheLock.writeLock().lock();
+    try {
+      // Increase the version under the write locks, so an update fetched before the invalidation
+      // will not be applied after it
+      databasePartitionVersions.merge(database, 1L, Long::sum);
+      schemaPartitionCache.invalidate(database);
+      dataPartitionCache.invalidate(database);
+    } finally {
+      dataPartitionCacheLock.writeLock().unlock();
+      schemaPartitionCacheLock.writeLock().unlock();
+    }
+    // The database may be deleted, it's recorded again once written
+    writtenSeriesSlots.remove(database);
+  }
+
+  /**
+   * Get the current versions of the partition tables of the given databases, which should be taken
+   * before fetching the partitions from config node and passed to the update of the cache.
+   */
+  public Map<String, Long> getPartitionVersions(final Collection<String> databases) {
+    final Map<String, Long> versions = new HashMap<>();
+    for (final String database : databases) {
+      versions.put(database, getPartitionVersion(database));
+    }
+    return versions;
+  }
+
+  private long getPartitionVersion(final String database) {
+    return allPartitionVersion.get() + databasePartitionVersions.getOrDefault(database, 0L);
+  }
+
+  /**
+   * Whether the partition tables of the database have been invalidated since the versions are
+   * taken, in which case the partitions fetched are stale and should not be cached.
+   */
+  private boolean isPartitionVersionChanged(
+      final String database, final @Nullable Map<String, Long> versions) {
+    if (null == versions) {
+      return false;
+    }
+    final Long version = versions.get(database);
+    return null != version && version != getPartitionVersion(database);
+  }
+
   @Override
   public String toString() {
     return "PartitionCache{"
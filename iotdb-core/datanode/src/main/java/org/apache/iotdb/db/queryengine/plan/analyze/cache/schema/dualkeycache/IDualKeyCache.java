@@ -90,6 +90,12 @@ public interface IDualKeyCache<FK, SK, V> {
   @GuardedBy("DataNodeSchemaCache#writeLock")
   void invalidateAll();
 
+  /**
+   * Traverse the cache values until the visitor returns false. The traverse does not access the
+   * values, i.e. it won't affect the cache eviction and statistics.
+   */
+  void traverse(final IDualKeyCacheVisitor<FK, SK, V> visitor);
+
   /** Return all the current cache status and statistics. */
   IDualKeyCacheStats stats();
 
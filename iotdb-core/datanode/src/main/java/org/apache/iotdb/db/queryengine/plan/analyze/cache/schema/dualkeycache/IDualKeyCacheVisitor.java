@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache;
+
+/**
+ * This interfaces defines the behaviour executed on each cache value during cache traverse.
+ *
+ * @param <FK> The first key of the cache value
+ * @param <SK> The second key of the cache value
+ * @param <V> The cache value
+ */
+@FunctionalInterface
+public interface IDualKeyCacheVisitor<FK, SK, V> {
+
+  /**
+   * Visit one cache value. The value here is read only.
+   *
+   * @return false to stop the traverse
+   */
+  boolean visit(FK firstKey, SK secondKey, V value);
+}
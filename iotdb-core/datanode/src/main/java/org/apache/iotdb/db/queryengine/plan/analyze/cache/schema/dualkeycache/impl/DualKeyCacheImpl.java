@@ -22,6 +22,7 @@ package org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.i
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.IDualKeyCache;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.IDualKeyCacheStats;
+import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.IDualKeyCacheVisitor;
 
 import org.apache.tsfile.utils.RamUsageEstimator;
 
@@ -230,6 +231,23 @@ class DualKeyCacheImpl<FK, SK, V, T extends ICacheEntry<SK, V>>
     cacheEntryManager.cleanUp();
   }
 
+  @Override
+  public void traverse(final IDualKeyCacheVisitor<FK, SK, V> visitor) {
+    for (final FK firstKey : firstKeyMap.getAllKeys()) {
+      final ICacheEntryGroup<FK, SK, V, T> cacheEntryGroup = firstKeyMap.get(firstKey);
+      if (Objects.isNull(cacheEntryGroup)) {
+        continue;
+      }
+      for (final Iterator<Map.Entry<SK, T>> it = cacheEntryGroup.getAllCacheEntries();
+          it.hasNext(); ) {
+        final Map.Entry<SK, T> entry = it.next();
+        if (!visitor.visit(firstKey, entry.getKey(), entry.getValue().getValue())) {
+          return;
+        }
+      }
+    }
+  }
+
   @Override
   public IDualKeyCacheStats stats() {
     return cacheStats;
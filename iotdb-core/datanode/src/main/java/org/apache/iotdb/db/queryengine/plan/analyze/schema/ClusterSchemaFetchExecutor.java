@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.queryengine.plan.analyze.schema;
 
+import org.apache.iotdb.commons.concurrent.SingleFlight;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.exception.IoTDBException;
 import org.apache.iotdb.commons.exception.MetadataException;
@@ -46,10 +47,12 @@ import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.tsfile.block.column.Column;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.Pair;
 import org.apache.tsfile.utils.ReadWriteIOUtils;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -66,6 +69,14 @@ class ClusterSchemaFetchExecutor {
   private final ISchemaFetcher schemaFetcher;
   private final Consumer<ClusterSchemaTree> schemaCacheUpdater;
 
+  // The writes to the same new device miss the schema cache together, so the concurrent fetches of
+  // the same series of one device are collapsed into one
+  private final SingleFlight<Pair<PartialPath, List<String>>, ClusterSchemaTree>
+      fetchSchemaOfOneDeviceFlights = new SingleFlight<>();
+  private final DeviceSchemaFetchBatcher deviceSchemaFetchBatcher =
+      new DeviceSchemaFetchBatcher(
+          config.getSchemaFetchBatchWindowInMs(), this::fetchSchemaWithPatternTreeAndCache);
+
   ClusterSchemaFetchExecutor(
       Coordinator coordinator,
       ITemplateManager templateManager,
@@ -180,12 +191,23 @@ class ClusterSchemaFetchExecutor {
       String[] measurements,
       List<Integer> indexOfTargetMeasurements,
       MPPQueryContext context) {
-    PathPatternTree patternTree = new PathPatternTree();
+    List<String> targetMeasurements = new ArrayList<>(indexOfTargetMeasurements.size());
     for (int index : indexOfTargetMeasurements) {
-      patternTree.appendFullPath(devicePath, measurements[index]);
+      targetMeasurements.add(measurements[index]);
     }
-    patternTree.constructTree();
-    return fetchSchemaAndCacheResult(patternTree, context);
+    return fetchSchemaOfOneDeviceFlights.execute(
+        new Pair<>(devicePath, targetMeasurements),
+        () -> {
+          if (config.getSchemaFetchBatchWindowInMs() > 0) {
+            return deviceSchemaFetchBatcher.fetch(devicePath, targetMeasurements, context);
+          }
+          PathPatternTree patternTree = new PathPatternTree();
+          for (String measurement : targetMeasurements) {
+            patternTree.appendFullPath(devicePath, measurement);
+          }
+          patternTree.constructTree();
+          return fetchSchemaAndCacheResult(patternTree, context);
+        });
   }
 
   ClusterSchemaTree fetchSchemaOfMultiDevices(
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.analyze.schema;
+
+import org.apache.iotdb.commons.exception.QuerySchemaFetchFailedException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.path.PathPatternTree;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.queryengine.common.MPPQueryContext;
+import org.apache.iotdb.db.queryengine.common.schematree.ClusterSchemaTree;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+
+/**
+ * Batches the schema fetches of single devices into one fetch while another fetch is in flight.
+ *
+ * <p>A fetch arriving when no batched fetch is in flight is executed at once. Otherwise it starts
+ * or joins a batch, whose first fetch waits until the fetches in flight finish or the window
+ * elapses, then fetches the schema of all the devices in the batch and shares the result with them.
+ * The fetch is split by SchemaRegion when being planned, so each SchemaRegion receives one request
+ * per batch instead of one per device, which matters when many devices write with a cold schema
+ * cache, e.g. after restart.
+ *
+ * <p>The batched fetch is executed without the context of any caller, and each caller waits for it
+ * within its own timeout. If the batched fetch fails, each caller fetches its own device again with
+ * its own context, so that the failure of one device doesn't fail the others.
+ */
+class DeviceSchemaFetchBatcher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DeviceSchemaFetchBatcher.class);
+
+  // The max number of series in one batch, a new batch is started once it's exceeded
+  private static final int MAX_BATCH_SERIES_NUM = 10_000;
+
+  private final long windowInMs;
+  private final BiFunction<PathPatternTree, MPPQueryContext, ClusterSchemaTree> fetcher;
+
+  // The batch collecting fetches, null if there's none
+  private Batch currentBatch;
+  // The number of the batches being fetched
+  private int inFlightNum = 0;
+
+  DeviceSchemaFetchBatcher(
+      long windowInMs, BiFunction<PathPatternTree, MPPQueryContext, ClusterSchemaTree> fetcher) {
+    this.windowInMs = windowInMs;
+    this.fetcher = fetcher;
+  }
+
+  /**
+   * Fetch the schema of the given measurements of the device together with the other devices in the
+   * same batch.
+   *
+   * @return the schema tree of the whole batch, which is shared by all the fetches in the batch and
+   *     must not be modified
+   */
+  ClusterSchemaTree fetch(
+      PartialPath devicePath, List<String> measurements, MPPQueryContext context) {
+    final Batch batch;
+    final boolean isLeader;
+    synchronized (this) {
+      isLeader = currentBatch == null || currentBatch.seriesNum >= MAX_BATCH_SERIES_NUM;
+      if (isLeader) {
+        currentBatch = new Batch();
+      }
+      batch = currentBatch;
+      batch.add(devicePath, measurements);
+      if (isLeader) {
+        waitForInFlightFetches();
+        if (currentBatch == batch) {
+          currentBatch = null;
+        }
+        inFlightNum++;
+      }
+    }
+
+    ClusterSchemaTree schemaTree =
+        isLeader ? batch.execute() : batch.await(getRemainingTimeInMs(context));
+    if (schemaTree == null) {
+      // The batched fetch failed, fetch the device alone in case it's caused by other devices
+      PathPatternTree patternTree = new PathPatternTree();
+      for (String measurement : measurements) {
+        patternTree.appendFullPath(devicePath, measurement);
+      }
+      return fetcher.apply(patternTree, context);
+    }
+    if (context != null) {
+      context.reserveMemoryForSchemaTree(schemaTree.ramBytesUsed());
+    }
+    return schemaTree;
+  }
+
+  /** Collect the other fetches until the fetches in flight finish or the window elapses. */
+  private void waitForInFlightFetches() {
+    final long deadline = System.currentTimeMillis() + windowInMs;
+    long remaining = windowInMs;
+    while (inFlightNum > 0 && remaining > 0) {
+      try {
+        wait(remaining);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      remaining = deadline - System.currentTimeMillis();
+    }
+  }
+
+  private synchronized void onBatchFetched() {
+    inFlightNum--;
+    notifyAll();
+  }
+
+  private static long getRemainingTimeInMs(MPPQueryContext context) {
+    return context == null
+        ? Long.MAX_VALUE
+        : context.getTimeOut() - (System.currentTimeMillis() - context.getStartTime());
+  }
+
+  @TestOnly
+  synchronized int getCurrentBatchSeriesNum() {
+    return currentBatch == null ? 0 : currentBatch.seriesNum;
+  }
+
+  private class Batch {
+
+    // Only modified before the batch is closed, which is guarded by the batcher
+    private final PathPatternTree patternTree = new PathPatternTree();
+    private int seriesNum = 0;
+
+    // Completed with null if the batched fetch fails
+    private final CompletableFuture<ClusterSchemaTree> result = new CompletableFuture<>();
+
+    private void add(PartialPath devicePath, List<String> measurements) {
+      for (String measurement : measurements) {
+        patternTree.appendFullPath(devicePath, measurement);
+      }
+      seriesNum += measurements.size();
+    }
+
+    private ClusterSchemaTree execute() {
+      ClusterSchemaTree schemaTree = null;
+      try {
+        schemaTree = fetcher.apply(patternTree, null);
+      } catch (RuntimeException e) {
+        LOGGER.info(
+            "Failed to fetch the schema of {} series in batch, fetch them separately.",
+            seriesNum,
+            e);
+      } finally {
+        result.complete(schemaTree);
+        onBatchFetched();
+      }
+      return schemaTree;
+    }
+
+    private ClusterSchemaTree await(long timeoutInMs) {
+      try {
+        return result.get(timeoutInMs, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new QuerySchemaFetchFailedException(
+            "Interrupted when waiting for the batched schema fetch",
+            TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+      } catch (TimeoutException e) {
+        throw new QuerySchemaFetchFailedException(
+            "Fetch Schema failed because of timeout when waiting for the batched schema fetch",
+            TSStatusCode.QUERY_TIMEOUT.getStatusCode());
+      } catch (ExecutionException e) {
+        // Never happens since the result is never completed exceptionally
+        return null;
+      }
+    }
+  }
+}
@@ -27,6 +27,7 @@ import org.apache.iotdb.db.queryengine.execution.exchange.sink.ISink;
 import org.apache.iotdb.db.queryengine.execution.fragment.DataNodeQueryContext;
 import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.dynamicfilter.DynamicFilterTarget;
 import org.apache.iotdb.db.queryengine.execution.operator.source.ExchangeOperator;
 import org.apache.iotdb.db.queryengine.plan.analyze.TemplatedInfo;
 import org.apache.iotdb.db.queryengine.plan.analyze.TypeProvider;
@@ -50,6 +51,7 @@ import javax.annotation.Nullable;
 
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -101,6 +103,10 @@ public class LocalExecutionPlanContext {
   private Map<PlanNodeId, List<PipelineMemoryEstimator>> parentPlanNodeIdToMemoryEstimator =
       new ConcurrentHashMap<>();
 
+  /** The dynamic filters pushed down to the table scans, registered before they are planned. */
+  private Map<PlanNodeId, List<DynamicFilterTarget>> dynamicFilterTargets =
+      new ConcurrentHashMap<>();
+
   // for data region
   public LocalExecutionPlanContext(
       TypeProvider typeProvider,
@@ -131,6 +137,7 @@ public class LocalExecutionPlanContext {
     this.dataNodeQueryContext = parentContext.dataNodeQueryContext;
     this.timePartitions = parentContext.timePartitions;
     this.parentPlanNodeIdToMemoryEstimator = parentContext.parentPlanNodeIdToMemoryEstimator;
+    this.dynamicFilterTargets = parentContext.dynamicFilterTargets;
   }
 
   // for schema region
@@ -351,6 +358,14 @@ public class LocalExecutionPlanContext {
     return parentPlanNodeIdToMemoryEstimator;
   }
 
+  public void addDynamicFilterTarget(PlanNodeId scanNodeId, DynamicFilterTarget target) {
+    dynamicFilterTargets.computeIfAbsent(scanNodeId, k -> new ArrayList<>()).add(target);
+  }
+
+  public List<DynamicFilterTarget> getDynamicFilterTargets(PlanNodeId scanNodeId) {
+    return dynamicFilterTargets.getOrDefault(scanNodeId, Collections.emptyList());
+  }
+
   public void invalidateParentPlanNodeIdToMemoryEstimator() {
     parentPlanNodeIdToMemoryEstimator = null;
   }
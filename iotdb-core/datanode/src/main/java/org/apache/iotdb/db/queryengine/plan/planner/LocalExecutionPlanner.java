@@ -33,6 +33,7 @@ import org.apache.iotdb.db.queryengine.execution.driver.DataDriverContext;
 import org.apache.iotdb.db.queryengine.execution.fragment.DataNodeQueryContext;
 import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.queryengine.execution.memory.QueryAdmissionController;
 import org.apache.iotdb.db.queryengine.execution.operator.Operator;
 import org.apache.iotdb.db.queryengine.metric.QueryRelatedResourceMetricSet;
 import org.apache.iotdb.db.queryengine.plan.analyze.TypeProvider;
@@ -116,6 +117,14 @@ public class LocalExecutionPlanner {
     // set the map to null for gc
     context.invalidateParentPlanNodeIdToMemoryEstimator();
 
+    if (dataNodeQueryContext != null) {
+      QueryAdmissionController.getInstance()
+          .admit(
+              instanceContext.getId().getQueryId(),
+              dataNodeQueryContext,
+              memoryEstimator.getEstimatedMemoryUsageInBytes());
+    }
+
     // check whether current free memory is enough to execute current query
     long estimatedMemorySize = checkMemory(memoryEstimator, instanceContext.getStateMachine());
 
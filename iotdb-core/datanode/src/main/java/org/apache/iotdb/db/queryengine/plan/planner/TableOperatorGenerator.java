@@ -82,6 +82,10 @@ import org.apache.iotdb.db.queryengine.execution.operator.process.join.FullOuter
 import org.apache.iotdb.db.queryengine.execution.operator.process.join.InnerTimeJoinOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.join.SimpleNestedLoopCrossJoinOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.join.TableLeftOuterTimeJoinOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.dynamicfilter.DeviceDynamicFilter;
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.dynamicfilter.DynamicFilter;
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.dynamicfilter.DynamicFilterSourceOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.dynamicfilter.DynamicFilterTarget;
 import org.apache.iotdb.db.queryengine.execution.operator.process.join.merge.AscTimeComparator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.join.merge.ColumnMerger;
 import org.apache.iotdb.db.queryengine.execution.operator.process.join.merge.DescTimeComparator;
@@ -234,6 +238,7 @@ import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Expression;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.FunctionCall;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Literal;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.LongLiteral;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.SymbolReference;
 import org.apache.iotdb.db.queryengine.plan.relational.type.InternalTypeManager;
 import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
 import org.apache.iotdb.db.queryengine.transformation.dag.column.ColumnTransformer;
@@ -272,6 +277,7 @@ import org.apache.tsfile.read.common.type.BlobType;
 import org.apache.tsfile.read.common.type.BooleanType;
 import org.apache.tsfile.read.common.type.ObjectType;
 import org.apache.tsfile.read.common.type.Type;
+import org.apache.tsfile.read.common.type.TypeEnum;
 import org.apache.tsfile.read.common.type.TypeFactory;
 import org.apache.tsfile.read.filter.basic.Filter;
 import org.apache.tsfile.utils.Binary;
@@ -508,9 +514,19 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
             extractor,
             viewTTL);
 
+    List<DynamicFilterTarget> dynamicFilterTargets =
+        context.getDynamicFilterTargets(node.getPlanNodeId());
     DeviceIteratorScanOperator treeNonAlignedDeviceIteratorScanOperator =
         new DeviceIteratorScanOperator(
-            parameter.context, parameter.deviceEntries, parameter.generator);
+            parameter.context,
+            parameter.deviceEntries,
+            parameter.generator,
+            dynamicFilterTargets.isEmpty()
+                ? null
+                : new DeviceDynamicFilter(
+                    dynamicFilterTargets,
+                    (deviceEntry, idColumnIndex) ->
+                        (String) extractor.extract(deviceEntry.getDeviceID(), idColumnIndex)));
     addSource(
         treeNonAlignedDeviceIteratorScanOperator,
         context,
@@ -1178,7 +1194,8 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
         seriesScanOptions,
         measurementColumnNames,
         measurementSchemas,
-        maxTsBlockLineNum);
+        maxTsBlockLineNum,
+        context.getDynamicFilterTargets(node.getPlanNodeId()));
   }
 
   // used for TableScanOperator
@@ -2059,6 +2076,9 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
   public Operator visitJoin(JoinNode node, LocalExecutionPlanContext context) {
     List<TSDataType> dataTypes = getOutputColumnTypes(node, context.getTypeProvider());
 
+    // registered before the left child is planned, so that its table scans can be pruned
+    Map<Integer, DynamicFilter> dynamicFilters = registerDynamicFilters(node, context);
+
     Operator leftChild = node.getLeftChild().accept(this, context);
     Operator rightChild = node.getRightChild().accept(this, context);
 
@@ -2210,6 +2230,11 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
     }
 
     if (requireNonNull(node.getJoinType()) == JoinNode.JoinType.INNER) {
+      if (!dynamicFilters.isEmpty()) {
+        rightChild =
+            createDynamicFilterSourceOperator(
+                node, context, rightChild, rightJoinKeyPositions, dynamicFilters);
+      }
       OperatorContext operatorContext =
           context
               .getDriverContext()
@@ -2269,6 +2294,110 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
     throw new IllegalStateException("Unsupported join type: " + node.getJoinType());
   }
 
+  /**
+   * Create a dynamic filter for each STRING join key of an inner join, which is read from the TAG
+   * or ATTRIBUTE column of some table scans on the left side, and push it down to these table
+   * scans.
+   *
+   * @return join criteria index -> dynamic filter
+   */
+  private Map<Integer, DynamicFilter> registerDynamicFilters(
+      JoinNode node, LocalExecutionPlanContext context) {
+    if (!IoTDBDescriptor.getInstance().getConfig().isEnableDynamicFilter()
+        || node.getJoinType() != JoinNode.JoinType.INNER
+        || node.isCrossJoin()
+        || node.getAsofCriteria().isPresent()) {
+      return Collections.emptyMap();
+    }
+    Map<Integer, DynamicFilter> dynamicFilters = new LinkedHashMap<>();
+    for (int i = 0; i < node.getCriteria().size(); i++) {
+      Symbol leftJoinKey = node.getCriteria().get(i).getLeft();
+      TypeEnum joinKeyType = context.getTypeProvider().getTableModelType(leftJoinKey).getTypeEnum();
+      if (joinKeyType != TypeEnum.STRING && joinKeyType != TypeEnum.TEXT) {
+        continue;
+      }
+      List<Pair<DeviceTableScanNode, Symbol>> probeColumns = new ArrayList<>();
+      findDynamicFilterProbeColumns(node.getLeftChild(), leftJoinKey, probeColumns);
+      if (probeColumns.isEmpty()) {
+        continue;
+      }
+      DynamicFilter dynamicFilter =
+          new DynamicFilter(
+              IoTDBDescriptor.getInstance().getConfig().getDynamicFilterMaxExactValues());
+      for (Pair<DeviceTableScanNode, Symbol> probeColumn : probeColumns) {
+        DeviceTableScanNode scanNode = probeColumn.left;
+        context.addDynamicFilterTarget(
+            scanNode.getPlanNodeId(),
+            new DynamicFilterTarget(
+                dynamicFilter,
+                scanNode.getAssignments().get(probeColumn.right).getColumnCategory(),
+                scanNode.getTagAndAttributeIndexMap().get(probeColumn.right)));
+      }
+      dynamicFilters.put(i, dynamicFilter);
+    }
+    return dynamicFilters;
+  }
+
+  /**
+   * Find the TAG or ATTRIBUTE columns of the table scans which the symbol is read from. Only the
+   * nodes which keep the remaining rows unchanged when some rows of their children are pruned are
+   * looked through, the table scans with limit or offset pushed down are not pruned either.
+   */
+  private static void findDynamicFilterProbeColumns(
+      PlanNode node, Symbol symbol, List<Pair<DeviceTableScanNode, Symbol>> probeColumns) {
+    if (node instanceof FilterNode || node instanceof SortNode) {
+      findDynamicFilterProbeColumns(node.getChildren().get(0), symbol, probeColumns);
+    } else if (node instanceof ProjectNode) {
+      Expression expression = ((ProjectNode) node).getAssignments().get(symbol);
+      if (expression instanceof SymbolReference) {
+        findDynamicFilterProbeColumns(
+            node.getChildren().get(0), Symbol.from(expression), probeColumns);
+      }
+    } else if (node instanceof MergeSortNode || node instanceof CollectNode) {
+      for (PlanNode child : node.getChildren()) {
+        findDynamicFilterProbeColumns(child, symbol, probeColumns);
+      }
+    } else if (node instanceof DeviceTableScanNode && !(node instanceof AggregationTableScanNode)) {
+      DeviceTableScanNode scanNode = (DeviceTableScanNode) node;
+      ColumnSchema columnSchema = scanNode.getAssignments().get(symbol);
+      if (columnSchema != null
+          && (columnSchema.getColumnCategory() == TsTableColumnCategory.TAG
+              || columnSchema.getColumnCategory() == TsTableColumnCategory.ATTRIBUTE)
+          && scanNode.getPushDownLimit() <= 0
+          && scanNode.getPushDownOffset() <= 0) {
+        probeColumns.add(new Pair<>(scanNode, symbol));
+      }
+    }
+  }
+
+  private Operator createDynamicFilterSourceOperator(
+      JoinNode node,
+      LocalExecutionPlanContext context,
+      Operator rightChild,
+      int[] rightJoinKeyPositions,
+      Map<Integer, DynamicFilter> dynamicFilters) {
+    int[] joinKeyPositions = new int[dynamicFilters.size()];
+    List<DynamicFilter> filters = new ArrayList<>(dynamicFilters.size());
+    int i = 0;
+    for (Map.Entry<Integer, DynamicFilter> entry : dynamicFilters.entrySet()) {
+      joinKeyPositions[i++] = rightJoinKeyPositions[entry.getKey()];
+      filters.add(entry.getValue());
+    }
+    OperatorContext operatorContext =
+        context
+            .getDriverContext()
+            .addOperatorContext(
+                context.getNextOperatorId(),
+                node.getPlanNodeId(),
+                DynamicFilterSourceOperator.class.getSimpleName());
+    return new DynamicFilterSourceOperator(
+        operatorContext,
+        rightChild,
+        joinKeyPositions,
+        filters,
+        IoTDBDescriptor.getInstance().getConfig().getDynamicFilterMaxBuildSizeInBytes());
+  }
+
   private void semanticCheckForJoin(JoinNode node) {
     try {
       checkArgument(
@@ -0,0 +1,378 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.concurrent.threadpool.ScheduledExecutorUtil;
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.path.PathPatternTree;
+import org.apache.iotdb.commons.schema.table.TsTable;
+import org.apache.iotdb.commons.service.metric.MetricService;
+import org.apache.iotdb.db.auth.AuthorityChecker;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.protocol.session.IClientSession;
+import org.apache.iotdb.db.protocol.session.InternalClientSession;
+import org.apache.iotdb.db.protocol.session.SessionManager;
+import org.apache.iotdb.db.queryengine.plan.analyze.schema.ClusterSchemaFetcher;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.DeviceSchemaCacheSnapshot;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.TableDeviceSchemaCache;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.FetchDevice;
+import org.apache.iotdb.db.schemaengine.table.DataNodeTableCache;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Warms up the {@link TableDeviceSchemaCache} after restart. The keys of the cached devices are
+ * persisted periodically and at graceful shutdown, and after restart the schema of these devices is
+ * fetched again in background, so that the first writes after restart don't all miss the cache and
+ * fetch the schema at the same time.
+ *
+ * <p>Only the keys are persisted. The schema is fetched from the SchemaRegions when warming up, so
+ * the schema changed during the restart, e.g. deleted series or unset templates, is never cached.
+ */
+public class DeviceSchemaCacheWarmer {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DeviceSchemaCacheWarmer.class);
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final String SNAPSHOT_FILE_NAME = "schema_cache.snapshot";
+  private static final String TMP_FILE_SUFFIX = ".tmp";
+
+  // The max number of devices fetched in one fetch when warming up
+  private static final int WARMUP_BATCH_DEVICE_NUM = 1000;
+
+  private static final long STOP_TIMEOUT_IN_SECONDS = 30;
+
+  private final File snapshotFile = new File(CONFIG.getSchemaDir(), SNAPSHOT_FILE_NAME);
+
+  private final AtomicLong totalDeviceNum = new AtomicLong(0);
+  private final AtomicLong warmedDeviceNum = new AtomicLong(0);
+  // The devices dropped or changed during the restart
+  private final AtomicLong skippedDeviceNum = new AtomicLong(0);
+  private final AtomicLong failedDeviceNum = new AtomicLong(0);
+
+  // The snapshot is not persisted before the warmup is done, otherwise the snapshot will be
+  // replaced by the one of the cache partially warmed up
+  private volatile boolean isWarmupDone = false;
+
+  private ScheduledExecutorService executor;
+
+  private DeviceSchemaCacheWarmer() {
+    // Empty constructor
+  }
+
+  public static DeviceSchemaCacheWarmer getInstance() {
+    return DeviceSchemaCacheWarmerHolder.INSTANCE;
+  }
+
+  private static class DeviceSchemaCacheWarmerHolder {
+    private static final DeviceSchemaCacheWarmer INSTANCE = new DeviceSchemaCacheWarmer();
+  }
+
+  /** Warm up the cache in background, then persist the snapshot periodically. */
+  public synchronized void start() {
+    if (CONFIG.getSchemaCacheWarmupDeviceNum() <= 0 || executor != null) {
+      return;
+    }
+    MetricService.getInstance().addMetricSet(new DeviceSchemaCacheWarmerMetrics(this));
+
+    // The periodical snapshot is executed after the warmup since the executor is single-threaded
+    executor =
+        IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+            ThreadName.SCHEMA_CACHE_WARMUP.getName());
+    executor.execute(this::warmUp);
+    ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+        executor,
+        this::persistSnapshot,
+        CONFIG.getSchemaCacheSnapshotIntervalInMs(),
+        CONFIG.getSchemaCacheSnapshotIntervalInMs(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /** Stop the warmup if it's not done, and persist the snapshot for the next restart. */
+  public synchronized void stop() {
+    if (executor == null) {
+      return;
+    }
+    executor.shutdownNow();
+    // The snapshot is persisted after the warmup and the periodical snapshot exit, so that it's
+    // neither taken before the warmup is known to be done nor written concurrently
+    try {
+      if (!executor.awaitTermination(STOP_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)) {
+        LOGGER.warn(
+            "The schema cache warmer did not terminate within {}s, skip persisting the snapshot",
+            STOP_TIMEOUT_IN_SECONDS);
+        return;
+      }
+    } catch (final InterruptedException e) {
+      LOGGER.warn("Interrupted when waiting for the schema cache warmer to terminate");
+      Thread.currentThread().interrupt();
+      return;
+    } finally {
+      executor = null;
+    }
+    persistSnapshot();
+  }
+
+  private void warmUp() {
+    if (!snapshotFile.exists()) {
+      isWarmupDone = true;
+      return;
+    }
+    final DeviceSchemaCacheSnapshot snapshot;
+    try (final InputStream inputStream =
+        new BufferedInputStream(Files.newInputStream(snapshotFile.toPath()))) {
+      snapshot = DeviceSchemaCacheSnapshot.deserialize(inputStream);
+    } catch (final IOException e) {
+      LOGGER.warn("Failed to load the schema cache snapshot, skip warming up", e);
+      isWarmupDone = true;
+      return;
+    }
+
+    final long startTime = System.currentTimeMillis();
+    totalDeviceNum.set(snapshot.getDeviceNum());
+    LOGGER.info("Start warming up the schema cache with {} devices", snapshot.getDeviceNum());
+    warmUpTreeDevices(snapshot.getTreeDeviceMap());
+    warmUpTableDevices(snapshot.getTableDeviceMap());
+    if (Thread.currentThread().isInterrupted()) {
+      // Keep the snapshot for the next restart instead of the one of the partially warmed cache
+      LOGGER.info(
+          "Stopped warming up the schema cache after {} ms, {} of {} devices warmed",
+          System.currentTimeMillis() - startTime,
+          warmedDeviceNum.get(),
+          totalDeviceNum.get());
+      return;
+    }
+    LOGGER.info(
+        "Finished warming up the schema cache in {} ms, {} devices warmed, {} skipped, {} failed",
+        System.currentTimeMillis() - startTime,
+        warmedDeviceNum.get(),
+        skippedDeviceNum.get(),
+        failedDeviceNum.get());
+    isWarmupDone = true;
+  }
+
+  private void warmUpTreeDevices(final Map<IDeviceID, List<String>> treeDeviceMap) {
+    final ClusterSchemaFetcher schemaFetcher = ClusterSchemaFetcher.getInstance();
+    // The devices using template and the others are fetched separately, since the fetch of the
+    // latter must be precise to be cached
+    PathPatternTree normalPatternTree = new PathPatternTree();
+    PathPatternTree templatePatternTree = new PathPatternTree();
+    int normalDeviceNum = 0;
+    int templateDeviceNum = 0;
+    for (final Map.Entry<IDeviceID, List<String>> entry : treeDeviceMap.entrySet()) {
+      if (Thread.currentThread().isInterrupted()) {
+        return;
+      }
+      if (TableDeviceSchemaCache.getInstance().getDeviceSchema(entry.getKey()) != null) {
+        // Already cached by the writes or queries after restart
+        warmedDeviceNum.incrementAndGet();
+        continue;
+      }
+      final PartialPath devicePath;
+      try {
+        devicePath = new PartialPath(entry.getKey());
+      } catch (final IllegalPathException e) {
+        skippedDeviceNum.incrementAndGet();
+        continue;
+      }
+
+      if (entry.getValue().isEmpty()) {
+        if (schemaFetcher.checkTemplateSetInfo(devicePath) == null) {
+          skippedDeviceNum.incrementAndGet();
+          continue;
+        }
+        templatePatternTree.appendPathPattern(
+            devicePath.concatNode(IoTDBConstant.ONE_LEVEL_PATH_WILDCARD));
+        if (++templateDeviceNum == WARMUP_BATCH_DEVICE_NUM) {
+          fetchTreeSchema(templatePatternTree, templateDeviceNum);
+          templatePatternTree = new PathPatternTree();
+          templateDeviceNum = 0;
+        }
+      } else {
+        for (final String measurement : entry.getValue()) {
+          normalPatternTree.appendFullPath(devicePath, measurement);
+        }
+        if (++normalDeviceNum == WARMUP_BATCH_DEVICE_NUM) {
+          fetchTreeSchema(normalPatternTree, normalDeviceNum);
+          normalPatternTree = new PathPatternTree();
+          normalDeviceNum = 0;
+        }
+      }
+    }
+    fetchTreeSchema(templatePatternTree, templateDeviceNum);
+    fetchTreeSchema(normalPatternTree, normalDeviceNum);
+  }
+
+  private void fetchTreeSchema(final PathPatternTree patternTree, final int deviceNum) {
+    if (deviceNum == 0) {
+      return;
+    }
+    try {
+      // The fetched schema is cached by the fetcher
+      ClusterSchemaFetcher.getInstance().fetchSchema(patternTree, true, null, true);
+      warmedDeviceNum.addAndGet(deviceNum);
+    } catch (final Exception e) {
+      failedDeviceNum.addAndGet(deviceNum);
+      LOGGER.warn("Failed to warm up the schema cache of {} tree model devices", deviceNum, e);
+    }
+  }
+
+  private void warmUpTableDevices(final Map<String, Map<String, List<IDeviceID>>> tableDeviceMap) {
+    final IClientSession session =
+        new InternalClientSession(DeviceSchemaCacheWarmer.class.getSimpleName());
+    session.setUsername(AuthorityChecker.SUPER_USER);
+    session.setClientVersion(IoTDBConstant.ClientVersion.V_1_0);
+    session.setZoneId(ZoneId.systemDefault());
+    session.setSqlDialect(IClientSession.SqlDialect.TABLE);
+    SessionManager.getInstance().registerSession(session);
+    try {
+      for (final Map.Entry<String, Map<String, List<IDeviceID>>> databaseEntry :
+          tableDeviceMap.entrySet()) {
+        for (final Map.Entry<String, List<IDeviceID>> tableEntry :
+            databaseEntry.getValue().entrySet()) {
+          if (Thread.currentThread().isInterrupted()) {
+            return;
+          }
+          warmUpTableDevices(databaseEntry.getKey(), tableEntry.getKey(), tableEntry.getValue());
+        }
+      }
+    } finally {
+      SessionManager.getInstance().removeCurrSession();
+    }
+  }
+
+  private void warmUpTableDevices(
+      final String database, final String tableName, final List<IDeviceID> deviceIDs) {
+    final TsTable table = DataNodeTableCache.getInstance().getTable(database, tableName);
+    if (table == null) {
+      skippedDeviceNum.addAndGet(deviceIDs.size());
+      return;
+    }
+    final int tagNum = table.getTagNum();
+    List<Object[]> deviceIdList = new ArrayList<>();
+    for (final IDeviceID deviceID : deviceIDs) {
+      if (TableDeviceSchemaCache.getInstance().getDeviceAttribute(database, deviceID) != null) {
+        // Already cached by the writes or queries after restart
+        warmedDeviceNum.incrementAndGet();
+        continue;
+      }
+      // The first segment is the table name
+      if (deviceID.segmentNum() - 1 > tagNum) {
+        skippedDeviceNum.incrementAndGet();
+        continue;
+      }
+      final String[] tagValues = new String[tagNum];
+      for (int i = 1; i < deviceID.segmentNum(); i++) {
+        tagValues[i - 1] = (String) deviceID.segment(i);
+      }
+      deviceIdList.add(tagValues);
+      if (deviceIdList.size() == WARMUP_BATCH_DEVICE_NUM) {
+        fetchTableSchema(database, tableName, deviceIdList);
+        deviceIdList = new ArrayList<>();
+      }
+    }
+    fetchTableSchema(database, tableName, deviceIdList);
+  }
+
+  private void fetchTableSchema(
+      final String database, final String tableName, final List<Object[]> deviceIdList) {
+    if (deviceIdList.isEmpty()) {
+      return;
+    }
+    try {
+      // The fetched attributes are cached by the fetcher
+      TableDeviceSchemaFetcher.getInstance()
+          .fetchMissingDeviceSchemaForDataInsertion(
+              new FetchDevice(database, tableName, deviceIdList), null);
+      warmedDeviceNum.addAndGet(deviceIdList.size());
+    } catch (final Exception e) {
+      failedDeviceNum.addAndGet(deviceIdList.size());
+      LOGGER.warn(
+          "Failed to warm up the schema cache of {} devices of table {}.{}",
+          deviceIdList.size(),
+          database,
+          tableName,
+          e);
+    }
+  }
+
+  private void persistSnapshot() {
+    if (!isWarmupDone) {
+      return;
+    }
+    final DeviceSchemaCacheSnapshot snapshot =
+        TableDeviceSchemaCache.getInstance().takeSnapshot(CONFIG.getSchemaCacheWarmupDeviceNum());
+    final File tmpFile = new File(snapshotFile.getPath() + TMP_FILE_SUFFIX);
+    try {
+      try (final OutputStream outputStream =
+          new BufferedOutputStream(Files.newOutputStream(tmpFile.toPath()))) {
+        snapshot.serialize(outputStream);
+      }
+      Files.move(
+          tmpFile.toPath(),
+          snapshotFile.toPath(),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      LOGGER.info("Persisted the schema cache snapshot of {} devices", snapshot.getDeviceNum());
+    } catch (final IOException e) {
+      LOGGER.warn("Failed to persist the schema cache snapshot", e);
+    }
+  }
+
+  long getTotalDeviceNum() {
+    return totalDeviceNum.get();
+  }
+
+  long getWarmedDeviceNum() {
+    return warmedDeviceNum.get();
+  }
+
+  long getSkippedDeviceNum() {
+    return skippedDeviceNum.get();
+  }
+
+  long getFailedDeviceNum() {
+    return failedDeviceNum.get();
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher;
+
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.db.conf.DataNodeMemoryConfig;
+import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.metrics.utils.MetricType;
+
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+public class DeviceSchemaCacheWarmerMetrics implements IMetricSet {
+
+  private static final String TOTAL = "total";
+  private static final String WARMED = "warmed";
+  private static final String SKIPPED = "skipped";
+  private static final String FAILED = "failed";
+
+  private final DeviceSchemaCacheWarmer deviceSchemaCacheWarmer;
+
+  public DeviceSchemaCacheWarmerMetrics(final DeviceSchemaCacheWarmer deviceSchemaCacheWarmer) {
+    this.deviceSchemaCacheWarmer = deviceSchemaCacheWarmer;
+  }
+
+  @Override
+  public void bindTo(final AbstractMetricService metricService) {
+    createAutoGauge(metricService, TOTAL, DeviceSchemaCacheWarmer::getTotalDeviceNum);
+    createAutoGauge(metricService, WARMED, DeviceSchemaCacheWarmer::getWarmedDeviceNum);
+    createAutoGauge(metricService, SKIPPED, DeviceSchemaCacheWarmer::getSkippedDeviceNum);
+    createAutoGauge(metricService, FAILED, DeviceSchemaCacheWarmer::getFailedDeviceNum);
+  }
+
+  private void createAutoGauge(
+      final AbstractMetricService metricService,
+      final String type,
+      final ToLongFunction<DeviceSchemaCacheWarmer> mapper) {
+    metricService.createAutoGauge(
+        Metric.CACHE_WARMUP.toString(),
+        MetricLevel.IMPORTANT,
+        deviceSchemaCacheWarmer,
+        mapper,
+        Tag.NAME.toString(),
+        DataNodeMemoryConfig.SCHEMA_CACHE,
+        Tag.TYPE.toString(),
+        type);
+  }
+
+  @Override
+  public void unbindFrom(final AbstractMetricService metricService) {
+    for (final String type : new String[] {TOTAL, WARMED, SKIPPED, FAILED}) {
+      metricService.remove(
+          MetricType.AUTO_GAUGE,
+          Metric.CACHE_WARMUP.toString(),
+          Tag.NAME.toString(),
+          DataNodeMemoryConfig.SCHEMA_CACHE,
+          Tag.TYPE.toString(),
+          type);
+    }
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final DeviceSchemaCacheWarmerMetrics that = (DeviceSchemaCacheWarmerMetrics) o;
+    return Objects.equals(deviceSchemaCacheWarmer, that.deviceSchemaCacheWarmer);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(deviceSchemaCacheWarmer);
+  }
+}
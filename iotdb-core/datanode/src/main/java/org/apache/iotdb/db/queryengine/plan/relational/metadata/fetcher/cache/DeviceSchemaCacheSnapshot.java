@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The keys of the devices cached in {@link TableDeviceSchemaCache}, which are persisted to warm up
+ * the cache after restart. Only the keys are kept and the schema is fetched again when warming up,
+ * thus the schema changed during the restart is never served from the snapshot.
+ */
+public class DeviceSchemaCacheSnapshot {
+
+  private static final byte FORMAT_VERSION = 1;
+
+  // Tree model device -> the cached measurements, which is empty if the device is using template
+  private final Map<IDeviceID, List<String>> treeDeviceMap = new HashMap<>();
+
+  // Table model database -> table -> the devices whose attributes are cached
+  private final Map<String, Map<String, List<IDeviceID>>> tableDeviceMap = new HashMap<>();
+
+  private int deviceNum = 0;
+
+  public void addTreeDevice(final IDeviceID deviceID, final List<String> measurements) {
+    treeDeviceMap.put(deviceID, measurements);
+    deviceNum++;
+  }
+
+  public void addTableDevice(final String database, final IDeviceID deviceID) {
+    tableDeviceMap
+        .computeIfAbsent(database, k -> new HashMap<>())
+        .computeIfAbsent(deviceID.getTableName(), k -> new ArrayList<>())
+        .add(deviceID);
+    deviceNum++;
+  }
+
+  public Map<IDeviceID, List<String>> getTreeDeviceMap() {
+    return treeDeviceMap;
+  }
+
+  public Map<String, Map<String, List<IDeviceID>>> getTableDeviceMap() {
+    return tableDeviceMap;
+  }
+
+  public int getDeviceNum() {
+    return deviceNum;
+  }
+
+  public void serialize(final OutputStream stream) throws IOException {
+    ReadWriteIOUtils.write(FORMAT_VERSION, stream);
+
+    ReadWriteIOUtils.write(treeDeviceMap.size(), stream);
+    for (final Map.Entry<IDeviceID, List<String>> entry : treeDeviceMap.entrySet()) {
+      entry.getKey().serialize(stream);
+      ReadWriteIOUtils.write(entry.getValue().size(), stream);
+      for (final String measurement : entry.getValue()) {
+        ReadWriteIOUtils.write(measurement, stream);
+      }
+    }
+
+    ReadWriteIOUtils.write(tableDeviceMap.size(), stream);
+    for (final Map.Entry<String, Map<String, List<IDeviceID>>> databaseEntry :
+        tableDeviceMap.entrySet()) {
+      ReadWriteIOUtils.write(databaseEntry.getKey(), stream);
+      ReadWriteIOUtils.write(databaseEntry.getValue().size(), stream);
+      for (final List<IDeviceID> deviceIDs : databaseEntry.getValue().values()) {
+        ReadWriteIOUtils.write(deviceIDs.size(), stream);
+        for (final IDeviceID deviceID : deviceIDs) {
+          deviceID.serialize(stream);
+        }
+      }
+    }
+  }
+
+  public static DeviceSchemaCacheSnapshot deserialize(final InputStream stream) throws IOException {
+    final byte formatVersion = ReadWriteIOUtils.readByte(stream);
+    if (formatVersion != FORMAT_VERSION) {
+      throw new IOException(
+          String.format("Unrecognized schema cache snapshot format version %s", formatVersion));
+    }
+    final DeviceSchemaCacheSnapshot snapshot = new DeviceSchemaCacheSnapshot();
+
+    final int treeDeviceNum = ReadWriteIOUtils.readInt(stream);
+    for (int i = 0; i < treeDeviceNum; i++) {
+      final IDeviceID deviceID =
+          IDeviceID.Deserializer.DEFAULT_DESERIALIZER.deserializeFrom(stream);
+      final int measurementNum = ReadWriteIOUtils.readInt(stream);
+      final List<String> measurements =
+          measurementNum == 0 ? Collections.emptyList() : new ArrayList<>(measurementNum);
+      for (int j = 0; j < measurementNum; j++) {
+        measurements.add(ReadWriteIOUtils.readString(stream));
+      }
+      snapshot.addTreeDevice(deviceID, measurements);
+    }
+
+    final int databaseNum = ReadWriteIOUtils.readInt(stream);
+    for (int i = 0; i < databaseNum; i++) {
+      final String database = ReadWriteIOUtils.readString(stream);
+      final int tableNum = ReadWriteIOUtils.readInt(stream);
+      for (int j = 0; j < tableNum; j++) {
+        final int tableDeviceNum = ReadWriteIOUtils.readInt(stream);
+        for (int k = 0; k < tableDeviceNum; k++) {
+          snapshot.addTableDevice(
+              database, IDeviceID.Deserializer.DEFAULT_DESERIALIZER.deserializeFrom(stream));
+        }
+      }
+    }
+    return snapshot;
+  }
+}
@@ -53,7 +53,9 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -533,6 +535,38 @@ public class TableDeviceSchemaCache {
     }
   }
 
+  /////////////////////////////// Snapshot ///////////////////////////////
+
+  /**
+   * Take a snapshot of the keys of at most {@code maxDeviceNum} cached devices, i.e. the tree model
+   * devices with schema and the table model devices with attributes.
+   */
+  public DeviceSchemaCacheSnapshot takeSnapshot(final int maxDeviceNum) {
+    final DeviceSchemaCacheSnapshot snapshot = new DeviceSchemaCacheSnapshot();
+    readWriteLock.readLock().lock();
+    try {
+      dualKeyCache.traverse(
+          (tableId, deviceID, entry) -> {
+            final IDeviceSchema schema = entry.getDeviceSchema();
+            if (schema instanceof TreeDeviceTemplateSchema) {
+              snapshot.addTreeDevice(deviceID, Collections.emptyList());
+            } else if (schema instanceof TreeDeviceNormalSchema) {
+              final List<String> measurements =
+                  new ArrayList<>(((TreeDeviceNormalSchema) schema).getMeasurements());
+              if (!measurements.isEmpty()) {
+                snapshot.addTreeDevice(deviceID, measurements);
+              }
+            } else if (schema instanceof TableAttributeSchema) {
+              snapshot.addTableDevice(tableId.getDatabase(), deviceID);
+            }
+            return snapshot.getDeviceNum() < maxDeviceNum;
+          });
+    } finally {
+      readWriteLock.readLock().unlock();
+    }
+    return snapshot;
+  }
+
   /////////////////////////////// Management  ///////////////////////////////
 
   long getHitCount() {
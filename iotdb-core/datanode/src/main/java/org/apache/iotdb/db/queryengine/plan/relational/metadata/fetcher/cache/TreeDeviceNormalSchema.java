@@ -27,6 +27,7 @@ import org.apache.tsfile.write.schema.IMeasurementSchema;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -57,6 +58,10 @@ public class TreeDeviceNormalSchema implements IDeviceSchema {
     return measurementMap.get(measurement);
   }
 
+  public Set<String> getMeasurements() {
+    return measurementMap.keySet();
+  }
+
   public int update(final String[] measurements, final IMeasurementSchema[] schemas) {
     int diff = 0;
     if (schemas == null) {
@@ -41,6 +41,8 @@ import org.apache.iotdb.db.pipe.metric.overview.PipeDataNodeSinglePipeMetrics;
 import org.apache.iotdb.db.protocol.client.ConfigNodeClient;
 import org.apache.iotdb.db.protocol.client.ConfigNodeClientManager;
 import org.apache.iotdb.db.protocol.client.ConfigNodeInfo;
+import org.apache.iotdb.db.queryengine.plan.analyze.ClusterPartitionFetcher;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.DeviceSchemaCacheWarmer;
 import org.apache.iotdb.db.storageengine.StorageEngine;
 import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
 import org.apache.iotdb.db.storageengine.rescon.disk.DirectoryChecker;
@@ -113,6 +115,12 @@ public class DataNodeShutdownHook extends Thread {
     // Stop external rpc service firstly.
     ExternalRPCService.getInstance().stop();
 
+    // Persist the keys of the cached devices to warm up the schema cache after restart
+    DeviceSchemaCacheWarmer.getInstance().stop();
+
+    // No more writes come, stop prefetching the data partitions
+    ClusterPartitionFetcher.getInstance().stop();
+
     // Reject write operations to make sure all tsfiles will be sealed
     CommonDescriptor.getInstance().getConfig().setStopping(true);
     CommonDescriptor.getInstance().getConfig().setNodeStatus(NodeStatus.ReadOnly);
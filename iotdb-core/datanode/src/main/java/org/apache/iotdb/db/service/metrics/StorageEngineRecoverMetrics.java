@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.service.metrics;
+
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.db.storageengine.StorageEngine;
+import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.metrics.utils.MetricType;
+
+import java.util.Objects;
+
+/** The cost of each phase of the storage engine recovery when starting the DataNode. */
+public class StorageEngineRecoverMetrics implements IMetricSet {
+
+  /** replay the wal of the unsealed TsFiles, including waiting for all regions to be scanned */
+  public static final String WAL = "wal";
+
+  /** until all data regions are recovered and ready for read and write */
+  public static final String DATA_REGION = "data_region";
+
+  /** load the sealed TsFileResources in background after the data regions are ready */
+  public static final String TSFILE_RESOURCE = "tsfile_resource";
+
+  private static final String[] PHASES = {WAL, DATA_REGION, TSFILE_RESOURCE};
+
+  private final StorageEngine storageEngine;
+
+  public StorageEngineRecoverMetrics(StorageEngine storageEngine) {
+    this.storageEngine = storageEngine;
+  }
+
+  @Override
+  public void bindTo(AbstractMetricService metricService) {
+    for (String phase : PHASES) {
+      metricService.createAutoGauge(
+          Metric.STORAGE_ENGINE_RECOVER_COST.toString(),
+          MetricLevel.IMPORTANT,
+          storageEngine,
+          engine -> engine.getRecoverPhaseCostInMs(phase),
+          Tag.STAGE.toString(),
+          phase);
+    }
+  }
+
+  @Override
+  public void unbindFrom(AbstractMetricService metricService) {
+    for (String phase : PHASES) {
+      metricService.remove(
+          MetricType.AUTO_GAUGE,
+          Metric.STORAGE_ENGINE_RECOVER_COST.toString(),
+          Tag.STAGE.toString(),
+          phase);
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    StorageEngineRecoverMetrics that = (StorageEngineRecoverMetrics) o;
+    return Objects.equals(storageEngine, that.storageEngine);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(storageEngine);
+  }
+}
@@ -41,6 +41,7 @@ import org.apache.iotdb.commons.file.SystemFileFactory;
 import org.apache.iotdb.commons.schema.ttl.TTLCache;
 import org.apache.iotdb.commons.service.IService;
 import org.apache.iotdb.commons.service.ServiceType;
+import org.apache.iotdb.commons.service.metric.MetricService;
 import org.apache.iotdb.commons.utils.PathUtils;
 import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.commons.utils.TimePartitionUtils;
@@ -58,11 +59,13 @@ import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeTTLCach
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.load.LoadTsFilePieceNode;
 import org.apache.iotdb.db.queryengine.plan.scheduler.load.LoadTsFileScheduler;
 import org.apache.iotdb.db.service.metrics.FileMetrics;
+import org.apache.iotdb.db.service.metrics.StorageEngineRecoverMetrics;
 import org.apache.iotdb.db.service.metrics.WritingMetrics;
 import org.apache.iotdb.db.storageengine.buffer.BloomFilterCache;
 import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
 import org.apache.iotdb.db.storageengine.buffer.TimeSeriesMetadataCache;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.SeriesSlotWriteStatistics;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.repair.RepairLogger;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.repair.UnsortedFileRepairTaskScheduler;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleTaskManager;
@@ -71,11 +74,13 @@ import org.apache.iotdb.db.storageengine.dataregion.flush.CompressionRatio;
 import org.apache.iotdb.db.storageengine.dataregion.flush.FlushListener;
 import org.apache.iotdb.db.storageengine.dataregion.flush.TsFileFlushPolicy;
 import org.apache.iotdb.db.storageengine.dataregion.flush.TsFileFlushPolicy.DirectFlushPolicy;
+import org.apache.iotdb.db.storageengine.dataregion.rollup.RollupViewManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.exception.WALException;
 import org.apache.iotdb.db.storageengine.dataregion.wal.recover.WALRecoverManager;
 import org.apache.iotdb.db.storageengine.load.LoadTsFileManager;
 import org.apache.iotdb.db.storageengine.load.limiter.LoadTsFileRateLimiter;
+import org.apache.iotdb.db.storageengine.rescon.disk.DiskAwareTaskScheduler;
 import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
 import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.db.utils.ThreadUtils;
@@ -151,6 +156,7 @@ public class StorageEngine implements IService {
 
   private ScheduledExecutorService seqMemtableTimedFlushCheckThread;
   private ScheduledExecutorService unseqMemtableTimedFlushCheckThread;
+  private ScheduledExecutorService rollupViewRecomputeThread;
 
   private final TsFileFlushPolicy fileFlushPolicy = new DirectFlushPolicy();
 
@@ -162,6 +168,12 @@ public class StorageEngine implements IService {
   private final List<FlushListener> customFlushListeners = new ArrayList<>();
   private int recoverDataRegionNum = 0;
 
+  /** recover phase -> its cost in the last start, see {@link StorageEngineRecoverMetrics} */
+  private final Map<String, Long> recoverPhaseCostInMs = new ConcurrentHashMap<>();
+
+  /** used to load the sealed TsFileResources of each disk in background after the recovery */
+  private DiskAwareTaskScheduler tsFileResourceRecoverScheduler;
+
   private final LoadTsFileManager loadTsFileManager = new LoadTsFileManager();
 
   public final AtomicLong objectFileId = new AtomicLong(0);
@@ -202,6 +214,11 @@ public class StorageEngine implements IService {
     return isReadyForNonReadWriteFunctions.get();
   }
 
+  /** the cost of the recover phase in the last start, 0 if it is not finished */
+  public long getRecoverPhaseCostInMs(String phase) {
+    return recoverPhaseCostInMs.getOrDefault(phase, 0L);
+  }
+
   private void asyncRecoverDataRegion() throws StartupException {
     long startRecoverTime = System.currentTimeMillis();
     isReadyForNonReadWriteFunctions.set(false);
@@ -214,11 +231,15 @@ public class StorageEngine implements IService {
 
     // wait until wal is recovered
     if (!CONFIG.getDataRegionConsensusProtocolClass().equals(ConsensusFactory.RATIS_CONSENSUS)) {
+      long startWALRecoverTime = System.currentTimeMillis();
       try {
         WALRecoverManager.getInstance().recover();
       } catch (WALException e) {
         LOGGER.error("Fail to recover wal.", e);
       }
+      long walRecoverCost = System.currentTimeMillis() - startWALRecoverTime;
+      recoverPhaseCostInMs.put(StorageEngineRecoverMetrics.WAL, walRecoverCost);
+      LOGGER.info("WAL recover cost: {}ms.", walRecoverCost);
     }
 
     // operations after all data regions are recovered
@@ -227,9 +248,9 @@ public class StorageEngine implements IService {
             () -> {
               checkResults(futures, "StorageEngine failed to recover.");
               isReadyForReadAndWrite.set(true);
-              LOGGER.info(
-                  "Storage Engine recover cost: {}s.",
-                  (System.currentTimeMillis() - startRecoverTime) / 1000);
+              long recoverCost = System.currentTimeMillis() - startRecoverTime;
+              recoverPhaseCostInMs.put(StorageEngineRecoverMetrics.DATA_REGION, recoverCost);
+              LOGGER.info("Storage Engine recover cost: {}s.", recoverCost / 1000);
             },
             ThreadName.STORAGE_ENGINE_RECOVER_TRIGGER.getName());
     recoverEndTrigger.start();
@@ -249,6 +270,7 @@ public class StorageEngine implements IService {
       for (DataRegionId dataRegionId : entry.getValue()) {
         Callable<Void> recoverDataRegionTask =
             () -> {
+              long startTime = System.currentTimeMillis();
               DataRegion dataRegion;
               try {
                 dataRegion = buildNewDataRegion(sgName, dataRegionId);
@@ -259,9 +281,12 @@ public class StorageEngine implements IService {
               }
               dataRegionMap.put(dataRegionId, dataRegion);
               LOGGER.info(
-                  "Data regions have been recovered {}/{}",
+                  "Data regions have been recovered {}/{}, {}[{}] cost {}ms",
                   readyDataRegionNum.incrementAndGet(),
-                  recoverDataRegionNum);
+                  recoverDataRegionNum,
+                  sgName,
+                  dataRegionId.getId(),
+                  System.currentTimeMillis() - startTime);
               return null;
             };
         futures.add(cachedThreadPool.submit(recoverDataRegionTask));
@@ -306,6 +331,8 @@ public class StorageEngine implements IService {
       throw new StorageEngineFailureException(e);
     }
 
+    MetricService.getInstance().addMetricSet(new StorageEngineRecoverMetrics(this));
+
     asyncRecoverDataRegion();
 
     startTimedService();
@@ -351,6 +378,20 @@ public class StorageEngine implements IService {
           TimeUnit.MILLISECONDS);
       LOGGER.info("start unsequence memtable timed flush check thread successfully.");
     }
+    // recompute the invalidated buckets of the rollup views
+    if (RollupViewManager.getInstance().isEnabled()
+        && CONFIG.getRollupViewRecomputeIntervalInMs() > 0) {
+      rollupViewRecomputeThread =
+          IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+              ThreadName.ROLLUP_VIEW_RECOMPUTE.getName());
+      ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+          rollupViewRecomputeThread,
+          this::recomputeRollupViews,
+          CONFIG.getRollupViewRecomputeIntervalInMs(),
+          CONFIG.getRollupViewRecomputeIntervalInMs(),
+          TimeUnit.MILLISECONDS);
+      LOGGER.info("start rollup view recompute thread successfully.");
+    }
   }
 
   private void timedFlushSeqMemTable() {
@@ -369,20 +410,50 @@ public class StorageEngine implements IService {
     }
   }
 
+  private void recomputeRollupViews() {
+    for (DataRegion dataRegion : dataRegionMap.values()) {
+      if (dataRegion != null) {
+        int recomputedSeriesNum = RollupViewManager.getInstance().recompute(dataRegion);
+        if (recomputedSeriesNum > 0) {
+          LOGGER.debug(
+              "Recomputed {} series of the rollup views in data region {}",
+              recomputedSeriesNum,
+              dataRegion.getDataRegionIdString());
+        }
+      }
+    }
+  }
+
+  /**
+   * Load the sealed TsFileResources whose time index has been recovered from the FileTimeIndexCache
+   * in background. The tasks of all regions are queued by the disk they read, so that each disk is
+   * read by a bounded number of threads and the disks are read in parallel.
+   */
   private void asyncRecoverTsFileResource() {
     List<Future<Void>> futures = new LinkedList<>();
     long startRecoverTime = System.currentTimeMillis();
+    tsFileResourceRecoverScheduler =
+        new DiskAwareTaskScheduler(
+            ThreadName.STORAGE_ENGINE_RESOURCE_RECOVER.getName(),
+            CONFIG.getRecoveryThreadCountPerDisk());
     for (DataRegion dataRegion : dataRegionMap.values()) {
       if (dataRegion != null) {
-        List<Callable<Void>> asyncTsFileResourceRecoverTasks =
-            dataRegion.getAsyncTsFileResourceRecoverTaskList();
+        Map<String, List<Callable<Void>>> asyncTsFileResourceRecoverTasks =
+            dataRegion.getAsyncTsFileResourceRecoverTasks();
         if (asyncTsFileResourceRecoverTasks != null) {
+          List<Future<Void>> futuresOfRegion = new ArrayList<>();
+          asyncTsFileResourceRecoverTasks.forEach(
+              (dataDir, tasks) ->
+                  tasks.forEach(
+                      task ->
+                          futuresOfRegion.add(
+                              tsFileResourceRecoverScheduler.submit(dataDir, task))));
           Callable<Void> taskOfRegion =
               () -> {
-                for (Callable<Void> task : asyncTsFileResourceRecoverTasks) {
-                  task.call();
+                for (Future<Void> future : futuresOfRegion) {
+                  future.get();
                 }
-                dataRegion.clearAsyncTsFileResourceRecoverTaskList();
+                dataRegion.clearAsyncTsFileResourceRecoverTasks();
                 dataRegion.initCompactionSchedule();
                 return null;
               };
@@ -390,15 +461,20 @@ public class StorageEngine implements IService {
         }
       }
     }
+    int diskNum = tsFileResourceRecoverScheduler.getDiskNum();
+    tsFileResourceRecoverScheduler.shutdown();
     Thread recoverEndTrigger =
         new Thread(
             () -> {
               checkResults(futures, "async recover tsfile resource meets error.");
               recoverRepairData();
               isReadyForNonReadWriteFunctions.set(true);
+              long recoverCost = System.currentTimeMillis() - startRecoverTime;
+              recoverPhaseCostInMs.put(StorageEngineRecoverMetrics.TSFILE_RESOURCE, recoverCost);
               LOGGER.info(
-                  "TsFile Resource recover cost: {}s.",
-                  (System.currentTimeMillis() - startRecoverTime) / 1000);
+                  "TsFile Resource recover cost: {}s, read from {} disks.",
+                  recoverCost / 1000,
+                  diskNum);
             },
             ThreadName.STORAGE_ENGINE_RECOVER_TRIGGER.getName());
     recoverEndTrigger.start();
@@ -416,9 +492,13 @@ public class StorageEngine implements IService {
         seqMemtableTimedFlushCheckThread, ThreadName.TIMED_FLUSH_SEQ_MEMTABLE);
     ThreadUtils.stopThreadPool(
         unseqMemtableTimedFlushCheckThread, ThreadName.TIMED_FLUSH_UNSEQ_MEMTABLE);
+    ThreadUtils.stopThreadPool(rollupViewRecomputeThread, ThreadName.ROLLUP_VIEW_RECOMPUTE);
     if (cachedThreadPool != null) {
       cachedThreadPool.shutdownNow();
     }
+    if (tsFileResourceRecoverScheduler != null) {
+      tsFileResourceRecoverScheduler.shutdownNow();
+    }
     dataRegionMap.clear();
   }
 
@@ -436,7 +516,11 @@ public class StorageEngine implements IService {
     }
     shutdownTimedService(seqMemtableTimedFlushCheckThread, "SeqMemtableTimedFlushCheckThread");
     shutdownTimedService(unseqMemtableTimedFlushCheckThread, "UnseqMemtableTimedFlushCheckThread");
+    shutdownTimedService(rollupViewRecomputeThread, "RollupViewRecomputeThread");
     cachedThreadPool.shutdownNow();
+    if (tsFileResourceRecoverScheduler != null) {
+      tsFileResourceRecoverScheduler.shutdownNow();
+    }
     dataRegionMap.clear();
   }
 
@@ -788,6 +872,8 @@ public class StorageEngine implements IService {
       try {
         region.abortCompaction();
         region.syncDeleteDataFiles();
+        RollupViewManager.getInstance().removeDataRegion(region.getDataRegionIdString());
+        SeriesSlotWriteStatistics.getInstance().removeDataRegion(regionId.getId());
         region.deleteFolder(systemDir);
         region.deleteDALFolderAndClose();
         PipeDataNodeAgent.receiver().pipeConsensus().releaseReceiverResource(regionId);
@@ -907,6 +993,8 @@ public class StorageEngine implements IService {
       oldRegion.markDeleted();
       oldRegion.abortCompaction();
       oldRegion.syncCloseAllWorkingTsFileProcessors();
+      // the rollup views of the old region are rebuilt from the new data
+      RollupViewManager.getInstance().removeDataRegion(oldRegion.getDataRegionIdString());
     }
     WRITING_METRICS.createFlushingMemTableStatusMetrics(regionId);
     WRITING_METRICS.createDataRegionMemoryCostMetrics(newRegion);
@@ -1042,6 +1130,7 @@ public class StorageEngine implements IService {
     stopTimedServiceAndThrow(seqMemtableTimedFlushCheckThread, "SeqMemtableTimedFlushCheckThread");
     stopTimedServiceAndThrow(
         unseqMemtableTimedFlushCheckThread, "UnseqMemtableTimedFlushCheckThread");
+    stopTimedServiceAndThrow(rollupViewRecomputeThread, "RollupViewRecomputeThread");
 
     LOGGER.info("Stop all timed service successfully, and now restart them.");
 
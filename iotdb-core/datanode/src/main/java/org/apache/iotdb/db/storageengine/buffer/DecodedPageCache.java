@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.reader.IPageReader;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class shares the decoded <code>TsBlock</code> of a disk page between the concurrent scans of
+ * the same page. A scan which finds the page being decoded by another scan waits for that decode
+ * instead of decoding the page again, and the recently decoded pages are kept in a small LRU cache.
+ *
+ * <p>The shared <code>TsBlock</code> must be treated as read-only by the callers, it is only used
+ * for the pages whose decoded result does not depend on the scan: without deletions, push down
+ * filters or limit and offset, and fully satisfying the time filter of the scan.
+ */
+@SuppressWarnings("squid:S6548")
+public class DecodedPageCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DecodedPageCache.class);
+
+  private final long maxSizeInBytes;
+  private final Cache<DecodedPageCacheKey, TsBlock> lruCache;
+  private final Map<DecodedPageCacheKey, CompletableFuture<TsBlock>> inFlightDecodes =
+      new ConcurrentHashMap<>();
+
+  private final AtomicLong sharedDecodeCount = new AtomicLong(0);
+
+  private DecodedPageCache() {
+    this(IoTDBDescriptor.getInstance().getConfig().getDecodedPageCacheSizeInBytes());
+    if (isEnabled()) {
+      LOGGER.info("DecodedPageCache size = {}", maxSizeInBytes);
+    }
+  }
+
+  @TestOnly
+  DecodedPageCache(long maxSizeInBytes) {
+    this.maxSizeInBytes = maxSizeInBytes;
+    this.lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(Math.max(maxSizeInBytes, 0))
+            .weigher(
+                (Weigher<DecodedPageCacheKey, TsBlock>)
+                    (key, tsBlock) ->
+                        (int)
+                            Math.min(
+                                Integer.MAX_VALUE,
+                                key.getRetainedSizeInBytes() + tsBlock.getRetainedSizeInBytes()))
+            .recordStats()
+            .build();
+  }
+
+  public static DecodedPageCache getInstance() {
+    return DecodedPageCacheHolder.INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return maxSizeInBytes > 0;
+  }
+
+  /**
+   * Get the decoded data of the page, decoding it with the given page reader only if no other scan
+   * has decoded or is decoding the same page.
+   */
+  public TsBlock get(DecodedPageCacheKey key, IPageReader pageReader) throws IOException {
+    TsBlock tsBlock = lruCache.getIfPresent(key);
+    if (tsBlock != null) {
+      return tsBlock;
+    }
+
+    CompletableFuture<TsBlock> future = new CompletableFuture<>();
+    CompletableFuture<TsBlock> inFlightDecode = inFlightDecodes.putIfAbsent(key, future);
+    if (inFlightDecode != null) {
+      try {
+        tsBlock = inFlightDecode.get();
+        sharedDecodeCount.incrementAndGet();
+        return tsBlock;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        // decode by itself, the interruption will be handled by the caller later
+        return pageReader.getAllSatisfiedData();
+      } catch (ExecutionException e) {
+        // the failure of another scan should not fail this one, decode by itself
+        return pageReader.getAllSatisfiedData();
+      }
+    }
+
+    try {
+      // the decode may have finished between the cache lookup and the registration
+      tsBlock = lruCache.getIfPresent(key);
+      if (tsBlock == null) {
+        tsBlock = pageReader.getAllSatisfiedData();
+        lruCache.put(key, tsBlock);
+      }
+      future.complete(tsBlock);
+      return tsBlock;
+    } catch (IOException | RuntimeException e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlightDecodes.remove(key, future);
+    }
+  }
+
+  public double getHitRate() {
+    return lruCache.stats().hitRate() * 100;
+  }
+
+  /** The number of decodes saved by waiting for a concurrent scan of the same page. */
+  public long getSharedDecodeCount() {
+    return sharedDecodeCount.get();
+  }
+
+  public long getEvictionCount() {
+    return lruCache.stats().evictionCount();
+  }
+
+  public long getMaxMemory() {
+    return maxSizeInBytes;
+  }
+
+  /** clear LRUCache. */
+  public void clear() {
+    lruCache.invalidateAll();
+    lruCache.cleanUp();
+  }
+
+  @TestOnly
+  public boolean isEmpty() {
+    lruCache.cleanUp();
+    return lruCache.asMap().isEmpty();
+  }
+
+  /**
+   * The key of a decoded page. Besides the position of the page, the result of decoding also
+   * depends on the value chunks read together with an aligned time chunk, the target data types and
+   * the kind of page reader, e.g. whether the rows whose values are all null are kept.
+   */
+  public static class DecodedPageCacheKey {
+
+    private static final long INSTANCE_SIZE =
+        RamUsageEstimator.shallowSizeOfInstance(DecodedPageCacheKey.class);
+
+    // There is no need to add the size of tsFileID, dataTypes and pageReaderType, they are shared
+    // with the TsFileResource, the scan and the class respectively.
+    private final TsFileID tsFileID;
+    // offset of the time chunk (or the only chunk of a non-aligned series) followed by the offsets
+    // of the value chunks, -1 for the value chunks that don't exist in the file
+    private final long[] chunkOffsets;
+    // the pages in a chunk don't overlap, so the start time identifies a page in the chunk
+    private final long pageStartTime;
+    private final List<TSDataType> dataTypes;
+    private final Class<?> pageReaderType;
+
+    public DecodedPageCacheKey(
+        TsFileID tsFileID,
+        long[] chunkOffsets,
+        long pageStartTime,
+        List<TSDataType> dataTypes,
+        Class<?> pageReaderType) {
+      this.tsFileID = tsFileID;
+      this.chunkOffsets = chunkOffsets;
+      this.pageStartTime = pageStartTime;
+      this.dataTypes = dataTypes;
+      this.pageReaderType = pageReaderType;
+    }
+
+    public long getRetainedSizeInBytes() {
+      return INSTANCE_SIZE + RamUsageEstimator.sizeOf(chunkOffsets);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      DecodedPageCacheKey that = (DecodedPageCacheKey) o;
+      return pageStartTime == that.pageStartTime
+          && Objects.equals(tsFileID, that.tsFileID)
+          && Arrays.equals(chunkOffsets, that.chunkOffsets)
+          && Objects.equals(dataTypes, that.dataTypes)
+          && pageReaderType == that.pageReaderType;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(
+          tsFileID, Arrays.hashCode(chunkOffsets), pageStartTime, dataTypes, pageReaderType);
+    }
+
+    @Override
+    public String toString() {
+      return "DecodedPageCacheKey{"
+          + "regionId="
+          + tsFileID.regionId
+          + ", timePartitionId="
+          + tsFileID.timePartitionId
+          + ", tsFileVersion="
+          + tsFileID.fileVersion
+          + ", compactionVersion="
+          + tsFileID.compactionVersion
+          + ", chunkOffsets="
+          + Arrays.toString(chunkOffsets)
+          + ", pageStartTime="
+          + pageStartTime
+          + '}';
+    }
+  }
+
+  /** singleton pattern. */
+  private static class DecodedPageCacheHolder {
+
+    private static final DecodedPageCache INSTANCE = new DecodedPageCache();
+  }
+}
@@ -128,6 +128,7 @@ import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSourceForRegio
 import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
 import org.apache.iotdb.db.storageengine.dataregion.read.filescan.IFileScanHandle;
 import org.apache.iotdb.db.storageengine.dataregion.read.filescan.impl.ClosedFileScanHandleImpl;
+import org.apache.iotdb.db.storageengine.dataregion.rollup.RollupViewManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
@@ -205,6 +206,7 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -225,6 +227,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -349,7 +352,11 @@ public class DataRegion implements IDataRegionForQuery {
   /** whether it's ready from recovery. */
   private boolean isReady = false;
 
-  private List<Callable<Void>> asyncTsFileResourceRecoverTaskList;
+  /**
+   * data dir -> tasks to load the sealed TsFileResources under it after the region is ready, so
+   * that the tasks of different disks can run in parallel.
+   */
+  private Map<String, List<Callable<Void>>> asyncTsFileResourceRecoverTasks;
 
   /** close file listeners. */
   private List<CloseFileListener> customCloseFileListeners = Collections.emptyList();
@@ -445,7 +452,7 @@ public class DataRegion implements IDataRegionForQuery {
         }
       }
     } else {
-      asyncTsFileResourceRecoverTaskList = new ArrayList<>();
+      asyncTsFileResourceRecoverTasks = new LinkedHashMap<>();
       recover();
     }
 
@@ -505,12 +512,12 @@ public class DataRegion implements IDataRegionForQuery {
     return isReady;
   }
 
-  public List<Callable<Void>> getAsyncTsFileResourceRecoverTaskList() {
-    return asyncTsFileResourceRecoverTaskList;
+  public Map<String, List<Callable<Void>>> getAsyncTsFileResourceRecoverTasks() {
+    return asyncTsFileResourceRecoverTasks;
   }
 
-  public void clearAsyncTsFileResourceRecoverTaskList() {
-    asyncTsFileResourceRecoverTaskList.clear();
+  public void clearAsyncTsFileResourceRecoverTasks() {
+    asyncTsFileResourceRecoverTasks.clear();
   }
 
   /** this class is used to store recovering context. */
@@ -673,29 +680,31 @@ public class DataRegion implements IDataRegionForQuery {
           }
         }
         for (Entry<Long, List<TsFileResource>> partitionFiles : partitionTmpSeqTsFiles.entrySet()) {
-          Callable<Void> asyncRecoverTask =
-              recoverFilesInPartition(
+          recoverFilesInPartition(
                   partitionFiles.getKey(),
                   dataRegionRecoveryContext,
                   partitionFiles.getValue(),
                   fileTimeIndexMap,
-                  true);
-          if (asyncRecoverTask != null) {
-            asyncTsFileResourceRecoverTaskList.add(asyncRecoverTask);
-          }
+                  true)
+              .forEach(
+                  (dataDir, asyncRecoverTask) ->
+                      asyncTsFileResourceRecoverTasks
+                          .computeIfAbsent(dataDir, k -> new ArrayList<>())
+                          .add(asyncRecoverTask));
         }
         for (Entry<Long, List<TsFileResource>> partitionFiles :
             partitionTmpUnseqTsFiles.entrySet()) {
-          Callable<Void> asyncRecoverTask =
-              recoverFilesInPartition(
+          recoverFilesInPartition(
                   partitionFiles.getKey(),
                   dataRegionRecoveryContext,
                   partitionFiles.getValue(),
                   fileTimeIndexMap,
-                  false);
-          if (asyncRecoverTask != null) {
-            asyncTsFileResourceRecoverTaskList.add(asyncRecoverTask);
-          }
+                  false)
+              .forEach(
+                  (dataDir, asyncRecoverTask) ->
+                      asyncTsFileResourceRecoverTasks
+                          .computeIfAbsent(dataDir, k -> new ArrayList<>())
+                          .add(asyncRecoverTask));
         }
         if (config.isEnableSeparateData()) {
           TimePartitionManager.getInstance()
@@ -744,7 +753,7 @@ public class DataRegion implements IDataRegionForQuery {
       throw new DataRegionException(e);
     }
 
-    if (asyncTsFileResourceRecoverTaskList.isEmpty()) {
+    if (asyncTsFileResourceRecoverTasks.isEmpty()) {
       initCompactionSchedule();
     }
 
@@ -1013,7 +1022,7 @@ public class DataRegion implements IDataRegionForQuery {
     }
   }
 
-  private Callable<Void> recoverFilesInPartition(
+  private Map<String, Callable<Void>> recoverFilesInPartition(
       long partitionId,
       DataRegionRecoveryContext context,
       List<TsFileResource> resourceList,
@@ -1021,7 +1030,7 @@ public class DataRegion implements IDataRegionForQuery {
       boolean isSeq) {
     List<TsFileResource> resourceListForAsyncRecover = new ArrayList<>();
     List<TsFileResource> resourceListForSyncRecover = new ArrayList<>();
-    Callable<Void> asyncRecoverTask = null;
+    Map<String, Callable<Void>> asyncRecoverTasks = Collections.emptyMap();
     for (TsFileResource tsFileResource : resourceList) {
       tsFileManager.add(tsFileResource, isSeq);
       if (fileTimeIndexMap.containsKey(tsFileResource.getTsFileID())
@@ -1034,16 +1043,20 @@ public class DataRegion implements IDataRegionForQuery {
       }
     }
     if (!resourceListForAsyncRecover.isEmpty()) {
-      asyncRecoverTask =
+      asyncRecoverTasks =
           asyncRecoverFilesInPartition(partitionId, context, resourceListForAsyncRecover);
     }
     if (!resourceListForSyncRecover.isEmpty()) {
       syncRecoverFilesInPartition(partitionId, context, resourceListForSyncRecover);
     }
-    return asyncRecoverTask;
+    return asyncRecoverTasks;
   }
 
-  private Callable<Void> asyncRecoverFilesInPartition(
+  /**
+   * Split the sealed TsFiles of a partition by the data dir they are in, and return a task for each
+   * data dir. The last finished task updates the last flush time of the partition.
+   */
+  private Map<String, Callable<Void>> asyncRecoverFilesInPartition(
       long partitionId, DataRegionRecoveryContext context, List<TsFileResource> resourceList) {
     if (config.isEnableSeparateData()) {
       if (!lastFlushTimeMap.checkAndCreateFlushedTimePartition(partitionId, false)) {
@@ -1073,27 +1086,72 @@ public class DataRegion implements IDataRegionForQuery {
         tsFileResource.setSharedModFilePathFuture(new CompletableFuture<>());
       }
     }
-    return () -> {
-      for (TsFileResource tsFileResource : resourceList) {
-        try (SealedTsFileRecoverPerformer recoverPerformer =
-            new SealedTsFileRecoverPerformer(tsFileResource)) {
-          recoverPerformer.recover();
-          tsFileResourceManager.registerSealedTsFileResource(tsFileResource);
-        } catch (Throwable e) {
-          logger.error(
-              "Fail to recover sealed TsFile {}, skip it.", tsFileResource.getTsFilePath(), e);
-        } finally {
-          // update recovery context
-          context.incrementRecoveredFilesNum();
-        }
-      }
-      // After recover, replace partition last flush time with device last flush time
-      if (config.isEnableSeparateData()) {
-        upgradeAndUpdateDeviceLastFlushTime(partitionId, resourceList);
-      }
+    return createDataDirRecoverTasks(
+        resourceList,
+        tsFileResource -> {
+          try (SealedTsFileRecoverPerformer recoverPerformer =
+              new SealedTsFileRecoverPerformer(tsFileResource)) {
+            recoverPerformer.recover();
+            tsFileResourceManager.registerSealedTsFileResource(tsFileResource);
+          } catch (Throwable e) {
+            logger.error(
+                "Fail to recover sealed TsFile {}, skip it.", tsFileResource.getTsFilePath(), e);
+          } finally {
+            // update recovery context
+            context.incrementRecoveredFilesNum();
+          }
+        },
+        () -> {
+          // After recover, replace partition last flush time with device last flush time.
+          // Tasks of different partitions may finish at the same time, so serialize the update
+          if (config.isEnableSeparateData()) {
+            synchronized (asyncTsFileResourceRecoverTasks) {
+              upgradeAndUpdateDeviceLastFlushTime(partitionId, resourceList);
+            }
+          }
+        });
+  }
 
-      return null;
-    };
+  /**
+   * Group the TsFiles by the data dir they are in and create a task for each data dir to recover
+   * them. The last finished task runs afterAllRecovered exactly once, even if some tasks fail.
+   */
+  static Map<String, Callable<Void>> createDataDirRecoverTasks(
+      List<TsFileResource> resourceList,
+      Consumer<TsFileResource> recoverer,
+      Runnable afterAllRecovered) {
+    Map<String, List<TsFileResource>> dataDir2Resources = new LinkedHashMap<>();
+    for (TsFileResource tsFileResource : resourceList) {
+      dataDir2Resources
+          .computeIfAbsent(getDataDirOfTsFile(tsFileResource), k -> new ArrayList<>())
+          .add(tsFileResource);
+    }
+    AtomicInteger remainingTaskNum = new AtomicInteger(dataDir2Resources.size());
+    Map<String, Callable<Void>> recoverTasks = new LinkedHashMap<>();
+    for (Entry<String, List<TsFileResource>> entry : dataDir2Resources.entrySet()) {
+      recoverTasks.put(
+          entry.getKey(),
+          () -> {
+            try {
+              entry.getValue().forEach(recoverer);
+            } finally {
+              if (remainingTaskNum.decrementAndGet() == 0) {
+                afterAllRecovered.run();
+              }
+            }
+            return null;
+          });
+    }
+    return recoverTasks;
+  }
+
+  /** {dataDir}/{sequence or unsequence}/{database}/{dataRegionId}/{timePartition}/{tsFile} */
+  private static String getDataDirOfTsFile(TsFileResource tsFileResource) {
+    File dataDir = tsFileResource.getTsFile();
+    for (int i = 0; i < 5 && dataDir.getParentFile() != null; i++) {
+      dataDir = dataDir.getParentFile();
+    }
+    return dataDir.getPath();
   }
 
   private void syncRecoverFilesInPartition(
@@ -2837,6 +2895,7 @@ public class DataRegion implements IDataRegionForQuery {
       hasReleasedLock = true;
 
       deleteDataInSealedFiles(sealedTsFileResource, deletion);
+      markRollupViewsDeleted(deletion);
     } catch (Exception e) {
       throw new IOException(e);
     } finally {
@@ -2943,6 +3002,7 @@ public class DataRegion implements IDataRegionForQuery {
       for (int i = 0; i < modEntries.size(); i++) {
         deleteDataInSealedFiles(sealedTsFileResourceLists.get(i), modEntries.get(i));
       }
+      modEntries.forEach(this::markRollupViewsDeleted);
     } catch (Exception e) {
       throw new IOException(e);
     } finally {
@@ -2996,6 +3056,7 @@ public class DataRegion implements IDataRegionForQuery {
       writeUnlock();
       releasedLock = true;
       deleteDataDirectlyInFile(sealedTsFileResource, deletion);
+      markRollupViewsDeleted(deletion);
     } catch (Exception e) {
       throw new IOException(e);
     } finally {
@@ -3005,6 +3066,15 @@ public class DataRegion implements IDataRegionForQuery {
     }
   }
 
+  /**
+   * Mark the deleted range dirty in the rollup views. It is marked after the deletion is written to
+   * the sealed files, so that a compaction or recomputation which began before that never clears
+   * it.
+   */
+  private void markRollupViewsDeleted(ModEntry deletion) {
+    RollupViewManager.getInstance().markDeleted(databaseName, dataRegionIdString, deletion);
+  }
+
   private List<WALFlushListener> logDeletionInWAL(RelationalDeleteDataNode deleteDataNode) {
     if (config.getWalMode() == WALMode.DISABLE) {
       return Collections.emptyList();
@@ -3952,6 +4022,8 @@ public class DataRegion implements IDataRegionForQuery {
           newFilePartitionId,
           deleteOriginFile,
           isGeneratedByPipe);
+      RollupViewManager.getInstance()
+          .markLoaded(databaseName, dataRegionIdString, newTsFileResource);
 
       FileMetrics.getInstance()
           .addTsFile(
@@ -4706,6 +4778,9 @@ public class DataRegion implements IDataRegionForQuery {
             Tag.TYPE.toString(),
             Metric.MEMTABLE_POINT_COUNT.toString());
     if (!insertNode.isGeneratedByRemoteConsensusLeader()) {
+      if (config.isEnableSeriesSlotWriteStatistics()) {
+        SeriesSlotWriteStatistics.getInstance().record(dataRegionId.getId(), insertNode);
+      }
       MetricService.getInstance()
           .count(
               infoForMetrics[4],
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion;
+
+import org.apache.iotdb.commons.partition.executor.SeriesPartitionExecutor;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertMultiTabletsNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowsNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowsOfOneDeviceNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertTabletNode;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the points written into each SeriesPartitionSlot of the DataRegions led by this DataNode.
+ * The counts are reported to the ConfigNode by heartbeat, which detects the hot
+ * SeriesPartitionSlots and splits their new DataPartitions across more DataRegionGroups.
+ */
+public class SeriesSlotWriteStatistics {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  // Only the hottest SeriesSlots of each DataRegion are reported to bound the heartbeat size
+  private static final int REPORTED_SERIES_SLOT_NUM_PER_REGION = 16;
+
+  private final SeriesPartitionExecutor partitionExecutor =
+      SeriesPartitionExecutor.getSeriesPartitionExecutor(
+          CONFIG.getSeriesPartitionExecutorClass(), CONFIG.getSeriesPartitionSlotNum());
+
+  // Map<DataRegionId, Map<SeriesSlotId, points written since the last sampling>>
+  private final Map<Integer, Map<Integer, LongAdder>> writePointsMap = new ConcurrentHashMap<>();
+
+  /** Record the points of an InsertNode written into the specified DataRegion. */
+  public void record(final int dataRegionId, final InsertNode insertNode) {
+    final Map<Integer, LongAdder> slotPointsMap =
+        writePointsMap.computeIfAbsent(dataRegionId, id -> new ConcurrentHashMap<>());
+    if (insertNode instanceof InsertRowsNode) {
+      for (final InsertRowNode row : ((InsertRowsNode) insertNode).getInsertRowNodeList()) {
+        record(slotPointsMap, row.getDeviceID(), row.getMeasurements().length);
+      }
+    } else if (insertNode instanceof InsertRowsOfOneDeviceNode) {
+      for (final InsertRowNode row :
+          ((InsertRowsOfOneDeviceNode) insertNode).getInsertRowNodeList()) {
+        record(slotPointsMap, row.getDeviceID(), row.getMeasurements().length);
+      }
+    } else if (insertNode instanceof InsertMultiTabletsNode) {
+      for (final InsertTabletNode tablet :
+          ((InsertMultiTabletsNode) insertNode).getInsertTabletNodeList()) {
+        recordTablet(slotPointsMap, tablet);
+      }
+    } else if (insertNode instanceof InsertTabletNode) {
+      recordTablet(slotPointsMap, (InsertTabletNode) insertNode);
+    } else if (insertNode instanceof InsertRowNode) {
+      record(slotPointsMap, insertNode.getDeviceID(), insertNode.getMeasurements().length);
+    }
+  }
+
+  private void recordTablet(
+      final Map<Integer, LongAdder> slotPointsMap, final InsertTabletNode tablet) {
+    final int measurementNum = tablet.getMeasurements().length;
+    // The rows of a table are usually grouped by device, so the slot is calculated once per run
+    IDeviceID lastDeviceID = null;
+    long rowNum = 0;
+    for (int i = 0; i < tablet.getRowCount(); i++) {
+      final IDeviceID deviceID = tablet.getDeviceID(i);
+      if (lastDeviceID != null && !deviceID.equals(lastDeviceID)) {
+        record(slotPointsMap, lastDeviceID, rowNum * measurementNum);
+        rowNum = 0;
+      }
+      lastDeviceID = deviceID;
+      rowNum++;
+    }
+    if (lastDeviceID != null) {
+      record(slotPointsMap, lastDeviceID, rowNum * measurementNum);
+    }
+  }
+
+  private void record(
+      final Map<Integer, LongAdder> slotPointsMap, final IDeviceID deviceID, final long points) {
+    if (deviceID == null || points <= 0) {
+      return;
+    }
+    // The count is added in compute, so that it is not added to a counter being removed by
+    // sampleAndReset
+    slotPointsMap.compute(
+        partitionExecutor.getSeriesPartitionSlot(deviceID).getSlotId(),
+        (id, slotPoints) -> {
+          if (slotPoints == null) {
+            slotPoints = new LongAdder();
+          }
+          slotPoints.add(points);
+          return slotPoints;
+        });
+  }
+
+  /**
+   * Get the hottest SeriesSlots of each DataRegion and reset the counts.
+   *
+   * @return Map<DataRegionId, Map<SeriesSlotId, points written since the last sampling>>
+   */
+  public Map<Integer, Map<Integer, Long>> sampleAndReset() {
+    final Map<Integer, Map<Integer, Long>> result = new HashMap<>();
+    writePointsMap.forEach(
+        (dataRegionId, slotPointsMap) -> {
+          final Map<Integer, Long> sample = new HashMap<>();
+          for (final Integer slotId : slotPointsMap.keySet()) {
+            slotPointsMap.computeIfPresent(
+                slotId,
+                (id, slotPoints) -> {
+                  final long points = slotPoints.sumThenReset();
+                  if (points == 0) {
+                    // The idle SeriesSlots are removed to keep the map small
+                    return null;
+                  }
+                  sample.put(id, points);
+                  return slotPoints;
+                });
+          }
+          if (sample.isEmpty()) {
+            return;
+          }
+          final Map<Integer, Long> hottest = new HashMap<>();
+          sample.entrySet().stream()
+              .sorted(Map.Entry.<Integer, Long>comparingByValue().reversed())
+              .limit(REPORTED_SERIES_SLOT_NUM_PER_REGION)
+              .forEach(entry -> hottest.put(entry.getKey(), entry.getValue()));
+          result.put(dataRegionId, hottest);
+        });
+    return result;
+  }
+
+  public void removeDataRegion(final int dataRegionId) {
+    writePointsMap.remove(dataRegionId);
+  }
+
+  /////////////////////////////// Singleton ///////////////////////////////
+
+  private SeriesSlotWriteStatistics() {
+    // Use getInstance() instead
+  }
+
+  public static SeriesSlotWriteStatistics getInstance() {
+    return SeriesSlotWriteStatisticsHolder.INSTANCE;
+  }
+
+  private static class SeriesSlotWriteStatisticsHolder {
+
+    private static final SeriesSlotWriteStatistics INSTANCE = new SeriesSlotWriteStatistics();
+
+    private SeriesSlotWriteStatisticsHolder() {
+      // Empty constructor
+    }
+  }
+}
@@ -43,6 +43,8 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.estimato
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.estimator.RepairUnsortedFileCompactionEstimator;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
 import org.apache.iotdb.db.storageengine.dataregion.read.control.QueryResourceManager;
+import org.apache.iotdb.db.storageengine.dataregion.rollup.RollupRecomputeCollector;
+import org.apache.iotdb.db.storageengine.dataregion.rollup.RollupViewManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.utils.EncryptDBUtils;
 
@@ -89,6 +91,8 @@ public class ReadPointCompactionPerformer
 
   private EncryptParameter encryptParameter;
 
+  private RollupRecomputeCollector rollupCollector;
+
   @TestOnly
   public ReadPointCompactionPerformer(
       List<TsFileResource> seqFiles,
@@ -148,6 +152,8 @@ public class ReadPointCompactionPerformer
         .getQueryFileManager()
         .addUsedFilesForQuery(queryId, queryDataSource);
     summary.setTemporalFileNum(targetFiles.size());
+    rollupCollector =
+        RollupViewManager.getInstance().createRecomputeCollector(seqFiles, unseqFiles);
     try (AbstractCompactionWriter compactionWriter =
         getCompactionWriter(seqFiles, unseqFiles, targetFiles)) {
       // Do not close device iterator, because tsfile reader is managed by FileReaderManager.
@@ -179,6 +185,9 @@ public class ReadPointCompactionPerformer
 
       compactionWriter.endFile();
       CompactionUtils.updatePlanIndexes(targetFiles, seqFiles, unseqFiles);
+      if (rollupCollector != null) {
+        rollupCollector.commit();
+      }
 
     } finally {
       QueryResourceManager.getInstance().endQuery(queryId);
@@ -243,7 +252,8 @@ public class ReadPointCompactionPerformer
               measurementSchemas,
               EncryptUtils.getEncryptParameter(getEncryptParameter())),
           0);
-      writeWithReader(compactionWriter, dataBlockReader, device, 0, true);
+      writeWithReader(
+          compactionWriter, dataBlockReader, device, 0, true, measurementSchemas, rollupCollector);
       compactionWriter.endMeasurement(0);
       compactionWriter.endChunkGroup();
       // check whether to flush chunk metadata or not
@@ -287,7 +297,8 @@ public class ReadPointCompactionPerformer
                         new QueryDataSource(queryDataSource),
                         compactionWriter,
                         schemaMap,
-                        i)));
+                        i,
+                        rollupCollector)));
       }
       for (Future<Void> future : futures) {
         future.get();
@@ -323,16 +334,26 @@ public class ReadPointCompactionPerformer
         seriesPath, new HashSet<>(allSensors), fragmentInstanceContext, queryDataSource, true);
   }
 
+  /**
+   * @param measurementSchemas the schemas of the value columns in the blocks read, only used to
+   *     feed the rollup collector
+   * @param rollupCollector the collector to recompute the rollup views, or null if there is none
+   */
   @SuppressWarnings("squid:S1172")
   public static void writeWithReader(
       AbstractCompactionWriter writer,
       IDataBlockReader reader,
       IDeviceID device,
       int subTaskId,
-      boolean isAligned)
+      boolean isAligned,
+      List<IMeasurementSchema> measurementSchemas,
+      RollupRecomputeCollector rollupCollector)
       throws IOException {
     while (reader.hasNextBatch()) {
       TsBlock tsBlock = reader.nextBatch();
+      if (rollupCollector != null) {
+        rollupCollector.collect(device, measurementSchemas, tsBlock);
+      }
       if (isAligned) {
         writer.write(tsBlock, subTaskId);
       } else {
@@ -25,6 +25,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.reader.IDataBlockReader;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.writer.AbstractCompactionWriter;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.storageengine.dataregion.rollup.RollupRecomputeCollector;
 
 import org.apache.tsfile.encrypt.EncryptUtils;
 import org.apache.tsfile.file.metadata.IDeviceID;
@@ -57,6 +58,7 @@ public class ReadPointPerformerSubTask implements Callable<Void> {
   private final AbstractCompactionWriter compactionWriter;
   private final Map<String, MeasurementSchema> schemaMap;
   private final int taskId;
+  private final RollupRecomputeCollector rollupCollector;
 
   public ReadPointPerformerSubTask(
       IDeviceID device,
@@ -65,7 +67,8 @@ public class ReadPointPerformerSubTask implements Callable<Void> {
       QueryDataSource queryDataSource,
       AbstractCompactionWriter compactionWriter,
       Map<String, MeasurementSchema> schemaMap,
-      int taskId) {
+      int taskId,
+      RollupRecomputeCollector rollupCollector) {
     this.device = device;
     this.measurementList = measurementList;
     this.fragmentInstanceContext = fragmentInstanceContext;
@@ -73,6 +76,7 @@ public class ReadPointPerformerSubTask implements Callable<Void> {
     this.compactionWriter = compactionWriter;
     this.schemaMap = schemaMap;
     this.taskId = taskId;
+    this.rollupCollector = rollupCollector;
   }
 
   @Override
@@ -99,7 +103,13 @@ public class ReadPointPerformerSubTask implements Callable<Void> {
                 EncryptUtils.getEncryptParameter(compactionWriter.getEncryptParameter())),
             taskId);
         ReadPointCompactionPerformer.writeWithReader(
-            compactionWriter, dataBlockReader, device, taskId, false);
+            compactionWriter,
+            dataBlockReader,
+            device,
+            taskId,
+            false,
+            measurementSchemas,
+            rollupCollector);
         compactionWriter.endMeasurement(taskId);
       }
     }
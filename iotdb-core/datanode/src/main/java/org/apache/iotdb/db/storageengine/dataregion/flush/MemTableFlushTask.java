@@ -31,6 +31,7 @@ import org.apache.iotdb.db.storageengine.dataregion.memtable.AlignedWritableMemC
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IMemTable;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IWritableMemChunk;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IWritableMemChunkGroup;
+import org.apache.iotdb.db.storageengine.dataregion.rollup.RollupFlushCollector;
 import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.db.utils.datastructure.BatchEncodeInfo;
 import org.apache.iotdb.metrics.utils.MetricLevel;
@@ -91,6 +92,9 @@ public class MemTableFlushTask {
   private final BatchEncodeInfo encodeInfo;
   private long[] times;
 
+  // collects the flushed series for the rollup views, null if there is no rollup view to maintain
+  private RollupFlushCollector rollupCollector;
+
   /**
    * @param memTable the memTable to flush
    * @param writer the writer where memTable will be flushed to (current tsfile writer or vm writer)
@@ -124,6 +128,10 @@ public class MemTableFlushTask {
         writer.getFile().getName());
   }
 
+  public void setRollupCollector(RollupFlushCollector rollupCollector) {
+    this.rollupCollector = rollupCollector;
+  }
+
   /** the function for flushing memtable. */
   @SuppressWarnings("squid:S3776")
   public void syncFlushMemTable() throws ExecutionException, InterruptedException {
@@ -178,6 +186,10 @@ public class MemTableFlushTask {
         long subTaskTime = System.currentTimeMillis() - startTime;
         sortTime += subTaskTime;
         WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.SORT_TASK, subTaskTime);
+        if (rollupCollector != null) {
+          // the sorted lists must not be read after they are handed over to the encoding task
+          rollupCollector.collect(deviceID, series);
+        }
         encodingTaskQueue.put(series);
       }
 
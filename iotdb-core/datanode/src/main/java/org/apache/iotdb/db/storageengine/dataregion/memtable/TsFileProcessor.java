@@ -63,6 +63,8 @@ import org.apache.iotdb.db.storageengine.dataregion.read.filescan.IFileScanHandl
 import org.apache.iotdb.db.storageengine.dataregion.read.filescan.impl.DiskAlignedChunkHandleImpl;
 import org.apache.iotdb.db.storageengine.dataregion.read.filescan.impl.DiskChunkHandleImpl;
 import org.apache.iotdb.db.storageengine.dataregion.read.filescan.impl.UnclosedFileScanHandleImpl;
+import org.apache.iotdb.db.storageengine.dataregion.rollup.RollupFlushCollector;
+import org.apache.iotdb.db.storageengine.dataregion.rollup.RollupViewManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.FileTimeIndexCacheRecorder;
 import org.apache.iotdb.db.storageengine.dataregion.utils.SharedTimeDataBuffer;
@@ -106,6 +108,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
@@ -146,6 +149,9 @@ public class TsFileProcessor {
   /** Modification to memtable mapping. */
   private final List<Pair<ModEntry, IMemTable>> modsToMemtable = new ArrayList<>();
 
+  /** flushing sequence memtable -> its ticket to apply the flush to the rollup views in order */
+  private final Map<IMemTable, Long> rollupFlushTickets = new ConcurrentHashMap<>();
+
   /** Writer for restore tsfile and flushing. */
   private RestorableTsFileIOWriter writer;
 
@@ -1428,6 +1434,16 @@ public class TsFileProcessor {
     updateLatestFlushTimeCallback.call(this, lastTimeForEachDevice, lastWorkMemtableFlushTime);
 
     SystemInfo.getInstance().addFlushingMemTableCost(tobeFlushed.getTVListsRamCost());
+    if (sequence) {
+      Long rollupFlushTicket =
+          RollupViewManager.getInstance()
+              .acquireFlushTicket(
+                  dataRegionInfo.getDataRegion().getDatabaseName(),
+                  dataRegionInfo.getDataRegion().getDataRegionIdString());
+      if (rollupFlushTicket != null) {
+        rollupFlushTickets.put(tobeFlushed, rollupFlushTicket);
+      }
+    }
     flushingMemTables.addLast(tobeFlushed);
     if (logger.isDebugEnabled()) {
       logger.debug(
@@ -1503,6 +1519,8 @@ public class TsFileProcessor {
 
   /** This method will synchronize the memTable and release its flushing resources */
   private void syncReleaseFlushedMemTable(IMemTable memTable) {
+    // the memtable has not been applied to the rollup views if its flush failed
+    completeRollupFlush(memTable, null);
     synchronized (flushingMemTables) {
       releaseFlushedMemTable(memTable);
       flushingMemTables.notifyAll();
@@ -1541,7 +1559,16 @@ public class TsFileProcessor {
                   writer,
                   dataRegionName,
                   dataRegionInfo.getDataRegion().getDataRegionIdString());
+          RollupFlushCollector rollupCollector =
+              RollupViewManager.getInstance()
+                  .createFlushCollector(
+                      dataRegionInfo.getDataRegion().getDatabaseName(),
+                      dataRegionInfo.getDataRegion().getDataRegionIdString(),
+                      tsFileResource.getTsFile().getName(),
+                      sequence);
+          flushTask.setRollupCollector(rollupCollector);
           flushTask.syncFlushMemTable();
+          completeRollupFlush(memTableToFlush, rollupCollector);
           memTableFlushPointCount = memTableToFlush.getTotalPointsNum();
         } catch (Throwable e) {
           if (writer == null) {
@@ -1713,6 +1740,25 @@ public class TsFileProcessor {
     }
   }
 
+  /**
+   * Apply a flushed memtable to the rollup views, the sequence ones are applied in the order they
+   * were queued for flushing. Completing a memtable more than once takes no effect.
+   *
+   * @param rollupCollector the collector fed by the flush, or null if the flush failed
+   */
+  private void completeRollupFlush(IMemTable memTable, RollupFlushCollector rollupCollector) {
+    Long rollupFlushTicket = rollupFlushTickets.remove(memTable);
+    if (rollupFlushTicket != null) {
+      RollupViewManager.getInstance()
+          .completeFlush(
+              dataRegionInfo.getDataRegion().getDataRegionIdString(),
+              rollupFlushTicket,
+              rollupCollector);
+    } else if (rollupCollector != null) {
+      rollupCollector.commit();
+    }
+  }
+
   private void updateCompressionRatio() {
     try {
       double compressionRatio = ((double) totalMemTableSize) / writer.getPos();
@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.rollup;
+
+import org.apache.iotdb.db.storageengine.dataregion.memtable.AlignedWritableMemChunk;
+import org.apache.iotdb.db.storageengine.dataregion.memtable.IWritableMemChunk;
+import org.apache.iotdb.db.utils.datastructure.AlignedTVList;
+import org.apache.iotdb.db.utils.datastructure.MemPointIterator;
+import org.apache.iotdb.db.utils.datastructure.MemPointIteratorFactory;
+import org.apache.iotdb.db.utils.datastructure.TVList;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects the series of a flushing memtable for the rollup views. The collected statistics are
+ * applied to the views only after the memtable has been flushed successfully, and in the order the
+ * sequence memtables of the data region were queued for flushing, see {@link
+ * RollupViewManager#completeFlush}.
+ */
+public class RollupFlushCollector {
+
+  private final List<RollupView> views;
+  private final String tsFileName;
+  private final boolean sequence;
+  private final int maxNumberOfPointsInPage =
+      TSFileDescriptor.getInstance().getConfig().getMaxNumberOfPointsInPage();
+
+  private final List<CollectedSeries> collectedSeriesList = new ArrayList<>();
+
+  RollupFlushCollector(List<RollupView> views, String tsFileName, boolean sequence) {
+    this.views = views;
+    this.tsFileName = tsFileName;
+    this.sequence = sequence;
+  }
+
+  /** Collect one sorted memchunk, must be called before it is handed over to the encoding task. */
+  public void collect(IDeviceID deviceID, IWritableMemChunk memChunk) {
+    for (RollupView view : views) {
+      String measurement = view.getDefinition().getMeasurement();
+      if (memChunk instanceof AlignedWritableMemChunk) {
+        collectAligned(view, deviceID, (AlignedWritableMemChunk) memChunk, measurement);
+      } else if (memChunk.getSchema().getMeasurementName().equals(measurement)) {
+        collectNonAligned(view, deviceID, memChunk);
+      }
+    }
+  }
+
+  /** Apply the collected data to the rollup views after the memtable is flushed. */
+  public void commit() {
+    long version = RollupViewManager.getInstance().nextDirtyVersion();
+    for (CollectedSeries collectedSeries : collectedSeriesList) {
+      RollupSeries series = collectedSeries.view.getOrCreateSeries(collectedSeries.deviceID);
+      series.updateSchema(collectedSeries.measurementSchema, collectedSeries.aligned);
+      if (collectedSeries.unsupported) {
+        // the views cannot aggregate the data type of the measurement
+        series.markDirty(
+            collectedSeries.minTime,
+            collectedSeries.maxTime,
+            RollupViewManager.ALTERED_SOURCE,
+            version);
+      } else if (sequence) {
+        series.mergeSequence(
+            collectedSeries.bucketStatistics, collectedSeries.minTime, collectedSeries.maxTime);
+      } else {
+        series.markDirty(collectedSeries.minTime, collectedSeries.maxTime, tsFileName, version);
+      }
+    }
+  }
+
+  private void collectNonAligned(RollupView view, IDeviceID deviceID, IWritableMemChunk memChunk) {
+    if (memChunk.isEmpty()) {
+      return;
+    }
+    CollectedSeries collectedSeries =
+        new CollectedSeries(
+            view,
+            deviceID,
+            memChunk.getSchema(),
+            false,
+            memChunk.getFirstPoint(),
+            memChunk.getLastPoint());
+    collectedSeriesList.add(collectedSeries);
+    if (!sequence) {
+      return;
+    }
+    TSDataType dataType = memChunk.getSchema().getType();
+    if (!isSupported(dataType)) {
+      collectedSeries.markUnsupported();
+      return;
+    }
+    List<TVList> tvLists = new ArrayList<>(memChunk.getSortedList());
+    tvLists.add(memChunk.getWorkingTVList());
+    MemPointIterator iterator =
+        MemPointIteratorFactory.create(dataType, tvLists, maxNumberOfPointsInPage);
+    while (iterator.hasNextBatch()) {
+      TsBlock tsBlock = iterator.nextBatch();
+      collectedSeries.update(tsBlock.getTimeColumn(), tsBlock.getColumn(0), dataType);
+    }
+  }
+
+  private void collectAligned(
+      RollupView view, IDeviceID deviceID, AlignedWritableMemChunk memChunk, String measurement) {
+    IMeasurementSchema measurementSchema = null;
+    for (IMeasurementSchema schema : memChunk.getSchemaList()) {
+      if (schema.getMeasurementName().equals(measurement)) {
+        measurementSchema = schema;
+        break;
+      }
+    }
+    if (measurementSchema == null || memChunk.isEmpty()) {
+      return;
+    }
+    CollectedSeries collectedSeries =
+        new CollectedSeries(
+            view,
+            deviceID,
+            measurementSchema,
+            true,
+            memChunk.getFirstPoint(),
+            memChunk.getLastPoint());
+    collectedSeriesList.add(collectedSeries);
+    if (!sequence) {
+      return;
+    }
+    TSDataType dataType = measurementSchema.getType();
+    if (!isSupported(dataType)) {
+      collectedSeries.markUnsupported();
+      return;
+    }
+    List<IMeasurementSchema> schemaList = Collections.singletonList(measurementSchema);
+    List<AlignedTVList> tvLists = new ArrayList<>(memChunk.getSortedList());
+    tvLists.add((AlignedTVList) memChunk.getWorkingTVList());
+    MemPointIterator iterator =
+        MemPointIteratorFactory.create(
+            Collections.singletonList(dataType),
+            memChunk.buildColumnIndexList(schemaList),
+            tvLists,
+            false,
+            maxNumberOfPointsInPage);
+    while (iterator.hasNextBatch()) {
+      TsBlock tsBlock = iterator.nextBatch();
+      collectedSeries.update(tsBlock.getTimeColumn(), tsBlock.getColumn(0), dataType);
+    }
+  }
+
+  /** Whether the data type is one of the measurement types, which all have tsfile statistics. */
+  static boolean isSupported(TSDataType dataType) {
+    return dataType != TSDataType.VECTOR && dataType != TSDataType.UNKNOWN;
+  }
+
+  /** Update the per bucket statistics with the non-null values of a column. */
+  static void updateBucketStatistics(
+      Map<Long, Statistics<? extends Serializable>> bucketStatistics,
+      long interval,
+      Column timeColumn,
+      Column valueColumn,
+      TSDataType dataType) {
+    Statistics<? extends Serializable> statistics = null;
+    long bucketEndTime = Long.MIN_VALUE;
+    for (int i = 0, size = timeColumn.getPositionCount(); i < size; i++) {
+      if (valueColumn.isNull(i)) {
+        continue;
+      }
+      long time = timeColumn.getLong(i);
+      if (statistics == null || time > bucketEndTime || time < bucketEndTime - interval + 1) {
+        long bucketStartTime = Math.floorDiv(time, interval) * interval;
+        bucketEndTime = bucketStartTime + interval - 1;
+        statistics =
+            bucketStatistics.computeIfAbsent(
+                bucketStartTime, k -> Statistics.getStatsByType(dataType));
+      }
+      switch (dataType) {
+        case BOOLEAN:
+          statistics.update(time, valueColumn.getBoolean(i));
+          break;
+        case INT32:
+        case DATE:
+          statistics.update(time, valueColumn.getInt(i));
+          break;
+        case INT64:
+        case TIMESTAMP:
+          statistics.update(time, valueColumn.getLong(i));
+          break;
+        case FLOAT:
+          statistics.update(time, valueColumn.getFloat(i));
+          break;
+        case DOUBLE:
+          statistics.update(time, valueColumn.getDouble(i));
+          break;
+        case TEXT:
+        case STRING:
+        case BLOB:
+          statistics.update(time, valueColumn.getBinary(i));
+          break;
+      }
+    }
+  }
+
+  private static class CollectedSeries {
+
+    private final RollupView view;
+    private final IDeviceID deviceID;
+    private final IMeasurementSchema measurementSchema;
+    private final boolean aligned;
+    private final long minTime;
+    private final long maxTime;
+    private final Map<Long, Statistics<? extends Serializable>> bucketStatistics = new TreeMap<>();
+    private boolean unsupported = false;
+
+    private CollectedSeries(
+        RollupView view,
+        IDeviceID deviceID,
+        IMeasurementSchema measurementSchema,
+        boolean aligned,
+        long minTime,
+        long maxTime) {
+      this.view = view;
+      this.deviceID = deviceID;
+      this.measurementSchema = measurementSchema;
+      this.aligned = aligned;
+      this.minTime = minTime;
+      this.maxTime = maxTime;
+    }
+
+    private void update(Column timeColumn, Column valueColumn, TSDataType dataType) {
+      updateBucketStatistics(
+          bucketStatistics, view.getDefinition().getInterval(), timeColumn, valueColumn, dataType);
+    }
+
+    private void markUnsupported() {
+      unsupported = true;
+    }
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.rollup;
+
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.common.TimeRange;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recomputes the rollup views with the data decoded by a read point compaction. The buckets fully
+ * inside the time range of a selected sequence file contain all the data of the source files in it,
+ * so they can be rebuilt once the target files are written.
+ */
+public class RollupRecomputeCollector {
+
+  private final List<RollupView> views;
+  private final List<TsFileResource> seqFiles;
+  private final List<TsFileResource> unseqFiles;
+  private final long startVersion;
+
+  // view index -> device -> bucket start time -> recomputed statistics
+  private final List<Map<IDeviceID, Map<Long, Statistics<? extends Serializable>>>> recomputed;
+
+  RollupRecomputeCollector(
+      List<RollupView> views,
+      List<TsFileResource> seqFiles,
+      List<TsFileResource> unseqFiles,
+      long startVersion) {
+    this.views = views;
+    this.seqFiles = seqFiles;
+    this.unseqFiles = unseqFiles;
+    this.startVersion = startVersion;
+    this.recomputed = new ArrayList<>(views.size());
+    for (int i = 0; i < views.size(); i++) {
+      recomputed.add(new ConcurrentHashMap<>());
+    }
+  }
+
+  /**
+   * Collect a block read by the compaction, the i-th value column of which is the data of the i-th
+   * measurement schema. It may be called by the sub tasks concurrently for different measurements.
+   */
+  public void collect(IDeviceID deviceID, List<IMeasurementSchema> schemas, TsBlock tsBlock) {
+    for (int viewIndex = 0; viewIndex < views.size(); viewIndex++) {
+      RollupViewDefinition definition = views.get(viewIndex).getDefinition();
+      for (int i = 0; i < schemas.size(); i++) {
+        IMeasurementSchema schema = schemas.get(i);
+        if (!schema.getMeasurementName().equals(definition.getMeasurement())
+            || !RollupFlushCollector.isSupported(schema.getType())) {
+          continue;
+        }
+        Map<Long, Statistics<? extends Serializable>> bucketStatistics =
+            recomputed.get(viewIndex).computeIfAbsent(deviceID, k -> new HashMap<>());
+        // a measurement of a device is read by only one thread
+        RollupFlushCollector.updateBucketStatistics(
+            bucketStatistics,
+            definition.getInterval(),
+            tsBlock.getTimeColumn(),
+            tsBlock.getColumn(i),
+            schema.getType());
+      }
+    }
+  }
+
+  /** Rebuild the rollup views after all the target files are written. */
+  public void commit() {
+    Map<IDeviceID, List<TimeRange>> coveredRanges = new HashMap<>();
+    for (TsFileResource seqFile : seqFiles) {
+      for (IDeviceID deviceID : seqFile.getDevices()) {
+        Optional<Long> startTime = seqFile.getStartTime(deviceID);
+        Optional<Long> endTime = seqFile.getEndTime(deviceID);
+        if (startTime.isPresent() && endTime.isPresent()) {
+          coveredRanges
+              .computeIfAbsent(deviceID, k -> new ArrayList<>())
+              .add(new TimeRange(startTime.get(), endTime.get()));
+        }
+      }
+    }
+    Set<String> consumedSources = new HashSet<>();
+    seqFiles.forEach(resource -> consumedSources.add(resource.getTsFile().getName()));
+    unseqFiles.forEach(resource -> consumedSources.add(resource.getTsFile().getName()));
+
+    for (int viewIndex = 0; viewIndex < views.size(); viewIndex++) {
+      RollupView view = views.get(viewIndex);
+      Map<IDeviceID, Map<Long, Statistics<? extends Serializable>>> viewRecomputed =
+          recomputed.get(viewIndex);
+      for (Map.Entry<IDeviceID, List<TimeRange>> entry : coveredRanges.entrySet()) {
+        // only the devices which have been observed by the view need to be rebuilt
+        RollupSeries series = view.getSeries(entry.getKey());
+        if (series != null) {
+          series.rebuild(
+              viewRecomputed.getOrDefault(entry.getKey(), new HashMap<>()),
+              entry.getValue(),
+              consumedSources,
+              startVersion);
+        }
+      }
+    }
+  }
+}
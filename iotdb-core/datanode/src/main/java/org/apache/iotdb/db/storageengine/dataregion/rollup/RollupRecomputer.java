@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.rollup;
+
+import org.apache.iotdb.commons.path.AlignedFullPath;
+import org.apache.iotdb.commons.path.IFullPath;
+import org.apache.iotdb.commons.path.NonAlignedFullPath;
+import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.queryengine.execution.fragment.FakedFragmentInstanceContext;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.impl.ReadPointCompactionPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.reader.IDataBlockReader;
+import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.common.TimeRange;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.filter.basic.Filter;
+import org.apache.tsfile.read.filter.factory.TimeFilterApi;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Recomputes the dirty buckets of the rollup views of one data region by reading the data back, so
+ * that the buckets invalidated by unsequence flushes, deletions, loaded files and compactions
+ * become readable again whichever compaction performer is configured.
+ */
+class RollupRecomputer {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RollupRecomputer.class);
+
+  private final DataRegion dataRegion;
+
+  RollupRecomputer(DataRegion dataRegion) {
+    this.dataRegion = dataRegion;
+  }
+
+  /**
+   * @return the number of series recomputed
+   */
+  int recompute(List<RollupView> views) {
+    int recomputedSeriesNum = 0;
+    for (RollupView view : views) {
+      for (Map.Entry<IDeviceID, RollupSeries> entry : view.getSeriesMap().entrySet()) {
+        if (entry.getValue().getDirtyRangeNum() == 0) {
+          continue;
+        }
+        try {
+          if (recompute(view.getDefinition().getInterval(), entry.getKey(), entry.getValue())) {
+            recomputedSeriesNum++;
+          }
+        } catch (Exception e) {
+          // the dirty buckets stay unreadable and will be retried next time
+          LOGGER.warn(
+              "Failed to recompute rollup view {} of device {} in data region {}",
+              view.getDefinition(),
+              entry.getKey(),
+              dataRegion.getDataRegionIdString(),
+              e);
+        }
+      }
+    }
+    return recomputedSeriesNum;
+  }
+
+  boolean recompute(long interval, IDeviceID deviceID, RollupSeries series)
+      throws QueryProcessException, IOException {
+    IMeasurementSchema measurementSchema = series.getMeasurementSchema();
+    if (measurementSchema == null
+        || !RollupFlushCollector.isSupported(measurementSchema.getType())) {
+      return false;
+    }
+    // the dirty ranges marked from now on may not be observed by the data read below
+    long startVersion = RollupViewManager.getInstance().currentDirtyVersion();
+    List<TimeRange> recomputableRanges = series.getRecomputableRanges();
+    if (recomputableRanges.isEmpty()) {
+      return false;
+    }
+
+    List<String> measurements = Collections.singletonList(measurementSchema.getMeasurementName());
+    List<IMeasurementSchema> measurementSchemas = Collections.singletonList(measurementSchema);
+    IFullPath seriesPath =
+        series.isAligned()
+            ? new AlignedFullPath(deviceID, measurements, measurementSchemas)
+            : new NonAlignedFullPath(deviceID, measurementSchema);
+    RecomputeContext context =
+        new RecomputeContext(
+            TimeFilterApi.between(
+                recomputableRanges.get(0).getMin(),
+                recomputableRanges.get(recomputableRanges.size() - 1).getMax()),
+            dataRegion);
+    Map<Long, Statistics<? extends Serializable>> bucketStatistics = new TreeMap<>();
+    Set<String> consumedSources = new HashSet<>();
+    try {
+      QueryDataSource queryDataSource = context.getSharedQueryDataSource(seriesPath);
+      if (queryDataSource == null) {
+        return false;
+      }
+      for (TsFileResource resource : queryDataSource.getSeqResources()) {
+        consumedSources.add(resource.getTsFile().getName());
+      }
+      for (TsFileResource resource : queryDataSource.getUnseqResources()) {
+        consumedSources.add(resource.getTsFile().getName());
+      }
+      IDataBlockReader reader =
+          ReadPointCompactionPerformer.constructReader(
+              deviceID,
+              measurements,
+              measurementSchemas,
+              measurements,
+              context,
+              queryDataSource,
+              series.isAligned());
+      while (reader.hasNextBatch()) {
+        TsBlock tsBlock = reader.nextBatch();
+        RollupFlushCollector.updateBucketStatistics(
+            bucketStatistics,
+            interval,
+            tsBlock.getTimeColumn(),
+            tsBlock.getColumn(0),
+            measurementSchema.getType());
+      }
+    } finally {
+      context.releaseSharedQueryDataSource();
+    }
+    series.rebuild(bucketStatistics, recomputableRanges, consumedSources, startVersion);
+    return true;
+  }
+
+  /** Unlike the faked context of the other internal reads, the deletions must be applied. */
+  private static class RecomputeContext extends FakedFragmentInstanceContext {
+
+    private RecomputeContext(Filter timeFilter, DataRegion dataRegion) {
+      super(timeFilter, dataRegion);
+    }
+
+    @Override
+    protected boolean checkIfModificationExists(TsFileResource tsFileResource) {
+      return tsFileResource.anyModFileExists();
+    }
+  }
+}
@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.rollup;
+
+import org.apache.iotdb.commons.utils.TimePartitionUtils;
+
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.common.TimeRange;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The interval buckets of one device in a {@link RollupView}.
+ *
+ * <p>A bucket can be read only when all of its data has been observed by the view: it must start
+ * after the first bucket flushed since the view was created in its time partition, end before the
+ * max time of the sequence data merged, and must not overlap with any dirty range left by
+ * unsequence flushes, deletions or loaded files.
+ */
+class RollupSeries {
+
+  private final long interval;
+  private final int maxBucketNum;
+
+  // bucket start time -> statistics of the data in [start, start + interval)
+  private final TreeMap<Long, Statistics<? extends Serializable>> buckets = new TreeMap<>();
+  // time ranges that have to be recomputed before the buckets overlapping them can be read
+  private final List<DirtyRange> dirtyRanges = new ArrayList<>();
+  // time partition id -> max time of the sequence data merged into this series, only moves forward
+  private final Map<Long, AtomicLong> partitionWatermarks = new ConcurrentHashMap<>();
+  // time partition id -> start time of the first bucket whose data has been fully observed
+  private final Map<Long, Long> partitionCoverageStarts = new HashMap<>();
+  // buckets before this time have been evicted
+  private long evictedBefore = Long.MIN_VALUE;
+
+  // the schema of the measurement last flushed, used to read the data back for recomputation
+  private volatile IMeasurementSchema measurementSchema;
+  private volatile boolean aligned;
+
+  RollupSeries(long interval, int maxBucketNum) {
+    this.interval = interval;
+    this.maxBucketNum = maxBucketNum;
+  }
+
+  /** Merge the statistics of newly flushed sequence data in [minTime, maxTime]. */
+  synchronized void mergeSequence(
+      Map<Long, Statistics<? extends Serializable>> bucketStatistics, long minTime, long maxTime) {
+    // the data flushed before the view was created may share the first bucket
+    partitionCoverageStarts.putIfAbsent(
+        TimePartitionUtils.getTimePartitionId(minTime), bucketStartTime(minTime) + interval);
+    partitionWatermarks
+        .computeIfAbsent(
+            TimePartitionUtils.getTimePartitionId(maxTime), k -> new AtomicLong(Long.MIN_VALUE))
+        .accumulateAndGet(maxTime, Math::max);
+
+    for (Map.Entry<Long, Statistics<? extends Serializable>> entry : bucketStatistics.entrySet()) {
+      Statistics<? extends Serializable> existing = buckets.get(entry.getKey());
+      if (existing == null) {
+        buckets.put(entry.getKey(), entry.getValue());
+      } else if (existing.getType() == entry.getValue().getType()) {
+        existing.mergeStatistics(entry.getValue());
+      } else {
+        // the data type of the measurement has been altered, wait for the recomputation
+        markDirty(
+            entry.getKey(),
+            entry.getKey() + interval - 1,
+            RollupViewManager.ALTERED_SOURCE,
+            RollupViewManager.getInstance().nextDirtyVersion());
+      }
+    }
+    evict();
+  }
+
+  void updateSchema(IMeasurementSchema measurementSchema, boolean aligned) {
+    this.measurementSchema = measurementSchema;
+    this.aligned = aligned;
+  }
+
+  IMeasurementSchema getMeasurementSchema() {
+    return measurementSchema;
+  }
+
+  boolean isAligned() {
+    return aligned;
+  }
+
+  synchronized void markDirty(long startTime, long endTime, String source, long version) {
+    if (endTime < evictedBefore) {
+      return;
+    }
+    dirtyRanges.add(new DirtyRange(startTime, endTime, source, version));
+  }
+
+  /** Move the dirty ranges left by the source files of a finished compaction to new sources. */
+  synchronized void renameDirtySource(Set<String> sources, List<String> newSources) {
+    List<DirtyRange> renamed = new ArrayList<>();
+    Iterator<DirtyRange> iterator = dirtyRanges.iterator();
+    while (iterator.hasNext()) {
+      DirtyRange dirtyRange = iterator.next();
+      if (sources.contains(dirtyRange.source)) {
+        iterator.remove();
+        for (String newSource : newSources) {
+          renamed.add(
+              new DirtyRange(
+                  dirtyRange.startTime, dirtyRange.endTime, newSource, dirtyRange.version));
+        }
+      }
+    }
+    dirtyRanges.addAll(renamed);
+  }
+
+  /**
+   * Replace the buckets fully inside the covered ranges with the recomputed statistics, and clear
+   * the dirty ranges which were marked before the recomputation began and are resolved by it.
+   */
+  synchronized void rebuild(
+      Map<Long, Statistics<? extends Serializable>> bucketStatistics,
+      List<TimeRange> coveredRanges,
+      Set<String> consumedSources,
+      long startVersion) {
+    List<TimeRange> rebuiltRanges = new ArrayList<>();
+    for (TimeRange coveredRange : coveredRanges) {
+      long firstBucket = bucketStartTime(coveredRange.getMin());
+      if (firstBucket < coveredRange.getMin()) {
+        firstBucket += interval;
+      }
+      long rebuiltStart = Long.MAX_VALUE;
+      long rebuiltEnd = Long.MIN_VALUE;
+      for (long bucket = firstBucket;
+          bucket <= coveredRange.getMax() - interval + 1;
+          bucket += interval) {
+        Long coverageStart =
+            partitionCoverageStarts.get(TimePartitionUtils.getTimePartitionId(bucket));
+        if (coverageStart == null || bucket < coverageStart || bucket < evictedBefore) {
+          continue;
+        }
+        Statistics<? extends Serializable> statistics = bucketStatistics.get(bucket);
+        if (statistics == null) {
+          buckets.remove(bucket);
+        } else {
+          buckets.put(bucket, statistics);
+        }
+        rebuiltStart = Math.min(rebuiltStart, bucket);
+        rebuiltEnd = Math.max(rebuiltEnd, bucket + interval - 1);
+      }
+      if (rebuiltStart <= rebuiltEnd) {
+        rebuiltRanges.add(new TimeRange(rebuiltStart, rebuiltEnd));
+      }
+    }
+
+    for (TimeRange rebuiltRange : rebuiltRanges) {
+      List<DirtyRange> remaining = new ArrayList<>();
+      Iterator<DirtyRange> iterator = dirtyRanges.iterator();
+      while (iterator.hasNext()) {
+        DirtyRange dirtyRange = iterator.next();
+        if (dirtyRange.version > startVersion
+            || !dirtyRange.overlaps(rebuiltRange.getMin(), rebuiltRange.getMax())
+            || !(consumedSources.contains(dirtyRange.source)
+                || RollupViewManager.isResolvedByRecomputation(dirtyRange.source))) {
+          continue;
+        }
+        iterator.remove();
+        if (dirtyRange.startTime < rebuiltRange.getMin()) {
+          remaining.add(
+              new DirtyRange(
+                  dirtyRange.startTime,
+                  rebuiltRange.getMin() - 1,
+                  dirtyRange.source,
+                  dirtyRange.version));
+        }
+        if (dirtyRange.endTime > rebuiltRange.getMax()) {
+          remaining.add(
+              new DirtyRange(
+                  rebuiltRange.getMax() + 1,
+                  dirtyRange.endTime,
+                  dirtyRange.source,
+                  dirtyRange.version));
+        }
+      }
+      dirtyRanges.addAll(remaining);
+    }
+  }
+
+  /**
+   * @return the bucket aligned time ranges overlapping the dirty ranges that a recomputation can
+   *     make readable, i.e. observed since the view was created and not after the watermark of
+   *     their time partitions
+   */
+  synchronized List<TimeRange> getRecomputableRanges() {
+    List<TimeRange> recomputableRanges = new ArrayList<>();
+    for (DirtyRange dirtyRange : dirtyRanges) {
+      long dirtyStart = bucketStartTime(dirtyRange.startTime);
+      long dirtyEnd = bucketStartTime(dirtyRange.endTime);
+      dirtyEnd = dirtyEnd > Long.MAX_VALUE - interval ? Long.MAX_VALUE : dirtyEnd + interval - 1;
+      for (Map.Entry<Long, Long> entry : partitionCoverageStarts.entrySet()) {
+        AtomicLong watermark = partitionWatermarks.get(entry.getKey());
+        if (watermark == null) {
+          continue;
+        }
+        long start = Math.max(dirtyStart, Math.max(entry.getValue(), evictedBefore));
+        long end = Math.min(dirtyEnd, lastBucketEndTimeNotAfter(watermark.get()));
+        if (start <= end) {
+          recomputableRanges.add(new TimeRange(start, end));
+        }
+      }
+    }
+    return recomputableRanges.isEmpty()
+        ? recomputableRanges
+        : TimeRange.sortAndMerge(recomputableRanges);
+  }
+
+  /**
+   * @return a copy of the statistics of the bucket starting at the given time, or null if the
+   *     bucket is not readable
+   */
+  synchronized Statistics<? extends Serializable> read(long bucketStartTime) {
+    long bucketEndTime = bucketStartTime + interval - 1;
+    long timePartition = TimePartitionUtils.getTimePartitionId(bucketStartTime);
+    if (bucketStartTime < evictedBefore
+        || timePartition != TimePartitionUtils.getTimePartitionId(bucketEndTime)) {
+      return null;
+    }
+    Long coverageStart = partitionCoverageStarts.get(timePartition);
+    AtomicLong watermark = partitionWatermarks.get(timePartition);
+    if (coverageStart == null
+        || bucketStartTime < coverageStart
+        || watermark == null
+        || bucketEndTime > watermark.get()) {
+      return null;
+    }
+    for (DirtyRange dirtyRange : dirtyRanges) {
+      if (dirtyRange.overlaps(bucketStartTime, bucketEndTime)) {
+        return null;
+      }
+    }
+    Statistics<? extends Serializable> statistics = buckets.get(bucketStartTime);
+    if (statistics == null) {
+      return null;
+    }
+    Statistics<? extends Serializable> copy = Statistics.getStatsByType(statistics.getType());
+    copy.mergeStatistics(statistics);
+    return copy;
+  }
+
+  synchronized int getBucketNum() {
+    return buckets.size();
+  }
+
+  synchronized int getDirtyRangeNum() {
+    return dirtyRanges.size();
+  }
+
+  private long bucketStartTime(long time) {
+    return Math.floorDiv(time, interval) * interval;
+  }
+
+  private long lastBucketEndTimeNotAfter(long time) {
+    return time == Long.MAX_VALUE ? time : bucketStartTime(time + 1) - 1;
+  }
+
+  private void evict() {
+    while (buckets.size() > maxBucketNum) {
+      evictedBefore = buckets.pollFirstEntry().getKey() + interval;
+    }
+    if (evictedBefore != Long.MIN_VALUE) {
+      dirtyRanges.removeIf(dirtyRange -> dirtyRange.endTime < evictedBefore);
+    }
+  }
+
+  private static class DirtyRange {
+
+    private final long startTime;
+    private final long endTime;
+    private final String source;
+    private final long version;
+
+    private DirtyRange(long startTime, long endTime, String source, long version) {
+      this.startTime = startTime;
+      this.endTime = endTime;
+      this.source = source;
+      this.version = version;
+    }
+
+    private boolean overlaps(long startTime, long endTime) {
+      return this.startTime <= endTime && startTime <= this.endTime;
+    }
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.rollup;
+
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** The materialized rollup view of one {@link RollupViewDefinition} in one data region. */
+public class RollupView {
+
+  private final RollupViewDefinition definition;
+  private final int maxBucketNumPerSeries;
+  private final Map<IDeviceID, RollupSeries> seriesMap = new ConcurrentHashMap<>();
+
+  RollupView(RollupViewDefinition definition, int maxBucketNumPerSeries) {
+    this.definition = definition;
+    this.maxBucketNumPerSeries = maxBucketNumPerSeries;
+  }
+
+  public RollupViewDefinition getDefinition() {
+    return definition;
+  }
+
+  RollupSeries getOrCreateSeries(IDeviceID deviceID) {
+    return seriesMap.computeIfAbsent(
+        deviceID, k -> new RollupSeries(definition.getInterval(), maxBucketNumPerSeries));
+  }
+
+  RollupSeries getSeries(IDeviceID deviceID) {
+    return seriesMap.get(deviceID);
+  }
+
+  Map<IDeviceID, RollupSeries> getSeriesMap() {
+    return Collections.unmodifiableMap(seriesMap);
+  }
+
+  void markDeleted(ModEntry modEntry, long version) {
+    if (!modEntry.affects(definition.getMeasurement())) {
+      return;
+    }
+    for (Map.Entry<IDeviceID, RollupSeries> entry : seriesMap.entrySet()) {
+      if (modEntry.affects(entry.getKey(), modEntry.getStartTime(), modEntry.getEndTime())) {
+        entry
+            .getValue()
+            .markDirty(
+                modEntry.getStartTime(),
+                modEntry.getEndTime(),
+                RollupViewManager.DELETION_SOURCE,
+                version);
+      }
+    }
+  }
+
+  void renameDirtySource(Set<String> sources, List<String> newSources) {
+    seriesMap.values().forEach(series -> series.renameDirtySource(sources, newSources));
+  }
+
+  int getSeriesNum() {
+    return seriesMap.size();
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.rollup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The declaration of a materialized rollup view: the downsampling aggregates of one measurement of
+ * all devices in a database over fixed intervals.
+ */
+public class RollupViewDefinition {
+
+  private static final String DEFINITION_SEPARATOR = ",";
+  private static final String FIELD_SEPARATOR = ":";
+
+  private final String database;
+  private final String measurement;
+  private final long interval;
+
+  public RollupViewDefinition(String database, String measurement, long interval) {
+    if (interval <= 0) {
+      throw new IllegalArgumentException(
+          String.format(
+              "The interval of rollup view on %s.%s must be positive", database, measurement));
+    }
+    this.database = database;
+    this.measurement = measurement;
+    this.interval = interval;
+  }
+
+  /**
+   * Parse the definitions in the format of "database:measurement:interval" separated by ",".
+   *
+   * @throws IllegalArgumentException if any of the definitions is malformed
+   */
+  public static List<RollupViewDefinition> parse(String definitions) {
+    if (definitions == null || definitions.trim().isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<RollupViewDefinition> result = new ArrayList<>();
+    for (String definition : definitions.split(DEFINITION_SEPARATOR)) {
+      if (definition.trim().isEmpty()) {
+        continue;
+      }
+      // the database name of tree model may contain ":" in quoted nodes, so split from the end
+      int intervalIndex = definition.lastIndexOf(FIELD_SEPARATOR);
+      int measurementIndex =
+          intervalIndex <= 0 ? -1 : definition.lastIndexOf(FIELD_SEPARATOR, intervalIndex - 1);
+      if (measurementIndex <= 0) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Illegal rollup view definition %s, the format should be"
+                    + " database:measurement:interval",
+                definition));
+      }
+      try {
+        result.add(
+            new RollupViewDefinition(
+                definition.substring(0, measurementIndex).trim(),
+                definition.substring(measurementIndex + 1, intervalIndex).trim(),
+                Long.parseLong(definition.substring(intervalIndex + 1).trim())));
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException(
+            String.format("Illegal interval in rollup view definition %s", definition), e);
+      }
+    }
+    return result;
+  }
+
+  public String getDatabase() {
+    return database;
+  }
+
+  public String getMeasurement() {
+    return measurement;
+  }
+
+  public long getInterval() {
+    return interval;
+  }
+
+  /** The start time of the interval bucket which the given time belongs to. */
+  public long getBucketStartTime(long time) {
+    return Math.floorDiv(time, interval) * interval;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    RollupViewDefinition that = (RollupViewDefinition) o;
+    return interval == that.interval
+        && Objects.equals(database, that.database)
+        && Objects.equals(measurement, that.measurement);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(database, measurement, interval);
+  }
+
+  @Override
+  public String toString() {
+    return database + FIELD_SEPARATOR + measurement + FIELD_SEPARATOR + interval;
+  }
+}
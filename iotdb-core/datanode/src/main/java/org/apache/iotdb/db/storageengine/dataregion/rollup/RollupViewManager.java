@@ -0,0 +1,329 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.rollup;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manages the materialized rollup views declared by {@code rollup_view_definitions}.
+ *
+ * <p>Each view keeps, per device and per interval bucket, the tsfile {@link Statistics} (min, max,
+ * sum, count, first and last) of one measurement. Sequence memtable flushes merge into the buckets
+ * incrementally, while unsequence flushes, deletions and loaded files mark the affected ranges
+ * dirty. Dirty buckets are recomputed by read point compactions, which decode all the data of the
+ * selected files anyway, and periodically by {@link #recompute} for the other compaction
+ * performers. Aggregation table scans with GROUP BY date_bin over the same interval read the
+ * readable buckets instead of the raw data.
+ */
+public class RollupViewManager {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RollupViewManager.class);
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  static final String DELETION_SOURCE = "deletion";
+  static final String ALTERED_SOURCE = "altered";
+  static final String COMPACTED_SOURCE = "compacted";
+
+  // database -> rollup view definitions
+  private final Map<String, List<RollupViewDefinition>> databaseToDefinitions = new HashMap<>();
+  // data region id -> rollup views
+  private final Map<String, List<RollupView>> dataRegionIdToViews = new ConcurrentHashMap<>();
+  // data region id -> the order of the sequence flushes to apply
+  private final Map<String, FlushSequencer> dataRegionIdToFlushSequencer =
+      new ConcurrentHashMap<>();
+
+  private final AtomicLong dirtyVersion = new AtomicLong(0);
+
+  private RollupViewManager() {
+    try {
+      for (RollupViewDefinition definition :
+          RollupViewDefinition.parse(CONFIG.getRollupViewDefinitions())) {
+        databaseToDefinitions
+            .computeIfAbsent(definition.getDatabase(), k -> new ArrayList<>())
+            .add(definition);
+      }
+    } catch (IllegalArgumentException e) {
+      LOGGER.warn("Failed to parse rollup view definitions, all rollup views are disabled.", e);
+      databaseToDefinitions.clear();
+    }
+    if (!databaseToDefinitions.isEmpty()) {
+      LOGGER.info("Materialized rollup views are enabled: {}", databaseToDefinitions.values());
+    }
+  }
+
+  public boolean isEnabled() {
+    return !databaseToDefinitions.isEmpty();
+  }
+
+  /**
+   * @return the collector to feed the memtable being flushed into the rollup views, or null if no
+   *     rollup view is declared on the database
+   */
+  public RollupFlushCollector createFlushCollector(
+      String database, String dataRegionId, String tsFileName, boolean sequence) {
+    List<RollupView> views = getOrCreateViews(database, dataRegionId);
+    return views.isEmpty() ? null : new RollupFlushCollector(views, tsFileName, sequence);
+  }
+
+  /**
+   * Called when a sequence memtable is queued for flushing. The watermarks of the views may only
+   * move forward after all the data before them has been merged, so the flushes of the closing and
+   * the new working sequence file of a time partition must be applied in the order they were
+   * queued.
+   *
+   * @return the ticket to pass to {@link #completeFlush}, or null if no rollup view is declared on
+   *     the database
+   */
+  public Long acquireFlushTicket(String database, String dataRegionId) {
+    if (getOrCreateViews(database, dataRegionId).isEmpty()) {
+      return null;
+    }
+    return dataRegionIdToFlushSequencer
+        .computeIfAbsent(dataRegionId, k -> new FlushSequencer())
+        .acquire();
+  }
+
+  /**
+   * Apply a flushed memtable to the views once all the memtables queued before it are completed.
+   *
+   * @param collector the collector fed by the flush, or null if the memtable is not flushed
+   *     successfully
+   */
+  public void completeFlush(String dataRegionId, long ticket, RollupFlushCollector collector) {
+    FlushSequencer sequencer = dataRegionIdToFlushSequencer.get(dataRegionId);
+    if (sequencer != null) {
+      sequencer.complete(ticket, collector == null ? null : collector::commit);
+    }
+  }
+
+  /**
+   * Recompute the dirty buckets of the rollup views in a data region.
+   *
+   * @return the number of series recomputed
+   */
+  public int recompute(DataRegion dataRegion) {
+    List<RollupView> views =
+        dataRegionIdToViews.getOrDefault(
+            dataRegion.getDataRegionIdString(), Collections.emptyList());
+    return views.isEmpty() ? 0 : new RollupRecomputer(dataRegion).recompute(views);
+  }
+
+  /**
+   * @return the collector to recompute the rollup views with the data decoded by a read point
+   *     compaction, or null if no rollup view can be recomputed by it
+   */
+  public RollupRecomputeCollector createRecomputeCollector(
+      List<TsFileResource> seqFiles, List<TsFileResource> unseqFiles) {
+    // the buckets can be recomputed only inside the time ranges of the selected sequence files
+    if (seqFiles.isEmpty()) {
+      return null;
+    }
+    TsFileResource anyFile = seqFiles.get(0);
+    List<RollupView> views = getOrCreateViews(anyFile.getDatabaseName(), anyFile.getDataRegionId());
+    return views.isEmpty()
+        ? null
+        : new RollupRecomputeCollector(views, seqFiles, unseqFiles, dirtyVersion.get());
+  }
+
+  public void markDeleted(String database, String dataRegionId, ModEntry modEntry) {
+    long version = nextDirtyVersion();
+    getOrCreateViews(database, dataRegionId).forEach(view -> view.markDeleted(modEntry, version));
+  }
+
+  /**
+   * The data of a loaded file is never observed by the flushes, so it is dirty until recomputed.
+   */
+  public void markLoaded(String database, String dataRegionId, TsFileResource resource) {
+    List<RollupView> views = getOrCreateViews(database, dataRegionId);
+    if (views.isEmpty()) {
+      return;
+    }
+    long version = nextDirtyVersion();
+    String source = resource.getTsFile().getName();
+    for (IDeviceID deviceID : resource.getDevices()) {
+      Optional<Long> startTime = resource.getStartTime(deviceID);
+      Optional<Long> endTime = resource.getEndTime(deviceID);
+      if (!startTime.isPresent() || !endTime.isPresent()) {
+        continue;
+      }
+      for (RollupView view : views) {
+        view.getOrCreateSeries(deviceID).markDirty(startTime.get(), endTime.get(), source, version);
+      }
+    }
+  }
+
+  /**
+   * The dirty ranges refer to their source files by name, so they follow the data when a compaction
+   * replaces the files: to the target files which are still unsequence, otherwise to a marker which
+   * only a recomputation can resolve.
+   */
+  public void onTsFilesReplaced(
+      String dataRegionId,
+      List<TsFileResource> seqFiles,
+      List<TsFileResource> unseqFiles,
+      List<TsFileResource> targetFiles) {
+    List<RollupView> views =
+        dataRegionIdToViews.getOrDefault(dataRegionId, Collections.emptyList());
+    if (views.isEmpty()) {
+      return;
+    }
+    Set<String> sources = new HashSet<>();
+    seqFiles.forEach(resource -> sources.add(resource.getTsFile().getName()));
+    unseqFiles.forEach(resource -> sources.add(resource.getTsFile().getName()));
+    List<String> newSources = new ArrayList<>();
+    for (TsFileResource targetFile : targetFiles) {
+      if (!targetFile.isSeq()) {
+        newSources.add(targetFile.getTsFile().getName());
+      }
+    }
+    if (newSources.isEmpty()) {
+      newSources.add(COMPACTED_SOURCE);
+    }
+    views.forEach(view -> view.renameDirtySource(sources, newSources));
+  }
+
+  /**
+   * Read the rollup of one device over a time range.
+   *
+   * @return the statistics of the measurement in [startTime, endTime], or null if the time range is
+   *     not exactly one readable bucket of a rollup view on the measurement
+   */
+  public Statistics<? extends Serializable> read(
+      String dataRegionId, IDeviceID deviceID, String measurement, long startTime, long endTime) {
+    for (RollupView view :
+        dataRegionIdToViews.getOrDefault(dataRegionId, Collections.emptyList())) {
+      RollupViewDefinition definition = view.getDefinition();
+      if (!definition.getMeasurement().equals(measurement)
+          || endTime - startTime + 1 != definition.getInterval()
+          || definition.getBucketStartTime(startTime) != startTime) {
+        continue;
+      }
+      RollupSeries series = view.getSeries(deviceID);
+      if (series != null) {
+        return series.read(startTime);
+      }
+    }
+    return null;
+  }
+
+  public void removeDataRegion(String dataRegionId) {
+    dataRegionIdToViews.remove(dataRegionId);
+    dataRegionIdToFlushSequencer.remove(dataRegionId);
+  }
+
+  long nextDirtyVersion() {
+    return dirtyVersion.incrementAndGet();
+  }
+
+  long currentDirtyVersion() {
+    return dirtyVersion.get();
+  }
+
+  static boolean isResolvedByRecomputation(String source) {
+    return DELETION_SOURCE.equals(source)
+        || ALTERED_SOURCE.equals(source)
+        || COMPACTED_SOURCE.equals(source);
+  }
+
+  private List<RollupView> getOrCreateViews(String database, String dataRegionId) {
+    if (database == null || dataRegionId == null) {
+      return Collections.emptyList();
+    }
+    List<RollupViewDefinition> definitions = databaseToDefinitions.get(database);
+    if (definitions == null) {
+      return Collections.emptyList();
+    }
+    return dataRegionIdToViews.computeIfAbsent(
+        dataRegionId,
+        k -> {
+          List<RollupView> views = new ArrayList<>(definitions.size());
+          for (RollupViewDefinition definition : definitions) {
+            views.add(new RollupView(definition, CONFIG.getRollupViewMaxBucketNumPerSeries()));
+          }
+          return Collections.unmodifiableList(views);
+        });
+  }
+
+  /** Applies the flushed memtables of a data region in the order they were queued. */
+  static class FlushSequencer {
+
+    private long nextTicket = 0;
+    private long nextTicketToApply = 0;
+    // ticket -> commit of the flushes completed but not applied yet, empty if nothing to apply
+    private final Map<Long, Optional<Runnable>> completedFlushes = new HashMap<>();
+
+    synchronized long acquire() {
+      return nextTicket++;
+    }
+
+    /**
+     * @param commit applies the flush to the views, or null if there is nothing to apply
+     */
+    synchronized void complete(long ticket, Runnable commit) {
+      if (ticket < nextTicketToApply || completedFlushes.containsKey(ticket)) {
+        return;
+      }
+      completedFlushes.put(ticket, Optional.ofNullable(commit));
+      Optional<Runnable> next;
+      while ((next = completedFlushes.remove(nextTicketToApply)) != null) {
+        nextTicketToApply++;
+        if (next.isPresent()) {
+          try {
+            next.get().run();
+          } catch (Exception e) {
+            LOGGER.warn("Failed to apply a flushed memtable to the rollup views", e);
+          }
+        }
+      }
+    }
+  }
+
+  public static RollupViewManager getInstance() {
+    return RollupViewManagerHolder.INSTANCE;
+  }
+
+  private static class RollupViewManagerHolder {
+
+    private static final RollupViewManager INSTANCE = new RollupViewManager();
+
+    private RollupViewManagerHolder() {}
+  }
+}
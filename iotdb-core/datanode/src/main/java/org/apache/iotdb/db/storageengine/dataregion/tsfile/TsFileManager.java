@@ -23,6 +23,7 @@ import org.apache.iotdb.commons.utils.TimePartitionUtils;
 import org.apache.iotdb.db.pipe.resource.PipeDataNodeResourceManager;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModFileManagement;
 import org.apache.iotdb.db.storageengine.dataregion.modification.PartitionLevelModFileManager;
+import org.apache.iotdb.db.storageengine.dataregion.rollup.RollupViewManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.FileTimeIndexCacheRecorder;
 import org.apache.iotdb.db.storageengine.rescon.memory.TsFileResourceManager;
 
@@ -334,6 +335,9 @@ public class TsFileManager {
           }
         }
       }
+      RollupViewManager.getInstance()
+          .onTsFilesReplaced(
+              dataRegionId, seqFileResources, unseqFileResources, targetFileResources);
     } finally {
       writeUnlock();
     }
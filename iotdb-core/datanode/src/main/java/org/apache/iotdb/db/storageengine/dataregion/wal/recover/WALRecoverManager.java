@@ -72,6 +72,7 @@ public class WALRecoverManager {
 
   public void recover() throws WALRecoverException, StartupException {
     logger.info("Start recovering wal.");
+    long startTime = System.currentTimeMillis();
     try {
       // collect wal nodes' information
       List<File> walNodeDirs = new ArrayList<>();
@@ -100,7 +101,8 @@ public class WALRecoverManager {
         throw new WALRecoverException("Fail to recover wal.", e);
       }
       logger.info(
-          "Data regions have submitted all unsealed TsFiles, start recovering TsFiles in each wal node.");
+          "Data regions have submitted all unsealed TsFiles after {}ms, start recovering TsFiles in each wal node.",
+          System.currentTimeMillis() - startTime);
       // recover each wal node's TsFiles
       if (!walNodeDirs.isEmpty()) {
         recoverThreadPool =
@@ -139,7 +141,8 @@ public class WALRecoverManager {
       }
       stop();
     }
-    logger.info("Successfully recover all wal nodes.");
+    logger.info(
+        "Successfully recover all wal nodes, cost {}ms.", System.currentTimeMillis() - startTime);
   }
 
   private void asyncRecoverLeftTsFiles() {
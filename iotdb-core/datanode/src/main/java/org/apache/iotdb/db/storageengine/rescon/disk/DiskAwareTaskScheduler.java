@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.rescon.disk;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.metrics.utils.FileStoreUtils;
+
+import org.apache.tsfile.utils.FSUtils;
+
+import java.nio.file.FileStore;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs IO bound tasks with a separate queue and thread pool for each disk, so that a slow or busy
+ * disk does not hold up the tasks of other disks and a disk is not read by too many threads at the
+ * same time. Dirs on the same file store share one queue.
+ */
+public class DiskAwareTaskScheduler {
+
+  private final String poolName;
+  private final int threadCountPerDisk;
+  private final Function<String, Object> diskResolver;
+
+  // FileStore of the dir, or the dir itself when its FileStore is unknown
+  private final Map<Object, ExecutorService> diskExecutors = new ConcurrentHashMap<>();
+  private final Map<String, Object> dir2Disk = new ConcurrentHashMap<>();
+  private final AtomicInteger diskIndex = new AtomicInteger(0);
+
+  public DiskAwareTaskScheduler(String poolName, int threadCountPerDisk) {
+    this(poolName, threadCountPerDisk, DiskAwareTaskScheduler::getDisk);
+  }
+
+  DiskAwareTaskScheduler(
+      String poolName, int threadCountPerDisk, Function<String, Object> diskResolver) {
+    this.poolName = poolName;
+    this.threadCountPerDisk = threadCountPerDisk;
+    this.diskResolver = diskResolver;
+  }
+
+  /** submit a task that reads files under the given dir to the queue of the disk of the dir */
+  public <T> Future<T> submit(String dir, Callable<T> task) {
+    return diskExecutors
+        .computeIfAbsent(
+            dir2Disk.computeIfAbsent(dir, diskResolver),
+            disk ->
+                IoTDBThreadPoolFactory.newFixedThreadPool(
+                    threadCountPerDisk, poolName + "-" + diskIndex.getAndIncrement()))
+        .submit(task);
+  }
+
+  public int getDiskNum() {
+    return diskExecutors.size();
+  }
+
+  /** shutdown the thread pools after all submitted tasks are finished */
+  public void shutdown() {
+    diskExecutors.values().forEach(ExecutorService::shutdown);
+  }
+
+  public void shutdownNow() {
+    diskExecutors.values().forEach(ExecutorService::shutdownNow);
+  }
+
+  private static Object getDisk(String dir) {
+    if (!FSUtils.isLocal(dir)) {
+      return dir;
+    }
+    FileStore fileStore = FileStoreUtils.getFileStore(dir);
+    return fileStore == null ? dir : fileStore;
+  }
+}
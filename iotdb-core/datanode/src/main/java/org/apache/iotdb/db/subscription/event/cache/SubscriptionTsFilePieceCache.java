@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.subscription.event.cache;
+
+import org.apache.iotdb.commons.subscription.config.SubscriptionConfig;
+import org.apache.iotdb.db.pipe.resource.PipeDataNodeResourceManager;
+import org.apache.iotdb.db.pipe.resource.memory.PipeMemoryBlock;
+import org.apache.iotdb.db.subscription.metric.SubscriptionTsFilePieceCacheMetrics;
+import org.apache.iotdb.db.utils.MmapUtil;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+/**
+ * This class caches the pieces of TsFiles read for TsFile-format subscriptions, so that the same
+ * piece polled by multiple consumers is read from disk only once.
+ *
+ * <p>The pieces are keyed by the identity of the underlying file rather than its path, hence the
+ * hard-linked copies of the same TsFile in the dirs of different pipes (i.e. different topics or
+ * consumer groups) share the cached pieces as well. The pieces are read by mapping the byte range
+ * of the file, which spares the temporary native buffer allocated for each large read of a {@link
+ * java.io.RandomAccessFile}.
+ */
+public class SubscriptionTsFilePieceCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SubscriptionTsFilePieceCache.class);
+
+  private final Cache<TsFilePieceKey, byte[]> cache;
+
+  /**
+   * Get the piece of the TsFile starting from the offset. The returned array is shared and MUST NOT
+   * be modified.
+   */
+  public byte[] getPiece(final File tsFile, final long offset, final int length)
+      throws IOException {
+    final BasicFileAttributes attributes =
+        Files.readAttributes(tsFile.toPath(), BasicFileAttributes.class);
+    final TsFilePieceKey key =
+        new TsFilePieceKey(
+            Objects.nonNull(attributes.fileKey()) ? attributes.fileKey() : tsFile.getAbsolutePath(),
+            attributes.size(),
+            attributes.lastModifiedTime().toMillis(),
+            offset,
+            length);
+
+    final byte[] piece;
+    try {
+      piece = cache.get(key, k -> readPiece(tsFile, offset, length));
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    }
+    SubscriptionTsFilePieceCacheMetrics.getInstance().markBytesServed(piece.length);
+    return piece;
+  }
+
+  private byte[] readPiece(final File tsFile, final long offset, final int length) {
+    try (final FileChannel channel = FileChannel.open(tsFile.toPath(), StandardOpenOption.READ)) {
+      if (offset + length > channel.size()) {
+        throw new IOException(
+            String.format(
+                "piece [%s, %s) is out of the range of tsfile %s with length %s",
+                offset, offset + length, tsFile, channel.size()));
+      }
+
+      final byte[] piece = new byte[length];
+      final MappedByteBuffer mappedBuffer =
+          channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+      try {
+        mappedBuffer.get(piece);
+      } finally {
+        MmapUtil.clean(mappedBuffer);
+      }
+
+      SubscriptionTsFilePieceCacheMetrics.getInstance().markBytesRead(length);
+      return piece;
+    } catch (final IOException e) {
+      LOGGER.warn(
+          "SubscriptionTsFilePieceCache failed to read piece [{}, {}) of tsfile {}",
+          offset,
+          offset + length,
+          tsFile,
+          e);
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  //////////////////////////// key ////////////////////////////
+
+  private static class TsFilePieceKey {
+
+    private final Object fileKey;
+    private final long fileLength;
+    private final long lastModifiedTime;
+    private final long offset;
+    private final int length;
+
+    private TsFilePieceKey(
+        final Object fileKey,
+        final long fileLength,
+        final long lastModifiedTime,
+        final long offset,
+        final int length) {
+      this.fileKey = fileKey;
+      this.fileLength = fileLength;
+      this.lastModifiedTime = lastModifiedTime;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof TsFilePieceKey)) {
+        return false;
+      }
+      final TsFilePieceKey that = (TsFilePieceKey) obj;
+      return fileLength == that.fileLength
+          && lastModifiedTime == that.lastModifiedTime
+          && offset == that.offset
+          && length == that.length
+          && Objects.equals(fileKey, that.fileKey);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(fileKey, fileLength, lastModifiedTime, offset, length);
+    }
+  }
+
+  //////////////////////////// singleton ////////////////////////////
+
+  private static class SubscriptionTsFilePieceCacheHolder {
+
+    private static final SubscriptionTsFilePieceCache INSTANCE = new SubscriptionTsFilePieceCache();
+
+    private SubscriptionTsFilePieceCacheHolder() {
+      // empty constructor
+    }
+  }
+
+  public static SubscriptionTsFilePieceCache getInstance() {
+    return SubscriptionTsFilePieceCache.SubscriptionTsFilePieceCacheHolder.INSTANCE;
+  }
+
+  private SubscriptionTsFilePieceCache() {
+    final long initMemorySizeInBytes =
+        PipeDataNodeResourceManager.memory().getTotalNonFloatingMemorySizeInBytes() / 10;
+    final long maxMemorySizeInBytes =
+        (long)
+            (PipeDataNodeResourceManager.memory().getTotalNonFloatingMemorySizeInBytes()
+                * SubscriptionConfig.getInstance().getSubscriptionCacheMemoryUsagePercentage());
+
+    // properties required by pipe memory control framework
+    final PipeMemoryBlock allocatedMemoryBlock =
+        PipeDataNodeResourceManager.memory().tryAllocate(initMemorySizeInBytes);
+
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumWeight(allocatedMemoryBlock.getMemoryUsageInBytes())
+            .weigher((Weigher<TsFilePieceKey, byte[]>) (key, piece) -> piece.length)
+            .build();
+
+    allocatedMemoryBlock
+        .setShrinkMethod(oldMemory -> Math.max(oldMemory / 2, 1))
+        .setShrinkCallback(
+            (oldMemory, newMemory) -> {
+              cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(newMemory));
+              LOGGER.info(
+                  "SubscriptionTsFilePieceCache.allocatedMemoryBlock has shrunk from {} to {}.",
+                  oldMemory,
+                  newMemory);
+            })
+        .setExpandMethod(oldMemory -> Math.min(Math.max(oldMemory, 1) * 2, maxMemorySizeInBytes))
+        .setExpandCallback(
+            (oldMemory, newMemory) -> {
+              cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(newMemory));
+              LOGGER.info(
+                  "SubscriptionTsFilePieceCache.allocatedMemoryBlock has expanded from {} to {}.",
+                  oldMemory,
+                  newMemory);
+            });
+  }
+}
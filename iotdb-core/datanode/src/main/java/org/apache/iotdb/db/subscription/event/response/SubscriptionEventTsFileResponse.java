@@ -26,6 +26,7 @@ import org.apache.iotdb.db.pipe.resource.memory.PipeMemoryManager;
 import org.apache.iotdb.db.pipe.resource.memory.PipeTsFileMemoryBlock;
 import org.apache.iotdb.db.subscription.agent.SubscriptionAgent;
 import org.apache.iotdb.db.subscription.event.cache.CachedSubscriptionPollResponse;
+import org.apache.iotdb.db.subscription.event.cache.SubscriptionTsFilePieceCache;
 import org.apache.iotdb.rpc.subscription.exception.SubscriptionException;
 import org.apache.iotdb.rpc.subscription.payload.poll.FileInitPayload;
 import org.apache.iotdb.rpc.subscription.payload.poll.FilePiecePayload;
@@ -41,7 +42,6 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -186,33 +186,40 @@ public class SubscriptionEventTsFileResponse extends SubscriptionEventExtendable
     }
 
     waitForResourceEnough4Slicing(SubscriptionAgent.receiver().remainingMs());
-    try (final RandomAccessFile reader = new RandomAccessFile(tsFile, "r")) {
-      reader.seek(writingOffset);
 
-      final PipeTsFileMemoryBlock memoryBlock =
-          PipeDataNodeResourceManager.memory().forceAllocateForTsFileWithRetry(bufferSize);
-      final byte[] readBuffer = new byte[(int) bufferSize];
+    // the piece may be evicted from the shared cache while the response still holds it, hence
+    // the memory of the piece is always accounted for the response
+    final PipeTsFileMemoryBlock memoryBlock =
+        PipeDataNodeResourceManager.memory().forceAllocateForTsFileWithRetry(bufferSize);
+    final byte[] readBuffer;
+    try {
+      readBuffer =
+          SubscriptionTsFilePieceCache.getInstance()
+              .getPiece(tsFile, writingOffset, (int) bufferSize);
+    } catch (final IOException e) {
+      memoryBlock.close();
+      throw e;
+    }
 
-      final int readLength = reader.read(readBuffer);
-      if (readLength != bufferSize) {
-        memoryBlock.close();
-        throw new SubscriptionException(
-            String.format(
-                "inconsistent read length (broken invariant), expected: %s, actual: %s",
-                bufferSize, readLength));
-      }
+    final int readLength = readBuffer.length;
+    if (readLength != bufferSize) {
+      memoryBlock.close();
+      throw new SubscriptionException(
+          String.format(
+              "inconsistent read length (broken invariant), expected: %s, actual: %s",
+              bufferSize, readLength));
+    }
 
-      // generate subscription poll response with piece payload
-      final CachedSubscriptionPollResponse response =
-          new CachedSubscriptionPollResponse(
-              SubscriptionPollResponseType.FILE_PIECE.getType(),
-              new FilePiecePayload(tsFile.getName(), writingOffset + readLength, readBuffer),
-              commitContext);
+    // generate subscription poll response with piece payload
+    final CachedSubscriptionPollResponse response =
+        new CachedSubscriptionPollResponse(
+            SubscriptionPollResponseType.FILE_PIECE.getType(),
+            new FilePiecePayload(tsFile.getName(), writingOffset + readLength, readBuffer),
+            commitContext);
 
-      // set fixed memory block for response
-      response.setMemoryBlock(memoryBlock);
-      return response;
-    }
+    // set fixed memory block for response
+    response.setMemoryBlock(memoryBlock);
+    return response;
   }
 
   private void waitForResourceEnough4Slicing(final long timeoutMs) throws InterruptedException {
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.subscription.metric;
+
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.metrics.utils.MetricType;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SubscriptionTsFilePieceCacheMetrics implements IMetricSet {
+
+  private final AtomicLong bytesServed = new AtomicLong(0);
+  private final AtomicLong bytesRead = new AtomicLong(0);
+
+  @Override
+  public void bindTo(final AbstractMetricService metricService) {
+    // bytes of tsfile pieces served to consumers
+    metricService.createAutoGauge(
+        Metric.SUBSCRIPTION_TSFILE_BYTES_SERVED.toString(),
+        MetricLevel.IMPORTANT,
+        bytesServed,
+        AtomicLong::get);
+    // bytes of tsfile pieces read from disk
+    metricService.createAutoGauge(
+        Metric.SUBSCRIPTION_TSFILE_BYTES_READ.toString(),
+        MetricLevel.IMPORTANT,
+        bytesRead,
+        AtomicLong::get);
+  }
+
+  @Override
+  public void unbindFrom(final AbstractMetricService metricService) {
+    metricService.remove(MetricType.AUTO_GAUGE, Metric.SUBSCRIPTION_TSFILE_BYTES_SERVED.toString());
+    metricService.remove(MetricType.AUTO_GAUGE, Metric.SUBSCRIPTION_TSFILE_BYTES_READ.toString());
+  }
+
+  //////////////////////////// mark ////////////////////////////
+
+  public void markBytesServed(final long size) {
+    bytesServed.addAndGet(size);
+  }
+
+  public void markBytesRead(final long size) {
+    bytesRead.addAndGet(size);
+  }
+
+  //////////////////////////// singleton ////////////////////////////
+
+  private static class SubscriptionTsFilePieceCacheMetricsHolder {
+
+    private static final SubscriptionTsFilePieceCacheMetrics INSTANCE =
+        new SubscriptionTsFilePieceCacheMetrics();
+
+    private SubscriptionTsFilePieceCacheMetricsHolder() {
+      // empty constructor
+    }
+  }
+
+  public static SubscriptionTsFilePieceCacheMetrics getInstance() {
+    return SubscriptionTsFilePieceCacheMetrics.SubscriptionTsFilePieceCacheMetricsHolder.INSTANCE;
+  }
+
+  private SubscriptionTsFilePieceCacheMetrics() {
+    // empty constructor
+  }
+}
@@ -50,6 +50,7 @@ import org.apache.iotdb.rpc.subscription.exception.SubscriptionPipeTimeoutExcept
 import org.apache.iotdb.rpc.subscription.payload.poll.PollFilePayload;
 import org.apache.iotdb.rpc.subscription.payload.poll.PollPayload;
 import org.apache.iotdb.rpc.subscription.payload.poll.PollTabletsPayload;
+import org.apache.iotdb.rpc.subscription.payload.poll.StreamPayload;
 import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionCommitContext;
 import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionPollRequest;
 import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionPollRequestType;
@@ -82,6 +83,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -99,6 +101,9 @@ public class SubscriptionReceiverV1 implements SubscriptionReceiver {
 
   private static final double POLL_PAYLOAD_SIZE_EXCEED_THRESHOLD = 0.9;
 
+  private static final long STREAM_IDLE_WAIT_MS = 20L;
+  private static final long STREAM_TIMER_DELTA_MS = 250L;
+
   private static final IClientManager<ConfigRegionId, ConfigNodeClient> CONFIG_NODE_CLIENT_MANAGER =
       ConfigNodeClientManager.getInstance();
 
@@ -460,6 +465,11 @@ public class SubscriptionReceiverV1 implements SubscriptionReceiver {
               handlePipeSubscribePollTabletsRequest(
                   consumerConfig, (PollTabletsPayload) request.getPayload());
           break;
+        case STREAM:
+          events =
+              handlePipeSubscribeStreamRequest(
+                  consumerConfig, (StreamPayload) request.getPayload(), maxBytes);
+          break;
         default:
           events = null;
           break;
@@ -575,6 +585,76 @@ public class SubscriptionReceiverV1 implements SubscriptionReceiver {
     return SubscriptionAgent.broker().poll(consumerConfig, topicNames, maxBytes);
   }
 
+  /**
+   * Keep polling the prefetching queues of the topics until the credits granted by the consumer are
+   * used up or the payload size limit is reached. If no event is available, wait on the server
+   * until any event arrives or the request times out, instead of letting the consumer poll again.
+   * If some events have been collected, they are delivered as soon as the queues run dry.
+   */
+  private List<SubscriptionEvent> handlePipeSubscribeStreamRequest(
+      final ConsumerConfig consumerConfig,
+      final StreamPayload messagePayload,
+      final long maxBytes) {
+    final Set<String> subscribedTopicNames =
+        SubscriptionAgent.consumer()
+            .getTopicNamesSubscribedByConsumer(
+                consumerConfig.getConsumerGroupId(), consumerConfig.getConsumerId());
+    final Set<String> topicNames = messagePayload.getTopicNames();
+    final int credits = messagePayload.getCredits();
+    if (topicNames.isEmpty() || credits <= 0) {
+      return Collections.emptyList();
+    }
+
+    // filter unsubscribed topics
+    topicNames.removeIf((topicName) -> !subscribedTopicNames.contains(topicName));
+    if (topicNames.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    final PollTimer timer = pollTimerThreadLocal.get();
+    final List<SubscriptionEvent> events = new ArrayList<>();
+    long remainingBytes = maxBytes;
+    try {
+      while (events.size() < credits && remainingBytes > 0) {
+        final List<SubscriptionEvent> currentEvents =
+            SubscriptionAgent.broker().poll(consumerConfig, topicNames, remainingBytes);
+        if (currentEvents.isEmpty()) {
+          timer.update();
+          if (!events.isEmpty() || timer.isExpired(STREAM_TIMER_DELTA_MS)) {
+            break;
+          }
+          Thread.sleep(STREAM_IDLE_WAIT_MS);
+          continue;
+        }
+
+        for (final SubscriptionEvent event : currentEvents) {
+          events.add(event);
+          try {
+            remainingBytes -= event.getCurrentResponseSize();
+          } catch (final IOException e) {
+            // the size will be checked again when generating the response
+          }
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    // the broker polls at most one event per topic at a time, nack the events beyond the credits
+    if (events.size() > credits) {
+      final List<SubscriptionEvent> eventsToNack = events.subList(credits, events.size());
+      SubscriptionAgent.broker()
+          .commit(
+              consumerConfig,
+              eventsToNack.stream()
+                  .map(SubscriptionEvent::getCommitContext)
+                  .collect(Collectors.toList()),
+              true);
+      eventsToNack.clear();
+    }
+    return events;
+  }
+
   private List<SubscriptionEvent> handlePipeSubscribePollTsFileRequest(
       final ConsumerConfig consumerConfig, final PollFilePayload messagePayload) {
     return SubscriptionAgent.broker()
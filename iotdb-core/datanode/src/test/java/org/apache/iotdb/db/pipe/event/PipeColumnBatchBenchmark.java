@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.event;
+
+import org.apache.iotdb.db.pipe.event.common.tablet.PipeRawTabletInsertionEvent;
+
+import org.apache.tsfile.write.record.Tablet;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the throughput of a tumbling-time-like sampling over the row-by-row API and the columnar
+ * API. It is not run with the unit tests since the timings depend on the environment, run its main
+ * method manually instead.
+ */
+public class PipeColumnBatchBenchmark {
+
+  private static final int ROW_COUNT = 100_000;
+  private static final int WARMUP_ROUNDS = 3;
+  private static final int ROUNDS = 10;
+  private static final long INTERVAL = 10;
+
+  public static void main(final String[] args) {
+    final Tablet tablet = PipeColumnBatchTest.generateTablet(ROW_COUNT);
+
+    for (int round = 0; round < WARMUP_ROUNDS; ++round) {
+      sampleRowByRow(tablet);
+      sampleColumnar(tablet);
+    }
+
+    long rowTime = 0;
+    long columnarTime = 0;
+    int rowCount = 0;
+    int columnarCount = 0;
+    for (int round = 0; round < ROUNDS; ++round) {
+      long start = System.nanoTime();
+      rowCount = sampleRowByRow(tablet);
+      rowTime += System.nanoTime() - start;
+
+      start = System.nanoTime();
+      columnarCount = sampleColumnar(tablet);
+      columnarTime += System.nanoTime() - start;
+    }
+
+    System.out.printf(
+        "Rows: %d, columns: %d, selected rows: %d (row-by-row) / %d (columnar), "
+            + "row-by-row: %.2f ms/round, columnar: %.2f ms/round%n",
+        ROW_COUNT,
+        tablet.getSchemas().size(),
+        rowCount,
+        columnarCount,
+        rowTime / 1e6 / ROUNDS,
+        columnarTime / 1e6 / ROUNDS);
+  }
+
+  private static int sampleRowByRow(final Tablet tablet) {
+    final AtomicInteger selected = new AtomicInteger();
+    new PipeRawTabletInsertionEvent(tablet, false)
+        .processRowByRow(
+            (row, collector) -> {
+              if (row.getTime() % INTERVAL != 0) {
+                return;
+              }
+              for (int i = 0, size = row.size(); i < size; ++i) {
+                if (!row.isNull(i)) {
+                  try {
+                    collector.collectRow(row);
+                  } catch (final IOException e) {
+                    throw new RuntimeException(e);
+                  }
+                  selected.incrementAndGet();
+                  break;
+                }
+              }
+            })
+        .forEach(event -> {});
+    return selected.get();
+  }
+
+  private static int sampleColumnar(final Tablet tablet) {
+    final AtomicInteger selected = new AtomicInteger();
+    new PipeRawTabletInsertionEvent(tablet, false)
+        .processColumnBatch(
+            (batch, collector) -> {
+              final long[] times = batch.getTimes();
+              final int[] selectedRows = new int[batch.getRowCount()];
+              int selectedCount = 0;
+              for (int rowIndex = 0; rowIndex < batch.getRowCount(); ++rowIndex) {
+                if (times[rowIndex] % INTERVAL == 0) {
+                  for (int i = 0; i < batch.getColumnCount(); ++i) {
+                    if (!batch.isNull(rowIndex, i)) {
+                      selectedRows[selectedCount++] = rowIndex;
+                      break;
+                    }
+                  }
+                }
+              }
+              try {
+                collector.collectRows(batch, selectedRows, selectedCount);
+              } catch (final IOException e) {
+                throw new RuntimeException(e);
+              }
+              selected.addAndGet(selectedCount);
+            })
+        .forEach(event -> {});
+    return selected.get();
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.event;
+
+import org.apache.iotdb.db.pipe.event.common.tablet.PipeRawTabletInsertionEvent;
+import org.apache.iotdb.pipe.api.event.dml.insertion.TabletInsertionEvent;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.BitMap;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PipeColumnBatchTest {
+
+  private static final int ROW_COUNT = 1_000;
+  private static final int COLUMN_COUNT = 8;
+
+  @Test
+  public void testCollectRows() {
+    final Tablet tablet = generateTablet(10);
+    final List<TabletInsertionEvent> events = new ArrayList<>();
+    new PipeRawTabletInsertionEvent(tablet, false)
+        .processColumnBatch(
+            (batch, collector) -> {
+              Assert.assertEquals(10, batch.getRowCount());
+              Assert.assertEquals(COLUMN_COUNT, batch.getColumnCount());
+              Assert.assertTrue(batch.mayHaveNull(0));
+              Assert.assertFalse(batch.mayHaveNull(1));
+
+              // Keep the odd rows and discard the values of the second column in row 3
+              final BitMap[] discardedValues = new BitMap[COLUMN_COUNT];
+              discardedValues[1] = new BitMap(batch.getRowCount());
+              discardedValues[1].mark(3);
+              try {
+                collector.collectRows(batch, new int[] {1, 3, 5, 7, 9}, 5, discardedValues);
+              } catch (final IOException e) {
+                throw new RuntimeException(e);
+              }
+            })
+        .forEach(events::add);
+
+    Assert.assertEquals(1, events.size());
+    final Tablet result = ((PipeRawTabletInsertionEvent) events.get(0)).convertToTablet();
+    Assert.assertEquals(5, result.getRowSize());
+    for (int i = 0; i < 5; ++i) {
+      Assert.assertEquals(2L * i + 1, result.getTimestamp(i));
+      Assert.assertEquals(2.0 * i + 1, ((double[]) result.getValues()[1])[i], 0);
+    }
+    // Row 3 of the first column is null in the source, and row 3 of the second is discarded
+    Assert.assertTrue(result.getBitMaps()[0].isMarked(1));
+    Assert.assertTrue(result.getBitMaps()[1].isMarked(1));
+    Assert.assertFalse(result.getBitMaps()[1].isMarked(0));
+  }
+
+  @Test
+  public void testRowAndColumnarCollectSameRows() {
+    final Tablet tablet = generateTablet(ROW_COUNT);
+    final long interval = 10;
+
+    final List<TabletInsertionEvent> rowEvents = new ArrayList<>();
+    new PipeRawTabletInsertionEvent(tablet, false)
+        .processRowByRow(
+            (row, collector) -> {
+              if (row.getTime() % interval != 0) {
+                return;
+              }
+              for (int i = 0, size = row.size(); i < size; ++i) {
+                if (!row.isNull(i)) {
+                  try {
+                    collector.collectRow(row);
+                  } catch (final IOException e) {
+                    throw new RuntimeException(e);
+                  }
+                  break;
+                }
+              }
+            })
+        .forEach(rowEvents::add);
+
+    final List<TabletInsertionEvent> columnarEvents = new ArrayList<>();
+    new PipeRawTabletInsertionEvent(tablet, false)
+        .processColumnBatch(
+            (batch, collector) -> {
+              final long[] times = batch.getTimes();
+              final int[] selected = new int[batch.getRowCount()];
+              int selectedCount = 0;
+              for (int rowIndex = 0; rowIndex < batch.getRowCount(); ++rowIndex) {
+                if (times[rowIndex] % interval == 0) {
+                  for (int i = 0; i < batch.getColumnCount(); ++i) {
+                    if (!batch.isNull(rowIndex, i)) {
+                      selected[selectedCount++] = rowIndex;
+                      break;
+                    }
+                  }
+                }
+              }
+              try {
+                collector.collectRows(batch, selected, selectedCount);
+              } catch (final IOException e) {
+                throw new RuntimeException(e);
+              }
+            })
+        .forEach(columnarEvents::add);
+
+    final List<String> rows = toRows(rowEvents);
+    Assert.assertEquals(ROW_COUNT / interval, rows.size());
+    Assert.assertEquals(rows, toRows(columnarEvents));
+  }
+
+  /** Flatten the collected tablets to rows of "time,value or null,..." for comparison. */
+  private static List<String> toRows(final List<TabletInsertionEvent> events) {
+    final List<String> rows = new ArrayList<>();
+    for (final TabletInsertionEvent event : events) {
+      final Tablet tablet = ((PipeRawTabletInsertionEvent) event).convertToTablet();
+      for (int rowIndex = 0; rowIndex < tablet.getRowSize(); ++rowIndex) {
+        final StringBuilder row = new StringBuilder().append(tablet.getTimestamp(rowIndex));
+        for (int i = 0; i < COLUMN_COUNT; ++i) {
+          final BitMap bitMap = tablet.getBitMaps() == null ? null : tablet.getBitMaps()[i];
+          row.append(',')
+              .append(
+                  bitMap != null && bitMap.isMarked(rowIndex)
+                      ? "null"
+                      : String.valueOf(((double[]) tablet.getValues()[i])[rowIndex]));
+        }
+        rows.add(row.toString());
+      }
+    }
+    return rows;
+  }
+
+  static Tablet generateTablet(final int rowCount) {
+    final List<IMeasurementSchema> schemas = new ArrayList<>();
+    final Object[] values = new Object[COLUMN_COUNT];
+    final BitMap[] bitMaps = new BitMap[COLUMN_COUNT];
+    for (int i = 0; i < COLUMN_COUNT; ++i) {
+      schemas.add(new MeasurementSchema("s" + i, TSDataType.DOUBLE));
+      final double[] column = new double[rowCount];
+      for (int rowIndex = 0; rowIndex < rowCount; ++rowIndex) {
+        column[rowIndex] = rowIndex;
+      }
+      values[i] = column;
+      bitMaps[i] = new BitMap(rowCount);
+    }
+    // Only the first column has null values
+    for (int rowIndex = 3; rowIndex < rowCount; rowIndex += 7) {
+      bitMaps[0].mark(rowIndex);
+    }
+
+    final long[] times = new long[rowCount];
+    for (int rowIndex = 0; rowIndex < rowCount; ++rowIndex) {
+      times[rowIndex] = rowIndex;
+    }
+    return new Tablet("root.sg.d1", schemas, times, values, bitMaps, rowCount);
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.event.common.tsfile.rewriter;
+
+import org.apache.iotdb.commons.pipe.datastructure.pattern.IoTDBTreePattern;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.PrefixTreePattern;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.TreePattern;
+import org.apache.iotdb.db.pipe.event.common.tsfile.aggregator.TsFileInsertionPointCounter;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.utils.TsFileGeneratorUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class TsFileChunkRewriterTest {
+
+  private static final int DEVICE_NUMBER = 2;
+  private static final int MEASUREMENT_NUMBER = 3;
+  private static final int ROW_NUMBER_IN_ONE_DEVICE = 1000;
+  private static final long TSFILE_START_TIME = 0L;
+
+  private File sourceTsFile;
+  private File targetTsFile;
+
+  @After
+  public void tearDown() {
+    if (Objects.nonNull(sourceTsFile)) {
+      sourceTsFile.delete();
+    }
+    if (Objects.nonNull(targetTsFile)) {
+      targetTsFile.delete();
+    }
+  }
+
+  @Test
+  public void testRewriteNonAlignedWithTimeRange() throws Exception {
+    sourceTsFile = generateTsFile(false);
+
+    // Chunks are cut every 100 points, so both bounds straddle a chunk
+    final long startTime = 150;
+    final long endTime = 649;
+    assertRewrite(new PrefixTreePattern("root"), startTime, endTime, true, true);
+    assertTimeRange(startTime, endTime);
+    Assert.assertEquals(
+        (long) DEVICE_NUMBER * MEASUREMENT_NUMBER * (endTime - startTime + 1), countPoints());
+  }
+
+  @Test
+  public void testRewriteNonAlignedWithPattern() throws Exception {
+    sourceTsFile = generateTsFile(false);
+
+    assertRewrite(
+        new IoTDBTreePattern("root.testsg.*.s0"), Long.MIN_VALUE, Long.MAX_VALUE, true, false);
+    Assert.assertEquals((long) DEVICE_NUMBER * ROW_NUMBER_IN_ONE_DEVICE, countPoints());
+  }
+
+  @Test
+  public void testRewriteAlignedWithTimeRange() throws Exception {
+    sourceTsFile = generateTsFile(true);
+
+    final long startTime = 150;
+    final long endTime = 649;
+    assertRewrite(new PrefixTreePattern("root"), startTime, endTime, true, true);
+    assertTimeRange(startTime, endTime);
+  }
+
+  @Test
+  public void testRewriteAlignedWithoutFiltering() throws Exception {
+    sourceTsFile = generateTsFile(true);
+
+    assertRewrite(null, Long.MIN_VALUE, Long.MAX_VALUE, true, false);
+    try (final TsFileInsertionPointCounter counter =
+        new TsFileInsertionPointCounter(sourceTsFile, null)) {
+      Assert.assertEquals(counter.count(), countPoints());
+    }
+  }
+
+  @Test
+  public void testRewriteWithNothingMatched() throws Exception {
+    sourceTsFile = generateTsFile(false);
+    targetTsFile = new File(sourceTsFile.getParentFile(), "rw_" + sourceTsFile.getName());
+
+    try (final TsFileChunkRewriter rewriter =
+        new TsFileChunkRewriter(
+            sourceTsFile,
+            new PrefixTreePattern("root.nonexistent"),
+            null,
+            false,
+            Long.MIN_VALUE,
+            Long.MAX_VALUE)) {
+      Assert.assertTrue(rewriter.rewriteTo(targetTsFile));
+      Assert.assertTrue(rewriter.isEmpty());
+    }
+  }
+
+  private File generateTsFile(final boolean isAligned) throws Exception {
+    return isAligned
+        ? TsFileGeneratorUtils.generateAlignedTsFile(
+            "aligned.tsfile",
+            DEVICE_NUMBER,
+            MEASUREMENT_NUMBER,
+            ROW_NUMBER_IN_ONE_DEVICE,
+            TSFILE_START_TIME,
+            10000,
+            100,
+            50)
+        : TsFileGeneratorUtils.generateNonAlignedTsFile(
+            "nonaligned.tsfile",
+            DEVICE_NUMBER,
+            MEASUREMENT_NUMBER,
+            ROW_NUMBER_IN_ONE_DEVICE,
+            TSFILE_START_TIME,
+            10000,
+            100,
+            50);
+  }
+
+  private void assertRewrite(
+      final TreePattern pattern,
+      final long startTime,
+      final long endTime,
+      final boolean shouldCopy,
+      final boolean shouldDecode)
+      throws Exception {
+    targetTsFile = new File(sourceTsFile.getParentFile(), "rw_" + sourceTsFile.getName());
+
+    try (final TsFileChunkRewriter rewriter =
+        new TsFileChunkRewriter(sourceTsFile, pattern, null, false, startTime, endTime)) {
+      Assert.assertTrue(rewriter.rewriteTo(targetTsFile));
+      Assert.assertFalse(rewriter.isEmpty());
+      Assert.assertEquals(shouldCopy, rewriter.getCopiedChunkNum() > 0);
+      Assert.assertEquals(shouldDecode, rewriter.getDecodedChunkNum() > 0);
+    }
+    Assert.assertTrue(targetTsFile.exists());
+  }
+
+  private void assertTimeRange(final long startTime, final long endTime) throws Exception {
+    try (final TsFileSequenceReader reader =
+        new TsFileSequenceReader(targetTsFile.getPath(), true, true)) {
+      for (final Map.Entry<IDeviceID, List<TimeseriesMetadata>> entry :
+          reader.getAllTimeseriesMetadata(false).entrySet()) {
+        for (final TimeseriesMetadata timeseriesMetadata : entry.getValue()) {
+          Assert.assertEquals(startTime, timeseriesMetadata.getStatistics().getStartTime());
+          Assert.assertEquals(endTime, timeseriesMetadata.getStatistics().getEndTime());
+        }
+      }
+    }
+  }
+
+  private long countPoints() throws Exception {
+    try (final TsFileInsertionPointCounter counter =
+        new TsFileInsertionPointCounter(targetTsFile, null)) {
+      return counter.count();
+    }
+  }
+}
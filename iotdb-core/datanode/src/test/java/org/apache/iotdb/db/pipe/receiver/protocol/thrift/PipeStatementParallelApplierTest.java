@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.receiver.protocol.thrift;
+
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertBaseStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowsStatement;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class PipeStatementParallelApplierTest {
+
+  private static final int DEVICE_NUM = 16;
+  private static final int ROW_NUM_PER_DEVICE = 10;
+
+  private int originalMaxParallelism;
+
+  @Before
+  public void setUp() {
+    originalMaxParallelism =
+        CommonDescriptor.getInstance().getConfig().getPipeReceiverParallelApplyMaxParallelism();
+    CommonDescriptor.getInstance().getConfig().setPipeReceiverParallelApplyMaxParallelism(4);
+  }
+
+  @After
+  public void tearDown() {
+    CommonDescriptor.getInstance()
+        .getConfig()
+        .setPipeReceiverParallelApplyMaxParallelism(originalMaxParallelism);
+  }
+
+  @Test
+  public void testPartitionPreservesDeviceOrder() throws IllegalPathException {
+    final List<List<InsertBaseStatement>> lanes =
+        PipeStatementParallelApplier.getInstance()
+            .partition(Collections.singletonList(generateInsertRowsStatement()), 4);
+    Assert.assertTrue(lanes.size() > 1 && lanes.size() <= 4);
+
+    final Map<String, Integer> device2Lane = new HashMap<>();
+    final Map<String, Long> device2LastTime = new HashMap<>();
+    int rowNum = 0;
+    for (int i = 0; i < lanes.size(); ++i) {
+      final int lane = i;
+      for (final InsertBaseStatement statement : lanes.get(i)) {
+        for (final InsertRowStatement row :
+            ((InsertRowsStatement) statement).getInsertRowStatementList()) {
+          final String device = row.getDevicePath().getFullPath();
+          // All the rows of a device are in the same lane
+          Assert.assertEquals(lane, (int) device2Lane.computeIfAbsent(device, k -> lane));
+          Assert.assertTrue(device2LastTime.getOrDefault(device, -1L) < row.getTime());
+          device2LastTime.put(device, row.getTime());
+          ++rowNum;
+        }
+      }
+    }
+    Assert.assertEquals(DEVICE_NUM, device2Lane.size());
+    Assert.assertEquals(DEVICE_NUM * ROW_NUM_PER_DEVICE, rowNum);
+  }
+
+  @Test
+  public void testApplyAndAdaptParallelism() throws IllegalPathException {
+    final PipeStatementParallelApplier applier = PipeStatementParallelApplier.getInstance();
+    final Map<String, List<Long>> appliedTimes = new ConcurrentHashMap<>();
+
+    // Rejected writes halve the parallelism
+    final List<TSStatus> rejectedStatuses =
+        applier.apply(
+            Collections.singletonList(generateInsertRowsStatement()),
+            statement -> RpcUtils.getStatus(TSStatusCode.WRITE_PROCESS_REJECT));
+    Assert.assertFalse(rejectedStatuses.isEmpty());
+    Assert.assertTrue(applier.getCurrentParallelism() <= 2);
+
+    final List<TSStatus> statuses =
+        applier.apply(
+            Collections.singletonList(generateInsertRowsStatement()),
+            statement -> {
+              for (final InsertRowStatement row :
+                  ((InsertRowsStatement) statement).getInsertRowStatementList()) {
+                appliedTimes
+                    .computeIfAbsent(
+                        row.getDevicePath().getFullPath(),
+                        k -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(row.getTime());
+              }
+              return RpcUtils.SUCCESS_STATUS;
+            });
+    Assert.assertTrue(
+        statuses.stream()
+            .allMatch(status -> status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()));
+    Assert.assertEquals(DEVICE_NUM, appliedTimes.size());
+    for (final List<Long> times : appliedTimes.values()) {
+      Assert.assertEquals(ROW_NUM_PER_DEVICE, times.size());
+      for (int i = 0; i < times.size(); ++i) {
+        Assert.assertEquals(i, (long) times.get(i));
+      }
+    }
+  }
+
+  private static InsertRowsStatement generateInsertRowsStatement() throws IllegalPathException {
+    final List<InsertRowStatement> rows = new ArrayList<>();
+    for (int time = 0; time < ROW_NUM_PER_DEVICE; ++time) {
+      for (int device = 0; device < DEVICE_NUM; ++device) {
+        final InsertRowStatement row = new InsertRowStatement();
+        row.setDevicePath(new PartialPath("root.sg.d" + device));
+        row.setTime(time);
+        rows.add(row);
+      }
+    }
+    final InsertRowsStatement statement = new InsertRowsStatement();
+    statement.setInsertRowStatementList(rows);
+    return statement;
+  }
+}
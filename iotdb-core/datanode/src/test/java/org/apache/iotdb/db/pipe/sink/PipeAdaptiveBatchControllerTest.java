@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.sink;
+
+import org.apache.iotdb.db.pipe.sink.payload.evolvable.batch.PipeAdaptiveBatchController;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class PipeAdaptiveBatchControllerTest {
+
+  private static final long MB = 1024 * 1024L;
+
+  @Test
+  public void testAdjustByFeedback() {
+    final PipeAdaptiveBatchController controller =
+        new PipeAdaptiveBatchController(1000, MB, 16 * MB, 10, 16);
+    Assert.assertEquals(MB, controller.getBatchSizeInBytes());
+    Assert.assertEquals(10, controller.getLingerInMs());
+    Assert.assertEquals(16, controller.getConcurrentTransfers());
+
+    // The batches are served for free, so the largest batches are chosen
+    for (int i = 0; i < 10; ++i) {
+      controller.onBatchTransferred(MB, MB, TimeUnit.MILLISECONDS.toNanos(50));
+    }
+    Assert.assertEquals(16 * MB, controller.getBatchSizeInBytes());
+    Assert.assertEquals(225, controller.getLingerInMs());
+    Assert.assertEquals(16, controller.getConcurrentTransfers());
+
+    // 200ms per compressed MB with RTT 50ms, the batch size is 225ms / 200ms * 1MB under the SLO
+    for (int i = 0; i < 100; ++i) {
+      controller.onBatchTransferred(MB, MB, TimeUnit.MILLISECONDS.toNanos(250));
+    }
+    Assert.assertEquals(1.125 * MB, controller.getBatchSizeInBytes(), 0.01 * MB);
+    Assert.assertEquals(225, controller.getLingerInMs());
+    Assert.assertEquals(2, controller.getConcurrentTransfers());
+
+    final long batchSizeBeforeFailure = controller.getBatchSizeInBytes();
+    controller.onBatchFailed();
+    Assert.assertEquals(batchSizeBeforeFailure / 2, controller.getBatchSizeInBytes());
+    Assert.assertEquals(1, controller.getConcurrentTransfers());
+  }
+
+  @Test
+  public void testSloExceededByRtt() {
+    final PipeAdaptiveBatchController controller =
+        new PipeAdaptiveBatchController(100, MB, 16 * MB, 10, 8);
+    controller.onBatchTransferred(MB, MB / 2, TimeUnit.MILLISECONDS.toNanos(80));
+    Assert.assertEquals(16 * 1024L, controller.getBatchSizeInBytes());
+    Assert.assertEquals(1, controller.getLingerInMs());
+    Assert.assertEquals(8, controller.getConcurrentTransfers());
+  }
+
+  @Test(timeout = 10000)
+  public void testTransferSlot() throws InterruptedException {
+    final PipeAdaptiveBatchController controller =
+        new PipeAdaptiveBatchController(60000, MB, 16 * MB, 10, 2);
+    controller.onBatchFailed();
+    Assert.assertEquals(1, controller.getConcurrentTransfers());
+
+    Assert.assertTrue(controller.acquireTransferSlot());
+
+    final CountDownLatch acquired = new CountDownLatch(1);
+    final Thread thread =
+        new Thread(
+            () -> {
+              controller.acquireTransferSlot();
+              acquired.countDown();
+            });
+    thread.start();
+    Assert.assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+
+    controller.releaseTransferSlot();
+    Assert.assertTrue(acquired.await(5, TimeUnit.SECONDS));
+    thread.join();
+  }
+
+  @Test(timeout = 10000)
+  public void testTransferSlotTimeout() {
+    final PipeAdaptiveBatchController controller =
+        new PipeAdaptiveBatchController(100, MB, 16 * MB, 10, 1);
+    Assert.assertTrue(controller.acquireTransferSlot());
+
+    // The slot is taken beyond the concurrency after waiting for the SLO
+    final long startTime = System.currentTimeMillis();
+    Assert.assertFalse(controller.acquireTransferSlot());
+    Assert.assertTrue(System.currentTimeMillis() - startTime >= 90);
+
+    controller.releaseTransferSlot();
+    controller.releaseTransferSlot();
+    Assert.assertTrue(controller.acquireTransferSlot());
+  }
+}
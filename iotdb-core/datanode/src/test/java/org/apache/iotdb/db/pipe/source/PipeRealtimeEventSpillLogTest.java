@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.source;
+
+import org.apache.iotdb.db.pipe.source.dataregion.realtime.spill.PipeRealtimeEventSpillLog;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PipeRealtimeEventSpillLogTest {
+
+  private static final int ENTRY_SIZE = 1024 * 1024;
+
+  private File dir;
+
+  @Before
+  public void setUp() throws IOException {
+    dir = new File(Files.createTempDirectory("pipe-spill").toFile(), "log");
+  }
+
+  @After
+  public void tearDown() {
+    final File parent = dir.getParentFile();
+    Assert.assertFalse(dir.exists());
+    Assert.assertTrue(parent.delete());
+  }
+
+  @Test
+  public void testAppendReadAndRelease() throws IOException {
+    try (final PipeRealtimeEventSpillLog log =
+        new PipeRealtimeEventSpillLog(dir, 20L * ENTRY_SIZE)) {
+      final List<PipeRealtimeEventSpillLog.Entry> entries = new ArrayList<>();
+      PipeRealtimeEventSpillLog.Entry entry;
+      while ((entry = log.append(generateBuffer(entries.size()))) != null) {
+        entries.add(entry);
+      }
+      // The log is bounded
+      Assert.assertEquals(20, entries.size());
+      Assert.assertEquals(20L * ENTRY_SIZE, log.getTotalSizeInBytes());
+      Assert.assertTrue(dir.list().length > 1);
+
+      // Replayed in order
+      for (int i = 0; i < entries.size(); ++i) {
+        Assert.assertEquals(generateBuffer(i), log.read(entries.get(i)));
+        log.release(entries.get(i));
+      }
+
+      // The sealed segments are deleted and the writing one is reused
+      Assert.assertEquals(0, log.getTotalSizeInBytes());
+      Assert.assertEquals(1, dir.list().length);
+      entry = log.append(generateBuffer(0));
+      Assert.assertNotNull(entry);
+      Assert.assertEquals(generateBuffer(0), log.read(entry));
+    }
+  }
+
+  private static ByteBuffer generateBuffer(final int seed) {
+    final ByteBuffer buffer = ByteBuffer.allocate(ENTRY_SIZE);
+    for (int i = 0; i < ENTRY_SIZE; ++i) {
+      buffer.put((byte) (seed + i));
+    }
+    buffer.flip();
+    return buffer;
+  }
+}
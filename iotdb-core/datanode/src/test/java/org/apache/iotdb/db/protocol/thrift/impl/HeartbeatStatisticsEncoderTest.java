@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.thrift.impl;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.mpp.rpc.thrift.TDataNodeHeartbeatReq;
+import org.apache.iotdb.mpp.rpc.thrift.TDataNodeHeartbeatResp;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class HeartbeatStatisticsEncoderTest {
+
+  private static final TConsensusGroupId REGION_1 =
+      new TConsensusGroupId(TConsensusGroupType.DataRegion, 1);
+  private static final TConsensusGroupId REGION_2 =
+      new TConsensusGroupId(TConsensusGroupType.DataRegion, 2);
+
+  @Test
+  public void encodeTest() {
+    HeartbeatStatisticsEncoder encoder = new HeartbeatStatisticsEncoder();
+
+    // The ConfigNode doesn't know the version, send the full statistics
+    Map<TConsensusGroupId, Boolean> judgedLeaders = new HashMap<>();
+    judgedLeaders.put(REGION_1, true);
+    judgedLeaders.put(REGION_2, false);
+    TDataNodeHeartbeatResp resp = newResp(judgedLeaders);
+    encoder.encode(new TDataNodeHeartbeatReq(), resp);
+    Assert.assertEquals(1, resp.getStatisticsVersion());
+    Assert.assertFalse(resp.isSetStatisticsBaseVersion());
+    Assert.assertEquals(judgedLeaders, resp.getJudgedLeaders());
+
+    // The ConfigNode has applied the last response, send the changed statistics
+    judgedLeaders.remove(REGION_1);
+    judgedLeaders.put(REGION_2, true);
+    resp = newResp(judgedLeaders);
+    encoder.encode(new TDataNodeHeartbeatReq().setStatisticsVersion(1), resp);
+    Assert.assertEquals(2, resp.getStatisticsVersion());
+    Assert.assertEquals(1, resp.getStatisticsBaseVersion());
+    Assert.assertEquals(Collections.singletonMap(REGION_2, true), resp.getJudgedLeaders());
+    Assert.assertEquals(Collections.singletonList(REGION_1), resp.getRemovedStatisticsRegions());
+
+    // Nothing changed
+    resp = newResp(judgedLeaders);
+    encoder.encode(new TDataNodeHeartbeatReq().setStatisticsVersion(2), resp);
+    Assert.assertTrue(resp.getJudgedLeaders().isEmpty());
+
+    // The ConfigNode missed the last response, send the full statistics
+    resp = newResp(judgedLeaders);
+    encoder.encode(new TDataNodeHeartbeatReq().setStatisticsVersion(2), resp);
+    Assert.assertEquals(4, resp.getStatisticsVersion());
+    Assert.assertFalse(resp.isSetStatisticsBaseVersion());
+    Assert.assertEquals(judgedLeaders, resp.getJudgedLeaders());
+  }
+
+  @Test
+  public void rawDataSizeAlwaysFullTest() {
+    HeartbeatStatisticsEncoder encoder = new HeartbeatStatisticsEncoder();
+    Map<Integer, Long> rawDataSize = new HashMap<>();
+    rawDataSize.put(1, 100L);
+    rawDataSize.put(2, 200L);
+
+    TDataNodeHeartbeatResp resp = newResp(Collections.emptyMap());
+    resp.setDataRegionRawDataSize(new HashMap<>(rawDataSize));
+    encoder.encode(new TDataNodeHeartbeatReq(), resp);
+    Assert.assertEquals(rawDataSize, resp.getDataRegionRawDataSize());
+
+    // The raw data size is only sampled in some heartbeats, whose responses may be lost, so it's
+    // sent in full even if the other statistics are sent as the delta
+    encoder.encode(
+        new TDataNodeHeartbeatReq().setStatisticsVersion(1), newResp(Collections.emptyMap()));
+    rawDataSize.put(1, 150L);
+    resp = newResp(Collections.emptyMap());
+    resp.setDataRegionRawDataSize(new HashMap<>(rawDataSize));
+    encoder.encode(new TDataNodeHeartbeatReq().setStatisticsVersion(2), resp);
+    Assert.assertEquals(2, resp.getStatisticsBaseVersion());
+    Assert.assertEquals(rawDataSize, resp.getDataRegionRawDataSize());
+  }
+
+  private static TDataNodeHeartbeatResp newResp(Map<TConsensusGroupId, Boolean> judgedLeaders) {
+    TDataNodeHeartbeatResp resp = new TDataNodeHeartbeatResp();
+    resp.setJudgedLeaders(new HashMap<>(judgedLeaders));
+    return resp;
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.memory;
+
+import org.apache.iotdb.commons.exception.IoTDBRuntimeException;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.fragment.DataNodeQueryContext;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class QueryAdmissionControllerTest {
+
+  private static final QueryId QUERY_ID = new QueryId("query");
+
+  private final AtomicLong freeMemory = new AtomicLong(100);
+  private final List<Long> waitTimes = new ArrayList<>();
+
+  private final QueryAdmissionController controller =
+      new QueryAdmissionController(true, freeMemory::get, 100, waitTimes::add);
+
+  @Test
+  public void testAdmitWhenEstimateFits() {
+    DataNodeQueryContext queryContext = new DataNodeQueryContext(2);
+    controller.admit(QUERY_ID, queryContext, 30);
+    // the memory of the second fragment instance is kept aside for the query
+    Assert.assertEquals(30, queryContext.getAdmittedMemoryNotPlanned());
+    Assert.assertEquals(30, controller.getAdmittedMemoryNotPlanned());
+    Assert.assertEquals(1, controller.getAdmittedCount());
+
+    controller.admit(QUERY_ID, queryContext, 30);
+    Assert.assertEquals(0, queryContext.getAdmittedMemoryNotPlanned());
+    Assert.assertEquals(0, controller.getAdmittedMemoryNotPlanned());
+    // the query is admitted only once
+    Assert.assertEquals(1, controller.getAdmittedCount());
+  }
+
+  @Test
+  public void testRejectFast() {
+    freeMemory.set(50);
+    DataNodeQueryContext queryContext = new DataNodeQueryContext(2);
+    try {
+      controller.admit(QUERY_ID, queryContext, 30);
+      Assert.fail();
+    } catch (IoTDBRuntimeException e) {
+      Assert.assertEquals(
+          TSStatusCode.TOO_MANY_CONCURRENT_QUERIES_ERROR.getStatusCode(), e.getErrorCode());
+    }
+    Assert.assertEquals(-1, queryContext.getAdmittedMemoryNotPlanned());
+    Assert.assertEquals(0, controller.getAdmittedMemoryNotPlanned());
+    Assert.assertEquals(1, controller.getRejectedCount());
+    Assert.assertEquals(0, controller.getAdmittedCount());
+  }
+
+  @Test
+  public void testAdmittedQueryIsNeverRejected() {
+    DataNodeQueryContext admitted = new DataNodeQueryContext(3);
+    controller.admit(QUERY_ID, admitted, 30);
+    Assert.assertEquals(60, controller.getAdmittedMemoryNotPlanned());
+
+    // the planner has reserved the memory of the first fragment instance
+    freeMemory.set(70);
+    DataNodeQueryContext newQuery = new DataNodeQueryContext(1);
+    try {
+      controller.admit(new QueryId("new"), newQuery, 20);
+      Assert.fail();
+    } catch (IoTDBRuntimeException e) {
+      Assert.assertEquals(
+          TSStatusCode.TOO_MANY_CONCURRENT_QUERIES_ERROR.getStatusCode(), e.getErrorCode());
+    }
+
+    // even if the estimate of the later fragment instances exceeds the free memory
+    freeMemory.set(10);
+    controller.admit(QUERY_ID, admitted, 40);
+    controller.admit(QUERY_ID, admitted, 40);
+    Assert.assertEquals(0, admitted.getAdmittedMemoryNotPlanned());
+    Assert.assertEquals(0, controller.getAdmittedMemoryNotPlanned());
+    Assert.assertEquals(1, controller.getAdmittedCount());
+    Assert.assertEquals(1, controller.getRejectedCount());
+  }
+
+  @Test
+  public void testEstimateIsCappedByTotalMemory() {
+    DataNodeQueryContext queryContext = new DataNodeQueryContext(10);
+    controller.admit(QUERY_ID, queryContext, 40);
+    Assert.assertEquals(60, controller.getAdmittedMemoryNotPlanned());
+  }
+
+  @Test
+  public void testHighestPriorityIsAlwaysAdmitted() {
+    freeMemory.set(0);
+    DataNodeQueryContext queryContext = new DataNodeQueryContext(1);
+    queryContext.setHighestPriority(true);
+    controller.admit(QUERY_ID, queryContext, 50);
+    Assert.assertEquals(1, controller.getAdmittedCount());
+    Assert.assertEquals(0, controller.getRejectedCount());
+  }
+
+  @Test
+  public void testReleaseMemoryNotPlanned() {
+    DataNodeQueryContext queryContext = new DataNodeQueryContext(4);
+    controller.admit(QUERY_ID, queryContext, 20);
+    controller.admit(QUERY_ID, queryContext, 20);
+    Assert.assertEquals(40, controller.getAdmittedMemoryNotPlanned());
+
+    // the query finishes before its other fragment instances are planned
+    controller.release(queryContext);
+    Assert.assertEquals(0, queryContext.getAdmittedMemoryNotPlanned());
+    Assert.assertEquals(0, controller.getAdmittedMemoryNotPlanned());
+
+    DataNodeQueryContext newQuery = new DataNodeQueryContext(1);
+    controller.admit(new QueryId("new"), newQuery, 100);
+    Assert.assertEquals(2, controller.getAdmittedCount());
+  }
+
+  @Test
+  public void testQueueOfRejectedQueries() {
+    freeMemory.set(50);
+    QueryId rejected = new QueryId("rejected");
+    for (int i = 0; i < 2; i++) {
+      try {
+        controller.admit(rejected, new DataNodeQueryContext(2), 30);
+        Assert.fail();
+      } catch (IoTDBRuntimeException e) {
+        Assert.assertEquals(
+            TSStatusCode.TOO_MANY_CONCURRENT_QUERIES_ERROR.getStatusCode(), e.getErrorCode());
+      }
+    }
+    // the retries of the same query are queued once
+    Assert.assertEquals(1, controller.getQueueSize());
+    Assert.assertTrue(waitTimes.isEmpty());
+
+    freeMemory.set(100);
+    controller.admit(rejected, new DataNodeQueryContext(2), 30);
+    Assert.assertEquals(0, controller.getQueueSize());
+    Assert.assertEquals(1, waitTimes.size());
+    Assert.assertTrue(waitTimes.get(0) >= 0);
+
+    // the rejected query is forgotten after its timeout if it is never retried
+    freeMemory.set(0);
+    DataNodeQueryContext queryContext = new DataNodeQueryContext(1);
+    queryContext.setTimeoutInMs(0);
+    try {
+      controller.admit(new QueryId("abandoned"), queryContext, 30);
+      Assert.fail();
+    } catch (IoTDBRuntimeException e) {
+      Assert.assertEquals(1, controller.getQueueSize());
+    }
+    controller.releaseExpired(System.currentTimeMillis());
+    Assert.assertEquals(0, controller.getQueueSize());
+  }
+
+  @Test
+  public void testReleaseExpiredMemoryNotPlanned() {
+    DataNodeQueryContext expiring = new DataNodeQueryContext(2);
+    expiring.setTimeoutInMs(0);
+    controller.admit(new QueryId("expiring"), expiring, 20);
+    DataNodeQueryContext running = new DataNodeQueryContext(2);
+    controller.admit(new QueryId("running"), running, 30);
+    Assert.assertEquals(50, controller.getAdmittedMemoryNotPlanned());
+
+    // the other fragment instance of the expiring query is never dispatched
+    controller.releaseExpired(System.currentTimeMillis());
+    Assert.assertEquals(0, expiring.getAdmittedMemoryNotPlanned());
+    Assert.assertEquals(30, running.getAdmittedMemoryNotPlanned());
+    Assert.assertEquals(30, controller.getAdmittedMemoryNotPlanned());
+
+    // releasing the expired query again changes nothing
+    controller.release(expiring);
+    Assert.assertEquals(30, controller.getAdmittedMemoryNotPlanned());
+  }
+
+  @Test
+  public void testDisabled() {
+    QueryAdmissionController disabled =
+        new QueryAdmissionController(false, () -> 0, 100, waitTimes::add);
+    DataNodeQueryContext queryContext = new DataNodeQueryContext(2);
+    disabled.admit(QUERY_ID, queryContext, 100);
+    Assert.assertEquals(-1, queryContext.getAdmittedMemoryNotPlanned());
+    Assert.assertEquals(0, disabled.getAdmittedCount());
+    Assert.assertEquals(0, disabled.getRejectedCount());
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process.join.dynamicfilter;
+
+import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.AlignedDeviceEntry;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.DeviceEntry;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.file.metadata.StringArrayDeviceID;
+import org.apache.tsfile.utils.Binary;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class DynamicFilterTest {
+
+  @Test
+  public void testExactValues() {
+    DynamicFilter filter = new DynamicFilter(10);
+    // every value might match before the filter is published
+    Assert.assertFalse(filter.isPublished());
+    Assert.assertTrue(filter.mightContain(binary("d3")));
+    Assert.assertTrue(filter.mightContain(null));
+
+    filter.publish(values("d1", "d2"));
+    Assert.assertTrue(filter.isPublished());
+    Assert.assertTrue(filter.mightContain(binary("d1")));
+    Assert.assertTrue(filter.mightContain(binary("d2")));
+    Assert.assertFalse(filter.mightContain(binary("d3")));
+    Assert.assertFalse(filter.mightContain(null));
+  }
+
+  @Test
+  public void testBloomFilter() {
+    DynamicFilter filter = new DynamicFilter(2);
+    Set<Binary> values = new HashSet<>();
+    for (int i = 100; i < 200; i++) {
+      values.add(binary("d" + i));
+    }
+    filter.publish(values);
+    for (Binary value : values) {
+      Assert.assertTrue(filter.mightContain(value));
+    }
+    // out of the range of min and max
+    Assert.assertFalse(filter.mightContain(binary("d0")));
+    Assert.assertFalse(filter.mightContain(binary("e")));
+    Assert.assertFalse(filter.mightContain(null));
+  }
+
+  @Test
+  public void testEmptyBuildSide() {
+    DynamicFilter filter = new DynamicFilter(10);
+    filter.publish(new HashSet<>());
+    Assert.assertFalse(filter.mightContain(binary("d1")));
+  }
+
+  @Test
+  public void testDeviceDynamicFilter() {
+    DynamicFilter tagFilter = new DynamicFilter(10);
+    DynamicFilter attributeFilter = new DynamicFilter(10);
+    DeviceDynamicFilter deviceDynamicFilter =
+        new DeviceDynamicFilter(
+            Arrays.asList(
+                new DynamicFilterTarget(tagFilter, TsTableColumnCategory.TAG, 0),
+                new DynamicFilterTarget(attributeFilter, TsTableColumnCategory.ATTRIBUTE, 0)),
+            (deviceEntry, idColumnIndex) -> (String) deviceEntry.getNthSegment(idColumnIndex + 1));
+
+    DeviceEntry d1 = deviceEntry("d1", "beijing");
+    DeviceEntry d2 = deviceEntry("d2", "shanghai");
+    DeviceEntry d3 = deviceEntry("d3", null);
+    Assert.assertFalse(deviceDynamicFilter.canSkip(d1));
+    Assert.assertFalse(deviceDynamicFilter.canSkip(d2));
+
+    tagFilter.publish(values("d1", "d3"));
+    Assert.assertFalse(deviceDynamicFilter.canSkip(d1));
+    Assert.assertTrue(deviceDynamicFilter.canSkip(d2));
+    Assert.assertFalse(deviceDynamicFilter.canSkip(d3));
+
+    attributeFilter.publish(values("beijing"));
+    Assert.assertFalse(deviceDynamicFilter.canSkip(d1));
+    // NULL attribute never matches
+    Assert.assertTrue(deviceDynamicFilter.canSkip(d3));
+  }
+
+  private static DeviceEntry deviceEntry(String tag, String attribute) {
+    return new AlignedDeviceEntry(
+        new StringArrayDeviceID("table1", tag),
+        new Binary[] {attribute == null ? null : binary(attribute)});
+  }
+
+  private static Set<Binary> values(String... values) {
+    Set<Binary> result = new HashSet<>();
+    for (String value : values) {
+      result.add(binary(value));
+    }
+    return result;
+  }
+
+  private static Binary binary(String value) {
+    return new Binary(value, TSFileConfig.STRING_CHARSET);
+  }
+}
@@ -29,6 +29,7 @@ import org.apache.iotdb.commons.partition.DataPartition;
 import org.apache.iotdb.commons.partition.DataPartitionQueryParam;
 import org.apache.iotdb.commons.partition.SchemaPartition;
 import org.apache.iotdb.commons.partition.executor.SeriesPartitionExecutor;
+import org.apache.iotdb.confignode.rpc.thrift.TTimeSlotList;
 import org.apache.iotdb.db.auth.AuthorityChecker;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
@@ -53,6 +54,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class PartitionCacheTest {
@@ -450,6 +452,122 @@ public class PartitionCacheTest {
     }
   }
 
+  @Test
+  public void testInvalidDatabaseCache() {
+    final String invalidDatabase = getDatabaseName(0);
+    final String validDatabase = getDatabaseName(1);
+    final Map<String, Long> versions =
+        partitionCache.getPartitionVersions(Arrays.asList(invalidDatabase, validDatabase));
+
+    partitionCache.invalidDatabaseCache(invalidDatabase);
+    for (int deviceNumber = 0; deviceNumber < DEVICE_PER_STORAGE_GROUP; deviceNumber++) {
+      assertNull(
+          partitionCache.getDataPartition(
+              getStorageGroupToQueryParamsMap(
+                  invalidDatabase,
+                  Factory.DEFAULT_FACTORY.create(getDeviceName(invalidDatabase, deviceNumber)),
+                  false)));
+      assertNotNull(
+          partitionCache.getDataPartition(
+              getStorageGroupToQueryParamsMap(
+                  validDatabase,
+                  Factory.DEFAULT_FACTORY.create(getDeviceName(validDatabase, deviceNumber)),
+                  false)));
+    }
+    assertNull(partitionCache.getSchemaPartition(invalidDatabase));
+    assertNotNull(partitionCache.getSchemaPartition(validDatabase));
+
+    // The partitions fetched before the invalidation are stale, which should not be cached
+    partitionCache.updateDataPartitionCache(dataPartitionTable, versions);
+    partitionCache.updateSchemaPartitionCache(schemaPartitionTable, versions);
+    final IDeviceID deviceID = Factory.DEFAULT_FACTORY.create(getDeviceName(invalidDatabase, 0));
+    assertNull(
+        partitionCache.getDataPartition(
+            getStorageGroupToQueryParamsMap(invalidDatabase, deviceID, false)));
+    assertNull(partitionCache.getSchemaPartition(invalidDatabase));
+
+    // The partitions fetched after the invalidation are cached
+    partitionCache.updateDataPartitionCache(
+        dataPartitionTable,
+        partitionCache.getPartitionVersions(Collections.singletonList(invalidDatabase)));
+    assertNotNull(
+        partitionCache.getDataPartition(
+            getStorageGroupToQueryParamsMap(invalidDatabase, deviceID, false)));
+  }
+
+  @Test
+  public void testGetDataPartitionSlotsToPrefetch() {
+    final TTimePartitionSlot lastTimePartitionSlot =
+        new TTimePartitionSlot(TIME_PARTITION_PER_STORAGE_GROUP - 1);
+    final TTimePartitionSlot nextTimePartitionSlot =
+        new TTimePartitionSlot(TIME_PARTITION_PER_STORAGE_GROUP);
+    // The cached series slots are not prefetched if they are only read
+    assertTrue(
+        partitionCache
+            .getDataPartitionSlotsToPrefetch(lastTimePartitionSlot, nextTimePartitionSlot)
+            .isEmpty());
+
+    // Write the first device of each database in the current time partition, and the second one
+    // in the historical time partitions only
+    final Map<String, TSeriesPartitionSlot> writtenSeriesSlots = new HashMap<>();
+    for (int storageGroupNumber = 0;
+        storageGroupNumber < STORAGE_GROUP_NUMBER;
+        storageGroupNumber++) {
+      final String database = getDatabaseName(storageGroupNumber);
+      final IDeviceID writtenDevice = Factory.DEFAULT_FACTORY.create(getDeviceName(database, 0));
+      writtenSeriesSlots.put(database, partitionExecutor.getSeriesPartitionSlot(writtenDevice));
+      partitionCache.recordWrittenSeriesSlots(
+          getStorageGroupToQueryParamsMap(database, writtenDevice, false), lastTimePartitionSlot);
+      partitionCache.recordWrittenSeriesSlots(
+          Collections.singletonMap(
+              database,
+              Collections.singletonList(
+                  new DataPartitionQueryParam(
+                      Factory.DEFAULT_FACTORY.create(getDeviceName(database, 1)),
+                      Collections.singletonList(new TTimePartitionSlot(0))))),
+          lastTimePartitionSlot);
+    }
+    Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> slotsToPrefetch =
+        partitionCache.getDataPartitionSlotsToPrefetch(
+            lastTimePartitionSlot, nextTimePartitionSlot);
+    assertEquals(STORAGE_GROUP_NUMBER.intValue(), slotsToPrefetch.size());
+    for (final Map.Entry<String, Map<TSeriesPartitionSlot, TTimeSlotList>> entry :
+        slotsToPrefetch.entrySet()) {
+      assertEquals(
+          Collections.singleton(writtenSeriesSlots.get(entry.getKey())), entry.getValue().keySet());
+      for (final TTimeSlotList timeSlotList : entry.getValue().values()) {
+        assertEquals(
+            Collections.singletonList(nextTimePartitionSlot), timeSlotList.getTimePartitionSlots());
+      }
+    }
+
+    // The series slots whose next time partition has been cached are not prefetched
+    final String database = getDatabaseName(0);
+    final Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TConsensusGroupId>>>
+        nextPartitionTable = new HashMap<>();
+    for (final TSeriesPartitionSlot seriesPartitionSlot :
+        dataPartitionTable.get(database).keySet()) {
+      nextPartitionTable.put(
+          seriesPartitionSlot,
+          Collections.singletonMap(
+              nextTimePartitionSlot,
+              Collections.singletonList(new TConsensusGroupId(TConsensusGroupType.DataRegion, 1))));
+    }
+    partitionCache.updateDataPartitionCache(Collections.singletonMap(database, nextPartitionTable));
+    slotsToPrefetch =
+        partitionCache.getDataPartitionSlotsToPrefetch(
+            lastTimePartitionSlot, nextTimePartitionSlot);
+    assertEquals(STORAGE_GROUP_NUMBER - 1, slotsToPrefetch.size());
+    assertFalse(slotsToPrefetch.containsKey(database));
+
+    // The series slots written before the current time partition are forgotten
+    assertTrue(
+        partitionCache
+            .getDataPartitionSlotsToPrefetch(
+                nextTimePartitionSlot, new TTimePartitionSlot(TIME_PARTITION_PER_STORAGE_GROUP + 1))
+            .isEmpty());
+  }
+
   /**
    * get StorageGroupToQueryParamsMap
    *
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.analyze.schema;
+
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.path.PathPatternTree;
+import org.apache.iotdb.db.queryengine.common.schematree.ClusterSchemaTree;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class DeviceSchemaFetchBatcherTest {
+
+  // Long enough that the batches only wait for the fetches in flight
+  private static final long WINDOW_IN_MS = 60_000;
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  // The path patterns of each fetch
+  private final List<List<PartialPath>> fetchedPatterns = new CopyOnWriteArrayList<>();
+  private final CountDownLatch firstFetchStarted = new CountDownLatch(1);
+  private final CountDownLatch firstFetchReleased = new CountDownLatch(1);
+
+  @After
+  public void tearDown() {
+    firstFetchReleased.countDown();
+    executor.shutdownNow();
+  }
+
+  /** Blocks the first fetch until it's released, and fails the fetches of multiple series. */
+  private ClusterSchemaTree fetch(PathPatternTree patternTree, boolean failBatch)
+      throws InterruptedException {
+    patternTree.constructTree();
+    List<PartialPath> patterns = patternTree.getAllPathPatterns();
+    fetchedPatterns.add(patterns);
+    if (fetchedPatterns.size() == 1) {
+      firstFetchStarted.countDown();
+      firstFetchReleased.await();
+    }
+    if (failBatch && patterns.size() > 1) {
+      throw new IllegalStateException("fetch failed");
+    }
+    return new ClusterSchemaTree();
+  }
+
+  private DeviceSchemaFetchBatcher createBatcher(boolean failBatch) {
+    return new DeviceSchemaFetchBatcher(
+        WINDOW_IN_MS,
+        (patternTree, context) -> {
+          try {
+            return fetch(patternTree, failBatch);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+          }
+        });
+  }
+
+  private Future<ClusterSchemaTree> submitFetch(
+      DeviceSchemaFetchBatcher batcher, String device, String... measurements) {
+    return executor.submit(
+        () -> batcher.fetch(new PartialPath(device), Arrays.asList(measurements), null));
+  }
+
+  /** Start the first fetch and wait until it's in flight. */
+  private Future<ClusterSchemaTree> startFirstFetch(DeviceSchemaFetchBatcher batcher)
+      throws InterruptedException {
+    Future<ClusterSchemaTree> future = submitFetch(batcher, "root.sg.d0", "s1");
+    Assert.assertTrue(firstFetchStarted.await(1, TimeUnit.MINUTES));
+    return future;
+  }
+
+  private static void waitForBatchedSeries(DeviceSchemaFetchBatcher batcher, int seriesNum) {
+    while (batcher.getCurrentBatchSeriesNum() < seriesNum) {
+      Thread.yield();
+    }
+  }
+
+  @Test
+  public void testFetchAtOnceWithoutFetchInFlight() throws Exception {
+    DeviceSchemaFetchBatcher batcher = createBatcher(false);
+    firstFetchReleased.countDown();
+    // Doesn't wait for the window since no fetch is in flight
+    Assert.assertNotNull(
+        batcher.fetch(new PartialPath("root.sg.d0"), Collections.singletonList("s1"), null));
+    Assert.assertEquals(1, fetchedPatterns.size());
+    Assert.assertEquals(
+        Collections.singletonList(new PartialPath("root.sg.d0.s1")), fetchedPatterns.get(0));
+  }
+
+  @Test
+  public void testBatchFetchesWhileFetchInFlight() throws Exception {
+    DeviceSchemaFetchBatcher batcher = createBatcher(false);
+    Future<ClusterSchemaTree> firstFuture = startFirstFetch(batcher);
+
+    List<Future<ClusterSchemaTree>> futures = new ArrayList<>();
+    for (int i = 1; i <= 3; i++) {
+      futures.add(submitFetch(batcher, "root.sg.d" + i, "s1", "s2"));
+    }
+    waitForBatchedSeries(batcher, 6);
+    firstFetchReleased.countDown();
+
+    Assert.assertNotNull(firstFuture.get());
+    ClusterSchemaTree batchSchemaTree = futures.get(0).get();
+    for (Future<ClusterSchemaTree> future : futures) {
+      Assert.assertSame(batchSchemaTree, future.get());
+    }
+    Assert.assertEquals(2, fetchedPatterns.size());
+    Assert.assertEquals(6, fetchedPatterns.get(1).size());
+    Assert.assertTrue(fetchedPatterns.get(1).contains(new PartialPath("root.sg.d3.s2")));
+
+    // No fetch is in flight, the next fetch is executed at once
+    batcher.fetch(new PartialPath("root.sg.d0"), Collections.singletonList("s2"), null);
+    Assert.assertEquals(3, fetchedPatterns.size());
+  }
+
+  @Test
+  public void testFetchSeparatelyWhenBatchFails() throws Exception {
+    DeviceSchemaFetchBatcher batcher = createBatcher(true);
+    Future<ClusterSchemaTree> firstFuture = startFirstFetch(batcher);
+
+    Future<ClusterSchemaTree> future1 = submitFetch(batcher, "root.sg.d1", "s1");
+    Future<ClusterSchemaTree> future2 = submitFetch(batcher, "root.sg.d2", "s1");
+    waitForBatchedSeries(batcher, 2);
+    firstFetchReleased.countDown();
+
+    Assert.assertNotNull(firstFuture.get());
+    Assert.assertNotNull(future1.get());
+    Assert.assertNotNull(future2.get());
+    Assert.assertNotSame(future1.get(), future2.get());
+    // The first fetch, the failed batch, and the separate fetches of d1 and d2
+    Assert.assertEquals(4, fetchedPatterns.size());
+    Assert.assertEquals(2, fetchedPatterns.get(1).size());
+    Assert.assertEquals(1, fetchedPatterns.get(2).size());
+    Assert.assertEquals(1, fetchedPatterns.get(3).size());
+  }
+}
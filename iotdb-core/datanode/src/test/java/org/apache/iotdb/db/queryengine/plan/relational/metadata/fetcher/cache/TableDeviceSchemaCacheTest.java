@@ -45,6 +45,9 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -569,6 +572,37 @@ public class TableDeviceSchemaCacheTest {
     cache.updateLastCacheIfExists(database, deviceID, measurement, data);
   }
 
+  @Test
+  public void testSnapshot() throws IOException {
+    final TableDeviceSchemaCache cache = TableDeviceSchemaCache.getInstance();
+    final IDeviceID device0 =
+        convertTagValuesToDeviceID(table1, new String[] {"hebei", "p_1", "d_0"});
+    final IDeviceID device1 =
+        convertTagValuesToDeviceID(table1, new String[] {"hebei", "p_1", "d_1"});
+    cache.putAttributes(database1, device0, new ConcurrentHashMap<>());
+    cache.putAttributes(database2, device1, new ConcurrentHashMap<>());
+
+    final DeviceSchemaCacheSnapshot snapshot = cache.takeSnapshot(10);
+    Assert.assertEquals(2, snapshot.getDeviceNum());
+    Assert.assertEquals(
+        Collections.singletonList(device0),
+        snapshot.getTableDeviceMap().get(database1).get(table1));
+    Assert.assertEquals(
+        Collections.singletonList(device1),
+        snapshot.getTableDeviceMap().get(database2).get(table1));
+    Assert.assertEquals(1, cache.takeSnapshot(1).getDeviceNum());
+
+    final IDeviceID treeDevice = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d1");
+    snapshot.addTreeDevice(treeDevice, Arrays.asList(measurement1, measurement2));
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    snapshot.serialize(outputStream);
+    final DeviceSchemaCacheSnapshot deserializedSnapshot =
+        DeviceSchemaCacheSnapshot.deserialize(new ByteArrayInputStream(outputStream.toByteArray()));
+    Assert.assertEquals(3, deserializedSnapshot.getDeviceNum());
+    Assert.assertEquals(snapshot.getTreeDeviceMap(), deserializedSnapshot.getTreeDeviceMap());
+    Assert.assertEquals(snapshot.getTableDeviceMap(), deserializedSnapshot.getTableDeviceMap());
+  }
+
   @Test
   public void testIntern() {
     final String a = "s1";
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.db.storageengine.buffer.DecodedPageCache.DecodedPageCacheKey;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.column.LongColumn;
+import org.apache.tsfile.read.common.block.column.TimeColumn;
+import org.apache.tsfile.read.reader.IPageReader;
+import org.apache.tsfile.read.reader.page.PageReader;
+import org.apache.tsfile.read.reader.page.TablePageReader;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DecodedPageCacheTest {
+
+  private static final TsFileID TS_FILE_ID = new TsFileID(1, 0, 1, 1, 0);
+  private static final List<TSDataType> DATA_TYPES = Collections.singletonList(TSDataType.INT64);
+
+  @Test
+  public void testCacheHit() throws IOException {
+    DecodedPageCache cache = new DecodedPageCache(1024 * 1024);
+    AtomicInteger decodeCount = new AtomicInteger(0);
+    IPageReader pageReader = mockPageReader(decodeCount, null);
+
+    TsBlock first = cache.get(key(0, 100), pageReader);
+    TsBlock second = cache.get(key(0, 100), pageReader);
+    Assert.assertSame(first, second);
+    Assert.assertEquals(1, decodeCount.get());
+
+    // another page, chunk, or kind of page reader is decoded again
+    cache.get(key(0, 200), pageReader);
+    cache.get(key(64, 100), pageReader);
+    cache.get(
+        new DecodedPageCacheKey(TS_FILE_ID, new long[] {0}, 100, DATA_TYPES, TablePageReader.class),
+        pageReader);
+    Assert.assertEquals(4, decodeCount.get());
+
+    cache.clear();
+    Assert.assertTrue(cache.isEmpty());
+  }
+
+  @Test
+  public void testConcurrentScansShareOneDecode() throws Exception {
+    DecodedPageCache cache = new DecodedPageCache(1024 * 1024);
+    AtomicInteger decodeCount = new AtomicInteger(0);
+    CountDownLatch decodeStarted = new CountDownLatch(1);
+    CountDownLatch releaseDecode = new CountDownLatch(1);
+    IPageReader slowPageReader =
+        mockPageReader(
+            decodeCount,
+            () -> {
+              decodeStarted.countDown();
+              releaseDecode.await();
+            });
+    IPageReader pageReader = mockPageReader(decodeCount, null);
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<TsBlock> first = executor.submit(() -> cache.get(key(0, 100), slowPageReader));
+      Assert.assertTrue(decodeStarted.await(10, TimeUnit.SECONDS));
+      Future<TsBlock> second = executor.submit(() -> cache.get(key(0, 100), pageReader));
+      // give the second scan the chance to attach to the in flight decode, it will hit the cache
+      // otherwise, the page is decoded only once in both cases
+      Thread.sleep(100);
+      releaseDecode.countDown();
+      Assert.assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+      Assert.assertEquals(1, decodeCount.get());
+    } finally {
+      releaseDecode.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testDecodeFailureIsNotCached() throws IOException {
+    DecodedPageCache cache = new DecodedPageCache(1024 * 1024);
+    IPageReader failedPageReader = Mockito.mock(IPageReader.class);
+    Mockito.when(failedPageReader.getAllSatisfiedData()).thenThrow(new IOException("mock"));
+    try {
+      cache.get(key(0, 100), failedPageReader);
+      Assert.fail();
+    } catch (IOException e) {
+      // expected
+    }
+
+    AtomicInteger decodeCount = new AtomicInteger(0);
+    Assert.assertNotNull(cache.get(key(0, 100), mockPageReader(decodeCount, null)));
+    Assert.assertEquals(1, decodeCount.get());
+  }
+
+  @Test
+  public void testDisabled() throws IOException {
+    DecodedPageCache cache = new DecodedPageCache(0);
+    Assert.assertFalse(cache.isEnabled());
+    AtomicInteger decodeCount = new AtomicInteger(0);
+    cache.get(key(0, 100), mockPageReader(decodeCount, null));
+    Assert.assertTrue(cache.isEmpty());
+  }
+
+  private static DecodedPageCacheKey key(long chunkOffset, long pageStartTime) {
+    return new DecodedPageCacheKey(
+        TS_FILE_ID, new long[] {chunkOffset}, pageStartTime, DATA_TYPES, PageReader.class);
+  }
+
+  private static IPageReader mockPageReader(AtomicInteger decodeCount, Blocker blocker)
+      throws IOException {
+    IPageReader pageReader = Mockito.mock(IPageReader.class);
+    Mockito.when(pageReader.getAllSatisfiedData())
+        .thenAnswer(
+            invocation -> {
+              decodeCount.incrementAndGet();
+              if (blocker != null) {
+                blocker.block();
+              }
+              long[] times = new long[] {1, 2, 3};
+              return new TsBlock(
+                  new TimeColumn(3, times), new LongColumn(3, Optional.empty(), times));
+            });
+    return pageReader;
+  }
+
+  @FunctionalInterface
+  private interface Blocker {
+    void block() throws InterruptedException;
+  }
+}
@@ -93,6 +93,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.iotdb.db.queryengine.plan.statement.StatementTestUtils.genInsertRowNode;
 import static org.apache.iotdb.db.queryengine.plan.statement.StatementTestUtils.genInsertTabletNode;
@@ -1772,4 +1778,82 @@ public class DataRegionTest {
     Assert.assertFalse(tsFileResourceSeq.anyModFileExists());
     Assert.assertFalse(tsFileResourceUnSeq.anyModFileExists());
   }
+
+  @Test
+  public void testDataDirRecoverTasksUpdateLastFlushTimeOnce() throws Exception {
+    List<TsFileResource> resources = new ArrayList<>();
+    for (String dataDir : Arrays.asList("data1", "data2", "data3")) {
+      for (int i = 0; i < 2; i++) {
+        resources.add(
+            new TsFileResource(
+                new File(
+                    TestConstant.BASE_OUTPUT_PATH
+                        + dataDir
+                        + File.separator
+                        + "sequence"
+                        + File.separator
+                        + storageGroup
+                        + File.separator
+                        + "0"
+                        + File.separator
+                        + "0"
+                        + File.separator
+                        + i
+                        + "-0-0-0.tsfile")));
+      }
+    }
+    AtomicInteger recoveredNum = new AtomicInteger(0);
+    AtomicInteger updatedNum = new AtomicInteger(0);
+    AtomicInteger recoveredNumWhenUpdated = new AtomicInteger(-1);
+    Map<String, Callable<Void>> tasks =
+        DataRegion.createDataDirRecoverTasks(
+            resources,
+            resource -> {
+              recoveredNum.incrementAndGet();
+              if (resource == resources.get(0)) {
+                throw new RuntimeException("mock recover failure");
+              }
+            },
+            () -> {
+              updatedNum.incrementAndGet();
+              recoveredNumWhenUpdated.set(recoveredNum.get());
+            });
+    Assert.assertEquals(3, tasks.size());
+
+    List<Callable<Void>> taskList = new ArrayList<>(tasks.values());
+    // a failed task counts as finished
+    try {
+      taskList.get(0).call();
+      Assert.fail();
+    } catch (RuntimeException e) {
+      Assert.assertEquals(0, updatedNum.get());
+    }
+    taskList.get(1).call();
+    Assert.assertEquals(0, updatedNum.get());
+    taskList.get(2).call();
+    Assert.assertEquals(1, updatedNum.get());
+    Assert.assertEquals(5, recoveredNumWhenUpdated.get());
+
+    // the tasks of different dirs finish concurrently
+    recoveredNum.set(0);
+    updatedNum.set(0);
+    tasks =
+        DataRegion.createDataDirRecoverTasks(
+            resources,
+            resource -> recoveredNum.incrementAndGet(),
+            () -> {
+              updatedNum.incrementAndGet();
+              recoveredNumWhenUpdated.set(recoveredNum.get());
+            });
+    ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+    try {
+      for (Future<Void> future : executor.invokeAll(tasks.values())) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    Assert.assertEquals(1, updatedNum.get());
+    Assert.assertEquals(6, recoveredNumWhenUpdated.get());
+  }
 }
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion;
+
+import org.apache.iotdb.commons.partition.executor.SeriesPartitionExecutor;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowNode;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class SeriesSlotWriteStatisticsTest {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+  private static final int DATA_REGION_ID = 10086;
+
+  private final SeriesSlotWriteStatistics statistics = SeriesSlotWriteStatistics.getInstance();
+  private final SeriesPartitionExecutor partitionExecutor =
+      SeriesPartitionExecutor.getSeriesPartitionExecutor(
+          CONFIG.getSeriesPartitionExecutorClass(), CONFIG.getSeriesPartitionSlotNum());
+
+  @After
+  public void tearDown() {
+    statistics.removeDataRegion(DATA_REGION_ID);
+  }
+
+  @Test
+  public void testSampleAndReset() {
+    final IDeviceID device1 = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d1");
+    final IDeviceID device2 = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d2");
+    statistics.record(DATA_REGION_ID, newInsertRowNode(device1, 3));
+    statistics.record(DATA_REGION_ID, newInsertRowNode(device1, 2));
+    statistics.record(DATA_REGION_ID, newInsertRowNode(device2, 4));
+
+    final Map<Integer, Long> expected = new HashMap<>();
+    expected.merge(getSlotId(device1), 5L, Long::sum);
+    expected.merge(getSlotId(device2), 4L, Long::sum);
+    Assert.assertEquals(expected, statistics.sampleAndReset().get(DATA_REGION_ID));
+
+    // the counts are reset, and the idle slots are not reported
+    Assert.assertFalse(statistics.sampleAndReset().containsKey(DATA_REGION_ID));
+
+    statistics.record(DATA_REGION_ID, newInsertRowNode(device2, 1));
+    final Map<Integer, Long> slotPoints = statistics.sampleAndReset().get(DATA_REGION_ID);
+    Assert.assertEquals(1, slotPoints.size());
+    Assert.assertEquals(1L, (long) slotPoints.get(getSlotId(device2)));
+  }
+
+  @Test
+  public void testOnlyHottestSlotsAreReported() {
+    final Map<Integer, Long> slotPoints = new HashMap<>();
+    for (int i = 0; slotPoints.size() < 20; i++) {
+      final IDeviceID deviceID = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d" + i);
+      final int slotId = getSlotId(deviceID);
+      if (!slotPoints.containsKey(slotId)) {
+        final int points = slotPoints.size() + 1;
+        slotPoints.put(slotId, (long) points);
+        statistics.record(DATA_REGION_ID, newInsertRowNode(deviceID, points));
+      }
+    }
+
+    final Map<Integer, Long> sample = statistics.sampleAndReset().get(DATA_REGION_ID);
+    Assert.assertEquals(16, sample.size());
+    sample.forEach(
+        (slotId, points) -> {
+          Assert.assertEquals(slotPoints.get(slotId), points);
+          // the 4 coldest slots with 1 to 4 points are not reported
+          Assert.assertTrue(points > 4);
+        });
+  }
+
+  @Test
+  public void testNoPointsLostWhileSampling() throws Exception {
+    final int writerNum = 4;
+    final int writeNumPerWriter = 20000;
+    final List<InsertRowNode> rows = new ArrayList<>();
+    for (int i = 0; i < writerNum; i++) {
+      rows.add(newInsertRowNode(IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d" + i), 1));
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(writerNum + 1);
+    final AtomicBoolean isWriting = new AtomicBoolean(true);
+    try {
+      final List<Future<?>> writers = new ArrayList<>();
+      for (final InsertRowNode row : rows) {
+        writers.add(
+            executor.submit(
+                () -> {
+                  for (int j = 0; j < writeNumPerWriter; j++) {
+                    statistics.record(DATA_REGION_ID, row);
+                  }
+                }));
+      }
+      // the slots are sampled and removed concurrently with the writes
+      final Future<Long> sampler =
+          executor.submit(
+              () -> {
+                long sampledPoints = 0;
+                while (isWriting.get()) {
+                  sampledPoints += sumOfSample();
+                }
+                return sampledPoints;
+              });
+      for (final Future<?> writer : writers) {
+        writer.get(1, TimeUnit.MINUTES);
+      }
+      isWriting.set(false);
+      final long sampledPoints = sampler.get(1, TimeUnit.MINUTES) + sumOfSample();
+      Assert.assertEquals((long) writerNum * writeNumPerWriter, sampledPoints);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private long sumOfSample() {
+    return statistics
+        .sampleAndReset()
+        .getOrDefault(DATA_REGION_ID, new HashMap<>())
+        .values()
+        .stream()
+        .mapToLong(Long::longValue)
+        .sum();
+  }
+
+  private int getSlotId(final IDeviceID deviceID) {
+    return partitionExecutor.getSeriesPartitionSlot(deviceID).getSlotId();
+  }
+
+  private static InsertRowNode newInsertRowNode(final IDeviceID deviceID, final int points) {
+    // the invocations are not recorded, since the rows are written many times concurrently
+    final InsertRowNode row = Mockito.mock(InsertRowNode.class, Mockito.withSettings().stubOnly());
+    Mockito.when(row.getDeviceID()).thenReturn(deviceID);
+    Mockito.when(row.getMeasurements()).thenReturn(new String[points]);
+    return row;
+  }
+}
@@ -163,6 +163,8 @@ public class SeriesScanPredicatePushDownTest extends AbstractSeriesScanTest {
             TimeFilterApi.gt(0),
             ValueFilterApi.gtEq(DEFAULT_MEASUREMENT_INDEX, 10, TSDataType.INT32));
     checkFile1Skipped(seriesScanUtil);
+    Assert.assertEquals(1, seriesScanUtil.getPrunedFileCount());
+    Assert.assertEquals(0, seriesScanUtil.getPrunedChunkCount());
   }
 
   private void checkFile1Skipped(SeriesScanUtil seriesScanUtil) throws IOException {
@@ -195,6 +197,8 @@ public class SeriesScanPredicatePushDownTest extends AbstractSeriesScanTest {
             TimeFilterApi.gt(0),
             ValueFilterApi.gtEq(DEFAULT_MEASUREMENT_INDEX, 20, TSDataType.INT32));
     checkFile2Chunk1Skipped(seriesScanUtil);
+    Assert.assertEquals(1, seriesScanUtil.getPrunedFileCount());
+    Assert.assertEquals(1, seriesScanUtil.getPrunedChunkCount());
   }
 
   private void checkFile2Chunk1Skipped(SeriesScanUtil seriesScanUtil) throws IOException {
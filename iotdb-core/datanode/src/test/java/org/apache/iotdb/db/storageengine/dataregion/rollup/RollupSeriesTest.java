@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.rollup;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.statistics.LongStatistics;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.common.TimeRange;
+import org.apache.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.tsfile.read.common.block.column.BooleanColumn;
+import org.apache.tsfile.read.common.block.column.DoubleColumn;
+import org.apache.tsfile.read.common.block.column.FloatColumn;
+import org.apache.tsfile.read.common.block.column.IntColumn;
+import org.apache.tsfile.read.common.block.column.LongColumn;
+import org.apache.tsfile.utils.Binary;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class RollupSeriesTest {
+
+  private static final long INTERVAL = 1000;
+
+  @Test
+  public void testParseDefinitions() {
+    List<RollupViewDefinition> definitions =
+        RollupViewDefinition.parse("db1:s1:1000, root.sg1:s2:60000,");
+    Assert.assertEquals(
+        Arrays.asList(
+            new RollupViewDefinition("db1", "s1", 1000),
+            new RollupViewDefinition("root.sg1", "s2", 60000)),
+        definitions);
+    Assert.assertEquals(-60000, definitions.get(1).getBucketStartTime(-58500));
+    Assert.assertTrue(RollupViewDefinition.parse("").isEmpty());
+
+    for (String illegal : Arrays.asList("db1:1000", "db1:s1:abc", "db1:s1:0")) {
+      try {
+        RollupViewDefinition.parse(illegal);
+        Assert.fail(illegal);
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+  }
+
+  @Test
+  public void testUpdateBucketStatisticsOfAllTypes() {
+    Column timeColumn = new LongColumn(3, Optional.empty(), new long[] {100, 1100, 1200});
+    boolean[] isNull = new boolean[] {false, true, false};
+    Map<TSDataType, Column> valueColumns = new HashMap<>();
+    valueColumns.put(
+        TSDataType.BOOLEAN,
+        new BooleanColumn(3, Optional.of(isNull), new boolean[] {true, false, false}));
+    for (TSDataType dataType : Arrays.asList(TSDataType.INT32, TSDataType.DATE)) {
+      valueColumns.put(dataType, new IntColumn(3, Optional.of(isNull), new int[] {1, 2, 3}));
+    }
+    for (TSDataType dataType : Arrays.asList(TSDataType.INT64, TSDataType.TIMESTAMP)) {
+      valueColumns.put(dataType, new LongColumn(3, Optional.of(isNull), new long[] {1, 2, 3}));
+    }
+    valueColumns.put(
+        TSDataType.FLOAT, new FloatColumn(3, Optional.of(isNull), new float[] {1, 2, 3}));
+    valueColumns.put(
+        TSDataType.DOUBLE, new DoubleColumn(3, Optional.of(isNull), new double[] {1, 2, 3}));
+    for (TSDataType dataType : Arrays.asList(TSDataType.TEXT, TSDataType.STRING, TSDataType.BLOB)) {
+      valueColumns.put(
+          dataType,
+          new BinaryColumn(
+              3,
+              Optional.of(isNull),
+              new Binary[] {
+                new Binary("a", TSFileConfig.STRING_CHARSET),
+                new Binary("b", TSFileConfig.STRING_CHARSET),
+                new Binary("c", TSFileConfig.STRING_CHARSET)
+              }));
+    }
+
+    for (Map.Entry<TSDataType, Column> entry : valueColumns.entrySet()) {
+      Assert.assertTrue(RollupFlushCollector.isSupported(entry.getKey()));
+      Map<Long, Statistics<? extends Serializable>> bucketStatistics = new HashMap<>();
+      RollupFlushCollector.updateBucketStatistics(
+          bucketStatistics, INTERVAL, timeColumn, entry.getValue(), entry.getKey());
+      Assert.assertEquals(entry.getKey().toString(), 2, bucketStatistics.size());
+      Assert.assertEquals(entry.getKey(), bucketStatistics.get(0L).getType());
+      Assert.assertEquals(1, bucketStatistics.get(0L).getCount());
+      // the null value is skipped
+      Assert.assertEquals(1, bucketStatistics.get(1000L).getCount());
+      Assert.assertEquals(1200, bucketStatistics.get(1000L).getStartTime());
+    }
+    Assert.assertFalse(RollupFlushCollector.isSupported(TSDataType.VECTOR));
+  }
+
+  @Test
+  public void testMergeAndRead() {
+    RollupSeries series = new RollupSeries(INTERVAL, 100);
+    // the first bucket may have been flushed before the view was created
+    series.mergeSequence(buckets(500, 1500, 2500), 500, 2500);
+    Assert.assertNull(series.read(0));
+    Statistics<? extends Serializable> statistics = series.read(1000);
+    Assert.assertNotNull(statistics);
+    Assert.assertEquals(1, statistics.getCount());
+    Assert.assertEquals(1500L, statistics.getMinValue());
+    // the bucket is not complete until the data after it has been flushed
+    Assert.assertNull(series.read(2000));
+
+    series.mergeSequence(buckets(2800, 3100), 2800, 3100);
+    statistics = series.read(2000);
+    Assert.assertNotNull(statistics);
+    Assert.assertEquals(2, statistics.getCount());
+    Assert.assertEquals(2500L, statistics.getMinValue());
+    Assert.assertEquals(2800L, statistics.getMaxValue());
+
+    // the statistics read are copies
+    statistics.mergeStatistics(statistics(5000));
+    Assert.assertEquals(2, series.read(2000).getCount());
+  }
+
+  @Test
+  public void testDirtyRangeAndRebuild() {
+    RollupSeries series = new RollupSeries(INTERVAL, 100);
+    series.mergeSequence(buckets(500, 1500, 2500, 3500), 500, 3500);
+    series.markDirty(1200, 2200, "1-1-0-0.tsfile", 1);
+    Assert.assertNull(series.read(1000));
+    Assert.assertNull(series.read(2000));
+
+    // the dirty range is moved to the target file of the compaction
+    series.renameDirtySource(
+        Collections.singleton("1-1-0-0.tsfile"), Collections.singletonList("2-2-1-0.tsfile"));
+    // a recomputation which does not consume the source does not clear the dirty range
+    series.rebuild(
+        buckets(1500, 2500),
+        Collections.singletonList(new TimeRange(1000, 2999)),
+        Collections.singleton("1-1-0-0.tsfile"),
+        1);
+    Assert.assertNull(series.read(1000));
+
+    Map<Long, Statistics<? extends Serializable>> recomputed = buckets(1200, 1500, 2200, 2500);
+    series.rebuild(
+        recomputed,
+        Collections.singletonList(new TimeRange(1000, 2999)),
+        Collections.singleton("2-2-1-0.tsfile"),
+        1);
+    Assert.assertEquals(0, series.getDirtyRangeNum());
+    Assert.assertEquals(2, series.read(1000).getCount());
+    Assert.assertEquals(2200L, series.read(2000).getMinValue());
+  }
+
+  @Test
+  public void testRebuildKeepsLaterAndUncoveredDirtyRanges() {
+    RollupSeries series = new RollupSeries(INTERVAL, 100);
+    series.mergeSequence(buckets(500, 1500, 2500, 3500), 500, 3500);
+    series.markDirty(1200, 3200, RollupViewManager.DELETION_SOURCE, 1);
+    series.markDirty(1300, 1400, RollupViewManager.DELETION_SOURCE, 2);
+
+    // only the buckets fully inside the covered range are rebuilt
+    series.rebuild(
+        buckets(1500, 2500),
+        Collections.singletonList(new TimeRange(1000, 2500)),
+        Collections.emptySet(),
+        1);
+    // the deletion marked after the recomputation began is kept
+    Assert.assertNull(series.read(1000));
+    Assert.assertNull(series.read(2000));
+    Assert.assertEquals(2, series.getDirtyRangeNum());
+
+    series.rebuild(
+        buckets(1500, 2500),
+        Collections.singletonList(new TimeRange(1000, 3999)),
+        Collections.emptySet(),
+        2);
+    Assert.assertEquals(0, series.getDirtyRangeNum());
+    Assert.assertNotNull(series.read(1000));
+    Assert.assertNotNull(series.read(2000));
+    Assert.assertNull(series.read(3000));
+  }
+
+  @Test
+  public void testUnsequenceInvalidationAndRecompute() {
+    RollupSeries series = new RollupSeries(INTERVAL, 100);
+    series.mergeSequence(buckets(500, 1500, 2500, 3500), 500, 3500);
+    // unsequence flushes into and after the readable buckets
+    series.markDirty(1700, 2100, "1-1-0-0.tsfile", 1);
+    series.markDirty(3200, 5200, "1-1-0-0.tsfile", 1);
+    Assert.assertNull(series.read(1000));
+    Assert.assertNull(series.read(2000));
+
+    // only the buckets observed and before the watermark can be recomputed
+    List<TimeRange> recomputableRanges = series.getRecomputableRanges();
+    Assert.assertEquals(Collections.singletonList(new TimeRange(1000, 2999)), recomputableRanges);
+    series.rebuild(
+        buckets(1500, 1700, 2100, 2500),
+        recomputableRanges,
+        Collections.singleton("1-1-0-0.tsfile"),
+        1);
+    Assert.assertEquals(2, series.read(1000).getCount());
+    Assert.assertEquals(2100L, series.read(2000).getMinValue());
+    Assert.assertEquals(1, series.getDirtyRangeNum());
+
+    series.mergeSequence(buckets(6500), 6500, 6500);
+    Assert.assertEquals(
+        Collections.singletonList(new TimeRange(3000, 5999)), series.getRecomputableRanges());
+  }
+
+  @Test
+  public void testDeletionInvalidationAndRecompute() {
+    RollupSeries series = new RollupSeries(INTERVAL, 100);
+    series.mergeSequence(buckets(500, 1300, 1500, 2500, 3500), 500, 3500);
+    series.markDirty(1400, 1600, RollupViewManager.DELETION_SOURCE, 1);
+    Assert.assertNull(series.read(1000));
+
+    List<TimeRange> recomputableRanges = series.getRecomputableRanges();
+    Assert.assertEquals(Collections.singletonList(new TimeRange(1000, 1999)), recomputableRanges);
+    // a deletion marked while the data is read back is not observed by the recomputation
+    series.markDirty(1000, 2600, RollupViewManager.DELETION_SOURCE, 2);
+    series.rebuild(buckets(1300), recomputableRanges, Collections.emptySet(), 1);
+    Assert.assertNull(series.read(1000));
+    Assert.assertNull(series.read(2000));
+
+    recomputableRanges = series.getRecomputableRanges();
+    Assert.assertEquals(Collections.singletonList(new TimeRange(1000, 2999)), recomputableRanges);
+    series.rebuild(buckets(2500), recomputableRanges, Collections.emptySet(), 2);
+    Assert.assertEquals(0, series.getDirtyRangeNum());
+    // the deleted buckets are removed
+    Assert.assertNull(series.read(1000));
+    Assert.assertEquals(1, series.read(2000).getCount());
+  }
+
+  @Test
+  public void testWatermarkOnlyMovesForward() {
+    RollupSeries series = new RollupSeries(INTERVAL, 100);
+    series.mergeSequence(buckets(500, 1500, 2500), 500, 2500);
+    Assert.assertNotNull(series.read(1000));
+    // a flush with smaller max time does not make the buckets after it unreadable again
+    series.mergeSequence(buckets(1800), 1800, 1800);
+    Assert.assertEquals(2, series.read(1000).getCount());
+  }
+
+  @Test
+  public void testFlushSequencerAppliesInQueuedOrder() {
+    RollupViewManager.FlushSequencer sequencer = new RollupViewManager.FlushSequencer();
+    List<Long> applied = new ArrayList<>();
+    long first = sequencer.acquire();
+    long second = sequencer.acquire();
+    long third = sequencer.acquire();
+
+    // the flushes of the new working file must wait for the one of the closing file
+    sequencer.complete(third, () -> applied.add(third));
+    sequencer.complete(second, null);
+    Assert.assertTrue(applied.isEmpty());
+    sequencer.complete(first, () -> applied.add(first));
+    Assert.assertEquals(Arrays.asList(first, third), applied);
+
+    // completing a flush again takes no effect
+    sequencer.complete(first, () -> applied.add(first));
+    Assert.assertEquals(2, applied.size());
+  }
+
+  @Test
+  public void testEviction() {
+    RollupSeries series = new RollupSeries(INTERVAL, 2);
+    series.mergeSequence(buckets(500, 1500, 2500, 3500), 500, 3500);
+    Assert.assertEquals(2, series.getBucketNum());
+    Assert.assertNull(series.read(1000));
+    Assert.assertNotNull(series.read(2000));
+
+    series.markDirty(100, 1100, "1-1-0-0.tsfile", 1);
+    Assert.assertEquals(0, series.getDirtyRangeNum());
+  }
+
+  private static Map<Long, Statistics<? extends Serializable>> buckets(long... times) {
+    Map<Long, Statistics<? extends Serializable>> buckets = new HashMap<>();
+    for (long time : times) {
+      Statistics<? extends Serializable> statistics =
+          buckets.computeIfAbsent(
+              Math.floorDiv(time, INTERVAL) * INTERVAL,
+              k -> Statistics.getStatsByType(TSDataType.INT64));
+      statistics.update(time, time);
+    }
+    return buckets;
+  }
+
+  private static Statistics<? extends Serializable> statistics(long time) {
+    LongStatistics statistics = new LongStatistics();
+    statistics.update(time, time);
+    return statistics;
+  }
+}
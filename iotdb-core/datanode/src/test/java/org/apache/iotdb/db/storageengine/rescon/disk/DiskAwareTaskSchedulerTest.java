@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.rescon.disk;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DiskAwareTaskSchedulerTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testDirsOnSameDiskShareThreads() throws Exception {
+    String dir1 = tempFolder.newFolder("data1").getPath();
+    String dir2 = tempFolder.newFolder("data2").getPath();
+    DiskAwareTaskScheduler scheduler = new DiskAwareTaskScheduler("Test-Recover", 2);
+    AtomicInteger runningNum = new AtomicInteger(0);
+    AtomicInteger maxRunningNum = new AtomicInteger(0);
+    AtomicInteger finishedNum = new AtomicInteger(0);
+    List<Future<Void>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < 20; i++) {
+        futures.add(
+            scheduler.submit(
+                i % 2 == 0 ? dir1 : dir2,
+                () -> {
+                  maxRunningNum.accumulateAndGet(runningNum.incrementAndGet(), Math::max);
+                  Thread.sleep(5);
+                  runningNum.decrementAndGet();
+                  finishedNum.incrementAndGet();
+                  return null;
+                }));
+      }
+      assertEquals(1, scheduler.getDiskNum());
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } finally {
+      scheduler.shutdownNow();
+    }
+    assertEquals(20, finishedNum.get());
+    assertTrue(maxRunningNum.get() <= 2);
+  }
+
+  @Test
+  public void testDisksHaveSeparateQueues() throws Exception {
+    // every dir is regarded as a separate disk
+    DiskAwareTaskScheduler scheduler = new DiskAwareTaskScheduler("Test-Recover", 1, dir -> dir);
+    // each task of a disk waits for the task of the other disk, which passes only if the two
+    // disks are served by different threads at the same time
+    CyclicBarrier barrier = new CyclicBarrier(2);
+    Map<String, Set<String>> disk2Threads = new ConcurrentHashMap<>();
+    List<Future<Void>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < 4; i++) {
+        String dir = i % 2 == 0 ? "data1" : "data2";
+        futures.add(
+            scheduler.submit(
+                dir,
+                () -> {
+                  disk2Threads
+                      .computeIfAbsent(dir, k -> ConcurrentHashMap.newKeySet())
+                      .add(Thread.currentThread().getName());
+                  barrier.await(10, TimeUnit.SECONDS);
+                  return null;
+                }));
+      }
+      assertEquals(2, scheduler.getDiskNum());
+      for (Future<Void> future : futures) {
+        future.get(20, TimeUnit.SECONDS);
+      }
+    } finally {
+      scheduler.shutdownNow();
+    }
+    assertEquals(1, disk2Threads.get("data1").size());
+    assertEquals(1, disk2Threads.get("data2").size());
+    assertNotEquals(disk2Threads.get("data1"), disk2Threads.get("data2"));
+  }
+}
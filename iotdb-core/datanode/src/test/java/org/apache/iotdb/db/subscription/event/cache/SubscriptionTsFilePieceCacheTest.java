@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.subscription.event.cache;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+public class SubscriptionTsFilePieceCacheTest {
+
+  private File dir;
+
+  @Before
+  public void setUp() throws IOException {
+    dir = Files.createTempDirectory("subscription-tsfile-piece-cache").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    final File[] files = dir.listFiles();
+    if (files != null) {
+      for (final File file : files) {
+        Assert.assertTrue(file.delete());
+      }
+    }
+    Assert.assertTrue(dir.delete());
+  }
+
+  @Test
+  public void testPieceSharedByHardlinks() throws IOException {
+    final byte[] content = new byte[4096];
+    for (int i = 0; i < content.length; ++i) {
+      content[i] = (byte) i;
+    }
+    final File tsFile = new File(dir, "1-1-0-0.tsfile");
+    Files.write(tsFile.toPath(), content);
+    final File hardlink = new File(dir, "hardlink.tsfile");
+    Files.createLink(hardlink.toPath(), tsFile.toPath());
+
+    final SubscriptionTsFilePieceCache cache = SubscriptionTsFilePieceCache.getInstance();
+    final byte[] piece = cache.getPiece(tsFile, 1024, 2048);
+    Assert.assertArrayEquals(Arrays.copyOfRange(content, 1024, 3072), piece);
+    Assert.assertSame(piece, cache.getPiece(hardlink, 1024, 2048));
+
+    final byte[] lastPiece = cache.getPiece(hardlink, 3072, 1024);
+    Assert.assertArrayEquals(Arrays.copyOfRange(content, 3072, 4096), lastPiece);
+
+    try {
+      cache.getPiece(tsFile, 4000, 1024);
+      Assert.fail();
+    } catch (final IOException e) {
+      // expected, the piece is out of the range of the tsfile
+    }
+  }
+}
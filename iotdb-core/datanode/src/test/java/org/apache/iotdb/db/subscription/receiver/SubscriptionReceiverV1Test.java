@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.subscription.receiver;
+
+import org.apache.iotdb.db.subscription.agent.SubscriptionAgent;
+import org.apache.iotdb.db.subscription.agent.SubscriptionBrokerAgent;
+import org.apache.iotdb.db.subscription.agent.SubscriptionConsumerAgent;
+import org.apache.iotdb.db.subscription.event.SubscriptionEvent;
+import org.apache.iotdb.rpc.subscription.config.ConsumerConfig;
+import org.apache.iotdb.rpc.subscription.config.ConsumerConstant;
+import org.apache.iotdb.rpc.subscription.payload.poll.StreamPayload;
+import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionCommitContext;
+import org.apache.iotdb.session.subscription.util.PollTimer;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.powermock.reflect.Whitebox;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+public class SubscriptionReceiverV1Test {
+
+  private static final String CONSUMER_GROUP_ID = "cg";
+  private static final String CONSUMER_ID = "c";
+
+  private final SubscriptionReceiverV1 receiver = new SubscriptionReceiverV1();
+  private final AtomicLong commitId = new AtomicLong();
+
+  private ConsumerConfig consumerConfig;
+  private SubscriptionBrokerAgent broker;
+  private SubscriptionConsumerAgent consumer;
+
+  private SubscriptionBrokerAgent originalBroker;
+  private SubscriptionConsumerAgent originalConsumer;
+
+  @Before
+  public void setUp() {
+    final Map<String, String> attributes = new HashMap<>();
+    attributes.put(ConsumerConstant.CONSUMER_GROUP_ID_KEY, CONSUMER_GROUP_ID);
+    attributes.put(ConsumerConstant.CONSUMER_ID_KEY, CONSUMER_ID);
+    consumerConfig = new ConsumerConfig(attributes);
+
+    broker = Mockito.mock(SubscriptionBrokerAgent.class);
+    consumer = Mockito.mock(SubscriptionConsumerAgent.class);
+    Mockito.when(consumer.getTopicNamesSubscribedByConsumer(anyString(), anyString()))
+        .thenReturn(new HashSet<>(Arrays.asList("topic1", "topic2")));
+
+    originalBroker = Whitebox.getInternalState(SubscriptionAgent.runtime(), "brokerAgent");
+    originalConsumer = Whitebox.getInternalState(SubscriptionAgent.runtime(), "consumerAgent");
+    Whitebox.setInternalState(SubscriptionAgent.runtime(), "brokerAgent", broker);
+    Whitebox.setInternalState(SubscriptionAgent.runtime(), "consumerAgent", consumer);
+  }
+
+  @After
+  public void tearDown() {
+    Whitebox.setInternalState(SubscriptionAgent.runtime(), "brokerAgent", originalBroker);
+    Whitebox.setInternalState(SubscriptionAgent.runtime(), "consumerAgent", originalConsumer);
+  }
+
+  @Test
+  public void testStreamNacksEventsBeyondCredits() throws Exception {
+    // the broker polls one event per topic at a time
+    Mockito.when(broker.poll(eq(consumerConfig), anySet(), anyLong()))
+        .thenAnswer(invocation -> Arrays.asList(newEvent(1), newEvent(1)));
+
+    final List<SubscriptionEvent> events = stream(topicNames("topic1", "topic2"), 3, 1000, 10_000);
+
+    Assert.assertEquals(3, events.size());
+    Mockito.verify(broker, Mockito.times(2)).poll(eq(consumerConfig), anySet(), anyLong());
+    Mockito.verify(broker)
+        .commit(consumerConfig, Collections.singletonList(newCommitContext(commitId.get())), true);
+  }
+
+  @Test
+  public void testStreamStopsWhenBytesAreUsedUp() throws Exception {
+    Mockito.when(broker.poll(eq(consumerConfig), anySet(), anyLong()))
+        .thenAnswer(invocation -> Collections.singletonList(newEvent(60)));
+
+    final List<SubscriptionEvent> events = stream(topicNames("topic1"), 10, 100, 10_000);
+
+    Assert.assertEquals(2, events.size());
+    Mockito.verify(broker).poll(consumerConfig, topicNames("topic1"), 100L);
+    Mockito.verify(broker).poll(consumerConfig, topicNames("topic1"), 40L);
+    Mockito.verify(broker, Mockito.never()).commit(any(), any(), Mockito.anyBoolean());
+  }
+
+  @Test
+  public void testStreamReturnsOnceIdleWithEvents() throws Exception {
+    Mockito.when(broker.poll(eq(consumerConfig), anySet(), anyLong()))
+        .thenReturn(Collections.emptyList())
+        .thenAnswer(invocation -> Collections.singletonList(newEvent(1)))
+        .thenReturn(Collections.emptyList());
+
+    final List<SubscriptionEvent> events = stream(topicNames("topic1"), 10, 1000, 10_000);
+
+    // wait for the first event, but do not wait for more once some events are delivered
+    Assert.assertEquals(1, events.size());
+    Mockito.verify(broker, Mockito.times(3)).poll(eq(consumerConfig), anySet(), anyLong());
+  }
+
+  @Test
+  public void testStreamReturnsEmptyWhenTimerExpires() throws Exception {
+    Mockito.when(broker.poll(eq(consumerConfig), anySet(), anyLong()))
+        .thenReturn(Collections.emptyList());
+
+    Assert.assertTrue(stream(topicNames("topic1"), 10, 1000, 0).isEmpty());
+    Mockito.verify(broker).poll(eq(consumerConfig), anySet(), anyLong());
+  }
+
+  @Test
+  public void testStreamFiltersUnsubscribedTopics() throws Exception {
+    Mockito.when(broker.poll(eq(consumerConfig), anySet(), anyLong()))
+        .thenAnswer(invocation -> Collections.singletonList(newEvent(1)));
+
+    Assert.assertEquals(1, stream(topicNames("topic1", "topic3"), 1, 1000, 10_000).size());
+    Mockito.verify(broker).poll(consumerConfig, topicNames("topic1"), 1000L);
+
+    Assert.assertTrue(stream(topicNames("topic3"), 1, 1000, 10_000).isEmpty());
+    Assert.assertTrue(stream(topicNames("topic1"), 0, 1000, 10_000).isEmpty());
+    Mockito.verify(broker).poll(eq(consumerConfig), anySet(), anyLong());
+  }
+
+  private List<SubscriptionEvent> stream(
+      final Set<String> topicNames, final int credits, final long maxBytes, final long timeoutMs)
+      throws Exception {
+    final ThreadLocal<PollTimer> pollTimerThreadLocal =
+        Whitebox.getInternalState(receiver, "pollTimerThreadLocal");
+    pollTimerThreadLocal.set(new PollTimer(System.currentTimeMillis(), timeoutMs));
+    try {
+      return Whitebox.invokeMethod(
+          receiver,
+          "handlePipeSubscribeStreamRequest",
+          consumerConfig,
+          new StreamPayload(topicNames, credits),
+          maxBytes);
+    } finally {
+      pollTimerThreadLocal.remove();
+    }
+  }
+
+  private SubscriptionEvent newEvent(final int size) throws Exception {
+    final SubscriptionEvent event = Mockito.mock(SubscriptionEvent.class);
+    Mockito.when(event.getCurrentResponseSize()).thenReturn(size);
+    Mockito.when(event.getCommitContext()).thenReturn(newCommitContext(commitId.incrementAndGet()));
+    return event;
+  }
+
+  private static SubscriptionCommitContext newCommitContext(final long commitId) {
+    return new SubscriptionCommitContext(1, 0, "topic1", CONSUMER_GROUP_ID, commitId);
+  }
+
+  private static Set<String> topicNames(final String... topicNames) {
+    return new HashSet<>(Arrays.asList(topicNames));
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.commons.concurrent;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses the concurrent loads of the same key into one: the first caller of a key loads it, and
+ * the callers arriving before the load is done wait for and share its result (or its exception)
+ * instead of loading again. The result is not cached, so a call after the load is done loads again.
+ *
+ * <p>It's used to avoid the thundering herd on the ConfigNode when many threads miss the same entry
+ * of a local cache at the same time.
+ */
+public class SingleFlight<K, V> {
+
+  private final Map<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+
+  /**
+   * Load the key by the loader, or wait for the load of the key in flight.
+   *
+   * @param key the key must implement equals and hashCode
+   * @throws RuntimeException the exception thrown by the loader, which is shared by all the callers
+   *     of the flight
+   */
+  public V execute(final K key, final Supplier<V> loader) {
+    final CompletableFuture<V> flight = new CompletableFuture<>();
+    final CompletableFuture<V> existingFlight = flights.putIfAbsent(key, flight);
+    if (existingFlight != null) {
+      return await(existingFlight);
+    }
+
+    try {
+      final V value = loader.get();
+      flight.complete(value);
+      return value;
+    } catch (final RuntimeException | Error e) {
+      flight.completeExceptionally(e);
+      throw e;
+    } finally {
+      flights.remove(key, flight);
+    }
+  }
+
+  private static <V> V await(final CompletableFuture<V> flight) {
+    try {
+      return flight.join();
+    } catch (final CompletionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw e;
+    }
+  }
+
+  public int getInFlightCount() {
+    return flights.size();
+  }
+}
@@ -36,6 +36,8 @@ public enum ThreadName {
   FRAGMENT_INSTANCE_DISPATCH("Fragment-Instance-Dispatch"),
   DRIVER_TASK_SCHEDULER_NOTIFICATION("Driver-Task-Scheduler-Notification"),
   EXPIRED_QUERIES_INFO_CLEAR("Expired-Queries-Info-Clear"),
+  PARTITION_CACHE_PREFETCH("Partition-Cache-Prefetch"),
+  SCHEMA_CACHE_WARMUP("Schema-Cache-Warmup"),
   // -------------------------- MPP --------------------------
   MPP_COORDINATOR_SCHEDULED_EXECUTOR("MPP-Coordinator-Scheduled-Executor"),
   MPP_DATA_EXCHANGE_TASK_EXECUTOR("MPP-Data-Exchange-Task-Executors"),
@@ -93,6 +95,7 @@ public enum ThreadName {
   CONFIG_NODE_LOAD_STATISTIC("Cluster-LoadStatistics-Service"),
   CONFIG_NODE_EVENT_SERVICE("Cluster-Event-Service"),
   CONFIG_NODE_LOAD_PUBLISHER("Cluster-LoadStatistics-Publisher"),
+  CONFIG_NODE_REGION_REBALANCE("Cluster-Region-Rebalance-Service"),
   // -------------------------- ConfigNode-RegionManagement --------------------------
   CONFIG_NODE_REGION_MAINTAINER("IoTDB-Region-Maintainer"),
   // -------------------------- ConfigNode-Recover --------------------------
@@ -114,8 +117,11 @@ public enum ThreadName {
   // -------------------------- IoTConsensus --------------------------
   IOT_CONSENSUS_RPC_SERVICE("IoTConsensusRPC-Service"),
   IOT_CONSENSUS_RPC_PROCESSOR("IoTConsensusRPC-Processor"),
+  IOT_CONSENSUS_MULTI_REGION_SYNC_LOG("IoTConsensusMultiRegionSyncLog"),
   ASYNC_DATANODE_IOT_CONSENSUS_CLIENT_POOL("AsyncDataNodeIoTConsensusServiceClientPool"),
   LOG_DISPATCHER("LogDispatcher"),
+  MULTIPLEXED_LOG_DISPATCHER("MultiplexedLogDispatcher"),
+  IOT_CONSENSUS_SNAPSHOT_TRANSMITTER("IoTConsensusSnapshotTransmitter"),
   IOT_CONSENSUS_BACKGROUND_TASK_EXECUTOR("IoTConsensusBackgroundTaskExecutor"),
   // -------------------------- Ratis --------------------------
   // NOTICE: The thread name of ratis cannot be edited here!
@@ -153,6 +159,7 @@ public enum ThreadName {
   PIPE_RECEIVER_AIR_GAP_AGENT("Pipe-Receiver-Air-Gap-Agent"),
   PIPE_AIR_GAP_RECEIVER("Pipe-Air-Gap-Receiver"),
   PIPE_PARALLEL_EXECUTION_POOL("Pipe-Parallel-Execution-Pool"),
+  PIPE_RECEIVER_PARALLEL_APPLY_POOL("Pipe-Receiver-Parallel-Apply-Pool"),
   PIPE_TERMINATE_EXECUTION_POOL("Pipe-Terminate-Execution-Pool"),
   LOAD_DATATYPE_CONVERT_POOL("Load-Datatype-Convert-Pool"),
   SUBSCRIPTION_EXECUTOR_POOL("Subscription-Executor-Pool"),
@@ -199,6 +206,8 @@ public enum ThreadName {
   UPGRADE_TASK("UpgradeThread"),
   REGION_MIGRATE("Region-Migrate-Pool"),
   STORAGE_ENGINE_RECOVER_TRIGGER("StorageEngine-RecoverTrigger"),
+  STORAGE_ENGINE_RESOURCE_RECOVER("StorageEngine-ResourceRecover"),
+  ROLLUP_VIEW_RECOMPUTE("Rollup-View-Recompute"),
   FILE_TIME_INDEX_RECORD("FileTimeIndexRecord"),
   BINARY_ALLOCATOR_SAMPLE_EVICTOR("BinaryAllocator-SampleEvictor"),
   BINARY_ALLOCATOR_AUTO_RELEASER("BinaryAllocator-Auto-Releaser"),
@@ -265,8 +274,11 @@ public enum ThreadName {
           Arrays.asList(
               IOT_CONSENSUS_RPC_SERVICE,
               IOT_CONSENSUS_RPC_PROCESSOR,
+              IOT_CONSENSUS_MULTI_REGION_SYNC_LOG,
               ASYNC_DATANODE_IOT_CONSENSUS_CLIENT_POOL,
               LOG_DISPATCHER,
+              MULTIPLEXED_LOG_DISPATCHER,
+              IOT_CONSENSUS_SNAPSHOT_TRANSMITTER,
               IOT_CONSENSUS_BACKGROUND_TASK_EXECUTOR));
 
   private static final Set<ThreadName> pipeConsensusThreadNames =
@@ -314,6 +326,7 @@ public enum ThreadName {
               PIPE_RECEIVER_AIR_GAP_AGENT,
               PIPE_AIR_GAP_RECEIVER,
               PIPE_PARALLEL_EXECUTION_POOL,
+              PIPE_RECEIVER_PARALLEL_APPLY_POOL,
               SUBSCRIPTION_EXECUTOR_POOL,
               SUBSCRIPTION_RUNTIME_META_SYNCER,
               WINDOW_EVALUATION_SERVICE,
@@ -358,7 +371,11 @@ public enum ThreadName {
               ASYNC_DATANODE_HEARTBEAT_CLIENT_POOL));
 
   private static final Set<ThreadName> configNodeLoadBalanceThreadNames =
-      new HashSet<>(Arrays.asList(CONFIG_NODE_LOAD_STATISTIC, CONFIG_NODE_LOAD_PUBLISHER));
+      new HashSet<>(
+          Arrays.asList(
+              CONFIG_NODE_LOAD_STATISTIC,
+              CONFIG_NODE_LOAD_PUBLISHER,
+              CONFIG_NODE_REGION_REBALANCE));
 
   private static final Set<ThreadName> configNodeRegionManagementThreadNames =
       new HashSet<>(Arrays.asList(CONFIG_NODE_REGION_MAINTAINER));
@@ -396,7 +413,9 @@ public enum ThreadName {
               DATANODE_SHUTDOWN_HOOK,
               UPGRADE_TASK,
               REGION_MIGRATE,
-              STORAGE_ENGINE_RECOVER_TRIGGER));
+              STORAGE_ENGINE_RECOVER_TRIGGER,
+              STORAGE_ENGINE_RESOURCE_RECOVER,
+              ROLLUP_VIEW_RECOMPUTE));
 
   private static final Set<ThreadName>[] threadNameSetList =
       new Set[] {
@@ -264,6 +264,7 @@ public class CommonConfig {
   private int pipeSourceAssignerDisruptorRingBufferSize = 128;
   private long pipeSourceAssignerDisruptorRingBufferEntrySizeInBytes = 72 * KB;
   private long pipeSourceMatcherCacheSize = 1024;
+  private long pipeSourceRealtimeSpillMaxSizeInBytes = 256 * MB;
 
   private int pipeConnectorHandshakeTimeoutMs = 10 * 1000; // 10 seconds
   private int pipeConnectorTransferTimeoutMs = 15 * 60 * 1000; // 15 minutes
@@ -306,6 +307,9 @@ public class CommonConfig {
 
   private int pipeReceiverReqDecompressedMaxLengthInBytes = 1073741824; // 1GB
   private boolean pipeReceiverLoadConversionEnabled = false;
+  private volatile boolean pipeReceiverParallelApplyEnabled = false;
+  private volatile int pipeReceiverParallelApplyMaxParallelism =
+      Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
   private volatile long pipePeriodicalLogMinIntervalSeconds = 60;
   private volatile long pipeLoggerCacheMaxSizeInBytes = 16 * MB;
 
@@ -331,6 +335,7 @@ public class CommonConfig {
       PipeRateAverage.FIVE_MINUTES;
   private volatile double pipeRemainingInsertNodeCountEMAAlpha = 0.1;
   private volatile double pipeTsFileScanParsingThreshold = 0.05;
+  private volatile boolean pipeTsFileChunkRewriteEnabled = true;
   private volatile double pipeDynamicMemoryHistoryWeight = 0.5;
   private volatile double pipeDynamicMemoryAdjustmentThreshold = 0.05;
   private volatile double pipeThresholdAllocationStrategyMaximumMemoryIncrementRatio = 0.1d;
@@ -476,6 +481,13 @@ public class CommonConfig {
   private int pathLogMaxSize = 100;
   private boolean restrictObjectLimit = false;
 
+  /**
+   * Whether to split the new DataPartitions of hot SeriesSlots across more DataRegionGroups. The
+   * DataNodes follow the value of the ConfigNode. The writes into a time partition shared by
+   * several DataRegionGroups are routed by device whatever the value is.
+   */
+  private boolean enableHotSeriesSlotSplit = false;
+
   CommonConfig() {
     // Empty constructor
   }
@@ -1049,6 +1061,20 @@ public class CommonConfig {
     logger.info("pipeSourceMatcherCacheSize is set to {}.", pipeSourceMatcherCacheSize);
   }
 
+  public long getPipeSourceRealtimeSpillMaxSizeInBytes() {
+    return pipeSourceRealtimeSpillMaxSizeInBytes;
+  }
+
+  public void setPipeSourceRealtimeSpillMaxSizeInBytes(long pipeSourceRealtimeSpillMaxSizeInBytes) {
+    if (this.pipeSourceRealtimeSpillMaxSizeInBytes == pipeSourceRealtimeSpillMaxSizeInBytes) {
+      return;
+    }
+    this.pipeSourceRealtimeSpillMaxSizeInBytes = pipeSourceRealtimeSpillMaxSizeInBytes;
+    logger.info(
+        "pipeSourceRealtimeSpillMaxSizeInBytes is set to {}.",
+        pipeSourceRealtimeSpillMaxSizeInBytes);
+  }
+
   public int getPipeConnectorHandshakeTimeoutMs() {
     return pipeConnectorHandshakeTimeoutMs;
   }
@@ -1628,6 +1654,33 @@ public class CommonConfig {
     logger.info("pipeReceiverConversionEnabled is set to {}.", pipeReceiverLoadConversionEnabled);
   }
 
+  public boolean isPipeReceiverParallelApplyEnabled() {
+    return pipeReceiverParallelApplyEnabled;
+  }
+
+  public void setPipeReceiverParallelApplyEnabled(boolean pipeReceiverParallelApplyEnabled) {
+    if (this.pipeReceiverParallelApplyEnabled == pipeReceiverParallelApplyEnabled) {
+      return;
+    }
+    this.pipeReceiverParallelApplyEnabled = pipeReceiverParallelApplyEnabled;
+    logger.info("pipeReceiverParallelApplyEnabled is set to {}.", pipeReceiverParallelApplyEnabled);
+  }
+
+  public int getPipeReceiverParallelApplyMaxParallelism() {
+    return pipeReceiverParallelApplyMaxParallelism;
+  }
+
+  public void setPipeReceiverParallelApplyMaxParallelism(
+      int pipeReceiverParallelApplyMaxParallelism) {
+    if (this.pipeReceiverParallelApplyMaxParallelism == pipeReceiverParallelApplyMaxParallelism) {
+      return;
+    }
+    this.pipeReceiverParallelApplyMaxParallelism = pipeReceiverParallelApplyMaxParallelism;
+    logger.info(
+        "pipeReceiverParallelApplyMaxParallelism is set to {}.",
+        pipeReceiverParallelApplyMaxParallelism);
+  }
+
   public long getPipePeriodicalLogMinIntervalSeconds() {
     return pipePeriodicalLogMinIntervalSeconds;
   }
@@ -1912,6 +1965,18 @@ public class CommonConfig {
     logger.info("pipeTsFileScanParsingThreshold is set to {}", pipeTsFileScanParsingThreshold);
   }
 
+  public boolean getPipeTsFileChunkRewriteEnabled() {
+    return pipeTsFileChunkRewriteEnabled;
+  }
+
+  public void setPipeTsFileChunkRewriteEnabled(boolean pipeTsFileChunkRewriteEnabled) {
+    if (this.pipeTsFileChunkRewriteEnabled == pipeTsFileChunkRewriteEnabled) {
+      return;
+    }
+    this.pipeTsFileChunkRewriteEnabled = pipeTsFileChunkRewriteEnabled;
+    logger.info("pipeTsFileChunkRewriteEnabled is set to {}", pipeTsFileChunkRewriteEnabled);
+  }
+
   public double getPipeDynamicMemoryHistoryWeight() {
     return pipeDynamicMemoryHistoryWeight;
   }
@@ -2750,4 +2815,12 @@ public class CommonConfig {
   public void setRestrictObjectLimit(boolean restrictObjectLimit) {
     this.restrictObjectLimit = restrictObjectLimit;
   }
+
+  public boolean isEnableHotSeriesSlotSplit() {
+    return enableHotSeriesSlotSplit;
+  }
+
+  public void setEnableHotSeriesSlotSplit(boolean enableHotSeriesSlotSplit) {
+    this.enableHotSeriesSlotSplit = enableHotSeriesSlotSplit;
+  }
 }
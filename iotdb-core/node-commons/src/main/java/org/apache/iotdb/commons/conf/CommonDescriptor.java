@@ -97,6 +97,12 @@ public class CommonDescriptor {
         Boolean.parseBoolean(
             properties.getProperty("enable_grant_option", String.valueOf("true"))));
 
+    config.setEnableHotSeriesSlotSplit(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_hot_series_slot_split",
+                String.valueOf(config.isEnableHotSeriesSlotSplit()))));
+
     String[] tierTTLStr = new String[config.getTierTTLInMs().length];
     for (int i = 0; i < tierTTLStr.length; ++i) {
       tierTTLStr[i] = String.valueOf(config.getTierTTLInMs()[i]);
@@ -480,6 +486,7 @@ public class CommonDescriptor {
     config.setDiskSpaceWarningThreshold(globalConfig.getDiskSpaceWarningThreshold());
     config.setEnableGrantOption(globalConfig.isEnableGrantOption());
     config.setRestrictObjectLimit(globalConfig.isRestrictObjectLimit());
+    config.setEnableHotSeriesSlotSplit(globalConfig.isEnableHotSeriesSlotSplit());
   }
 
   public void loadAuditConfig(TAuditConfig auditConfig) {
@@ -117,19 +117,19 @@ public class DataPartition extends Partition {
       return res;
     }
 
-    int previousRegionId = map.get(timePartitionSlotList.get(0)).get(0).regionId.id;
+    List<TRegionReplicaSet> previousRegions = map.get(timePartitionSlotList.get(0));
     int previousIndex = 0;
     res.add(new ArrayList<>());
     res.get(previousIndex).add(timePartitionSlotList.get(0));
 
     for (int i = 1, size = timePartitionSlotList.size(); i < size; i++) {
-      int currentRegionId = map.get(timePartitionSlotList.get(i)).get(0).regionId.id;
-      // region id of current time partition is same as previous
-      if (currentRegionId == previousRegionId) {
+      List<TRegionReplicaSet> currentRegions = map.get(timePartitionSlotList.get(i));
+      // regions of current time partition are same as previous
+      if (isSameRegions(currentRegions, previousRegions)) {
         res.get(previousIndex).add(timePartitionSlotList.get(i));
       } else {
         previousIndex++;
-        previousRegionId = currentRegionId;
+        previousRegions = currentRegions;
         res.add(new ArrayList<>());
         res.get(previousIndex).add(timePartitionSlotList.get(i));
       }
@@ -138,6 +138,19 @@ public class DataPartition extends Partition {
     return res;
   }
 
+  private static boolean isSameRegions(
+      List<TRegionReplicaSet> regions, List<TRegionReplicaSet> otherRegions) {
+    if (regions.size() != otherRegions.size()) {
+      return false;
+    }
+    for (int i = 0, size = regions.size(); i < size; i++) {
+      if (regions.get(i).getRegionId().getId() != otherRegions.get(i).getRegionId().getId()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   public List<TRegionReplicaSet> getDataRegionReplicaSetWithTimeFilter(
       final IDeviceID deviceId, final Filter timeFilter) {
     final String storageGroup = getDatabaseNameByDevice(deviceId);
@@ -212,12 +225,9 @@ public class DataPartition extends Partition {
     if (databaseName == null) {
       databaseName = getDatabaseNameByDevice(deviceID);
     }
-    // A list of data region replica sets will store data in a same time partition.
-    // We will insert data to the last set in the list.
-    // TODO return the latest dataRegionReplicaSet for each time partition
+    // A list of data region replica sets will store data in a same time partition, e.g. the
+    // DataPartitions of a hot SeriesSlot are split among several DataRegionGroups.
     final TSeriesPartitionSlot seriesPartitionSlot = calculateDeviceGroupId(deviceID);
-    // IMPORTANT TODO: (xingtanzjr) need to handle the situation for write operation that there are
-    // more than 1 Regions for one timeSlot
     final List<TRegionReplicaSet> dataRegionReplicaSets = new ArrayList<>();
     final Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TRegionReplicaSet>>>
         dataBasePartitionMap = dataPartitionMap.get(databaseName);
@@ -231,7 +241,7 @@ public class DataPartition extends Partition {
                 "targetRegionList is empty. device: %s, timeSlot: %s",
                 deviceID, timePartitionSlot));
       } else {
-        dataRegionReplicaSets.add(targetRegionList.get(targetRegionList.size() - 1));
+        dataRegionReplicaSets.add(selectRegionForWriting(deviceID, targetRegionList));
       }
     }
     return dataRegionReplicaSets;
@@ -239,9 +249,8 @@ public class DataPartition extends Partition {
 
   public TRegionReplicaSet getDataRegionReplicaSetForWriting(
       final IDeviceID deviceID, final TTimePartitionSlot timePartitionSlot, String databaseName) {
-    // A list of data region replica sets will store data in a same time partition.
-    // We will insert data to the last set in the list.
-    // TODO return the latest dataRegionReplicaSet for each time partition
+    // A list of data region replica sets will store data in a same time partition, e.g. the
+    // DataPartitions of a hot SeriesSlot are split among several DataRegionGroups.
     final TSeriesPartitionSlot seriesPartitionSlot = calculateDeviceGroupId(deviceID);
     if (databaseName == null) {
       databaseName = getDatabaseNameByDevice(deviceID);
@@ -256,9 +265,32 @@ public class DataPartition extends Partition {
     }
     final List<TRegionReplicaSet> regions =
         databasePartitionMap.get(seriesPartitionSlot).get(timePartitionSlot);
-    // IMPORTANT TODO: (xingtanzjr) need to handle the situation for write operation that there
-    // are more than 1 Regions for one timeSlot
-    return regions.get(0);
+    return selectRegionForWriting(deviceID, regions);
+  }
+
+  /**
+   * Select the DataRegion that the specified device writes into when a time partition is shared by
+   * several DataRegions. The selection only depends on the device, so that all the data of a device
+   * in one time partition is stored in the same DataRegion. It doesn't depend on whether the hot
+   * SeriesSlot split is enabled, since the time partitions split before it's disabled are still
+   * shared.
+   */
+  static TRegionReplicaSet selectRegionForWriting(
+      final IDeviceID deviceID, final List<TRegionReplicaSet> regions) {
+    if (regions.size() == 1) {
+      return regions.get(0);
+    }
+    // The hashCode is mixed so that its low bits are spread evenly among the DataRegions
+    return regions.get(Math.floorMod(mixHash(deviceID.hashCode()), regions.size()));
+  }
+
+  static int mixHash(int hash) {
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return hash;
   }
 
   public TRegionReplicaSet getDataRegionReplicaSetForWriting(
@@ -19,6 +19,7 @@
 package org.apache.iotdb.commons.partition;
 
 import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
 import org.apache.iotdb.common.rpc.thrift.TSeriesPartitionSlot;
 import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
 import org.apache.iotdb.commons.utils.ThriftCommonsSerDeUtils;
@@ -26,6 +27,7 @@ import org.apache.iotdb.confignode.rpc.thrift.TTimeSlotList;
 
 import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TProtocol;
+import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
 import org.apache.tsfile.utils.ReadWriteIOUtils;
 
 import java.io.IOException;
@@ -292,6 +294,95 @@ public class DataPartitionTable {
     }
   }
 
+  /**
+   * Serialize in the compact snapshot format, which is much smaller than {@link
+   * #serialize(OutputStream, TProtocol)} when there are lots of TimePartitionSlots. The distinct
+   * lists of RegionGroups are stored once in a dictionary, the SeriesPartitionSlots are delta
+   * encoded in ascending order, and the TimePartitionSlots of each SeriesPartitionSlot are
+   * run-length encoded, see {@link SeriesPartitionTable#serializeCompact(OutputStream, Map)}.
+   */
+  public void serializeCompact(OutputStream outputStream) throws IOException {
+    // Map<RegionGroup, dictionary index>
+    final Map<TConsensusGroupId, Integer> regionDict = new HashMap<>();
+    // Map<List<RegionGroup>, dictionary index>
+    final Map<List<TConsensusGroupId>, Integer> regionListDict = new HashMap<>();
+    final List<TSeriesPartitionSlot> seriesPartitionSlots = new ArrayList<>();
+    final List<SeriesPartitionTable> seriesPartitionTables = new ArrayList<>();
+    dataPartitionMap.entrySet().stream()
+        .sorted(Map.Entry.comparingByKey(Comparator.comparingInt(TSeriesPartitionSlot::getSlotId)))
+        .forEach(
+            seriesPartitionTableEntry -> {
+              seriesPartitionSlots.add(seriesPartitionTableEntry.getKey());
+              seriesPartitionTables.add(seriesPartitionTableEntry.getValue());
+            });
+    for (SeriesPartitionTable seriesPartitionTable : seriesPartitionTables) {
+      for (List<TConsensusGroupId> regions :
+          seriesPartitionTable.getSeriesPartitionMap().values()) {
+        if (!regionListDict.containsKey(regions)) {
+          regions.forEach(region -> regionDict.putIfAbsent(region, regionDict.size()));
+          regionListDict.put(new ArrayList<>(regions), regionListDict.size());
+        }
+      }
+    }
+
+    final TConsensusGroupId[] regions = new TConsensusGroupId[regionDict.size()];
+    regionDict.forEach((region, index) -> regions[index] = region);
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(regions.length, outputStream);
+    for (TConsensusGroupId region : regions) {
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(region.getType().getValue(), outputStream);
+      ReadWriteForEncodingUtils.writeVarInt(region.getId(), outputStream);
+    }
+    final List<List<TConsensusGroupId>> regionLists = new ArrayList<>(regionListDict.keySet());
+    regionLists.sort(Comparator.comparingInt(regionListDict::get));
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(regionLists.size(), outputStream);
+    for (List<TConsensusGroupId> regionList : regionLists) {
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(regionList.size(), outputStream);
+      for (TConsensusGroupId region : regionList) {
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(regionDict.get(region), outputStream);
+      }
+    }
+
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(seriesPartitionSlots.size(), outputStream);
+    int previousSlotId = 0;
+    for (int i = 0; i < seriesPartitionSlots.size(); i++) {
+      final int slotId = seriesPartitionSlots.get(i).getSlotId();
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(slotId - previousSlotId, outputStream);
+      previousSlotId = slotId;
+      seriesPartitionTables.get(i).serializeCompact(outputStream, regionListDict);
+    }
+  }
+
+  /** Only for Snapshot, deserialize from the compact snapshot format. */
+  public void deserializeCompact(InputStream inputStream) throws IOException {
+    final int regionNum = ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream);
+    final TConsensusGroupId[] regions = new TConsensusGroupId[regionNum];
+    for (int i = 0; i < regionNum; i++) {
+      final TConsensusGroupType type =
+          TConsensusGroupType.findByValue(
+              ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream));
+      regions[i] = new TConsensusGroupId(type, ReadWriteForEncodingUtils.readVarInt(inputStream));
+    }
+    final int regionListNum = ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream);
+    final List<List<TConsensusGroupId>> regionLists = new ArrayList<>(regionListNum);
+    for (int i = 0; i < regionListNum; i++) {
+      final int size = ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream);
+      final List<TConsensusGroupId> regionList = new ArrayList<>(size);
+      for (int j = 0; j < size; j++) {
+        regionList.add(regions[ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream)]);
+      }
+      regionLists.add(regionList);
+    }
+
+    final int seriesSlotNum = ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream);
+    int slotId = 0;
+    for (int i = 0; i < seriesSlotNum; i++) {
+      slotId += ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream);
+      final SeriesPartitionTable seriesPartitionTable = new SeriesPartitionTable();
+      seriesPartitionTable.deserializeCompact(inputStream, regionLists);
+      dataPartitionMap.put(new TSeriesPartitionSlot(slotId), seriesPartitionTable);
+    }
+  }
+
   /** Only for ConsensusRequest */
   public void deserialize(ByteBuffer buffer) {
     int length = buffer.getInt();
@@ -30,6 +30,7 @@ import org.apache.iotdb.confignode.rpc.thrift.TTimeSlotList;
 
 import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TProtocol;
+import org.apache.tsfile.utils.ReadWriteForEncodingUtils;
 import org.apache.tsfile.utils.ReadWriteIOUtils;
 
 import java.io.IOException;
@@ -283,6 +284,98 @@ public class SeriesPartitionTable {
     }
   }
 
+  /**
+   * Serialize in the compact snapshot format. The consecutive TimePartitionSlots that have the same
+   * stride and the same RegionGroups are encoded as one run: the delta of its start time to the end
+   * of the previous run, the stride, the number of slots and the dictionary index of the
+   * RegionGroups.
+   *
+   * @param regionListDict The dictionary index of each distinct list of RegionGroups
+   */
+  void serializeCompact(
+      OutputStream outputStream, Map<List<TConsensusGroupId>, Integer> regionListDict)
+      throws IOException {
+    final List<long[]> runs = new ArrayList<>();
+    long[] run = null;
+    List<TConsensusGroupId> runRegions = null;
+    long lastTime = 0;
+    for (Map.Entry<TTimePartitionSlot, List<TConsensusGroupId>> seriesPartitionEntry :
+        seriesPartitionMap.entrySet()) {
+      final long time = seriesPartitionEntry.getKey().getStartTime();
+      final List<TConsensusGroupId> regions = seriesPartitionEntry.getValue();
+      // run: {start, stride, count, regionListIndex}
+      if (run != null && regions.equals(runRegions) && (run[2] == 1 || time - lastTime == run[1])) {
+        if (run[2] == 1) {
+          run[1] = time - lastTime;
+        }
+        run[2]++;
+      } else {
+        run = new long[] {time, 0, 1, regionListDict.get(regions)};
+        runRegions = regions;
+        runs.add(run);
+      }
+      lastTime = time;
+    }
+
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(runs.size(), outputStream);
+    long previousEnd = 0;
+    for (long[] r : runs) {
+      writeVarLong(r[0] - previousEnd, outputStream);
+      writeVarLong(r[1], outputStream);
+      ReadWriteForEncodingUtils.writeUnsignedVarInt((int) r[2], outputStream);
+      ReadWriteForEncodingUtils.writeUnsignedVarInt((int) r[3], outputStream);
+      previousEnd = r[0] + (r[2] - 1) * r[1];
+    }
+  }
+
+  /**
+   * Deserialize from the compact snapshot format.
+   *
+   * @param regionListDict The distinct lists of RegionGroups indexed by dictionary index
+   */
+  void deserializeCompact(InputStream inputStream, List<List<TConsensusGroupId>> regionListDict)
+      throws IOException {
+    final int runNum = ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream);
+    long previousEnd = 0;
+    for (int i = 0; i < runNum; i++) {
+      final long start = previousEnd + readVarLong(inputStream);
+      final long stride = readVarLong(inputStream);
+      final int count = ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream);
+      final List<TConsensusGroupId> regions =
+          regionListDict.get(ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream));
+      for (int j = 0; j < count; j++) {
+        // Each TimePartitionSlot owns its list since new RegionGroups may be appended to it
+        seriesPartitionMap.put(new TTimePartitionSlot(start + j * stride), new Vector<>(regions));
+      }
+      previousEnd = start + (count - 1) * stride;
+    }
+  }
+
+  private static void writeVarLong(long value, OutputStream outputStream) throws IOException {
+    // ZigZag encoding keeps the small negative deltas short
+    long zigZag = (value << 1) ^ (value >> 63);
+    while ((zigZag & ~0x7FL) != 0) {
+      outputStream.write((int) ((zigZag & 0x7F) | 0x80));
+      zigZag >>>= 7;
+    }
+    outputStream.write((int) zigZag);
+  }
+
+  private static long readVarLong(InputStream inputStream) throws IOException {
+    long zigZag = 0;
+    int shift = 0;
+    int b;
+    do {
+      b = inputStream.read();
+      if (b < 0) {
+        throw new IOException("Unexpected end of stream when reading var long");
+      }
+      zigZag |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return (zigZag >>> 1) ^ -(zigZag & 1);
+  }
+
   /** Only for ConsensusRequest. */
   public void deserialize(ByteBuffer buffer) {
     int timePartitionSlotNum = buffer.getInt();
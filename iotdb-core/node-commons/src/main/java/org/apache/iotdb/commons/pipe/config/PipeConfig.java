@@ -165,6 +165,10 @@ public class PipeConfig {
     return COMMON_CONFIG.getPipeSourceMatcherCacheSize();
   }
 
+  public long getPipeSourceRealtimeSpillMaxSizeInBytes() {
+    return COMMON_CONFIG.getPipeSourceRealtimeSpillMaxSizeInBytes();
+  }
+
   /////////////////////////////// Connector ///////////////////////////////
 
   public int getPipeConnectorHandshakeTimeoutMs() {
@@ -255,6 +259,10 @@ public class PipeConfig {
     return COMMON_CONFIG.getPipeTsFileScanParsingThreshold();
   }
 
+  public boolean getPipeTsFileChunkRewriteEnabled() {
+    return COMMON_CONFIG.getPipeTsFileChunkRewriteEnabled();
+  }
+
   public double getPipeDynamicMemoryHistoryWeight() {
     return COMMON_CONFIG.getPipeDynamicMemoryHistoryWeight();
   }
@@ -341,6 +349,14 @@ public class PipeConfig {
     return COMMON_CONFIG.isPipeReceiverLoadConversionEnabled();
   }
 
+  public boolean isPipeReceiverParallelApplyEnabled() {
+    return COMMON_CONFIG.isPipeReceiverParallelApplyEnabled();
+  }
+
+  public int getPipeReceiverParallelApplyMaxParallelism() {
+    return COMMON_CONFIG.getPipeReceiverParallelApplyMaxParallelism();
+  }
+
   public long getPipePeriodicalLogMinIntervalSeconds() {
     return COMMON_CONFIG.getPipePeriodicalLogMinIntervalSeconds();
   }
@@ -502,6 +518,8 @@ public class PipeConfig {
         "PipeSourceAssignerDisruptorRingBufferEntrySizeInBytes: {}",
         getPipeSourceAssignerDisruptorRingBufferEntrySizeInBytes());
     LOGGER.info("PipeSourceMatcherCacheSize: {}", getPipeSourceMatcherCacheSize());
+    LOGGER.info(
+        "PipeSourceRealtimeSpillMaxSizeInBytes: {}", getPipeSourceRealtimeSpillMaxSizeInBytes());
 
     LOGGER.info("PipeConnectorHandshakeTimeoutMs: {}", getPipeConnectorHandshakeTimeoutMs());
     LOGGER.info("PipeConnectorTransferTimeoutMs: {}", getPipeConnectorTransferTimeoutMs());
@@ -528,6 +546,7 @@ public class PipeConfig {
     LOGGER.info(
         "PipePipeRemainingInsertEventCountAverage: {}", getPipeRemainingInsertNodeCountEMAAlpha());
     LOGGER.info("PipeTsFileScanParsingThreshold(): {}", getPipeTsFileScanParsingThreshold());
+    LOGGER.info("PipeTsFileChunkRewriteEnabled: {}", getPipeTsFileChunkRewriteEnabled());
     LOGGER.info("PipeTransferTsFileSync: {}", isTransferTsFileSync());
     LOGGER.info(
         "PipeCheckAllSyncClientLiveTimeIntervalMs: {}",
@@ -604,6 +623,10 @@ public class PipeConfig {
         "PipeReceiverReqDecompressedMaxLengthInBytes: {}",
         getPipeReceiverReqDecompressedMaxLengthInBytes());
     LOGGER.info("PipeReceiverLoadConversionEnabled: {}", isPipeReceiverLoadConversionEnabled());
+    LOGGER.info("PipeReceiverParallelApplyEnabled: {}", isPipeReceiverParallelApplyEnabled());
+    LOGGER.info(
+        "PipeReceiverParallelApplyMaxParallelism: {}",
+        getPipeReceiverParallelApplyMaxParallelism());
     LOGGER.info(
         "PipePeriodicalLogMinIntervalSeconds: {}", getPipePeriodicalLogMinIntervalSeconds());
     LOGGER.info(
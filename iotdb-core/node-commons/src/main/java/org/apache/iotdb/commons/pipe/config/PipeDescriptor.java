@@ -333,6 +333,11 @@ public class PipeDescriptor {
                     properties.getProperty(
                         "pipe_extractor_matcher_cache_size",
                         String.valueOf(config.getPipeSourceMatcherCacheSize())))));
+    config.setPipeSourceRealtimeSpillMaxSizeInBytes(
+        Long.parseLong(
+            properties.getProperty(
+                "pipe_source_realtime_spill_max_size_in_bytes",
+                String.valueOf(config.getPipeSourceRealtimeSpillMaxSizeInBytes()))));
 
     config.setPipeConnectorHandshakeTimeoutMs(
         Long.parseLong(
@@ -437,6 +442,16 @@ public class PipeDescriptor {
             properties.getProperty(
                 "pipe_receiver_load_conversion_enabled",
                 String.valueOf(config.isPipeReceiverLoadConversionEnabled()))));
+    config.setPipeReceiverParallelApplyEnabled(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "pipe_receiver_parallel_apply_enabled",
+                String.valueOf(config.isPipeReceiverParallelApplyEnabled()))));
+    config.setPipeReceiverParallelApplyMaxParallelism(
+        Integer.parseInt(
+            properties.getProperty(
+                "pipe_receiver_parallel_apply_max_parallelism",
+                String.valueOf(config.getPipeReceiverParallelApplyMaxParallelism()))));
     config.setPipePeriodicalLogMinIntervalSeconds(
         Long.parseLong(
             properties.getProperty(
@@ -514,6 +529,11 @@ public class PipeDescriptor {
             properties.getProperty(
                 "pipe_tsfile_scan_parsing_threshold",
                 String.valueOf(config.getPipeTsFileScanParsingThreshold()))));
+    config.setPipeTsFileChunkRewriteEnabled(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "pipe_tsfile_chunk_rewrite_enabled",
+                String.valueOf(config.getPipeTsFileChunkRewriteEnabled()))));
 
     config.setPipeDynamicMemoryHistoryWeight(
         Double.parseDouble(
@@ -79,6 +79,30 @@ public class PipeSinkConstant {
   public static final long CONNECTOR_IOTDB_PLAIN_BATCH_SIZE_DEFAULT_VALUE = MB;
   public static final long CONNECTOR_IOTDB_TS_FILE_BATCH_SIZE_DEFAULT_VALUE = 16 * MB;
 
+  public static final String CONNECTOR_IOTDB_BATCH_ADAPTIVE_ENABLE_KEY =
+      "connector.batch.adaptive.enable";
+  public static final String SINK_IOTDB_BATCH_ADAPTIVE_ENABLE_KEY = "sink.batch.adaptive.enable";
+  public static final boolean CONNECTOR_IOTDB_BATCH_ADAPTIVE_ENABLE_DEFAULT_VALUE = false;
+
+  public static final String CONNECTOR_IOTDB_BATCH_ADAPTIVE_LATENCY_SLO_MS_KEY =
+      "connector.batch.adaptive.latency-slo-ms";
+  public static final String SINK_IOTDB_BATCH_ADAPTIVE_LATENCY_SLO_MS_KEY =
+      "sink.batch.adaptive.latency-slo-ms";
+  public static final long CONNECTOR_IOTDB_BATCH_ADAPTIVE_LATENCY_SLO_MS_DEFAULT_VALUE = 1000;
+
+  public static final String CONNECTOR_IOTDB_BATCH_ADAPTIVE_MAX_SIZE_KEY =
+      "connector.batch.adaptive.max-size-bytes";
+  public static final String SINK_IOTDB_BATCH_ADAPTIVE_MAX_SIZE_KEY =
+      "sink.batch.adaptive.max-size-bytes";
+  public static final long CONNECTOR_IOTDB_BATCH_ADAPTIVE_MAX_SIZE_DEFAULT_VALUE = 16 * MB;
+
+  public static final String CONNECTOR_IOTDB_BATCH_ADAPTIVE_MAX_CONCURRENT_TRANSFERS_KEY =
+      "connector.batch.adaptive.max-concurrent-transfers";
+  public static final String SINK_IOTDB_BATCH_ADAPTIVE_MAX_CONCURRENT_TRANSFERS_KEY =
+      "sink.batch.adaptive.max-concurrent-transfers";
+  public static final int CONNECTOR_IOTDB_BATCH_ADAPTIVE_MAX_CONCURRENT_TRANSFERS_DEFAULT_VALUE =
+      16;
+
   public static final String CONNECTOR_IOTDB_USER_ID = "connector.user-id";
   public static final String SINK_IOTDB_USER_ID = "sink.user-id";
 
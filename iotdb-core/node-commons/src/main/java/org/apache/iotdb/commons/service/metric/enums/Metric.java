@@ -33,6 +33,7 @@ public enum Metric {
   REGION_NUM("region_num"),
   REGION_NUM_IN_DATA_NODE("region_num_in_data_node"),
   REGION_GROUP_LEADER_NUM_IN_DATA_NODE("region_group_leader_num_in_data_node"),
+  LEADER_LOAD_IMBALANCE("leader_load_imbalance"),
   SCATTER_WIDTH_NUM_IN_DATA_NODE("scatter_width_num_in_data_node"),
   SERIES_SLOT_NUM_IN_DATABASE("series_slot_num_in_database"),
   TIME_SLOT_NUM_IN_DATABASE("time_slot_num_in_database"),
@@ -74,6 +75,7 @@ public enum Metric {
   QUEUE("queue"),
   FLUSHING_MEM_TABLE_STATUS("flushing_mem_table_status"),
   DATA_REGION_MEM_COST("data_region_mem_cost"),
+  STORAGE_ENGINE_RECOVER_COST("storage_engine_recover_cost"),
   WAL_NODE_NUM("wal_node_num"),
   WAL_NODE_INFO("wal_node_info"),
   WAL_BUFFER("wal_buffer"),
@@ -108,6 +110,7 @@ public enum Metric {
   CACHE("cache"),
   CACHE_HIT_RATE("cache_hit"),
   CACHE_ENTRIES_NUM("cache_entries_num"),
+  CACHE_WARMUP("cache_warmup"),
   QUANTITY("quantity"),
   LEADER_QUANTITY("leader_quantity"),
   SCHEMA_REGION("schema_region"),
@@ -156,6 +159,9 @@ public enum Metric {
   PIPE_TSFILE_BATCH_TIME_COST("pipe_tsfile_batch_time_cost"),
   PIPE_CONNECTOR_BATCH_SIZE("pipe_connector_batch_size"),
   PIPE_PENDING_HANDLERS_SIZE("pipe_pending_handlers_size"),
+  PIPE_ADAPTIVE_BATCH_SIZE("pipe_adaptive_batch_size"),
+  PIPE_ADAPTIVE_BATCH_LINGER_TIME("pipe_adaptive_batch_linger_time"),
+  PIPE_ADAPTIVE_CONCURRENT_TRANSFERS("pipe_adaptive_concurrent_transfers"),
   PIPE_TOTAL_UNCOMPRESSED_SIZE("pipe_total_uncompressed_size"),
   PIPE_TOTAL_COMPRESSED_SIZE("pipe_total_compressed_size"),
   PIPE_COMPRESSION_TIME("pipe_compression_time"),
@@ -205,6 +211,8 @@ public enum Metric {
   SUBSCRIPTION_UNCOMMITTED_EVENT_COUNT("subscription_uncommitted_event_count"),
   SUBSCRIPTION_CURRENT_COMMIT_ID("subscription_current_commit_id"),
   SUBSCRIPTION_EVENT_TRANSFER("subscription_event_transfer"),
+  SUBSCRIPTION_TSFILE_BYTES_SERVED("subscription_tsfile_bytes_served"),
+  SUBSCRIPTION_TSFILE_BYTES_READ("subscription_tsfile_bytes_read"),
   // load related
   ACTIVE_LOADING_FILES_NUMBER("active_loading_files_number"),
   ACTIVE_LOADING_FILES_SIZE("active_loading_files_size"),
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.commons.concurrent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingleFlightTest {
+
+  @Test(timeout = 10000)
+  public void testConcurrentLoadsCollapsed() throws Exception {
+    final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+    final AtomicInteger loadCount = new AtomicInteger(0);
+    final CountDownLatch loading = new CountDownLatch(1);
+    final CountDownLatch loaded = new CountDownLatch(1);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final Future<Integer> leader =
+          executor.submit(
+              () ->
+                  singleFlight.execute(
+                      "key",
+                      () -> {
+                        loading.countDown();
+                        try {
+                          loaded.await();
+                        } catch (final InterruptedException e) {
+                          Thread.currentThread().interrupt();
+                        }
+                        return loadCount.incrementAndGet();
+                      }));
+      Assert.assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+      final List<Future<Integer>> followers = new ArrayList<>();
+      for (int i = 0; i < 7; ++i) {
+        followers.add(
+            executor.submit(() -> singleFlight.execute("key", loadCount::incrementAndGet)));
+      }
+      while (singleFlight.getInFlightCount() != 1) {
+        Thread.sleep(10);
+      }
+      // Let the followers arrive before the load is done
+      Thread.sleep(200);
+      loaded.countDown();
+
+      Assert.assertEquals(1, (int) leader.get());
+      for (final Future<Integer> follower : followers) {
+        Assert.assertEquals(1, (int) follower.get());
+      }
+      Assert.assertEquals(1, loadCount.get());
+      Assert.assertEquals(0, singleFlight.getInFlightCount());
+
+      // The result is not cached
+      Assert.assertEquals(2, (int) singleFlight.execute("key", loadCount::incrementAndGet));
+      Assert.assertEquals(3, (int) singleFlight.execute("another", loadCount::incrementAndGet));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testExceptionPropagated() {
+    final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+    try {
+      singleFlight.execute(
+          "key",
+          () -> {
+            throw new IllegalStateException("load failed");
+          });
+      Assert.fail();
+    } catch (final IllegalStateException e) {
+      Assert.assertEquals("load failed", e.getMessage());
+    }
+    Assert.assertEquals(0, singleFlight.getInFlightCount());
+    Assert.assertEquals(1, (int) singleFlight.execute("key", () -> 1));
+  }
+}
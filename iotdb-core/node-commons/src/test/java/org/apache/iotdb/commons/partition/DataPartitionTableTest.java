@@ -121,4 +121,56 @@ public class DataPartitionTableTest {
     table1.deserialize(inputStream, protocol);
     Assert.assertEquals(table0, table1);
   }
+
+  @Test
+  public void compactSnapshotSerDeTest() throws TException, IOException {
+    // Create DataPartitionTable with a year of daily TimePartitionSlots, a few of which are
+    // allocated to another DataRegion or shared by two DataRegions
+    final long interval = 86_400_000L;
+    Map<TSeriesPartitionSlot, SeriesPartitionTable> dataPartitionMap = new HashMap<>();
+    for (int i = 0; i < 100; i++) {
+      TSeriesPartitionSlot seriesPartitionSlot = new TSeriesPartitionSlot(i * 3);
+      Map<TTimePartitionSlot, List<TConsensusGroupId>> seriesPartitionMap = new HashMap<>();
+      for (int j = 0; j < 365; j++) {
+        if (j % 50 == 49) {
+          // Skip some TimePartitionSlots
+          continue;
+        }
+        List<TConsensusGroupId> consensusGroupIds = new ArrayList<>();
+        consensusGroupIds.add(
+            new TConsensusGroupId(TConsensusGroupType.DataRegion, j < 200 ? i % 8 : (i + 1) % 8));
+        if (j % 100 == 0) {
+          consensusGroupIds.add(new TConsensusGroupId(TConsensusGroupType.DataRegion, 8));
+        }
+        seriesPartitionMap.put(new TTimePartitionSlot(-interval + j * interval), consensusGroupIds);
+      }
+      dataPartitionMap.put(seriesPartitionSlot, new SeriesPartitionTable(seriesPartitionMap));
+    }
+    DataPartitionTable table0 = new DataPartitionTable(dataPartitionMap);
+
+    // Serialize in the legacy format
+    PublicBAOS legacyOutputStream = new PublicBAOS();
+    table0.serialize(
+        legacyOutputStream, new TBinaryProtocol(new TIOStreamTransport(legacyOutputStream)));
+
+    // Serialize in the compact format and deserialize
+    PublicBAOS compactOutputStream = new PublicBAOS();
+    table0.serializeCompact(compactOutputStream);
+    DataPartitionTable table1 = new DataPartitionTable();
+    table1.deserializeCompact(
+        new ByteArrayInputStream(compactOutputStream.getBuf(), 0, compactOutputStream.size()));
+    Assert.assertEquals(table0, table1);
+
+    // The compact format is much smaller
+    Assert.assertTrue(compactOutputStream.size() * 10 < legacyOutputStream.size());
+
+    // The deserialized TimePartitionSlots don't share the list of RegionGroups
+    SeriesPartitionTable seriesPartitionTable =
+        table1.getDataPartitionMap().get(new TSeriesPartitionSlot(0));
+    seriesPartitionTable.putDataPartition(
+        new TTimePartitionSlot(0), new TConsensusGroupId(TConsensusGroupType.DataRegion, 9));
+    Assert.assertEquals(
+        1,
+        seriesPartitionTable.getSeriesPartitionMap().get(new TTimePartitionSlot(interval)).size());
+  }
 }
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.commons.partition;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.common.rpc.thrift.TSeriesPartitionSlot;
+import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
+import org.apache.iotdb.commons.conf.CommonConfig;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class DataPartitionTest {
+
+  private static final CommonConfig COMMON_CONFIG = CommonDescriptor.getInstance().getConfig();
+
+  private static final String DATABASE = "root.sg";
+  private static final String SERIES_SLOT_EXECUTOR =
+      "org.apache.iotdb.commons.partition.executor.hash.BKDRHashExecutor";
+  private static final int SERIES_SLOT_NUM = 1000;
+  private static final int DEVICE_NUM = 300;
+
+  private static final TTimePartitionSlot SHARED_TIME_SLOT = new TTimePartitionSlot(0);
+  private static final TTimePartitionSlot SINGLE_TIME_SLOT = new TTimePartitionSlot(100);
+
+  private final List<TRegionReplicaSet> sharedRegions =
+      Arrays.asList(newRegion(1), newRegion(2), newRegion(3));
+
+  private final List<IDeviceID> devices = new ArrayList<>();
+  private DataPartition dataPartition;
+
+  private boolean originalEnableHotSeriesSlotSplit;
+
+  @Before
+  public void setUp() {
+    originalEnableHotSeriesSlotSplit = COMMON_CONFIG.isEnableHotSeriesSlotSplit();
+
+    final Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TRegionReplicaSet>>> slotMap =
+        new HashMap<>();
+    dataPartition =
+        new DataPartition(
+            Collections.singletonMap(DATABASE, slotMap), SERIES_SLOT_EXECUTOR, SERIES_SLOT_NUM);
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      final IDeviceID deviceID = IDeviceID.Factory.DEFAULT_FACTORY.create(DATABASE + ".d" + i);
+      devices.add(deviceID);
+      final Map<TTimePartitionSlot, List<TRegionReplicaSet>> timeSlotMap = new HashMap<>();
+      // the time partition is shared by several regions after the SeriesSlot becomes hot
+      timeSlotMap.put(SHARED_TIME_SLOT, sharedRegions);
+      timeSlotMap.put(SINGLE_TIME_SLOT, Collections.singletonList(sharedRegions.get(0)));
+      slotMap.put(dataPartition.calculateDeviceGroupId(deviceID), timeSlotMap);
+    }
+  }
+
+  @After
+  public void tearDown() {
+    COMMON_CONFIG.setEnableHotSeriesSlotSplit(originalEnableHotSeriesSlotSplit);
+  }
+
+  @Test
+  public void testWriteToRegionSelectedByDevice() {
+    COMMON_CONFIG.setEnableHotSeriesSlotSplit(true);
+    checkWriteToRegionSelectedByDevice();
+  }
+
+  @Test
+  public void testWriteToRegionSelectedByDeviceAfterSplitDisabled() {
+    // the time partitions split before are still shared by several regions
+    COMMON_CONFIG.setEnableHotSeriesSlotSplit(false);
+    checkWriteToRegionSelectedByDevice();
+  }
+
+  private void checkWriteToRegionSelectedByDevice() {
+    final Set<TRegionReplicaSet> selectedRegions = new HashSet<>();
+    for (final IDeviceID deviceID : devices) {
+      final TRegionReplicaSet region =
+          dataPartition.getDataRegionReplicaSetForWriting(deviceID, SHARED_TIME_SLOT, DATABASE);
+      // all the data of a device in a time partition is written into the same region
+      Assert.assertEquals(
+          region,
+          dataPartition.getDataRegionReplicaSetForWriting(deviceID, SHARED_TIME_SLOT, DATABASE));
+      Assert.assertEquals(
+          Arrays.asList(region, sharedRegions.get(0)),
+          dataPartition.getDataRegionReplicaSetForWriting(
+              deviceID, Arrays.asList(SHARED_TIME_SLOT, SINGLE_TIME_SLOT), DATABASE));
+      selectedRegions.add(region);
+    }
+    // the devices are spread among all the regions
+    Assert.assertEquals(new HashSet<>(sharedRegions), selectedRegions);
+  }
+
+  @Test
+  public void testSelectRegionForWriting() {
+    final IDeviceID deviceID = devices.get(0);
+    Assert.assertEquals(
+        sharedRegions.get(1),
+        DataPartition.selectRegionForWriting(
+            deviceID, Collections.singletonList(sharedRegions.get(1))));
+    Assert.assertEquals(
+        sharedRegions.get(
+            Math.floorMod(DataPartition.mixHash(deviceID.hashCode()), sharedRegions.size())),
+        DataPartition.selectRegionForWriting(deviceID, sharedRegions));
+  }
+
+  @Test
+  public void testMixHashSpreadsLowBits() {
+    final int regionNum = 3;
+    final Set<Integer> rawIndexes = new HashSet<>();
+    final Set<Integer> mixedIndexes = new HashSet<>();
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      // hash codes sharing the same remainder are all mapped to one region without mixing
+      final int hash = i * regionNum;
+      rawIndexes.add(Math.floorMod(hash, regionNum));
+      mixedIndexes.add(Math.floorMod(DataPartition.mixHash(hash), regionNum));
+      Assert.assertEquals(DataPartition.mixHash(hash), DataPartition.mixHash(hash));
+    }
+    Assert.assertEquals(1, rawIndexes.size());
+    Assert.assertEquals(regionNum, mixedIndexes.size());
+  }
+
+  @Test
+  public void testTimePartitionRange() {
+    final IDeviceID deviceID = devices.get(0);
+
+    // the time partitions are in the same range only if they have the same regions
+    Assert.assertEquals(
+        Arrays.asList(
+            Collections.singletonList(SHARED_TIME_SLOT),
+            Collections.singletonList(SINGLE_TIME_SLOT)),
+        dataPartition.getTimePartitionRange(deviceID, null));
+  }
+
+  private static TRegionReplicaSet newRegion(final int regionId) {
+    return new TRegionReplicaSet(
+        new TConsensusGroupId(TConsensusGroupType.DataRegion, regionId), new ArrayList<>());
+  }
+}
@@ -51,6 +51,7 @@ struct TGlobalConfig {
   12: optional bool isEnterprise
   13: optional i64 timePartitionOrigin
   14: optional bool restrictObjectLimit
+  15: optional bool enableHotSeriesSlotSplit
 }
 
 struct TRatisConfig {
@@ -41,6 +41,17 @@ struct TSyncLogEntriesRes {
   2: optional i64 receiverMemSize
 }
 
+// The batches of several consensus groups sent to the same peer in one RPC, each of them is
+// executed as a separate TSyncLogEntriesReq
+struct TSyncMultiRegionLogEntriesReq {
+  1: required list<TSyncLogEntriesReq> reqs
+}
+
+// The i-th response corresponds to the i-th request of TSyncMultiRegionLogEntriesReq
+struct TSyncMultiRegionLogEntriesRes {
+  1: required list<TSyncLogEntriesRes> resList
+}
+
 struct TInactivatePeerReq {
   1: required common.TConsensusGroupId consensusGroupId
   2: optional bool forDeletionPurpose
@@ -85,6 +96,8 @@ struct TSendSnapshotFragmentReq {
   4: required i64 offset
   5: required i64 chunkLength
   6: required binary fileChunk
+  // CRC32 of fileChunk, verified by the receiver before writing it
+  7: optional i64 checksum
 }
 
 struct TWaitSyncLogCompleteReq {
@@ -129,6 +142,7 @@ struct TCleanupTransferredSnapshotRes {
 
 service IoTConsensusIService {
   TSyncLogEntriesRes syncLogEntries(TSyncLogEntriesReq req)
+  TSyncMultiRegionLogEntriesRes syncMultiRegionLogEntries(TSyncMultiRegionLogEntriesReq req)
   TInactivatePeerRes inactivatePeer(TInactivatePeerReq req)
   TActivatePeerRes activatePeer(TActivatePeerReq req)
   TBuildSyncLogChannelRes buildSyncLogChannel(TBuildSyncLogChannelReq req)
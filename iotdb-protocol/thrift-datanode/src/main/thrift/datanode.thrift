@@ -289,6 +289,9 @@ struct TDataNodeHeartbeatReq {
   // Using 8 bit to represent 8 bool
   // lowest bit: enable separation of admin powers
   16: optional byte booleanVariables1
+  // The statisticsVersion of the last heartbeat response applied by the ConfigNode,
+  // unset if the ConfigNode requires the full statistics
+  17: optional i64 statisticsVersion
 }
 
 struct TDataNodeActivation {
@@ -316,6 +319,16 @@ struct TDataNodeHeartbeatResp {
   15: optional list<i64> pipeRemainingEventCountList
   16: optional list<double> pipeRemainingTimeList
   17: optional map<i32, i64> dataRegionRawDataSize
+  // Map<DataRegionId, Map<SeriesSlotId, points written by the leader since the last sampling>>
+  // Only the hottest SeriesSlots of each DataRegion are reported
+  18: optional map<i32, map<i32, i64>> dataRegionSeriesSlotWritePoints
+  // The version of the region statistics(judgedLeaders and consensusLogicalTimeMap) in this
+  // response, dataRegionRawDataSize is always full
+  19: optional i64 statisticsVersion
+  // If set, the region statistics only contain the entries changed since this version
+  20: optional i64 statisticsBaseVersion
+  // The Regions removed from the DataNode since statisticsBaseVersion
+  21: optional list<common.TConsensusGroupId> removedStatisticsRegions
 }
 
 struct TPipeHeartbeatReq {